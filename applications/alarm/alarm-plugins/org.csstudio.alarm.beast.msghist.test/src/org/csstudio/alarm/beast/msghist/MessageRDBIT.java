@@ -10,7 +10,10 @@ package org.csstudio.alarm.beast.msghist;
 import static org.junit.Assert.assertTrue;
 
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.List;
 
 import org.csstudio.alarm.beast.msghist.model.Message;
 import org.csstudio.alarm.beast.msghist.model.MessagePropertyFilter;
@@ -53,6 +56,9 @@ public class MessageRDBIT
     /** Days to read in this test */
     private static final int DAYS_TO_READ = 1;
 
+    /** Messages per page */
+    private static final int PAGE_SIZE = 1000;
+
     /** Basic read with filter */
     @Test
     public void testLogRDB() throws Exception
@@ -72,10 +78,24 @@ public class MessageRDBIT
         };
 
         final BenchmarkTimer timer = new BenchmarkTimer();
-        final Message messages[] = log_rdb.getMessages(
-              new NullProgressMonitor(), start, end, filters, 50000,  DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        final List<Message> messages = new ArrayList<>();
+        int before_id = Integer.MAX_VALUE;
+        Message page[];
+        do
+        {
+            page = log_rdb.getOlderMessages(new NullProgressMonitor(), start, end, filters,
+                                            before_id, PAGE_SIZE, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            messages.addAll(Arrays.asList(page));
+            if (page.length > 0)
+                before_id = page[page.length-1].getId();
+        }
+        while (page.length == PAGE_SIZE  &&  messages.size() < 50000);
         timer.stop();
 
+        // Pages continue with older messages
+        for (int i=1; i<messages.size(); ++i)
+            assertTrue("Newest first", messages.get(i).getId() < messages.get(i-1).getId());
+
         for (Message message : messages)
         {
             System.out.println(message);
@@ -83,7 +103,7 @@ public class MessageRDBIT
         }
 
         System.out.format("Read %d messages; %.1f msg/second\n",
-                messages.length, messages.length / timer.getSeconds());
-        assertTrue("Got some messages", messages.length > 0);
+                messages.size(), messages.size() / timer.getSeconds());
+        assertTrue("Got some messages", messages.size() > 0);
     }
 }
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.msghist.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.HashMap;
+
+import org.csstudio.apputil.time.SecondsParser;
+import org.junit.Test;
+
+/** JUnit test of how the {@link Model} merges pages of messages
+ *
+ *  <p>No database needed.
+ */
+@SuppressWarnings("nls")
+public class ModelUnitTest
+{
+    private static final long START = 1500000000000L;
+
+    /** @param id Message ID, also used as the time in seconds after START
+     *  @return Message
+     */
+    private static Message message(final int id)
+    {
+        return new Message(0, id, new Date(START + id * 1000L), new HashMap<>());
+    }
+
+    /** @param ids Message IDs, newest first
+     *  @return Messages
+     */
+    private static Message[] messages(final int... ids)
+    {
+        final Message[] messages = new Message[ids.length];
+        for (int i=0; i<ids.length; ++i)
+            messages[i] = message(ids[i]);
+        return messages;
+    }
+
+    private static Model createModel(final int max_messages) throws Exception
+    {
+        return new Model("", "", "", "", max_messages, DateTimeFormatter.ISO_LOCAL_DATE_TIME, null);
+    }
+
+    /** Check IDs and sequence numbers of the model's messages */
+    private static void assertMessages(final Model model, final int... ids)
+    {
+        final Message[] messages = model.getMessages();
+        assertEquals(ids.length, messages.length);
+        for (int i=0; i<ids.length; ++i)
+        {
+            assertEquals(ids[i], messages[i].getId());
+            assertEquals(i + 1, messages[i].getSequence());
+        }
+    }
+
+    private static String delta(final double seconds)
+    {
+        return SecondsParser.formatSeconds(seconds);
+    }
+
+    @Test
+    public void testReplace() throws Exception
+    {
+        final Model model = createModel(100);
+        // Full page, there may be more messages
+        assertTrue(model.mergeMessages(Model.Update.REPLACE, new Date(START), messages(30, 20, 10), 3));
+        assertMessages(model, 30, 20, 10);
+        assertTrue(model.hasMoreMessages());
+
+        // Partial page replaces all messages
+        assertTrue(model.mergeMessages(Model.Update.REPLACE, new Date(START), messages(50, 40), 3));
+        assertMessages(model, 50, 40);
+        assertFalse(model.hasMoreMessages());
+    }
+
+    @Test
+    public void testOlder() throws Exception
+    {
+        final Model model = createModel(100);
+        model.mergeMessages(Model.Update.REPLACE, new Date(START), messages(50, 40, 30), 3);
+
+        // Older page is appended and numbered after the current messages
+        final Message[] older = messages(25, 20);
+        assertTrue(model.mergeMessages(Model.Update.OLDER, new Date(START), older, 2));
+        assertMessages(model, 50, 40, 30, 25, 20);
+        assertSame(older[0], model.getMessages()[3]);
+        assertTrue(model.hasMoreMessages());
+
+        // Last message of the previous page now has a delta to the first older message
+        assertEquals(delta(5.0), model.getMessages()[2].getProperty(Message.DELTA));
+        assertNull(model.getMessages()[3].getProperty(Message.DELTA));
+
+        // Partial page ends the time range
+        assertTrue(model.mergeMessages(Model.Update.OLDER, new Date(START), messages(10), 2));
+        assertMessages(model, 50, 40, 30, 25, 20, 10);
+        assertFalse(model.hasMoreMessages());
+    }
+
+    @Test
+    public void testNewer() throws Exception
+    {
+        final Model model = createModel(100);
+        model.mergeMessages(Model.Update.REPLACE, new Date(START), messages(30, 20, 10), 10);
+
+        // Newer messages are added on top, all messages are numbered again
+        assertTrue(model.mergeMessages(Model.Update.NEWER, new Date(START), messages(45, 42), 100));
+        assertMessages(model, 45, 42, 30, 20, 10);
+        assertEquals(delta(12.0), model.getMessages()[1].getProperty(Message.DELTA));
+        assertFalse(model.hasMoreMessages());
+
+        // Nothing new
+        assertTrue(model.mergeMessages(Model.Update.NEWER, new Date(START), messages(), 100));
+        assertMessages(model, 45, 42, 30, 20, 10);
+    }
+
+    @Test
+    public void testNewerCutAtStart() throws Exception
+    {
+        final Model model = createModel(100);
+        model.mergeMessages(Model.Update.REPLACE, new Date(START), messages(30, 20, 10), 3);
+        assertTrue(model.hasMoreMessages());
+
+        // Start time moved on, older messages are removed
+        assertTrue(model.mergeMessages(Model.Update.NEWER, new Date(START + 20000), messages(40), 100));
+        assertMessages(model, 40, 30, 20);
+        assertFalse(model.hasMoreMessages());
+    }
+
+    @Test
+    public void testNewerLimit() throws Exception
+    {
+        final Model model = createModel(4);
+        model.mergeMessages(Model.Update.REPLACE, new Date(START), messages(30, 20, 10), 10);
+
+        // Oldest messages beyond the max. count are dropped
+        assertTrue(model.mergeMessages(Model.Update.NEWER, new Date(START), messages(50, 40), 100));
+        assertMessages(model, 50, 40, 30, 20);
+        assertTrue(model.hasMoreMessages());
+    }
+
+    @Test
+    public void testNewerOverflow() throws Exception
+    {
+        final Model model = createModel(100);
+        model.mergeMessages(Model.Update.REPLACE, new Date(START), messages(30, 20, 10), 10);
+        final Message[] current = model.getMessages();
+
+        // Too many new messages need a new query, model is unchanged
+        assertFalse(model.mergeMessages(Model.Update.NEWER, new Date(START), messages(60, 50, 40), 3));
+        assertSame(current, model.getMessages());
+        assertMessages(model, 30, 20, 10);
+    }
+}
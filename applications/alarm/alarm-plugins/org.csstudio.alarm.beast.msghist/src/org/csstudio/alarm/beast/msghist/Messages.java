@@ -44,7 +44,6 @@ public class Messages extends NLS {
     public static String Pref_TimeFormat;
     public static String Property;
     public static String PropertyValue_TTFmt;
-    public static String ReachedMaxPropertiesFmt;
     public static String SeqProvider_TTFmt;
     public static String ShowDetail;
     public static String TableColumnsEditor_Columns;
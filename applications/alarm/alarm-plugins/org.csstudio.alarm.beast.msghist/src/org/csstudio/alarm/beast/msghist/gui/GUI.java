@@ -54,7 +54,9 @@ import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.TableColumn;
 import org.eclipse.swt.widgets.Text;
@@ -437,6 +439,20 @@ public class GUI extends Composite implements ModelListener {
             }
         });
 
+        // Virtual table asks for the last row: Read next page of older messages
+        table_viewer.getTable().addListener(SWT.SetData, new Listener() {
+            @Override
+            public void handleEvent(final Event event) {
+                if (event.index < table_viewer.getTable().getItemCount() - 1)
+                    return;
+                try {
+                    model.loadOlderMessages();
+                } catch (Exception ex) {
+                    Activator.getLogger().log(Level.WARNING, "Cannot read older messages", ex);
+                }
+            }
+        });
+
         refresh.addSelectionListener(new SelectionAdapter() {
             @Override
             public void widgetSelected(final SelectionEvent e) {
@@ -611,7 +627,8 @@ public class GUI extends Composite implements ModelListener {
         @Override
         public void run() {
             try {
-                model.refresh();
+                // Only add the messages that were logged since the last update
+                model.tail();
             } catch (Exception ex) {
                 MessageDialog.openError(times.getShell(), "Error",
                         "Error during the refresh of the model :\n" + ex.getMessage());
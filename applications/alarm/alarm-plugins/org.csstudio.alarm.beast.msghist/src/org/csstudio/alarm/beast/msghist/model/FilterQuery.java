@@ -128,7 +128,6 @@ public class FilterQuery {
             filters = filterList.toArray(new MessagePropertyFilter[filterList.size()]);
         }
 
-        model.setTimerange(startSpec, endSpec);
-        model.setFilters(filters);
+        model.setQuery(startSpec, endSpec, filters);
     }
 }
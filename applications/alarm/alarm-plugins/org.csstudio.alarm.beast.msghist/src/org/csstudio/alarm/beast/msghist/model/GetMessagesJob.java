@@ -17,7 +17,7 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 
 /**
- * Background job for getting messages from RDB.
+ * Background job for getting a page of messages from RDB.
  * <p>
  * The job actually connects to the RDB each time and disconnects when done to avoid timeouts with a long running RDB connection.
  *
@@ -33,7 +33,9 @@ abstract public class GetMessagesJob extends Job {
     final private Calendar start;
     final private Calendar end;
     final private MessagePropertyFilter[] filters;
-    final private int max_messages;
+    final private boolean newer;
+    final private int id;
+    final private int count;
     final private DateTimeFormatter date_format;
 
     /**
@@ -53,14 +55,18 @@ abstract public class GetMessagesJob extends Job {
      *            End time
      * @param filters
      *            Message filters
-     * @param max_messages
+     * @param newer
+     *            Get messages after the ID, or before the ID?
+     * @param id
+     *            ID of the message next to the page
+     * @param count
      *            Max. messages count
-     * @param shell
-     *            UI shell to display error dialog
+     * @param date_format
+     *            Format for message time
      */
     public GetMessagesJob(final String url, final String user, final String password, final String schema,
-            final Calendar start, final Calendar end, final MessagePropertyFilter filters[], final int max_messages,
-            final DateTimeFormatter date_format) {
+            final Calendar start, final Calendar end, final MessagePropertyFilter filters[], final boolean newer,
+            final int id, final int count, final DateTimeFormatter date_format) {
         super("Get Messages from RDB");
         this.url = url;
         this.user = user;
@@ -69,7 +75,9 @@ abstract public class GetMessagesJob extends Job {
         this.start = start;
         this.end = end;
         this.filters = filters;
-        this.max_messages = max_messages;
+        this.newer = newer;
+        this.id = id;
+        this.count = count;
         this.date_format = date_format;
     }
 
@@ -78,7 +86,9 @@ abstract public class GetMessagesJob extends Job {
         MessageRDB rdb = null;
         try {
             rdb = new MessageRDB(url, user, password, schema);
-            final Message[] messages = rdb.getMessages(monitor, start, end, filters, max_messages, date_format);
+            final Message[] messages = newer
+                    ? rdb.getNewerMessages(monitor, start, end, filters, id, count, date_format)
+                    : rdb.getOlderMessages(monitor, start, end, filters, id, count, date_format);
             if (!monitor.isCanceled())
                 gotMessages(messages);
         } catch (final Exception ex) {
@@ -99,6 +109,6 @@ abstract public class GetMessagesJob extends Job {
      */
     abstract void handleError(final String message, final Exception ex);
 
-    /** Derived class must implement to handle received messages */
-    abstract void gotMessages(final Message[] messages);
+    /** Derived class must implement to handle received messages, newest first */
+    abstract void gotMessages(final Message[] messages) throws Exception;
 }
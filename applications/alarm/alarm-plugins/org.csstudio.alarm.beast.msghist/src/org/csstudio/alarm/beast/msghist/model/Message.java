@@ -49,7 +49,12 @@ public class Message implements IPropertySource
     /** Property for Time in seconds from previous message to this message */
     final public static String DELTA = "DELTA"; //$NON-NLS-1$
 
-    final private int sequence, id;
+    final private int id;
+
+    private int sequence;
+
+    /** Time when message was added to log, <code>null</code> if not known */
+    final private Date datum;
 
     /** Map of property names and values */
     final private Map<String, String> properties;
@@ -61,9 +66,22 @@ public class Message implements IPropertySource
      */
     public Message(final int sequence,
             final int id, final Map<String, String> properties)
+    {
+        this(sequence, id, null, properties);
+    }
+
+    /** Constructor
+     *  @param sequence Sequence number
+     *  @param id ID from RDB
+     *  @param datum Time when message was added to log
+     *  @param properties Map of message properties
+     */
+    public Message(final int sequence,
+            final int id, final Date datum, final Map<String, String> properties)
     {
         this.sequence = sequence;
         this.id = id;
+        this.datum = datum;
         this.properties = properties;
     }
 
@@ -87,6 +105,20 @@ public class Message implements IPropertySource
         return sequence;
     }
 
+    /** Update sequence number when the model adds newer messages
+     *  @param sequence Sequence number
+     */
+    void setSequence(final int sequence)
+    {
+        this.sequence = sequence;
+    }
+
+    /** @return Time when message was added to log, <code>null</code> if not known */
+    public Date getDatum()
+    {
+        return datum;
+    }
+
     /** @return Message id (internal to RDB) */
     public int getId()
     {
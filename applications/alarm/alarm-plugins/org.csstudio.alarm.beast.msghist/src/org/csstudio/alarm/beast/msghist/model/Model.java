@@ -8,6 +8,9 @@
 package org.csstudio.alarm.beast.msghist.model;
 
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 
@@ -15,18 +18,33 @@ import org.csstudio.alarm.beast.msghist.Activator;
 import org.csstudio.alarm.beast.msghist.Preferences;
 import org.csstudio.apputil.time.StartEndTimeParser;
 import org.csstudio.ui.util.dialogs.ExceptionDetailsErrorDialog;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.swt.widgets.Shell;
 
 /**
  * Model of CSS log messages.
  * <p>
  * Handles async. database requests, notifies listeners on change.
+ * <p>
+ * A query only reads the newest page of messages.
+ * Older messages are read one page at a time via {@link #loadOlderMessages()},
+ * and {@link #tail()} adds messages that were logged since the last query.
  *
  * @author Kay Kasemir
  * @author benhadj naceur @ sopra group - iter
  * @author Borut Terpinc
  */
 public class Model {
+    /** How received messages update the model */
+    enum Update {
+        /** Replace all messages */
+        REPLACE,
+        /** Add older messages */
+        OLDER,
+        /** Add newer messages */
+        NEWER
+    }
+
     final private String url;
     final private String user;
     final private String password;
@@ -37,6 +55,9 @@ public class Model {
     private String end_spec = Preferences.getDefaultEnd();
     private MessagePropertyFilter filters[] = new MessagePropertyFilter[0];
     private int max_messages;
+    final private int page_size = Preferences.getPageSize();
+    /** Are there older messages in the time range that have not been read? */
+    private boolean more_messages = false;
     private DateTimeFormatter date_format;
     private GetMessagesJob message_job;
     private Shell shell;
@@ -135,6 +156,28 @@ public class Model {
         launchQuery();
     }
 
+    /**
+     * Set model's time range and filters. Model will retrieve messages for given
+     * settings in a background thread and then notify listeners.
+     *
+     * @param start_spec
+     *            Start time specification
+     * @param end_spec
+     *            End time specification
+     * @param filters
+     *            Filters to use
+     * @throws Exception
+     *             on error
+     * @see StartEndTimeParser
+     */
+    public void setQuery(final String start_spec, final String end_spec, final MessagePropertyFilter filters[])
+            throws Exception {
+        this.start_spec = start_spec;
+        this.end_spec = end_spec;
+        this.filters = filters;
+        launchQuery();
+    }
+
     /**
      * @return Current max messages settings.
      */
@@ -164,22 +207,90 @@ public class Model {
         launchQuery();
     }
 
-    /** Launch RDB query with current settings. */
+    /**
+     * Read the next page of older messages.
+     * <p>
+     * Does nothing while messages are being read, when all messages in the time range have been read, or when the model
+     * already holds the maximum number of messages.
+     *
+     * @throws Exception
+     *             on error
+     */
+    public synchronized void loadOlderMessages() throws Exception {
+        final int available = max_messages - messages.length;
+        if (isReading() || !more_messages || available <= 0)
+            return;
+        final StartEndTimeParser times = new StartEndTimeParser(start_spec, end_spec);
+        startJob(times.getStart(), times.getEnd(), Update.OLDER, messages[messages.length - 1].getId(),
+                Math.min(page_size, available));
+    }
+
+    /**
+     * Add messages that were logged since the last query.
+     * <p>
+     * Unlike {@link #refresh()}, this only reads the messages after the newest message in the model. Messages that are
+     * now before the start time are removed. When there are too many new messages, the newest page is read again.
+     *
+     * @throws Exception
+     *             on error
+     */
+    public synchronized void tail() throws Exception {
+        if (isReading())
+            return;
+        if (messages.length == 0) {
+            launchQuery();
+            return;
+        }
+        final StartEndTimeParser times = new StartEndTimeParser(start_spec, end_spec);
+        startJob(times.getStart(), times.getEnd(), Update.NEWER, messages[0].getId(), max_messages);
+    }
+
+    /** @return <code>true</code> if there are older messages in the time range that have not been read */
+    synchronized boolean hasMoreMessages() {
+        return more_messages;
+    }
+
+    /** @return <code>true</code> while a job reads messages */
+    private boolean isReading() {
+        return message_job != null && message_job.getState() != Job.NONE;
+    }
+
+    /** Launch RDB query for the newest page of messages with current settings. */
     private synchronized void launchQuery() throws Exception {
+        final StartEndTimeParser times = new StartEndTimeParser(start_spec, end_spec);
+        startJob(times.getStart(), times.getEnd(), Update.REPLACE, Integer.MAX_VALUE,
+                Math.min(page_size, max_messages));
+    }
+
+    /**
+     * Start job that reads a page of messages
+     *
+     * @param start
+     *            Start time
+     * @param end
+     *            End time
+     * @param update
+     *            How to update the model with the received messages
+     * @param id
+     *            ID of the message next to the page
+     * @param count
+     *            Max. messages count
+     */
+    private void startJob(final Calendar start, final Calendar end, final Update update, final int id,
+            final int count) {
         // Cancel a job that might already be running
         if (message_job != null)
             message_job.cancel();
 
         // Start new job
-        final StartEndTimeParser times = new StartEndTimeParser(start_spec, end_spec);
-        message_job = new GetMessagesJob(url, user, password, schema, times.getStart(), times.getEnd(), filters,
-                max_messages, date_format) {
+        message_job = new GetMessagesJob(url, user, password, schema, start, end, filters, update == Update.NEWER,
+                id, count, date_format) {
             @Override
-            void gotMessages(final Message[] messages) {
+            void gotMessages(final Message[] messages) throws Exception {
                 if (messages == null)
                     return;
-                Model.this.messages = messages;
-                fireModelChanged();
+                if (updateMessages(this, update, start, messages, count))
+                    fireModelChanged();
             }
 
             @Override
@@ -212,6 +323,110 @@ public class Model {
         message_job.schedule();
     }
 
+    /**
+     * Update model with received messages
+     *
+     * @param job
+     *            Job that read the messages
+     * @param update
+     *            How to update the model
+     * @param start
+     *            Start time of the query
+     * @param received
+     *            Received messages, newest first
+     * @param count
+     *            Max. messages count of the query
+     * @return <code>true</code> if model changed
+     * @throws Exception
+     *             on error
+     */
+    private synchronized boolean updateMessages(final GetMessagesJob job, final Update update, final Calendar start,
+            final Message[] received, final int count) throws Exception {
+        // Ignore messages of a job that was replaced by a new query
+        if (job != message_job)
+            return false;
+        if (mergeMessages(update, start.getTime(), received, count))
+            return true;
+        // Too many new messages to add, read newest page again
+        launchQuery();
+        return false;
+    }
+
+    /**
+     * Merge received messages into the model
+     *
+     * @param update
+     *            How to update the model
+     * @param start_date
+     *            Start time of the query
+     * @param received
+     *            Received messages, newest first
+     * @param count
+     *            Max. messages count of the query
+     * @return <code>true</code> if model changed, <code>false</code> if there are too many newer messages to add
+     */
+    synchronized boolean mergeMessages(final Update update, final Date start_date, final Message[] received,
+            final int count) {
+        final Message[] current = messages;
+        Message[] result;
+        // First message that needs a new sequence number
+        int renumber = 0;
+        switch (update) {
+        case OLDER:
+            result = Arrays.copyOf(current, current.length + received.length);
+            System.arraycopy(received, 0, result, current.length, received.length);
+            setDelta(result, current.length);
+            renumber = current.length;
+            more_messages = received.length >= count;
+            break;
+        case NEWER:
+            if (received.length >= count)
+                return false;
+            result = new Message[received.length + current.length];
+            System.arraycopy(received, 0, result, 0, received.length);
+            System.arraycopy(current, 0, result, received.length, current.length);
+            setDelta(result, received.length);
+            // Remove messages that are now before the start time, then limit to max. count
+            int keep = result.length;
+            while (keep > 0 && result[keep - 1].getDatum() != null && result[keep - 1].getDatum().before(start_date))
+                --keep;
+            if (keep < result.length)
+                more_messages = false;
+            if (keep > max_messages) {
+                keep = max_messages;
+                more_messages = true;
+            }
+            if (keep < result.length)
+                result = Arrays.copyOf(result, keep);
+            break;
+        case REPLACE:
+        default:
+            result = received;
+            more_messages = received.length >= count;
+        }
+        for (int i = renumber; i < result.length; ++i)
+            result[i].setSequence(i + 1);
+        messages = result;
+        return true;
+    }
+
+    /**
+     * Set the 'delta' of the message before a newly added message
+     *
+     * @param messages
+     *            Messages, newest first
+     * @param index
+     *            Index of the older message
+     */
+    private static void setDelta(final Message[] messages, final int index) {
+        if (index <= 0 || index >= messages.length)
+            return;
+        final Date newer = messages[index - 1].getDatum();
+        final Date older = messages[index].getDatum();
+        if (newer != null && older != null)
+            messages[index - 1].setDelta(newer, older);
+    }
+
     /** @return All model messages */
     public Message[] getMessages() {
         // Actually hands the original array out, no defensive copy.
@@ -7,6 +7,7 @@
  ******************************************************************************/
 package org.csstudio.alarm.beast.msghist.model;
 
+import java.util.Date;
 import java.util.Map;
 
 /** A log message that provides IProcessVariable via the NAME property.
@@ -19,6 +20,11 @@ public class PVMessage extends Message
         super(sequence, id, properties);
     }
 
+    public PVMessage(final int sequence, final int id, final Date datum, final Map<String, String> properties)
+    {
+        super(sequence, id, datum, properties);
+    }
+
     /** @return "NAME" property
      *  @see IProcessVariable
      */
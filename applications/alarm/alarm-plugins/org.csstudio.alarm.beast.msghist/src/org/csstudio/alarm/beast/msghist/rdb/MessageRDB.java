@@ -14,17 +14,17 @@ import java.sql.Timestamp;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
-import org.csstudio.alarm.beast.msghist.Messages;
 import org.csstudio.alarm.beast.msghist.model.Message;
 import org.csstudio.alarm.beast.msghist.model.MessagePropertyFilter;
 import org.csstudio.alarm.beast.msghist.model.PVMessage;
 import org.csstudio.platform.utility.rdb.RDBUtil;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.osgi.util.NLS;
 
 /** Helper for accessing the CSS message RDB.
  *  @author Kay Kasemir
@@ -32,6 +32,9 @@ import org.eclipse.osgi.util.NLS;
 @SuppressWarnings("nls")
 public class MessageRDB
 {
+    /** Maximum number of message IDs in one MESSAGE_CONTENT query */
+    private static final int CONTENT_CHUNK = 500;
+
     /** Util. for connection to RDB */
     final private RDBUtil rdb_util;
 
@@ -60,151 +63,184 @@ public class MessageRDB
         rdb_util.close();
     }
 
-    /** Read messages from start to end time, maybe including filters.
+    /** Read a page of messages that are older than a given message.
      *  <p>
+     *  To read all messages in the time range, start with
+     *  <code>Integer.MAX_VALUE</code> and then continue with the ID
+     *  of the last (oldest) message of the previous page.
+     *
      *  @param monitor Used to display progress, also checked for cancellation
      *  @param start Start time
      *  @param end End time
      *  @param filters Filters to use (not <code>null</code>).
-     *  @param max_properties Limit on the number of properties(!) retrieved.
-     *                        Unclear how many properties to expect per message,
-     *                        so this is a vague overload throttle.
-     *  @return Array of Messages or <code>null</code>
+     *  @param before_id Read messages with lower IDs
+     *  @param count Maximum number of messages to read
+     *  @param date_format Format for the {@link Message#DATUM}
+     *  @return Messages, newest first. Fewer than <code>count</code>
+     *          when there are no older messages in the time range.
+     *  @throws Exception on error
+     */
+    public Message[] getOlderMessages(
+            final IProgressMonitor monitor,
+            final Calendar start, final Calendar end,
+            final MessagePropertyFilter filters[],
+            final int before_id, final int count,
+            final DateTimeFormatter date_format)  throws Exception
+    {
+        return getMessages(monitor, start, end, filters, false, before_id, count, date_format);
+    }
+
+    /** Read the messages that were added after a given message.
+     *
+     *  @param monitor Used to display progress, also checked for cancellation
+     *  @param start Start time
+     *  @param end End time
+     *  @param filters Filters to use (not <code>null</code>).
+     *  @param after_id Read messages with higher IDs
+     *  @param count Maximum number of messages to read
+     *  @param date_format Format for the {@link Message#DATUM}
+     *  @return Messages, newest first. When there are more than <code>count</code>
+     *          newer messages, the oldest of them are returned.
+     *  @throws Exception on error
+     */
+    public Message[] getNewerMessages(
+            final IProgressMonitor monitor,
+            final Calendar start, final Calendar end,
+            final MessagePropertyFilter filters[],
+            final int after_id, final int count,
+            final DateTimeFormatter date_format)  throws Exception
+    {
+        return getMessages(monitor, start, end, filters, true, after_id, count, date_format);
+    }
+
+    /** Read a page of messages
+     *  @param newer Read messages after or before the ID?
+     *  @param id ID where the page starts
+     *  @return Messages, newest first, with sequence 0
      */
-    public Message[] getMessages(
+    private Message[] getMessages(
             final IProgressMonitor monitor,
             final Calendar start, final Calendar end,
             final MessagePropertyFilter filters[],
-            final int max_properties,
+            final boolean newer, final int id, final int count,
             final DateTimeFormatter date_format)  throws Exception
     {
         monitor.beginTask("Reading Messages", IProgressMonitor.UNKNOWN);
-        final ArrayList<Message> messages = new ArrayList<Message>();
-        // Create new select statement
-        final String sql_txt = sql.createSelect(rdb_util, filters);
+        final List<Integer> ids = new ArrayList<Integer>();
+        final List<Date> datums = new ArrayList<Date>();
+        final Map<Integer, Map<String, String>> props_by_id = new HashMap<Integer, Map<String, String>>();
         final Connection connection = rdb_util.getConnection();
         connection.setReadOnly(true);
-        final PreparedStatement statement =
-                connection.prepareStatement(sql_txt);
         try
         {
-            int parm = 1;
-            // Set start/end
-            statement.setTimestamp(parm++, new Timestamp(start.getTimeInMillis()));
-            statement.setTimestamp(parm++, new Timestamp(end.getTimeInMillis()));
-            // Set filter parameters
-            for (MessagePropertyFilter filter : filters)
-                statement.setString(parm++, filter.getPattern());
-            // Set query limit a bit higher than max_properties.
-            // This still limits the number of properties on the RDB side,
-            // but allows the following code to detect exhausting the limit.
-            statement.setInt(parm++, max_properties+10);
-
-            // One benchmark example:
-            // Query took <<1 second, but reading all the messages took ~30.
-            // Same result when only calling 'next',
-            // i.e. commenting the 'next' loop body.
-            // So the local lookup of properties and packing
-            // into a HashMap adds almost nothing to the overall time.
-            final ResultSet result = statement.executeQuery();
-            int sequence = 0;
-            // Initialize id and datum as "no current message"
-            int id = -1;
-            Date datum = null;
-            Date last_datum = null;
-            Message last_message = null;
-            Map<String, String> props = null;
-            int prop_count = 0;
-            while (!monitor.isCanceled()  &&  result.next())
+            // First read the messages, which only uses the MESSAGE table,
+            // then their MESSAGE_CONTENT
+            final PreparedStatement statement =
+                    connection.prepareStatement(sql.createSelectPage(rdb_util, filters, newer));
+            try
             {
-                // Fixed ID and DATUM
-                final int next_id = result.getInt(1);
-                final Date next_datum = result.getTimestamp(2);
-                // New message?
-                if (next_id != id)
-                {   // Does this conclude a previous message?
-                    if (props != null)
-                    {
-                        final Message message = createMessage(++sequence, id, props);
-                        messages.add(message);
-                        // Maybe set the 'delta' of previous message
-                        if (last_message != null  &&  last_datum != null)
-                            last_message.setDelta(last_datum, datum);
-                        last_datum = datum;
-                        last_message = message;
-                        // Update monitor every 50 messages
-                        final int count = messages.size();
-                        if (count % 50 == 0)
-                            monitor.subTask(count + " messages...");
-                    }
-                    // Construct new message and values
-                    props = new HashMap<String, String>();
-                    id = next_id;
-                    datum = next_datum;
+                int parm = 1;
+                // Set start/end
+                statement.setTimestamp(parm++, new Timestamp(start.getTimeInMillis()));
+                statement.setTimestamp(parm++, new Timestamp(end.getTimeInMillis()));
+                statement.setInt(parm++, id);
+                // Set filter parameters
+                for (MessagePropertyFilter filter : filters)
+                    statement.setString(parm++, filter.getPattern());
+                statement.setInt(parm++, count);
+
+                final ResultSet result = statement.executeQuery();
+                while (!monitor.isCanceled()  &&  result.next())
+                {
+                    final int next_id = result.getInt(1);
+                    final Date datum = result.getTimestamp(2);
+                    final Map<String, String> props = new HashMap<String, String>();
                     props.put(Message.DATUM, date_format.format(datum.toInstant()));
+                    // Get Prop/Value from MESSAGE table
+                    for (int i=0; i<sql.messagePropertyCount(); ++i)
+                        props.put(sql.getMessageProperty(i), result.getString(3 + i));
+                    ids.add(next_id);
+                    datums.add(datum);
+                    props_by_id.put(next_id, props);
                 }
-                // Get Prop/Value from MESSAGE table
-                int res_idx = 3;
-                for (int i=0; i<sql.messagePropertyCount(); ++i)
-                    props.put(sql.getMessageProperty(i), result.getString(res_idx++));
-                // Prop/Value from MESSAGE_CONTENT table
-                final String prop = sql.getPropertyNameById(result.getInt(res_idx++));
-                final String value = result.getString(res_idx);
-                props.put(prop, value);
-                ++prop_count;
-            }
-            // No more results.
-            // Was another (partial) message assembled?
-            // This message may miss some properties because the RDB retrieval
-            // is limited by property max_properties...
-            if (props != null  &&  props.isEmpty() == false)
-            {
-                messages.add(createMessage(++sequence, id, props));
-                if (last_message != null  &&  last_datum != null)
-                    last_message.setDelta(last_datum, datum);
             }
-
-            // Was readout stopped because we reached max. number of properties?
-            if (prop_count >= max_properties)
+            finally
             {
-                props = new HashMap<String, String>();
-                props.put(Message.TYPE, "internal");
-                props.put(Message.SEVERITY, "FATAL");
-                props.put("TEXT",
-                        NLS.bind(Messages.ReachedMaxPropertiesFmt, max_properties));
-                // Add this message both as the first and last messages,
-                // so user is more likely to see it.
-                // A dialog box is even harder to miss,
-                // but auto-refresh mode would result in either
-                // blocked updates or a profusion of message boxes.
-                messages.add(0, createMessage(0, -1, props));
-                messages.add(createMessage(++sequence, -1, props));
+                statement.close();
             }
+            readContent(monitor, connection, ids, props_by_id);
         }
         finally
         {
-            statement.close();
             monitor.done();
         }
 
-        // Convert to plain array
-        final Message[] ret_val = new Message[messages.size()];
-        return messages.toArray(ret_val);
+        // Newer messages were read oldest first
+        if (newer)
+        {
+            Collections.reverse(ids);
+            Collections.reverse(datums);
+        }
+        final Message[] messages = new Message[ids.size()];
+        for (int i=0; i<messages.length; ++i)
+        {
+            messages[i] = createMessage(0, ids.get(i), datums.get(i), props_by_id.get(ids.get(i)));
+            // Set the 'delta' of the next newer message
+            if (i > 0)
+                messages[i-1].setDelta(datums.get(i-1), datums.get(i));
+        }
+        return messages;
+    }
+
+    /** Read MESSAGE_CONTENT properties of messages
+     *  @param monitor Used to display progress, also checked for cancellation
+     *  @param connection RDB connection
+     *  @param ids IDs of messages
+     *  @param props_by_id Properties of the messages, will be updated
+     *  @throws Exception on error
+     */
+    private void readContent(final IProgressMonitor monitor, final Connection connection,
+            final List<Integer> ids, final Map<Integer, Map<String, String>> props_by_id) throws Exception
+    {
+        for (int first=0;  first<ids.size()  &&  !monitor.isCanceled();  first += CONTENT_CHUNK)
+        {
+            final int n = Math.min(CONTENT_CHUNK, ids.size() - first);
+            final PreparedStatement statement = connection.prepareStatement(sql.createSelectContent(n));
+            try
+            {
+                for (int i=0; i<n; ++i)
+                    statement.setInt(i+1, ids.get(first + i));
+                final ResultSet result = statement.executeQuery();
+                while (result.next())
+                {
+                    final Map<String, String> props = props_by_id.get(result.getInt(1));
+                    // Prop/Value from MESSAGE_CONTENT table
+                    final String prop = sql.getPropertyNameById(result.getInt(2));
+                    props.put(prop, result.getString(3));
+                }
+            }
+            finally
+            {
+                statement.close();
+            }
+            monitor.subTask((first + n) + " messages...");
+        }
     }
 
     /** Create Message or PVMessage
      *  @param sequence Sequence number
      *  @param id RDB ID
+     *  @param datum Time when message was added to log
      *  @param props Remaining properties
      *  @return Message or PVMessage
      */
-    private Message createMessage(final int sequence, final int id,
+    private Message createMessage(final int sequence, final int id, final Date datum,
                                   final Map<String, String> props)
     {
         // Is there a better way to determine which messages
         // have PVs and which don't??
         if ("alarm".equalsIgnoreCase(props.get(Message.TYPE)))
-            return new PVMessage(sequence, id, props);
-        return new Message(sequence, id, props);
+            return new PVMessage(sequence, id, datum, props);
+        return new Message(sequence, id, datum, props);
     }
 }
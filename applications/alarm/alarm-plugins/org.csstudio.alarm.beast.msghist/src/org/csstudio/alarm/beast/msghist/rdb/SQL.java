@@ -175,14 +175,15 @@ public class SQL
         return id.intValue();
     }
 
-    /** Create "SELECT ... " which requires parameters
+    /** Create "SELECT ... " for one page of messages which requires parameters
      *  <ol>
      *  <li>Start time
      *  <li>End time
+     *  <li>ID of the message before (older) or after (newer) the page
      *  <li>Value pattern for property filter 1
      *  <li>Value pattern for property filter 2
      *  <li>...
-     *  <li value=99>overall property count limit
+     *  <li value=99>message count limit
      *  </ol>
      *  and returns the message
      *  <ol>
@@ -191,63 +192,89 @@ public class SQL
      *  <li>First MESSAGE table property
      *  <li>Second MESSAGE table property
      *  <li>...
-     *  <li value=98>MESSAGE_CONTENT property ID
-     *  <li>MESSAGE_CONTENT property value
      *  </ol>
+     *  <p>
+     *  Messages are selected by ID from the given ID on,
+     *  so the RDB can use the primary key index and stop
+     *  once it found enough messages.
+     *  Filters are checked in the RDB, using "=" instead of "LIKE"
+     *  when the pattern has no wildcards.
+     *
      *  @param rdb_util RDBUtil
-     *  @param schema Database schema ending in "." or "" if not used
      *  @param filters Filters to use (not <code>null</code>)
+     *  @param newer <code>true</code> to select messages after the ID, oldest first,
+     *               <code>false</code> for messages before the ID, newest first
      *  @return SQL string
      */
-    String createSelect(final RDBUtil rdb_util,
-            final MessagePropertyFilter filters[]) throws Exception
+    String createSelectPage(final RDBUtil rdb_util,
+            final MessagePropertyFilter filters[], final boolean newer) throws Exception
     {
-        final StringBuffer sel = new StringBuffer();
+        final StringBuilder sel = new StringBuilder();
         sel.append("SELECT");
         // .. all columns from MESSAGE
-        sel.append(" m.id, m.datum,");
+        sel.append(" m.id, m.datum");
         for (String msg_prop : message_properties)
-            sel.append(" m." + msg_prop + ",");
-        // .. and the properties from MESSAGE_CONTENT
-        sel.append(" c.msg_property_type_id p, c.value");
-        sel.append(" FROM " + getSchemaPrefix() + "message m, "
-                + getSchemaPrefix() + "message_content c");
-        // Set time range
+            sel.append(", m." + msg_prop);
+        sel.append(" FROM " + getSchemaPrefix() + "message m");
+        // Set time range and page start
         sel.append(" WHERE m.datum BETWEEN ? AND ?");
-        // Join MESSAGE and ..CONTENT
-        sel.append(" AND m.id=c.message_id");
+        sel.append(newer ? " AND m.id > ?" : " AND m.id < ?");
         // Some filters may be MESSAGE columns, rest is MESSAGE_CONTENT
         for (MessagePropertyFilter filter : filters)
         {
+            final String compare = hasWildcards(filter.getPattern()) ? " LIKE ?" : "=?";
             if (isMessageProperty(filter.getProperty()))
             {   // Filter property is actually column of MESSAGE table
-                sel.append(" AND m." + filter.getProperty() + " LIKE ?");
+                sel.append(" AND m." + filter.getProperty() + compare);
             }
             else
-            {   // Create MESSAGE_CONTENT sub-query for this property/value
+            {   // Check MESSAGE_CONTENT of this message for the property/value
                 final int id = getPropertyIdByName(filter.getProperty());
-                sel.append(" AND m.id IN (");
-                sel.append(" SELECT message_id");
-                sel.append(" FROM " + getSchemaPrefix() + "message_content");
-                sel.append(" WHERE msg_property_type_id=" + id
-                           + " AND value LIKE ?)");
+                sel.append(" AND EXISTS (");
+                sel.append(" SELECT 1");
+                sel.append(" FROM " + getSchemaPrefix() + "message_content c");
+                sel.append(" WHERE c.message_id=m.id");
+                sel.append(" AND c.msg_property_type_id=" + id
+                           + " AND c.value" + compare + ")");
             }
         }
-        // Oracle limits result count via ROWNUM check within WHERE clause...
+        sel.append(newer ? " ORDER BY m.id" : " ORDER BY m.id DESC");
+        // Oracle limits result count via ROWNUM check on the sorted result...
         if (rdb_util.getDialect() == Dialect.Oracle)
-            sel.append(" AND ROWNUM < ?");
-        sel.append(" ORDER BY m.id DESC");
-        // MySQL uses designated LIMIT statement instead.
-        if (rdb_util.getDialect() == Dialect.MySQL || rdb_util.getDialect() == Dialect.PostgreSQL)
-            sel.append(" LIMIT ?");
-
+            return "SELECT * FROM (" + sel.toString() + ") WHERE ROWNUM <= ?";
+        // MySQL, PostgreSQL use designated LIMIT statement instead.
+        sel.append(" LIMIT ?");
         return sel.toString();
     }
 
-    /** Idea: Use the above to ONLY select from MESSAGE table, then
-     *  use separate query to select remaining properties for a message
-     *  SELECT msg_property_type_id, value
-     *  FROM message_content
-     *  WHERE message_id=?
+    /** @param pattern Value pattern for a filter
+     *  @return <code>true</code> if pattern contains SQL wildcards
+     */
+    private static boolean hasWildcards(final String pattern)
+    {
+        return pattern.indexOf('%') >= 0  ||  pattern.indexOf('_') >= 0;
+    }
+
+    /** Create "SELECT ... " for the MESSAGE_CONTENT of messages
+     *  which requires the IDs of the messages as parameters
+     *  and returns
+     *  <ol>
+     *  <li>Message ID
+     *  <li>MESSAGE_CONTENT property ID
+     *  <li>MESSAGE_CONTENT property value
+     *  </ol>
+     *  @param count Number of message IDs
+     *  @return SQL string
      */
+    String createSelectContent(final int count)
+    {
+        final StringBuilder sel = new StringBuilder();
+        sel.append("SELECT message_id, msg_property_type_id, value");
+        sel.append(" FROM " + getSchemaPrefix() + "message_content");
+        sel.append(" WHERE message_id IN (");
+        for (int i=0; i<count; ++i)
+            sel.append(i > 0 ? ",?" : "?");
+        sel.append(")");
+        return sel.toString();
+    }
 }
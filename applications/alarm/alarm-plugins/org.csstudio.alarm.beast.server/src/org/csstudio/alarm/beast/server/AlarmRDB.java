@@ -12,11 +12,15 @@ import static org.csstudio.alarm.beast.server.Activator.logger;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 
 import org.csstudio.alarm.beast.SQL;
@@ -115,17 +119,11 @@ public class AlarmRDB
             statement.close();
         }
 
-        // Fetch children
-        final PreparedStatement sel_items_by_parent =
-            conn.prepareStatement(sql.sel_items_by_parent);
-        try
-        {
-            readChildren(root, sel_items_by_parent);
-        }
-        finally
-        {
-            sel_items_by_parent.close();
-        }
+        // Fetch all items and severity PVs in one query each,
+        // then assemble the tree below the root
+        final Map<Integer, List<ItemRow>> children = readItems(conn);
+        final Map<Integer, List<String>> severity_pvs = readSeverityPVs(conn);
+        readChildren(root, children, severity_pvs);
 
         // In transactional mode (Connection.setAutoCommit(false)),
         // even SELECTs needed a commit() to end the transaction.
@@ -147,132 +145,172 @@ public class AlarmRDB
         return root;
     }
 
-    /** Read alarm tree hierarchy
-     *  @param parent Parent entry
-     *  @param sel_items_by_parent Prepared statement for fetching child elements
+    /** Item or PV read from RDB */
+    private static class ItemRow
+    {
+        int id;
+        String name;
+        boolean is_pv;
+        String description;
+        boolean enabled, annunciate, latch;
+        int min_alarm_delay, count;
+        String filter;
+        SeverityLevel current_severity, severity;
+        String current_status, status, value;
+        Instant timestamp;
+    }
+
+    /** Read all items of all configurations
+     *  @param conn RDB connection
+     *  @return Items by parent ID, ordered by item ID
      *  @throws Exception on error
      */
-    private void readChildren(final ServerTreeItem parent, final PreparedStatement sel_items_by_parent) throws Exception
+    private Map<Integer, List<ItemRow>> readItems(final Connection conn) throws Exception
     {
-        final PreparedStatement sel_actions = connection.prepareStatement(sql.sel_auto_actions_by_id);
-        final List<ServerTreeItem> recurse_items = new ArrayList<>();
-
-        sel_items_by_parent.setInt(1, parent.getID());
-        final ResultSet result = sel_items_by_parent.executeQuery();
+        final Map<Integer, List<ItemRow>> children = new HashMap<>();
         try
+        (
+            final Statement statement = conn.createStatement();
+            final ResultSet result = statement.executeQuery(sql.sel_all_items);
+        )
         {
             while (result.next())
             {
-                final int id = result.getInt(1);
+                final int parent = result.getInt(18);
+                if (result.wasNull())
+                    continue; // Root of some configuration
+                final ItemRow item = new ItemRow();
+                item.id = result.getInt(1);
                 if (result.wasNull())
                     throw new Exception("NULL component ID");
-                final String name = result.getString(17);
+                item.name = result.getString(17);
                 if (result.wasNull())
                     throw new Exception("NULL component Name");
                 // Ignoring config. time from result.getTimestamp(2)
 
                 // Check PV's ID. If null, this is a component, not PV
                 final int pv_id = result.getInt(3);
-                if (result.wasNull())
+                item.is_pv = ! result.wasNull();
+                if (item.is_pv)
                 {
-                    // Check automated action 'sevrpv:' ...
-                    String severity_pv = null;
-                    sel_actions.setInt(1, id);
-                    try
-                    (
-                        final ResultSet act_res = sel_actions.executeQuery();
-                    )
-                    {
-                        while (act_res.next())
-                        {
-                            final String action = act_res.getString(2);
-                            if (action.startsWith(SEVRPV))
-                            {
-                                final String pv_name = action.substring(SEVRPV.length());
-                                if (severity_pv != null)
-                                    logger.log(Level.WARNING, "Multiple severity PVs for '" + name + "', '" +
-                                               severity_pv + "' as well as '" + pv_name + "'");
-                                severity_pv = pv_name;
-                            }
-                        }
-                    }
-
-                    final ServerTreeItem child = new ServerTreeItem(parent, name, id, severity_pv);
-                    recurse_items.add(child);
-                }
-                else
-                {   // Handle PV
-                    if (id != pv_id)
-                        throw new Exception("Internal RDB error: Item '" + name + "' as ID " + id + " but also PV ID " + pv_id);
+                    if (item.id != pv_id)
+                        throw new Exception("Internal RDB error: Item '" + item.name + "' as ID " + item.id + " but also PV ID " + pv_id);
                     // Easy results
-                    String description = result.getString(4);
+                    item.description = result.getString(4);
                     // Description should not be empty
-                    if (result.wasNull() || description == null || description.length() <= 0)
-                        description = name;
+                    if (result.wasNull() || item.description == null || item.description.length() <= 0)
+                        item.description = item.name;
                     // Default to most features turned 'on'
-                    boolean enabled = result.getBoolean(5);
+                    item.enabled = result.getBoolean(5);
                     if (result.wasNull())
-                        enabled = true;
-                    boolean annunciate = result.getBoolean(6);
+                        item.enabled = true;
+                    item.annunciate = result.getBoolean(6);
                     if (result.wasNull())
-                        annunciate = true;
-                    boolean latch = result.getBoolean(7);
+                        item.annunciate = true;
+                    item.latch = result.getBoolean(7);
                     if (result.wasNull())
-                        latch = true;
+                        item.latch = true;
                     // 0/null/empty disables these features
-                    final int min_alarm_delay = result.getInt(8);
-                    final int count = result.getInt(9);
-                    final String filter = result.getString(10);
+                    item.min_alarm_delay = result.getInt(8);
+                    item.count = result.getInt(9);
+                    item.filter = result.getString(10);
 
                     // Decode current severity/status IDs, handling NULL as "Ok"
                     int severity_id = result.getInt(11);
-                    final SeverityLevel current_severity = result.wasNull()
+                    item.current_severity = result.wasNull()
                         ? SeverityLevel.OK
                         : severity_mapping.getSeverityLevel(severity_id);
 
                     int status_id = result.getInt(12);
-                    final String current_status = result.wasNull()
+                    item.current_status = result.wasNull()
                         ? ""
                         : message_mapping.findMessageById(status_id);
 
                     // Alarm severity/status
                     severity_id = result.getInt(13);
-                    final SeverityLevel severity = result.wasNull()
+                    item.severity = result.wasNull()
                         ? SeverityLevel.OK
                         : severity_mapping.getSeverityLevel(severity_id);
 
                     status_id = result.getInt(14);
-                    final String status = result.wasNull()
+                    item.status = result.wasNull()
                         ? ""
                         : message_mapping.findMessageById(status_id);
 
                     // Alarm value, time
-                    final String value = result.getString(15);
+                    item.value = result.getString(15);
 
                     final Timestamp time = result.getTimestamp(16);
-                    final Instant timestamp = result.wasNull()
+                    item.timestamp = result.wasNull()
                         ? Instant.now()
                         : TimestampHelper.toEPICSTime(time);
-
-                    final int global_delay = AlarmServerPreferences.getGlobalAlarmDelay();
-
-                    new AlarmPV(server, parent, id, name, description,
-                            enabled, latch, annunciate, min_alarm_delay, count, global_delay, filter,
-                            current_severity, current_status, severity, status, value, timestamp);
                 }
+                children.computeIfAbsent(parent, id -> new ArrayList<>()).add(item);
             }
         }
-        finally
+        return children;
+    }
+
+    /** Read severity PVs from automated actions 'sevrpv:...' of all items
+     *  @param conn RDB connection
+     *  @return Severity PV names by item ID
+     *  @throws Exception on error
+     */
+    private Map<Integer, List<String>> readSeverityPVs(final Connection conn) throws Exception
+    {
+        final Map<Integer, List<String>> severity_pvs = new HashMap<>();
+        try
+        (
+            final Statement statement = conn.createStatement();
+            final ResultSet result = statement.executeQuery(sql.sel_all_auto_actions);
+        )
         {
-            result.close();
-            sel_actions.close();
+            while (result.next())
+            {
+                final String action = result.getString(3);
+                if (action != null  &&  action.startsWith(SEVRPV))
+                    severity_pvs.computeIfAbsent(result.getInt(1), id -> new ArrayList<>())
+                                .add(action.substring(SEVRPV.length()));
+            }
         }
+        return severity_pvs;
+    }
 
-        // Recurse to children
-        // Cannot do that inside the above while() because that would reuse
-        // the statement of the current ResultSet
-        for (ServerTreeItem child : recurse_items)
-            readChildren(child, sel_items_by_parent);
+    /** Create alarm tree hierarchy
+     *  @param parent Parent entry
+     *  @param children Items by parent ID
+     *  @param severity_pvs Severity PVs by item ID
+     *  @throws Exception on error
+     */
+    private void readChildren(final ServerTreeItem parent, final Map<Integer, List<ItemRow>> children,
+                              final Map<Integer, List<String>> severity_pvs) throws Exception
+    {
+        final List<ItemRow> items = children.get(parent.getID());
+        if (items == null)
+            return;
+        for (ItemRow item : items)
+        {
+            if (item.is_pv)
+            {
+                final int global_delay = AlarmServerPreferences.getGlobalAlarmDelay();
+                new AlarmPV(server, parent, item.id, item.name, item.description,
+                        item.enabled, item.latch, item.annunciate, item.min_alarm_delay, item.count, global_delay, item.filter,
+                        item.current_severity, item.current_status, item.severity, item.status, item.value, item.timestamp);
+            }
+            else
+            {
+                // Check automated action 'sevrpv:' ...
+                String severity_pv = null;
+                for (String pv_name : severity_pvs.getOrDefault(item.id, Collections.emptyList()))
+                {
+                    if (severity_pv != null)
+                        logger.log(Level.WARNING, "Multiple severity PVs for '" + item.name + "', '" +
+                                   severity_pv + "' as well as '" + pv_name + "'");
+                    severity_pv = pv_name;
+                }
+                readChildren(new ServerTreeItem(parent, item.name, item.id, severity_pv), children, severity_pvs);
+            }
+        }
     }
 
     /** Read configuration for PV, update it from RDB
@@ -229,7 +229,7 @@ public class AlarmServer implements Runnable
             alarm_tree.dump(out);
         }
 
-        out.println("Work queue size: " + work_queue.size());
+        out.println(work_queue.getMetrics());
 
         // Log memory usage in MB
         final double free = Runtime.getRuntime().freeMemory() / (1024.0*1024.0);
@@ -602,8 +602,10 @@ public class AlarmServer implements Runnable
     public void sendEnablementUpdate(final AlarmPV pv, final boolean enabled)
     {
         messenger.sendEnablementUpdate(pv, enabled);
-        // Handle in separate queue & thread
-        work_queue.execute(new Runnable()
+        // Handle in separate queue & thread.
+        // Only the latest enablement of a PV needs to be written,
+        // so replace a pending update for the same PV
+        work_queue.executeReplacable(pv, new Runnable()
         {
             @Override
             public void run()
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast;
+
+import java.util.LinkedList;
+
+/** Demo of the {@link WorkQueue} performance in an alarm storm
+ *
+ *  <p>Not a test, replays the storm of the {@link WorkQueueStormTest}
+ *  and, for comparison, through the previously used
+ *  linked list with linear lookup.
+ */
+@SuppressWarnings("nls")
+public class WorkQueueStormDemo
+{
+    /** Previous implementation of a replacable command: Linear lookup in linked list */
+    private static class LinkedListQueue
+    {
+        private final LinkedList<Runnable> tasks = new LinkedList<>();
+
+        private static class Keyed implements Runnable
+        {
+            final Object key;
+            final Runnable command;
+
+            Keyed(final Object key, final Runnable command)
+            {
+                this.key = key;
+                this.command = command;
+            }
+
+            @Override
+            public void run()
+            {
+                command.run();
+            }
+
+            @Override
+            public boolean equals(final Object obj)
+            {
+                return obj instanceof Keyed  &&  ((Keyed) obj).key.equals(key);
+            }
+
+            @Override
+            public int hashCode()
+            {
+                return key.hashCode();
+            }
+        }
+
+        void executeReplacable(final Object key, final Runnable command)
+        {
+            final Keyed keyed = new Keyed(key, command);
+            synchronized (tasks)
+            {
+                // Linear search, replacing in place
+                final int index = tasks.indexOf(keyed);
+                if (index >= 0)
+                    tasks.set(index, keyed);
+                else
+                    tasks.add(keyed);
+            }
+        }
+
+        void performQueuedCommands()
+        {
+            Runnable task;
+            do
+            {
+                synchronized (tasks)
+                {
+                    task = tasks.poll();
+                }
+                if (task != null)
+                    task.run();
+            }
+            while (task != null);
+        }
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        final WorkQueue queue = new WorkQueue();
+        final double seconds = WorkQueueStormTest.storm((pv, update) ->
+        {
+            queue.executeReplacable(pv, () -> { /* NOP */ });
+            if (Integer.parseInt(pv.substring(2)) % 1000 == 0)
+                queue.executeIfNotPending(() -> { /* NOP */ });
+        }, () -> queue.performQueuedCommands());
+        System.out.format("WorkQueue: %d PVs x %d updates in %.3f s\n",
+                          WorkQueueStormTest.PVS, WorkQueueStormTest.UPDATES, seconds);
+        System.out.println(queue.getMetrics());
+
+        final LinkedListQueue list = new LinkedListQueue();
+        final double list_seconds = WorkQueueStormTest.storm((pv, update) ->
+            list.executeReplacable(pv, () -> { /* NOP */ }),
+            () -> list.performQueuedCommands());
+        System.out.format("LinkedList: %d PVs x %d updates in %.3f s\n",
+                          WorkQueueStormTest.PVS, WorkQueueStormTest.UPDATES, list_seconds);
+    }
+}
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/** JUnit test of the {@link WorkQueue} in an alarm storm
+ *
+ *  <p>Replays the pattern of the alarm server during a flood:
+ *  Several JMS/PV threads submit replacable updates for 20k PVs,
+ *  each PV changing several times,
+ *  while a batch updater periodically submits its
+ *  'if not pending' command and the main thread
+ *  performs the queued commands.
+ *
+ *  @see WorkQueueStormDemo
+ */
+@SuppressWarnings("nls")
+public class WorkQueueStormTest
+{
+    static final int PVS = 20000;
+    static final int UPDATES = 5;
+    private static final int THREADS = 4;
+
+    /** Run storm
+     *  @param replace Submits replacable command for PV
+     *  @param perform Performs queued commands
+     *  @return Runtime in seconds
+     */
+    static double storm(final Submitter replace, final Runnable perform) throws Exception
+    {
+        final CountDownLatch done = new CountDownLatch(THREADS);
+        final long start = System.nanoTime();
+        for (int t=0; t<THREADS; ++t)
+        {
+            final int offset = t;
+            new Thread(() ->
+            {
+                for (int u=0; u<UPDATES; ++u)
+                    for (int i=offset; i<PVS; i+=THREADS)
+                        replace.submit("PV" + i, u);
+                done.countDown();
+            }, "Storm" + t).start();
+        }
+        // Main thread keeps executing while the storm is submitted
+        while (done.getCount() > 0)
+        {
+            perform.run();
+            Thread.sleep(1);
+        }
+        perform.run();
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    /** Submits an update for a PV */
+    @FunctionalInterface
+    interface Submitter
+    {
+        void submit(String pv, int update);
+    }
+
+    @Test(timeout=300000)
+    public void testStorm() throws Exception
+    {
+        final WorkQueue queue = new WorkQueue();
+        final AtomicInteger executed = new AtomicInteger();
+        final Runnable batch_update = () -> executed.incrementAndGet();
+        final AtomicInteger latest[] = new AtomicInteger[PVS];
+        for (int i=0; i<PVS; ++i)
+            latest[i] = new AtomicInteger(-1);
+
+        storm((pv, update) ->
+        {
+            final int index = Integer.parseInt(pv.substring(2));
+            queue.executeReplacable(pv, () -> latest[index].accumulateAndGet(update, Math::max));
+            if (index % 1000 == 0)
+                queue.executeIfNotPending(batch_update);
+        }, () -> queue.performQueuedCommands());
+
+        // Every PV ended up with its last update
+        for (int i=0; i<PVS; ++i)
+            assertEquals(UPDATES-1, latest[i].get());
+        assertEquals(PVS*UPDATES, queue.getExecutedCount() - executed.get() + queue.getReplacedCount());
+    }
+}
@@ -100,6 +100,87 @@ public class WorkQueueUnitTest
         assertEquals(0.0, seconds, 0.01);
     }
 
+    @Test
+    public void testIfNotPending() throws Exception
+    {
+        final WorkQueue queue = new WorkQueue();
+        final Runnable hello = new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                result += "Hello";
+            }
+        };
+        queue.executeIfNotPending(hello);
+        queue.executeIfNotPending(hello);
+        assertEquals(1, queue.size());
+        queue.performQueuedCommands();
+        assertEquals("Hello", result);
+
+        // Once executed, it can be queued again
+        queue.executeIfNotPending(hello);
+        queue.performQueuedCommands();
+        assertEquals("HelloHello", result);
+    }
+
+    @Test
+    public void testReplacable() throws Exception
+    {
+        final WorkQueue queue = new WorkQueue();
+        for (int i=0; i<5; ++i)
+        {
+            final String text = "A" + i;
+            queue.executeReplacable("a", () -> result += text);
+        }
+        queue.execute(() -> result += "X");
+        queue.executeReplacable("b", () -> result += "B");
+        // Replacement keeps the position of the original "a" command
+        queue.executeReplacable("a", () -> result += "A");
+        assertEquals(3, queue.size());
+        assertEquals(5, queue.getReplacedCount());
+        assertEquals(3, queue.getMaxSize());
+
+        queue.performQueuedCommands();
+        assertEquals("AXB", result);
+        assertEquals(0, queue.size());
+        assertEquals(3, queue.getExecutedCount());
+        assertTrue(queue.getMaxLatency() >= queue.getAverageLatency());
+        assertTrue(queue.getMetrics().startsWith("Work queue size: 0 (max. 3), executed 3, replaced 5,"));
+
+        queue.resetMetrics();
+        assertEquals(0, queue.getMaxSize());
+        assertEquals(0, queue.getExecutedCount());
+        assertEquals(0, queue.getReplacedCount());
+        assertEquals(0.0, queue.getMaxLatency(), 0.0);
+    }
+
+    @Test
+    public void testWakeup() throws Exception
+    {
+        final WorkQueue queue = new WorkQueue();
+        final Thread thread = new Thread(() ->
+        {
+            try
+            {
+                Thread.sleep(100);
+            }
+            catch (InterruptedException ex)
+            {
+                // Ignore
+            }
+            queue.execute(() -> result += "Hello");
+        });
+        thread.start();
+        // Waiting for commands returns as soon as a command is added
+        final long start = System.currentTimeMillis();
+        queue.performQueuedCommands(5000);
+        final long end = System.currentTimeMillis();
+        assertEquals("Hello", result);
+        assertTrue(end - start < 2000);
+        thread.join();
+    }
+
     // Meant to run in JProfiler, used to
     // determine queue performance
     @Ignore
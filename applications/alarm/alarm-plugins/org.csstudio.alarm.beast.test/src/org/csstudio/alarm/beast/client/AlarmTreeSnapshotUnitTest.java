@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.client;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.time.Instant;
+
+import org.junit.Test;
+
+/** JUnit Test of the AlarmTreeSnapshot
+ */
+@SuppressWarnings("nls")
+public class AlarmTreeSnapshotUnitTest
+{
+    private static final String URL = "jdbc:mysql://localhost/ALARM";
+
+    private AlarmTreeRoot createTree()
+    {
+        final AlarmTreeRoot root = new AlarmTreeRoot("Test Config", 1);
+        root.setGuidance(new GDCDataStructure[] { new GDCDataStructure("Root", "Top level guidance") });
+        final AlarmTreeItem dtl = new AlarmTreeItem(root, "DTL", 2);
+        dtl.setConfigTime(Instant.ofEpochSecond(1500000000, 123456789));
+        dtl.setDisplays(new GDCDataStructure[] { new GDCDataStructure("main.edl", "edm main.edl") });
+        final AlarmTreeItem vacuum = new AlarmTreeItem(dtl, "Vacuum", 3);
+        final AlarmTreePV pv = new AlarmTreePV(vacuum, "DTL_Vac:Pressure", 4);
+        pv.setCommands(new GDCDataStructure[] { new GDCDataStructure("reset", "caput DTL_Vac:Reset 1") });
+        pv.setAutomatedActions(new AADataStructure[] { new AADataStructure("Send Mail", "paul@home.there", 30) });
+        new AlarmTreePV(vacuum, "DTL_Vac:Flow", 5);
+        new AlarmTreeItem(root, "CCL", 6);
+        return root;
+    }
+
+    /** @return Tree dumped as XML */
+    private String dump(final AlarmTreeRoot root) throws Exception
+    {
+        final StringWriter buf = new StringWriter();
+        final PrintWriter out = new PrintWriter(buf);
+        root.writeXML(out);
+        out.close();
+        return buf.toString();
+    }
+
+    @Test
+    public void testSnapshot() throws Exception
+    {
+        final File dir = Files.createTempDirectory("alarm_snapshot").toFile();
+        final AlarmTreeSnapshot snapshot = new AlarmTreeSnapshot(dir, "Test Config");
+        final AlarmTreeRoot tree = createTree();
+        snapshot.write(URL, "6/6/1500000000123", tree);
+        System.out.println("Snapshot: " + snapshot.getFile() + ", " + snapshot.getFile().length() + " bytes");
+
+        // Read back
+        final AlarmTreeRoot copy = new AlarmTreeRoot("Test Config", 1);
+        assertTrue(snapshot.read(URL, "6/6/1500000000123", copy));
+        assertEquals(dump(tree), dump(copy));
+        assertEquals(tree.getElementCount(), copy.getElementCount());
+
+        final AlarmTreeItem pv = copy.getItemByPath("/Test Config/DTL/Vacuum/DTL_Vac:Pressure");
+        assertTrue(pv instanceof AlarmTreePV);
+        assertEquals(4, pv.getID());
+        assertArrayEquals(new GDCDataStructure[] { new GDCDataStructure("reset", "caput DTL_Vac:Reset 1") }, pv.getCommands());
+        assertEquals(tree.getChild(0).getConfigTime(), copy.getChild(0).getConfigTime());
+
+        // Snapshot is ignored for different fingerprint, URL or root
+        assertFalse(snapshot.read(URL, "7/7/1500000000123", new AlarmTreeRoot("Test Config", 1)));
+        assertFalse(snapshot.read("jdbc:oracle:thin:@host:1521/ALARM", "6/6/1500000000123", new AlarmTreeRoot("Test Config", 1)));
+        assertFalse(snapshot.read(URL, "6/6/1500000000123", new AlarmTreeRoot("Test Config", 42)));
+
+        snapshot.getFile().delete();
+        dir.delete();
+    }
+}
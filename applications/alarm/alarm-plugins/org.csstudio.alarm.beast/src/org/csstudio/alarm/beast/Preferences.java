@@ -58,6 +58,7 @@ public class Preferences
     final public static String GUI_UPDATE_INITIAL_MILLIS = "gui_update_initial_millis";
     final public static String BATCH_UPDATE_PERIOD = "batch_update_period";
     final public static String BATCH_SIZE = "batch_size";
+    final public static String CONFIG_SNAPSHOT_DIRECTORY = "config_snapshot_directory";
 
     final private static String SERVER_SUFFIX = "_SERVER";
     final private static String CLIENT_SUFFIX = "_CLIENT";
@@ -332,4 +333,10 @@ public class Preferences
         final IPreferencesService service = Platform.getPreferencesService();
         return service.getInt(Activator.ID, BATCH_SIZE, 3000, null);
     }
+
+    /** @return Directory for local snapshots of the alarm configuration, empty to disable */
+    public static String getConfigSnapshotDirectory()
+    {
+        return getString(CONFIG_SNAPSHOT_DIRECTORY, "").trim();
+    }
 }
@@ -30,6 +30,14 @@ public class SQL
     final public String sel_auto_actions_by_id;
     final public String sel_items_by_parent;
     final public String sel_item_by_parent_and_name;
+    final public String sel_all_items;
+    final public String sel_item_hierarchy;
+    final public String sel_all_pvs;
+    final public String sel_all_guidance;
+    final public String sel_all_displays;
+    final public String sel_all_commands;
+    final public String sel_all_auto_actions;
+    final public String sel_config_fingerprint;
     final public String sel_last_item_id;
     final public String insert_item;
 
@@ -134,6 +142,66 @@ public class SQL
             " LEFT JOIN " + schema_prefix + "PV p ON p.COMPONENT_ID = t.COMPONENT_ID" +
             " WHERE t.PARENT_CMPNT_ID=? AND t.NAME=?";
 
+        // Set-based variants for reading a complete configuration in one pass
+        // instead of one query per component.
+        // They read all configurations, the caller picks the items below its root.
+        // Recursive queries would limit this to one configuration,
+        // but are not portable across the supported databases.
+        //
+        // Except for the additional 't.PARENT_CMPNT_ID',
+        // the columns must match sel_items_by_parent!
+        sel_all_items =
+            //        1               2
+            "SELECT t.COMPONENT_ID, t.CONFIG_TIME," +
+            //  3               4        5              6
+            " p.COMPONENT_ID, p.DESCR, p.ENABLED_IND, p.ANNUNCIATE_IND," +
+            //  7            8        9              10        11
+            " p.LATCH_IND, p.DELAY, p.DELAY_COUNT, p.FILTER, p.CUR_SEVERITY_ID," +
+            //  12               13             14           15          16
+            " p.CUR_STATUS_ID, p.SEVERITY_ID, p.STATUS_ID, p.PV_VALUE, p.ALARM_TIME," +
+            //  17      18
+            " t.NAME, t.PARENT_CMPNT_ID" +
+            " FROM " + schema_prefix + "ALARM_TREE t" +
+            " LEFT JOIN " + schema_prefix + "PV p ON p.COMPONENT_ID = t.COMPONENT_ID" +
+            " ORDER BY t.COMPONENT_ID";
+
+        // Hierarchy of all items without the PV detail.
+        // p.COMPONENT_ID is null for components.
+        sel_item_hierarchy =
+            //        1               2                  3       4              5
+            "SELECT t.COMPONENT_ID, t.PARENT_CMPNT_ID, t.NAME, t.CONFIG_TIME, p.COMPONENT_ID" +
+            " FROM " + schema_prefix + "ALARM_TREE t" +
+            " LEFT JOIN " + schema_prefix + "PV p ON p.COMPONENT_ID = t.COMPONENT_ID" +
+            " ORDER BY t.COMPONENT_ID";
+
+        // All PVs. Columns must match sel_items_by_parent
+        sel_all_pvs =
+            //        1               2
+            "SELECT t.COMPONENT_ID, t.CONFIG_TIME," +
+            //  3               4        5              6
+            " p.COMPONENT_ID, p.DESCR, p.ENABLED_IND, p.ANNUNCIATE_IND," +
+            //  7            8        9              10        11
+            " p.LATCH_IND, p.DELAY, p.DELAY_COUNT, p.FILTER, p.CUR_SEVERITY_ID," +
+            //  12               13             14           15          16
+            " p.CUR_STATUS_ID, p.SEVERITY_ID, p.STATUS_ID, p.PV_VALUE, p.ALARM_TIME" +
+            " FROM " + schema_prefix + "PV p" +
+            " JOIN " + schema_prefix + "ALARM_TREE t ON t.COMPONENT_ID = p.COMPONENT_ID";
+
+        sel_all_guidance =
+            "select COMPONENT_ID, TITLE, DETAIL FROM " + schema_prefix + "GUIDANCE ORDER BY COMPONENT_ID, GUIDANCE_ORDER";
+        sel_all_displays =
+            "select COMPONENT_ID, TITLE, DETAIL FROM " + schema_prefix + "DISPLAY ORDER BY COMPONENT_ID, DISPLAY_ORDER";
+        sel_all_commands =
+            "select COMPONENT_ID, TITLE, DETAIL FROM " + schema_prefix + "COMMAND ORDER BY COMPONENT_ID, COMMAND_ORDER";
+        sel_all_auto_actions =
+            "select COMPONENT_ID, TITLE, DETAIL, DELAY FROM " + schema_prefix + "AUTOMATED_ACTION ORDER BY COMPONENT_ID, AUTO_ACTION_ORDER";
+
+        // Cheap check for configuration changes:
+        // Adding, removing, renaming, moving or configuring an item
+        // changes the count, last ID or last config time
+        sel_config_fingerprint =
+            "SELECT COUNT(*), MAX(COMPONENT_ID), MAX(CONFIG_TIME) FROM " + schema_prefix + "ALARM_TREE";
+
         sel_last_item_id =
             "SELECT MAX(COMPONENT_ID) FROM " + schema_prefix + "ALARM_TREE";
 
@@ -200,8 +268,9 @@ public class SQL
         update_pv_enablement =
             "UPDATE " + schema_prefix + "PV SET ENABLED_IND=?  WHERE COMPONENT_ID=?";
         delete_pv_by_id = "DELETE FROM " + schema_prefix + "PV WHERE COMPONENT_ID = ?";
-        rename_item = "UPDATE " + schema_prefix + "ALARM_TREE SET NAME=? WHERE COMPONENT_ID=?";
-        move_item = "UPDATE " + schema_prefix + "ALARM_TREE SET PARENT_CMPNT_ID=? WHERE COMPONENT_ID=?";
+        // Rename and move update the config time to invalidate configuration snapshots
+        rename_item = "UPDATE " + schema_prefix + "ALARM_TREE SET NAME=?, CONFIG_TIME=" + now + " WHERE COMPONENT_ID=?";
+        move_item = "UPDATE " + schema_prefix + "ALARM_TREE SET PARENT_CMPNT_ID=?, CONFIG_TIME=" + now + " WHERE COMPONENT_ID=?";
 
         sel_severity =
             "SELECT SEVERITY_ID FROM " + schema_prefix + "SEVERITY WHERE NAME=?";
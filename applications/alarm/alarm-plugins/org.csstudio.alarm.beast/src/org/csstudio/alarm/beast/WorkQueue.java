@@ -7,9 +7,14 @@
  ******************************************************************************/
 package org.csstudio.alarm.beast;
 
-import java.util.LinkedList;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Level;
 
 /** Queue that receives {@link Runnable}s and executes them.
@@ -21,6 +26,12 @@ import java.util.logging.Level;
  *  For example used to re-direct execution of commands to a 'main'
  *  thread, to assert that all interactions with a certain resource
  *  happen on the same thread.
+ *  <p>
+ *  Commands can be queued with a key.
+ *  A command for a key that's already pending either replaces
+ *  the pending command or is ignored, in constant time.
+ *  Adding commands does not lock, so many threads
+ *  can add commands while the queue is executed.
  *
  *  @author Kay Kasemir
  *  @author Jaka Bobnar - RDB batching
@@ -28,36 +39,52 @@ import java.util.logging.Level;
 @SuppressWarnings("nls")
 public class WorkQueue implements Executor
 {
-    /** Task queue */
-    final Queue<Runnable> tasks = new LinkedList<Runnable>();
+    /** Queued command */
+    private static class Task
+    {
+        /** Key or <code>null</code> */
+        final Object key;
+
+        /** Time when queued, System.nanoTime() */
+        final long queued = System.nanoTime();
+
+        /** Command. For keyed tasks only changed while key is locked in 'pending' */
+        Runnable command;
+
+        Task(final Object key, final Runnable command)
+        {
+            this.key = key;
+            this.command = command;
+        }
+    }
 
     // Compared these data structures for 'tasks':
     //
     // final Queue<Runnable> tasks = new LinkedList<Runnable>();
     // final LinkedHashMap<Object, Runnable> tasks = new LinkedHashMap<Object, Runnable>();
     //
-    // Considered LinkedHashSet, but didn't work:
-    // Inserting a 'new' ReplacableRunnable would simply keep
-    // an older entry, not update it.
+    // A linked list was sufficient while only a few noisy PVs
+    // were pending, but the linear lookup for an existing command
+    // becomes quadratic when thousands of PVs are pending in an alarm flood.
+    // Now using a concurrent queue for the order of tasks
+    // together with a concurrent hash map to locate pending tasks by key.
 
-    // JProfile results for 100 tasks, replaced 4 times:
-    //
-    //                     LinkedList  LinkedHashMap
-    // execute                 4us         10us
-    // executeReplacable      44us         10us
-    // getOldestRunnable       1us         12us
-    //
-    // Linked list is obviously slower when asked to replaced an existing
-    // runnable for the same object because of the linear lookup.
-    // But how long is the list going to be?
-    // Usually only a few noisy PVs, so maybe just 2 or 3 entries
-    // that keep getting replaced.
-    // If the test is run with only 10 tasks in the queue,
-    // executeReplacable for the LinkedList takes only 11us,
-    // i.e. similar to LinkedHashMap
-    //
-    // -> Simple linked list is probably good enough for the
-    // common use case, plus uses less memory.
+    /** Tasks in order of execution */
+    final private Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+
+    /** Pending tasks that have a key */
+    final private ConcurrentHashMap<Object, Task> pending = new ConcurrentHashMap<>();
+
+    /** Number of queued tasks */
+    final private AtomicInteger size = new AtomicInteger();
+
+    /** Thread that's waiting for tasks, or <code>null</code> */
+    private volatile Thread waiting = null;
+
+    // Metrics
+    final private AtomicInteger max_size = new AtomicInteger();
+    final private LongAdder executed = new LongAdder(), replaced = new LongAdder(), latency = new LongAdder();
+    final private AtomicLong max_latency = new AtomicLong();
 
     /** Thread that executes the queue. Set on first access */
     private Thread thread;
@@ -65,10 +92,7 @@ public class WorkQueue implements Executor
     /** @return Number of currently queued commands on the work queue */
     public int size()
     {
-        synchronized (tasks)
-        {
-            return tasks.size();
-        }
+        return size.get();
     }
 
     /** Add a command to the queue
@@ -78,16 +102,7 @@ public class WorkQueue implements Executor
     @Override
     public void execute(final Runnable command)
     {
-        synchronized (tasks)
-        {
-            // Hash: Use dummy key to add a new element
-            // tasks.put(new Object(), command);
-
-            // Queue:
-            tasks.add(command);
-
-            tasks.notifyAll();
-        }
+        add(new Task(null, command));
     }
 
     /** Add a command to the queue but only if that same command is not already in the queue.
@@ -97,43 +112,92 @@ public class WorkQueue implements Executor
      */
     public void executeIfNotPending(final Runnable command)
     {
-        synchronized (tasks)
+        final boolean added[] = new boolean[1];
+        final Task task = pending.computeIfAbsent(command, key ->
         {
-            if (!tasks.contains(command))
+            added[0] = true;
+            return new Task(key, command);
+        });
+        if (added[0])
+            add(task);
+    }
+
+    /** Add a command to the queue, replacing a pending command for the same key.
+     *
+     *  <p>If a command for the key is pending, it is replaced
+     *  by the new command, keeping its position in the queue.
+     *  Otherwise the command is added to the end of the queue.
+     *
+     *  @param key Key, for example name of a PV for which only the latest command needs to execute
+     *  @param command the command to be added to the queue
+     */
+    public void executeReplacable(final Object key, final Runnable command)
+    {
+        final boolean added[] = new boolean[1];
+        final Task task = pending.compute(key, (k, existing) ->
+        {
+            if (existing == null)
             {
-                tasks.add(command);
-                tasks.notifyAll();
+                added[0] = true;
+                return new Task(k, command);
             }
-        }
+            existing.command = command;
+            return existing;
+        });
+        if (added[0])
+            add(task);
+        else
+            replaced.increment();
+    }
+
+    /** @param task Task to add to queue */
+    private void add(final Task task)
+    {
+        tasks.add(task);
+        final int current = size.incrementAndGet();
+        if (current > max_size.get())
+            max_size.accumulateAndGet(current, Math::max);
+        final Thread waiter = waiting;
+        if (waiter != null)
+            LockSupport.unpark(waiter);
     }
 
-    /** @return Oldest runnable in the queue or <code>null</code> */
+    /** @return Oldest command in the queue or <code>null</code> */
     private Runnable getOldestRunnable()
     {
-        synchronized (tasks)
+        final Task task = tasks.poll();
+        if (task == null)
+            return null;
+        size.decrementAndGet();
+
+        final long delay = System.nanoTime() - task.queued;
+        executed.increment();
+        latency.add(delay);
+        if (delay > max_latency.get())
+            max_latency.accumulateAndGet(delay, Math::max);
+
+        if (task.key == null)
+            return task.command;
+        // Remove from pending, fetching the command while
+        // the key is locked so it can no longer be replaced
+        final Runnable command[] = new Runnable[] { task.command };
+        pending.computeIfPresent(task.key, (key, existing) ->
         {
-            // Hash: Need iterator to get oldest
-            //final Iterator<Runnable> iter = tasks.values().iterator();
-            //if (iter.hasNext())
-            //{
-            //    final Runnable result = iter.next();
-            //    iter.remove();
-            //    return result;
-            //}
-            //return null;
-
-            // Queue was designed for this
-            return tasks.poll();
-        }
+            if (existing != task)
+                return existing;
+            command[0] = existing.command;
+            return null;
+        });
+        return command[0];
     }
 
-    /** Perform queued commands, return when done.
-     *  Returns 'immediately' if there are no queued commands.
+    /** Execute a batch of queued commands
+     *  @param task First command to execute
      */
-    public void performQueuedCommands()
+    private void executeBatch(Runnable task)
     {
-        // Execute all tasks on queue
-        Runnable task = getOldestRunnable();
+        // Execute tasks until the queue is empty,
+        // including tasks that were added while executing
         while (task != null)
         {
             try
@@ -148,6 +212,14 @@ public class WorkQueue implements Executor
         }
     }
 
+    /** Perform queued commands, return when done.
+     *  Returns 'immediately' if there are no queued commands.
+     */
+    public void performQueuedCommands()
+    {
+        executeBatch(getOldestRunnable());
+    }
+
     /** Perform queued commands. If there are none, wait a little, then check again.
      *  Meant to be called in a 'main' loop, i.e. always from the same thread,
      *  using the delay to keep the loop from using all CPU, yet also not waiting indefinitely
@@ -158,39 +230,81 @@ public class WorkQueue implements Executor
     public void performQueuedCommands(final int millisecs)
     {
         assertOnThread();
-        Runnable task;
-        // Wait in case there aren't any tasks in the queue
-        // Do this while sync'ed to not miss
-        // a notify.
-        synchronized (tasks)
+        Runnable task = getOldestRunnable();
+        if (task == null)
         {
-            task = getOldestRunnable();
-            if (task == null)
+            // Register as waiting, then check again to not miss
+            // a task that was added before registering
+            waiting = Thread.currentThread();
+            try
             {
-                try
-                {
-                    tasks.wait(millisecs);
-                }
-                catch (InterruptedException ex)
+                task = getOldestRunnable();
+                final long end = System.nanoTime() + millisecs * 1000000L;
+                long wait = end - System.nanoTime();
+                while (task == null  &&  wait > 0)
                 {
-                    return;
+                    LockSupport.parkNanos(this, wait);
+                    if (Thread.interrupted())
+                        return;
+                    task = getOldestRunnable();
+                    wait = end - System.nanoTime();
                 }
-                task = getOldestRunnable();
             }
-        }
-        // Execute all tasks on queue
-        while (task != null)
-        {
-            try
-            {
-                task.run();
-            }
-            catch (Throwable ex)
+            finally
             {
-                Activator.getLogger().log(Level.SEVERE, "Work Queue Exception", ex);
+                waiting = null;
             }
-            task = getOldestRunnable();
         }
+        executeBatch(task);
+    }
+
+    /** @return Maximum number of queued commands since metrics were reset */
+    public int getMaxSize()
+    {
+        return max_size.get();
+    }
+
+    /** @return Number of commands executed since metrics were reset */
+    public long getExecutedCount()
+    {
+        return executed.sum();
+    }
+
+    /** @return Number of commands that replaced a pending command since metrics were reset */
+    public long getReplacedCount()
+    {
+        return replaced.sum();
+    }
+
+    /** @return Average time in seconds that commands were queued before execution */
+    public double getAverageLatency()
+    {
+        final long count = executed.sum();
+        return count > 0 ? latency.sum() / 1e9 / count : 0.0;
+    }
+
+    /** @return Maximum time in seconds that a command was queued before execution */
+    public double getMaxLatency()
+    {
+        return max_latency.get() / 1e9;
+    }
+
+    /** Reset metrics */
+    public void resetMetrics()
+    {
+        max_size.set(size.get());
+        executed.reset();
+        replaced.reset();
+        latency.reset();
+        max_latency.set(0);
+    }
+
+    /** @return Metrics of queue size and command latency */
+    public String getMetrics()
+    {
+        return String.format("Work queue size: %d (max. %d), executed %d, replaced %d, latency avg. %.3f s, max. %.3f s",
+                             size(), getMaxSize(), getExecutedCount(), getReplacedCount(),
+                             getAverageLatency(), getMaxLatency());
     }
 
     /** Assert that the work queue is executed by the same original thread
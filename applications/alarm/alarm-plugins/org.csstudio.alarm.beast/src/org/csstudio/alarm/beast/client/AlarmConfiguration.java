@@ -7,6 +7,7 @@
  ******************************************************************************/
 package org.csstudio.alarm.beast.client;
 
+import java.io.File;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -24,6 +25,7 @@ import java.util.logging.Level;
 import org.csstudio.alarm.beast.Activator;
 import org.csstudio.alarm.beast.AlarmTreePath;
 import org.csstudio.alarm.beast.Messages;
+import org.csstudio.alarm.beast.Preferences;
 import org.csstudio.alarm.beast.SQL;
 import org.csstudio.alarm.beast.TimestampHelper;
 import org.csstudio.apputil.time.DelayCheck;
@@ -47,6 +49,9 @@ import org.eclipse.osgi.util.NLS;
  */
 public class AlarmConfiguration
 {
+    /** RDB URL */
+    final private String url;
+
     /** Connection to configuration/state snapshot. */
     final private RDBUtil rdb;
 
@@ -73,7 +78,7 @@ public class AlarmConfiguration
     private HashMap<String, AlarmTreePV> pvs = new HashMap<String, AlarmTreePV>();
 
     /** Re-used statements */
-    private PreparedStatement sel_items_by_parent_statement, sel_pv_by_id_statement;
+    private PreparedStatement sel_pv_by_id_statement;
 
 
     /** Initialize
@@ -87,6 +92,7 @@ public class AlarmConfiguration
     public AlarmConfiguration(final String url, final String user,
             final String password, final String schema, final boolean auto_reconnect) throws Exception
     {
+        this.url = url;
         // Allow auto-reconnect?
         this.auto_reconnect = auto_reconnect;
         try
@@ -233,6 +239,7 @@ public class AlarmConfiguration
         final Connection connection = rdb.getConnection();
         final PreparedStatement statement =
             connection.prepareStatement(sql.sel_configuration_by_name);
+        final int id;
         try
         {
             statement.setString(1, root_name);
@@ -244,73 +251,58 @@ public class AlarmConfiguration
                 // Create new, empty alarm tree
                 return (AlarmTreeRoot) addRootOrComponent(null, root_name);
             }
-            final int id = result.getInt(1);
-            final AlarmTreeRoot root = createAlarmTreeRoot(id, root_name);
-            config_reader.readGuidanceDisplaysCommands(root);
-            readChildren(root, monitor, monitor_update_delay);
-            return root;
+            id = result.getInt(1);
         }
         finally
         {
             statement.close();
-            closeStatements();
         }
-    }
 
-    /** Read configuration for child elements
-     *  @param parent Parent node. Children get added to it.
-     *  @param monitor Progress monitor
-     *  @param monitor_update_delay Delay for updates to monitor
-     *  @throws Exception on error
-     */
-    private void readChildren(final AlarmTreeItem parent,
-            final IProgressMonitor monitor, final DelayCheck monitor_update_delay) throws Exception
-    {
-        if (sel_items_by_parent_statement == null)
-            sel_items_by_parent_statement =
-                rdb.getConnection().prepareStatement(sql.sel_items_by_parent);
-        sel_items_by_parent_statement.setInt(1, parent.getID());
-        final ResultSet result = sel_items_by_parent_statement.executeQuery();
-
-        final List<AlarmTreeItem> recurse_items = new ArrayList<AlarmTreeItem>();
-        while (result.next()  &&  !monitor.isCanceled())
-        {
-            final int id = result.getInt(1);
-            final String name = result.getString(17);
-            final Timestamp config_time = result.getTimestamp(2);
-            final AlarmTreeItem item;
-            // Check PV's ID. If null, this is a component, not PV
-            result.getInt(3);
-            if (result.wasNull())
-            {   // Component (area, system), not a PV
-                item = new AlarmTreeItem(parent, name, id);
-                recurse_items.add(item);
+        final AlarmTreeBulkReader reader = new AlarmTreeBulkReader(rdb, sql, config_reader);
+        AlarmTreeRoot root = createAlarmTreeRoot(id, root_name);
+
+        // Use snapshot of the hierarchy unless the RDB configuration changed
+        final String snapshot_dir = Preferences.getConfigSnapshotDirectory();
+        final AlarmTreeSnapshot snapshot = snapshot_dir.isEmpty()
+            ? null
+            : new AlarmTreeSnapshot(new File(snapshot_dir), root_name);
+        String fingerprint = null;
+        boolean have_hierarchy = false;
+        if (snapshot != null)
+        {
+            try
+            {
+                fingerprint = reader.readFingerprint();
+                have_hierarchy = snapshot.read(url, fingerprint, root);
+                if (have_hierarchy)
+                    Activator.getLogger().log(Level.INFO, "Read alarm configuration hierarchy from {0}", snapshot.getFile());
             }
-            else
+            catch (Exception ex)
+            {
+                Activator.getLogger().log(Level.WARNING, "Cannot read alarm configuration snapshot " + snapshot.getFile(), ex);
+                // Discard partially read hierarchy
+                root = createAlarmTreeRoot(id, root_name);
+            }
+        }
+
+        if (! have_hierarchy)
+        {
+            reader.readHierarchy(root, monitor);
+            if (fingerprint != null  &&  !monitor.isCanceled())
             {
-                final AlarmTreePV pv = new AlarmTreePV(parent, name, id);
-                pvs.put(name, pv);
-                // Periodically update progress monitor
-                if (monitor_update_delay.expired())
+                try
                 {
-                    final int count = pvs.size();
-                    monitor.subTask(NLS.bind(Messages.ReadConfigProgressFmt, count));
+                    snapshot.write(url, fingerprint, root);
+                }
+                catch (Exception ex)
+                {
+                    Activator.getLogger().log(Level.WARNING, "Cannot write alarm configuration snapshot " + snapshot.getFile(), ex);
                 }
-                config_reader.configurePVfromResult(pv, result, severity_mapping, message_mapping);
-                item = pv;
             }
-            if (config_time != null)
-                item.setConfigTime(TimestampHelper.toEPICSTime(config_time));
-            config_reader.readGuidanceDisplaysCommands(item);
-        }
-        result.close();
-
-        // Recurse to children
-        // Cannot do that inside the above while() because that would reuse
-        // the statement of the current ResultSet
-        for (AlarmTreeItem item : recurse_items)
-            readChildren(item, monitor, monitor_update_delay);
-        recurse_items.clear();
+        }
+
+        reader.readPVs(root, pvs, severity_mapping, message_mapping, monitor, monitor_update_delay);
+        return root;
     }
 
     /** Add a component to the model and RDB
@@ -954,11 +946,6 @@ public class AlarmConfiguration
     {
         try
         {
-            if (sel_items_by_parent_statement != null)
-            {
-                sel_items_by_parent_statement.close();
-                sel_items_by_parent_statement = null;
-            }
             if (sel_pv_by_id_statement != null)
             {
                 sel_pv_by_id_statement.close();
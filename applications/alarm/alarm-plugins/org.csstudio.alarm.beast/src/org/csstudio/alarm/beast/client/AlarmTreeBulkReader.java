@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.client;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.csstudio.alarm.beast.Messages;
+import org.csstudio.alarm.beast.SQL;
+import org.csstudio.alarm.beast.TimestampHelper;
+import org.csstudio.apputil.time.DelayCheck;
+import org.csstudio.platform.utility.rdb.RDBUtil;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.osgi.util.NLS;
+
+/** Reads the alarm configuration with a few set-based queries
+ *
+ *  <p>Instead of one query per component for its child items
+ *  and further queries per item for guidance, displays etc.,
+ *  this reads all items, all guidance, ... in one query each
+ *  and assembles the tree in memory.
+ *
+ *  <p>The tree is read in two steps:
+ *  {@link #readHierarchy(AlarmTreeRoot, IProgressMonitor)} reads the components, PV names
+ *  and their guidance, displays, commands and automated actions,
+ *  which may also be obtained from an {@link AlarmTreeSnapshot}.
+ *  {@link #readPVs(AlarmTreeRoot, Map, SeverityReader, MessageReader, IProgressMonitor, DelayCheck)}
+ *  then reads PV configuration and alarm state.
+ */
+@SuppressWarnings("nls")
+class AlarmTreeBulkReader
+{
+    /** Item from the hierarchy query */
+    private static class ItemInfo
+    {
+        final int id;
+        final String name;
+        final Timestamp config_time;
+        final boolean is_pv;
+
+        ItemInfo(final int id, final String name, final Timestamp config_time, final boolean is_pv)
+        {
+            this.id = id;
+            this.name = name;
+            this.config_time = config_time;
+            this.is_pv = is_pv;
+        }
+    }
+
+    /** Reader for one entry of guidance, displays, commands or automated actions */
+    @FunctionalInterface
+    private interface EntryReader<T>
+    {
+        T read(ResultSet result) throws Exception;
+    }
+
+    final private RDBUtil rdb;
+    final private SQL sql;
+    final private AlarmConfigurationReader config_reader;
+
+    /** Initialize
+     *  @param rdb RDB connection
+     *  @param sql SQL strings
+     *  @param config_reader Reader used to configure PVs
+     */
+    AlarmTreeBulkReader(final RDBUtil rdb, final SQL sql, final AlarmConfigurationReader config_reader)
+    {
+        this.rdb = rdb;
+        this.sql = sql;
+        this.config_reader = config_reader;
+    }
+
+    /** Read a fingerprint of the configuration in the RDB
+     *
+     *  <p>Changes to the configuration that go through {@link AlarmConfiguration}
+     *  result in a different fingerprint.
+     *
+     *  @return Fingerprint of all configurations
+     *  @throws Exception on error
+     */
+    String readFingerprint() throws Exception
+    {
+        try
+        (
+            final Statement statement = rdb.getConnection().createStatement();
+            final ResultSet result = statement.executeQuery(sql.sel_config_fingerprint);
+        )
+        {
+            if (! result.next())
+                throw new Exception("Cannot read configuration fingerprint");
+            final Timestamp last = result.getTimestamp(3);
+            return result.getLong(1) + "/" + result.getInt(2) + "/" +
+                   (last == null ? "-" : Long.toString(last.getTime()));
+        }
+    }
+
+    /** Read items below root with their guidance, displays, commands and automated actions
+     *
+     *  <p>PVs are created, but not configured.
+     *
+     *  @param root Root of the configuration, must not have any child items, yet
+     *  @param monitor Progress monitor
+     *  @throws Exception on error
+     */
+    void readHierarchy(final AlarmTreeRoot root, final IProgressMonitor monitor) throws Exception
+    {
+        // Child items by parent ID, ordered by item ID
+        final Map<Integer, List<ItemInfo>> children = new HashMap<>();
+        try
+        (
+            final Statement statement = rdb.getConnection().createStatement();
+            final ResultSet result = statement.executeQuery(sql.sel_item_hierarchy);
+        )
+        {
+            while (result.next()  &&  !monitor.isCanceled())
+            {
+                final int id = result.getInt(1);
+                final int parent = result.getInt(2);
+                if (result.wasNull())
+                    continue; // Root of some configuration
+                final String name = result.getString(3);
+                final Timestamp config_time = result.getTimestamp(4);
+                // Check PV's ID. If null, this is a component, not PV
+                result.getInt(5);
+                final boolean is_pv = ! result.wasNull();
+                children.computeIfAbsent(parent, p -> new ArrayList<>())
+                        .add(new ItemInfo(id, name, config_time, is_pv));
+            }
+        }
+
+        final Map<Integer, List<GDCDataStructure>> guidance = readEntries(sql.sel_all_guidance, this::readGDC);
+        final Map<Integer, List<GDCDataStructure>> displays = readEntries(sql.sel_all_displays, this::readGDC);
+        final Map<Integer, List<GDCDataStructure>> commands = readEntries(sql.sel_all_commands, this::readGDC);
+        final Map<Integer, List<AADataStructure>> actions = readEntries(sql.sel_all_auto_actions, result ->
+            new AADataStructure(result.getString(2), result.getString(3), result.getInt(4)));
+
+        // Assemble tree below root, breadth-first
+        final Deque<AlarmTreeItem> parents = new ArrayDeque<>();
+        setGuidanceDisplaysCommands(root, guidance, displays, commands, actions);
+        parents.add(root);
+        while (! parents.isEmpty())
+        {
+            final AlarmTreeItem parent = parents.poll();
+            for (ItemInfo info : children.getOrDefault(parent.getID(), Collections.emptyList()))
+            {
+                final AlarmTreeItem item;
+                if (info.is_pv)
+                    item = new AlarmTreePV(parent, info.name, info.id);
+                else
+                {
+                    item = new AlarmTreeItem(parent, info.name, info.id);
+                    parents.add(item);
+                }
+                if (info.config_time != null)
+                    item.setConfigTime(TimestampHelper.toEPICSTime(info.config_time));
+                setGuidanceDisplaysCommands(item, guidance, displays, commands, actions);
+            }
+        }
+    }
+
+    /** Read PV configuration and alarm state
+     *  @param root Root of the configuration with PVs from <code>readHierarchy</code> or snapshot
+     *  @param pvs Map of PV names to PVs that will be populated
+     *  @param severity_mapping
+     *  @param message_mapping
+     *  @param monitor Progress monitor
+     *  @param monitor_update_delay Delay for updates to monitor
+     *  @throws Exception on error
+     */
+    void readPVs(final AlarmTreeRoot root, final Map<String, AlarmTreePV> pvs,
+                 final SeverityReader severity_mapping, final MessageReader message_mapping,
+                 final IProgressMonitor monitor, final DelayCheck monitor_update_delay) throws Exception
+    {
+        // Locate PVs of this configuration by ID
+        final Map<Integer, AlarmTreePV> pvs_by_id = new HashMap<>();
+        final Deque<AlarmTreeItem> items = new ArrayDeque<>();
+        items.add(root);
+        while (! items.isEmpty())
+        {
+            final AlarmTreeItem item = items.poll();
+            if (item instanceof AlarmTreePV)
+                pvs_by_id.put(item.getID(), (AlarmTreePV) item);
+            else
+                for (int i=0; i<item.getChildCount(); ++i)
+                    items.add(item.getChild(i));
+        }
+
+        try
+        (
+            final Statement statement = rdb.getConnection().createStatement();
+            final ResultSet result = statement.executeQuery(sql.sel_all_pvs);
+        )
+        {
+            while (result.next()  &&  !monitor.isCanceled())
+            {
+                final AlarmTreePV pv = pvs_by_id.get(result.getInt(1));
+                if (pv == null)
+                    continue; // PV of another configuration
+                pvs.put(pv.getName(), pv);
+                // Periodically update progress monitor
+                if (monitor_update_delay.expired())
+                    monitor.subTask(NLS.bind(Messages.ReadConfigProgressFmt, pvs.size()));
+                config_reader.configurePVfromResult(pv, result, severity_mapping, message_mapping);
+                final Timestamp config_time = result.getTimestamp(2);
+                if (config_time != null)
+                    pv.setConfigTime(TimestampHelper.toEPICSTime(config_time));
+            }
+        }
+    }
+
+    /** @param result Result with component ID, title, detail
+     *  @return {@link GDCDataStructure}
+     */
+    private GDCDataStructure readGDC(final ResultSet result) throws Exception
+    {
+        return new GDCDataStructure(result.getString(2), result.getString(3));
+    }
+
+    /** Read guidance, displays, commands or automated actions of all items
+     *  @param query Query that returns component ID followed by data, ordered by component ID
+     *  @param reader Reader for the data
+     *  @return Map of component ID to its entries
+     *  @throws Exception on error
+     */
+    private <T> Map<Integer, List<T>> readEntries(final String query, final EntryReader<T> reader) throws Exception
+    {
+        final Map<Integer, List<T>> entries = new HashMap<>();
+        try
+        (
+            final Statement statement = rdb.getConnection().createStatement();
+            final ResultSet result = statement.executeQuery(query);
+        )
+        {
+            while (result.next())
+                entries.computeIfAbsent(result.getInt(1), id -> new ArrayList<>())
+                       .add(reader.read(result));
+        }
+        return entries;
+    }
+
+    /** Set guidance, displays, commands and automated actions of an item */
+    private void setGuidanceDisplaysCommands(final AlarmTreeItem item,
+            final Map<Integer, List<GDCDataStructure>> guidance,
+            final Map<Integer, List<GDCDataStructure>> displays,
+            final Map<Integer, List<GDCDataStructure>> commands,
+            final Map<Integer, List<AADataStructure>> actions)
+    {
+        final Integer id = item.getID();
+        item.setGuidance(toArray(guidance.get(id), new GDCDataStructure[0]));
+        item.setDisplays(toArray(displays.get(id), new GDCDataStructure[0]));
+        item.setCommands(toArray(commands.get(id), new GDCDataStructure[0]));
+        item.setAutomatedActions(toArray(actions.get(id), new AADataStructure[0]));
+    }
+
+    /** @param list List or <code>null</code>
+     *  @param empty Empty array
+     *  @return Array for the list
+     */
+    private static <T> T[] toArray(final List<T> list, final T[] empty)
+    {
+        if (list == null)
+            return empty;
+        return list.toArray(empty);
+    }
+}
@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+
+/** Local snapshot of the alarm configuration hierarchy
+ *
+ *  <p>Holds the items of an alarm tree with their guidance, displays,
+ *  commands and automated actions in a versioned binary file.
+ *  PV configuration and alarm state are not included,
+ *  they are always read from the RDB.
+ *
+ *  <p>The snapshot is tagged with the RDB URL, configuration root
+ *  and a fingerprint of the RDB configuration,
+ *  and it is only used when all of these match.
+ */
+@SuppressWarnings("nls")
+class AlarmTreeSnapshot
+{
+    /** File format marker, "ALTS" */
+    private static final int MAGIC = 0x414C5453;
+
+    /** File format version. Increment when changing the format */
+    private static final int VERSION = 1;
+
+    private static final byte COMPONENT = 0, PV = 1;
+
+    /** Marker for <code>null</code> time or string */
+    private static final int NULL = -1;
+
+    final private File file;
+
+    /** @param directory Directory for snapshots
+     *  @param root_name Name of the configuration root
+     */
+    AlarmTreeSnapshot(final File directory, final String root_name)
+    {
+        file = new File(directory, root_name.replaceAll("[^A-Za-z0-9_.-]", "_") + ".snapshot");
+    }
+
+    /** @return Snapshot file */
+    File getFile()
+    {
+        return file;
+    }
+
+    /** Write snapshot
+     *
+     *  <p>Writes to a temporary file which then replaces the snapshot,
+     *  so a partially written snapshot is never read.
+     *
+     *  @param url RDB URL
+     *  @param fingerprint Fingerprint of the RDB configuration
+     *  @param root Root of the configuration
+     *  @throws Exception on error
+     */
+    void write(final String url, final String fingerprint, final AlarmTreeRoot root) throws Exception
+    {
+        file.getParentFile().mkdirs();
+        final File tmp = new File(file.getPath() + ".tmp");
+        try
+        (
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+        )
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeString(out, url);
+            writeString(out, fingerprint);
+            writeString(out, root.getName());
+            out.writeInt(root.getID());
+            writeItemInfo(out, root);
+            writeChildren(out, root);
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /** Read snapshot
+     *  @param url RDB URL
+     *  @param fingerprint Current fingerprint of the RDB configuration
+     *  @param root Root of the configuration, must not have any child items, yet
+     *  @return <code>true</code> if the tree was read from the snapshot,
+     *          <code>false</code> if there is no snapshot for this URL, root and fingerprint
+     *  @throws Exception on error in the snapshot, after which the root may be partially populated
+     */
+    boolean read(final String url, final String fingerprint, final AlarmTreeRoot root) throws Exception
+    {
+        if (! file.canRead())
+            return false;
+        try
+        (
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        )
+        {
+            if (in.readInt() != MAGIC  ||  in.readInt() != VERSION)
+                return false;
+            if (! url.equals(readString(in))  ||
+                ! fingerprint.equals(readString(in))  ||
+                ! root.getName().equals(readString(in))  ||
+                root.getID() != in.readInt())
+                return false;
+            readItemInfo(in, root);
+            readChildren(in, root);
+        }
+        return true;
+    }
+
+    private void writeChildren(final DataOutputStream out, final AlarmTreeItem parent) throws IOException
+    {
+        final int count = parent.getChildCount();
+        out.writeInt(count);
+        for (int i=0; i<count; ++i)
+        {
+            final AlarmTreeItem item = parent.getChild(i);
+            out.writeByte(item instanceof AlarmTreePV ? PV : COMPONENT);
+            out.writeInt(item.getID());
+            writeString(out, item.getName());
+            writeItemInfo(out, item);
+            if (! (item instanceof AlarmTreePV))
+                writeChildren(out, item);
+        }
+    }
+
+    private void readChildren(final DataInputStream in, final AlarmTreeItem parent) throws IOException
+    {
+        final int count = in.readInt();
+        for (int i=0; i<count; ++i)
+        {
+            final byte type = in.readByte();
+            final int id = in.readInt();
+            final String name = readString(in);
+            if (type == PV)
+                readItemInfo(in, new AlarmTreePV(parent, name, id));
+            else if (type == COMPONENT)
+            {
+                final AlarmTreeItem item = new AlarmTreeItem(parent, name, id);
+                readItemInfo(in, item);
+                readChildren(in, item);
+            }
+            else
+                throw new IOException("Invalid item type " + type + " in " + file);
+        }
+    }
+
+    /** Write config time, guidance, displays, commands and automated actions */
+    private void writeItemInfo(final DataOutputStream out, final AlarmTreeItem item) throws IOException
+    {
+        final Instant config_time = item.getConfigTimestamp();
+        if (config_time == null)
+            out.writeInt(NULL);
+        else
+        {
+            out.writeInt(config_time.getNano());
+            out.writeLong(config_time.getEpochSecond());
+        }
+        writeGDC(out, item.getGuidance());
+        writeGDC(out, item.getDisplays());
+        writeGDC(out, item.getCommands());
+        final AADataStructure[] actions = item.getAutomatedActions();
+        out.writeInt(actions.length);
+        for (AADataStructure action : actions)
+        {
+            writeString(out, action.getTitle());
+            writeString(out, action.getDetails());
+            out.writeInt(action.getDelay());
+        }
+    }
+
+    private void readItemInfo(final DataInputStream in, final AlarmTreeItem item) throws IOException
+    {
+        final int nano = in.readInt();
+        if (nano != NULL)
+            item.setConfigTime(Instant.ofEpochSecond(in.readLong(), nano));
+        item.setGuidance(readGDC(in));
+        item.setDisplays(readGDC(in));
+        item.setCommands(readGDC(in));
+        final AADataStructure[] actions = new AADataStructure[in.readInt()];
+        for (int i=0; i<actions.length; ++i)
+            actions[i] = new AADataStructure(readString(in), readString(in), in.readInt());
+        item.setAutomatedActions(actions);
+    }
+
+    private void writeGDC(final DataOutputStream out, final GDCDataStructure[] entries) throws IOException
+    {
+        out.writeInt(entries.length);
+        for (GDCDataStructure entry : entries)
+        {
+            writeString(out, entry.getTitle());
+            writeString(out, entry.getDetails());
+        }
+    }
+
+    private GDCDataStructure[] readGDC(final DataInputStream in) throws IOException
+    {
+        final GDCDataStructure[] entries = new GDCDataStructure[in.readInt()];
+        for (int i=0; i<entries.length; ++i)
+            entries[i] = new GDCDataStructure(readString(in), readString(in));
+        return entries;
+    }
+
+    /** Write string which may be <code>null</code> or longer than
+     *  the 64k supported by {@link DataOutputStream#writeUTF(String)}
+     */
+    private void writeString(final DataOutputStream out, final String text) throws IOException
+    {
+        if (text == null)
+        {
+            out.writeInt(NULL);
+            return;
+        }
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private String readString(final DataInputStream in) throws IOException
+    {
+        final int length = in.readInt();
+        if (length == NULL)
+            return null;
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
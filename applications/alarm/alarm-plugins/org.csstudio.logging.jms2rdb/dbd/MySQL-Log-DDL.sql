@@ -71,6 +71,9 @@ CREATE TABLE IF NOT EXISTS message_content
   value VARCHAR(100)
 );
 
+-- Message history reads the content of messages by message ID
+CREATE INDEX message_content_message_id ON message_content (message_id);
+
 
 # NOTE:
 # MyISAM ignores forgeign keys, and the software will work fine
@@ -65,6 +65,17 @@ public class Application implements IApplication
     /** RDB Schema */
     private String rdb_schema = "";
 
+    /** Maximum number of received messages waiting to be written */
+    private int queue_capacity = 10000;
+
+    /** Maximum number of messages written in one transaction */
+    private int batch_size = 500;
+
+    /** Maximum time in milliseconds that a message waits for others
+     *  to be written in the same transaction
+     */
+    private int batch_delay_ms = 100;
+
     /** Thread that handles the JMS messages */
     private LogClientThread log_client_thread;
 
@@ -146,6 +157,12 @@ public class Application implements IApplication
                 SecurePreferences.get(Activator.ID, "rdb_password", null);
         rdb_schema =
             service.getString(Activator.ID, "rdb_schema", rdb_schema, null);
+        queue_capacity =
+            service.getInt(Activator.ID, "queue_capacity", queue_capacity, null);
+        batch_size =
+            service.getInt(Activator.ID, "batch_size", batch_size, null);
+        batch_delay_ms =
+            service.getInt(Activator.ID, "batch_delay_ms", batch_delay_ms, null);
 
         LogConfigurator.configureFromPreferences();
 
@@ -154,7 +171,7 @@ public class Application implements IApplication
         // Start log handler and web interface
         log_client_thread =
             new LogClientThread(jms_url, jms_topic, rdb_url, rdb_user, rdb_password, rdb_schema,
-                                Filter.parse(jms_filters));
+                                Filter.parse(jms_filters), queue_capacity, batch_size, batch_delay_ms);
         startHttpd();
         log_client_thread.start();
         // .. Wait while thread is running ..
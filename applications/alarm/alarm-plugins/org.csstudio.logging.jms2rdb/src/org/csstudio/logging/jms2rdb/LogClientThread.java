@@ -7,6 +7,11 @@
  ******************************************************************************/
 package org.csstudio.logging.jms2rdb;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import javax.jms.Connection;
@@ -20,18 +25,29 @@ import javax.jms.Session;
 import javax.jms.Topic;
 
 import org.csstudio.logging.jms2rdb.rdb.RDBWriter;
+import org.csstudio.logging.jms2rdb.rdb.ReceivedMessage;
 import org.csstudio.platform.utility.jms.JMSConnectionFactory;
 
 /** Thread that receives log messages and sends them to the RDB.
  *  <p>
- *  There is no further queuing in here.
- *  All messages are directly written to the RDB.
+ *  Received messages are placed in a bounded queue.
+ *  The thread takes them from the queue and writes them
+ *  to the RDB in groups, one transaction per group.
+ *  A group is written when it reaches the batch size,
+ *  or when its oldest message has waited for the batch delay.
+ *  While the RDB is busy, more messages accumulate in the queue
+ *  and are then written as a larger group.
+ *  Messages keep the time when they were received,
+ *  which is written as their DATUM.
+ *  <p>
+ *  When writing a group fails, its messages are written one at a time.
+ *  A message that still cannot be written is dropped,
+ *  and the rest of the group is written after re-connecting.
  *  <p>
  *  If messages arrive quicker than they can be written to RDB,
- *  simple test showed that ActiveMQ JMS server will queue them up
+ *  the queue fills up and the JMS listener blocks.
+ *  Simple test showed that ActiveMQ JMS server will then queue them up
  *  for this "consumer" as long as the consumer stays connected.
- *  TODO: Limits and config. of JMS server queue unclear.
- *        Queue in here?
  *
  *  @author Kay Kasemir
  *  reviewed by Katia Danilova 08/20/08
@@ -45,6 +61,9 @@ public class LogClientThread extends Thread
      */
     private static final int RETRY_DELAY_MS = 20000;
 
+    /** Period for checking if the thread should stop while waiting for messages */
+    private static final int POLL_MS = 1000;
+
     /** JMS Server URL */
     final private String jms_url;
 
@@ -66,6 +85,18 @@ public class LogClientThread extends Thread
     /** Message filters */
     final private Filter filters[];
 
+    /** Messages received from JMS, to be written to RDB */
+    final private BlockingQueue<ReceivedMessage> queue;
+
+    /** Maximum number of messages written in one transaction */
+    final private int batch_size;
+
+    /** Maximum time a message waits for more messages to write in one transaction */
+    final private long batch_delay_ms;
+
+    /** Messages taken from the queue that have not been written */
+    final private List<ReceivedMessage> batch;
+
     /** Flag that tells thread to run or stop. */
     private volatile boolean run = true;
 
@@ -84,6 +115,15 @@ public class LogClientThread extends Thread
     /** Last error message or <code>null</code> */
     private String last_error = "";
 
+    /** Number of messages in the last transaction */
+    private int last_batch_size = 0;
+
+    /** Duration of the last transaction in milliseconds */
+    private long last_commit_ms = 0;
+
+    /** Longest transaction in milliseconds */
+    private long max_commit_ms = 0;
+
     /** Constructor
      *  @param jms_url JMS server URL
      *  @param jms_topic JMS topic (or list of topics, separated by ',')
@@ -91,11 +131,17 @@ public class LogClientThread extends Thread
      *  @param rdb_user User (or null)
      *  @param rdb_password Password (or null)
      *  @param rdb_schema RDB schema or ""
+     *  @param filters Filters for suppressed messages
+     *  @param queue_capacity Maximum number of received messages waiting to be written
+     *  @param batch_size Maximum number of messages written in one transaction
+     *  @param batch_delay_ms Maximum time a message waits for more messages
+     *                        to write in one transaction
      */
     public LogClientThread(final String jms_url, final String jms_topic,
             final String rdb_url, final String rdb_user, final String rdb_password,
             final String rdb_schema,
-            final Filter filters[])
+            final Filter filters[],
+            final int queue_capacity, final int batch_size, final long batch_delay_ms)
     {
         super("LogClientThread");
         this.jms_url = jms_url;
@@ -105,6 +151,10 @@ public class LogClientThread extends Thread
         this.rdb_password = rdb_password;
         this.rdb_schema = rdb_schema;
         this.filters = filters;
+        queue = new ArrayBlockingQueue<ReceivedMessage>(Math.max(1, queue_capacity));
+        this.batch_size = Math.max(1, batch_size);
+        batch = new ArrayList<ReceivedMessage>(this.batch_size);
+        this.batch_delay_ms = Math.max(0, batch_delay_ms);
 
         for (Filter filter : filters)
             Activator.getLogger().config(filter.toString());
@@ -128,6 +178,42 @@ public class LogClientThread extends Thread
         return last_error;
     }
 
+    /** @return Number of messages waiting to be written */
+    public int getQueueSize()
+    {
+        return queue.size();
+    }
+
+    /** @return Maximum number of messages waiting to be written */
+    public int getQueueCapacity()
+    {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    /** @return Maximum number of messages written in one transaction */
+    public int getBatchSize()
+    {
+        return batch_size;
+    }
+
+    /** @return Number of messages written in the last transaction */
+    public synchronized int getLastBatchSize()
+    {
+        return last_batch_size;
+    }
+
+    /** @return Duration of the last transaction in milliseconds */
+    public synchronized long getLastCommitMillis()
+    {
+        return last_commit_ms;
+    }
+
+    /** @return Longest transaction in milliseconds */
+    public synchronized long getMaxCommitMillis()
+    {
+        return max_commit_ms;
+    }
+
     /** Connect to JMS, handle messages */
     @Override
     public void run()
@@ -145,16 +231,30 @@ public class LogClientThread extends Thread
                 // Add start message
                 rdb_writer.write("JMS Log Tool started");
 
+                // Write what remained of a group that failed before
+                if (! batch.isEmpty())
+                    writeBatch(batch, rdb_writer::write);
+
                 jms_connection = connectJMS();
 
-                // Incoming JMS messages are handled in onMessage,
-                // so nothing to do here but wait...
+                // Incoming JMS messages are queued in onMessage,
+                // write them until asked to stop
                 synchronized (this)
                 {
                     do_wait = true;
-                    // Check some condition to please FindBugs
-                    while (do_wait)
-                        wait();
+                }
+                while (isWaiting())
+                {
+                    if (takeBatch(batch))
+                        writeBatch(batch, rdb_writer::write);
+                }
+                // On shutdown, write what has already been received
+                if (! run)
+                {
+                    jms_connection.close();
+                    jms_connection = null;
+                    while (queue.drainTo(batch, batch_size) > 0)
+                        writeBatch(batch, rdb_writer::write);
                 }
             }
             catch (Exception ex)
@@ -167,6 +267,10 @@ public class LogClientThread extends Thread
             }
             finally
             {
+                synchronized (this)
+                {
+                    do_wait = false;
+                }
                 // Stop JMS...
                 if (jms_connection != null)
                 {
@@ -206,6 +310,111 @@ public class LogClientThread extends Thread
         }
     }
 
+    /** @return <code>true</code> while thread should keep handling messages */
+    private synchronized boolean isWaiting()
+    {
+        return do_wait;
+    }
+
+    /** Writes a group of messages in one transaction */
+    interface GroupWriter
+    {
+        /** @param messages Messages to write
+         *  @throws Exception on error
+         */
+        public void write(List<ReceivedMessage> messages) throws Exception;
+    }
+
+    /** Take messages from the queue
+     *  @param batch List to which messages are added
+     *  @return <code>true</code> if messages were added
+     *  @throws InterruptedException on interruption
+     */
+    boolean takeBatch(final List<ReceivedMessage> batch) throws InterruptedException
+    {
+        final ReceivedMessage first = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+        if (first == null)
+            return false;
+        batch.add(first);
+        final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batch_delay_ms);
+        while (batch.size() < batch_size)
+        {
+            if (queue.drainTo(batch, batch_size - batch.size()) > 0)
+                continue;
+            final long wait = end - System.nanoTime();
+            if (wait <= 0)
+                break;
+            final ReceivedMessage next = queue.poll(wait, TimeUnit.NANOSECONDS);
+            if (next == null)
+                break;
+            batch.add(next);
+        }
+        return true;
+    }
+
+    /** Write messages in one transaction, removing them from the list
+     *  <p>
+     *  When the transaction fails, messages are written one at a time.
+     *  A message that cannot be written is dropped,
+     *  and the messages after it remain in the list.
+     *  @param batch Messages to write
+     *  @param writer Writer for the messages
+     *  @throws Exception on error
+     */
+    void writeBatch(final List<ReceivedMessage> batch, final GroupWriter writer) throws Exception
+    {
+        final int size = batch.size();
+        final long start = System.nanoTime();
+        try
+        {
+            writer.write(batch);
+            batch.clear();
+        }
+        catch (Exception ex)
+        {
+            if (size <= 1)
+                throw dropMessages(batch, ex);
+            Activator.getLogger().log(Level.WARNING,
+                    "Cannot write " + size + " messages, writing them one at a time", ex);
+            while (! batch.isEmpty())
+            {
+                final List<ReceivedMessage> message = batch.subList(0, 1);
+                try
+                {
+                    writer.write(message);
+                }
+                catch (Exception single_ex)
+                {
+                    throw dropMessages(message, single_ex);
+                }
+                message.clear();
+            }
+        }
+        finally
+        {
+            final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            synchronized (this)
+            {
+                last_batch_size = size;
+                last_commit_ms = millis;
+                if (millis > max_commit_ms)
+                    max_commit_ms = millis;
+            }
+        }
+    }
+
+    /** @param messages Messages that could not be written, will be cleared
+     *  @param ex Error
+     *  @return Error
+     */
+    private Exception dropMessages(final List<ReceivedMessage> messages, final Exception ex)
+    {
+        for (ReceivedMessage message : messages)
+            Activator.getLogger().log(Level.WARNING, "Dropped message {0}", message);
+        messages.clear();
+        return ex;
+    }
+
     /** Connect to JMS server
      *  @return JMS Connection
      *  @throws JMSException on error
@@ -267,7 +476,17 @@ public class LogClientThread extends Thread
                     ++message_count;
                     last_message  = map;
                 }
-                rdb_writer.write(map);
+                // Wait while the queue is full, but not after the writer stopped,
+                // because closing the JMS connection waits for this listener
+                final ReceivedMessage received = new ReceivedMessage(map);
+                while (! queue.offer(received, POLL_MS, TimeUnit.MILLISECONDS))
+                {
+                    if (! isWaiting())
+                    {
+                        Activator.getLogger().log(Level.WARNING, "Dropped message {0}", map);
+                        return;
+                    }
+                }
             }
             else
                 Activator.getLogger().log(Level.WARNING, "Received unhandled message {0}", message);
@@ -279,13 +498,6 @@ public class LogClientThread extends Thread
                 last_error = ex.getMessage();
             }
             Activator.getLogger().log(Level.WARNING, "Message handling error for " + message, ex);
-            // Leave run == true, toggle a restart
-            run = true;
-            synchronized (this)
-            {
-                do_wait = false;
-                notifyAll();
-            }
         }
     }
 }
@@ -49,6 +49,15 @@ public class MainServlet extends AbstractServlet
 
         html.h2("Message Count: " + log_client_thread.getMessageCount());
 
+        html.openTable(2, "RDB Writer");
+        html.tableLine("Queued messages",
+                log_client_thread.getQueueSize() + " of " + log_client_thread.getQueueCapacity());
+        html.tableLine("Last batch",
+                log_client_thread.getLastBatchSize() + " of max. " + log_client_thread.getBatchSize() + " messages");
+        html.tableLine("Last commit", log_client_thread.getLastCommitMillis() + " ms");
+        html.tableLine("Longest commit", log_client_thread.getMaxCommitMillis() + " ms");
+        html.closeTable();
+
         final String last_error = log_client_thread.getLastError();
         if (last_error.length() > 0)
         {
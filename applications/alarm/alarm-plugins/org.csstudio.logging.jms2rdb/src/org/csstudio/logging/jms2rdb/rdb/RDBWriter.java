@@ -12,9 +12,12 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -23,9 +26,12 @@ import javax.jms.MapMessage;
 import org.csstudio.logging.JMSLogMessage;
 import org.csstudio.logging.jms2rdb.Activator;
 import org.csstudio.platform.utility.rdb.RDBUtil;
-import org.csstudio.platform.utility.rdb.RDBUtil.Dialect;
 
 /** Class that writes JMSLogMessages to the RDB
+ *  <p>
+ *  Messages can be written in groups.
+ *  All messages of a group and their properties are inserted
+ *  with batched statements and committed in one transaction.
  *  @author Kay Kasemir
  *  @author Lana Abadie - PostgreSQL additions. Disable autocommit as needed.
  *  reviewed by Katia Danilova 08/20/08
@@ -50,8 +56,8 @@ public class RDBWriter
     final private HashMap<String, Integer> properties =
         new HashMap<String, Integer>();
 
-    /** Lazily initialized statement */
-    private PreparedStatement next_message_id_statement;
+    /** Lazily initialized statement, <code>null</code> for MySQL */
+    private PreparedStatement next_message_ids_statement;
 
     /** Lazily initialized statement */
     private PreparedStatement insert_message_statement;
@@ -88,13 +94,13 @@ public class RDBWriter
 
         sql = new SQL(rdb_util, schema);
 
-        if (sql.select_next_message_id != null)
-            next_message_id_statement =
-                connection.prepareStatement(sql.select_next_message_id);
-
-        if (rdb_util.getDialect() == Dialect.PostgreSQL)
+        if (sql.select_next_message_ids != null)
+        {   // Oracle, PostgreSQL: Get IDs from sequence
+            next_message_ids_statement =
+                connection.prepareStatement(sql.select_next_message_ids);
             insert_message_statement =
-                        connection.prepareStatement(sql.insert_message_id_datum_type_name_severity);
+                connection.prepareStatement(sql.insert_message_id_datum_type_name_severity);
+        }
         else // MySQL, other RDB that supports RETURN_GENERATED_KEYS
             insert_message_statement =
                     connection.prepareStatement(sql.insert_message_id_datum_type_name_severity,
@@ -192,11 +198,11 @@ public class RDBWriter
     /** Close the RDB connection */
     public void close()
     {
-        if (next_message_id_statement != null)
+        if (next_message_ids_statement != null)
         {
             try
             {
-                next_message_id_statement.close();
+                next_message_ids_statement.close();
             }
             catch (Exception ex)
             { /* Ignore */ }
@@ -242,59 +248,78 @@ public class RDBWriter
      */
     public void write(final String message) throws Exception
     {
-        final Connection connection = rdb_util.getConnection();
-        connection.setAutoCommit(false);
-        try
-        {
-            final long message_id = insertMessage(JMSLogMessage.TYPE, null, "INFO");
-            batchProperty(message_id, JMSLogMessage.TEXT, message);
-            insert_property_statement.executeBatch();
-            connection.commit();
-        }
-        catch (Exception ex)
-        {
-            connection.rollback();
-            throw ex;
-        }
-        finally
-        {
-            connection.setAutoCommit(true);
-        }
+        final Entry entry = new Entry(new Date(), JMSLogMessage.TYPE, null, "INFO");
+        addProperty(entry, JMSLogMessage.TEXT, message);
+        writeEntries(Collections.singletonList(entry));
     }
 
     /** Write log message to RDB
-     *  @param message MapMessage to write
+     *  @param map MapMessage to write
      *  @throws Exception on error
      */
-    @SuppressWarnings("unchecked")
     public void write(final MapMessage map) throws Exception
     {
-        final String type = map.getString(JMSLogMessage.TYPE);
-        final String name = map.getString(JMSLogMessage.NAME);
-        final String severity = map.getString(JMSLogMessage.SEVERITY);
+        write(Collections.singletonList(new ReceivedMessage(map)));
+    }
+
+    /** Write log messages to RDB in one transaction
+     *  @param messages Received messages to write
+     *  @throws Exception on error
+     */
+    public void write(final List<ReceivedMessage> messages) throws Exception
+    {
+        final List<Entry> entries = new ArrayList<Entry>(messages.size());
+        for (ReceivedMessage message : messages)
+            entries.add(createEntry(message));
+        writeEntries(entries);
+    }
 
+    /** @param message Received message
+     *  @return {@link Entry} for the message
+     *  @throws Exception on error
+     */
+    @SuppressWarnings("unchecked")
+    private Entry createEntry(final ReceivedMessage message) throws Exception
+    {
+        final MapMessage map = message.getMessage();
+        final Entry entry = new Entry(message.getTime(),
+                                      map.getString(JMSLogMessage.TYPE),
+                                      map.getString(JMSLogMessage.NAME),
+                                      map.getString(JMSLogMessage.SEVERITY));
+        final Enumeration<String> props = map.getMapNames();
+        while (props.hasMoreElements())
+        {
+            final String prop = props.nextElement();
+            // Skip properties which are already in message table columns
+            if (JMSLogMessage.TYPE.equals(prop) ||
+                JMSLogMessage.NAME.equals(prop) ||
+                JMSLogMessage.SEVERITY.equals(prop))
+                continue;
+            addProperty(entry, prop, map.getString(prop));
+        }
+        return entry;
+    }
+
+    /** Write messages and their properties in one transaction
+     *  @param entries Messages to write
+     *  @throws Exception on error
+     */
+    private void writeEntries(final List<Entry> entries) throws Exception
+    {
         final Connection connection = rdb_util.getConnection();
         connection.setAutoCommit(false);
         try
         {
-            final long message_id = insertMessage(type, name, severity);
-
-            final Enumeration<String> props = map.getMapNames();
-            while (props.hasMoreElements())
-            {
-                final String prop = props.nextElement();
-                // Skip properties which are already in message table columns
-                if (JMSLogMessage.TYPE.equals(prop) ||
-                    JMSLogMessage.NAME.equals(prop) ||
-                    JMSLogMessage.SEVERITY.equals(prop))
-                    continue;
-                batchProperty(message_id, prop, map.getString(prop));
-            }
+            insertMessages(entries);
+            for (Entry entry : entries)
+                batchProperties(entry);
             insert_property_statement.executeBatch();
             connection.commit();
         }
         catch (Exception ex)
         {
+            insert_message_statement.clearBatch();
+            insert_property_statement.clearBatch();
             connection.rollback();
             throw ex;
         }
@@ -304,108 +329,91 @@ public class RDBWriter
         }
     }
 
-    /** Insert a new message
-     *  @param type  Message type
-     *  @param name Primary name (PV name, ...) to which the msg refers. May be <code>null</code>
-     *  @param severity Message severity
-     *  @return ID of the new message row
+    /** Insert new messages, setting the ID of each entry
+     *  @param entries Messages to insert
      *  @throws Exception on error
      */
-    private long insertMessage(
-            final String type, String name,
-            final String severity) throws Exception
+    private void insertMessages(final List<Entry> entries) throws Exception
     {
-        long message_id = -1;
-        if (rdb_util.getDialect() == Dialect.Oracle)
-        {
-           // Read next unique message ID from sequence
-            final ResultSet result = next_message_id_statement.executeQuery();
-            if (result.next())
-                message_id = result.getInt(1);
-            else
+        if (next_message_ids_statement != null)
+        {   // Read block of unique message IDs from sequence
+            next_message_ids_statement.setInt(1, entries.size());
+            final ResultSet result = next_message_ids_statement.executeQuery();
+            try
+            {
+                for (Entry entry : entries)
+                {
+                    if (! result.next())
+                        throw new Exception("Cannot obtain next message ID");
+                    entry.id = result.getLong(1);
+                }
+            }
+            finally
             {
                 result.close();
-                throw new Exception("Cannot obtain next message ID");
             }
-            result.close();
-            insert_message_statement.setLong(5, message_id);
         }
-        // else: Depend on AUTO_INCREMENT resp. SERIAL for new ID, then read it after insert
+        // else: Depend on AUTO_INCREMENT for new ID, then read it after insert
 
-        // Insert the main message
-        final Date now = new Date();
-        insert_message_statement.setTimestamp(1, new Timestamp(now.getTime()));
-        insert_message_statement.setString(2, type);
-        // Overcome RDB limitations
-        if (name == null)
-            name = "";
-        else if (name.length() > MAX_NAME_LENGTH)
+        // Insert the main messages
+        for (Entry entry : entries)
         {
-            Activator.getLogger().log(Level.WARNING,
-                "Limiting NAME = {0} to {1} characters",
-                new Object[] { name, MAX_NAME_LENGTH });
-            name = name.substring(0, MAX_NAME_LENGTH);
+            insert_message_statement.setTimestamp(1, new Timestamp(entry.time.getTime()));
+            insert_message_statement.setString(2, entry.type);
+            insert_message_statement.setString(3, entry.name);
+            insert_message_statement.setString(4, entry.severity);
+            if (next_message_ids_statement != null)
+                insert_message_statement.setLong(5, entry.id);
+            insert_message_statement.addBatch();
         }
-        insert_message_statement.setString(3, name);
-        insert_message_statement.setString(4, severity);
+        final int[] rows = insert_message_statement.executeBatch();
+        for (int count : rows)
+            if (count != 1  &&  count != Statement.SUCCESS_NO_INFO)
+                throw new Exception("Inserted " + count + " instead of 1 Message");
 
-        // PostgreSQL, MySQL: Read auto-assigned unique message ID
-        if (rdb_util.getDialect() == Dialect.PostgreSQL)
+        // MySQL: Read auto-assigned unique message IDs
+        if (next_message_ids_statement == null)
         {
-            final ResultSet result = insert_message_statement.executeQuery();
-            if (result.next())
+            final ResultSet result = insert_message_statement.getGeneratedKeys();
+            try
             {
-                  message_id = result.getInt(1);
-                  result.close();
+                for (Entry entry : entries)
+                {
+                    if (! result.next())
+                        throw new Exception("Cannot obtain next message ID");
+                    entry.id = result.getLong(1);
+                }
             }
-            else
-            {
-                 result.close();
-                throw new Exception("Cannot obtain next message ID");
-            }
-        }
-        else if (rdb_util.getDialect() == Dialect.MySQL)
-        {
-            final int rows = insert_message_statement.executeUpdate();
-            if (rows != 1)
-                throw new Exception("Inserted " + rows + " instead of 1 Message");
-
-            final ResultSet result = insert_message_statement.getGeneratedKeys();
-            if (result.next())
-                message_id = result.getInt(1);
-            else
+            finally
             {
                 result.close();
-                throw new Exception("Cannot obtain next message ID");
             }
-            result.close();
-        }
-        else // Oracle
-        {
-            final int rows = insert_message_statement.executeUpdate();
-            if (rows != 1)
-                throw new Exception("Inserted " + rows + " instead of 1 Message");
         }
 
         final Logger logger = Activator.getLogger();
         if (logger.isLoggable(Level.FINE))
         {
-            logger.fine("Message " + message_id + ":");
-            logger.fine("  TYPE          : " + type);
-            logger.fine("  DATUM         : " + now);
-            logger.fine("  NAME          : " + name);
-            logger.fine("  SEVERITY      : " + severity);
+            for (Entry entry : entries)
+            {
+                logger.fine("Message " + entry.id + ":");
+                logger.fine("  TYPE          : " + entry.type);
+                logger.fine("  DATUM         : " + entry.time);
+                logger.fine("  NAME          : " + entry.name);
+                logger.fine("  SEVERITY      : " + entry.severity);
+            }
         }
-        return message_id;
     }
 
-    /** Insert a property, add content to a message
-     *  @param message_id ID of message to which this property belongs
-     *  @param property_id ID of the property type
+    /** Add a property to a message
+     *  <p>
+     *  Property types are resolved before any message of a transaction
+     *  is inserted, because adding a new property type commits.
+     *  @param entry Message to which this property belongs
+     *  @param property Name of the property
      *  @param value Value of the property
      *  @throws Exception on error
      */
-    private boolean batchProperty(final long message_id,
+    private boolean addProperty(final Entry entry,
             final String property, String value) throws Exception
     {
         // Don't bother to insert empty properties
@@ -414,8 +422,6 @@ public class RDBWriter
 
         final int property_id = getPropertyType(property);
 
-        insert_property_statement.setLong(1, message_id);
-        insert_property_statement.setInt(2, property_id);
         // Overcome RDB limitations
         if (value.length() > MAX_VALUE_LENGTH)
         {
@@ -424,10 +430,56 @@ public class RDBWriter
                     new Object[] { property, value, MAX_NAME_LENGTH });
             value = value.substring(0, MAX_VALUE_LENGTH);
         }
-        insert_property_statement.setString(3, value);
-        insert_property_statement.addBatch();
+        entry.property_ids.add(property_id);
+        entry.values.add(value);
 
         Activator.getLogger().fine(String.format("  %-14s: %s", property, value));
         return true;
     }
+
+    /** Insert the properties of a message
+     *  @param entry Message with ID and properties
+     *  @throws Exception on error
+     */
+    private void batchProperties(final Entry entry) throws Exception
+    {
+        for (int i=0; i<entry.property_ids.size(); ++i)
+        {
+            insert_property_statement.setLong(1, entry.id);
+            insert_property_statement.setInt(2, entry.property_ids.get(i));
+            insert_property_statement.setString(3, entry.values.get(i));
+            insert_property_statement.addBatch();
+        }
+    }
+
+    /** Message to write: Columns of the message table and properties */
+    private static class Entry
+    {
+        final Date time;
+        final String type;
+        final String name;
+        final String severity;
+        final List<Integer> property_ids = new ArrayList<Integer>();
+        final List<String> values = new ArrayList<String>();
+        /** ID of the message row, set when inserted */
+        long id = -1;
+
+        Entry(final Date time, final String type, String name, final String severity)
+        {
+            this.time = time;
+            this.type = type;
+            // Overcome RDB limitations
+            if (name == null)
+                name = "";
+            else if (name.length() > MAX_NAME_LENGTH)
+            {
+                Activator.getLogger().log(Level.WARNING,
+                    "Limiting NAME = {0} to {1} characters",
+                    new Object[] { name, MAX_NAME_LENGTH });
+                name = name.substring(0, MAX_NAME_LENGTH);
+            }
+            this.name = name;
+            this.severity = severity;
+        }
+    }
 }
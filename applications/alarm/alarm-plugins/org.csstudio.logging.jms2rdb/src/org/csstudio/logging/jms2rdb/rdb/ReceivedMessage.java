@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.logging.jms2rdb.rdb;
+
+import java.util.Date;
+
+import javax.jms.MapMessage;
+
+/** Log message with the time when it was received
+ *  <p>
+ *  Messages can wait in a queue before they are written,
+ *  so the receive time is kept with the message
+ *  and written as the DATUM of the message.
+ */
+@SuppressWarnings("nls")
+public class ReceivedMessage
+{
+    final private MapMessage message;
+    final private Date time;
+
+    /** Initialize with current time
+     *  @param message Received message
+     */
+    public ReceivedMessage(final MapMessage message)
+    {
+        this(message, new Date());
+    }
+
+    /** @param message Received message
+     *  @param time Time when the message was received
+     */
+    public ReceivedMessage(final MapMessage message, final Date time)
+    {
+        this.message = message;
+        this.time = time;
+    }
+
+    /** @return Received message */
+    public MapMessage getMessage()
+    {
+        return message;
+    }
+
+    /** @return Time when the message was received */
+    public Date getTime()
+    {
+        return time;
+    }
+
+    @Override
+    public String toString()
+    {
+        return time + " " + message;
+    }
+}
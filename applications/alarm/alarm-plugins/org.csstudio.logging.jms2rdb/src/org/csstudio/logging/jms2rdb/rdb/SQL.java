@@ -24,7 +24,10 @@ public class SQL
 
     final public String insert_property_id;
 
-    final public String select_next_message_id;
+    /** Query for a block of new message IDs, parameter is the number of IDs.
+     *  <code>null</code> if the RDB assigns IDs on insert.
+     */
+    final public String select_next_message_ids;
 
     final public String insert_message_id_datum_type_name_severity;
 
@@ -49,19 +52,19 @@ public class SQL
 
         if (rdb_util.getDialect() == Dialect.Oracle)
         {   // Oracle uses sequence to get message.id.
-            select_next_message_id = "SELECT " + prefix + "message_id_seq.NEXTVAL FROM DUAL";
+            select_next_message_ids = "SELECT " + prefix + "message_id_seq.NEXTVAL FROM DUAL CONNECT BY LEVEL <= ?";
             insert_message_id_datum_type_name_severity =
                 "INSERT INTO " + prefix + "message (datum, type, name, severity, id) VALUES (?,?,?,?,?)";
         }
         else if (rdb_util.getDialect() == Dialect.PostgreSQL)
-        {    // PostgreSQL 'returns' the auto-generated ID
-            select_next_message_id = null;
+        {    // PostgreSQL uses the sequence of the SERIAL message.id column
+            select_next_message_ids = "SELECT nextval('" + prefix + "message_id_seq') FROM generate_series(1, ?)";
             insert_message_id_datum_type_name_severity =
-                "INSERT INTO " + prefix + "message (datum, type, name, severity) VALUES (?,?,?,?) returning id";
+                "INSERT INTO " + prefix + "message (datum, type, name, severity, id) VALUES (?,?,?,?,?)";
         }
         else
         {   // Other dialects (MySQL) use auto-increment ID column.
-            select_next_message_id = null;
+            select_next_message_ids = null;
             insert_message_id_datum_type_name_severity =
                 "INSERT INTO " + prefix + "message (datum, type, name, severity) VALUES (?,?,?,?)";
         }
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.logging.jms2rdb;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.jms.MapMessage;
+
+import org.csstudio.logging.JMSLogMessage;
+import org.csstudio.logging.jms2rdb.rdb.ReceivedMessage;
+import org.junit.Test;
+
+/** JUnit test of the message groups written by the {@link LogClientThread}
+ *
+ *  <p>Uses the queue and group writing of the thread
+ *  without connecting to JMS or RDB.
+ */
+@SuppressWarnings("nls")
+public class LogClientThreadUnitTest
+{
+    private static LogClientThread createThread(final int batch_size, final long batch_delay_ms)
+    {
+        return new LogClientThread("", "", "", null, null, "", new Filter[0], 100, batch_size, batch_delay_ms);
+    }
+
+    /** @param text Text of the message
+     *  @return MapMessage with TEXT property
+     */
+    private static MapMessage createMessage(final String text)
+    {
+        return (MapMessage) Proxy.newProxyInstance(MapMessage.class.getClassLoader(),
+            new Class<?>[] { MapMessage.class },
+            (proxy, method, args) ->
+            {
+                switch (method.getName())
+                {
+                case "getString":
+                    return JMSLogMessage.TEXT.equals(args[0]) ? text : null;
+                case "toString":
+                    return text;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return null;
+                }
+            });
+    }
+
+    private static String getText(final ReceivedMessage message) throws Exception
+    {
+        return message.getMessage().getString(JMSLogMessage.TEXT);
+    }
+
+    private static List<String> getTexts(final List<ReceivedMessage> messages) throws Exception
+    {
+        final List<String> texts = new ArrayList<>();
+        for (ReceivedMessage message : messages)
+            texts.add(getText(message));
+        return texts;
+    }
+
+    @Test(timeout=10000)
+    public void testTakeBatch() throws Exception
+    {
+        final LogClientThread thread = createThread(10, 200);
+        final long start = System.currentTimeMillis();
+        for (int i=0; i<25; ++i)
+            thread.onMessage(createMessage("Message " + i));
+        assertThat(thread.getQueueSize(), equalTo(25));
+
+        // Full groups, then the rest after the batch delay
+        final List<ReceivedMessage> batch = new ArrayList<>();
+        for (int expected : new int[] { 10, 10, 5 })
+        {
+            assertTrue(thread.takeBatch(batch));
+            assertThat(batch.size(), equalTo(expected));
+            batch.clear();
+        }
+        assertThat(thread.getQueueSize(), equalTo(0));
+        assertThat(thread.takeBatch(batch), equalTo(false));
+
+        // Message received within the batch delay of the first one is in the same group
+        thread.onMessage(createMessage("First"));
+        final Thread sender = new Thread(() ->
+        {
+            try
+            {
+                Thread.sleep(50);
+            }
+            catch (InterruptedException ex)
+            {
+                // Ignore
+            }
+            thread.onMessage(createMessage("Second"));
+        });
+        sender.start();
+        assertTrue(thread.takeBatch(batch));
+        sender.join();
+        assertThat(getTexts(batch), equalTo(Arrays.asList("First", "Second")));
+
+        // Messages keep the time when they were received
+        final long first = batch.get(0).getTime().getTime();
+        assertTrue(first >= start);
+        assertTrue(batch.get(1).getTime().getTime() >= first);
+    }
+
+    @Test
+    public void testWriteBatch() throws Exception
+    {
+        final LogClientThread thread = createThread(10, 0);
+        final List<ReceivedMessage> batch = new ArrayList<>();
+        for (String text : new String[] { "a", "b", "bad", "c", "d" })
+            batch.add(new ReceivedMessage(createMessage(text)));
+        final List<List<String>> written = new ArrayList<>();
+        final LogClientThread.GroupWriter writer = messages ->
+        {
+            final List<String> texts = getTexts(messages);
+            if (texts.contains("bad"))
+                throw new Exception("Cannot write " + texts);
+            written.add(texts);
+        };
+
+        // Group fails, messages are then written one at a time until the bad one
+        try
+        {
+            thread.writeBatch(batch, writer);
+            fail("Bad message was written");
+        }
+        catch (Exception ex)
+        {
+            assertThat(ex.getMessage(), equalTo("Cannot write [bad]"));
+        }
+        assertThat(written, equalTo(Arrays.asList(Arrays.asList("a"), Arrays.asList("b"))));
+        assertThat(getTexts(batch), equalTo(Arrays.asList("c", "d")));
+        assertThat(thread.getLastBatchSize(), equalTo(5));
+
+        // Rest of the group is written in one transaction
+        written.clear();
+        thread.writeBatch(batch, writer);
+        assertThat(written, equalTo(Arrays.asList(Arrays.asList("c", "d"))));
+        assertTrue(batch.isEmpty());
+        assertThat(thread.getLastBatchSize(), equalTo(2));
+    }
+}
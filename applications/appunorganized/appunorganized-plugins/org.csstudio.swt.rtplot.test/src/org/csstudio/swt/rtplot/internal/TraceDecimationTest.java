@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.swt.rtplot.internal;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.csstudio.swt.rtplot.PointType;
+import org.csstudio.swt.rtplot.TraceType;
+import org.csstudio.swt.rtplot.data.PlotDataItem;
+import org.csstudio.swt.rtplot.data.PlotDataProvider;
+import org.csstudio.swt.rtplot.data.SimpleDataItem;
+import org.csstudio.swt.rtplot.internal.util.LinearScreenTransform;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.graphics.Rectangle;
+import org.junit.Test;
+
+/** JUnit test of the {@link TraceDecimation} re-used by a {@link TraceImpl}
+ */
+@SuppressWarnings("nls")
+public class TraceDecimationTest
+{
+    /** Data where all values can be replaced, keeping the size,
+     *  and the last sample can move like a continuation to 'now'
+     */
+    private static class Data implements PlotDataProvider<Double>
+    {
+        final private ReadWriteLock lock = new ReentrantReadWriteLock();
+        final private AtomicLong changes;
+        private double values[];
+        private volatile double last_position = Double.NaN;
+
+        Data(final boolean count_changes, final double... values)
+        {
+            changes = new AtomicLong(count_changes ? 0 : -1);
+            this.values = values;
+        }
+
+        void setValues(final double... values)
+        {
+            lock.writeLock().lock();
+            try
+            {
+                this.values = values;
+                if (changes.get() >= 0)
+                    changes.incrementAndGet();
+            }
+            finally
+            {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /** Move last sample without counting a change */
+        void moveLast(final double position)
+        {
+            last_position = position;
+        }
+
+        @Override
+        public Lock getLock()
+        {
+            return lock.readLock();
+        }
+
+        @Override
+        public long getChangeCount()
+        {
+            return changes.get();
+        }
+
+        @Override
+        public int size()
+        {
+            return values.length;
+        }
+
+        @Override
+        public PlotDataItem<Double> get(final int index)
+        {
+            final double position = index == values.length-1  &&  ! Double.isNaN(last_position)
+                                  ? last_position : index;
+            return new SimpleDataItem<Double>(position, values[index]);
+        }
+    }
+
+    private static TraceImpl<Double> createTrace(final Data data)
+    {
+        return new TraceImpl<>("Test", "", data, new RGB(0, 0, 255), TraceType.SINGLE_LINE, 1, PointType.NONE, 1, 0);
+    }
+
+    @Test
+    public void testChangedData()
+    {
+        final Data data = new Data(true, 1, 2, 3, 4);
+        final TraceImpl<Double> trace = createTrace(data);
+        final LinearScreenTransform x_transform = new LinearScreenTransform();
+        x_transform.config(0.0, 4.0, 0, 400);
+        final Rectangle bounds = new Rectangle(0, 0, 400, 300);
+
+        final TraceDecimation<Double> decimation = trace.decimate(x_transform, bounds);
+        assertThat(decimation.size(), equalTo(4));
+        assertThat(decimation.getValue(1, TraceDecimation.FIRST), equalTo(2.0));
+
+        // Unchanged data and axis: Re-use decimation
+        assertThat(trace.decimate(x_transform, bounds), sameInstance(decimation));
+        assertThat(trace.getDecimation(x_transform, bounds), sameInstance(decimation));
+
+        // Same size, first and last sample, but new data
+        data.setValues(1, 20, 30, 4);
+        final TraceDecimation<Double> update = trace.decimate(x_transform, bounds);
+        assertThat(update, not(sameInstance(decimation)));
+        assertThat(update.getValue(1, TraceDecimation.FIRST), equalTo(20.0));
+        assertThat(trace.getDecimation(x_transform, bounds), sameInstance(update));
+
+        // Changed axis
+        x_transform.config(0.0, 8.0, 0, 400);
+        assertThat(trace.getDecimation(x_transform, bounds), not(sameInstance(update)));
+    }
+
+    @Test
+    public void testMovingLastSample()
+    {
+        final Data data = new Data(true, 1, 2, 3, 3);
+        final TraceImpl<Double> trace = createTrace(data);
+        final LinearScreenTransform x_transform = new LinearScreenTransform();
+        x_transform.config(0.0, 10.0, 0, 100);
+        final Rectangle bounds = new Rectangle(0, 0, 100, 300);
+
+        // Last sample on its own
+        final TraceDecimation<Double> decimation = trace.decimate(x_transform, bounds);
+        assertThat(decimation.size(), equalTo(4));
+        assertThat(decimation.getScreenPosition(3), equalTo(30));
+
+        // Last sample moves: Records of other samples are re-used
+        data.moveLast(7.0);
+        final TraceDecimation<Double> update = trace.decimate(x_transform, bounds);
+        assertThat(update, not(sameInstance(decimation)));
+        assertThat(trace.getDecimation(x_transform, bounds), sameInstance(update));
+        assertThat(update.size(), equalTo(4));
+        assertThat(update.getScreenPosition(2), equalTo(20));
+        assertThat(update.getScreenPosition(3), equalTo(70));
+        assertThat(update.getValue(3, TraceDecimation.LAST), equalTo(3.0));
+        // Earlier decimation is unchanged
+        assertThat(decimation.getScreenPosition(3), equalTo(30));
+
+        // Last sample moves into the column of the previous sample
+        data.moveLast(2.04);
+        final TraceDecimation<Double> merged = trace.decimate(x_transform, bounds);
+        assertThat(merged.size(), equalTo(3));
+        assertThat(merged.getValue(2, TraceDecimation.FIRST), equalTo(3.0));
+        assertThat(merged.getValue(2, TraceDecimation.LAST), equalTo(3.0));
+
+        // Same position again: Nothing new
+        assertThat(trace.decimate(x_transform, bounds), sameInstance(merged));
+    }
+
+    @Test
+    public void testUncountedData()
+    {
+        final Data data = new Data(false, 1, 2, 3, 4);
+        final TraceImpl<Double> trace = createTrace(data);
+        final LinearScreenTransform x_transform = new LinearScreenTransform();
+        x_transform.config(0.0, 4.0, 0, 400);
+        final Rectangle bounds = new Rectangle(0, 0, 400, 300);
+
+        // Each plot update decimates the data again,
+        // painting then uses the decimation of that update
+        final TraceDecimation<Double> decimation = trace.decimate(x_transform, bounds);
+        assertThat(trace.getDecimation(x_transform, bounds), sameInstance(decimation));
+        data.setValues(1, 20, 30, 4);
+        final TraceDecimation<Double> update = trace.decimate(x_transform, bounds);
+        assertThat(update, not(sameInstance(decimation)));
+        assertThat(update.getValue(2, TraceDecimation.FIRST), equalTo(30.0));
+    }
+}
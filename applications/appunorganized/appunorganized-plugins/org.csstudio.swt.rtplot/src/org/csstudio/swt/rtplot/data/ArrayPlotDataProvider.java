@@ -9,6 +9,7 @@ package org.csstudio.swt.rtplot.data;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -24,18 +25,25 @@ public class ArrayPlotDataProvider<XTYPE extends Comparable<XTYPE>> implements P
     final private ReadWriteLock lock = new ReentrantReadWriteLock();
     final private List<PlotDataItem<XTYPE>> data;
 
+    /** Number of changes, -1 when data is not owned by this provider */
+    final private AtomicLong changes;
+
     /** Construct with existing data
+     *  <p>Since the data may be changed outside of this provider,
+     *  changes are not counted.
      *  @param data
      */
     public ArrayPlotDataProvider(final List<PlotDataItem<XTYPE>> data)
     {
         this.data = data;
+        changes = new AtomicLong(-1);
     }
 
     /** Construct with internal array */
     public ArrayPlotDataProvider()
     {
-        this(new ArrayList<PlotDataItem<XTYPE>>());
+        this.data = new ArrayList<PlotDataItem<XTYPE>>();
+        changes = new AtomicLong(0);
     }
 
     /** @param item Item to add to the list */
@@ -45,6 +53,8 @@ public class ArrayPlotDataProvider<XTYPE extends Comparable<XTYPE>> implements P
         try
         {
             data.add(item);
+            if (changes.get() >= 0)
+                changes.incrementAndGet();
         }
         finally
         {
@@ -58,6 +68,12 @@ public class ArrayPlotDataProvider<XTYPE extends Comparable<XTYPE>> implements P
         return lock.readLock();
     }
 
+    @Override
+    public long getChangeCount()
+    {
+        return changes.get();
+    }
+
     @Override
     public int size()
     {
@@ -7,6 +7,7 @@
  ******************************************************************************/
 package org.csstudio.swt.rtplot.data;
 
+import java.time.Instant;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 
@@ -36,6 +37,12 @@ import org.csstudio.swt.rtplot.Axis;
  *  might internally use a {@link ReadWriteLock} for its write access to the data,
  *  and only pass the 'read' component to the plotting library.
  *
+ *  <p>When painting, the plot reads the position, value, minimum and maximum
+ *  of each sample via the <code>get...(index)</code> methods.
+ *  By default they call <code>get(index)</code>, but a data provider
+ *  that doesn't keep {@link PlotDataItem}s may implement them
+ *  without creating an item for each sample.
+ *
  *  @param <XTYPE> Data type used for the horizontal {@link Axis}
  *
  *  @author Kay Kasemir
@@ -55,4 +62,65 @@ public interface PlotDataProvider<XTYPE extends Comparable<XTYPE>>
      *  @return The Sample of given index.
      */
     public PlotDataItem<XTYPE> get(int index);
+
+    /** Get the number of changes to the data.
+     *  <p>
+     *  The plot re-uses information derived from the data,
+     *  for example the data reduced to pixel columns,
+     *  while the change count remains the same.
+     *  A data provider that counts changes must therefore
+     *  update the count whenever samples are added, removed or replaced.
+     *  Only the last sample may change without updating the count,
+     *  for example to extend the last value to the current time,
+     *  because the plot reads the last sample again for each update.
+     *
+     *  @return Change count, or -1 if changes are not counted
+     */
+    default public long getChangeCount()
+    {
+        return -1;
+    }
+
+    /** @param index Sample index, 0 .. size()-1
+     *  @return Position of the sample as a number:
+     *          The value for a {@link Double} position,
+     *          seconds since epoch for an {@link Instant}
+     */
+    default public double getPositionNumber(final int index)
+    {
+        final XTYPE position = get(index).getPosition();
+        if (position instanceof Instant)
+        {
+            final Instant time = (Instant) position;
+            return time.getEpochSecond() + 1e-9*time.getNano();
+        }
+        return ((Number) position).doubleValue();
+    }
+
+    /** @param index Sample index, 0 .. size()-1
+     *  @return Value of the sample
+     *  @see PlotDataItem#getValue()
+     */
+    default public double getValue(final int index)
+    {
+        return get(index).getValue();
+    }
+
+    /** @param index Sample index, 0 .. size()-1
+     *  @return Minimum of the sample, or {@link Double#NaN}
+     *  @see PlotDataItem#getMin()
+     */
+    default public double getMin(final int index)
+    {
+        return get(index).getMin();
+    }
+
+    /** @param index Sample index, 0 .. size()-1
+     *  @return Maximum of the sample, or {@link Double#NaN}
+     *  @see PlotDataItem#getMax()
+     */
+    default public double getMax(final int index)
+    {
+        return get(index).getMax();
+    }
 }
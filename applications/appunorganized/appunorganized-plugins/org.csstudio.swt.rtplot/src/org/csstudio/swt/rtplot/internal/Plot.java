@@ -246,6 +246,8 @@ public class Plot<XTYPE extends Comparable<XTYPE>> extends Canvas implements Pai
         () ->
         {
             plot_processor.autoscale();
+            // Reduce trace data for the following redraw in parallel
+            plot_processor.decimate(x_axis.getScreenTransform(), plot_area.getBounds());
             // In Eclipse 2020-12 we cannot seem to run updateImageBuffer() on
             // a background thread. Schedule it on the UI thread.
             // See https://bugs.eclipse.org/bugs/show_bug.cgi?id=568859
@@ -731,7 +733,7 @@ public class Plot<XTYPE extends Comparable<XTYPE>> extends Canvas implements Pai
         plot_area.paint(gc, media);
 
         for (YAxisImpl<XTYPE> y_axis : y_axes)
-            for (Trace<XTYPE> trace : y_axis.getTraces())
+            for (TraceImpl<XTYPE> trace : y_axis.getTraces())
                 trace_painter.paint(gc, media, plot_area.getBounds(), opacity, x_transform, y_axis, trace);
 
         // Annotations use label font
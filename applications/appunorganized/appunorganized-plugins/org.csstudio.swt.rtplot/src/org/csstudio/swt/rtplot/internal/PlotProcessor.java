@@ -22,14 +22,17 @@ import org.csstudio.swt.rtplot.Axis;
 import org.csstudio.swt.rtplot.AxisRange;
 import org.csstudio.swt.rtplot.Messages;
 import org.csstudio.swt.rtplot.Trace;
+import org.csstudio.swt.rtplot.TraceType;
 import org.csstudio.swt.rtplot.data.PlotDataItem;
 import org.csstudio.swt.rtplot.data.PlotDataProvider;
 import org.csstudio.swt.rtplot.data.PlotDataSearch;
 import org.csstudio.swt.rtplot.data.ValueRange;
 import org.csstudio.swt.rtplot.internal.util.Log10;
+import org.csstudio.swt.rtplot.internal.util.ScreenTransform;
 import org.csstudio.swt.rtplot.undo.AddAnnotationAction;
 import org.csstudio.swt.rtplot.undo.ChangeAxisRanges;
 import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.Rectangle;
 
 /** Helper for processing traces of a plot
  *  in a thread pool to avoid blocking UI thread.
@@ -82,10 +85,9 @@ public class PlotProcessor<XTYPE extends Comparable<XTYPE>>
                         // Check [start .. stop], including stop
                         for (int i=start; i<=stop; ++i)
                         {
-                            final PlotDataItem<XTYPE> item = data.get(i);
-                            final double value = item.getValue();
-                            final double max = item.getMax();
-                            final double min = item.getMin();
+                            final double value = data.getValue(i);
+                            final double max = data.getMax(i);
+                            final double min = data.getMin(i);
 
                             // Determine whether the upper range (high) needs to be
                             // updated based on this PlotDataItem. Use the data max
@@ -171,6 +173,34 @@ public class PlotProcessor<XTYPE extends Comparable<XTYPE>>
         });
     }
 
+    /** Reduce the data of all visible traces to pixel columns
+     *
+     *  <p>Decimates the traces in parallel and waits for the result,
+     *  so that the following redraw can use the cached decimation.
+     *
+     *  @param x_transform Transformation of horizontal axis
+     *  @param bounds Plot area
+     */
+    public void decimate(final ScreenTransform<XTYPE> x_transform, final Rectangle bounds)
+    {
+        final List<Future<?>> results = new ArrayList<>();
+        for (YAxisImpl<XTYPE> axis : plot.getYAxes())
+            for (TraceImpl<XTYPE> trace : axis.getTraces())
+                if (trace.isVisible()  &&  trace.getType() != TraceType.NONE)
+                    results.add(thread_pool.submit(() -> trace.decimate(x_transform, bounds)));
+        for (Future<?> result : results)
+        {
+            try
+            {
+                result.get();
+            }
+            catch (Exception ex)
+            {
+                Activator.getLogger().log(Level.WARNING, "Trace decimation error", ex);
+            }
+        }
+    }
+
     /** Round value range up/down to add a little room above & below the exact range.
      *  This results in "locking" to a nice looking range for a while
      *  until a new sample outside of the rounded range is added.
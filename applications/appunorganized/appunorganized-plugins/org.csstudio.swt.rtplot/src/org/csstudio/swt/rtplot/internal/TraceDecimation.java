@@ -0,0 +1,342 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.swt.rtplot.internal;
+
+import java.util.Arrays;
+
+import org.csstudio.swt.rtplot.Axis;
+import org.csstudio.swt.rtplot.data.PlotDataProvider;
+import org.csstudio.swt.rtplot.internal.util.ScreenTransform;
+import org.eclipse.swt.graphics.Rectangle;
+
+/** Data of a trace, reduced to pixel columns
+ *
+ *  <p>Consecutive samples that fall into the same pixel column
+ *  are combined into one record which holds the first, lowest, highest
+ *  and last value, minimum and maximum.
+ *  Painting the records results in the same pixels as painting
+ *  all the samples, but takes time proportional to the
+ *  plot width instead of the number of samples.
+ *
+ *  <p>Values remain in data coordinates,
+ *  so the records can be painted for any value axis range.
+ *  A new decimation is needed when the horizontal axis or the data changes.
+ *  Changes to the data are detected via {@link PlotDataProvider#getChangeCount()}.
+ *
+ *  <p>The last sample is kept apart from the records of the preceding samples,
+ *  because its position may move without a change to the data,
+ *  for example when the last value is extended to the current time.
+ *  {@link #updateLastSample(PlotDataProvider, ScreenTransform)} re-reads only that sample
+ *  and shares the records of the preceding samples.
+ *
+ *  @param <XTYPE> Data type of horizontal {@link Axis}
+ */
+class TraceDecimation<XTYPE extends Comparable<XTYPE>>
+{
+    /** Index of first, lowest, highest, last value in the 4 entries of a record */
+    final static int FIRST = 0, LOW = 1, HIGH = 2, LAST = 3;
+
+    // Horizontal axis and data for which the decimation was computed
+    final private XTYPE start, end;
+    final private int x, width;
+    final private long changes;
+    final private int samples;
+
+    /** Number of records for all but the last sample */
+    private int count = 0;
+
+    /** Horizontal screen coordinate of each record */
+    private int pos[] = new int[16];
+
+    /** Do the samples of a record have a value? Min and max? */
+    private boolean has_value[] = new boolean[16], has_min_max[] = new boolean[16];
+
+    /** 4 entries per record for value, minimum and maximum */
+    private double value[] = new double[64], min[] = new double[64], max[] = new double[64];
+
+    // Last sample: Screen coordinate, value, minimum, maximum
+    private int last_pos;
+    private double last_value, last_min, last_max;
+
+    /** Is the last sample added to the last record, or is it a record on its own? */
+    private boolean last_merged;
+
+    /** Decimate data
+     *  @param data Data, will be locked
+     *  @param x_transform Transformation of horizontal axis
+     *  @param bounds Plot area
+     */
+    TraceDecimation(final PlotDataProvider<XTYPE> data, final ScreenTransform<XTYPE> x_transform, final Rectangle bounds)
+    {
+        start = x_transform.inverse(bounds.x);
+        end = x_transform.inverse(bounds.x + bounds.width);
+        x = bounds.x;
+        width = bounds.width;
+
+        data.getLock().lock();
+        try
+        {
+            changes = data.getChangeCount();
+            samples = data.size();
+            for (int i=0; i<samples-1; ++i)
+            {
+                final int sx = getScreenPosition(data, x_transform, i);
+                final double v = data.getValue(i);
+                final double lo = data.getMin(i);
+                final double hi = data.getMax(i);
+                final int r = count - 1;
+                if (r >= 0  &&  pos[r] == sx  &&  has_value[r] == isValid(v)  &&  has_min_max[r] == isValid(lo, hi))
+                {
+                    add(value, r, v);
+                    add(min, r, lo);
+                    add(max, r, hi);
+                }
+                else
+                {
+                    if (count >= pos.length)
+                        grow();
+                    pos[count] = sx;
+                    has_value[count] = isValid(v);
+                    has_min_max[count] = isValid(lo, hi);
+                    Arrays.fill(value, 4*count, 4*count+4, v);
+                    Arrays.fill(min, 4*count, 4*count+4, lo);
+                    Arrays.fill(max, 4*count, 4*count+4, hi);
+                    ++count;
+                }
+            }
+            readLastSample(data, x_transform);
+        }
+        finally
+        {
+            data.getLock().unlock();
+        }
+    }
+
+    /** Copy records of preceding samples, read last sample
+     *  @param other Decimation of the same data and axis
+     *  @param data Data, will be locked
+     *  @param x_transform Transformation of horizontal axis
+     */
+    private TraceDecimation(final TraceDecimation<XTYPE> other,
+                            final PlotDataProvider<XTYPE> data, final ScreenTransform<XTYPE> x_transform)
+    {
+        start = other.start;
+        end = other.end;
+        x = other.x;
+        width = other.width;
+        changes = other.changes;
+        samples = other.samples;
+        // Records are not modified once the constructor completed, so they can be shared
+        count = other.count;
+        pos = other.pos;
+        has_value = other.has_value;
+        has_min_max = other.has_min_max;
+        value = other.value;
+        min = other.min;
+        max = other.max;
+        data.getLock().lock();
+        try
+        {
+            readLastSample(data, x_transform);
+        }
+        finally
+        {
+            data.getLock().unlock();
+        }
+    }
+
+    /** @param data Data, must be locked
+     *  @param x_transform Transformation of horizontal axis
+     *  @param i Sample index
+     *  @return Horizontal screen coordinate, clipped to be near the plot area
+     */
+    private int getScreenPosition(final PlotDataProvider<XTYPE> data, final ScreenTransform<XTYPE> x_transform, final int i)
+    {
+        final int x_min = x - TracePainter.OUTSIDE;
+        final int x_max = x + width + TracePainter.OUTSIDE;
+        final double px = Math.round(x_transform.transformNumber(data.getPositionNumber(i)));
+        return px < x_min ? x_min : (px > x_max ? x_max : (int) px);
+    }
+
+    private static boolean isValid(final double v)
+    {
+        return ! Double.isNaN(v);
+    }
+
+    private static boolean isValid(final double lo, final double hi)
+    {
+        return ! (Double.isNaN(lo)  ||  Double.isNaN(hi));
+    }
+
+    /** @param data Data, must be locked
+     *  @param x_transform Transformation of horizontal axis
+     */
+    private void readLastSample(final PlotDataProvider<XTYPE> data, final ScreenTransform<XTYPE> x_transform)
+    {
+        if (samples <= 0)
+            return;
+        final int i = samples - 1;
+        last_pos = getScreenPosition(data, x_transform, i);
+        last_value = data.getValue(i);
+        last_min = data.getMin(i);
+        last_max = data.getMax(i);
+        final int r = count - 1;
+        last_merged = r >= 0  &&  pos[r] == last_pos  &&
+                      has_value[r] == isValid(last_value)  &&  has_min_max[r] == isValid(last_min, last_max);
+    }
+
+    /** @param column Column of 4 values per record
+     *  @param r Record
+     *  @param v Value to add to record
+     */
+    private static void add(final double column[], final int r, final double v)
+    {
+        final int i = 4*r;
+        if (v < column[i+LOW])
+            column[i+LOW] = v;
+        if (v > column[i+HIGH])
+            column[i+HIGH] = v;
+        column[i+LAST] = v;
+    }
+
+    private void grow()
+    {
+        final int capacity = pos.length * 2;
+        pos = Arrays.copyOf(pos, capacity);
+        has_value = Arrays.copyOf(has_value, capacity);
+        has_min_max = Arrays.copyOf(has_min_max, capacity);
+        value = Arrays.copyOf(value, 4*capacity);
+        min = Arrays.copyOf(min, 4*capacity);
+        max = Arrays.copyOf(max, 4*capacity);
+    }
+
+    /** @param x_transform Transformation of horizontal axis
+     *  @param bounds Plot area
+     *  @return <code>true</code> if this decimation applies to the axis and bounds
+     */
+    boolean appliesTo(final ScreenTransform<XTYPE> x_transform, final Rectangle bounds)
+    {
+        return x == bounds.x  &&  width == bounds.width  &&
+               start.equals(x_transform.inverse(bounds.x))  &&
+               end.equals(x_transform.inverse(bounds.x + bounds.width));
+    }
+
+    /** @param data Data
+     *  @param x_transform Transformation of horizontal axis
+     *  @param bounds Plot area
+     *  @return <code>true</code> if this decimation applies to the data, axis and bounds,
+     *          except maybe for the last sample
+     */
+    boolean isValid(final PlotDataProvider<XTYPE> data, final ScreenTransform<XTYPE> x_transform, final Rectangle bounds)
+    {
+        // Without a change count, the data might have changed in any way
+        return changes >= 0  &&  data.getChangeCount() == changes  &&  data.size() == samples  &&
+               appliesTo(x_transform, bounds);
+    }
+
+    /** @param data Data, will be locked
+     *  @param x_transform Transformation of horizontal axis
+     *  @return This decimation if the last sample did not move,
+     *          otherwise one that shares the records of this one
+     */
+    TraceDecimation<XTYPE> updateLastSample(final PlotDataProvider<XTYPE> data, final ScreenTransform<XTYPE> x_transform)
+    {
+        final TraceDecimation<XTYPE> update = new TraceDecimation<>(this, data, x_transform);
+        if (update.last_pos == last_pos  &&
+            Double.compare(update.last_value, last_value) == 0  &&
+            Double.compare(update.last_min, last_min) == 0  &&
+            Double.compare(update.last_max, last_max) == 0)
+            return this;
+        return update;
+    }
+
+    /** @return Number of records */
+    int size()
+    {
+        if (samples <= 0  ||  last_merged)
+            return count;
+        return count + 1;
+    }
+
+    /** @param r Record
+     *  @return Horizontal screen coordinate, clipped to be near the plot area
+     */
+    int getScreenPosition(final int r)
+    {
+        return r < count ? pos[r] : last_pos;
+    }
+
+    /** @param r Record
+     *  @return <code>true</code> if the samples of the record have a value, <code>false</code> for NaN
+     */
+    boolean hasValue(final int r)
+    {
+        return r < count ? has_value[r] : isValid(last_value);
+    }
+
+    /** @param r Record
+     *  @return <code>true</code> if the samples of the record have min and max
+     */
+    boolean hasMinMax(final int r)
+    {
+        return r < count ? has_min_max[r] : isValid(last_min, last_max);
+    }
+
+    /** @param r Record
+     *  @param which {@link #FIRST}, {@link #LOW}, {@link #HIGH} or {@link #LAST}
+     *  @return Value
+     */
+    double getValue(final int r, final int which)
+    {
+        return get(value, r, which, last_value);
+    }
+
+    /** @param r Record
+     *  @param which {@link #FIRST}, {@link #LOW}, {@link #HIGH} or {@link #LAST}
+     *  @return Minimum
+     */
+    double getMin(final int r, final int which)
+    {
+        return get(min, r, which, last_min);
+    }
+
+    /** @param r Record
+     *  @param which {@link #FIRST}, {@link #LOW}, {@link #HIGH} or {@link #LAST}
+     *  @return Maximum
+     */
+    double getMax(final int r, final int which)
+    {
+        return get(max, r, which, last_max);
+    }
+
+    /** @param column Column of 4 values per record
+     *  @param r Record
+     *  @param which {@link #FIRST}, {@link #LOW}, {@link #HIGH} or {@link #LAST}
+     *  @param last Value of the last sample
+     *  @return Value of the record, including the last sample when it was added to the record
+     */
+    private double get(final double column[], final int r, final int which, final double last)
+    {
+        if (r >= count)
+            return last;
+        final double v = column[4*r + which];
+        if (! last_merged  ||  r != count - 1)
+            return v;
+        switch (which)
+        {
+        case LOW:
+            return last < v ? last : v;
+        case HIGH:
+            return last > v ? last : v;
+        case LAST:
+            return last;
+        default:
+            return v;
+        }
+    }
+}
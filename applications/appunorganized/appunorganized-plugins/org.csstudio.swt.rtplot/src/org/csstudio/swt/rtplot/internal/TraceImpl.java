@@ -16,7 +16,9 @@ import org.csstudio.swt.rtplot.Trace;
 import org.csstudio.swt.rtplot.TraceType;
 import org.csstudio.swt.rtplot.data.PlotDataItem;
 import org.csstudio.swt.rtplot.data.PlotDataProvider;
+import org.csstudio.swt.rtplot.internal.util.ScreenTransform;
 import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.graphics.Rectangle;
 
 /** Trace, i.e. data to be displayed on an axis.
  *  @param <XTYPE> Data type used for the {@link PlotDataItem}
@@ -47,6 +49,9 @@ public class TraceImpl<XTYPE extends Comparable<XTYPE>> implements Trace<XTYPE>
 
     private volatile Optional<PlotDataItem<XTYPE>> selected_sample = Optional.empty();
 
+    /** Data reduced to pixel columns by the last plot update */
+    private volatile TraceDecimation<XTYPE> decimation = null;
+
 
     public TraceImpl(final String name,
             final String units,
@@ -202,6 +207,50 @@ public class TraceImpl<XTYPE extends Comparable<XTYPE>> implements Trace<XTYPE>
         return selected_sample;
     }
 
+    /** Reduce data to pixel columns
+     *
+     *  <p>Called for each plot update.
+     *  Re-uses the previous decimation only if the horizontal axis
+     *  and plot area are the same and the data provider reports
+     *  no changes to the data.
+     *  Only the last sample, which may move to the current time,
+     *  is then read again.
+     *
+     *  @param x_transform Transformation of horizontal axis
+     *  @param bounds Plot area
+     *  @return {@link TraceDecimation}
+     */
+    TraceDecimation<XTYPE> decimate(final ScreenTransform<XTYPE> x_transform, final Rectangle bounds)
+    {
+        TraceDecimation<XTYPE> result = decimation;
+        if (result == null  ||  ! result.isValid(data, x_transform, bounds))
+            result = new TraceDecimation<>(data, x_transform, bounds);
+        else
+            result = result.updateLastSample(data, x_transform);
+        decimation = result;
+        return result;
+    }
+
+    /** Get data reduced to pixel columns
+     *
+     *  <p>Returns the decimation of the current plot update,
+     *  unless the horizontal axis or plot area changed since.
+     *
+     *  @param x_transform Transformation of horizontal axis
+     *  @param bounds Plot area
+     *  @return {@link TraceDecimation}
+     */
+    TraceDecimation<XTYPE> getDecimation(final ScreenTransform<XTYPE> x_transform, final Rectangle bounds)
+    {
+        TraceDecimation<XTYPE> result = decimation;
+        if (result == null  ||  ! result.appliesTo(x_transform, bounds))
+        {
+            result = new TraceDecimation<>(data, x_transform, bounds);
+            decimation = result;
+        }
+        return result;
+    }
+
     /** @return Debug representation */
     @Override
     public String toString()
@@ -12,7 +12,6 @@ import org.csstudio.swt.rtplot.PointType;
 import org.csstudio.swt.rtplot.SWTMediaPool;
 import org.csstudio.swt.rtplot.Trace;
 import org.csstudio.swt.rtplot.TraceType;
-import org.csstudio.swt.rtplot.data.PlotDataItem;
 import org.csstudio.swt.rtplot.data.PlotDataProvider;
 import org.csstudio.swt.rtplot.internal.util.IntList;
 import org.csstudio.swt.rtplot.internal.util.ScreenTransform;
@@ -45,7 +44,7 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
      *  Strictly speaking, we'd have to compute the intersection of
      *  lines with the clip region, but this is much easier to implement.
      */
-    final private static int OUTSIDE = 1000;
+    final static int OUTSIDE = 1000;
     private int x_min, x_max, y_min, y_max;
 
     final private int clipX(final double x)
@@ -74,7 +73,7 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
      *  @param trace Trace, has reference to its value axis
      */
     final public void paint(final GC gc, final SWTMediaPool media, final Rectangle bounds, final int opacity,
-                            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis, final Trace<XTYPE> trace)
+                            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis, final TraceImpl<XTYPE> trace)
     {
         if (! trace.isVisible() )
             return;
@@ -98,73 +97,74 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
         gc.setAdvanced(true);
         gc.setAntialias(SWT.ON);
 
-        // TODO Optimize drawing
-        //
-        // Determine first sample to draw via PlotDataSearch.findSampleLessOrEqual(),
-        // then end drawing when reaching right end of area.
-        //
-        // Loop only once, performing drawMinMax, drawStdDev, drawValueStaircase in one loop
-        //
-        // For now, main point is that this happens in non-UI thread,
-        // so the slower the better to test UI responsiveness.
-        final PlotDataProvider<XTYPE> data = trace.getData();
-        data.getLock().lock();
-        try
+        // Lines and areas are painted from the data reduced to pixel columns,
+        // which is usually already computed by the PlotProcessor
+        final TraceType type = trace.getType();
+        if (type != TraceType.NONE)
         {
-            final TraceType type = trace.getType();
+            final TraceDecimation<XTYPE> data = trace.getDecimation(x_transform, bounds);
             switch (type)
             {
             case NONE:
                 break;
             case AREA:
                 gc.setAlpha(alpha);
-                drawMinMaxArea(gc, x_transform, y_axis, data);
+                drawMinMaxArea(gc, y_axis, data);
                 gc.setAlpha(255);
-                drawValueStaircase(gc, x_transform, y_axis, data, trace.getWidth());
+                drawValueStaircase(gc, y_axis, data, trace.getWidth());
                 break;
             case AREA_DIRECT:
                 gc.setAlpha(alpha);
-                drawMinMaxArea(gc, x_transform, y_axis, data);
+                drawMinMaxArea(gc, y_axis, data);
                 gc.setAlpha(255);
-                drawValueLines(gc, x_transform, y_axis, data, trace.getWidth());
+                drawValueLines(gc, y_axis, data, trace.getWidth());
                 break;
             case LINES:
-                drawMinMaxLines(gc, x_transform, y_axis, data, trace.getWidth());
+                drawMinMaxLines(gc, y_axis, data, trace.getWidth());
                 gc.setAlpha(alpha);
                 gc.setAlpha(255);
-                drawValueStaircase(gc, x_transform, y_axis, data, trace.getWidth());
+                drawValueStaircase(gc, y_axis, data, trace.getWidth());
                 break;
             case LINES_DIRECT:
-                drawMinMaxLines(gc, x_transform, y_axis, data, trace.getWidth());
+                drawMinMaxLines(gc, y_axis, data, trace.getWidth());
                 gc.setAlpha(alpha);
                 gc.setAlpha(255);
-                drawValueLines(gc, x_transform, y_axis, data, trace.getWidth());
+                drawValueLines(gc, y_axis, data, trace.getWidth());
                 break;
             case SINGLE_LINE:
-                drawValueStaircase(gc, x_transform, y_axis, data, trace.getWidth());
+                drawValueStaircase(gc, y_axis, data, trace.getWidth());
                 break;
             case SINGLE_LINE_DIRECT:
-                drawValueLines(gc, x_transform, y_axis, data, trace.getWidth());
+                drawValueLines(gc, y_axis, data, trace.getWidth());
                 break;
             }
+        }
 
-            final PointType point_type = trace.getPointType();
-            switch (point_type)
+        // Points are drawn for each distinct sample location
+        final PointType point_type = trace.getPointType();
+        if (point_type != PointType.NONE)
+        {
+            final PlotDataProvider<XTYPE> data = trace.getData();
+            data.getLock().lock();
+            try
             {
-            case NONE:
-                break;
-            case SQUARES:
-            case CIRCLES:
-            case DIAMONDS:
-            case XMARKS:
-            case TRIANGLES:
-                drawPoints(gc, x_transform, y_axis, data, point_type, trace.getPointSize());
-                break;
+                switch (point_type)
+                {
+                case NONE:
+                    break;
+                case SQUARES:
+                case CIRCLES:
+                case DIAMONDS:
+                case XMARKS:
+                case TRIANGLES:
+                    drawPoints(gc, x_transform, y_axis, data, point_type, trace.getPointSize());
+                    break;
+                }
+            }
+            finally
+            {
+                data.getLock().unlock();
             }
-        }
-        finally
-        {
-            data.getLock().unlock();
         }
         gc.setLineWidth(old_width);
         gc.setBackground(old_bg);
@@ -173,125 +173,112 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
 
     /** Draw values of data as staircase line
      *  @param gc GC
-     *  @param x_transform Horizontal axis
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param data Data reduced to pixel columns
      *  @param line_width
      */
-    final private void drawValueStaircase(final GC gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, final int line_width)
+    final private void drawValueStaircase(final GC gc, final YAxisImpl<XTYPE> y_axis,
+            final TraceDecimation<XTYPE> data, final int line_width)
     {
         final IntList value_poly = new IntList(INITIAL_ARRAY_SIZE);
         final int N = data.size();
         int last_x = -1, last_y = -1;
         gc.setLineWidth(line_width);
-        for (int i=0; i<N; ++i)
+        for (int r=0; r<N; ++r)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-
-            final int x = clipX(Math.round(x_transform.transform(item.getPosition())));
-            final double value = item.getValue();
+            final int x = data.getScreenPosition(r);
             if (value_poly.size() > 0  && x != last_x)
             {   // Staircase from last 'y'..
                 value_poly.add(x);
                 value_poly.add(last_y);
                 last_x = x;
             }
-            if (Double.isNaN(value))
+            if (! data.hasValue(r))
             {
                 flushPolyLine(gc, value_poly, line_width);
-                if (last_y != -1) {
-                    highlightDiscontinuity(gc, x_transform, item);
-                }
+                if (last_y != -1)
+                    highlightDiscontinuity(gc, x);
                 last_x = last_y = -1;
             }
             else
-            {
-                final int y = clipY(y_axis.getScreenCoord(value));
-                if (last_x == x  &&  last_y == y)
-                    continue;
-                value_poly.add(x);
-                value_poly.add(y);
-                last_y = y;
-            }
+                for (int which=TraceDecimation.FIRST; which<=TraceDecimation.LAST; ++which)
+                {
+                    final int y = clipY(y_axis.getScreenCoord(data.getValue(r, which)));
+                    if (last_x == x  &&  last_y == y)
+                        continue;
+                    value_poly.add(x);
+                    value_poly.add(y);
+                    last_x = x;
+                    last_y = y;
+                }
         }
         flushPolyLine(gc, value_poly, line_width);
     }
 
     /** Draw values of data as direct line
      *  @param gc GC
-     *  @param x_transform Horizontal axis
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param data Data reduced to pixel columns
      *  @param line_width
      */
-    final private void drawValueLines(final GC gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, final int line_width)
+    final private void drawValueLines(final GC gc, final YAxisImpl<XTYPE> y_axis,
+            final TraceDecimation<XTYPE> data, final int line_width)
     {
         final IntList value_poly = new IntList(INITIAL_ARRAY_SIZE);
         final int N = data.size();
         gc.setLineWidth(line_width);
         int last_x = -1, last_y = -1;
-        for (int i=0; i<N; ++i)
+        for (int r=0; r<N; ++r)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            final int x = clipX(Math.round(x_transform.transform(item.getPosition())));
-            final double value = item.getValue();
-            if (Double.isNaN(value))
+            final int x = data.getScreenPosition(r);
+            if (! data.hasValue(r))
             {
                 flushPolyLine(gc, value_poly, line_width);
                 if (last_y != -1)
-                {
-                    highlightDiscontinuity(gc, x_transform, item);
-                }
+                    highlightDiscontinuity(gc, x);
                 last_x = last_y = -1;
             }
             else
-            {
-                final int y = clipY(y_axis.getScreenCoord(value));
-                if (x == last_x  &&  y == last_y)
-                    continue;
-                value_poly.add(x);
-                value_poly.add(y);
-                last_x = x;
-                last_y = y;
-            }
+                for (int which=TraceDecimation.FIRST; which<=TraceDecimation.LAST; ++which)
+                {
+                    final int y = clipY(y_axis.getScreenCoord(data.getValue(r, which)));
+                    if (x == last_x  &&  y == last_y)
+                        continue;
+                    value_poly.add(x);
+                    value_poly.add(y);
+                    last_x = x;
+                    last_y = y;
+                }
         }
         flushPolyLine(gc, value_poly, line_width);
     }
 
     /** Draw min/max outline
      *  @param gc GC
-     *  @param x_transform Horizontal axis
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param data Data reduced to pixel columns
      */
-    final private void drawMinMaxArea(final GC gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data)
+    final private void drawMinMaxArea(final GC gc, final YAxisImpl<XTYPE> y_axis,
+            final TraceDecimation<XTYPE> data)
     {
         final IntList pos = new IntList(INITIAL_ARRAY_SIZE);
         final IntList min = new IntList(INITIAL_ARRAY_SIZE);
         final IntList max = new IntList(INITIAL_ARRAY_SIZE);
 
         final int N = data.size();
-        for (int i = 0;  i < N;  ++i)
+        for (int r = 0;  r < N;  ++r)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            double ymin = item.getMin();
-            double ymax = item.getMax();
-            if (Double.isNaN(ymin)  ||  Double.isNaN(ymax))
+            if (! data.hasMinMax(r))
                 flushPolyFill(gc, pos, min, max);
             else
             {
-                final int x1 = clipX(x_transform.transform(item.getPosition()));
-                final int y1min = clipY(y_axis.getScreenCoord(ymin));
-                final int y1max = clipY(y_axis.getScreenCoord(ymax));
-                pos.add(x1);
-                min.add(y1min);
-                max.add(y1max);
+                final int x1 = data.getScreenPosition(r);
+                for (int which=TraceDecimation.FIRST; which<=TraceDecimation.LAST; ++which)
+                {
+                    pos.add(x1);
+                    min.add(clipY(y_axis.getScreenCoord(data.getMin(r, which))));
+                    max.add(clipY(y_axis.getScreenCoord(data.getMax(r, which))));
+                }
             }
         }
         flushPolyFill(gc, pos, min, max);
@@ -299,35 +286,31 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
 
     /** Draw min/max outline
      *  @param gc GC
-     *  @param x_transform Horizontal axis
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param data Data reduced to pixel columns
      */
-    final private void drawMinMaxLines(final GC gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, final int line_width)
+    final private void drawMinMaxLines(final GC gc, final YAxisImpl<XTYPE> y_axis,
+            final TraceDecimation<XTYPE> data, final int line_width)
     {
         final IntList min = new IntList(INITIAL_ARRAY_SIZE);
         final IntList max = new IntList(INITIAL_ARRAY_SIZE);
 
         final int N = data.size();
-        for (int i = 0;  i < N;  ++i)
+        for (int r = 0;  r < N;  ++r)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            double ymin = item.getMin();
-            double ymax = item.getMax();
-            if (Double.isNaN(ymin)  ||  Double.isNaN(ymax))
+            if (! data.hasMinMax(r))
             {
                 flushPolyLine(gc, min, line_width);
                 flushPolyLine(gc, max, line_width);
             }
             else
             {
-                final int x1 = clipX(x_transform.transform(item.getPosition()));
-                final int y1min = clipY(y_axis.getScreenCoord(ymin));
-                final int y1max = clipY(y_axis.getScreenCoord(ymax));
-                min.add(x1);   min.add(y1min);
-                max.add(x1);   max.add(y1max);
+                final int x1 = data.getScreenPosition(r);
+                for (int which=TraceDecimation.FIRST; which<=TraceDecimation.LAST; ++which)
+                {
+                    min.add(x1);   min.add(clipY(y_axis.getScreenCoord(data.getMin(r, which))));
+                    max.add(x1);   max.add(clipY(y_axis.getScreenCoord(data.getMax(r, which))));
+                }
             }
         }
         flushPolyLine(gc, min, line_width);
@@ -364,9 +347,8 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
         int last_x = -1, last_y = -1;
         for (int i=0; i<N; ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            final int x = clipX(Math.round(x_transform.transform(item.getPosition())));
-            final double value = item.getValue();
+            final int x = clipX(Math.round(x_transform.transformNumber(data.getPositionNumber(i))));
+            final double value = data.getValue(i);
             if (!Double.isNaN(value))
             {
                 final int y = clipY(y_axis.getScreenCoord(value));
@@ -422,12 +404,9 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
      * Plot an additional vertical dashed line to indicate a transition to a
      * non-plottable value, to highlight events such as an archiver disconnect.
      * @param gc GC
-     * @param x_transform Horizontal axis
-     * @param item PlotDataItem
+     * @param x1 Horizontal screen position of the non-plottable value
      */
-    final private void highlightDiscontinuity(final GC gc, final ScreenTransform<XTYPE> x_transform,
-            final PlotDataItem<XTYPE> item) {
-        final int x1 = clipX(x_transform.transform(item.getPosition()));
+    final private void highlightDiscontinuity(final GC gc, final int x1) {
         gc.setLineStyle(SWT.LINE_DOT);
         gc.drawLine(x1, y_min, x1, y_max);
         gc.setLineStyle(SWT.LINE_SOLID);
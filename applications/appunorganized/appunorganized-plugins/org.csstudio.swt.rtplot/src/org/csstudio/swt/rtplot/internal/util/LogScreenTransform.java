@@ -38,6 +38,13 @@ public class LogScreenTransform implements ScreenTransform<Double>
         return linear.transform(Log10.log10(x));
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public double transformNumber(final double x)
+    {
+        return linear.transformNumber(Log10.log10(x));
+    }
+
     /** {@inheritDoc} */
     @Override
     public Double inverse(final double y)
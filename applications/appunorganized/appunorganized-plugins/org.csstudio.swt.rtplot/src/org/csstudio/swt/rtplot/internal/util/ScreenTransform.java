@@ -9,6 +9,8 @@ package org.csstudio.swt.rtplot.internal.util;
 
 import java.time.Instant;
 
+import org.csstudio.swt.rtplot.data.PlotDataProvider;
+
 /** A transformation from model coordinates to display coordinates
  *
  *  @param <T> Data type, {@link Double} or {@link Instant}
@@ -37,6 +39,11 @@ public interface ScreenTransform<T>
     /** @return Returns x transformed into the y range. */
     public abstract double transform(T x);
 
+    /** @param x Position as a number, see {@link PlotDataProvider#getPositionNumber(int)}
+     *  @return Returns x transformed into the y range.
+     */
+    public abstract double transformNumber(double x);
+
     /** @return Returns x transformed into the y range. */
     public abstract T inverse(double y);
 
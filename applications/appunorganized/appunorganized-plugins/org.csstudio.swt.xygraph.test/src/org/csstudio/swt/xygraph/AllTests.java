@@ -24,6 +24,7 @@
 package org.csstudio.swt.xygraph;
 
 import org.csstudio.swt.xygraph.dataprovider.CircularBufferTest;
+import org.csstudio.swt.xygraph.dataprovider.SampleBufferTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
@@ -39,6 +40,7 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses( {
     CircularBufferTest.class,
+    SampleBufferTest.class,
     StaircaseDemo.class
 })
 public class AllTests {
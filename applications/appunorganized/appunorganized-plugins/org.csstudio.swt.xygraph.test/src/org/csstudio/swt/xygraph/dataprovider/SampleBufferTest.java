@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.swt.xygraph.dataprovider;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/** JUnit test of the {@link SampleBuffer}, compared with a {@link CircularBuffer}
+ */
+public class SampleBufferTest {
+
+    private static void assertSameData(final CircularBuffer<ISample> expected, final SampleBuffer buffer) {
+        assertEquals(expected.size(), buffer.size());
+        double xMin = Double.POSITIVE_INFINITY, xMax = Double.NEGATIVE_INFINITY;
+        double yMin = Double.POSITIVE_INFINITY, yMax = Double.NEGATIVE_INFINITY;
+        for(int i=0; i<expected.size(); ++i) {
+            final ISample sample = expected.getElement(i);
+            assertEquals(sample, buffer.getSample(i));
+            assertEquals(sample.getXValue(), buffer.getXValue(i), 0.0);
+            assertEquals(sample.getYValue(), buffer.getYValue(i), 0.0);
+            xMin = Math.min(xMin, sample.getXValue() - sample.getXMinusError());
+            xMax = Math.max(xMax, sample.getXValue() + sample.getXPlusError());
+            yMin = Math.min(yMin, sample.getYValue() - sample.getYMinusError());
+            yMax = Math.max(yMax, sample.getYValue() + sample.getYPlusError());
+        }
+        if(expected.size() > 0) {
+            assertEquals(xMin, buffer.getXMin(), 0.0);
+            assertEquals(xMax, buffer.getXMax(), 0.0);
+            assertEquals(yMin, buffer.getYMin(), 0.0);
+            assertEquals(yMax, buffer.getYMax(), 0.0);
+        }
+    }
+
+    @Test
+    public void testAdd() {
+        final CircularBuffer<ISample> expected = new CircularBuffer<ISample>(5);
+        final SampleBuffer buffer = new SampleBuffer(5);
+        assertNull(buffer.getSample(0));
+        for(int i=0; i<12; i++){
+            // Values go down, then up, so min and max are dropped
+            final double value = Math.abs(i - 6);
+            expected.add(new Sample(i, value));
+            buffer.add(i, value);
+            assertSameData(expected, buffer);
+        }
+        final ISample sample = new Sample(20, 3, 1, 2, 0.5, 0.5, "Info");
+        expected.add(sample);
+        buffer.add(sample);
+        assertSame(sample, buffer.getSample(4));
+        assertSameData(expected, buffer);
+    }
+
+    @Test
+    public void testAddAll() {
+        final Random random = new Random(42);
+        final CircularBuffer<ISample> expected = new CircularBuffer<ISample>(10);
+        final SampleBuffer buffer = new SampleBuffer(10);
+        double next_x = 0;
+        for(int run=0; run<50; ++run) {
+            final int length = random.nextInt(14);
+            final double[] x = new double[length], y = new double[length];
+            for(int i=0; i<length; ++i) {
+                x[i] = random.nextGaussian();
+                y[i] = random.nextGaussian();
+            }
+            if(run % 2 == 0) {
+                for(int i=0; i<length; ++i)
+                    expected.add(new Sample(x[i], y[i]));
+                buffer.addAll(x, y, length);
+            } else {
+                for(int i=0; i<length; ++i)
+                    expected.add(new Sample(next_x + i, y[i]));
+                buffer.addAll(next_x, y, length);
+                next_x += length;
+            }
+            if(run % 7 == 0) {
+                // Sample with error range in between
+                final ISample sample = new Sample(next_x, 0, 1, 1, 0, 0);
+                expected.add(sample);
+                buffer.add(sample);
+            }
+            assertSameData(expected, buffer);
+        }
+    }
+
+    @Test
+    public void testCapacity() {
+        final CircularBuffer<ISample> expected = new CircularBuffer<ISample>(5);
+        final SampleBuffer buffer = new SampleBuffer(5);
+        for(int i=0; i<7; i++){
+            expected.add(new Sample(i, -i));
+            buffer.add(i, -i);
+        }
+        expected.setBufferSize(8, false);
+        buffer.setCapacity(8);
+        assertEquals(8, buffer.getCapacity());
+        assertSameData(expected, buffer);
+
+        expected.setBufferSize(3, false);
+        buffer.setCapacity(3);
+        assertSameData(expected, buffer);
+
+        expected.clear();
+        buffer.clear();
+        assertSameData(expected, buffer);
+        assertEquals(Double.NaN, buffer.getXMin(), 0.0);
+    }
+
+    @Test
+    public void testNaN() {
+        final SampleBuffer buffer = new SampleBuffer(3);
+        buffer.add(1, Double.NaN);
+        buffer.add(2, 5);
+        buffer.add(3, 2);
+        assertEquals(2, buffer.getYMin(), 0.0);
+        assertEquals(5, buffer.getYMax(), 0.0);
+        buffer.add(4, Double.NaN);
+        buffer.add(5, Double.NaN);
+        assertEquals(2, buffer.getYMin(), 0.0);
+        assertEquals(2, buffer.getYMax(), 0.0);
+        buffer.add(6, Double.NaN);
+        assertEquals(Double.NaN, buffer.getYMin(), 0.0);
+        assertEquals(4, buffer.getXMin(), 0.0);
+    }
+}
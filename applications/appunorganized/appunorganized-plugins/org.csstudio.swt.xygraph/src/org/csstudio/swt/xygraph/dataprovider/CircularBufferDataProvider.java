@@ -9,6 +9,7 @@ package org.csstudio.swt.xygraph.dataprovider;
 
 import java.time.Instant;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 import org.csstudio.swt.xygraph.linearscale.Range;
 import org.eclipse.swt.widgets.Display;
@@ -70,7 +71,7 @@ public class CircularBufferDataProvider extends AbstractDataProvider{
 
     private volatile boolean auto_size = false;
 
-    private CircularBuffer<ISample> traceData;
+    private SampleBuffer traceData;
 
     private double currentXData;
 
@@ -112,7 +113,7 @@ public class CircularBufferDataProvider extends AbstractDataProvider{
 
     public CircularBufferDataProvider(boolean chronological) {
         super(chronological);
-        traceData = new CircularBuffer<ISample>(100);
+        traceData = new SampleBuffer(100);
         fireUpdate = new Runnable(){
             @Override
             public void run() {
@@ -146,7 +147,7 @@ public class CircularBufferDataProvider extends AbstractDataProvider{
     }
 
     public synchronized void addSample(ISample sample){
-        if(traceData.size() == traceData.getBufferSize() && plotMode == PlotMode.N_STOP)
+        if(traceData.size() == traceData.getCapacity() && plotMode == PlotMode.N_STOP)
             return;
         traceData.add(sample);
         fireDataChange();
@@ -184,7 +185,7 @@ public class CircularBufferDataProvider extends AbstractDataProvider{
      * Whether it will be added or not is up to the update mode.
      */
     private void tryToAddDataPoint(){
-        if(traceData.size() == traceData.getBufferSize() && plotMode == PlotMode.N_STOP)
+        if(traceData.size() == traceData.getCapacity() && plotMode == PlotMode.N_STOP)
             return;
         switch (updateMode) {
         case X_OR_Y:
@@ -216,7 +217,7 @@ public class CircularBufferDataProvider extends AbstractDataProvider{
     /**
      * add a new data point to trace data.
      */
-    public void addDataPoint(double xValue) {
+    public synchronized void addDataPoint(double xValue) {
         double newXValue;
         if(!concatenate_data)
             traceData.clear();
@@ -228,12 +229,12 @@ public class CircularBufferDataProvider extends AbstractDataProvider{
                 if(traceData.size() == 0)
                     newXValue = 0;
                 else
-                    newXValue = traceData.getTail().getXValue() +1;
+                    newXValue = traceData.getXValue(traceData.size()-1) +1;
             }
         }else{
             newXValue = currentXData;
         }
-            traceData.add(new Sample(newXValue, currentYData));
+            traceData.add(newXValue, currentYData);
             currentXDataChanged = false;
             currentYDataChanged = false;
 //            currentYDataTimestampChanged = false;
@@ -265,7 +266,7 @@ public class CircularBufferDataProvider extends AbstractDataProvider{
      * Whether it will be added or not is up to the update mode.
      */
     private void tryToAddDataArray(){
-        if(traceData.size() == traceData.getBufferSize() && plotMode == PlotMode.N_STOP)
+        if(traceData.size() == traceData.getCapacity() && plotMode == PlotMode.N_STOP)
             return;
         switch (updateMode) {
         case X_OR_Y:
@@ -295,35 +296,28 @@ public class CircularBufferDataProvider extends AbstractDataProvider{
 
 
     /**
-     * add a new data point to trace data.
+     * add the current data arrays to trace data.
+     * The arrays are copied into the buffer without creating a sample for each element.
      */
-    public void addDataArray() {
+    public synchronized void addDataArray() {
         if(!concatenate_data)
             traceData.clear();
 
         if(chronological){
-            double[] newXValueArray;
-            newXValueArray = new double[currentYDataArray.length];
+            final double firstX;
             if(traceData.size() == 0)
-                for(int i=0; i<currentYDataArray.length; i++){
-                    newXValueArray[i] = i;
-                }
+                firstX = 0;
             else
-                for(int i=1; i<currentYDataArray.length+1; i++){
-                    newXValueArray[i-1] = traceData.getTail().getXValue() + i;
-                }
+                firstX = traceData.getXValue(traceData.size()-1) + 1;
             final int size;
             if (auto_size)
             {
-                size = Math.min(newXValueArray.length, currentYDataArray.length);
+                size = currentYDataArray.length;
                 assertBufferSize(size);
             }
             else
-                size = Math.min(traceData.getBufferSize(),
-                    Math.min(newXValueArray.length, currentYDataArray.length));
-            for(int i=0; i<size; i++){
-                traceData.add(new Sample(newXValueArray[i], currentYDataArray[i]));
-            }
+                size = Math.min(traceData.getCapacity(), currentYDataArray.length);
+            traceData.addAll(firstX, currentYDataArray, size);
         }else{
             //newXValueArray = currentXDataArray;
 
@@ -336,11 +330,9 @@ public class CircularBufferDataProvider extends AbstractDataProvider{
                 assertBufferSize(size);
             }
             else
-                size = Math.min(traceData.getBufferSize(),
+                size = Math.min(traceData.getCapacity(),
                     Math.min(currentXDataArray.length, currentYDataArray.length));
-            for(int i=0; i<size; i++){
-                traceData.add(new Sample(currentXDataArray[i], currentYDataArray[i]));
-            }
+            traceData.addAll(currentXDataArray, currentYDataArray, size);
         }
 
             currentXDataChanged = false;
@@ -355,8 +347,25 @@ public class CircularBufferDataProvider extends AbstractDataProvider{
         fireDataChange();
     }
 
+    /** @return Iterator that creates an {@link ISample} for each element.
+     *  Use {@link #getXValue(int)} and {@link #getYValue(int)} to avoid that.
+     */
     public Iterator<ISample> iterator() {
-        return traceData.iterator();
+        return new Iterator<ISample>(){
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < getSize();
+            }
+
+            @Override
+            public ISample next() {
+                if(!hasNext())
+                    throw new NoSuchElementException();
+                return getSample(index++);
+            }
+        };
     }
 
     /**
@@ -365,15 +374,15 @@ public class CircularBufferDataProvider extends AbstractDataProvider{
     public synchronized void setBufferSize(int bufferSize) {
         auto_size = bufferSize <= 0;
         if (! auto_size)
-            traceData.setBufferSize(bufferSize, false);
+            traceData.setCapacity(bufferSize);
     }
 
     /**
      * @param bufferSize the minimum bufferSize to reserve
      */
     public synchronized void assertBufferSize(int bufferSize) {
-        if (traceData.getBufferSize() < bufferSize)
-            traceData.setBufferSize(bufferSize, false);
+        if (traceData.getCapacity() < bufferSize)
+            traceData.setCapacity(bufferSize);
     }
 
     /**
@@ -393,7 +402,7 @@ public class CircularBufferDataProvider extends AbstractDataProvider{
     /**In TRIGGER update mode, the trace data could be updated by this method
      * @param triggerValue the triggerValue to set
      */
-    public void triggerUpdate() {
+    public synchronized void triggerUpdate() {
         //do not update if no new data was added, otherwise, it will add (0,0) which is not a real sample.
         if(traceData.size() == 0 && !(currentYDataChanged || currentYDataArrayChanged))
             return;
@@ -414,29 +423,9 @@ public class CircularBufferDataProvider extends AbstractDataProvider{
             return;
         dataRangedirty = false;
         if(getSize() > 0){
-            double xMin;
-            double xMax;
-            xMin = traceData.getHead().getXValue();
-            xMax = xMin;
-
-            double yMin;
-            double yMax;
-            yMin = traceData.getHead().getYValue();
-            yMax = yMin;
-            for(ISample dp : traceData){
-                if(xMin > dp.getXValue()-dp.getXMinusError())
-                    xMin = dp.getXValue()-dp.getXMinusError();
-                if(xMax < dp.getXValue()+dp.getXPlusError())
-                    xMax = dp.getXValue()+ dp.getXPlusError();
-
-                if(yMin > dp.getYValue() - dp.getYMinusError())
-                    yMin = dp.getYValue() - dp.getYMinusError();
-                if(yMax < dp.getYValue() + dp.getYPlusError())
-                    yMax = dp.getYValue() + dp.getYPlusError();
-            }
-
-            xDataMinMax = new Range(xMin, xMax);
-            yDataMinMax = new Range(yMin, yMax);
+            // The buffer tracks min/max as samples are added
+            xDataMinMax = new Range(traceData.getXMin(), traceData.getXMax());
+            yDataMinMax = new Range(traceData.getYMin(), traceData.getYMax());
         }else {
             xDataMinMax = null;
             yDataMinMax = null;
@@ -451,12 +440,22 @@ public class CircularBufferDataProvider extends AbstractDataProvider{
     }
 
     @Override
-    public ISample getSample(int index) {
-        return traceData.getElement(index);
+    public synchronized ISample getSample(int index) {
+        return traceData.getSample(index);
+    }
+
+    @Override
+    public synchronized double getXValue(int index) {
+        return traceData.getXValue(index);
+    }
+
+    @Override
+    public synchronized double getYValue(int index) {
+        return traceData.getYValue(index);
     }
 
     @Override
-    public int getSize() {
+    public synchronized int getSize() {
         return traceData.size();
     }
 
@@ -68,6 +68,28 @@ public interface IDataProvider {
      */
     public ISample getSample(int index);
 
+    /**Get X value of a sample.
+     * <p>
+     * Same as <code>getSample(index).getXValue()</code>,
+     * but data providers that do not keep {@link ISample}s
+     * can implement it without creating a sample.
+     *
+     * @param index Sample index, 0...<code>getSize()-1</code>
+     * @return the X value.
+     */
+    public default double getXValue(int index) {
+        return getSample(index).getXValue();
+    }
+
+    /**Get Y value of a sample.
+     * @param index Sample index, 0...<code>getSize()-1</code>
+     * @return the Y value.
+     * @see #getXValue(int)
+     */
+    public default double getYValue(int index) {
+        return getSample(index).getYValue();
+    }
+
     /**Get the minimum and maximum xdata.
      * @return a range includes the min and max as lower and upper.
      * return null if there is no data.
@@ -0,0 +1,314 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.swt.xygraph.dataprovider;
+
+import java.util.Arrays;
+
+/**Circular buffer of samples, kept as primitive X and Y values.
+ *
+ * <p>Like the {@link CircularBuffer}, new samples are appended at the tail
+ * and the oldest samples are dropped when the buffer is full.
+ * Plain X/Y samples do not create any objects.
+ * Only samples with error ranges or info text are also kept as {@link ISample}.
+ *
+ * <p>The minimum and maximum of the data, including error ranges,
+ * are updated as samples are added.
+ * They are only computed again from all samples when the sample
+ * that was dropped defined the minimum or maximum.
+ *
+ * <p>Not thread safe, the data provider synchronizes access.
+ */
+public class SampleBuffer {
+    private double[] x;
+    private double[] y;
+    /** Samples with error ranges or info, <code>null</code> for plain X/Y samples */
+    private ISample[] samples;
+    private int head;
+    private int count;
+
+    private boolean rangeValid = true;
+    private double xMin, xMax, yMin, yMax;
+
+    /** @param capacity Number of samples to keep */
+    public SampleBuffer(final int capacity) {
+        if(capacity <= 0)
+            throw new IllegalArgumentException("Buffer size must be greater than zero.");
+        x = new double[capacity];
+        y = new double[capacity];
+        resetRange();
+    }
+
+    /** @return Number of samples that the buffer can hold */
+    public int getCapacity() {
+        return x.length;
+    }
+
+    /** @return Number of samples in the buffer */
+    public int size() {
+        return count;
+    }
+
+    /**Set the capacity, keeping the newest samples.
+     * @param capacity Number of samples to keep
+     */
+    public void setCapacity(final int capacity) {
+        if(capacity <= 0)
+            throw new IllegalArgumentException("Buffer size must be greater than zero.");
+        if(capacity == x.length)
+            return;
+        final int keep = Math.min(count, capacity);
+        final double[] newX = new double[capacity];
+        final double[] newY = new double[capacity];
+        final ISample[] newSamples = samples == null ? null : new ISample[capacity];
+        for(int i=0; i<keep; ++i) {
+            final int index = physical(count - keep + i);
+            newX[i] = x[index];
+            newY[i] = y[index];
+            if(newSamples != null)
+                newSamples[i] = samples[index];
+        }
+        x = newX;
+        y = newY;
+        samples = newSamples;
+        head = 0;
+        count = keep;
+        rangeValid = false;
+    }
+
+    /** Remove all samples */
+    public void clear() {
+        head = 0;
+        count = 0;
+        if(samples != null)
+            Arrays.fill(samples, null);
+        resetRange();
+    }
+
+    /**Add a plain sample.
+     * @param xValue
+     * @param yValue
+     */
+    public void add(final double xValue, final double yValue) {
+        final int index = append();
+        x[index] = xValue;
+        y[index] = yValue;
+        if(samples != null)
+            samples[index] = null;
+        if(rangeValid)
+            extendRange(xValue, xValue, yValue, yValue);
+    }
+
+    /**Add a sample.
+     * Error ranges and info text are kept, plain samples are stored as X/Y values.
+     * @param sample
+     */
+    public void add(final ISample sample) {
+        final boolean plain = sample.getXMinusError() == 0  &&  sample.getXPlusError() == 0  &&
+                sample.getYMinusError() == 0  &&  sample.getYPlusError() == 0  &&
+                (sample.getInfo() == null  ||  sample.getInfo().isEmpty());
+        if(plain) {
+            add(sample.getXValue(), sample.getYValue());
+            return;
+        }
+        if(samples == null)
+            samples = new ISample[x.length];
+        final int index = append();
+        x[index] = sample.getXValue();
+        y[index] = sample.getYValue();
+        samples[index] = sample;
+        if(rangeValid)
+            extendRange(getXLow(index), getXHigh(index), getYLow(index), getYHigh(index));
+    }
+
+    /**Add plain samples.
+     * Same result as adding them one by one.
+     * @param xValues X values
+     * @param yValues Y values
+     * @param length Number of samples to add from the start of the arrays
+     */
+    public void addAll(final double[] xValues, final double[] yValues, final int length) {
+        addAll(xValues, 0, yValues, length);
+    }
+
+    /**Add plain samples with X values that increment by 1.
+     * Same result as adding them one by one.
+     * @param firstX X value of the first sample
+     * @param yValues Y values
+     * @param length Number of samples to add from the start of the array
+     */
+    public void addAll(final double firstX, final double[] yValues, final int length) {
+        addAll(null, firstX, yValues, length);
+    }
+
+    /** @param xValues X values or <code>null</code> to use firstX, firstX+1, ... */
+    private void addAll(final double[] xValues, final double firstX, final double[] yValues, final int length) {
+        final int capacity = x.length;
+        // Only the last 'capacity' samples remain
+        final int skip = Math.max(0, length - capacity);
+        final int n = length - skip;
+        if(n <= 0)
+            return;
+        final int dropped = Math.max(0, count + n - capacity);
+        if(dropped >= count)
+            resetRange();
+        else
+            for(int i=0; i<dropped && rangeValid; ++i)
+                checkDropped(physical(i));
+        // Copy into at most two segments of the ring
+        final int start = physical(count);
+        final int first = Math.min(n, capacity - start);
+        copy(xValues, firstX, yValues, skip, start, first);
+        copy(xValues, firstX, yValues, skip + first, 0, n - first);
+        head = (head + dropped) % capacity;
+        count += n - dropped;
+        if(rangeValid)
+            for(int i=0; i<n; ++i) {
+                final int index = (start + i) % capacity;
+                extendRange(x[index], x[index], y[index], y[index]);
+            }
+    }
+
+    private void copy(final double[] xValues, final double firstX, final double[] yValues,
+            final int from, final int to, final int length) {
+        if(length <= 0)
+            return;
+        if(xValues != null)
+            System.arraycopy(xValues, from, x, to, length);
+        else
+            for(int i=0; i<length; ++i)
+                x[to + i] = firstX + from + i;
+        System.arraycopy(yValues, from, y, to, length);
+        if(samples != null)
+            Arrays.fill(samples, to, to + length, null);
+    }
+
+    /** @return Index in the arrays for the next sample, dropping the oldest sample if full */
+    private int append() {
+        final int index = physical(count);
+        if(count == x.length) {
+            if(rangeValid)
+                checkDropped(head);
+            head = (head + 1) % x.length;
+        } else
+            ++count;
+        return index;
+    }
+
+    /** @param index Index in arrays of a sample that will be dropped */
+    private void checkDropped(final int index) {
+        if(getXLow(index) <= xMin  ||  getXHigh(index) >= xMax  ||
+           getYLow(index) <= yMin  ||  getYHigh(index) >= yMax)
+            rangeValid = false;
+    }
+
+    /** @param index Sample index, 0...size()-1
+     *  @return Index in the arrays
+     */
+    private int physical(final int index) {
+        final int i = head + index;
+        return i < x.length ? i : i - x.length;
+    }
+
+    /** @param index Sample index, 0...size()-1
+     *  @return X value
+     */
+    public double getXValue(final int index) {
+        return x[physical(index)];
+    }
+
+    /** @param index Sample index, 0...size()-1
+     *  @return Y value
+     */
+    public double getYValue(final int index) {
+        return y[physical(index)];
+    }
+
+    /**Get a sample.
+     * Plain X/Y samples are created on each call,
+     * so use {@link #getXValue(int)} and {@link #getYValue(int)} where possible.
+     * @param index Sample index, 0...size()-1
+     * @return Sample, <code>null</code> if there is no sample at that index
+     */
+    public ISample getSample(final int index) {
+        if(index < 0  ||  index >= count)
+            return null;
+        final int i = physical(index);
+        if(samples != null  &&  samples[i] != null)
+            return samples[i];
+        return new Sample(x[i], y[i]);
+    }
+
+    private double getXLow(final int i) {
+        return samples == null  ||  samples[i] == null ? x[i] : x[i] - samples[i].getXMinusError();
+    }
+
+    private double getXHigh(final int i) {
+        return samples == null  ||  samples[i] == null ? x[i] : x[i] + samples[i].getXPlusError();
+    }
+
+    private double getYLow(final int i) {
+        return samples == null  ||  samples[i] == null ? y[i] : y[i] - samples[i].getYMinusError();
+    }
+
+    private double getYHigh(final int i) {
+        return samples == null  ||  samples[i] == null ? y[i] : y[i] + samples[i].getYPlusError();
+    }
+
+    private void resetRange() {
+        xMin = yMin = Double.POSITIVE_INFINITY;
+        xMax = yMax = Double.NEGATIVE_INFINITY;
+        rangeValid = true;
+    }
+
+    /** Include values in the range, ignoring NaN */
+    private void extendRange(final double xLow, final double xHigh, final double yLow, final double yHigh) {
+        if(xLow < xMin)
+            xMin = xLow;
+        if(xHigh > xMax)
+            xMax = xHigh;
+        if(yLow < yMin)
+            yMin = yLow;
+        if(yHigh > yMax)
+            yMax = yHigh;
+    }
+
+    /** Compute the range from all samples if the previous one is no longer valid */
+    private void updateRange() {
+        if(rangeValid)
+            return;
+        resetRange();
+        for(int i=0; i<count; ++i) {
+            final int index = physical(i);
+            extendRange(getXLow(index), getXHigh(index), getYLow(index), getYHigh(index));
+        }
+    }
+
+    /** @return Minimum X value including errors, NaN if there are no values */
+    public double getXMin() {
+        updateRange();
+        return xMin <= xMax ? xMin : Double.NaN;
+    }
+
+    /** @return Maximum X value including errors, NaN if there are no values */
+    public double getXMax() {
+        updateRange();
+        return xMin <= xMax ? xMax : Double.NaN;
+    }
+
+    /** @return Minimum Y value including errors, NaN if there are no values */
+    public double getYMin() {
+        updateRange();
+        return yMin <= yMax ? yMin : Double.NaN;
+    }
+
+    /** @return Maximum Y value including errors, NaN if there are no values */
+    public double getYMax() {
+        updateRange();
+        return yMin <= yMax ? yMax : Double.NaN;
+    }
+}
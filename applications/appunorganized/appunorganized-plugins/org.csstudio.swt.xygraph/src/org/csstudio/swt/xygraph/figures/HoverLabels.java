@@ -299,15 +299,15 @@ public class HoverLabels extends Figure implements MouseMotionListener, MouseLis
                 IDataProvider dp = trace.getDataProvider();
                 previousSampleXValue = 0;
                 for (int i = dp.getSize() - 1; i >= 0; i--) {
-                    ISample sample = dp.getSample(i);
-                    if (sample.getXValue() > previousSampleXValue
-                            && sample.getXValue() <= xAxis.getRange()
+                    final double xValue = dp.getXValue(i);
+                    if (xValue > previousSampleXValue
+                            && xValue <= xAxis.getRange()
                                     .getLower()) {
-                        previousSampleXValue = sample.getXValue();
-                        previousSample = sample;
+                        previousSampleXValue = xValue;
+                        previousSample = dp.getSample(i);
                     }
                     if (dp.isChronological()
-                            && sample.getXValue() < xAxis.getRange().getLower()) {
+                            && xValue < xAxis.getRange().getLower()) {
                         break;
                     }
                 }
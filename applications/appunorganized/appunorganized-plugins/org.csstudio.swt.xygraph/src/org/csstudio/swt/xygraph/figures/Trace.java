@@ -8,6 +8,7 @@
 package org.csstudio.swt.xygraph.figures;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -233,6 +234,17 @@ public class Trace extends Figure implements IDataProviderListener,
     private boolean drawYErrorInArea = false;
     private XYGraph xyGraph;
 
+    /**
+     * Indices of the samples drawn in the plot area by the last paint,
+     * <code>-1 - index</code> for 'NaN' samples marked on the X axis
+     */
+    private int[] hotSampleIndices = new int[16];
+
+    /** X/Y values of the samples drawn by the last paint, the data may change before the next paint */
+    private double[] hotSampleX = new double[16], hotSampleY = new double[16];
+    private int hotSampleCount = 0;
+
+    /** Hot samples, created from the drawn values when first requested */
     private List<ISample> hotSampleist;
 
     public Trace(String name, Axis xAxis, Axis yAxis, IDataProvider dataProvider) {
@@ -244,7 +256,17 @@ public class Trace extends Figure implements IDataProviderListener,
         xAxis.addListener(this);
         yAxis.addListener(this);
         setDataProvider(dataProvider);
-        hotSampleist = new ArrayList<ISample>();
+    }
+
+    private void addHotSample(final int index, final double xValue, final double yValue) {
+        if (hotSampleCount >= hotSampleIndices.length) {
+            hotSampleIndices = Arrays.copyOf(hotSampleIndices, 2 * hotSampleIndices.length);
+            hotSampleX = Arrays.copyOf(hotSampleX, hotSampleIndices.length);
+            hotSampleY = Arrays.copyOf(hotSampleY, hotSampleIndices.length);
+        }
+        hotSampleIndices[hotSampleCount] = index;
+        hotSampleX[hotSampleCount] = xValue;
+        hotSampleY[hotSampleCount++] = yValue;
     }
 
     private void drawErrorBar(Graphics graphics, Point dpPos, ISample dp) {
@@ -522,10 +544,15 @@ public class Trace extends Figure implements IDataProviderListener,
             graphics.setAntialias(antiAliasing ? SWT.ON : SWT.OFF);
         graphics.setForegroundColor(traceColor);
         graphics.setLineWidth(lineWidth);
-        ISample predp = null;
+        double predpX = 0, predpY = 0;
+        // Sample of the previous data point for the error area,
+        // null when the point was patched
+        ISample predpSample = null;
+        boolean hasPredp = false;
         boolean predpInRange = false;
         Point dpPos = null;
-        hotSampleist.clear();
+        hotSampleCount = 0;
+        hotSampleist = null;
         if (traceDataProvider == null)
             throw new RuntimeException(
                     "No DataProvider defined for trace: " + name); //$NON-NLS-1$
@@ -564,14 +591,20 @@ public class Trace extends Figure implements IDataProviderListener,
                 Point lastInRegion = null;
 
                 for (int i = startIndex; i <= endIndex; i++) {
-                    ISample dp = traceDataProvider.getSample(i);
-                    final boolean dpInXRange = xAxis.getRange().inRange(
-                            dp.getXValue());
+                    final double xValue = traceDataProvider.getXValue(i);
+                    final boolean dpInXRange = xAxis.getRange().inRange(xValue);
+                    // Points outside of the plot area are only needed to draw lines,
+                    // so skip them without reading the Y value
+                    if (!dpInXRange && traceType == TraceType.POINT && !drawYErrorInArea)
+                        continue;
+                    final double yValue = traceDataProvider.getYValue(i);
+                    // Only error bars need the complete sample
+                    final ISample sample = errorBarEnabled ? traceDataProvider.getSample(i) : null;
                     // Mark 'NaN' samples on X axis
-                    final boolean valueIsNaN = Double.isNaN(dp.getYValue());
+                    final boolean valueIsNaN = Double.isNaN(yValue);
                     if (dpInXRange && valueIsNaN) {
                         Point markPos = new Point(
-                                xAxis.getValuePosition(dp.getXValue(), false),
+                                xAxis.getValuePosition(xValue, false),
                                 yAxis.getValuePosition(
                                         xAxis.getTickLablesSide() == LabelSide.Primary ? yAxis
                                                 .getRange().getLower() : yAxis
@@ -580,24 +613,16 @@ public class Trace extends Figure implements IDataProviderListener,
                         graphics.fillRectangle(markPos.x - MARKER_SIZE / 2,
                                 markPos.y - MARKER_SIZE / 2, MARKER_SIZE,
                                 MARKER_SIZE);
-                        Sample nanSample = new Sample(
-                                dp.getXValue(),
-                                xAxis.getTickLablesSide() == LabelSide.Primary ? yAxis
-                                        .getRange().getLower() : yAxis
-                                        .getRange().getUpper(),
-                                dp.getYPlusError(), dp.getYMinusError(),
-                                Double.NaN, dp.getXMinusError(), dp.getInfo());
-                        hotSampleist.add(nanSample);
+                        addHotSample(-1 - i, xValue, yValue);
                     }
                     // Is data point in the plot area?
                     boolean dpInRange = dpInXRange
-                            && yAxis.getRange().inRange(dp.getYValue());
+                            && yAxis.getRange().inRange(yValue);
                     // draw point
                     if (dpInRange) {
-                        dpPos = new Point(xAxis.getValuePosition(
-                                dp.getXValue(), false), yAxis.getValuePosition(
-                                dp.getYValue(), false));
-                        hotSampleist.add(dp);
+                        dpPos = new Point(xAxis.getValuePosition(xValue, false),
+                                yAxis.getValuePosition(yValue, false));
+                        addHotSample(i, xValue, yValue);
 
                         // Do not draw points in the same place to improve performance
                         if (!hsPoint.contains(dpPos)) {
@@ -606,101 +631,117 @@ public class Trace extends Figure implements IDataProviderListener,
                         }
 
                         if (errorBarEnabled && !drawYErrorInArea)
-                            drawErrorBar(graphics, dpPos, dp);
+                            drawErrorBar(graphics, dpPos, sample);
                     }
                     if (traceType == TraceType.POINT && !drawYErrorInArea)
                         continue; // no need to draw line
 
                     // draw line
                     if (traceType == TraceType.BAR) {
+                        predpX = xValue;
                         switch (baseLine) {
                         case NEGATIVE_INFINITY:
-                            predp = new Sample(dp.getXValue(), yAxis.getRange()
-                                    .getLower());
+                            predpY = yAxis.getRange().getLower();
                             break;
                         case POSITIVE_INFINITY:
-                            predp = new Sample(dp.getXValue(), yAxis.getRange()
-                                    .getUpper());
+                            predpY = yAxis.getRange().getUpper();
                             break;
                         default:
-                            predp = new Sample(dp.getXValue(), 0);
+                            predpY = 0;
                             break;
                         }
-                        predpInRange = xAxis.getRange().inRange(
-                                predp.getXValue())
-                                && yAxis.getRange().inRange(predp.getYValue());
+                        predpSample = null;
+                        predpInRange = xAxis.getRange().inRange(predpX)
+                                && yAxis.getRange().inRange(predpY);
+                        hasPredp = true;
                     }
-                    if (predp == null) { // No previous data point from which to
-                                            // draw a line
-                        predp = dp;
+                    if (!hasPredp) { // No previous data point from which to
+                                     // draw a line
+                        predpX = xValue;
+                        predpY = yValue;
+                        predpSample = sample;
                         predpInRange = dpInRange;
+                        hasPredp = true;
                         continue;
                     }
 
-                    // Save original dp info because handling of NaN or
-                    // axis intersections might patch it
-                    final ISample origin_dp = dp;
+                    // Original dp info is kept in xValue, yValue and sample
+                    // because handling of NaN or axis intersections might patch it
+                    double dpX = xValue, dpY = yValue;
+                    ISample dpSample = sample;
                     final boolean origin_dpInRange = dpInRange;
 
                     // In 'STEP' modes, if there was a value, now there is none,
                     // continue that last value until the NaN location
                     if (valueIsNaN
-                            && !Double.isNaN(predp.getYValue())
+                            && !Double.isNaN(predpY)
                             && (traceType == TraceType.STEP_HORIZONTALLY || traceType == TraceType.STEP_VERTICALLY)) {
                         // Patch 'y' of dp, re-compute dpInRange for new 'y'
-                        dp = new Sample(dp.getXValue(), predp.getYValue());
-                        dpInRange = yAxis.getRange().inRange(dp.getYValue());
+                        dpY = predpY;
+                        dpSample = null;
+                        dpInRange = yAxis.getRange().inRange(dpY);
                     }
 
                     if (traceType != TraceType.AREA) {
                         if (!predpInRange && !dpInRange) { // both are out of
                                                             // plot area
-                            ISample[] dpTuple = getIntersection(predp, dp);
+                            final ISample[] dpTuple = getIntersection(
+                                    new Sample(predpX, predpY), new Sample(dpX, dpY));
                             if (dpTuple[0] == null || dpTuple[1] == null) { // no
                                                                             // intersection
                                                                             // with
                                                                             // plot
                                                                             // area
-                                predp = origin_dp;
+                                predpX = xValue;
+                                predpY = yValue;
+                                predpSample = sample;
                                 predpInRange = origin_dpInRange;
                                 continue;
                             } else {
-                                predp = dpTuple[0];
-                                dp = dpTuple[1];
+                                predpX = dpTuple[0].getXValue();
+                                predpY = dpTuple[0].getYValue();
+                                predpSample = null;
+                                dpX = dpTuple[1].getXValue();
+                                dpY = dpTuple[1].getYValue();
+                                dpSample = null;
                             }
                         } else if (!predpInRange || !dpInRange) { // one in and
                                                                     // one out
                             // calculate the intersection point with the
                             // boundary of plot area.
+                            final ISample intersection = getIntersection(
+                                    new Sample(predpX, predpY), new Sample(dpX, dpY))[0];
+                            if (intersection == null) { // no intersection
+                                predpX = xValue;
+                                predpY = yValue;
+                                predpSample = sample;
+                                predpInRange = origin_dpInRange;
+                                continue;
+                            }
                             if (!predpInRange) {
-                                predp = getIntersection(predp, dp)[0];
-                                if (predp == null) { // no intersection
-                                    predp = origin_dp;
-                                    predpInRange = origin_dpInRange;
-                                    continue;
-                                }
+                                predpX = intersection.getXValue();
+                                predpY = intersection.getYValue();
+                                predpSample = null;
                             } else {
-                                dp = getIntersection(predp, dp)[0];
-                                if (dp == null) { // no intersection
-                                    predp = origin_dp;
-                                    predpInRange = origin_dpInRange;
-                                    continue;
-                                }
+                                dpX = intersection.getXValue();
+                                dpY = intersection.getYValue();
+                                dpSample = null;
                             }
                         }
                     }
 
                     final Point predpPos = new Point(xAxis.getValuePosition(
-                            predp.getXValue(), false), yAxis.getValuePosition(
-                            predp.getYValue(), false));
-                    dpPos = new Point(xAxis.getValuePosition(dp.getXValue(),
-                            false), yAxis.getValuePosition(dp.getYValue(),
-                            false));
+                            predpX, false), yAxis.getValuePosition(predpY, false));
+                    dpPos = new Point(xAxis.getValuePosition(dpX, false),
+                            yAxis.getValuePosition(dpY, false));
 
                     if (!dpPos.equals(predpPos)) {
                         if (errorBarEnabled && drawYErrorInArea
                                 && traceType != TraceType.BAR)
-                            drawYErrorArea(graphics, predp, dp, predpPos, dpPos);
+                            drawYErrorArea(graphics,
+                                    predpSample != null ? predpSample : new Sample(predpX, predpY),
+                                    dpSample != null ? dpSample : new Sample(dpX, dpY),
+                                    predpPos, dpPos);
 
                         switch (traceType) {
                         case SOLID_LINE:
@@ -868,7 +909,9 @@ public class Trace extends Figure implements IDataProviderListener,
                         }
                     }
 
-                    predp = origin_dp;
+                    predpX = xValue;
+                    predpY = yValue;
+                    predpSample = sample;
                     predpInRange = origin_dpInRange;
                 }
 
@@ -1356,16 +1399,15 @@ public class Trace extends Figure implements IDataProviderListener,
         double max = axisRange.getUpper() > axisRange.getLower() ? axisRange
                 .getUpper() : axisRange.getLower();
 
-        if (min > traceDataProvider.getSample(traceDataProvider.getSize() - 1)
-                .getXValue()
-                || max < traceDataProvider.getSample(0).getXValue())
+        if (min > traceDataProvider.getXValue(traceDataProvider.getSize() - 1)
+                || max < traceDataProvider.getXValue(0))
             return null;
 
         int lowIndex = 0;
         int highIndex = traceDataProvider.getSize() - 1;
-        if (min > traceDataProvider.getSample(0).getXValue())
+        if (min > traceDataProvider.getXValue(0))
             lowIndex = nearBinarySearchX(min, true);
-        if (max < traceDataProvider.getSample(highIndex).getXValue())
+        if (max < traceDataProvider.getXValue(highIndex))
             highIndex = nearBinarySearchX(max, false);
         return new Range(lowIndex, highIndex);
     }
@@ -1379,7 +1421,7 @@ public class Trace extends Figure implements IDataProviderListener,
 
         while (low <= high) {
             int mid = (low + high) >>> 1;
-            double midVal = traceDataProvider.getSample(mid).getXValue();
+            double midVal = traceDataProvider.getXValue(mid);
 
             int cmp;
             if (midVal < key) {
@@ -1396,8 +1438,7 @@ public class Trace extends Figure implements IDataProviderListener,
 
             if (cmp < 0) {
                 if (mid < traceDataProvider.getSize() - 1
-                        && key < traceDataProvider.getSample(mid + 1)
-                                .getXValue()) {
+                        && key < traceDataProvider.getXValue(mid + 1)) {
                     if (left)
                         return mid;
                     else
@@ -1408,8 +1449,7 @@ public class Trace extends Figure implements IDataProviderListener,
 
             else if (cmp > 0) {
                 if (mid > 0
-                        && key > traceDataProvider.getSample(mid - 1)
-                                .getXValue())
+                        && key > traceDataProvider.getXValue(mid - 1))
                     if (left)
                         return mid - 1;
                     else
@@ -1492,10 +1532,50 @@ public class Trace extends Figure implements IDataProviderListener,
 
     /**
      * Hot Sample is the sample on the trace which has been drawn in plot area.
+     * The samples are only created when requested after a paint,
+     * using the values that were drawn even if the data changed since.
      *
      * @return the hotPointList
      */
     public List<ISample> getHotSampleList() {
+        if (hotSampleist == null) {
+            final List<ISample> samples = new ArrayList<ISample>(hotSampleCount);
+            if (traceDataProvider != null) {
+                synchronized (traceDataProvider) {
+                    final int size = traceDataProvider.getSize();
+                    for (int h = 0; h < hotSampleCount; h++) {
+                        final int index = hotSampleIndices[h];
+                        final int sampleIndex = index < 0 ? -1 - index : index;
+                        final double xValue = hotSampleX[h], yValue = hotSampleY[h];
+                        // Error ranges and info are only taken from the data provider
+                        // while the sample at the index still has the drawn values
+                        ISample dp = null;
+                        if (sampleIndex < size) {
+                            final ISample current = traceDataProvider.getSample(sampleIndex);
+                            if (Double.compare(current.getXValue(), xValue) == 0
+                                    && Double.compare(current.getYValue(), yValue) == 0)
+                                dp = current;
+                        }
+                        if (index >= 0) {
+                            samples.add(dp != null ? dp : new Sample(xValue, yValue));
+                            continue;
+                        }
+                        // 'NaN' sample, shown at its marker on the X axis
+                        samples.add(new Sample(
+                                xValue,
+                                xAxis.getTickLablesSide() == LabelSide.Primary ? yAxis
+                                        .getRange().getLower() : yAxis
+                                        .getRange().getUpper(),
+                                dp != null ? dp.getYPlusError() : 0,
+                                dp != null ? dp.getYMinusError() : 0,
+                                Double.NaN,
+                                dp != null ? dp.getXMinusError() : 0,
+                                dp != null ? dp.getInfo() : "")); //$NON-NLS-1$
+                    }
+                }
+            }
+            hotSampleist = samples;
+        }
         return hotSampleist;
     }
 
@@ -11,6 +11,7 @@ import junit.framework.TestCase;
 
 import org.csstudio.apputil.formula.Formula;
 import org.csstudio.apputil.formula.VariableNode;
+import org.csstudio.apputil.formula.VectorContext;
 import org.junit.Test;
 
 /** Formula tests.
@@ -201,6 +202,50 @@ public class FormulaUnitTest extends TestCase
 
     }
 
+    @Test
+    public void testVector() throws Exception
+    {
+        final VariableNode v[] = new VariableNode[2];
+        v[0] = new VariableNode("x");
+        v[1] = new VariableNode("y");
+        final String formulas[] =
+        {
+            "2*PI",
+            "x + y * 3 - 4 / y",
+            "x ^ 2 + sqrt(abs(y))",
+            "x > y ? (x) : (-y)",
+            "!(x <= 1) & (y != 2 | x == 0)",
+            "min(x, y, 3) + max(x, y, -3)",
+            "atan2(x, y) + hypot(x, y) + pow(x, 2)",
+            "round(x) + rnd(0)",
+            "y / x",
+        };
+        final int count = 1000;
+        final double x[] = new double[count], y[] = new double[count];
+        for (int i=0; i<count; ++i)
+        {
+            x[i] = (i % 7) - 3;
+            y[i] = (i % 5) * 0.5;
+        }
+        final VectorContext context = new VectorContext(v);
+        context.setColumn(0, x);
+        context.setColumn(1, y);
+        context.setCount(count);
+        final double result[] = new double[count];
+        for (String expression : formulas)
+        {
+            final Formula f = new Formula(expression, v);
+            f.eval(context, result);
+            // Compare with evaluation one row at a time
+            for (int i=0; i<count; ++i)
+            {
+                v[0].setValue(x[i]);
+                v[1].setValue(y[i]);
+                assertEquals(expression + " @ " + i, f.eval(), result[i], 0.0);
+            }
+        }
+    }
+
     @Test
     public void testErrors() throws Exception
     {
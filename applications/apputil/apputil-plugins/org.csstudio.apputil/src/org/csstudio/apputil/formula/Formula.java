@@ -176,6 +176,22 @@ public class Formula implements Node
         return tree.eval();
     }
 
+    /** Evaluate the formula for all rows of a context.
+     *  <p>
+     *  Variables are read from the columns of the context.
+     *  Nodes that cannot be evaluated column-wise are evaluated
+     *  one row at a time, which sets the variables to the values of each row.
+     *  Afterwards, variables may therefore hold the values of the last row.
+     *  @param context Context with variable columns
+     *  @param result Result for each row, must have at least <code>context.getCount()</code> elements
+     */
+    @Override
+    public void eval(final VectorContext context, final double result[])
+    {
+        context.reset();
+        tree.eval(context, result);
+    }
+
     /** {@inheritDoc} */
     @Override
     public boolean hasSubnode(final Node node)
@@ -18,6 +18,17 @@ public interface Node
      */
     public double eval();
 
+    /** Evaluate the node for all rows of a context.
+     *  <p>
+     *  Default implementation evaluates one row at a time.
+     *  @param context Context with variable columns and scratch columns
+     *  @param result Result for each row, must have at least <code>context.getCount()</code> elements
+     */
+    public default void eval(final VectorContext context, final double result[])
+    {
+        context.evalRows(this, result);
+    }
+
     /** Check if this node has given node as a subnode
      *  @return <code>true</code> if given node was found under this one.
      */
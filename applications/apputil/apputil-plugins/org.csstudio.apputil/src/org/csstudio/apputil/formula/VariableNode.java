@@ -7,6 +7,8 @@
  ******************************************************************************/
 package org.csstudio.apputil.formula;
 
+import java.util.Arrays;
+
 /** Named Variable.
  *  @author Kay Kasemir
  */
@@ -56,6 +58,17 @@ public class VariableNode implements Node
         return value;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void eval(final VectorContext context, final double result[])
+    {
+        final double column[] = context.getColumn(this);
+        if (column == null)
+            Arrays.fill(result, 0, context.getCount(), value);
+        else
+            System.arraycopy(column, 0, result, 0, context.getCount());
+    }
+
     /** {@inheritDoc} */
     @Override
     public boolean hasSubnode(final Node node)
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.apputil.formula;
+
+import java.util.Arrays;
+
+/** Context for evaluating a formula on columns of values.
+ *  <p>
+ *  Each variable is assigned a column, i.e. an array of values.
+ *  The formula is then evaluated for all 'rows' at once,
+ *  one node at a time.
+ *  Intermediate results use scratch columns that are kept
+ *  in this context and re-used for later evaluations,
+ *  so there is no memory allocation per row.
+ *  <p>
+ *  Not thread-safe.
+ */
+public class VectorContext
+{
+    /** Variables */
+    final private VariableNode variables[];
+
+    /** Column for each variable, or <code>null</code> */
+    final private double columns[][];
+
+    /** Number of rows to evaluate */
+    private int count = 0;
+
+    /** Scratch columns, used like a stack */
+    private double scratch[][] = new double[4][];
+
+    /** Number of scratch columns currently in use */
+    private int used = 0;
+
+    /** @param variables Variables that will receive columns */
+    public VectorContext(final VariableNode... variables)
+    {
+        this.variables = variables;
+        columns = new double[variables.length][];
+    }
+
+    /** @param index Index of variable
+     *  @param values Values of the variable for each row. <u>Not copied</u>.
+     */
+    public void setColumn(final int index, final double values[])
+    {
+        columns[index] = values;
+    }
+
+    /** @param count Number of rows to evaluate */
+    public void setCount(final int count)
+    {
+        this.count = count;
+    }
+
+    /** @return Number of rows to evaluate */
+    public int getCount()
+    {
+        return count;
+    }
+
+    /** @param variable Variable
+     *  @return Column for that variable or <code>null</code>
+     */
+    public double[] getColumn(final VariableNode variable)
+    {
+        for (int i=0; i<variables.length; ++i)
+            if (variables[i] == variable)
+                return columns[i];
+        return null;
+    }
+
+    /** Obtain a scratch column.
+     *  <p>
+     *  Must be returned via <code>release</code>
+     *  in reverse order of obtaining them.
+     *  @return Scratch column with at least <code>getCount()</code> elements
+     */
+    public double[] borrow()
+    {
+        if (used >= scratch.length)
+            scratch = Arrays.copyOf(scratch, scratch.length * 2);
+        double column[] = scratch[used];
+        if (column == null  ||  column.length < count)
+        {
+            column = new double[count];
+            scratch[used] = column;
+        }
+        ++used;
+        return column;
+    }
+
+    /** @param column Scratch column obtained via <code>borrow</code> */
+    public void release(final double column[])
+    {
+        --used;
+    }
+
+    /** Reset scratch column usage, for example after an error */
+    void reset()
+    {
+        used = 0;
+    }
+
+    /** Evaluate a node one row at a time.
+     *  <p>
+     *  Fallback for nodes that don't implement column-wise evaluation.
+     *  Sets the variables to the values of each row.
+     *  @param node Node to evaluate
+     *  @param result Result for each row
+     */
+    void evalRows(final Node node, final double result[])
+    {
+        for (int row=0; row<count; ++row)
+        {
+            for (int i=0; i<variables.length; ++i)
+                if (columns[i] != null)
+                    variables[i].setValue(columns[i][row]);
+            result[row] = node.eval();
+        }
+    }
+}
@@ -8,6 +8,7 @@
 package org.csstudio.apputil.formula.node;
 
 import org.csstudio.apputil.formula.Node;
+import org.csstudio.apputil.formula.VectorContext;
 
 /** Abstract base for binary nodes.
  *  @author Kay Kasemir
@@ -23,6 +24,24 @@ abstract class AbstractBinaryNode implements Node
         this.right = right;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    final public void eval(final VectorContext context, final double result[])
+    {
+        left.eval(context, result);
+        final double b[] = context.borrow();
+        right.eval(context, b);
+        eval(result, b, context.getCount());
+        context.release(b);
+    }
+
+    /** Evaluate columns
+     *  @param a Values of left node, replaced by result
+     *  @param b Values of right node
+     *  @param count Number of rows
+     */
+    abstract protected void eval(double a[], double b[], int count);
+
     /** {@inheritDoc} */
     @Override
     final public boolean hasSubnode(final Node node)
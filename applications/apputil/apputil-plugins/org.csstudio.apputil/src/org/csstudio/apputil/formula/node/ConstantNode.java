@@ -7,7 +7,10 @@
  ******************************************************************************/
 package org.csstudio.apputil.formula.node;
 
+import java.util.Arrays;
+
 import org.csstudio.apputil.formula.Node;
+import org.csstudio.apputil.formula.VectorContext;
 
 /** One computational node.
  *  @author Kay Kasemir
@@ -27,6 +30,13 @@ public class ConstantNode implements Node
         return value;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void eval(final VectorContext context, final double result[])
+    {
+        Arrays.fill(result, 0, context.getCount(), value);
+    }
+
     /** {@inheritDoc} */
     @Override
     public boolean hasSubnode(final Node node)
@@ -27,6 +27,13 @@ public class GreaterEqualNode extends AbstractBinaryNode
         return (a >= b) ? 1.0 : 0.0;
     }
 
+    @Override
+    protected void eval(final double a[], final double b[], final int count)
+    {
+        for (int i=0; i<count; ++i)
+            a[i] = (a[i] >= b[i]) ? 1.0 : 0.0;
+    }
+
     @SuppressWarnings("nls")
     @Override
     public String toString()
@@ -8,6 +8,7 @@
 package org.csstudio.apputil.formula.node;
 
 import org.csstudio.apputil.formula.Node;
+import org.csstudio.apputil.formula.VectorContext;
 
 /** One computational node.
  *  @author Kay Kasemir
@@ -31,6 +32,23 @@ public class IfNode implements Node
         return (cond.eval() != 0) ? yes.eval() : no.eval();
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void eval(final VectorContext context, final double result[])
+    {
+        // Evaluates both branches for all rows
+        cond.eval(context, result);
+        final double y[] = context.borrow();
+        yes.eval(context, y);
+        final double n[] = context.borrow();
+        no.eval(context, n);
+        final int count = context.getCount();
+        for (int i=0; i<count; ++i)
+            result[i] = (result[i] != 0) ? y[i] : n[i];
+        context.release(n);
+        context.release(y);
+    }
+
     /** {@inheritDoc} */
     @Override
     public boolean hasSubnode(final Node node)
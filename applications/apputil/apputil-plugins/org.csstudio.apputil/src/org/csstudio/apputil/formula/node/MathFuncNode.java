@@ -8,8 +8,11 @@
 package org.csstudio.apputil.formula.node;
 
 import java.lang.reflect.Method;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
 
 import org.csstudio.apputil.formula.Node;
+import org.csstudio.apputil.formula.VectorContext;
 
 /** Node for evaluating any of the java.lang.Math.* functions
  *  @author Xiaosong Geng
@@ -21,6 +24,12 @@ public class MathFuncNode implements Node
     final private Node args[];
     final private Method method;
 
+    /** Function for column-wise evaluation with one argument, or <code>null</code> */
+    final private DoubleUnaryOperator unary;
+
+    /** Function for column-wise evaluation with two arguments, or <code>null</code> */
+    final private DoubleBinaryOperator binary;
+
     /** Construct node for math function.
      *
      *  @param function One of the java.lang.Math.* method names
@@ -36,6 +45,55 @@ public class MathFuncNode implements Node
         for (int i = 0; i < args.length; i++)
             argcls[i] = double.class;
         method = Math.class.getDeclaredMethod(function, argcls);
+        unary = args.length == 1 ? getUnary(function) : null;
+        binary = args.length == 2 ? getBinary(function) : null;
+    }
+
+    /** @param function Name of Math.* function
+     *  @return Function or <code>null</code>
+     */
+    @SuppressWarnings("nls")
+    private static DoubleUnaryOperator getUnary(final String function)
+    {
+        switch (function)
+        {
+        case "abs":       return Math::abs;
+        case "acos":      return Math::acos;
+        case "asin":      return Math::asin;
+        case "atan":      return Math::atan;
+        case "ceil":      return Math::ceil;
+        case "cos":       return Math::cos;
+        case "cosh":      return Math::cosh;
+        case "exp":       return Math::exp;
+        case "expm1":     return Math::expm1;
+        case "floor":     return Math::floor;
+        case "log":       return Math::log;
+        case "log10":     return Math::log10;
+        case "sin":       return Math::sin;
+        case "sinh":      return Math::sinh;
+        case "sqrt":      return Math::sqrt;
+        case "tan":       return Math::tan;
+        case "tanh":      return Math::tanh;
+        case "toDegrees": return Math::toDegrees;
+        case "toRadians": return Math::toRadians;
+        // 'round' returns long, handled by eval()
+        default:          return null;
+        }
+    }
+
+    /** @param function Name of Math.* function
+     *  @return Function or <code>null</code>
+     */
+    @SuppressWarnings("nls")
+    private static DoubleBinaryOperator getBinary(final String function)
+    {
+        switch (function)
+        {
+        case "atan2": return Math::atan2;
+        case "hypot": return Math::hypot;
+        case "pow":   return Math::pow;
+        default:      return null;
+        }
     }
 
     @Override
@@ -60,6 +118,30 @@ public class MathFuncNode implements Node
         return 0.0;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void eval(final VectorContext context, final double result[])
+    {
+        final int count = context.getCount();
+        if (unary != null)
+        {
+            args[0].eval(context, result);
+            for (int i=0; i<count; ++i)
+                result[i] = unary.applyAsDouble(result[i]);
+        }
+        else if (binary != null)
+        {
+            args[0].eval(context, result);
+            final double b[] = context.borrow();
+            args[1].eval(context, b);
+            for (int i=0; i<count; ++i)
+                result[i] = binary.applyAsDouble(result[i], b[i]);
+            context.release(b);
+        }
+        else
+            Node.super.eval(context, result);
+    }
+
     /** {@inheritDoc} */
     @Override
     public boolean hasSubnode(final Node node)
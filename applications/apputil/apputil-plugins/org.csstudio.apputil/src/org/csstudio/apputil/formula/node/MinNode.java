@@ -8,6 +8,7 @@
 package org.csstudio.apputil.formula.node;
 
 import org.csstudio.apputil.formula.Node;
+import org.csstudio.apputil.formula.VectorContext;
 
 /** One computational node.
  *  @author Kay Kasemir
@@ -34,6 +35,23 @@ public class MinNode implements Node
         return result;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void eval(final VectorContext context, final double result[])
+    {
+        args[0].eval(context, result);
+        final double v[] = context.borrow();
+        final int count = context.getCount();
+        for (int a = 1; a < args.length; a++)
+        {
+            args[a].eval(context, v);
+            for (int i=0; i<count; ++i)
+                if (v[i] < result[i])
+                    result[i] = v[i];
+        }
+        context.release(v);
+    }
+
     /** {@inheritDoc} */
     @Override
     public boolean hasSubnode(final Node node)
@@ -27,6 +27,13 @@ public class MulNode extends AbstractBinaryNode
         return a * b;
     }
 
+    @Override
+    protected void eval(final double a[], final double b[], final int count)
+    {
+        for (int i=0; i<count; ++i)
+            a[i] = a[i] * b[i];
+    }
+
     @SuppressWarnings("nls")
     @Override
     public String toString()
@@ -25,6 +25,13 @@ public class OrNode extends AbstractBinaryNode
         return (left.eval() != 0.0   ||   right.eval() != 0.0) ? 1.0 : 0.0;
     }
 
+    @Override
+    protected void eval(final double a[], final double b[], final int count)
+    {
+        for (int i=0; i<count; ++i)
+            a[i] = (a[i] != 0.0   ||   b[i] != 0.0) ? 1.0 : 0.0;
+    }
+
     @SuppressWarnings("nls")
     @Override
     public String toString()
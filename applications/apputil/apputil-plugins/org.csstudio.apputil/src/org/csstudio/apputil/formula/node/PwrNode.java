@@ -27,6 +27,13 @@ public class PwrNode extends AbstractBinaryNode
         return Math.pow(a, b);
     }
 
+    @Override
+    protected void eval(final double a[], final double b[], final int count)
+    {
+        for (int i=0; i<count; ++i)
+            a[i] = Math.pow(a[i], b[i]);
+    }
+
     @SuppressWarnings("nls")
     @Override
     public String toString()
@@ -8,6 +8,7 @@
 package org.csstudio.apputil.formula.node;
 
 import org.csstudio.apputil.formula.Node;
+import org.csstudio.apputil.formula.VectorContext;
 
 /** One computational node.
  *  @author Kay Kasemir
@@ -26,6 +27,16 @@ public class RndNode extends AbstractUnaryNode
         return a*Math.random();
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void eval(final VectorContext context, final double result[])
+    {
+        n.eval(context, result);
+        final int count = context.getCount();
+        for (int i=0; i<count; ++i)
+            result[i] = result[i]*Math.random();
+    }
+
     @SuppressWarnings("nls")
     @Override
     public String toString()
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.model;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.csstudio.apputil.ringbuffer.RingBuffer;
+import org.csstudio.archive.vtype.ArchiveVNumber;
+import org.diirt.vtype.AlarmSeverity;
+import org.diirt.vtype.VType;
+
+/** Benchmark of the {@link SampleBuffer} against the previous,
+ *  synchronized {@link RingBuffer} of {@link VType}.
+ *  <p>
+ *  One thread adds samples, another thread drains them,
+ *  like the channel's monitor and the {@link WriteThread}.
+ *  Also reports the bytes allocated by the drain per sample,
+ *  and the heap retained per buffered sample.
+ *  <p>
+ *  Runs for a while, so it is a demo with a main routine,
+ *  not part of the unit tests.
+ */
+@SuppressWarnings("nls")
+public class SampleBufferDemo
+{
+    private static final long RUNTIME = 10 * 1000l;
+
+    private static final int CAPACITY = 10000;
+
+    private static final int BATCH = 500;
+
+    /** Samples to add. Pre-allocated to only measure the buffer */
+    private static final VType[] values = new VType[1000];
+
+    static
+    {
+        final Instant now = Instant.now();
+        for (int i=0; i<values.length; ++i)
+            values[i] = new ArchiveVNumber(now.plusMillis(i), AlarmSeverity.NONE, "OK", TestHelper.display, Double.valueOf(i));
+    }
+
+    /** Common API of old and new buffer */
+    private interface Buffer
+    {
+        void add(VType value);
+        int drainTo(List<VType> batch, int max);
+    }
+
+    /** Sample buffer as previously implemented */
+    private static class LockedBuffer implements Buffer
+    {
+        final RingBuffer<VType> samples = new RingBuffer<>(CAPACITY);
+
+        @Override
+        public void add(final VType value)
+        {
+            synchronized (samples)
+            {
+                samples.add(value);
+            }
+        }
+
+        @Override
+        public int drainTo(final List<VType> batch, final int max)
+        {
+            int count = 0;
+            VType value;
+            while (count < max)
+            {
+                synchronized (samples)
+                {
+                    value = samples.remove();
+                }
+                if (value == null)
+                    break;
+                batch.add(value);
+                ++count;
+            }
+            return count;
+        }
+    }
+
+    /** Current sample buffer */
+    private static class LockFreeBuffer implements Buffer
+    {
+        final SampleBuffer samples = new SampleBuffer("Demo", CAPACITY);
+
+        @Override
+        public void add(final VType value)
+        {
+            samples.add(value);
+        }
+
+        @Override
+        public int drainTo(final List<VType> batch, final int max)
+        {
+            return samples.drainTo(batch, max);
+        }
+    }
+
+    /** @return Bytes allocated by current thread so far */
+    private static long getAllocatedBytes()
+    {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private void benchmark(final String title, final Buffer buffer) throws Exception
+    {
+        final long end = System.currentTimeMillis() + RUNTIME;
+        final Thread producer = new Thread(() ->
+        {
+            int i = 0;
+            while (System.currentTimeMillis() < end)
+                for (int j=0; j<100; ++j)
+                    buffer.add(values[i++ % values.length]);
+        });
+
+        final List<VType> batch = new ArrayList<>(BATCH);
+        long count = 0;
+        long allocated = 0;
+        final long start = System.currentTimeMillis();
+        producer.start();
+        while (true)
+        {
+            final boolean running = producer.isAlive();
+            final long before = getAllocatedBytes();
+            final int drained = buffer.drainTo(batch, BATCH);
+            allocated += getAllocatedBytes() - before;
+            if (drained <= 0  &&  !running)
+                break;
+            count += drained;
+            batch.clear();
+        }
+        final double secs = (System.currentTimeMillis() - start) / 1000.0;
+        System.out.format("%-16s: %12d values in %.2f sec = %12.1f vals/sec, %5.1f bytes/value drained\n",
+                          title, count, secs, count / secs, allocated / (double) count);
+    }
+
+    private void retained(final String title, final Supplier<Buffer> create)
+    {
+        final Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        final long before = runtime.totalMemory() - runtime.freeMemory();
+        // Include the buffer itself, which pre-allocates its arrays
+        final Buffer buffer = create.get();
+        final Instant now = Instant.now();
+        for (int i=0; i<CAPACITY; ++i)
+            buffer.add(new ArchiveVNumber(now.plusMillis(i), AlarmSeverity.NONE, "OK", TestHelper.display, Double.valueOf(i)));
+        System.gc();
+        final long after = runtime.totalMemory() - runtime.freeMemory();
+        System.out.format("%-16s: %5.1f bytes retained per buffered value\n",
+                          title, (after - before) / (double) CAPACITY);
+        final List<VType> batch = new ArrayList<>(CAPACITY);
+        final int drained = buffer.drainTo(batch, CAPACITY);
+        if (drained != CAPACITY)
+            throw new IllegalStateException("Drained " + drained + " instead of " + CAPACITY + " values");
+    }
+
+    public static void main(final String[] args) throws Exception
+    {
+        final SampleBufferDemo demo = new SampleBufferDemo();
+        demo.benchmark("RingBuffer", new LockedBuffer());
+        demo.benchmark("SampleBuffer", new LockFreeBuffer());
+        demo.retained("RingBuffer", LockedBuffer::new);
+        demo.retained("SampleBuffer", LockFreeBuffer::new);
+    }
+}
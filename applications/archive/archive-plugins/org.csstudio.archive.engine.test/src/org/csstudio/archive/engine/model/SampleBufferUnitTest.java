@@ -8,8 +8,19 @@
 package org.csstudio.archive.engine.model;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.csstudio.archive.vtype.ArchiveVNumber;
+import org.csstudio.archive.vtype.ArchiveVString;
 import org.csstudio.archive.vtype.VTypeHelper;
+import org.diirt.vtype.AlarmSeverity;
+import org.diirt.vtype.Display;
+import org.diirt.vtype.VNumber;
+import org.diirt.vtype.VString;
 import org.diirt.vtype.VType;
 import org.junit.Test;
 
@@ -53,6 +64,53 @@ public class SampleBufferUnitTest
         assertEquals(1.0, VTypeHelper.toDouble(value), 0.01);
     }
 
+    /** Scalars are kept as primitives, other types as objects */
+    @Test
+    public void testTypes()
+    {
+        final Instant time = Instant.ofEpochSecond(1500000000L, 123456789);
+        buffer.add(new ArchiveVNumber(time, AlarmSeverity.MINOR, "LOW", TestHelper.display, Double.valueOf(3.14)));
+        buffer.add(new ArchiveVNumber(time.plusSeconds(1), AlarmSeverity.NONE, "OK", TestHelper.display, Integer.valueOf(42)));
+        buffer.add(new ArchiveVString(time.plusSeconds(2), AlarmSeverity.INVALID, "Disconnected", "Text"));
+        assertEquals(3, buffer.getQueueSize());
+
+        VType value = buffer.remove();
+        assertTrue(value instanceof VNumber);
+        assertEquals(Double.valueOf(3.14), ((VNumber) value).getValue());
+        assertEquals(time, VTypeHelper.getTimestamp(value));
+        assertEquals(AlarmSeverity.MINOR, VTypeHelper.getSeverity(value));
+        assertEquals("LOW", VTypeHelper.getMessage(value));
+        assertEquals(TestHelper.display.getUnits(), ((Display) value).getUnits());
+
+        value = buffer.remove();
+        assertEquals(Integer.valueOf(42), ((VNumber) value).getValue());
+        assertEquals("OK", VTypeHelper.getMessage(value));
+
+        value = buffer.remove();
+        assertTrue(value instanceof VString);
+        assertEquals("Text", ((VString) value).getValue());
+        assertEquals(0, buffer.getQueueSize());
+    }
+
+    /** Remove several samples at once */
+    @Test
+    public void testDrain()
+    {
+        for (int i=0; i<buffer.getCapacity() + 5; ++i)
+            buffer.add(TestHelper.newValue(i));
+        assertEquals(5, buffer.getBufferStats().getOverruns());
+
+        final List<VType> batch = new ArrayList<>();
+        assertEquals(4, buffer.drainTo(batch, 4));
+        assertEquals(6, buffer.getQueueSize());
+        assertEquals(6, buffer.drainTo(batch, 100));
+        assertEquals(0, buffer.drainTo(batch, 100));
+        assertEquals(buffer.getCapacity(), batch.size());
+        // Oldest 5 samples were dropped
+        for (int i=0; i<batch.size(); ++i)
+            assertEquals(5.0 + i, VTypeHelper.toDouble(batch.get(i)), 0.01);
+    }
+
     final private static long TEST_RUNS = 1000L;
 
     class FillThread extends Thread
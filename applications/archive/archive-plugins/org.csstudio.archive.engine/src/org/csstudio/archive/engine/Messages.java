@@ -39,6 +39,8 @@ public class Messages
     final public static String HTTP_MainTitle = "Archive Engine";
     final public static String HTTP_Mechanism = "Mechanism";
     final public static String HTTP_Never = "never";
+    final public static String HTTP_Partition = "Partition";
+    final public static String HTTP_Backlog = "Backlog";
     final public static String HTTP_QueueAvg = "Queue Avg.";
     final public static String HTTP_QueueLen = "Queue Len.";
     final public static String HTTP_QueueMax = "Queue Max.";
@@ -56,5 +58,7 @@ public class Messages
     final public static String HTTP_WriteDuration = "Write Duration";
     final public static String HTTP_WriteError = "Write Error";
     final public static String HTTP_WritePeriod = "Write Period";
+    final public static String HTTP_WriteRate = "Write Rate";
     final public static String HTTP_WriteState = "Write State";
+    final public static String HTTP_WriteThreads = "Write Threads";
 }
@@ -49,6 +49,15 @@ public class Preferences
         return prefs.getInt(Activator.ID, "batch_size", batch_size, null);
     }
 
+    public static int getWriteThreads()
+    {
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        final int write_threads = 1;
+        if (prefs == null)
+            return write_threads;
+        return Math.max(1, prefs.getInt(Activator.ID, "write_threads", write_threads, null));
+    }
+
     public static double getBufferReserve()
     {
         final IPreferencesService prefs = Platform.getPreferencesService();
@@ -41,7 +41,7 @@ public class EngineModel
     private String name = "Archive Engine";  //$NON-NLS-1$
 
     /** Thread that writes to the <code>archive</code> */
-    final private WriteThread writer;
+    final private WriteThread[] writers;
 
     /** All the channels.
      *  <p>
@@ -97,6 +97,9 @@ public class EngineModel
     /** Write batch size */
     final private static int batch_size = Preferences.getBatchSize();
 
+    /** Number of write threads */
+    final private static int write_threads = Preferences.getWriteThreads();
+
     /** Buffer reserve (N times what's ideally needed) */
     final private static double buffer_reserve = Preferences.getBufferReserve();
 
@@ -106,7 +109,9 @@ public class EngineModel
     /** Construct model that writes to archive */
     public EngineModel()
     {
-        writer = new WriteThread();
+        writers = new WriteThread[write_threads];
+        for (int i=0; i<writers.length; ++i)
+            writers[i] = new WriteThread(i);
     }
 
     /** @return Name (description) */
@@ -299,7 +304,8 @@ public class EngineModel
             channels.add(channel);
             channel_by_name.put(channel.getName(), channel);
         }
-        writer.addChannel(channel);
+        // Each channel is handled by one write thread to keep its samples in order
+        writers[Math.floorMod(channel.getName().hashCode(), writers.length)].addChannel(channel);
 
         // Connect new or old channel to group
         channel.addGroup(group);
@@ -313,7 +319,8 @@ public class EngineModel
     {
         start_time = Instant.now();
         state = State.RUNNING;
-        writer.start(write_period, batch_size);
+        for (WriteThread writer : writers)
+            writer.start(write_period, batch_size);
         for (ArchiveGroup group : groups)
         {
             group.start();
@@ -326,22 +333,46 @@ public class EngineModel
         scan_thread.start();
     }
 
-    /** @return Timestamp of end of last write run */
+    /** @return Write threads, each handling a partition of the channels */
+    public WriteThread[] getWriteThreads()
+    {
+        return writers;
+    }
+
+    /** @return Timestamp of end of last write run,
+     *          i.e. the oldest of all write threads,
+     *          or <code>null</code> if one of them never wrote
+     */
     public Instant getLastWriteTime()
     {
-        return writer.getLastWriteTime();
+        Instant oldest = null;
+        for (WriteThread writer : writers)
+        {
+            final Instant time = writer.getLastWriteTime();
+            if (time == null)
+                return null;
+            if (oldest == null  ||  time.isBefore(oldest))
+                oldest = time;
+        }
+        return oldest;
     }
 
-    /** @return Average number of values per write run */
+    /** @return Average number of values per write run, summed over all write threads */
     public double getWriteCount()
     {
-        return writer.getWriteCount();
+        double count = 0.0;
+        for (WriteThread writer : writers)
+            count += writer.getWriteCount();
+        return count;
     }
 
-    /** @return  Average duration of write run in seconds */
+    /** @return  Average duration of write run in seconds, maximum of all write threads */
     public double getWriteDuration()
     {
-        return writer.getWriteDuration();
+        double duration = 0.0;
+        for (WriteThread writer : writers)
+            duration = Math.max(duration, writer.getWriteDuration());
+        return duration;
     }
 
     /** @see Scanner#getIdlePercentage() */
@@ -374,7 +405,8 @@ public class EngineModel
     /** Reset engine statistics */
     public void reset()
     {
-        writer.reset();
+        for (WriteThread writer : writers)
+            writer.reset();
         scanner.reset();
         synchronized (this)
         {
@@ -399,7 +431,23 @@ public class EngineModel
             group.stop();
         // Flush all values out
         Activator.getLogger().info("Stopping writer");
-        writer.shutdown();
+        Exception error = null;
+        for (WriteThread writer : writers)
+        {
+            try
+            {
+                writer.shutdown();
+            }
+            catch (Exception ex)
+            {   // Try to flush the remaining partitions, then report
+                if (error == null)
+                    error = ex;
+                else
+                    error.addSuppressed(ex);
+            }
+        }
+        if (error != null)
+            throw error;
         // Update state
         state = State.IDLE;
         start_time = null;
@@ -7,22 +7,62 @@
  ******************************************************************************/
 package org.csstudio.archive.engine.model;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
-import org.csstudio.apputil.ringbuffer.RingBuffer;
 import org.csstudio.archive.engine.ThrottledLogger;
+import org.csstudio.archive.vtype.ArchiveVNumber;
+import org.csstudio.archive.vtype.MetaDataHelper;
+import org.diirt.vtype.AlarmSeverity;
+import org.diirt.vtype.Display;
+import org.diirt.vtype.VNumber;
 import org.diirt.vtype.VType;
+import org.diirt.vtype.ValueFactory;
 
 /** Buffer for the samples of one channel.
  *  <p>
  *  Assumes that one thread adds samples, while a different
  *  thread removes them.
  *  When the queue size is reached, older samples get dropped.
+ *  <p>
+ *  Lock-free single-producer/single-consumer ring.
+ *  Scalar numbers are kept in parallel primitive arrays
+ *  (time, value, severity, status) and only turned back
+ *  into a {@link VType} when removed by the writer.
+ *  Arrays, strings, enums etc. are kept as objects.
+ *  <p>
+ *  The producer drops the oldest sample on overrun by advancing
+ *  the <code>head</code>, which the consumer also advances.
+ *  The consumer reads a slot, then claims it via compare-and-set
+ *  of the <code>head</code>. If the producer overwrote the slot
+ *  in the meantime, that compare-and-set fails and the consumer
+ *  simply reads again.
  *
  *  @author Kay Kasemir
  */
 public class SampleBuffer
 {
+    /** Slot holds a complete {@link VType} in <code>objects</code> */
+    final private static byte KIND_OBJECT = 0;
+    /** Slot holds a scalar that was a {@link Double} */
+    final private static byte KIND_DOUBLE = 1;
+    /** Slot holds a scalar that was a {@link Float} */
+    final private static byte KIND_FLOAT = 2;
+    /** Slot holds a scalar that was an {@link Integer} */
+    final private static byte KIND_INT = 3;
+    /** Slot holds a scalar that was a {@link Short} */
+    final private static byte KIND_SHORT = 4;
+    /** Slot holds a scalar that was a {@link Byte} */
+    final private static byte KIND_BYTE = 5;
+
+    /** Largest epoch second that still fits into a 'long' of nanoseconds */
+    final private static long MAX_EPOCH_SECONDS = Long.MAX_VALUE / 1000000000L - 1;
+
+    final private static AlarmSeverity[] SEVERITIES = AlarmSeverity.values();
+
     /** Name of channel that writes to this buffer.
      *  (we keep only the name, not the full channel,
      *  to decouple stuff).
@@ -34,8 +74,35 @@ public class SampleBuffer
      */
     final private String retention;
 
-    /** The actual samples in a thread-save queue. */
-    final private RingBuffer<VType> samples;
+    /** Queue capacity */
+    final private int capacity;
+
+    /** Sequence number of the oldest sample.
+     *  Advanced by the consumer, and by the producer on overrun.
+     */
+    final private AtomicLong head = new AtomicLong();
+
+    /** Sequence number for the next sample. Only advanced by the producer. */
+    final private AtomicLong tail = new AtomicLong();
+
+    // Parallel arrays, indexed by sequence number % capacity
+    final private byte[] kinds;
+    final private long[] times;
+    final private double[] values;
+    final private short[] severities;
+    final private short[] stati;
+    /** Complete {@link VType} for KIND_OBJECT, {@link Display} for scalars */
+    final private Object[] objects;
+
+    /** Status texts referenced by <code>stati</code>.
+     *  Only grown by the producer, replaced as a whole.
+     */
+    private volatile String[] status_texts = new String[0];
+
+    /** Most recent display info, detached from the sample that provided it.
+     *  Only used by the producer.
+     */
+    private Display last_display = null;
 
     /** Statistics */
     final private BufferStats stats = new BufferStats();
@@ -47,10 +114,10 @@ public class SampleBuffer
     final private static ThrottledLogger overrun_msg =
         new ThrottledLogger(Level.WARNING, "log_overrun"); //$NON-NLS-1$
 
-    /** Is the buffer in an error state because of RDB write errors?
+    /** Number of write threads in an error state because of RDB write errors.
      *  Note that this is global for all buffers, not per instance!
      */
-    private static volatile boolean error = false;
+    final private static AtomicInteger writers_in_error = new AtomicInteger();
 
     /** Create sample buffer of given capacity
      * @deprecated Use {@link #SampleBuffer(String,String,int)} instead*/
@@ -65,7 +132,13 @@ public class SampleBuffer
     {
         this.channel_name = channel_name;
         this.retention = retention;
-        samples = new RingBuffer<VType>(capacity);
+        this.capacity = capacity;
+        kinds = new byte[capacity];
+        times = new long[capacity];
+        values = new double[capacity];
+        severities = new short[capacity];
+        stati = new short[capacity];
+        objects = new Object[capacity];
     }
 
     /** @return channel name of this buffer */
@@ -83,61 +156,220 @@ public class SampleBuffer
     /** @return Queue capacity, i.e. maximum queue size. */
     public int getCapacity()
     {
-        synchronized (samples)
-        {
-            return samples.getCapacity();
-        }
+        return capacity;
     }
 
     /** @return Current queue size, i.e. number of samples in the queue. */
     public int getQueueSize()
     {
-        synchronized (samples)
-        {
-            return samples.size();
-        }
+        // Read head first: Size may briefly appear larger, never negative
+        final long h = head.get();
+        final long size = tail.get() - h;
+        if (size <= 0)
+            return 0;
+        return (int) Math.min(size, capacity);
     }
 
     /** @return <code>true</code> if currently experiencing write errors */
     public static boolean isInErrorState()
     {
-        return error;
+        return writers_in_error.get() > 0;
     }
 
-    /** Set the error state. */
+    /** Update the error state.
+     *  <p>
+     *  Each write thread must call this only when its own state changes.
+     *  @param error Did a write thread enter or leave the error state?
+     */
     static void setErrorState(final boolean error)
     {
-        SampleBuffer.error = error;
+        if (error)
+            writers_in_error.incrementAndGet();
+        else
+            writers_in_error.decrementAndGet();
     }
 
-    /** Add a sample to the queue, maybe dropping older samples */
+    /** Add a sample to the queue, maybe dropping older samples
+     *  <p>
+     *  Must only be called by one thread at a time.
+     */
     @SuppressWarnings("nls")
     void add(final VType value)
     {
-        synchronized (samples)
-        {
-            if (samples.isFull())
-            {   // Note start of overruns, then drop older sample
+        final long t = tail.get();
+        final long h = head.get();
+        if (t - h >= capacity)
+        {   // Drop oldest sample unless the consumer just removed it
+            if (head.compareAndSet(h, h+1))
+            {   // Note start of overruns
                 if (start_of_overruns == null)
                     start_of_overruns = Integer.valueOf(stats.getOverruns());
                 stats.addOverrun();
             }
-            else if (start_of_overruns != null)
-            {   // Ending a string of overruns. Maybe log it.
-                final int overruns = stats.getOverruns() - start_of_overruns;
-                overrun_msg.log(channel_name + ": " + overruns + " overruns");
-                start_of_overruns = null;
-            }
-            samples.add(value);
         }
+        else if (start_of_overruns != null)
+        {   // Ending a string of overruns. Maybe log it.
+            final int overruns = stats.getOverruns() - start_of_overruns;
+            overrun_msg.log(channel_name + ": " + overruns + " overruns");
+            start_of_overruns = null;
+        }
+        store((int) (t % capacity), value);
+        // Publish the slot
+        tail.lazySet(t+1);
+    }
+
+    /** Place value in slot
+     *  @param i Slot index
+     *  @param value Value to store
+     */
+    private void store(final int i, final VType value)
+    {
+        final byte kind = getScalarKind(value);
+        kinds[i] = kind;
+        if (kind == KIND_OBJECT)
+        {
+            objects[i] = value;
+            return;
+        }
+        final VNumber number = (VNumber) value;
+        final Instant time = number.getTimestamp();
+        times[i] = time.getEpochSecond() * 1000000000L + time.getNano();
+        values[i] = number.getValue().doubleValue();
+        severities[i] = (short) number.getAlarmSeverity().ordinal();
+        stati[i] = getStatusIndex(number.getAlarmName());
+        if (last_display == null  ||  ! MetaDataHelper.equals(last_display, number))
+            last_display = ValueFactory.newDisplay(number.getLowerDisplayLimit(),
+                    number.getLowerAlarmLimit(), number.getLowerWarningLimit(),
+                    number.getUnits(), number.getFormat(),
+                    number.getUpperWarningLimit(), number.getUpperAlarmLimit(),
+                    number.getUpperDisplayLimit(),
+                    number.getLowerCtrlLimit(), number.getUpperCtrlLimit());
+        objects[i] = last_display;
+    }
+
+    /** @param value Value to check
+     *  @return KIND_... for scalar that can be kept in primitive arrays,
+     *          KIND_OBJECT for everything else
+     */
+    private byte getScalarKind(final VType value)
+    {
+        if (! (value instanceof VNumber))
+            return KIND_OBJECT;
+        final VNumber number = (VNumber) value;
+        if (! number.isTimeValid()  ||  number.getTimestamp() == null)
+            return KIND_OBJECT;
+        final long secs = number.getTimestamp().getEpochSecond();
+        if (secs < 0  ||  secs > MAX_EPOCH_SECONDS)
+            return KIND_OBJECT;
+        if (number.getAlarmSeverity() == null  ||  number.getAlarmName() == null)
+            return KIND_OBJECT;
+        final Number num = number.getValue();
+        if (num instanceof Double)
+            return KIND_DOUBLE;
+        if (num instanceof Integer)
+            return KIND_INT;
+        if (num instanceof Float)
+            return KIND_FLOAT;
+        if (num instanceof Short)
+            return KIND_SHORT;
+        if (num instanceof Byte)
+            return KIND_BYTE;
+        // Long would lose precision as double
+        return KIND_OBJECT;
+    }
+
+    /** @param status Alarm status text
+     *  @return Index of status in <code>status_texts</code>
+     */
+    private short getStatusIndex(final String status)
+    {
+        final String[] texts = status_texts;
+        for (int i=0; i<texts.length; ++i)
+            if (texts[i] == status  ||  texts[i].equals(status))
+                return (short) i;
+        // Cannot grow beyond 'short'. Re-use last entry, which is at worst a
+        // mislabeled status for a channel with >32k different status texts.
+        if (texts.length >= Short.MAX_VALUE)
+            return (short) (texts.length - 1);
+        final String[] grown = new String[texts.length + 1];
+        System.arraycopy(texts, 0, grown, 0, texts.length);
+        grown[texts.length] = status;
+        status_texts = grown;
+        return (short) texts.length;
+    }
+
+    /** Read slot
+     *  <p>
+     *  The slot may be overwritten by the producer while we read it.
+     *  Caller detects that via the <code>head</code> and discards the result,
+     *  so this must not fail on inconsistent slot content.
+     *
+     *  @param i Slot index
+     *  @param texts Status texts
+     *  @return Value in slot
+     */
+    private VType load(final int i, final String[] texts)
+    {
+        final byte kind = kinds[i];
+        final Object object = objects[i];
+        if (kind == KIND_OBJECT)
+            return object instanceof VType ? (VType) object : null;
+        final int status = stati[i];
+        final Display display = object instanceof Display ? (Display) object : null;
+        final long nanos = times[i];
+        final double value = values[i];
+        final Instant time = Instant.ofEpochSecond(nanos / 1000000000L, nanos % 1000000000L);
+        final Number number;
+        switch (kind)
+        {
+        case KIND_INT:   number = Integer.valueOf((int) value);   break;
+        case KIND_FLOAT: number = Float.valueOf((float) value);   break;
+        case KIND_SHORT: number = Short.valueOf((short) value);   break;
+        case KIND_BYTE:  number = Byte.valueOf((byte) value);     break;
+        default:         number = Double.valueOf(value);
+        }
+        return new ArchiveVNumber(time, SEVERITIES[severities[i]],
+                                  status < texts.length ? texts[status] : null,
+                                  display, number);
     }
 
     /** @return latest sample in queue or <code>null</code> if empty */
     VType remove()
     {
-        synchronized (samples)
+        while (true)
+        {
+            final long h = head.get();
+            if (h >= tail.get())
+                return null;
+            // Status texts are published before the tail, so read them after
+            final VType value = load((int) (h % capacity), status_texts);
+            // Producer may have overwritten the slot because of an overrun
+            if (head.compareAndSet(h, h+1))
+                return value;
+        }
+    }
+
+    /** Remove several samples at once
+     *  @param batch List to which samples are added, oldest sample first
+     *  @param max Maximum number of samples to remove
+     *  @return Number of samples that were added to the batch
+     */
+    int drainTo(final List<VType> batch, final int max)
+    {
+        final int start = batch.size();
+        while (true)
         {
-            return samples.remove();
+            final long h = head.get();
+            final int count = (int) Math.min(tail.get() - h, max);
+            if (count <= 0)
+                return 0;
+            final String[] texts = status_texts;
+            for (int i=0; i<count; ++i)
+                batch.add(load((int) ((h + i) % capacity), texts));
+            if (head.compareAndSet(h, h+count))
+                return count;
+            // Overrun while reading: Discard what was read, try again
+            batch.subList(start, batch.size()).clear();
         }
     }
 
@@ -7,6 +7,7 @@
  ******************************************************************************/
 package org.csstudio.archive.engine.model;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.logging.Level;
@@ -29,6 +30,11 @@ import org.diirt.vtype.VType;
  *  be lost.
  *  The channels that add samples to the sample buffer supposedly notice
  *  the error condition and add a special indicator once we recover.
+ *  <p>
+ *  The engine may use several write threads, each handling a partition
+ *  of the channels with its own {@link ArchiveWriter}.
+ *  Each channel is written by exactly one thread, which preserves
+ *  the order of a channel's samples.
  *
  *  @author Kay Kasemir
  */
@@ -37,6 +43,9 @@ public class WriteThread implements Runnable
     /** Minimum write period [seconds] */
     private static final double MIN_WRITE_PERIOD = 5.0;
 
+    /** Partition of the channels handled by this thread */
+    final private int partition;
+
     /** Server to which this thread writes. */
     private ArchiveWriter writer;
 
@@ -67,9 +76,47 @@ public class WriteThread implements Runnable
     /** Average duration of write run */
     private Average write_time = new Average();
 
+    /** Average number of values per second */
+    private Average write_rate = new Average();
+
+    /** Number of samples queued in this thread's buffers at start of last write run */
+    private volatile int backlog = 0;
+
+    /** Is this thread in the error state? */
+    private volatile boolean in_error = false;
+
+    /** Samples removed from a buffer, to be written */
+    final private ArrayList<VType> batch = new ArrayList<>();
+
     /** Thread the executes this.run() */
     private Thread thread;
 
+    /** Create write thread for the only partition */
+    public WriteThread()
+    {
+        this(0);
+    }
+
+    /** Create write thread
+     *  @param partition Partition of the channels that this thread handles
+     */
+    public WriteThread(final int partition)
+    {
+        this.partition = partition;
+    }
+
+    /** @return Partition of the channels that this thread handles */
+    public int getPartition()
+    {
+        return partition;
+    }
+
+    /** @return Number of channels (sample buffers) handled by this thread */
+    public int getChannelCount()
+    {
+        return buffers.size();
+    }
+
     /** Add a channel's buffer that this thread reads */
     public void addChannel(final ArchiveChannel channel)
     {
@@ -97,7 +144,7 @@ public class WriteThread implements Runnable
         }
         millisec_delay = (int)(1000.0 * write_period);
         this.batch_size = batch_size;
-        thread = new Thread(this, "WriteThread");
+        thread = new Thread(this, "WriteThread " + partition);
         thread.start();
     }
 
@@ -106,6 +153,7 @@ public class WriteThread implements Runnable
     {
         write_count.reset();
         write_time.reset();
+        write_rate.reset();
     }
 
     /** Ask the write thread to stop ASAP. */
@@ -136,6 +184,24 @@ public class WriteThread implements Runnable
         return write_time.get();
     }
 
+    /** @return Average number of values written per second */
+    public double getWriteRate()
+    {
+        return write_rate.get();
+    }
+
+    /** @return Number of samples that were queued at the start of the last write run */
+    public int getBacklog()
+    {
+        return backlog;
+    }
+
+    /** @return <code>true</code> if this thread experienced write errors in its last run */
+    public boolean isInErrorState()
+    {
+        return in_error;
+    }
+
     /** 'Main loop' of the write thread.
      *  <p>
      *  Writes all values out, then waits.
@@ -153,7 +219,7 @@ public class WriteThread implements Runnable
     @SuppressWarnings("nls")
     public void run()
     {
-        Activator.getLogger().info("WriteThread starts");
+        Activator.getLogger().log(Level.INFO, "WriteThread {0} starts", partition);
         final BenchmarkTimer timer = new BenchmarkTimer();
         boolean write_error = false;
         do_run = true;
@@ -181,7 +247,14 @@ public class WriteThread implements Runnable
                 // for a long time...
                 final long written = write();
                 timer.stop();
-                last_write_stamp = Instant.now();
+                final Instant now = Instant.now();
+                if (last_write_stamp != null)
+                {
+                    final double period = Duration.between(last_write_stamp, now).toMillis() / 1000.0;
+                    if (period > 0)
+                        write_rate.update(written / period);
+                }
+                last_write_stamp = now;
                 write_count.update(written);
                 write_time.update(timer.getSeconds());
                 // How much of the scheduled delay is left after write()?
@@ -194,7 +267,11 @@ public class WriteThread implements Runnable
                 delay = millisec_delay;
                 write_error = true;
             }
-            SampleBuffer.setErrorState(write_error);
+            if (write_error != in_error)
+            {
+                in_error = write_error;
+                SampleBuffer.setErrorState(write_error);
+            }
             // See if there's any time left to wait,
             // or if we already used all that time in the last 'write'
             if (delay > 0)
@@ -212,7 +289,7 @@ public class WriteThread implements Runnable
                 }
             }
         }
-        Activator.getLogger().info("WriteThread exists");
+        Activator.getLogger().log(Level.INFO, "WriteThread {0} exits", partition);
     }
 
     /** Stop the write thread, performing a final write. */
@@ -235,6 +312,12 @@ public class WriteThread implements Runnable
                 writer.close();
                 writer = null;
             }
+            // Don't leave global error state behind for a restarted engine
+            if (in_error)
+            {
+                in_error = false;
+                SampleBuffer.setErrorState(false);
+            }
         }
     }
 
@@ -245,6 +328,12 @@ public class WriteThread implements Runnable
     {
         int total_count = 0;
         int count = 0;
+        // Samples left over from a failed write are lost
+        batch.clear();
+        int queued = 0;
+        for (SampleBuffer buffer : buffers)
+            queued += buffer.getQueueSize();
+        backlog = queued;
         for (SampleBuffer buffer : buffers)
         {
             // Update max buffer length etc. before we start to remove samples
@@ -253,20 +342,19 @@ public class WriteThread implements Runnable
             final String name = buffer.getChannelName();
             final String retention = buffer.getArchiveDataRetention();
             final WriteChannel channel = writer.getChannel(name, retention);
-            VType sample = buffer.remove();
-            while (sample != null)
-            {   // Write one value
-                writer.addSample(channel, sample);
+            while (buffer.drainTo(batch, Math.max(1, batch_size - count)) > 0)
+            {   // Write the values
+                for (VType sample : batch)
+                    writer.addSample(channel, sample);
                 // Note: count across different sample buffers!
-                ++count;
-                if (count > batch_size)
+                count += batch.size();
+                batch.clear();
+                if (count >= batch_size)
                 {
                     total_count += count;
                     count = 0;
                     writer.flush();
                 }
-                // next
-                sample = buffer.remove();
             }
         }
         // Flush remaining samples (less than batch_size)
@@ -17,6 +17,7 @@ import org.csstudio.apputil.time.PeriodFormat;
 import org.csstudio.archive.engine.Messages;
 import org.csstudio.archive.engine.model.EngineModel;
 import org.csstudio.archive.engine.model.SampleBuffer;
+import org.csstudio.archive.engine.model.WriteThread;
 import org.csstudio.archive.engine.server.AbstractMainResponse;
 import org.csstudio.archive.vtype.TimestampHelper;
 import org.diirt.util.time.TimeDuration;
@@ -144,6 +145,36 @@ public class HTMLMainResponse extends AbstractMainResponse
 
         html.closeTable();
 
+        // Per-partition write thread info
+        html.h2(Messages.HTTP_WriteThreads);
+        html.openTable(1, new String[]
+        {
+            Messages.HTTP_Partition,
+            Messages.HTTP_ChannelCount,
+            Messages.HTTP_WriteState,
+            Messages.HTTP_Backlog,
+            Messages.HTTP_WriteRate,
+            Messages.HTTP_WriteDuration,
+            Messages.HTTP_LastWriteTime
+        });
+        for (WriteThread writer : model.getWriteThreads())
+        {
+            final Instant time = writer.getLastWriteTime();
+            html.tableLine(new String[]
+            {
+                Integer.toString(writer.getPartition()),
+                Integer.toString(writer.getChannelCount()),
+                writer.isInErrorState()
+                ? HTMLWriter.makeRedText(Messages.HTTP_WriteError)
+                : "OK",
+                writer.getBacklog() + " samples",
+                String.format("%.1f samples/sec", writer.getWriteRate()),
+                String.format("%.3f sec", writer.getWriteDuration()),
+                time == null ? Messages.HTTP_Never : TimestampHelper.format(time)
+            });
+        }
+        html.closeTable();
+
         html.close();
     }
 }
@@ -17,6 +17,7 @@ import org.csstudio.apputil.time.PeriodFormat;
 import org.csstudio.archive.engine.Messages;
 import org.csstudio.archive.engine.model.EngineModel;
 import org.csstudio.archive.engine.model.SampleBuffer;
+import org.csstudio.archive.engine.model.WriteThread;
 import org.csstudio.archive.engine.server.AbstractMainResponse;
 import org.csstudio.archive.vtype.TimestampHelper;
 import org.diirt.util.time.TimeDuration;
@@ -76,6 +77,26 @@ public class JSONMainResponse extends AbstractMainResponse
         json.writeObjectEntry(Messages.HTTP_WriteCount, model.getWriteCount());
         json.writeObjectEntry(Messages.HTTP_WriteDuration, model.getWriteDuration());
 
+        final JSONList writers = new JSONList();
+        for (WriteThread writer : model.getWriteThreads())
+        {
+            final JSONObject partition = new JSONObject();
+            partition.writeObjectEntry(Messages.HTTP_Partition, writer.getPartition());
+            partition.writeObjectEntry(Messages.HTTP_ChannelCount, writer.getChannelCount());
+            partition.writeObjectEntry(Messages.HTTP_WriteState, writer.isInErrorState()?
+                                                                 Messages.HTTP_WriteError
+                                                                 : "OK");
+            partition.writeObjectEntry(Messages.HTTP_Backlog, writer.getBacklog());
+            partition.writeObjectEntry(Messages.HTTP_WriteRate, writer.getWriteRate());
+            partition.writeObjectEntry(Messages.HTTP_WriteDuration, writer.getWriteDuration());
+            final Instant time = writer.getLastWriteTime();
+            partition.writeObjectEntry(Messages.HTTP_LastWriteTime, time == null?
+                                                                    Messages.HTTP_Never
+                                                                    : TimestampHelper.format(time));
+            writers.addObjectToList(partition);
+        }
+        json.writeObjectEntry(Messages.HTTP_WriteThreads, writers);
+
         json.writeObjectEntry(Messages.HTTP_Idletime, model.getIdlePercentage());
 
         final Runtime runtime = Runtime.getRuntime();
@@ -7,6 +7,10 @@
  ******************************************************************************/
 package org.csstudio.archive.rdb;
 
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 import org.csstudio.security.preferences.SecurePreferences;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.preferences.IPreferencesService;
@@ -23,6 +27,7 @@ public class RDBArchivePreferences
     public static final String PASSWORD = "password";
     public static final String SQL_TIMEOUT = "sql_timeout";
     public static final String USE_ARRAY_BLOB = "use_array_blob";
+    public static final String ROLLUP_TIERS = "rollup_tiers";
 
     /** @return URL of RDB archive server */
     public static String getURL()
@@ -69,6 +74,43 @@ public class RDBArchivePreferences
         return prefs.getBoolean(Activator.ID, USE_ARRAY_BLOB, true, null);
     }
 
+    /** @return Periods of the rollup tiers in seconds, ascending.
+     *          Empty if rollups are disabled.
+     */
+    public static int[] getRollupTiers()
+    {
+        final String spec = getString(ROLLUP_TIERS);
+        if (spec == null)
+            return new int[0];
+        return parseRollupTiers(spec);
+    }
+
+    /** @param spec Comma-separated rollup periods in seconds, e.g. "60, 3600, 86400"
+     *  @return Periods in seconds, ascending, without duplicates
+     */
+    public static int[] parseRollupTiers(final String spec)
+    {
+        return Arrays.stream(spec.split("[\\s,]+"))
+                     .filter(tier -> ! tier.isEmpty())
+                     .mapToInt(tier ->
+                     {
+                         try
+                         {
+                             return Integer.parseInt(tier);
+                         }
+                         catch (NumberFormatException ex)
+                         {
+                             Logger.getLogger(RDBArchivePreferences.class.getName())
+                                   .log(Level.WARNING, "Ignoring invalid rollup tier ''{0}''", tier);
+                             return 0;
+                         }
+                     })
+                     .filter(period -> period > 0)
+                     .sorted()
+                     .distinct()
+                     .toArray();
+    }
+
     /** Get string preference
      *  @param key Preference key
      *  @return String or <code>null</code>
@@ -10,32 +10,147 @@ package org.csstudio.archive.reader.channelarchiver.file;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.StandardOpenOption;
 import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Implements ByteBuffer-like relative get methods for getting binary data
  * from a file. Created for use with ArchiveFileReader and associated classes.
+ *
+ * <p>Either reads the file through a small heap buffer,
+ * or accesses a read-only memory map of the complete file.
+ * Memory maps are shared by all buffers for the same file,
+ * so the operating system's page cache is used without copying.
+ * Only the most recently used maps are kept, older ones are
+ * released by the garbage collector once no buffer uses them.
  * @author Amanda Carpenter
  *
  */
 public class ArchiveFileBuffer implements AutoCloseable
 {
+    /** Memory map of a file */
+    private static class MappedFile
+    {
+        final MappedByteBuffer map;
+        /** File length and modification time when mapped */
+        final long length, modified;
+
+        MappedFile(final MappedByteBuffer map, final long length, final long modified)
+        {
+            this.map = map;
+            this.length = length;
+            this.modified = modified;
+        }
+    }
+
+    /** Recently used memory maps by canonical file path, shared between all buffers */
+    private static final Map<String, MappedFile> mapped_files = Collections.synchronizedMap(
+        new LinkedHashMap<String, MappedFile>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+            private final int max_size = Preferences.getMappedFileCacheSize();
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, MappedFile> eldest)
+            {
+                return size() > max_size;
+            }
+        });
+
+    /** Use memory map? */
+    private final boolean use_mmap;
+
     // XXX: what size? Bigger means less fetching, but too big means memory runs out;
-    private final ByteBuffer buffer = ByteBuffer.allocate(65536);
+    private final ByteBuffer heap_buffer;
+
+    /** Either the heap_buffer or a view of the mapped file */
+    private ByteBuffer buffer;
+
+    /** Does buffer hold the complete, mapped file? */
+    private boolean mapped = false;
+
     private FileChannel fileChannel;
     private File file = null;
 
     public ArchiveFileBuffer()
     {
+        this(Preferences.isMemoryMapped());
+    }
+
+    /** @param use_mmap Memory-map files, or read them via a heap buffer? */
+    public ArchiveFileBuffer(final boolean use_mmap)
+    {
+        this.use_mmap = use_mmap;
+        // Mapped files do not need the heap buffer, unless a file is too large to map
+        heap_buffer = use_mmap ? null : ByteBuffer.allocate(65536);
+        buffer = heap_buffer;
     }
 
     public ArchiveFileBuffer(final File file) throws IOException
     {
+        this(file, Preferences.isMemoryMapped());
+    }
+
+    /** @param file File to read
+     *  @param use_mmap Memory-map files, or read them via a heap buffer?
+     *  @throws IOException on error
+     */
+    public ArchiveFileBuffer(final File file, final boolean use_mmap) throws IOException
+    {
+        this(use_mmap);
         setFile(file);
     }
 
+    /** @param file File to map
+     *  @return View of shared read-only memory map for the complete file,
+     *          or <code>null</code> if file is too large to map as one buffer
+     *  @throws IOException on error
+     */
+    private static ByteBuffer map(final File file) throws IOException
+    {
+        final File canonical = file.getCanonicalFile();
+        final long length = canonical.length(), modified = canonical.lastModified();
+        if (length > Integer.MAX_VALUE)
+            return null;
+        final String key = canonical.getPath();
+        MappedFile mapped = mapped_files.get(key);
+        // Re-map when file was appended or replaced
+        if (mapped == null  ||  mapped.length != length  ||  mapped.modified != modified)
+        {
+            try
+            (
+                final FileChannel channel = FileChannel.open(canonical.toPath(), StandardOpenOption.READ);
+            )
+            {
+                mapped = new MappedFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+                                        length, modified);
+            }
+            mapped_files.put(key, mapped);
+        }
+        // Shared map's position is never changed, so duplicate() is safe
+        return mapped.map.duplicate();
+    }
+
+    /** Release shared memory maps.
+     *
+     *  <p>Buffers that currently use a map keep it until they move to another file.
+     */
+    public static void clearMappedFiles()
+    {
+        mapped_files.clear();
+    }
+
+    /** @return <code>true</code> if current file is memory-mapped */
+    public boolean isMapped()
+    {
+        return mapped;
+    }
+
     /** Set file
      *  @param file
      *  @throws IOException
@@ -44,11 +159,23 @@ public class ArchiveFileBuffer implements AutoCloseable
     {
         if (! file.equals(this.file))
         {
-            this.file = file;
             close();
-            fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            this.file = file;
+            if (use_mmap)
+            {
+                buffer = map(file);
+                mapped = buffer != null;
+            }
+            if (! mapped)
+            {
+                fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+                buffer = heap_buffer != null ? heap_buffer : ByteBuffer.allocate(65536);
+            }
         }
-        buffer.position(0).limit(0);
+        if (mapped)
+            buffer.position(0);
+        else
+            buffer.position(0).limit(0);
     }
 
     public File getFile()
@@ -58,6 +185,9 @@ public class ArchiveFileBuffer implements AutoCloseable
 
     public void prepareGet(int numBytes) throws IOException
     {
+        // Mapped buffer already holds the complete file
+        if (mapped)
+            return;
         if (buffer.remaining() < numBytes)
         {
             buffer.compact();
@@ -99,7 +229,7 @@ public class ArchiveFileBuffer implements AutoCloseable
 
     public byte get() throws IOException
     {
-        if (!buffer.hasRemaining())
+        if (!mapped  &&  !buffer.hasRemaining())
         {
             buffer.clear();
             buffer.limit(fileChannel.read(buffer));
@@ -116,6 +246,11 @@ public class ArchiveFileBuffer implements AutoCloseable
 
     public void skip(int numBytes) throws IOException
     {
+        if (mapped)
+        {
+            buffer.position(buffer.position() + numBytes);
+            return;
+        }
         int numAlready = buffer.remaining();
         while (numBytes > numAlready)
         {
@@ -130,6 +265,12 @@ public class ArchiveFileBuffer implements AutoCloseable
 
     public void offset(long offset) throws IOException
     {
+        if (mapped)
+        {
+            if (offset >= 0  &&  offset <= buffer.capacity())
+                buffer.position((int) offset);
+            return;
+        }
          if (offset < 0 || offset > fileChannel.size())
         {
             //throw new RuntimeException("Offset is invalid.") ?
@@ -160,17 +301,25 @@ public class ArchiveFileBuffer implements AutoCloseable
 
     long offset() throws IOException
     {
+        if (mapped)
+            return buffer.position();
         return fileChannel.position() - buffer.limit() + buffer.position();
     }
 
     public int remaining()
     {
+        if (buffer == null)
+            return 0;
         return buffer.remaining();
     }
 
     @Override
     public void close() throws IOException
     {
+        // A shared map is not closed, only its view is dropped
+        mapped = false;
+        buffer = heap_buffer;
+        file = null;
         if (fileChannel != null)
         {
             fileChannel.close();
@@ -190,6 +339,8 @@ public class ArchiveFileBuffer implements AutoCloseable
         {
 
         }
+        if (buffer == null)
+            return "buffer@" + file;
         return String.format("buffer@offset=%x(%d): %02x %02x %02x %02x %02x %02x %02x %02x", offset, offset, buffer.get(buffer.position()),
                 buffer.get(buffer.position()+1), buffer.get(buffer.position()+2), buffer.get(buffer.position()+3), buffer.get(buffer.position()+4),
                 buffer.get(buffer.position()+5), buffer.get(buffer.position()+6), buffer.get(buffer.position()+7));
@@ -16,8 +16,11 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.csstudio.archive.reader.UnknownChannelException;
 import org.csstudio.archive.reader.channelarchiver.file.RTreeNode.RTreeNodeWithIndex;
@@ -25,24 +28,35 @@ import org.csstudio.archive.reader.channelarchiver.file.RTreeNode.RTreeNodeWithI
 /**
  * Helper class for reading ChannelArchiver index files (both master index files
  * and sub-archive index files).
+ *
+ * <p>When using memory-mapped files, the decoded channel anchors,
+ * R-tree nodes and data block entries of an index are kept in a cache
+ * that is shared by all readers of that index.
+ * The cache is dropped when the index file changes.
  * @author Amanda Carpenter
  */
 public class ArchiveFileIndexReader implements AutoCloseable
 {
+    /** Caches of decoded index information, by canonical index file */
+    private static final ConcurrentHashMap<File, IndexCache> caches = new ConcurrentHashMap<>();
+
     private final ArchiveFileBuffer buffer;
     private final File indexParent;
-    private final HashMap<String, TreeAnchor> anchors;
+    private final Map<String, TreeAnchor> anchors;
+
+    /** Shared cache, or <code>null</code> */
+    private final IndexCache cache;
 
     /** Anchor of an RTree
      *
      */
-    private class TreeAnchor
+    private static class TreeAnchor
     {
         public final String name;
         public final long root;
         public final int numRecords;
 
-        public TreeAnchor(final String name, final long offset) throws IOException
+        public TreeAnchor(final ArchiveFileBuffer buffer, final String name, final long offset) throws IOException
         {
             this.name = name;
             buffer.offset(offset);
@@ -57,14 +71,84 @@ public class ArchiveFileIndexReader implements AutoCloseable
         }
     }
 
+    /** Decoded information of one index file */
+    private static class IndexCache
+    {
+        /** Index file time stamp and size when decoded */
+        final long modified, length;
+
+        final Map<String, TreeAnchor> anchors;
+
+        /** R-tree nodes by offset */
+        final Map<Long, RTreeNode> nodes;
+
+        /** First data file entry of data block chain by offset */
+        final Map<Long, DataFileEntry> datablocks;
+
+        IndexCache(final long modified, final long length, final Map<String, TreeAnchor> anchors, final int size)
+        {
+            this.modified = modified;
+            this.length = length;
+            this.anchors = anchors;
+            nodes = createLRU(size);
+            datablocks = createLRU(size);
+        }
+
+        private static <T> Map<Long, T> createLRU(final int size)
+        {
+            return Collections.synchronizedMap(new LinkedHashMap<Long, T>(16, 0.75f, true)
+            {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<Long, T> eldest)
+                {
+                    return size() > size;
+                }
+            });
+        }
+    }
+
     public ArchiveFileIndexReader(final File indexFile) throws IOException
     {
-        buffer = new ArchiveFileBuffer(indexFile);
+        this(indexFile, Preferences.isMemoryMapped());
+    }
+
+    /** @param indexFile Index file
+     *  @param use_mmap Memory-map files and use shared cache of decoded index?
+     *  @throws IOException on error
+     */
+    public ArchiveFileIndexReader(final File indexFile, final boolean use_mmap) throws IOException
+    {
+        buffer = new ArchiveFileBuffer(indexFile, use_mmap);
         indexParent = indexFile.getParentFile();
-        anchors = getAnchors();
+        if (use_mmap)
+        {
+            final File key = indexFile.getCanonicalFile();
+            final long modified = key.lastModified(), length = key.length();
+            IndexCache c = caches.get(key);
+            if (c == null  ||  c.modified != modified  ||  c.length != length)
+            {
+                c = new IndexCache(modified, length, getAnchors(), Preferences.getIndexCacheSize());
+                caches.put(key, c);
+            }
+            cache = c;
+            anchors = cache.anchors;
+        }
+        else
+        {
+            cache = null;
+            anchors = getAnchors();
+        }
         logger.fine(() -> "Opened " + indexFile + ", " + anchors.size() + " channels");
     }
 
+    /** Drop all cached index information */
+    public static void clearCache()
+    {
+        caches.clear();
+    }
+
     private Queue<Long> readHashTable() throws IOException
     {
         buffer.offset(4);
@@ -107,7 +191,7 @@ public class ArchiveFileIndexReader implements AutoCloseable
             byte name_buf [] = new byte [nameLen];
             buffer.get(name_buf);
             final String name = new String(name_buf);
-            ret.put(name, new TreeAnchor(name, anchor_offset));
+            ret.put(name, new TreeAnchor(buffer, name, anchor_offset));
             if (offset != 0)
                 offsets.add(offset);
         }
@@ -146,9 +230,7 @@ public class ArchiveFileIndexReader implements AutoCloseable
             if (! node.records[index].isEmpty())
             {
                 // A record might point to a chain of data blocks
-                final List<DataFileEntry>  sub_entries = readDatablocks(node.records[index].child);
-                // Use only the first data block, not the 'shadowed' data blocks below
-                entries.add(sub_entries.get(0));
+                entries.add(getDatablock(node.records[index].child));
             }
             // Get next record from this node
             if (index < node.getM() - 1)
@@ -160,11 +242,11 @@ public class ArchiveFileIndexReader implements AutoCloseable
                 {
                     if (node.parent == 0)
                         return entries;
-                    final RTreeNode parent = new RTreeNode(buffer, node.parent, node.getM());
+                    final RTreeNode parent = getNode(node.parent, node.getM());
                     index = parent.findRecordForChild(node.offset) + 1;
                     if (index < node.getM()  &&   ! parent.records[index].isEmpty())
                     {   // From the _next_ parent record, descent into first child
-                        node = new RTreeNode(buffer, parent.records[index].child, node.getM());
+                        node = getNode(parent.records[index].child, node.getM());
                         index = 0;
                         break;
                     }
@@ -173,7 +255,7 @@ public class ArchiveFileIndexReader implements AutoCloseable
                 }
                 // Keep descending via leftmost child to leaf
                 while (! node.isLeaf)
-                    node = new RTreeNode(buffer, node.records[index].child, node.getM());
+                    node = getNode(node.records[index].child, node.getM());
             }
         }
 
@@ -194,7 +276,7 @@ public class ArchiveFileIndexReader implements AutoCloseable
      */
     public RTreeNodeWithIndex searchRTreeNodes(final long root, final int numRecords, final Instant time) throws Exception
     {
-        RTreeNode node = new RTreeNode(buffer, root, numRecords);
+        RTreeNode node = getNode(root, numRecords);
         while (true)
         {
             // System.out.println(node);
@@ -214,8 +296,44 @@ public class ArchiveFileIndexReader implements AutoCloseable
                 i = 0;
             if (node.isLeaf)
                 return new RTreeNodeWithIndex(node, i);
-            node = new RTreeNode(buffer, child, numRecords);
+            node = getNode(child, numRecords);
+        }
+    }
+
+    /** @param offset Offset of R-tree node
+     *  @param numRecords Number of records per node
+     *  @return Cached or newly read node
+     *  @throws Exception on error
+     */
+    private RTreeNode getNode(final long offset, final int numRecords) throws Exception
+    {
+        if (cache == null)
+            return new RTreeNode(buffer, offset, numRecords);
+        RTreeNode node = cache.nodes.get(offset);
+        if (node == null)
+        {
+            node = new RTreeNode(buffer, offset, numRecords);
+            cache.nodes.put(offset, node);
+        }
+        return node;
+    }
+
+    /** @param offset Offset of RTree datablock
+     *  @return First data file entry of the datablock chain,
+     *          not the 'shadowed' data blocks below
+     *  @throws IOException on error
+     */
+    private DataFileEntry getDatablock(final long offset) throws IOException
+    {
+        if (cache == null)
+            return readDatablocks(offset).get(0);
+        DataFileEntry entry = cache.datablocks.get(offset);
+        if (entry == null)
+        {
+            entry = readDatablocks(offset).get(0);
+            cache.datablocks.put(offset, entry);
         }
+        return entry;
     }
 
     /**
@@ -30,6 +30,7 @@ public class ArchiveFileReader implements ArchiveReader
     public static final Logger logger = Logger.getLogger(ArchiveFileReader.class.getName());
 
     private final String index_name;
+    private final boolean use_mmap;
     private final ArchiveFileIndexReader indexReader;
 
     /** Construct an ArchiveFileReader.
@@ -37,9 +38,20 @@ public class ArchiveFileReader implements ArchiveReader
      *  @throws IOException
      */
     public ArchiveFileReader(final String index) throws IOException
+    {
+        this(index, Preferences.isMemoryMapped());
+    }
+
+    /** Construct an ArchiveFileReader.
+     *  @param index Path to  Channel Archiver index file
+     *  @param use_mmap Memory-map index and data files, using shared index cache?
+     *  @throws IOException
+     */
+    public ArchiveFileReader(final String index, final boolean use_mmap) throws IOException
     {
         index_name = index;
-        indexReader = new ArchiveFileIndexReader(new File(index));
+        this.use_mmap = use_mmap;
+        indexReader = new ArchiveFileIndexReader(new File(index), use_mmap);
     }
 
     @Override
@@ -94,7 +106,7 @@ public class ArchiveFileReader implements ArchiveReader
             throws UnknownChannelException, Exception
     {
         final List<DataFileEntry> entries = indexReader.getEntries(name, start, end);
-        return new ArchiveFileSampleReader(start, end, entries);
+        return new ArchiveFileSampleReader(start, end, entries, use_mmap);
     }
 
     @Override
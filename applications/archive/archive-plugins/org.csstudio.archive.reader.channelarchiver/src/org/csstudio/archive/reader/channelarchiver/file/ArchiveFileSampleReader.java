@@ -44,7 +44,7 @@ public class ArchiveFileSampleReader implements ValueIterator
      */
     private final Queue<DataFileEntry> entries;
 
-    private final ArchiveFileBuffer buffer = new ArchiveFileBuffer();
+    private final ArchiveFileBuffer buffer;
 
     private DataHeader header;
 
@@ -56,8 +56,21 @@ public class ArchiveFileSampleReader implements ValueIterator
 
     public ArchiveFileSampleReader(final Instant iteratorStart, final Instant iteratorStop,
                                    final List<DataFileEntry> entries) throws Exception
+    {
+        this(iteratorStart, iteratorStop, entries, Preferences.isMemoryMapped());
+    }
+
+    /** @param iteratorStart Start time
+     *  @param iteratorStop End time
+     *  @param entries Data file entries to read
+     *  @param use_mmap Memory-map data files?
+     *  @throws Exception on error
+     */
+    public ArchiveFileSampleReader(final Instant iteratorStart, final Instant iteratorStop,
+                                   final List<DataFileEntry> entries, final boolean use_mmap) throws Exception
     {
         this.iteratorStop = iteratorStop;
+        buffer = new ArchiveFileBuffer(use_mmap);
 
         this.entries = new ArrayDeque<>(entries);
 
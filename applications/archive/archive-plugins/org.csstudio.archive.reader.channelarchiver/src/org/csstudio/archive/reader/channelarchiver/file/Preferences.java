@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.reader.channelarchiver.file;
+
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.preferences.IPreferencesService;
+
+/** Access to preferences for the Channel Archiver data file reader.
+ *
+ *  <p>See preferences.ini for explanation of settings.
+ */
+@SuppressWarnings("nls")
+public class Preferences
+{
+    /** Plugin ID */
+    final public static String ID = "org.csstudio.archive.reader.channelarchiver";
+
+    final public static String USE_MMAP = "use_mmap";
+    final public static String INDEX_CACHE_SIZE = "index_cache_size";
+    final public static String MAPPED_FILE_CACHE_SIZE = "mapped_file_cache_size";
+
+    /** @return Memory-map index and data files, sharing decoded index information? */
+    public static boolean isMemoryMapped()
+    {
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        if (prefs == null)
+            return true;
+        return prefs.getBoolean(ID, USE_MMAP, true, null);
+    }
+
+    /** @return Number of R-tree nodes and data blocks to cache per index file */
+    public static int getIndexCacheSize()
+    {
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        if (prefs == null)
+            return 10000;
+        return prefs.getInt(ID, INDEX_CACHE_SIZE, 10000, null);
+    }
+
+    /** @return Number of memory-mapped files to keep */
+    public static int getMappedFileCacheSize()
+    {
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        if (prefs == null)
+            return 100;
+        return prefs.getInt(ID, MAPPED_FILE_CACHE_SIZE, 100, null);
+    }
+}
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.reader.channelarchiver.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.csstudio.archive.reader.ValueIterator;
+import org.junit.Test;
+
+/** Benchmark of the {@link ArchiveFileReader}
+ *
+ *  <p>Replays a query mix against Channel Archiver index and data files,
+ *  reading through the heap buffer and through memory-mapped files
+ *  with the shared index cache.
+ *
+ *  <p>Query mix is read from a file with one query per line,
+ *  <pre>channel start end</pre>
+ *  where start and end are ISO-8601 instants like 2005-01-11T02:56:59Z.
+ *  Without such a file, a mix of random channels and time ranges
+ *  from an hour to several years is created.
+ *
+ *  <p>Skipped when the index file does not exist.
+ */
+@SuppressWarnings("nls")
+public class ArchiveFileReaderDemo
+{
+    /** Index file */
+    private static final String INDEX = "/home/ky9/archdata/hprf/index";
+
+    /** Recorded query mix */
+    private static final String QUERIES = "/home/ky9/archdata/hprf/queries.txt";
+
+    /** End of generated queries */
+    private static final Instant END = Instant.parse("2006-01-01T00:00:00Z");
+
+    /** Number of generated queries */
+    private static final int COUNT = 200;
+
+    /** Query for one channel */
+    private static class Query
+    {
+        final String channel;
+        final Instant start, end;
+
+        Query(final String channel, final Instant start, final Instant end)
+        {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private List<Query> getQueries() throws Exception
+    {
+        final List<Query> queries = new ArrayList<>();
+        final File file = new File(QUERIES);
+        if (file.canRead())
+        {
+            for (String line : Files.readAllLines(file.toPath()))
+            {
+                line = line.trim();
+                if (line.isEmpty()  ||  line.startsWith("#"))
+                    continue;
+                final String[] items = line.split("\\s+");
+                queries.add(new Query(items[0], Instant.parse(items[1]), Instant.parse(items[2])));
+            }
+            return queries;
+        }
+
+        // Mostly short 'recent' queries, some spanning years
+        final Duration[] spans =
+        {
+            Duration.ofHours(1), Duration.ofHours(1), Duration.ofDays(1), Duration.ofDays(1),
+            Duration.ofDays(7), Duration.ofDays(30), Duration.ofDays(365), Duration.ofDays(3*365)
+        };
+        final String[] names;
+        final ArchiveFileReader reader = new ArchiveFileReader(INDEX, false);
+        try
+        {
+            names = reader.getNamesByPattern(0, "*");
+        }
+        finally
+        {
+            reader.close();
+        }
+        Arrays.sort(names);
+        final Random random = new Random(42);
+        for (int i=0; i<COUNT; ++i)
+        {
+            final Duration span = spans[random.nextInt(spans.length)];
+            final Instant end = END.minus(Duration.ofHours(random.nextInt(24*365)));
+            queries.add(new Query(names[random.nextInt(names.length)], end.minus(span), end));
+        }
+        return queries;
+    }
+
+    /** @return Number of samples read */
+    private long replay(final String title, final List<Query> queries, final boolean use_mmap) throws Exception
+    {
+        long samples = 0;
+        final long start = System.nanoTime();
+        for (Query query : queries)
+        {
+            // Each query opens a new reader, like the data browser
+            final ArchiveFileReader reader = new ArchiveFileReader(INDEX, use_mmap);
+            try
+            {
+                final ValueIterator values = reader.getRawValues(0, query.channel, query.start, query.end);
+                try
+                {
+                    while (values.hasNext())
+                    {
+                        values.next();
+                        ++samples;
+                    }
+                }
+                finally
+                {
+                    values.close();
+                }
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+        final double secs = (System.nanoTime() - start) * 1e-9;
+        System.out.format("%-20s: %4d queries, %10d samples in %6.2f sec = %8.1f queries/sec, %12.1f samples/sec\n",
+                          title, queries.size(), samples, secs, queries.size() / secs, samples / secs);
+        return samples;
+    }
+
+    @Test
+    public void testQueryMix() throws Exception
+    {
+        assumeTrue(new File(INDEX).canRead());
+        final List<Query> queries = getQueries();
+
+        final long expected = replay("Buffered", queries, false);
+        ArchiveFileIndexReader.clearCache();
+        ArchiveFileBuffer.clearMappedFiles();
+        assertEquals(expected, replay("Mapped, cold cache", queries, true));
+        assertEquals(expected, replay("Mapped, warm cache", queries, true));
+        assertEquals(expected, replay("Buffered", queries, false));
+    }
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.reader.rdb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.csstudio.archive.reader.ValueIterator;
+import org.csstudio.archive.vtype.ArchiveVNumber;
+import org.csstudio.archive.vtype.ArchiveVStatistics;
+import org.csstudio.archive.vtype.VTypeHelper;
+import org.diirt.vtype.AlarmSeverity;
+import org.diirt.vtype.VType;
+import org.junit.Test;
+
+/** JUnit test of the rollup tier selection and the
+ *  raw samples appended to the {@link RollupValueIterator}
+ *
+ *  <p>No database needed.
+ */
+public class RollupValueIteratorUnitTest
+{
+    /** Start of an hour */
+    private static final Instant START = Instant.ofEpochSecond(1500000000 - 1500000000 % 3600);
+
+    private static VType makeValue(final long seconds, final double value)
+    {
+        return new ArchiveVNumber(START.plusSeconds(seconds), AlarmSeverity.NONE, "", null, value);
+    }
+
+    private static class ListIterator implements ValueIterator
+    {
+        final private Iterator<VType> values;
+        boolean closed = false;
+
+        ListIterator(final VType... values)
+        {
+            this.values = Arrays.asList(values).iterator();
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return values.hasNext();
+        }
+
+        @Override
+        public VType next() throws Exception
+        {
+            return values.next();
+        }
+
+        @Override
+        public void close()
+        {
+            closed = true;
+        }
+    }
+
+    @Test
+    public void testRollupTier()
+    {
+        final int[] tiers = { 60, 3600, 86400 };
+        // Bins below the finest tier use raw samples
+        assertEquals(0, RDBArchiveReader.getRollupTier(tiers, 30.0));
+        assertEquals(0, RDBArchiveReader.getRollupTier(tiers, 59.9));
+        // Coarsest tier that still provides the bin width
+        assertEquals(60, RDBArchiveReader.getRollupTier(tiers, 60.0));
+        assertEquals(60, RDBArchiveReader.getRollupTier(tiers, 3599.0));
+        assertEquals(3600, RDBArchiveReader.getRollupTier(tiers, 3600.0));
+        assertEquals(86400, RDBArchiveReader.getRollupTier(tiers, 1e6));
+        // Rollups disabled
+        assertEquals(0, RDBArchiveReader.getRollupTier(new int[0], 1e6));
+    }
+
+    @Test
+    public void testAppendRaw() throws Exception
+    {
+        // Rollup bucket 0..60 seconds, time stamped in its center
+        final List<VType> values = new ArrayList<>();
+        values.add(new ArchiveVStatistics(START.plusSeconds(30), AlarmSeverity.NONE, "", null, 1.5, 1.0, 2.0, 0.0, 2));
+
+        // Raw sample within the last bucket is already in the rollup
+        final ListIterator raw = new ListIterator(makeValue(50, 100.0),
+                                                  makeValue(60, 2.0),
+                                                  makeValue(70, 4.0),
+                                                  makeValue(130, 6.0));
+        RollupValueIterator.appendRaw(values, START.plusSeconds(60), raw, 60.0);
+        assertTrue(raw.closed);
+
+        assertEquals(3, values.size());
+        // Samples 60..120 averaged into one bin
+        assertEquals(START.plusSeconds(90), VTypeHelper.getTimestamp(values.get(1)));
+        assertEquals(3.0, ((ArchiveVStatistics) values.get(1)).getAverage(), 0.0);
+        assertEquals(2, ((ArchiveVStatistics) values.get(1)).getNSamples().intValue());
+        // Single sample in the next bin is passed as is
+        assertEquals(START.plusSeconds(130), VTypeHelper.getTimestamp(values.get(2)));
+        assertEquals(6.0, ((ArchiveVNumber) values.get(2)).getValue().doubleValue(), 0.0);
+    }
+
+    @Test
+    public void testAppendInOrder() throws Exception
+    {
+        // Last rollup bucket 480..540 seconds, time stamped in its center
+        final List<VType> values = new ArrayList<>();
+        values.add(new ArchiveVStatistics(START.plusSeconds(510), AlarmSeverity.NONE, "", null, 1.5, 1.0, 2.0, 0.0, 2));
+
+        // Averaging bin 0..600 would be time stamped at 300, before the rollup
+        final ListIterator raw = new ListIterator(makeValue(540, 2.0),
+                                                  makeValue(550, 3.0),
+                                                  makeValue(700, 4.0));
+        RollupValueIterator.appendRaw(values, START.plusSeconds(540), raw, 600.0);
+        assertEquals(2, values.size());
+        assertEquals(START.plusSeconds(510), VTypeHelper.getTimestamp(values.get(0)));
+        assertEquals(START.plusSeconds(700), VTypeHelper.getTimestamp(values.get(1)));
+        assertEquals(4.0, ((ArchiveVNumber) values.get(1)).getValue().doubleValue(), 0.0);
+    }
+
+    @Test
+    public void testAppendNothing() throws Exception
+    {
+        final List<VType> values = new ArrayList<>();
+        values.add(makeValue(30, 1.0));
+        final ListIterator raw = new ListIterator(makeValue(10, 2.0));
+        RollupValueIterator.appendRaw(values, START.plusSeconds(60), raw, 60.0);
+        assertTrue(raw.closed);
+        assertEquals(1, values.size());
+    }
+}
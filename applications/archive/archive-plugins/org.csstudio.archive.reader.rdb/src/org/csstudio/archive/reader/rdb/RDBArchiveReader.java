@@ -53,6 +53,9 @@ public class RDBArchiveReader implements ArchiveReader
     /** Name of stored procedure or "" */
     final private String stored_procedure;
 
+    /** Periods of the rollup tiers in seconds, ascending. Empty if not used */
+    final private int[] rollup_tiers = RDBArchivePreferences.getRollupTiers();
+
     final private ConnectionCache.Entry rdb;
     final private SQL sql;
     final private boolean is_oracle;
@@ -390,6 +393,29 @@ public class RDBArchiveReader implements ArchiveReader
         if (stored_procedure.length() > 0)
             return new StoredProcedureValueIterator(this, stored_procedure, channel_id, start, end, count);
 
+        // Width of the requested bins
+        final double seconds = TimeDuration.toSecondsDouble(Duration.between(start, end)) / count;
+
+        // Use rollups maintained by the archive writer?
+        final int tier = getRollupTier(rollup_tiers, seconds);
+        if (tier > 0)
+        {
+            final RollupValueIterator rollups = new RollupValueIterator(this, channel_id, tier, start, end);
+            final Instant first_bucket = rollups.getFirstBucket();
+            if (first_bucket != null)
+            {   // Average raw samples from before rollups were written
+                if (first_bucket.isAfter(start))
+                    rollups.insertBefore(new AveragedValueIterator(getRawValues(channel_id, start, first_bucket), seconds));
+                // .. and those after the last rollup bucket
+                final Instant last_bucket_end = rollups.getLastBucketEnd();
+                if (last_bucket_end.isBefore(end))
+                    rollups.appendRaw(getRawValues(channel_id, last_bucket_end, end), seconds);
+                return rollups;
+            }
+            // No rollups for this channel, for example enumerated or string channel
+            rollups.close();
+        }
+
         // Else: Determine how many samples there are
         final int counted;
         try
@@ -414,10 +440,23 @@ public class RDBArchiveReader implements ArchiveReader
             return raw_data;
 
         // Else: Perform averaging to reduce sample count
-        final double seconds = TimeDuration.toSecondsDouble(Duration.between(start, end)) / count;
         return new AveragedValueIterator(raw_data, seconds);
     }
 
+    /** Determine the rollup tier to use
+     *  @param tiers Periods of the rollup tiers in seconds, ascending
+     *  @param seconds Requested bin width in seconds
+     *  @return Period of the coarsest tier that still provides the bin width, 0 if none
+     */
+    static int getRollupTier(final int[] tiers, final double seconds)
+    {
+        int tier = 0;
+        for (int period : tiers)
+            if (period <= seconds)
+                tier = period;
+        return tier;
+    }
+
     /** @param name Channel name
      *  @return Numeric channel ID
      *  @throws UnknownChannelException when channel not known
@@ -0,0 +1,274 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.reader.rdb;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.csstudio.archive.reader.ValueIterator;
+import org.csstudio.archive.vtype.ArchiveVNumber;
+import org.csstudio.archive.vtype.ArchiveVStatistics;
+import org.csstudio.archive.vtype.TimestampHelper;
+import org.csstudio.archive.vtype.VTypeHelper;
+import org.diirt.vtype.AlarmSeverity;
+import org.diirt.vtype.VType;
+
+/** Value Iterator that provides 'optimized' data from
+ *  the min/max/sum/count rollups that the archive writer
+ *  maintains in the SAMPLE_ROLLUP table.
+ *
+ *  <p>Returns one value per rollup period ('bucket'),
+ *  time stamped in the center of the bucket,
+ *  with the highest alarm severity of the samples in the bucket.
+ *  The alarm status text of the samples is not kept in the rollups.
+ *  The number of rows read from the RDB depends on the tier period
+ *  and the time range, not on the number of raw samples.
+ */
+@SuppressWarnings("nls")
+public class RollupValueIterator extends AbstractRDBValueIterator
+{
+    /** Values read from the rollup table */
+    private List<VType> values = new ArrayList<VType>();
+
+    /** Start of the first bucket or <code>null</code> */
+    private Instant first_bucket = null;
+
+    /** End of the last bucket or <code>null</code> */
+    private Instant last_bucket_end = null;
+
+    /** Iteration index into <code>values</code> */
+    private int index = 0;
+
+    /** Initialize
+     *  @param reader RDBArchiveReader
+     *  @param channel_id ID of channel
+     *  @param tier Period of the rollup tier in seconds
+     *  @param start Start time
+     *  @param end End time
+     *  @throws Exception on error
+     */
+    public RollupValueIterator(final RDBArchiveReader reader,
+            final int channel_id, final int tier,
+            final Instant start, final Instant end) throws Exception
+    {
+        super(reader, channel_id);
+        readRollups(tier, start, end);
+    }
+
+    /** Read rollups
+     *  @param tier Period of the rollup tier in seconds
+     *  @param start Start time
+     *  @param end End time
+     *  @throws Exception on error
+     */
+    private void readRollups(final int tier, final Instant start, final Instant end) throws Exception
+    {
+        // Include the bucket that contains the start time
+        final Instant bucket_start = Instant.ofEpochSecond(Math.floorDiv(start.getEpochSecond(), tier) * tier);
+        final Duration half_period = Duration.ofMillis(tier * 500L);
+        final PreparedStatement statement = reader.getConnection().prepareStatement(
+                reader.getSQL().rollup_sel_by_id_tier_start_end);
+        reader.addForCancellation(statement);
+        try
+        {
+            statement.setFetchSize(Preferences.getFetchSize());
+            statement.setInt(1, channel_id);
+            statement.setInt(2, tier);
+            statement.setTimestamp(3, TimestampHelper.toSQLTimestamp(bucket_start));
+            statement.setTimestamp(4, TimestampHelper.toSQLTimestamp(end));
+            final ResultSet result = statement.executeQuery();
+            while (result.next())
+            {
+                final Instant bucket = TimestampHelper.fromSQLTimestamp(result.getTimestamp(1));
+                if (first_bucket == null)
+                    first_bucket = bucket;
+                last_bucket_end = bucket.plusSeconds(tier);
+                final Instant time = bucket.plus(half_period);
+                final int cnt = result.getInt(5);
+                final double avg = result.getDouble(4) / cnt;
+                final AlarmSeverity severity = getSeverity(result.getInt(6));
+                if (cnt == 1)
+                    values.add(new ArchiveVNumber(time, severity, "", display, avg));
+                else
+                {
+                    final double stddev = 0.0; // not known
+                    values.add(new ArchiveVStatistics(time, severity, "", display,
+                                                      avg, result.getDouble(2), result.getDouble(3), stddev, cnt));
+                }
+            }
+        }
+        catch (Exception ex)
+        {
+            if (! RDBArchiveReader.isCancellation(ex))
+                throw ex;
+            // Else: Not a real error; return empty iterator
+            Logger.getLogger(getClass().getName()).log(Level.FINE,
+                    "Rollup readout cancelled", ex);
+        }
+        finally
+        {
+            reader.removeFromCancellation(statement);
+            statement.close();
+        }
+    }
+
+    /** @param ordinal Ordinal of the highest severity as stored in the rollup table
+     *  @return {@link AlarmSeverity}
+     */
+    static AlarmSeverity getSeverity(final int ordinal)
+    {
+        final AlarmSeverity[] severities = AlarmSeverity.values();
+        if (ordinal < 0)
+            return AlarmSeverity.NONE;
+        if (ordinal >= severities.length)
+            return AlarmSeverity.UNDEFINED;
+        return severities[ordinal];
+    }
+
+    /** @return Start of the first rollup bucket, <code>null</code> if there are no rollups */
+    public Instant getFirstBucket()
+    {
+        return first_bucket;
+    }
+
+    /** @return End of the last rollup bucket, <code>null</code> if there are no rollups */
+    public Instant getLastBucketEnd()
+    {
+        return last_bucket_end;
+    }
+
+    /** Insert values before the rollups
+     *
+     *  <p>Used for the time range before rollups were written
+     *
+     *  @param earlier Iterator for values before the first rollup bucket. Will be closed.
+     *  @throws Exception on error
+     */
+    public void insertBefore(final ValueIterator earlier) throws Exception
+    {
+        final List<VType> merged = new ArrayList<VType>();
+        try
+        {
+            while (earlier.hasNext())
+                merged.add(earlier.next());
+        }
+        finally
+        {
+            earlier.close();
+        }
+        merged.addAll(values.subList(index, values.size()));
+        values = merged;
+        index = 0;
+    }
+
+    /** Append averaged raw samples after the rollups
+     *
+     *  <p>Used for the time range after the last rollup bucket,
+     *  for example samples that the archive writer has not yet rolled up.
+     *  Raw samples before the end of the last bucket are already
+     *  included in the rollups and skipped.
+     *  Must be called before iterating.
+     *
+     *  @param raw Iterator for raw samples starting at the end of the last rollup bucket. Will be closed.
+     *  @param seconds Averaging period
+     *  @throws Exception on error
+     */
+    public void appendRaw(final ValueIterator raw, final double seconds) throws Exception
+    {
+        appendRaw(values, last_bucket_end, raw, seconds);
+    }
+
+    /** Append averaged raw samples
+     *  @param values Values read from the rollups, at least one
+     *  @param last_bucket_end End of the last rollup bucket
+     *  @param raw Iterator for raw samples. Will be closed.
+     *  @param seconds Averaging period
+     *  @throws Exception on error
+     */
+    static void appendRaw(final List<VType> values, final Instant last_bucket_end,
+                          final ValueIterator raw, final double seconds) throws Exception
+    {
+        final List<VType> later = new ArrayList<VType>();
+        try
+        {
+            while (raw.hasNext())
+            {
+                final VType value = raw.next();
+                if (! VTypeHelper.getTimestamp(value).isBefore(last_bucket_end))
+                    later.add(value);
+            }
+        }
+        finally
+        {
+            raw.close();
+        }
+        final ValueIterator averaged = new AveragedValueIterator(new ValueIterator()
+        {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext()
+            {
+                return i < later.size();
+            }
+
+            @Override
+            public VType next() throws Exception
+            {
+                return later.get(i++);
+            }
+
+            @Override
+            public void close()
+            {
+                // Nothing to close
+            }
+        }, seconds);
+        // Keep values in time order, even if an averaging bin
+        // is centered before the last rollup bucket
+        Instant last = VTypeHelper.getTimestamp(values.get(values.size()-1));
+        while (averaged.hasNext())
+        {
+            final VType value = averaged.next();
+            final Instant time = VTypeHelper.getTimestamp(value);
+            if (time.isAfter(last))
+            {
+                values.add(value);
+                last = time;
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean hasNext()
+    {
+        return values != null  &&  index < values.size();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public VType next() throws Exception
+    {
+        return values.get(index++);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close()
+    {
+        super.close();
+        values = null;
+    }
+}
@@ -39,6 +39,9 @@ public class SQL
     final public String sample_sel_array_vals;
     final public String sample_count_by_id_start_end;
 
+    // 'sample_rollup' table
+    final public String rollup_sel_by_id_tier_start_end;
+
     /** Initialize SQL statements
      *  @param dialect RDB dialect
      *  @param prefix Schema (table) prefix, including "." etc. as needed
@@ -131,5 +134,12 @@ public class SQL
         // Rough count, ignoring nanosecs for the non-Oracle dialects
         sample_count_by_id_start_end = "SELECT COUNT(*) FROM " + prefix + "sample" +
           "   WHERE channel_id=? AND smpl_time BETWEEN ? AND ?";
+
+        // 'sample_rollup' table
+        rollup_sel_by_id_tier_start_end =
+            "SELECT smpl_time, min_val, max_val, sum_val, cnt, max_sevr FROM " + prefix + "sample_rollup" +
+            "   WHERE channel_id=? AND tier_secs=?" +
+            "     AND smpl_time>=? AND smpl_time<=?" +
+            "   ORDER BY smpl_time";
     }
 }
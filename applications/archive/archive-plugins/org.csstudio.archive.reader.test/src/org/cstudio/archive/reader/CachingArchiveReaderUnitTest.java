@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.cstudio.archive.reader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.csstudio.archive.reader.ArchiveInfo;
+import org.csstudio.archive.reader.ArchiveReader;
+import org.csstudio.archive.reader.ValueIterator;
+import org.csstudio.archive.reader.cache.CachingArchiveReader;
+import org.csstudio.archive.reader.cache.SampleCache;
+import org.csstudio.archive.vtype.ArchiveVEnum;
+import org.csstudio.archive.vtype.ArchiveVNumber;
+import org.csstudio.archive.vtype.ArchiveVNumberArray;
+import org.csstudio.archive.vtype.ArchiveVStatistics;
+import org.csstudio.archive.vtype.ArchiveVString;
+import org.csstudio.archive.vtype.VTypeHelper;
+import org.diirt.util.text.NumberFormats;
+import org.diirt.vtype.AlarmSeverity;
+import org.diirt.vtype.Display;
+import org.diirt.vtype.VType;
+import org.diirt.vtype.ValueFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** JUnit test of the {@link CachingArchiveReader}
+ */
+@SuppressWarnings("nls")
+public class CachingArchiveReaderUnitTest
+{
+    private static final long T0 = 1500000000L;
+
+    private static final Display display = ValueFactory.newDisplay(0.0, 1.0, 2.0, "mm", NumberFormats.format(2), 8.0, 9.0, 10.0, 0.0, 10.0);
+
+    private File directory;
+
+    /** Reader with a sample every 10 seconds that counts requests */
+    private static class DemoReader implements ArchiveReader
+    {
+        int requests = 0;
+
+        @Override public String getServerName()          { return "Demo"; }
+        @Override public String getURL()                 { return "demo://test"; }
+        @Override public String getDescription()         { return "Demo"; }
+        @Override public int getVersion()                { return 1; }
+        @Override public ArchiveInfo[] getArchiveInfos() { return new ArchiveInfo[0]; }
+        @Override public String[] getNamesByPattern(int key, String glob_pattern) { return new String[0]; }
+        @Override public String[] getNamesByRegExp(int key, String reg_exp)       { return new String[0]; }
+        @Override public void cancel()                   {}
+        @Override public void close()                    {}
+
+        @Override
+        public ValueIterator getRawValues(final int key, final String name, final Instant start, final Instant end)
+        {
+            ++requests;
+            // Like actual archives, include the last sample before 'start'
+            final List<VType> values = new ArrayList<>();
+            for (long secs = Math.floorDiv(start.getEpochSecond(), 10) * 10;  secs <= end.getEpochSecond();  secs += 10)
+                values.add(new ArchiveVNumber(Instant.ofEpochSecond(secs), AlarmSeverity.NONE, "", display, secs - T0));
+            return new DemoDataIterator(values.toArray(new VType[values.size()]));
+        }
+
+        @Override
+        public ValueIterator getOptimizedValues(final int key, final String name, final Instant start, final Instant end, final int count)
+        {
+            return getRawValues(key, name, start, end);
+        }
+    }
+
+    @Before
+    public void setup() throws Exception
+    {
+        directory = Files.createTempDirectory("archive_cache").toFile();
+    }
+
+    @After
+    public void cleanup()
+    {
+        for (File file : directory.listFiles())
+            file.delete();
+        directory.delete();
+    }
+
+    private static String dump(final ValueIterator values) throws Exception
+    {
+        final StringBuilder buf = new StringBuilder();
+        while (values.hasNext())
+        {
+            final VType value = values.next();
+            buf.append(VTypeHelper.getTimestamp(value).getEpochSecond() - T0).append(' ');
+        }
+        values.close();
+        return buf.toString();
+    }
+
+    @Test
+    public void testRawChunks() throws Exception
+    {
+        final DemoReader archive = new DemoReader();
+        final CachingArchiveReader reader = new CachingArchiveReader(archive, new SampleCache(directory, 10000000), 3600, 600);
+
+        // Three hours, starting in between samples
+        final Instant start = Instant.ofEpochSecond(T0 + 5), end = Instant.ofEpochSecond(T0 + 3*3600 + 5);
+        final String expected = dump(new DemoReader().getRawValues(1, "x", start, end));
+        assertEquals(expected, dump(reader.getRawValues(1, "x", start, end)));
+        // Consecutive chunks are fetched in one request
+        assertEquals(1, archive.requests);
+
+        // Same or smaller range is served from cache, including the value before 'start'
+        assertEquals(expected, dump(reader.getRawValues(1, "x", start, end)));
+        final Instant start2 = Instant.ofEpochSecond(T0 + 1003), end2 = Instant.ofEpochSecond(T0 + 5000);
+        final String expected2 = dump(new DemoReader().getRawValues(1, "x", start2, end2));
+        assertTrue(expected2.startsWith("1000 1010 "));
+        assertEquals(expected2, dump(reader.getRawValues(1, "x", start2, end2)));
+        assertEquals(1, archive.requests);
+
+        // Other channel or archive key is not in the cache
+        reader.getRawValues(1, "y", start, end).close();
+        reader.getRawValues(2, "x", start, end).close();
+        assertEquals(3, archive.requests);
+
+        // Extending the range only reads the missing chunk
+        final Instant end3 = Instant.ofEpochSecond(T0 + 4*3600);
+        assertEquals(dump(new DemoReader().getRawValues(1, "x", start, end3)),
+                     dump(reader.getRawValues(1, "x", start, end3)));
+        assertEquals(4, archive.requests);
+        reader.getRawValues(1, "x", start, end3).close();
+        assertEquals(4, archive.requests);
+    }
+
+    @Test
+    public void testRecentData() throws Exception
+    {
+        final DemoReader archive = new DemoReader();
+        final CachingArchiveReader reader = new CachingArchiveReader(archive, new SampleCache(directory, 10000000), 3600, 600);
+
+        // Data that the archive might still receive is never cached
+        final Instant end = Instant.now(), start = end.minusSeconds(60);
+        reader.getRawValues(1, "x", start, end).close();
+        reader.getRawValues(1, "x", start, end).close();
+        assertEquals(2, archive.requests);
+        assertEquals(0, directory.listFiles().length);
+    }
+
+    @Test
+    public void testSampleTypes() throws Exception
+    {
+        final SampleCache cache = new SampleCache(directory, 10000000);
+        final Instant time = Instant.ofEpochSecond(T0, 123456789);
+        final List<VType> samples = Arrays.asList(
+            new ArchiveVNumber(time, AlarmSeverity.MINOR, "LOW", display, 3.14),
+            new ArchiveVStatistics(time.plusSeconds(1), AlarmSeverity.NONE, "", display, 3.0, 1.0, 5.0, 0.5, 10),
+            new ArchiveVEnum(time.plusSeconds(2), AlarmSeverity.MAJOR, "STATE", Arrays.asList("Off", "On"), 1),
+            new ArchiveVEnum(time.plusSeconds(3), AlarmSeverity.NONE, "", Arrays.asList("Off", "On"), 0),
+            new ArchiveVString(time.plusSeconds(4), AlarmSeverity.NONE, "", "Hello"),
+            new ArchiveVNumberArray(time.plusSeconds(5), AlarmSeverity.INVALID, "Disconnected", display, 1.0, 2.0, 3.0));
+        cache.put("key", samples);
+        assertTrue(cache.getSize() > 0);
+
+        final List<VType> copy = cache.get("key");
+        assertEquals(samples.size(), copy.size());
+        for (int i=0; i<samples.size(); ++i)
+        {
+            assertEquals(samples.get(i).getClass(), copy.get(i).getClass());
+            assertEquals(VTypeHelper.getTimestamp(samples.get(i)), VTypeHelper.getTimestamp(copy.get(i)));
+            assertEquals(VTypeHelper.getSeverity(samples.get(i)), VTypeHelper.getSeverity(copy.get(i)));
+            assertEquals(VTypeHelper.getMessage(samples.get(i)), VTypeHelper.getMessage(copy.get(i)));
+        }
+        assertEquals(3.14, ((ArchiveVNumber) copy.get(0)).getValue().doubleValue(), 0.0);
+        assertEquals("mm", ((ArchiveVNumber) copy.get(0)).getUnits());
+        assertEquals(9.0, ((ArchiveVNumber) copy.get(0)).getUpperAlarmLimit(), 0.0);
+        assertEquals(5.0, ((ArchiveVStatistics) copy.get(1)).getMax(), 0.0);
+        assertEquals(10, ((ArchiveVStatistics) copy.get(1)).getNSamples().intValue());
+        assertEquals(Arrays.asList("Off", "On"), ((ArchiveVEnum) copy.get(3)).getLabels());
+        assertEquals(0, ((ArchiveVEnum) copy.get(3)).getIndex());
+        assertEquals("Hello", ((ArchiveVString) copy.get(4)).getValue());
+        assertEquals(3, ((ArchiveVNumberArray) copy.get(5)).getData().size());
+        assertEquals(2.0, ((ArchiveVNumberArray) copy.get(5)).getData().getDouble(1), 0.0);
+
+        assertNull(cache.get("other key"));
+    }
+
+    @Test
+    public void testEviction() throws Exception
+    {
+        final List<VType> samples = new ArrayList<>();
+        for (int i=0; i<100; ++i)
+            samples.add(new ArchiveVNumber(Instant.ofEpochSecond(T0 + i), AlarmSeverity.NONE, "", display, i));
+
+        SampleCache cache = new SampleCache(directory, 1000000);
+        cache.put("a", samples);
+        final long one = cache.getSize();
+
+        // Limit cache to two chunks
+        cache = new SampleCache(directory, one * 5 / 2);
+        assertEquals(one, cache.getSize());
+        cache.put("b", samples);
+        final long size = cache.getSize();
+        assertEquals(2 * one, size);
+        // Use 'a', so 'b' is the least recently used
+        assertEquals(100, cache.get("a").size());
+        cache.put("c", samples);
+        assertEquals(size, cache.getSize());
+        assertEquals(100, cache.get("a").size());
+        assertNull(cache.get("b"));
+        assertEquals(100, cache.get("c").size());
+
+        // Cache is restored from disk
+        cache = new SampleCache(directory, one * 5 / 2);
+        assertEquals(size, cache.getSize());
+        assertEquals(100, cache.get("c").size());
+    }
+}
@@ -0,0 +1,308 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.reader.cache;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.csstudio.archive.reader.ArchiveInfo;
+import org.csstudio.archive.reader.ArchiveReader;
+import org.csstudio.archive.reader.UnknownChannelException;
+import org.csstudio.archive.reader.ValueIterator;
+import org.csstudio.archive.vtype.VTypeHelper;
+import org.diirt.vtype.VType;
+
+/** {@link ArchiveReader} that keeps samples of another reader in a {@link SampleCache}
+ *
+ *  <p>Time is divided into chunks of fixed length, aligned to the epoch.
+ *  Raw samples are cached in chunks of a configurable length.
+ *  Optimized samples are cached per 'resolution', a bin size
+ *  that is the power of two seconds closest to, but not above,
+ *  the requested bin size.
+ *  Each optimized chunk holds a fixed number of such bins.
+ *  A request thus returns between one and two times the requested
+ *  number of optimized samples, but zooming and scrolling
+ *  will often hit chunks that are already cached.
+ *
+ *  <p>Consecutive chunks that are not cached are read from the
+ *  archive in one request.
+ *  Chunks that are too recent for the archive to be complete
+ *  are always read from the archive.
+ *
+ *  <p>Each chunk starts with the last sample before the chunk, if there is one,
+ *  so a request can return the value at its start time like the original reader.
+ */
+@SuppressWarnings("nls")
+public class CachingArchiveReader implements ArchiveReader
+{
+    /** Number of optimized bins in one chunk */
+    public static final int CHUNK_BINS = 1000;
+
+    /** Marker for 'no chunk' */
+    private static final long NONE = Long.MIN_VALUE;
+
+    final private static Logger logger = Logger.getLogger(CachingArchiveReader.class.getName());
+
+    final private ArchiveReader reader;
+    final private SampleCache cache;
+    final private int raw_chunk_secs;
+    final private int settle_secs;
+    private volatile boolean cancelled = false;
+
+    /** Initialize
+     *  @param reader Reader for the actual archive
+     *  @param cache Cache
+     *  @param raw_chunk_secs Length of a chunk of raw samples in seconds
+     *  @param settle_secs Seconds after which a chunk is considered complete in the archive
+     */
+    public CachingArchiveReader(final ArchiveReader reader, final SampleCache cache,
+                                final int raw_chunk_secs, final int settle_secs)
+    {
+        this.reader = reader;
+        this.cache = cache;
+        this.raw_chunk_secs = raw_chunk_secs;
+        this.settle_secs = settle_secs;
+    }
+
+    @Override
+    public String getServerName()
+    {
+        return reader.getServerName();
+    }
+
+    @Override
+    public String getURL()
+    {
+        return CachingArchiveReaderFactory.PREFIX + ":" + reader.getURL();
+    }
+
+    @Override
+    public String getDescription()
+    {
+        return reader.getDescription() + "\n(Cached)";
+    }
+
+    @Override
+    public int getVersion()
+    {
+        return reader.getVersion();
+    }
+
+    @Override
+    public ArchiveInfo[] getArchiveInfos()
+    {
+        return reader.getArchiveInfos();
+    }
+
+    @Override
+    public String[] getNamesByPattern(final int key, final String glob_pattern) throws Exception
+    {
+        return reader.getNamesByPattern(key, glob_pattern);
+    }
+
+    @Override
+    public String[] getNamesByRegExp(final int key, final String reg_exp) throws Exception
+    {
+        return reader.getNamesByRegExp(key, reg_exp);
+    }
+
+    @Override
+    public ValueIterator getRawValues(final int key, final String name,
+            final Instant start, final Instant end) throws UnknownChannelException, Exception
+    {
+        return new ListValueIterator(getValues(key, name, start, end, 0));
+    }
+
+    @Override
+    public ValueIterator getOptimizedValues(final int key, final String name,
+            final Instant start, final Instant end, final int count) throws UnknownChannelException, Exception
+    {
+        final long bin_secs = (end.getEpochSecond() - start.getEpochSecond()) / Math.max(1, count);
+        return new ListValueIterator(getValues(key, name, start, end, Long.highestOneBit(Math.max(1, bin_secs))));
+    }
+
+    /** @param key Archive key
+     *  @param name Channel name
+     *  @param start Start time
+     *  @param end End time
+     *  @param resolution Bin size of optimized samples in seconds, 0 for raw samples
+     *  @return Samples
+     *  @throws Exception on error
+     */
+    private List<VType> getValues(final int key, final String name,
+            final Instant start, final Instant end, final long resolution) throws Exception
+    {
+        final long chunk_secs = resolution > 0 ? resolution * CHUNK_BINS : raw_chunk_secs;
+        final long first = Math.floorDiv(start.getEpochSecond(), chunk_secs) * chunk_secs;
+        final long last = Math.floorDiv(end.getEpochSecond(), chunk_secs) * chunk_secs;
+        final long settled = Instant.now().getEpochSecond() - settle_secs;
+        final String key_prefix = reader.getURL() + "|" + key + "|" + name + "|" + resolution + "|";
+
+        final List<VType> result = new ArrayList<>();
+        // Collect cached chunks, read consecutive missing chunks in one request
+        long missing = NONE;
+        for (long chunk = first;  chunk <= last  &&  !cancelled;  chunk += chunk_secs)
+        {
+            final List<VType> samples = chunk + chunk_secs <= settled
+                                      ? cache.get(key_prefix + chunk)
+                                      : null;
+            if (samples == null)
+            {
+                if (missing == NONE)
+                    missing = chunk;
+                continue;
+            }
+            if (missing != NONE)
+            {
+                fetch(key, name, missing, chunk, chunk_secs, resolution, settled, key_prefix, start, end, result);
+                missing = NONE;
+            }
+            addSamples(result, samples, chunk, start, end);
+        }
+        if (missing != NONE  &&  !cancelled)
+            fetch(key, name, missing, last + chunk_secs, chunk_secs, resolution, settled, key_prefix, start, end, result);
+        return result;
+    }
+
+    /** Read chunks from archive, add to cache
+     *  @param key Archive key
+     *  @param name Channel name
+     *  @param from Start of first chunk
+     *  @param to End of last chunk
+     *  @param chunk_secs Chunk length
+     *  @param resolution Bin size of optimized samples in seconds, 0 for raw samples
+     *  @param settled Chunks that end at or before this time can be cached
+     *  @param key_prefix Cache key prefix
+     *  @param start Start of requested time range
+     *  @param end End of requested time range
+     *  @param result Result to which samples are added
+     *  @throws Exception on error
+     */
+    private void fetch(final int key, final String name, final long from, final long to, final long chunk_secs,
+                       final long resolution, final long settled, final String key_prefix,
+                       final Instant start, final Instant end, final List<VType> result) throws Exception
+    {
+        final Instant t0 = Instant.ofEpochSecond(from), t1 = Instant.ofEpochSecond(to);
+        final List<VType> samples = new ArrayList<>();
+        final ValueIterator values = resolution > 0
+            ? reader.getOptimizedValues(key, name, t0, t1, (int) ((to - from) / resolution))
+            : reader.getRawValues(key, name, t0, t1);
+        try
+        {
+            while (values.hasNext())
+                samples.add(values.next());
+        }
+        finally
+        {
+            values.close();
+        }
+        // Split into chunks
+        int i = 0;
+        for (long chunk = from;  chunk < to;  chunk += chunk_secs)
+        {
+            final Instant chunk_start = Instant.ofEpochSecond(chunk);
+            final Instant chunk_end = Instant.ofEpochSecond(chunk + chunk_secs);
+            while (i < samples.size()  &&  VTypeHelper.getTimestamp(samples.get(i)).isBefore(chunk_start))
+                ++i;
+            final int begin = i > 0 ? i-1 : i;
+            while (i < samples.size()  &&  VTypeHelper.getTimestamp(samples.get(i)).isBefore(chunk_end))
+                ++i;
+            final List<VType> chunk_samples = samples.subList(begin, i);
+            // Don't cache partial data from cancelled request
+            if (chunk + chunk_secs <= settled  &&  !cancelled)
+                cache.put(key_prefix + chunk, chunk_samples);
+            addSamples(result, chunk_samples, chunk, start, end);
+        }
+        if (logger.isLoggable(Level.FINE))
+            logger.log(Level.FINE, "Read {0} samples for {1}, {2} - {3}",
+                       new Object[] { samples.size(), name, t0, t1 });
+    }
+
+    /** Add samples of a chunk to the result
+     *  @param result Result
+     *  @param samples Samples of chunk, may start with a sample before the chunk
+     *  @param chunk Start of the chunk
+     *  @param start Start of requested time range
+     *  @param end End of requested time range
+     */
+    private void addSamples(final List<VType> result, final List<VType> samples, final long chunk,
+                            final Instant start, final Instant end)
+    {
+        final Instant chunk_start = Instant.ofEpochSecond(chunk);
+        VType before = null;
+        for (VType sample : samples)
+        {
+            final Instant time = VTypeHelper.getTimestamp(sample);
+            if (time.isAfter(end))
+                break;
+            if (time.isBefore(start))
+                before = sample;
+            else if (! time.isBefore(chunk_start))
+            {
+                if (before != null  &&  result.isEmpty())
+                    result.add(before); // Value at start of requested range
+                before = null;
+                result.add(sample);
+            }
+        }
+        if (before != null  &&  result.isEmpty())
+            result.add(before);
+    }
+
+    @Override
+    public void cancel()
+    {
+        cancelled = true;
+        reader.cancel();
+    }
+
+    @Override
+    public void close()
+    {
+        reader.close();
+    }
+
+    @Override
+    public void enableConcurrency(final boolean concurrency)
+    {
+        reader.enableConcurrency(concurrency);
+    }
+
+    /** {@link ValueIterator} for a list of samples */
+    private static class ListValueIterator implements ValueIterator
+    {
+        private final List<VType> samples;
+        private int index = 0;
+
+        ListValueIterator(final List<VType> samples)
+        {
+            this.samples = samples;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return index < samples.size();
+        }
+
+        @Override
+        public VType next() throws Exception
+        {
+            return samples.get(index++);
+        }
+
+        @Override
+        public void close()
+        {
+            // NOP
+        }
+    }
+}
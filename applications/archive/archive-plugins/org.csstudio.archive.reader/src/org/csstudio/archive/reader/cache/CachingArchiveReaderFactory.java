@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.reader.cache;
+
+import org.csstudio.archive.reader.ArchiveReader;
+import org.csstudio.archive.reader.ArchiveReaderFactory;
+import org.csstudio.archive.reader.ArchiveRepository;
+
+/** The plugin.xml registers this factory for ArchiveReaders
+ *  when the URL prefix indicates a cached archive.
+ *
+ *  <p>The URL "cache:&lt;url&gt;" returns a {@link CachingArchiveReader}
+ *  for the archive reader of &lt;url&gt;.
+ *  All such readers share one {@link SampleCache}.
+ */
+@SuppressWarnings("nls")
+public class CachingArchiveReaderFactory implements ArchiveReaderFactory
+{
+    /** URL prefix for cached archives */
+    final public static String PREFIX = "cache";
+
+    /** Shared cache, created on first use */
+    private static SampleCache cache = null;
+
+    /** @return Shared cache
+     *  @throws Exception on error
+     */
+    private static synchronized SampleCache getCache() throws Exception
+    {
+        if (cache == null)
+            cache = new SampleCache(Preferences.getCacheDirectory(), Preferences.getCacheSize());
+        return cache;
+    }
+
+    @Override
+    public ArchiveReader getArchiveReader(final String url) throws Exception
+    {
+        if (! url.startsWith(PREFIX + ":"))
+            throw new Exception("Expected '" + PREFIX + ":<url>', got " + url);
+        final String archive_url = url.substring(PREFIX.length() + 1);
+        final ArchiveReader reader = ArchiveRepository.getInstance().getArchiveReader(archive_url);
+        return new CachingArchiveReader(reader, getCache(),
+                                        Preferences.getRawChunkSeconds(), Preferences.getSettleSeconds());
+    }
+}
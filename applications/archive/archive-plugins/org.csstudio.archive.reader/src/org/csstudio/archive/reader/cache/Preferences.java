@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.reader.cache;
+
+import java.io.File;
+
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.preferences.IPreferencesService;
+
+/** Access to preferences for the archive sample cache.
+ *
+ *  <p>See preferences.ini for explanation of settings.
+ */
+@SuppressWarnings("nls")
+public class Preferences
+{
+    /** Plugin ID */
+    final public static String ID = "org.csstudio.archive.reader";
+
+    final public static String CACHE_DIRECTORY = "cache_directory";
+    final public static String CACHE_SIZE_MB = "cache_size_mb";
+    final public static String CACHE_RAW_CHUNK_SECS = "cache_raw_chunk_secs";
+    final public static String CACHE_SETTLE_SECS = "cache_settle_secs";
+
+    /** @return Directory for cached samples */
+    public static File getCacheDirectory()
+    {
+        final String dir = getString(CACHE_DIRECTORY, "").trim();
+        if (dir.isEmpty())
+            return new File(System.getProperty("user.home"), ".cs-studio" + File.separator + "archive_cache");
+        return new File(dir);
+    }
+
+    /** @return Size limit of the cache in bytes */
+    public static long getCacheSize()
+    {
+        return Math.max(1, getInt(CACHE_SIZE_MB, 500)) * 1024L * 1024L;
+    }
+
+    /** @return Length of a chunk of raw samples in seconds */
+    public static int getRawChunkSeconds()
+    {
+        return Math.max(60, getInt(CACHE_RAW_CHUNK_SECS, 3600));
+    }
+
+    /** @return Seconds after which a chunk is considered complete in the archive */
+    public static int getSettleSeconds()
+    {
+        return Math.max(0, getInt(CACHE_SETTLE_SECS, 600));
+    }
+
+    private static int getInt(final String key, final int default_value)
+    {
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        if (prefs == null)
+            return default_value;
+        return prefs.getInt(ID, key, default_value, null);
+    }
+
+    private static String getString(final String key, final String default_value)
+    {
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        if (prefs == null)
+            return default_value;
+        return prefs.getString(ID, key, default_value, null);
+    }
+}
@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.reader.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.diirt.vtype.VType;
+
+/** File store for chunks of archived samples
+ *
+ *  <p>Each chunk is kept in one file, named after a hash of its key.
+ *  The file starts with the complete key, so a lookup never
+ *  returns samples that were stored under a different key.
+ *
+ *  <p>When the total size of the files exceeds the limit,
+ *  the least recently used files are deleted.
+ *  The modification time of a file is updated on access,
+ *  so the order of use is preserved across restarts.
+ */
+@SuppressWarnings("nls")
+public class SampleCache
+{
+    private static final int MAGIC = 0x43534143; // "CSAC"
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".chunk";
+
+    final private Logger logger = Logger.getLogger(getClass().getName());
+
+    final private File directory;
+
+    final private long max_bytes;
+
+    /** File names and sizes, in order of access. SYNC on this */
+    final private LinkedHashMap<String, Long> files = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Total size of all files. SYNC on this */
+    private long total_bytes = 0;
+
+    /** Initialize
+     *  @param directory Cache directory, will be created if necessary
+     *  @param max_bytes Size limit
+     *  @throws Exception on error
+     */
+    public SampleCache(final File directory, final long max_bytes) throws Exception
+    {
+        this.directory = directory;
+        this.max_bytes = max_bytes;
+        if (! directory.isDirectory()  &&  ! directory.mkdirs())
+            throw new Exception("Cannot create cache directory " + directory);
+
+        final File[] existing = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (existing != null)
+        {
+            Arrays.sort(existing, Comparator.comparingLong(File::lastModified));
+            synchronized (this)
+            {
+                for (File file : existing)
+                {
+                    files.put(file.getName(), file.length());
+                    total_bytes += file.length();
+                }
+                evict();
+            }
+        }
+        logger.log(Level.CONFIG, "Archive sample cache {0}: {1} files, {2} bytes",
+                   new Object[] { directory, files.size(), total_bytes });
+    }
+
+    /** @return Total size of cached data in bytes */
+    public synchronized long getSize()
+    {
+        return total_bytes;
+    }
+
+    /** Get samples
+     *  @param key Key of the chunk
+     *  @return Samples or <code>null</code> if not in cache
+     */
+    public List<VType> get(final String key)
+    {
+        final String name = getFileName(key);
+        synchronized (this)
+        {
+            if (files.get(name) == null)
+                return null;
+        }
+        final File file = new File(directory, name);
+        try
+        (
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        )
+        {
+            if (in.readInt() != MAGIC  ||  in.readInt() != VERSION  ||  !key.equals(in.readUTF()))
+                return null;
+            final List<VType> samples = SampleCodec.read(in);
+            file.setLastModified(System.currentTimeMillis());
+            return samples;
+        }
+        catch (IOException ex)
+        {
+            // File removed while reading, or corrupted
+            logger.log(Level.FINE, "Cannot read cached " + key, ex);
+            remove(name);
+            return null;
+        }
+    }
+
+    /** Add samples
+     *
+     *  <p>Samples of a type that cannot be cached are ignored.
+     *
+     *  @param key Key of the chunk
+     *  @param samples Samples
+     */
+    public void put(final String key, final List<VType> samples)
+    {
+        final String name = getFileName(key);
+        final File file = new File(directory, name);
+        File tmp = null;
+        try
+        {
+            tmp = File.createTempFile("chunk", ".tmp", directory);
+            try
+            (
+                final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+            )
+            {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(key);
+                SampleCodec.write(out, samples);
+            }
+            final long size = tmp.length();
+            synchronized (this)
+            {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                final Long previous = files.put(name, size);
+                total_bytes += size - (previous == null ? 0 : previous);
+                evict();
+            }
+        }
+        catch (IOException ex)
+        {
+            logger.log(Level.FINE, "Cannot cache " + key, ex);
+            if (tmp != null)
+                tmp.delete();
+        }
+    }
+
+    /** @param name Name of file to remove from the cache */
+    private synchronized void remove(final String name)
+    {
+        final Long size = files.remove(name);
+        if (size != null)
+            total_bytes -= size;
+        new File(directory, name).delete();
+    }
+
+    /** Delete least recently used files until size is within the limit */
+    private synchronized void evict()
+    {
+        final Iterator<Map.Entry<String, Long>> lru = files.entrySet().iterator();
+        while (total_bytes > max_bytes  &&  lru.hasNext())
+        {
+            final Map.Entry<String, Long> entry = lru.next();
+            new File(directory, entry.getKey()).delete();
+            total_bytes -= entry.getValue();
+            lru.remove();
+        }
+    }
+
+    /** @param key Key of a chunk
+     *  @return File name for the chunk
+     */
+    private static String getFileName(final String key)
+    {
+        try
+        {
+            final byte[] hash = MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder buf = new StringBuilder(hash.length * 2 + SUFFIX.length());
+            for (byte b : hash)
+                buf.append(Character.forDigit((b >> 4) & 0xF, 16))
+                   .append(Character.forDigit(b & 0xF, 16));
+            return buf.append(SUFFIX).toString();
+        }
+        catch (Exception ex)
+        {   // SHA-1 is always available
+            throw new IllegalStateException(ex);
+        }
+    }
+}
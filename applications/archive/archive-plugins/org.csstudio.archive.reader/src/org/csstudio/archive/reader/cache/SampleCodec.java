@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.reader.cache;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.text.NumberFormat;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.csstudio.archive.vtype.ArchiveVEnum;
+import org.csstudio.archive.vtype.ArchiveVNumber;
+import org.csstudio.archive.vtype.ArchiveVNumberArray;
+import org.csstudio.archive.vtype.ArchiveVStatistics;
+import org.csstudio.archive.vtype.ArchiveVString;
+import org.csstudio.archive.vtype.VTypeHelper;
+import org.diirt.util.array.ListNumber;
+import org.diirt.util.text.NumberFormats;
+import org.diirt.vtype.AlarmSeverity;
+import org.diirt.vtype.Display;
+import org.diirt.vtype.VEnum;
+import org.diirt.vtype.VNumber;
+import org.diirt.vtype.VNumberArray;
+import org.diirt.vtype.VStatistics;
+import org.diirt.vtype.VString;
+import org.diirt.vtype.VType;
+import org.diirt.vtype.ValueFactory;
+
+/** Binary encoding of archived samples
+ *
+ *  <p>Each sample is written as its type, time stamp, alarm and value.
+ *  Meta data (display info, enum labels) is only written
+ *  when it differs from the previous sample.
+ *  Decoded samples use the archive VType implementations.
+ */
+@SuppressWarnings("nls")
+class SampleCodec
+{
+    private static final byte NUMBER = 1, STATISTICS = 2, ENUM = 3, STRING = 4, ARRAY = 5;
+    private static final byte SAME_META = 1, NEW_META = 2;
+
+    private static final AlarmSeverity[] severities = AlarmSeverity.values();
+
+    /** Write samples
+     *  @param out Stream
+     *  @param samples Samples to write
+     *  @throws IOException on error, including samples of unsupported type
+     */
+    public static void write(final DataOutputStream out, final List<VType> samples) throws IOException
+    {
+        out.writeInt(samples.size());
+        Display last_display = null;
+        List<String> last_labels = null;
+        for (VType sample : samples)
+        {
+            final Instant time = VTypeHelper.getTimestamp(sample);
+            final byte type;
+            if (sample instanceof VStatistics)
+                type = STATISTICS;
+            else if (sample instanceof VNumber)
+                type = NUMBER;
+            else if (sample instanceof VEnum)
+                type = ENUM;
+            else if (sample instanceof VString)
+                type = STRING;
+            else if (sample instanceof VNumberArray)
+                type = ARRAY;
+            else
+                throw new IOException("Cannot cache " + sample.getClass().getName());
+            out.writeByte(type);
+            out.writeLong(time.getEpochSecond());
+            out.writeInt(time.getNano());
+            out.writeByte(VTypeHelper.getSeverity(sample).ordinal());
+            out.writeUTF(VTypeHelper.getMessage(sample));
+
+            switch (type)
+            {
+            case STATISTICS:
+            {
+                final VStatistics stats = (VStatistics) sample;
+                last_display = writeDisplay(out, stats, last_display);
+                out.writeDouble(stats.getAverage());
+                out.writeDouble(stats.getMin());
+                out.writeDouble(stats.getMax());
+                out.writeDouble(stats.getStdDev());
+                out.writeInt(stats.getNSamples());
+                break;
+            }
+            case NUMBER:
+            {
+                final VNumber number = (VNumber) sample;
+                last_display = writeDisplay(out, number, last_display);
+                out.writeDouble(number.getValue().doubleValue());
+                break;
+            }
+            case ENUM:
+            {
+                final List<String> labels = ((VEnum) sample).getLabels();
+                if (labels.equals(last_labels))
+                    out.writeByte(SAME_META);
+                else
+                {
+                    out.writeByte(NEW_META);
+                    out.writeInt(labels.size());
+                    for (String label : labels)
+                        out.writeUTF(label);
+                    last_labels = labels;
+                }
+                out.writeInt(((VEnum) sample).getIndex());
+                break;
+            }
+            case STRING:
+                out.writeUTF(((VString) sample).getValue());
+                break;
+            default:
+            {
+                final VNumberArray array = (VNumberArray) sample;
+                last_display = writeDisplay(out, array, last_display);
+                final ListNumber data = array.getData();
+                final int size = data.size();
+                out.writeInt(size);
+                for (int i=0; i<size; ++i)
+                    out.writeDouble(data.getDouble(i));
+            }
+            }
+        }
+    }
+
+    /** Read samples
+     *  @param in Stream
+     *  @return Samples
+     *  @throws IOException on error
+     */
+    public static List<VType> read(final DataInputStream in) throws IOException
+    {
+        final int count = in.readInt();
+        final List<VType> samples = new ArrayList<>(count);
+        Display display = null;
+        List<String> labels = null;
+        for (int i=0; i<count; ++i)
+        {
+            final byte type = in.readByte();
+            final Instant time = Instant.ofEpochSecond(in.readLong(), in.readInt());
+            final AlarmSeverity severity = severities[in.readByte()];
+            final String status = in.readUTF();
+            switch (type)
+            {
+            case STATISTICS:
+                display = readDisplay(in, display);
+                samples.add(new ArchiveVStatistics(time, severity, status, display,
+                        in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(), in.readInt()));
+                break;
+            case NUMBER:
+                display = readDisplay(in, display);
+                samples.add(new ArchiveVNumber(time, severity, status, display, in.readDouble()));
+                break;
+            case ENUM:
+                if (in.readByte() == NEW_META)
+                {
+                    final String[] names = new String[in.readInt()];
+                    for (int l=0; l<names.length; ++l)
+                        names[l] = in.readUTF();
+                    labels = Arrays.asList(names);
+                }
+                samples.add(new ArchiveVEnum(time, severity, status, labels, in.readInt()));
+                break;
+            case STRING:
+                samples.add(new ArchiveVString(time, severity, status, in.readUTF()));
+                break;
+            case ARRAY:
+            {
+                display = readDisplay(in, display);
+                final double[] data = new double[in.readInt()];
+                for (int d=0; d<data.length; ++d)
+                    data[d] = in.readDouble();
+                samples.add(new ArchiveVNumberArray(time, severity, status, display, data));
+                break;
+            }
+            default:
+                throw new IOException("Unknown sample type " + type);
+            }
+        }
+        return samples;
+    }
+
+    /** @param value Display limit, may be <code>null</code>
+     *  @return Value or NaN
+     */
+    private static double limit(final Double value)
+    {
+        return value == null ? Double.NaN : value.doubleValue();
+    }
+
+    /** @param a Display
+     *  @param b Other display
+     *  @return <code>true</code> if displays have the same limits, units and format
+     */
+    private static boolean sameDisplay(final Display a, final Display b)
+    {
+        return Double.compare(limit(a.getLowerDisplayLimit()), limit(b.getLowerDisplayLimit())) == 0  &&
+               Double.compare(limit(a.getUpperDisplayLimit()), limit(b.getUpperDisplayLimit())) == 0  &&
+               Double.compare(limit(a.getLowerAlarmLimit()),   limit(b.getLowerAlarmLimit())) == 0    &&
+               Double.compare(limit(a.getUpperAlarmLimit()),   limit(b.getUpperAlarmLimit())) == 0    &&
+               Double.compare(limit(a.getLowerWarningLimit()), limit(b.getLowerWarningLimit())) == 0  &&
+               Double.compare(limit(a.getUpperWarningLimit()), limit(b.getUpperWarningLimit())) == 0  &&
+               Double.compare(limit(a.getLowerCtrlLimit()),    limit(b.getLowerCtrlLimit())) == 0     &&
+               Double.compare(limit(a.getUpperCtrlLimit()),    limit(b.getUpperCtrlLimit())) == 0     &&
+               String.valueOf(a.getUnits()).equals(String.valueOf(b.getUnits()))  &&
+               getPrecision(a) == getPrecision(b);
+    }
+
+    /** @param display Display
+     *  @return Number of fraction digits
+     */
+    private static int getPrecision(final Display display)
+    {
+        final NumberFormat format = display.getFormat();
+        return format == null ? 0 : format.getMaximumFractionDigits();
+    }
+
+    /** @param out Stream
+     *  @param display Display to write
+     *  @param last Previously written display or <code>null</code>
+     *  @return Display that was written
+     *  @throws IOException on error
+     */
+    private static Display writeDisplay(final DataOutputStream out, final Display display, final Display last) throws IOException
+    {
+        if (last != null  &&  sameDisplay(display, last))
+        {
+            out.writeByte(SAME_META);
+            return last;
+        }
+        out.writeByte(NEW_META);
+        out.writeDouble(limit(display.getLowerDisplayLimit()));
+        out.writeDouble(limit(display.getUpperDisplayLimit()));
+        out.writeDouble(limit(display.getLowerAlarmLimit()));
+        out.writeDouble(limit(display.getUpperAlarmLimit()));
+        out.writeDouble(limit(display.getLowerWarningLimit()));
+        out.writeDouble(limit(display.getUpperWarningLimit()));
+        out.writeDouble(limit(display.getLowerCtrlLimit()));
+        out.writeDouble(limit(display.getUpperCtrlLimit()));
+        out.writeUTF(display.getUnits() == null ? "" : display.getUnits());
+        out.writeInt(getPrecision(display));
+        return display;
+    }
+
+    /** @param in Stream
+     *  @param last Previously read display
+     *  @return Display
+     *  @throws IOException on error
+     */
+    private static Display readDisplay(final DataInputStream in, final Display last) throws IOException
+    {
+        final byte meta = in.readByte();
+        if (meta == SAME_META)
+            return last;
+        final double lower_disp = in.readDouble(), upper_disp = in.readDouble();
+        final double lower_alarm = in.readDouble(), upper_alarm = in.readDouble();
+        final double lower_warn = in.readDouble(), upper_warn = in.readDouble();
+        final double lower_ctrl = in.readDouble(), upper_ctrl = in.readDouble();
+        final String units = in.readUTF();
+        final NumberFormat format = NumberFormats.format(in.readInt());
+        return ValueFactory.newDisplay(lower_disp, lower_alarm, lower_warn, units, format,
+                                       upper_warn, upper_alarm, upper_disp, lower_ctrl, upper_ctrl);
+    }
+}
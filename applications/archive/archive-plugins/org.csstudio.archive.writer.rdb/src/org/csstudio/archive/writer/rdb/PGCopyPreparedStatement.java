@@ -1,5 +1,6 @@
 package org.csstudio.archive.writer.rdb;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PushbackReader;
@@ -7,6 +8,8 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.math.BigDecimal;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.sql.Array;
 import java.sql.Blob;
 import java.sql.Clob;
@@ -26,18 +29,62 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.Arrays;
 import java.util.Calendar;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.postgresql.PGConnection;
 import org.postgresql.copy.CopyManager;
 
+/**
+ * {@link PreparedStatement} that batches rows for a PostgreSQL
+ * <code>COPY ... FROM STDIN</code> instead of executing INSERTs.
+ * <p>
+ * In text mode, each row is formatted as CSV. In binary mode, rows are
+ * encoded in the <code>FORMAT binary</code> wire format into a re-used
+ * buffer, so numbers and time stamps are neither formatted nor parsed.
+ * Binary mode needs to know the exact column types, which are read from
+ * the database meta data.
+ */
 public class PGCopyPreparedStatement implements PreparedStatement {
 
+    /** Header of the binary COPY format: Signature, flags, extension length */
+    private static final byte[] BINARY_HEADER = {
+            'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0,
+            0, 0, 0, 0,
+            0, 0, 0, 0 };
+
+    /** Seconds between 1970-01-01 and the PostgreSQL epoch 2000-01-01 */
+    private static final long PG_EPOCH_SECS = 946684800L;
+
+    // Column types supported by the binary mode
+    private static final int TYPE_INT2 = 1;
+    private static final int TYPE_INT4 = 2;
+    private static final int TYPE_INT8 = 3;
+    private static final int TYPE_FLOAT4 = 4;
+    private static final int TYPE_FLOAT8 = 5;
+    private static final int TYPE_BOOL = 6;
+    private static final int TYPE_TIMESTAMP = 7;
+    private static final int TYPE_TIMESTAMPTZ = 8;
+    private static final int TYPE_TEXT = 9;
+    private static final int TYPE_BYTEA = 10;
+    private static final int TYPE_CHAR = 11;
+
+    // Kind of value set for a parameter in binary mode
+    private static final byte VALUE_NULL = 0;
+    private static final byte VALUE_LONG = 1;
+    private static final byte VALUE_DOUBLE = 2;
+    private static final byte VALUE_TIMESTAMP = 3;
+    private static final byte VALUE_STRING = 4;
+    private static final byte VALUE_BYTES = 5;
+
     private Connection connection;
 
+    private final boolean binary;
+
     private String[] rowValues;
 
     private StringBuffer batchBuilder;
@@ -46,30 +93,77 @@ public class PGCopyPreparedStatement implements PreparedStatement {
 
     private String tableName;
 
+    private String copyCommand;
+
+    /** Binary mode: Type of each insert column */
+    private int[] columnTypes;
+
+    /** Binary mode: Kind of value set for each parameter */
+    private byte[] valueKinds;
+
+    /** Binary mode: Integer, boolean or timestamp (seconds) values */
+    private long[] longValues;
+
+    /** Binary mode: Floating point values, or timestamp nanoseconds */
+    private double[] doubleValues;
+
+    /** Binary mode: String or byte[] values */
+    private Object[] objectValues;
+
+    /** Binary mode: Encoded rows, re-used between batches */
+    private ByteBuffer buffer;
+
+    /** Binary mode: Number of rows in buffer */
+    private int rows;
+
+    /** Time zone for 'TIMESTAMP' columns, which hold the local time */
+    private final TimeZone timeZone = TimeZone.getDefault();
+
     public PGCopyPreparedStatement(Connection connection, String insertSqlQuery)
             throws SQLException {
+        this(connection, insertSqlQuery, false);
+    }
+
+    /**
+     * @param connection Connection to PostgreSQL
+     * @param insertSqlQuery "INSERT INTO table (columns...) VALUES (...)"
+     * @param binary Use binary COPY format instead of CSV?
+     * @throws SQLException on error, including column types that are not
+     *         supported by the binary mode
+     */
+    public PGCopyPreparedStatement(Connection connection, String insertSqlQuery,
+            boolean binary) throws SQLException {
+        this(connection, insertSqlQuery,
+                getColumnTypes(connection, getTableName(insertSqlQuery)),
+                binary);
+    }
+
+    /**
+     * @param connection Connection to PostgreSQL. May be <code>null</code>
+     *        when the batch is only written via {@link #writeBatch()},
+     *        for example in tests
+     * @param insertSqlQuery "INSERT INTO table (columns...) VALUES (...)"
+     * @param tableColumns Name and type name of all table columns in the
+     *        order in which they are stored in the database
+     * @param binary Use binary COPY format instead of CSV?
+     * @throws SQLException on error
+     */
+    public PGCopyPreparedStatement(Connection connection, String insertSqlQuery,
+            Map<String, String> tableColumns, boolean binary)
+            throws SQLException {
         this.connection = connection;
+        this.binary = binary;
         batchBuilder = new StringBuffer();
 
         // Analyze query string to get table name and list of column
-        tableName = null;
-        String[] columnsArrays = null;
-        Pattern p = Pattern.compile(
-                "^INSERT[ ]+INTO[ ]+([^ ]+)[ ]+\\(([^)]+)\\)",
-                Pattern.CASE_INSENSITIVE);
-        Matcher m = p.matcher(insertSqlQuery);
-        if (m.find()) {
-            tableName = m.group(1);
-            columnsArrays = m.group(2).split(",");
-        }
+        tableName = getTableName(insertSqlQuery);
+        String[] columnsArrays = getColumns(insertSqlQuery);
 
         // Get the column order as it's stored in database
-        Map<String, Integer> postgresColumnOrderMap = new HashMap<String, Integer>();
-        ResultSet columnsRs = connection.getMetaData().getColumns(
-                connection.getCatalog(), null, tableName, null);
-        while (columnsRs.next()) {
-            postgresColumnOrderMap.put(columnsRs.getString("COLUMN_NAME"),
-                    columnsRs.getInt("ORDINAL_POSITION"));
+        Map<String, Integer> postgresColumnOrderMap = new LinkedHashMap<String, Integer>();
+        for (String column : tableColumns.keySet()) {
+            postgresColumnOrderMap.put(column,
+                    postgresColumnOrderMap.size() + 1);
         }
         rowValues = new String[postgresColumnOrderMap.size()];
 
@@ -79,6 +173,7 @@ public class PGCopyPreparedStatement implements PreparedStatement {
         columnOrderMapping[0] = -1;
         for (int i = 0; i < columnsArrays.length; i++) {
             String columnName = columnsArrays[i].trim();
+            columnsArrays[i] = columnName;
             Integer postgresColumnOrder = postgresColumnOrderMap
                     .get(columnName);
             if (postgresColumnOrder == null) {
@@ -87,10 +182,127 @@ public class PGCopyPreparedStatement implements PreparedStatement {
             }
             columnOrderMapping[i + 1] = postgresColumnOrder.intValue() - 1;
         }
+
+        if (binary) {
+            // Only send the insert columns, in the order of the query
+            columnTypes = new int[columnsArrays.length];
+            for (int i = 0; i < columnsArrays.length; i++) {
+                columnTypes[i] = getBinaryType(columnsArrays[i],
+                        tableColumns.get(columnsArrays[i]));
+            }
+            valueKinds = new byte[columnsArrays.length];
+            longValues = new long[columnsArrays.length];
+            doubleValues = new double[columnsArrays.length];
+            objectValues = new Object[columnsArrays.length];
+            buffer = ByteBuffer.allocate(64 * 1024);
+            buffer.put(BINARY_HEADER);
+            copyCommand = "COPY " + tableName + " ("
+                    + String.join(",", columnsArrays)
+                    + ") FROM STDIN WITH (FORMAT binary)";
+        } else {
+            copyCommand = "COPY " + tableName + " FROM STDIN WITH CSV";
+        }
+    }
+
+    private static String getTableName(String insertSqlQuery)
+            throws SQLException {
+        return parseInsert(insertSqlQuery).group(1);
+    }
+
+    private static String[] getColumns(String insertSqlQuery)
+            throws SQLException {
+        return parseInsert(insertSqlQuery).group(2).split(",");
+    }
+
+    private static Matcher parseInsert(String insertSqlQuery)
+            throws SQLException {
+        Pattern p = Pattern.compile(
+                "^INSERT[ ]+INTO[ ]+([^ ]+)[ ]+\\(([^)]+)\\)",
+                Pattern.CASE_INSENSITIVE);
+        Matcher m = p.matcher(insertSqlQuery.trim());
+        if (!m.find()) {
+            throw new SQLException("Cannot parse " + insertSqlQuery);
+        }
+        return m;
+    }
+
+    /**
+     * @return Name and type name of all table columns, ordered by their
+     *         position in the table
+     */
+    private static Map<String, String> getColumnTypes(Connection connection,
+            String tableName) throws SQLException {
+        Map<Integer, String[]> columns = new TreeMap<Integer, String[]>();
+        ResultSet columnsRs = connection.getMetaData().getColumns(
+                connection.getCatalog(), null, tableName, null);
+        while (columnsRs.next()) {
+            columns.put(columnsRs.getInt("ORDINAL_POSITION"), new String[] {
+                    columnsRs.getString("COLUMN_NAME"),
+                    columnsRs.getString("TYPE_NAME") });
+        }
+        columnsRs.close();
+        Map<String, String> result = new LinkedHashMap<String, String>();
+        for (String[] column : columns.values()) {
+            result.put(column[0], column[1]);
+        }
+        return result;
+    }
+
+    /** @return TYPE_... for the PostgreSQL type name */
+    private static int getBinaryType(String column, String typeName)
+            throws SQLException {
+        switch (typeName == null ? "" : typeName.toLowerCase()) {
+        case "int2":
+        case "smallint":
+            return TYPE_INT2;
+        case "int4":
+        case "integer":
+        case "serial":
+            return TYPE_INT4;
+        case "int8":
+        case "bigint":
+        case "bigserial":
+            return TYPE_INT8;
+        case "float4":
+        case "real":
+            return TYPE_FLOAT4;
+        case "float8":
+        case "double precision":
+            return TYPE_FLOAT8;
+        case "bool":
+        case "boolean":
+            return TYPE_BOOL;
+        case "timestamp":
+            return TYPE_TIMESTAMP;
+        case "timestamptz":
+            return TYPE_TIMESTAMPTZ;
+        case "text":
+        case "varchar":
+        case "bpchar":
+            return TYPE_TEXT;
+        case "char":
+            // Internal single-byte "char" type, sent as one raw byte.
+            // The SQL type character(n) is reported as "bpchar"
+            return TYPE_CHAR;
+        case "bytea":
+            return TYPE_BYTEA;
+        default:
+            throw new SQLException("Binary COPY does not support type "
+                    + typeName + " of column " + column);
+        }
+    }
+
+    /** @return <code>true</code> when using binary COPY format */
+    public boolean isBinary() {
+        return binary;
     }
 
     @Override
     public void addBatch() throws SQLException {
+        if (binary) {
+            addBinaryRow();
+            return;
+        }
         for (int i = 0; i < rowValues.length; i++) {
             if (rowValues[i] != null) {
                 batchBuilder.append(rowValues[i]);
@@ -101,6 +313,230 @@ public class PGCopyPreparedStatement implements PreparedStatement {
         Arrays.fill(rowValues, null);
     }
 
+    /** Encode current parameters as binary tuple */
+    private void addBinaryRow() throws SQLException {
+        ensureCapacity(2);
+        buffer.putShort((short) columnTypes.length);
+        for (int i = 0; i < columnTypes.length; i++) {
+            if (valueKinds[i] == VALUE_NULL) {
+                ensureCapacity(4);
+                buffer.putInt(-1);
+            } else {
+                addBinaryField(i);
+            }
+        }
+        Arrays.fill(valueKinds, VALUE_NULL);
+        Arrays.fill(objectValues, null);
+        ++rows;
+    }
+
+    /** Encode one non-null field */
+    private void addBinaryField(int i) throws SQLException {
+        final byte kind = valueKinds[i];
+        switch (columnTypes[i]) {
+        case TYPE_INT2:
+            ensureCapacity(6);
+            buffer.putInt(2);
+            buffer.putShort((short) getLong(i, kind));
+            break;
+        case TYPE_INT4:
+            ensureCapacity(8);
+            buffer.putInt(4);
+            buffer.putInt((int) getLong(i, kind));
+            break;
+        case TYPE_INT8:
+            ensureCapacity(12);
+            buffer.putInt(8);
+            buffer.putLong(getLong(i, kind));
+            break;
+        case TYPE_BOOL:
+            ensureCapacity(5);
+            buffer.putInt(1);
+            buffer.put((byte) (getLong(i, kind) != 0 ? 1 : 0));
+            break;
+        case TYPE_FLOAT4:
+            ensureCapacity(8);
+            buffer.putInt(4);
+            buffer.putFloat((float) getDouble(i, kind));
+            break;
+        case TYPE_FLOAT8:
+            ensureCapacity(12);
+            buffer.putInt(8);
+            buffer.putDouble(getDouble(i, kind));
+            break;
+        case TYPE_TIMESTAMP:
+        case TYPE_TIMESTAMPTZ:
+            if (kind != VALUE_TIMESTAMP) {
+                throw new SQLException("Expected timestamp for parameter "
+                        + (i + 1));
+            }
+            ensureCapacity(12);
+            buffer.putInt(8);
+            buffer.putLong(getMicros(longValues[i], (int) doubleValues[i],
+                    columnTypes[i] == TYPE_TIMESTAMP));
+            break;
+        case TYPE_TEXT:
+            putText(getString(i, kind));
+            break;
+        case TYPE_CHAR:
+            final String text = getString(i, kind);
+            if (text.length() > 1
+                    || (text.length() == 1 && text.charAt(0) >= 0x80)) {
+                throw new SQLException("Expected single ASCII character for parameter "
+                        + (i + 1));
+            }
+            ensureCapacity(5);
+            buffer.putInt(1);
+            buffer.put(text.isEmpty() ? 0 : (byte) text.charAt(0));
+            break;
+        case TYPE_BYTEA:
+            if (kind != VALUE_BYTES) {
+                throw new SQLException("Expected bytes for parameter "
+                        + (i + 1));
+            }
+            final byte[] bytes = (byte[]) objectValues[i];
+            ensureCapacity(4 + bytes.length);
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+            break;
+        default:
+            throw new SQLException("Unknown type for parameter " + (i + 1));
+        }
+    }
+
+    private String getString(int i, byte kind) {
+        return kind == VALUE_STRING ? (String) objectValues[i]
+                : kind == VALUE_DOUBLE ? Double.toString(doubleValues[i])
+                : Long.toString(longValues[i]);
+    }
+
+    private long getLong(int i, byte kind) throws SQLException {
+        if (kind == VALUE_LONG) {
+            return longValues[i];
+        }
+        if (kind == VALUE_DOUBLE) {
+            return (long) doubleValues[i];
+        }
+        if (kind == VALUE_STRING) {
+            try {
+                return Long.parseLong(((String) objectValues[i]).trim());
+            } catch (NumberFormatException ex) {
+                throw new SQLException(ex);
+            }
+        }
+        throw new SQLException("Expected number for parameter " + (i + 1));
+    }
+
+    private double getDouble(int i, byte kind) throws SQLException {
+        if (kind == VALUE_DOUBLE) {
+            return doubleValues[i];
+        }
+        if (kind == VALUE_LONG) {
+            return longValues[i];
+        }
+        if (kind == VALUE_STRING) {
+            try {
+                return Double.parseDouble(((String) objectValues[i]).trim());
+            } catch (NumberFormatException ex) {
+                throw new SQLException(ex);
+            }
+        }
+        throw new SQLException("Expected number for parameter " + (i + 1));
+    }
+
+    /**
+     * @param millis Milliseconds since 1970 (UTC) as in {@link Timestamp#getTime()}
+     * @param nanos Nanoseconds as in {@link Timestamp#getNanos()}
+     * @param local Convert to local time for a 'TIMESTAMP' column?
+     * @return Microseconds since 2000-01-01
+     */
+    private long getMicros(long millis, int nanos, boolean local) {
+        long seconds = Math.floorDiv(millis, 1000L);
+        if (local) {
+            seconds += timeZone.getOffset(millis) / 1000;
+        }
+        // Round to microseconds like PostgreSQL does for text input
+        return (seconds - PG_EPOCH_SECS) * 1000000L + (nanos + 500) / 1000;
+    }
+
+    /** Encode text as UTF-8 without creating a byte[] */
+    private void putText(String text) {
+        final int length = text.length();
+        ensureCapacity(4 + 3 * length);
+        final int start = buffer.position();
+        buffer.putInt(0);
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                final int cp = Character.toCodePoint(c, text.charAt(++i));
+                buffer.put((byte) (0xF0 | (cp >> 18)));
+                buffer.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (cp & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        buffer.putInt(start, buffer.position() - start - 4);
+    }
+
+    /** Grow buffer to have room for given number of bytes */
+    private void ensureCapacity(int needed) {
+        if (buffer.remaining() >= needed) {
+            return;
+        }
+        int capacity = buffer.capacity() * 2;
+        while (capacity - buffer.position() < needed) {
+            capacity *= 2;
+        }
+        final ByteBuffer grown = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+    }
+
+    /** Binary mode: Remember value for parameter */
+    private void setBinary(int parameterIndex, byte kind, long l, double d,
+            Object o) throws SQLException {
+        if (parameterIndex < 1 || parameterIndex > valueKinds.length) {
+            throw new SQLException("Invalid parameter index " + parameterIndex);
+        }
+        final int i = parameterIndex - 1;
+        valueKinds[i] = o == null && (kind == VALUE_STRING || kind == VALUE_BYTES)
+                ? VALUE_NULL : kind;
+        longValues[i] = l;
+        doubleValues[i] = d;
+        objectValues[i] = o;
+    }
+
+    /**
+     * @return Stream of the COPY data for the current batch,
+     *         valid until the batch is modified
+     * @throws SQLException on error
+     */
+    public InputStream writeBatch() throws SQLException {
+        if (binary) {
+            // File trailer, which the next row will overwrite
+            ensureCapacity(2);
+            final int end = buffer.position();
+            buffer.putShort((short) -1);
+            buffer.position(end);
+            return new ByteArrayInputStream(buffer.array(), 0, end + 2);
+        }
+        return new ByteArrayInputStream(batchBuilder.toString().getBytes(
+                StandardCharsets.UTF_8));
+    }
+
     @Override
     public void addBatch(String arg0) throws SQLException {
         throw new SQLException("Not implemented");
@@ -115,6 +551,16 @@ public class PGCopyPreparedStatement implements PreparedStatement {
     @Override
     public void clearBatch() throws SQLException {
         batchBuilder.setLength(0);
+        if (binary) {
+            resetBinaryBatch();
+        }
+    }
+
+    /** Binary mode: Start new batch with just the header */
+    private void resetBinaryBatch() {
+        buffer.clear();
+        buffer.put(BINARY_HEADER);
+        rows = 0;
     }
 
     @Override
@@ -128,6 +574,7 @@ public class PGCopyPreparedStatement implements PreparedStatement {
         rowValues = null;
         columnOrderMapping = null;
         batchBuilder = null;
+        buffer = null;
         connection = null;
     }
 
@@ -166,10 +613,17 @@ public class PGCopyPreparedStatement implements PreparedStatement {
         long res = 0;
         try {
             CopyManager cpManager = ((PGConnection) connection).getCopyAPI();
+            if (binary) {
+                if (rows > 0) {
+                    res = cpManager.copyIn(copyCommand, writeBatch());
+                }
+                resetBinaryBatch();
+                return new int[] { (int) res };
+            }
             PushbackReader reader = new PushbackReader(new StringReader(""),
                     batchBuilder.length());
             reader.unread(batchBuilder.toString().toCharArray());
-            res = cpManager.copyIn("COPY " + tableName +  " FROM STDIN WITH CSV", reader);
+            res = cpManager.copyIn(copyCommand, reader);
             batchBuilder.setLength(0);
             reader.close();
         } catch (IOException e) {
@@ -377,6 +831,10 @@ public class PGCopyPreparedStatement implements PreparedStatement {
     @Override
     public void clearParameters() throws SQLException {
         Arrays.fill(rowValues, null);
+        if (binary) {
+            Arrays.fill(valueKinds, VALUE_NULL);
+            Arrays.fill(objectValues, null);
+        }
     }
 
     @Override
@@ -439,6 +897,11 @@ public class PGCopyPreparedStatement implements PreparedStatement {
     @Override
     public void setBigDecimal(int parameterIndex, BigDecimal x)
             throws SQLException {
+        if (binary) {
+            setBinary(parameterIndex, VALUE_STRING, 0, 0,
+                    x == null ? null : x.toPlainString());
+            return;
+        }
         if (x == null) {
             rowValues[columnOrderMapping[parameterIndex]] = null;
         } else {
@@ -489,6 +952,10 @@ public class PGCopyPreparedStatement implements PreparedStatement {
 
     @Override
     public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        if (binary) {
+            setBinary(parameterIndex, VALUE_LONG, x ? 1 : 0, 0, null);
+            return;
+        }
         rowValues[columnOrderMapping[parameterIndex]] = Boolean.toString(x);
     }
 
@@ -500,6 +967,10 @@ public class PGCopyPreparedStatement implements PreparedStatement {
 
     @Override
     public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        if (binary) {
+            setBinary(parameterIndex, VALUE_BYTES, 0, 0, x);
+            return;
+        }
         if (x == null) {
             rowValues[columnOrderMapping[parameterIndex]] = null;
         } else {
@@ -592,21 +1063,37 @@ public class PGCopyPreparedStatement implements PreparedStatement {
 
     @Override
     public void setDouble(int parameterIndex, double x) throws SQLException {
+        if (binary) {
+            setBinary(parameterIndex, VALUE_DOUBLE, 0, x, null);
+            return;
+        }
         rowValues[columnOrderMapping[parameterIndex]] = Double.toString(x);
     }
 
     @Override
     public void setFloat(int parameterIndex, float x) throws SQLException {
+        if (binary) {
+            setBinary(parameterIndex, VALUE_DOUBLE, 0, x, null);
+            return;
+        }
         rowValues[columnOrderMapping[parameterIndex]] = Float.toString(x);
     }
 
     @Override
     public void setInt(int parameterIndex, int x) throws SQLException {
+        if (binary) {
+            setBinary(parameterIndex, VALUE_LONG, x, 0, null);
+            return;
+        }
         rowValues[columnOrderMapping[parameterIndex]] = Integer.toString(x);
     }
 
     @Override
     public void setLong(int parameterIndex, long x) throws SQLException {
+        if (binary) {
+            setBinary(parameterIndex, VALUE_LONG, x, 0, null);
+            return;
+        }
         rowValues[columnOrderMapping[parameterIndex]] = Long.toString(x);
     }
 
@@ -646,6 +1133,10 @@ public class PGCopyPreparedStatement implements PreparedStatement {
     @Override
     public void setNString(int parameterIndex, String value)
             throws SQLException {
+        if (binary) {
+            setBinary(parameterIndex, VALUE_STRING, 0, 0, value);
+            return;
+        }
         if (value == null) {
             rowValues[columnOrderMapping[parameterIndex]] = null;
         } else {
@@ -655,12 +1146,20 @@ public class PGCopyPreparedStatement implements PreparedStatement {
 
     @Override
     public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        if (binary) {
+            setBinary(parameterIndex, VALUE_NULL, 0, 0, null);
+            return;
+        }
         rowValues[columnOrderMapping[parameterIndex]] = null;
     }
 
     @Override
     public void setNull(int parameterIndex, int sqlType, String typeName)
             throws SQLException {
+        if (binary) {
+            setBinary(parameterIndex, VALUE_NULL, 0, 0, null);
+            return;
+        }
         rowValues[columnOrderMapping[parameterIndex]] = null;
     }
 
@@ -705,11 +1204,19 @@ public class PGCopyPreparedStatement implements PreparedStatement {
 
     @Override
     public void setShort(int parameterIndex, short x) throws SQLException {
+        if (binary) {
+            setBinary(parameterIndex, VALUE_LONG, x, 0, null);
+            return;
+        }
         rowValues[columnOrderMapping[parameterIndex]] = Short.toString(x);
     }
 
     @Override
     public void setString(int parameterIndex, String x) throws SQLException {
+        if (binary) {
+            setBinary(parameterIndex, VALUE_STRING, 0, 0, x);
+            return;
+        }
         rowValues[columnOrderMapping[parameterIndex]] = x;
     }
 
@@ -729,6 +1236,15 @@ public class PGCopyPreparedStatement implements PreparedStatement {
     @Override
     public void setTimestamp(int parameterIndex, Timestamp x)
             throws SQLException {
+        if (binary) {
+            if (x == null) {
+                setBinary(parameterIndex, VALUE_NULL, 0, 0, null);
+            } else {
+                setBinary(parameterIndex, VALUE_TIMESTAMP, x.getTime(),
+                        x.getNanos(), null);
+            }
+            return;
+        }
         if (x == null) {
             rowValues[columnOrderMapping[parameterIndex]] = null;
         } else {
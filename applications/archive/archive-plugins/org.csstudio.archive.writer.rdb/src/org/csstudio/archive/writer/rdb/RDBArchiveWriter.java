@@ -15,11 +15,14 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 
 import org.csstudio.archive.rdb.RDBArchivePreferences;
@@ -57,6 +60,9 @@ public class RDBArchiveWriter implements ArchiveWriter
 
     final private boolean use_array_blob;
 
+    /** Periods of the rollup tiers in seconds, empty if rollups are disabled */
+    final private int[] rollup_tiers = RDBArchivePreferences.getRollupTiers();
+
     /** RDB connection */
     final private RDBUtil rdb;
 
@@ -84,6 +90,9 @@ public class RDBArchiveWriter implements ArchiveWriter
     /** Prepared statement for inserting 'String' samples */
     private PreparedStatement insert_txt_sample = null;
 
+    /** Prepared statement for merging rollups */
+    private PreparedStatement merge_rollup = null;
+
     /** Counter for accumulated samples in 'double' batch */
     private int batched_double_inserts = 0;
 
@@ -96,6 +105,12 @@ public class RDBArchiveWriter implements ArchiveWriter
     /** Counter for accumulated samples in 'String' batch */
     private int batched_txt_inserts = 0;
 
+    /** Counter for accumulated rollups in batch */
+    private int batched_rollups = 0;
+
+    /** Channels with rollup data that has not been added to the batch */
+    private final Set<RDBWriteChannel> pending_rollups = new LinkedHashSet<RDBWriteChannel>();
+
     /** Copy of batched samples, used to display batch errors */
     private final List<RDBWriteChannel> batched_channel = new ArrayList<RDBWriteChannel>();
     private final List<VType> batched_samples = new ArrayList<VType>();
@@ -175,6 +190,8 @@ public class RDBArchiveWriter implements ArchiveWriter
         final RDBWriteChannel rdb_channel = (RDBWriteChannel) channel;
         writeMetaData(rdb_channel, sample);
         batchSample(rdb_channel, sample);
+        if (rollup_tiers.length > 0)
+            rollupSample(rdb_channel, sample);
         batched_channel.add(rdb_channel);
         batched_samples.add(sample);
     }
@@ -235,8 +252,19 @@ public class RDBArchiveWriter implements ArchiveWriter
         PreparedStatement statement = null;
         if (rdb.getDialect() == Dialect.PostgreSQL
                 && Preferences.isUsePostgresCopy()) {
-            statement = new PGCopyPreparedStatement(rdb.getConnection(),
-                    sqlQuery);
+            if (Preferences.isUsePostgresBinaryCopy()) {
+                try {
+                    statement = new PGCopyPreparedStatement(rdb.getConnection(),
+                            sqlQuery, true);
+                } catch (SQLException ex) {
+                    Activator.getLogger().log(Level.WARNING,
+                            "Cannot use binary COPY, falling back to CSV", ex);
+                }
+            }
+            if (statement == null) {
+                statement = new PGCopyPreparedStatement(rdb.getConnection(),
+                        sqlQuery);
+            }
         } else {
             statement = rdb.getConnection().prepareStatement(sqlQuery);
         }
@@ -492,6 +520,73 @@ public class RDBArchiveWriter implements ArchiveWriter
         insert_xx.addBatch();
     }
 
+    /** Add sample to the rollups of the channel.
+     *  <p>Completed buckets are added to the batch,
+     *  the current ones on flush()
+     *  @param channel Channel
+     *  @param sample Sample to add
+     *  @throws Exception on error
+     */
+    private void rollupSample(final RDBWriteChannel channel, final VType sample) throws Exception
+    {
+        final double value = getRollupValue(sample);
+        if (Double.isNaN(value))
+            return;
+        final Instant time = VTypeHelper.getTimestamp(sample);
+        final AlarmSeverity severity = VTypeHelper.getSeverity(sample);
+        for (Rollup rollup : channel.getRollups(rollup_tiers))
+            if (! rollup.add(time, value, severity))
+            {   // Sample starts a new bucket
+                batchRollup(channel, rollup);
+                rollup.add(time, value, severity);
+            }
+        pending_rollups.add(channel);
+    }
+
+    /** @param sample Sample
+     *  @return Numeric value for rollups, <code>NaN</code> for
+     *          enum, string, invalid or undefined samples
+     */
+    private static double getRollupValue(final VType sample)
+    {
+        if (VTypeHelper.getSeverity(sample) == AlarmSeverity.UNDEFINED)
+            return Double.NaN;
+        final double value;
+        if (sample instanceof VNumber)
+            value = ((VNumber)sample).getValue().doubleValue();
+        else if (sample instanceof VNumberArray  &&  ((VNumberArray)sample).getData().size() > 0)
+            value = ((VNumberArray)sample).getData().getDouble(0);
+        else
+            return Double.NaN;
+        return Double.isInfinite(value) ? Double.NaN : value;
+    }
+
+    /** Add accumulated rollup to batch and clear it
+     *  @param channel Channel
+     *  @param rollup Rollup with data
+     *  @throws Exception on error
+     */
+    private void batchRollup(final RDBWriteChannel channel, final Rollup rollup) throws Exception
+    {
+        if (merge_rollup == null)
+        {
+            merge_rollup = rdb.getConnection().prepareStatement(sql.rollup_merge);
+            if (SQL_TIMEOUT_SECS > 0)
+                merge_rollup.setQueryTimeout(SQL_TIMEOUT_SECS);
+        }
+        merge_rollup.setInt(1, channel.getId());
+        merge_rollup.setInt(2, rollup.getPeriod());
+        merge_rollup.setTimestamp(3, TimestampHelper.toSQLTimestamp(rollup.getStart()));
+        merge_rollup.setDouble(4, rollup.getMin());
+        merge_rollup.setDouble(5, rollup.getMax());
+        merge_rollup.setDouble(6, rollup.getSum());
+        merge_rollup.setInt(7, rollup.getCount());
+        merge_rollup.setInt(8, rollup.getSeverity().ordinal());
+        merge_rollup.addBatch();
+        ++batched_rollups;
+        rollup.clear();
+    }
+
     /** {@inheritDoc}
      *  RDB implementation completes pending batches
      */
@@ -544,6 +639,24 @@ public class RDBArchiveWriter implements ArchiveWriter
                     batched_double_array_inserts = 0;
                 }
             }
+            // Write what's been accumulated for the current rollup buckets.
+            // The RDB merges it with what was written before.
+            for (RDBWriteChannel channel : pending_rollups)
+                for (Rollup rollup : channel.getRollups(rollup_tiers))
+                    if (rollup.hasData())
+                        batchRollup(channel, rollup);
+            pending_rollups.clear();
+            if (batched_rollups > 0)
+            {
+                try
+                {
+                    checkBatchExecution(merge_rollup);
+                }
+                finally
+                {
+                    batched_rollups = 0;
+                }
+            }
         }
         catch (final Exception ex)
         {
@@ -732,6 +845,14 @@ public class RDBArchiveWriter implements ArchiveWriter
             }
             insert_txt_sample = null;
         }
+        if (merge_rollup != null) {
+            try {
+                merge_rollup.close();
+            } catch (SQLException e) {
+                Activator.getLogger().log(Level.WARNING, "close() error", e);
+            }
+            merge_rollup = null;
+        }
         rdb.close();
     }
 }
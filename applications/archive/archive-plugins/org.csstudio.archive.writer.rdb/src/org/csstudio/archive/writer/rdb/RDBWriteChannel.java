@@ -18,6 +18,7 @@ public class RDBWriteChannel implements WriteChannel
     final private String name;
     final private int id;
     private Object meta = null;
+    private Rollup[] rollups = null;
 
     /** Initialize
      *  @param name Channel name
@@ -60,4 +61,18 @@ public class RDBWriteChannel implements WriteChannel
     {
         this.meta = meta;
     }
+
+    /** @param tiers Periods of the rollup tiers in seconds
+     *  @return Rollup accumulators for the tiers
+     */
+    Rollup[] getRollups(final int[] tiers)
+    {
+        if (rollups == null)
+        {
+            rollups = new Rollup[tiers.length];
+            for (int i=0; i<tiers.length; ++i)
+                rollups[i] = new Rollup(tiers[i]);
+        }
+        return rollups;
+    }
 }
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.writer.rdb;
+
+import java.time.Instant;
+
+import org.diirt.vtype.AlarmSeverity;
+
+/** Min/max/sum/count and highest severity of a channel's samples in one rollup tier
+ *
+ *  <p>The tier divides time into periods ('buckets') of fixed length,
+ *  aligned to the epoch.
+ *  The accumulator holds the samples added since it was last cleared,
+ *  which are all within one bucket.
+ *  The RDB merges them into what's already stored for that bucket,
+ *  so a bucket may be written in several parts, for example
+ *  on each flush or across restarts of the archive engine.
+ */
+public class Rollup
+{
+    /** Period in seconds */
+    final private int period;
+
+    /** Start of the current bucket in epoch seconds */
+    private long bucket;
+
+    private double min, max, sum;
+
+    private AlarmSeverity severity;
+
+    private int count = 0;
+
+    /** @param period Period of the tier in seconds */
+    public Rollup(final int period)
+    {
+        this.period = period;
+    }
+
+    /** @return Period of the tier in seconds */
+    public int getPeriod()
+    {
+        return period;
+    }
+
+    /** @param time Time stamp
+     *  @return Start of the bucket that contains the time stamp, in epoch seconds
+     */
+    public long getBucket(final Instant time)
+    {
+        return Math.floorDiv(time.getEpochSecond(), period) * period;
+    }
+
+    /** Add a value
+     *  @param time Time stamp of the value
+     *  @param value Value
+     *  @param severity Alarm severity of the value
+     *  @return <code>true</code> if value was added,
+     *          <code>false</code> if it is in a different bucket than the accumulated values,
+     *          which then need to be written and cleared before adding the value
+     */
+    public boolean add(final Instant time, final double value, final AlarmSeverity severity)
+    {
+        final long value_bucket = getBucket(time);
+        if (count <= 0)
+        {
+            bucket = value_bucket;
+            min = max = sum = value;
+            this.severity = severity;
+            count = 1;
+            return true;
+        }
+        if (value_bucket != bucket)
+            return false;
+        if (value < min)
+            min = value;
+        if (value > max)
+            max = value;
+        if (severity.ordinal() > this.severity.ordinal())
+            this.severity = severity;
+        sum += value;
+        ++count;
+        return true;
+    }
+
+    /** @return <code>true</code> if there are accumulated values */
+    public boolean hasData()
+    {
+        return count > 0;
+    }
+
+    /** @return Start of the bucket for the accumulated values */
+    public Instant getStart()
+    {
+        return Instant.ofEpochSecond(bucket);
+    }
+
+    /** @return Minimum of the accumulated values */
+    public double getMin()
+    {
+        return min;
+    }
+
+    /** @return Maximum of the accumulated values */
+    public double getMax()
+    {
+        return max;
+    }
+
+    /** @return Sum of the accumulated values */
+    public double getSum()
+    {
+        return sum;
+    }
+
+    /** @return Highest alarm severity of the accumulated values */
+    public AlarmSeverity getSeverity()
+    {
+        return severity;
+    }
+
+    /** @return Number of accumulated values */
+    public int getCount()
+    {
+        return count;
+    }
+
+    /** Clear accumulated values after they have been written */
+    public void clear()
+    {
+        count = 0;
+    }
+
+    @SuppressWarnings("nls")
+    @Override
+    public String toString()
+    {
+        if (count <= 0)
+            return "Rollup " + period + " s: -";
+        return "Rollup " + period + " s @ " + getStart() + ": " + min + " .. " + max +
+               ", avg " + (sum / count) + ", count " + count + ", " + severity;
+    }
+}
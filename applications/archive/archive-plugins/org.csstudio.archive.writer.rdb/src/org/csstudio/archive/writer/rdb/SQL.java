@@ -46,6 +46,9 @@ public class SQL
     final public String sample_insert_int;
     final public String sample_insert_string;
 
+    // 'sample_rollup' table
+    final public String rollup_merge;
+
     /** Initialize
      *  @param dialect RDB Dialect
      *  @param schema Schema prefix (May be ""), not including "."
@@ -110,6 +113,14 @@ public class SQL
                 "INSERT INTO " + schema + sample + " " +
                 " (channel_id, smpl_time, severity_id, status_id, str_val)" +
                 " VALUES (?,?,?,?,?)";
+            rollup_merge =
+                "MERGE INTO " + schema + "sample_rollup r" +
+                " USING (SELECT ? channel_id, ? tier_secs, ? smpl_time, ? min_val, ? max_val, ? sum_val, ? cnt, ? max_sevr FROM DUAL) n" +
+                " ON (r.channel_id=n.channel_id AND r.tier_secs=n.tier_secs AND r.smpl_time=n.smpl_time)" +
+                " WHEN MATCHED THEN UPDATE SET r.min_val=LEAST(r.min_val, n.min_val), r.max_val=GREATEST(r.max_val, n.max_val)," +
+                " r.sum_val=r.sum_val+n.sum_val, r.cnt=r.cnt+n.cnt, r.max_sevr=GREATEST(r.max_sevr, n.max_sevr)" +
+                " WHEN NOT MATCHED THEN INSERT (channel_id, tier_secs, smpl_time, min_val, max_val, sum_val, cnt, max_sevr)" +
+                " VALUES (n.channel_id, n.tier_secs, n.smpl_time, n.min_val, n.max_val, n.sum_val, n.cnt, n.max_sevr)";
             break;
         case PostgreSQL:
             // Nanosecs are listed last to preserve the order of common columns
@@ -133,6 +144,13 @@ public class SQL
                 "INSERT INTO " + schema + sample + " " +
                 "(channel_id, smpl_time, severity_id, status_id, str_val, nanosecs)" +
                 " VALUES (?,?,?,?,?,?)";
+            rollup_merge =
+                "INSERT INTO " + schema + "sample_rollup AS r" +
+                " (channel_id, tier_secs, smpl_time, min_val, max_val, sum_val, cnt, max_sevr)" +
+                " VALUES (?,?,?,?,?,?,?,?)" +
+                " ON CONFLICT (channel_id, tier_secs, smpl_time) DO UPDATE" +
+                " SET min_val=LEAST(r.min_val, EXCLUDED.min_val), max_val=GREATEST(r.max_val, EXCLUDED.max_val)," +
+                " sum_val=r.sum_val+EXCLUDED.sum_val, cnt=r.cnt+EXCLUDED.cnt, max_sevr=GREATEST(r.max_sevr, EXCLUDED.max_sevr)";
             break;
         case MySQL:
             // channel_id, smpl_time, severity_id, status_id are common columns.
@@ -158,6 +176,13 @@ public class SQL
                 "INSERT INTO " + schema + sample + " " +
                 "(channel_id, smpl_time, severity_id, status_id, str_val, nanosecs)" +
                 " VALUES (?,?,?,?,?,?)";
+            rollup_merge =
+                "INSERT INTO " + schema + "sample_rollup" +
+                " (channel_id, tier_secs, smpl_time, min_val, max_val, sum_val, cnt, max_sevr)" +
+                " VALUES (?,?,?,?,?,?,?,?)" +
+                " ON DUPLICATE KEY UPDATE" +
+                " min_val=LEAST(min_val, VALUES(min_val)), max_val=GREATEST(max_val, VALUES(max_val))," +
+                " sum_val=sum_val+VALUES(sum_val), cnt=cnt+VALUES(cnt), max_sevr=GREATEST(max_sevr, VALUES(max_sevr))";
             break;
 
         default:
@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.writer.rdb;
+
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/** Demo of the {@link PGCopyPreparedStatement} throughput
+ *
+ *  <p>Not a test, compares how fast samples can be
+ *  added to a text vs. binary COPY batch.
+ *  No database needed.
+ */
+@SuppressWarnings("nls")
+public class PGCopyPreparedStatementDemo
+{
+    public static void main(String[] args) throws Exception
+    {
+        final int rows = 1000000;
+        final Timestamp stamp = Timestamp.from(Instant.now());
+        // Each format twice, the second run after JIT warm-up
+        for (boolean binary : new boolean[] { false, true, false, true })
+        {
+            final PGCopyPreparedStatement statement = new PGCopyPreparedStatement(null,
+                    PGCopyPreparedStatementTest.INSERT, PGCopyPreparedStatementTest.getSampleColumns(), binary);
+            final long start = System.nanoTime();
+            for (int i=0; i<rows; ++i)
+                PGCopyPreparedStatementTest.addRow(statement, i % 1000, stamp, i * 0.1);
+            long bytes = 0;
+            try
+            (
+                final InputStream in = statement.writeBatch();
+            )
+            {
+                bytes = in.available();
+            }
+            final double secs = (System.nanoTime() - start) * 1e-9;
+            System.out.format("%-6s: %d rows in %.2f sec = %12.1f rows/sec, %d bytes\n",
+                              binary ? "Binary" : "Text", rows, secs, rows / secs, bytes);
+            statement.close();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.writer.rdb;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/** JUnit test of the {@link PGCopyPreparedStatement}
+ *
+ *  <p>Verifies the captured COPY byte stream, no database needed.
+ */
+@SuppressWarnings("nls")
+public class PGCopyPreparedStatementTest
+{
+    static final String INSERT =
+        "INSERT INTO sample (channel_id, smpl_time, severity_id, status_id, float_val, nanosecs, datatype, array_val)" +
+        " VALUES (?,?,?,?,?,?,?,?)";
+
+    /** @return Columns of the PostgreSQL 'sample' table */
+    static Map<String, String> getSampleColumns()
+    {
+        final Map<String, String> columns = new LinkedHashMap<>();
+        columns.put("channel_id", "int8");
+        columns.put("smpl_time", "timestamp");
+        columns.put("nanosecs", "int8");
+        columns.put("severity_id", "int8");
+        columns.put("status_id", "int8");
+        columns.put("num_val", "int4");
+        columns.put("float_val", "float8");
+        columns.put("str_val", "varchar");
+        columns.put("datatype", "bpchar");
+        columns.put("array_val", "bytea");
+        return columns;
+    }
+
+    static void addRow(final PGCopyPreparedStatement statement,
+                       final int channel, final Timestamp stamp, final double value) throws Exception
+    {
+        statement.setInt(1, channel);
+        statement.setTimestamp(2, stamp);
+        statement.setInt(3, 1);
+        statement.setInt(4, 2);
+        statement.setDouble(5, value);
+        statement.setInt(6, stamp.getNanos());
+        statement.setString(7, " ");
+        statement.setNull(8, Types.BLOB);
+        statement.addBatch();
+    }
+
+    @Test
+    public void testText() throws Exception
+    {
+        final PGCopyPreparedStatement statement = new PGCopyPreparedStatement(null, INSERT, getSampleColumns(), false);
+        final Timestamp stamp = Timestamp.valueOf("2017-03-04 05:06:07.123456789");
+        addRow(statement, 42, stamp, 3.14);
+        try
+        (
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(statement.writeBatch(), StandardCharsets.UTF_8));
+        )
+        {
+            final String line = reader.readLine();
+            // CSV in table column order
+            assertEquals("42,2017-03-04 05:06:07.123456789,123456789,1,2,,3.14,, ,", line);
+        }
+        statement.close();
+    }
+
+    @Test
+    public void testBinary() throws Exception
+    {
+        final PGCopyPreparedStatement statement = new PGCopyPreparedStatement(null, INSERT, getSampleColumns(), true);
+        assertTrue(statement.isBinary());
+        final Timestamp stamp = Timestamp.valueOf("2017-03-04 05:06:07.123456789");
+        addRow(statement, 42, stamp, 3.14);
+        // Second row with array data and non-ASCII text
+        statement.setInt(1, 43);
+        statement.setTimestamp(2, stamp);
+        statement.setInt(3, 1);
+        statement.setInt(4, 2);
+        statement.setDouble(5, -1.0);
+        statement.setInt(6, stamp.getNanos());
+        statement.setString(7, "\u00B5");
+        statement.setBytes(8, new byte[] { 1, 2, 3 });
+        statement.addBatch();
+
+        try
+        (
+            final DataInputStream in = new DataInputStream(statement.writeBatch());
+        )
+        {
+            // Header
+            final byte[] signature = new byte[11];
+            in.readFully(signature);
+            assertArrayEquals(new byte[] { 'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0 }, signature);
+            assertEquals(0, in.readInt());
+            assertEquals(0, in.readInt());
+
+            // Expected 'TIMESTAMP' value: Local time as microseconds since 2000
+            final LocalDateTime local = stamp.toLocalDateTime();
+            final long micros = (local.toEpochSecond(ZoneOffset.UTC) - 946684800L) * 1000000L + 123457;
+
+            for (int row=0; row<2; ++row)
+            {   // Fields in order of the INSERT, typed like the table columns
+                assertEquals(8, in.readShort());
+                assertEquals(8, in.readInt());
+                assertEquals(42 + row, in.readLong());
+                assertEquals(8, in.readInt());
+                assertEquals(micros, in.readLong());
+                assertEquals(8, in.readInt());
+                assertEquals(1, in.readLong());
+                assertEquals(8, in.readInt());
+                assertEquals(2, in.readLong());
+                assertEquals(8, in.readInt());
+                assertEquals(row == 0 ? 3.14 : -1.0, in.readDouble(), 0.0);
+                assertEquals(8, in.readInt());
+                assertEquals(123456789, in.readLong());
+                if (row == 0)
+                {
+                    assertEquals(1, in.readInt());
+                    assertEquals(' ', in.readByte());
+                    assertEquals(-1, in.readInt());
+                }
+                else
+                {
+                    assertEquals(2, in.readInt());
+                    final byte[] text = new byte[2];
+                    in.readFully(text);
+                    assertEquals("\u00B5", new String(text, StandardCharsets.UTF_8));
+                    assertEquals(3, in.readInt());
+                    final byte[] bytes = new byte[3];
+                    in.readFully(bytes);
+                    assertArrayEquals(new byte[] { 1, 2, 3 }, bytes);
+                }
+            }
+            // Trailer
+            assertEquals(-1, in.readShort());
+            assertEquals(-1, in.read());
+        }
+
+        // Cleared batch only has header and trailer
+        statement.clearBatch();
+        try
+        (
+            final InputStream in = statement.writeBatch();
+        )
+        {
+            assertEquals(19 + 2, in.available());
+        }
+        statement.close();
+    }
+
+    /** Internal "char" type is sent as one byte, not as text */
+    @Test
+    public void testBinaryChar() throws Exception
+    {
+        final Map<String, String> columns = new LinkedHashMap<>();
+        columns.put("flag", "char");
+        final PGCopyPreparedStatement statement = new PGCopyPreparedStatement(null, "INSERT INTO test (flag) VALUES (?)", columns, true);
+        statement.setString(1, "x");
+        statement.addBatch();
+        statement.setString(1, "");
+        statement.addBatch();
+        try
+        (
+            final DataInputStream in = new DataInputStream(statement.writeBatch());
+        )
+        {
+            in.skipBytes(19);
+            assertEquals(1, in.readShort());
+            assertEquals(1, in.readInt());
+            assertEquals('x', in.readByte());
+            assertEquals(1, in.readShort());
+            assertEquals(1, in.readInt());
+            assertEquals(0, in.readByte());
+            assertEquals(-1, in.readShort());
+        }
+
+        // More than one byte is not a "char"
+        statement.clearBatch();
+        statement.setString(1, "xy");
+        try
+        {
+            statement.addBatch();
+            fail("Accepted more than one character");
+        }
+        catch (SQLException ex)
+        {
+            assertTrue(ex.getMessage().contains("single ASCII character"));
+        }
+        statement.close();
+    }
+
+    /** Binary rows of fixed size columns all have the same size */
+    @Test
+    public void testBinaryRowSize() throws Exception
+    {
+        final Timestamp stamp = Timestamp.from(Instant.now());
+        final PGCopyPreparedStatement statement = new PGCopyPreparedStatement(null, INSERT, getSampleColumns(), true);
+        addRow(statement, 0, stamp, 0.0);
+        final int row_bytes;
+        try
+        (
+            final InputStream in = statement.writeBatch();
+        )
+        {
+            // Batch without rows has 19 bytes header, 2 bytes trailer
+            row_bytes = in.available() - 19 - 2;
+        }
+        assertTrue(row_bytes > 0);
+
+        statement.clearBatch();
+        final int rows = 10000;
+        for (int i=0; i<rows; ++i)
+            addRow(statement, i % 1000, stamp, i * 0.1);
+        try
+        (
+            final InputStream in = statement.writeBatch();
+        )
+        {
+            assertEquals(19 + rows * row_bytes + 2, in.available());
+        }
+        statement.close();
+    }
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.writer.rdb;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+
+import org.csstudio.archive.rdb.RDBArchivePreferences;
+import org.diirt.vtype.AlarmSeverity;
+import org.junit.Test;
+
+/** JUnit test of the {@link Rollup} and the rollup tier configuration
+ */
+@SuppressWarnings("nls")
+public class RollupUnitTest
+{
+    @Test
+    public void testBuckets()
+    {
+        final Rollup rollup = new Rollup(60);
+        assertFalse(rollup.hasData());
+
+        // Buckets are aligned to the epoch
+        assertEquals(1500000000 - 1500000000 % 60, rollup.getBucket(Instant.ofEpochSecond(1500000000)));
+        assertEquals(-60, rollup.getBucket(Instant.ofEpochSecond(-1)));
+
+        final Instant start = Instant.ofEpochSecond(1500000000 - 1500000000 % 60);
+        assertTrue(rollup.add(start.plusSeconds(10), 3.0, AlarmSeverity.NONE));
+        assertTrue(rollup.add(start.plusSeconds(20), 1.0, AlarmSeverity.MAJOR));
+        assertTrue(rollup.add(start.plusMillis(59999), 8.0, AlarmSeverity.MINOR));
+        assertTrue(rollup.hasData());
+        assertEquals(start, rollup.getStart());
+        assertEquals(1.0, rollup.getMin(), 0.0);
+        assertEquals(8.0, rollup.getMax(), 0.0);
+        assertEquals(12.0, rollup.getSum(), 0.0);
+        assertEquals(3, rollup.getCount());
+        // Highest severity is kept
+        assertEquals(AlarmSeverity.MAJOR, rollup.getSeverity());
+
+        // Next bucket is rejected until accumulated data is cleared
+        assertFalse(rollup.add(start.plusSeconds(60), 5.0, AlarmSeverity.NONE));
+        assertEquals(3, rollup.getCount());
+        rollup.clear();
+        assertFalse(rollup.hasData());
+        assertTrue(rollup.add(start.plusSeconds(60), 5.0, AlarmSeverity.NONE));
+        assertEquals(start.plusSeconds(60), rollup.getStart());
+        assertEquals(5.0, rollup.getMin(), 0.0);
+        assertEquals(5.0, rollup.getMax(), 0.0);
+        assertEquals(1, rollup.getCount());
+        assertEquals(AlarmSeverity.NONE, rollup.getSeverity());
+    }
+
+    @Test
+    public void testParseRollupTiers()
+    {
+        assertArrayEquals(new int[] { 60, 3600, 86400 }, RDBArchivePreferences.parseRollupTiers("60, 3600, 86400"));
+        // Sorted, without duplicates, any mix of comma and space
+        assertArrayEquals(new int[] { 60, 3600 }, RDBArchivePreferences.parseRollupTiers(" 3600 60,,3600 "));
+        // Invalid and non-positive periods are ignored
+        assertArrayEquals(new int[] { 60 }, RDBArchivePreferences.parseRollupTiers("sixty, 60, 0, -60"));
+        // Disabled
+        assertArrayEquals(new int[0], RDBArchivePreferences.parseRollupTiers(""));
+    }
+}
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.trends.databrowser2.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.PrintWriter;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.csstudio.archive.vtype.ArchiveVNumber;
+import org.csstudio.archive.vtype.ArchiveVStatistics;
+import org.diirt.vtype.AlarmSeverity;
+import org.junit.Test;
+
+/** JUnit test of the incremental {@link FormulaItem} computation
+ *
+ *  <p>Input samples are appended, dropped and merged,
+ *  and after each step the incrementally updated formula
+ *  must match a formula that computes all samples from scratch.
+ */
+@SuppressWarnings("nls")
+public class FormulaItemUnitTest
+{
+    /** Model item with samples that the test can change */
+    private static class InputItem extends ModelItem
+    {
+        final PlotSampleArray samples = new PlotSampleArray();
+
+        InputItem(final String name)
+        {
+            super(name);
+        }
+
+        /** Replace all samples, as done when merging archived data */
+        void set(final List<PlotSample> new_samples)
+        {
+            samples.lockForWriting();
+            try
+            {
+                samples.set(new ArrayList<>(new_samples));
+            }
+            finally
+            {
+                samples.unlockForWriting();
+            }
+        }
+
+        /** Append samples
+         *  @param drop Number of oldest samples to drop
+         *  @param newer Samples to append
+         */
+        void append(final int drop, final PlotSample... newer)
+        {
+            samples.update(drop, samples.size(), Arrays.asList(newer));
+        }
+
+        @Override
+        public PlotSamples getSamples()
+        {
+            return samples;
+        }
+
+        @Override
+        public void write(final PrintWriter writer)
+        {
+            // Not persisted
+        }
+    }
+
+    private static PlotSample sample(final double secs, final double value)
+    {
+        final long millis = Math.round(secs * 1000);
+        return new PlotSample("Test",
+            new ArchiveVNumber(Instant.ofEpochMilli(millis), AlarmSeverity.NONE, "OK", null, value));
+    }
+
+    private static PlotSample stats(final double secs, final double value)
+    {
+        final long millis = Math.round(secs * 1000);
+        return new PlotSample("Test",
+            new ArchiveVStatistics(Instant.ofEpochMilli(millis), AlarmSeverity.NONE, "OK", null,
+                                   value, value - 1, value + 1, 0.5, 10));
+    }
+
+    /** Assert that incremental result matches a full computation */
+    private static void checkIncremental(final FormulaItem formula, final FormulaInput[] inputs) throws Exception
+    {
+        assertTrue(formula.reevaluate());
+        final FormulaItem full = new FormulaItem("full", formula.getExpression(), inputs);
+        final PlotSamples expected = full.getSamples();
+        final PlotSamples actual = formula.getSamples();
+        assertEquals(expected.toString(), expected.size(), actual.size());
+        for (int i=0; i<expected.size(); ++i)
+        {
+            final PlotSample e = expected.get(i), a = actual.get(i);
+            assertEquals("Time of sample " + i, e.getPosition(), a.getPosition());
+            assertEquals("Value of sample " + i, e.getValue(), a.getValue(), 0.0);
+            assertEquals("Min of sample " + i, e.getMin(), a.getMin(), 0.0);
+            assertEquals("Max of sample " + i, e.getMax(), a.getMax(), 0.0);
+        }
+        // Reset the 'new samples' flags of the inputs
+        for (FormulaInput input : inputs)
+            input.getItem().getSamples().testAndClearNewSamplesFlag();
+    }
+
+    @Test
+    public void testIncrementalUpdates() throws Exception
+    {
+        final InputItem a = new InputItem("a");
+        final InputItem b = new InputItem("b");
+        a.set(Arrays.asList(sample(0, 1), sample(2, 2), stats(4, 3), stats(6, 4)));
+        b.set(Arrays.asList(sample(1, 10), sample(3, 20), sample(5, 30)));
+        final FormulaInput[] inputs = new FormulaInput[]
+        {
+            new FormulaInput(a, "a"),
+            new FormulaInput(b, "b"),
+        };
+        final FormulaItem formula = new FormulaItem("f", "a + 2*b", inputs);
+        assertEquals(7, formula.getSamples().size());
+
+        // Append to one input, then both
+        a.append(0, stats(7, 5));
+        checkIncremental(formula, inputs);
+        a.append(0, sample(8, 6), sample(8.5, 7));
+        b.append(0, sample(7.5, 40), sample(9, 50));
+        checkIncremental(formula, inputs);
+
+        // Append with the same time stamp as the last sample of the other input
+        b.append(0, sample(9.5, 60));
+        a.append(0, sample(9.5, 8));
+        checkIncremental(formula, inputs);
+
+        // Drop oldest samples like a ring buffer,
+        // while the other input has older samples
+        a.append(2, stats(10, 9), stats(11, 10));
+        checkIncremental(formula, inputs);
+        b.append(3, sample(12, 70));
+        checkIncremental(formula, inputs);
+
+        // Merge older samples into one input, which changes its revision
+        final List<PlotSample> merged = new ArrayList<>();
+        for (int i=0; i<a.samples.size(); ++i)
+            merged.add(a.samples.get(i));
+        merged.add(0, sample(3.5, 100));
+        merged.add(4, sample(7.2, 200));
+        a.set(merged);
+        checkIncremental(formula, inputs);
+
+        // Continue appending after the merge
+        a.append(0, sample(13, 11));
+        checkIncremental(formula, inputs);
+        b.append(1, sample(13.5, 80), sample(14, 90));
+        checkIncremental(formula, inputs);
+        // Drop the oldest sample of the input that starts earliest
+        a.append(1, sample(13.8, 12));
+        checkIncremental(formula, inputs);
+
+        // Replace the last sample, as done for the 'continuation' of a live sample
+        b.samples.update(0, b.samples.size()-1, Arrays.asList(sample(14.5, 100)));
+        checkIncremental(formula, inputs);
+
+        // Sample older than the newest sample of the other input
+        a.append(0, sample(14.2, 13));
+        checkIncremental(formula, inputs);
+    }
+}
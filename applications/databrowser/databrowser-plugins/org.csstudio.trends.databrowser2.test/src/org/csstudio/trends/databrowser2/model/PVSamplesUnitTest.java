@@ -10,9 +10,12 @@ package org.csstudio.trends.databrowser2.model;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.csstudio.archive.vtype.ArchiveVNumber;
 import org.diirt.util.time.Timestamp;
@@ -70,6 +73,33 @@ public class PVSamplesUnitTest
         System.out.println(samples.toString());
     }
 
+    /** Continuation to 'now' moves with the current time,
+     *  but that is no change to the data
+     */
+    @Test
+    public void testLiveChangeCount() throws Exception
+    {
+        final PVSamples samples = new PVSamples(new AtomicInteger(0));
+        samples.addLiveSample(TestHelper.makeValue(1));
+        samples.addLiveSample(TestHelper.makeValue(2));
+
+        // Live samples plus continuation until 'now'
+        assertEquals(3, samples.size());
+        final long changes = samples.getChangeCount();
+        assertTrue(changes >= 0);
+        final Instant now = samples.get(2).getPosition();
+        assertThat(samples.get(2).getValue(), equalTo(2.0));
+
+        Thread.sleep(10);
+        assertTrue(samples.get(2).getPosition().isAfter(now));
+        assertThat(samples.getChangeCount(), equalTo(changes));
+
+        // New live sample is a change
+        samples.addLiveSample(TestHelper.makeValue(3));
+        assertEquals(4, samples.size());
+        assertTrue(samples.getChangeCount() != changes);
+    }
+
     /** When 'monitoring' a PV, IOCs will send data with zero time stamps
      *  for records that have never been processed.
      *  Check that time stamps are patched to host time.
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.trends.databrowser2.model;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.csstudio.archive.vtype.ArchiveVStatistics;
+import org.csstudio.archive.vtype.VTypeHelper;
+import org.diirt.vtype.AlarmSeverity;
+import org.diirt.vtype.VStatistics;
+import org.junit.Test;
+
+/** JUnit test for PlotSampleColumns
+ */
+@SuppressWarnings("nls")
+public class PlotSampleColumnsUnitTest
+{
+    @Test
+    public void testRing() throws Exception
+    {
+        final PlotSampleColumns columns = new PlotSampleColumns(new AtomicInteger(0), 10);
+        for (int i=0; i<10; ++i)
+            assertFalse(columns.add(TestHelper.makePlotSample(i)));
+        assertEquals(10, columns.size());
+
+        // Adding more drops the oldest samples
+        assertTrue(columns.add(TestHelper.makePlotSample(10)));
+        assertTrue(columns.add(TestHelper.makePlotSample(11)));
+        assertEquals(10, columns.size());
+        for (int i=0; i<10; ++i)
+        {
+            final PlotSample sample = columns.get(i);
+            assertEquals(i+2, sample.getValue(), 0.0);
+            assertEquals(Instant.ofEpochSecond(i+2), sample.getPosition());
+            assertEquals("Test", sample.getSource());
+        }
+
+        // Shrinking keeps the newest samples
+        columns.setCapacity(5);
+        assertEquals(5, columns.size());
+        assertEquals(7.0, columns.get(0).getValue(), 0.0);
+        assertEquals(11.0, columns.get(4).getValue(), 0.0);
+
+        // Error samples are kept as they are
+        final PlotSample error = new PlotSample("Test", "Disconnected");
+        columns.add(error);
+        assertThat(columns.get(4), sameInstance(error));
+        assertEquals(11.0, columns.get(3).getValue(), 0.0);
+    }
+
+    @Test
+    public void testStatistics()
+    {
+        final PlotSampleColumns columns = new PlotSampleColumns(new AtomicInteger(0), 10);
+        final Instant time = Instant.ofEpochSecond(100, 42);
+        columns.add("Archive", new ArchiveVStatistics(time, AlarmSeverity.MINOR, "LOW", null, 3.0, 1.0, 5.0, 0.5, 7));
+        final PlotSample sample = columns.get(0);
+        assertThat(sample.getVType(), instanceOf(VStatistics.class));
+        assertEquals(time, sample.getPosition());
+        assertEquals(3.0, sample.getValue(), 0.0);
+        assertEquals(1.0, sample.getMin(), 0.0);
+        assertEquals(5.0, sample.getMax(), 0.0);
+        assertEquals(AlarmSeverity.MINOR, VTypeHelper.getSeverity(sample.getVType()));
+        assertEquals("LOW", VTypeHelper.getMessage(sample.getVType()));
+    }
+
+    @Test
+    public void testAccessors()
+    {
+        final AtomicInteger index = new AtomicInteger(0);
+        final PlotSampleColumns columns = new PlotSampleColumns(index, 10);
+        final Instant time = Instant.ofEpochSecond(100, 42);
+        columns.add("Archive", new ArchiveVStatistics(time, AlarmSeverity.MINOR, "LOW", null, 3.0, 1.0, 5.0, 0.5, 7));
+        columns.add(TestHelper.makePlotSample(101));
+        final PlotSample error = new PlotSample("Test", "Disconnected");
+        columns.add(error);
+
+        // Accessors match the samples
+        for (int i=0; i<columns.size(); ++i)
+        {
+            final PlotSample sample = columns.get(i);
+            assertEquals(PlotSampleColumns.toNanos(sample.getPosition()), columns.getNanos(i));
+            assertEquals(sample.getValue(), columns.getValue(i), 0.0);
+            assertEquals(sample.getMin(), columns.getMin(i), 0.0);
+            assertEquals(sample.getMax(), columns.getMax(i), 0.0);
+        }
+        assertEquals(1.0, columns.getMin(0), 0.0);
+        assertEquals(101.0, columns.getValue(1), 0.0);
+        assertTrue(Double.isNaN(columns.getMin(1)));
+
+        // Numbers have no other waveform elements
+        index.set(1);
+        for (int i=0; i<columns.size(); ++i)
+        {
+            final PlotSample sample = columns.get(i);
+            assertEquals(sample.getValue(), columns.getValue(i), 0.0);
+            assertEquals(sample.getMin(), columns.getMin(i), 0.0);
+        }
+        assertTrue(Double.isNaN(columns.getValue(1)));
+        assertTrue(Double.isNaN(columns.getMin(0)));
+    }
+
+    @Test
+    public void testMerge()
+    {
+        final AtomicInteger index = new AtomicInteger(0);
+        PlotSampleColumns samples = new PlotSampleColumns(index, 0);
+        samples = PlotSampleMerger.merge(samples, makeColumns(samples, 10, 20));
+        assertEquals(10, samples.size());
+
+        // Overlapping data replaces the old samples
+        samples = PlotSampleMerger.merge(samples, makeColumns(samples, 15, 18));
+        assertEquals(10, samples.size());
+        // Data before and after
+        samples = PlotSampleMerger.merge(samples, makeColumns(samples, 0, 5));
+        samples = PlotSampleMerger.merge(samples, makeColumns(samples, 25, 30));
+        assertEquals(20, samples.size());
+
+        final PlotSample reference[] = PlotSampleMerger.merge(
+            PlotSampleMerger.merge(
+                PlotSampleMerger.merge(
+                    PlotSampleMerger.merge(new PlotSample[0], TestHelper.makePlotSamples(10, 20)),
+                    TestHelper.makePlotSamples(15, 18)),
+                TestHelper.makePlotSamples(0, 5)),
+            TestHelper.makePlotSamples(25, 30));
+        assertEquals(reference.length, samples.size());
+        for (int i=0; i<reference.length; ++i)
+        {
+            assertEquals(reference[i].getPosition(), samples.get(i).getPosition());
+            assertEquals(reference[i].getValue(), samples.get(i).getValue(), 0.0);
+        }
+
+        assertEquals(4, samples.findSampleLessThan(PlotSampleColumns.toNanos(Instant.ofEpochSecond(10))));
+        assertEquals(7, samples.findSampleGreaterThan(PlotSampleColumns.toNanos(Instant.ofEpochSecond(11))));
+        assertEquals(-1, samples.findSampleGreaterThan(PlotSampleColumns.toNanos(Instant.ofEpochSecond(29))));
+    }
+
+    private PlotSampleColumns makeColumns(final PlotSampleColumns other, final int start, final int end)
+    {
+        final PlotSampleColumns columns = new PlotSampleColumns(other, end - start);
+        for (int i=start; i<end; ++i)
+            columns.add("Test", TestHelper.makeValue(i));
+        return columns;
+    }
+}
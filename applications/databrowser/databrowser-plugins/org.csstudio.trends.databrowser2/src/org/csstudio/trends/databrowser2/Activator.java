@@ -14,6 +14,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.csstudio.swt.rtplot.util.NamedThreadFactory;
+import org.csstudio.trends.databrowser2.preferences.Preferences;
 import org.csstudio.utility.singlesource.SingleSourcePlugin;
 import org.csstudio.utility.singlesource.UIHelper.UI;
 import org.eclipse.core.runtime.Platform;
@@ -48,6 +49,9 @@ public class Activator extends AbstractUIPlugin
 
     final public static ExecutorService thread_pool = Executors.newCachedThreadPool(new NamedThreadFactory("DataBrowserJobs"));
 
+    /** Bounded thread pool for reading archive data sources, created on first use */
+    private static ExecutorService archive_fetch_pool = null;
+
     /** Width of the display in pixels. Used to scale negative plot_bins */
     public static int display_pixel_width = 0;
 
@@ -108,6 +112,15 @@ public class Activator extends AbstractUIPlugin
         return thread_pool;
     }
 
+    /** @return Thread pool for reading archive data sources */
+    public static synchronized ExecutorService getArchiveFetchPool()
+    {
+        if (archive_fetch_pool == null)
+            archive_fetch_pool = Executors.newFixedThreadPool(Preferences.getArchiveFetchThreads(),
+                                                              new NamedThreadFactory("DataBrowserArchiveFetch"));
+        return archive_fetch_pool;
+    }
+
     /** Obtain image descriptor from file within plugin.
      *  @param path Path within plugin to image file
      *  @return {@link ImageDescriptor}
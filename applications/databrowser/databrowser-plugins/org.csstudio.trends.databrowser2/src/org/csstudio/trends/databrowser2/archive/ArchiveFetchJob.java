@@ -8,9 +8,14 @@
 package org.csstudio.trends.databrowser2.archive;
 
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
@@ -19,6 +24,7 @@ import org.csstudio.archive.reader.ArchiveReader;
 import org.csstudio.archive.reader.ArchiveRepository;
 import org.csstudio.archive.reader.UnknownChannelException;
 import org.csstudio.archive.reader.ValueIterator;
+import org.csstudio.archive.vtype.VTypeHelper;
 import org.csstudio.trends.databrowser2.Activator;
 import org.csstudio.trends.databrowser2.Messages;
 import org.csstudio.trends.databrowser2.model.ArchiveDataSource;
@@ -38,6 +44,9 @@ import org.eclipse.osgi.util.NLS;
  *  Actually spawns another thread so that the 'main' job can
  *  poll the progress monitor for cancellation and ask the secondary
  *  thread to cancel.
+ *  <p>
+ *  The data sources of the item are read concurrently,
+ *  their samples merged by time stamp.
  *  @author Kay Kasemir
  */
 @SuppressWarnings("nls")
@@ -46,6 +55,15 @@ public class ArchiveFetchJob extends Job
     /** Poll period in millisecs */
     private static final int POLL_PERIOD_MS = 1000;
 
+    /** Maximum number of samples passed to the item at once */
+    private static final int CHUNK_SIZE = 10000;
+
+    /** Period in millisecs for passing merged samples to the item while waiting for more */
+    private static final int DELIVERY_PERIOD_MS = 250;
+
+    /** Marker for the end of the samples from a data source */
+    private static final List<VType> END = Collections.emptyList();
+
     /**to manage concurrency on postgresql*/
     private final boolean concurrency;
 
@@ -58,6 +76,120 @@ public class ArchiveFetchJob extends Job
     /** Listener that's notified when (if) we completed OK */
     final private ArchiveFetchJobListener listener;
 
+    /** Reads samples from one archive data source
+     *
+     *  <p>Runs on the archive fetch pool and passes chunks
+     *  of samples to the {@link WorkerThread} which merges
+     *  the samples of all data sources.
+     */
+    private class SourceFetch implements Runnable
+    {
+        final private ArchiveDataSource archive;
+
+        final private int bins;
+
+        /** Chunks of samples, time-ordered, terminated by {@link ArchiveFetchJob#END} */
+        final private BlockingQueue<List<VType>> chunks = new LinkedBlockingQueue<>();
+
+        /** Archive reader that's currently queried.
+         *  Synchronize 'this' on access.
+         */
+        private ArchiveReader reader = null;
+
+        private volatile boolean cancelled = false;
+
+        // Set before END is queued
+        private String server_name = "";
+        private boolean unknown_channel = false;
+        private Exception error = null;
+        private volatile long samples = 0;
+
+        SourceFetch(final ArchiveDataSource archive, final int bins)
+        {
+            this.archive = archive;
+            this.bins = bins;
+        }
+
+        /** Request cancellation, including an ongoing archive request */
+        void cancel()
+        {
+            cancelled = true;
+            synchronized (this)
+            {
+                if (reader != null)
+                    reader.cancel();
+            }
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                if (cancelled)
+                    return;
+                final ArchiveReader the_reader = ArchiveRepository.getInstance().getArchiveReader(archive.getUrl());
+                synchronized (this)
+                {
+                    reader = the_reader;
+                }
+                // Job may have been cancelled while getting the reader
+                if (cancelled)
+                    return;
+                server_name = the_reader.getServerName();
+                the_reader.enableConcurrency(concurrency);
+                final ValueIterator value_iter;
+                if (item.getRequestType() == RequestType.RAW)
+                    value_iter = the_reader.getRawValues(archive.getKey(), item.getResolvedName(),
+                                                         start, end);
+                else
+                    value_iter = the_reader.getOptimizedValues(archive.getKey(), item.getResolvedName(),
+                                                               start, end, bins);
+                try
+                {
+                    List<VType> chunk = new ArrayList<>();
+                    while (!cancelled  &&  value_iter.hasNext())
+                    {
+                        chunk.add(value_iter.next());
+                        if (chunk.size() >= CHUNK_SIZE)
+                        {
+                            samples += chunk.size();
+                            chunks.add(chunk);
+                            chunk = new ArrayList<>();
+                        }
+                    }
+                    samples += chunk.size();
+                    if (! chunk.isEmpty())
+                        chunks.add(chunk);
+                }
+                finally
+                {
+                    value_iter.close();
+                }
+            }
+            catch (UnknownChannelException ex)
+            {
+                // Do not immediately notify about unknown channels. First search for the data in all archive
+                // sources and only report this kind of errors at the end
+                unknown_channel = true;
+            }
+            catch (Exception ex)
+            {
+                error = ex;
+            }
+            finally
+            {
+                synchronized (this)
+                {
+                    if (reader != null)
+                        reader.close();
+                    reader = null;
+                }
+                chunks.add(END);
+            }
+        }
+    }
+
     /** Thread that performs the actual background work.
      *
      *  Instead of directly accessing the archive, ArchiveFetchJob launches
@@ -65,16 +197,18 @@ public class ArchiveFetchJob extends Job
      *  can then poll the progress monitor for cancellation and if
      *  necessary interrupt the WorkerThread which might be 'stuck'
      *  in a long running operation.
+     *
+     *  The WorkerThread reads all archive data sources concurrently
+     *  on the archive fetch pool and merges their samples by time stamp,
+     *  passing them to the item in chunks as they arrive.
      */
     class WorkerThread implements Runnable
     {
         private String message = "";
         private volatile boolean cancelled = false;
 
-        /** Archive reader that's currently queried.
-         *  Synchronize 'this' on access.
-         */
-        private volatile ArchiveReader reader = null;
+        /** Data sources that are read */
+        private volatile SourceFetch[] fetches = new SourceFetch[0];
 
         /** @return Message that somehow indicates progress */
         public synchronized String getMessage()
@@ -83,14 +217,11 @@ public class ArchiveFetchJob extends Job
         }
 
         /** Request thread to cancel its operation */
-        public synchronized void cancel()
+        public void cancel()
         {
             cancelled = true;
-            synchronized (this)
-            {
-                if (reader != null)
-                    reader.cancel();
-            }
+            for (SourceFetch fetch : fetches)
+                fetch.cancel();
         }
 
         /** {@inheritDoc} */
@@ -99,7 +230,6 @@ public class ArchiveFetchJob extends Job
         {
             Activator.getLogger().log(Level.FINE, "Starting {0}", ArchiveFetchJob.this);
             final BenchmarkTimer timer = new BenchmarkTimer();
-            long samples = 0;
 
             // Number of bins. Negative values are scaling factor for display width
             int bins = Preferences.getPlotBins();
@@ -107,72 +237,31 @@ public class ArchiveFetchJob extends Job
                 bins = Activator.display_pixel_width * (- bins);
 
             final ArchiveDataSource archives[] = item.getArchiveDataSources();
-            List<ArchiveDataSource> sourcesWhereChannelDoesntExist = new ArrayList<>();
-            for (int i=0; i<archives.length && !cancelled; ++i)
+            final SourceFetch[] fetches = new SourceFetch[archives.length];
+            for (int i=0; i<archives.length; ++i)
+                fetches[i] = new SourceFetch(archives[i], bins);
+            this.fetches = fetches;
+            if (cancelled)
+                return;
+            for (SourceFetch fetch : fetches)
+                Activator.getArchiveFetchPool().submit(fetch);
+
+            try
             {
-                final ArchiveDataSource archive = archives[i];
-                final String url = archive.getUrl();
-                // Display "N/total", using '1' for the first sub-archive.
-                synchronized  (this)
-                {
-                    message = NLS.bind(Messages.ArchiveFetchDetailFmt,
-                            new Object[]
-                            {
-                                archive.getName(),
-                                (i+1),
-                                archives.length
-                            });
-                }
-                try
-                {
-                    final ArchiveReader the_reader;
-                    synchronized (this)
-                    {
-                        the_reader = reader = ArchiveRepository.getInstance().getArchiveReader(url);
-                    }
-                    the_reader.enableConcurrency(concurrency);
-                    final ValueIterator value_iter;
-                    try
-                    {
-                        if (item.getRequestType() == RequestType.RAW)
-                            value_iter = the_reader.getRawValues(archive.getKey(), item.getResolvedName(),
-                                                                 start, end);
-                        else
-                            value_iter = the_reader.getOptimizedValues(archive.getKey(), item.getResolvedName(),
-                                                                       start, end, bins);
-                    }
-                    catch (UnknownChannelException e)
-                    {
-                        // Do not immediately notify about unknown channels. First search for the data in all archive
-                        // sources and only report this kind of errors at the end
-                        sourcesWhereChannelDoesntExist.add(archives[i]);
-                        continue;
-                    }
-                    // Get samples into array
-                    final List<VType> result = new ArrayList<VType>();
-                    while (value_iter.hasNext())
-                        result.add(value_iter.next());
-                    samples += result.size();
-                    item.mergeArchivedSamples(the_reader.getServerName(), result);
-                    if (cancelled)
-                        break;
-                    value_iter.close();
-                }
-                catch (Exception ex)
-                {   // Tell listener unless it's the result of a 'cancel'?
-                    if (! cancelled)
-                        listener.archiveFetchFailed(ArchiveFetchJob.this, archive, ex);
-                    // Continue with the next data source
-                }
-                finally
-                {
-                    synchronized (this)
-                    {
-                        if (reader != null)
-                            reader.close();
-                        reader = null;
-                    }
-                }
+                merge(fetches);
+            }
+            catch (InterruptedException ex)
+            {
+                cancel();
+            }
+
+            long samples = 0;
+            final List<ArchiveDataSource> sourcesWhereChannelDoesntExist = new ArrayList<>();
+            for (SourceFetch fetch : fetches)
+            {
+                samples += fetch.samples;
+                if (fetch.unknown_channel)
+                    sourcesWhereChannelDoesntExist.add(fetch.archive);
             }
             if (!sourcesWhereChannelDoesntExist.isEmpty() && !cancelled)
             {
@@ -188,6 +277,117 @@ public class ArchiveFetchJob extends Job
                     new Object[] { ArchiveFetchJob.this, samples, timer });
         }
 
+        /** Merge samples from all data sources by time stamp
+         *
+         *  <p>Since each source provides its samples in time order,
+         *  the oldest of the next samples from all sources can be passed on
+         *  once each source that's still active provided its next sample.
+         *
+         *  @param fetches Data sources
+         *  @throws InterruptedException on interruption
+         */
+        private void merge(final SourceFetch[] fetches) throws InterruptedException
+        {
+            final int N = fetches.length;
+            @SuppressWarnings("unchecked")
+            final Deque<VType>[] pending = new Deque[N];
+            final boolean[] done = new boolean[N];
+            for (int i=0; i<N; ++i)
+                pending[i] = new ArrayDeque<>();
+            int completed = 0;
+            updateMessage(fetches, done, completed);
+
+            final List<VType> chunk = new ArrayList<>();
+            final List<String> chunk_sources = new ArrayList<>();
+            while (! cancelled)
+            {
+                // Wait until every active source has a pending sample
+                for (int i=0; i<N; ++i)
+                    while (!cancelled  &&  !done[i]  &&  pending[i].isEmpty())
+                    {
+                        final List<VType> received = fetches[i].chunks.poll(DELIVERY_PERIOD_MS, TimeUnit.MILLISECONDS);
+                        if (received == null)
+                            // Pass what's been merged so far while waiting for more
+                            deliver(chunk, chunk_sources);
+                        else if (received == END)
+                        {
+                            done[i] = true;
+                            updateMessage(fetches, done, ++completed);
+                            // Tell listener unless it's the result of a 'cancel'
+                            if (fetches[i].error != null  &&  !cancelled)
+                                listener.archiveFetchFailed(ArchiveFetchJob.this, fetches[i].archive, fetches[i].error);
+                        }
+                        else
+                            pending[i].addAll(received);
+                    }
+                if (cancelled)
+                    return;
+
+                // Pick the oldest sample
+                int oldest = -1;
+                Instant oldest_time = null;
+                for (int i=0; i<N; ++i)
+                {
+                    final VType sample = pending[i].peek();
+                    if (sample == null)
+                        continue;
+                    final Instant time = VTypeHelper.getTimestamp(sample);
+                    if (oldest_time == null  ||  time.compareTo(oldest_time) < 0)
+                    {
+                        oldest = i;
+                        oldest_time = time;
+                    }
+                }
+                if (oldest < 0)
+                    break; // All sources done
+                chunk.add(pending[oldest].poll());
+                chunk_sources.add(fetches[oldest].server_name);
+                if (chunk.size() >= CHUNK_SIZE)
+                    deliver(chunk, chunk_sources);
+            }
+            deliver(chunk, chunk_sources);
+        }
+
+        /** Pass merged samples to the item
+         *  @param chunk Samples, will be cleared
+         *  @param chunk_sources Source of each sample, will be cleared
+         */
+        private void deliver(final List<VType> chunk, final List<String> chunk_sources)
+        {
+            if (chunk.isEmpty()  ||  cancelled)
+                return;
+            item.mergeArchivedSamples(new ArrayList<>(chunk_sources), new ArrayList<>(chunk));
+            chunk.clear();
+            chunk_sources.clear();
+        }
+
+        /** Update message with names of the sources that are still read
+         *  @param fetches Data sources
+         *  @param done Which data sources are done
+         *  @param completed Number of completed sources
+         */
+        private void updateMessage(final SourceFetch[] fetches, final boolean[] done, final int completed)
+        {
+            final StringBuilder names = new StringBuilder();
+            for (int i=0; i<fetches.length; ++i)
+                if (! done[i])
+                {
+                    if (names.length() > 0)
+                        names.append(", ");
+                    names.append(fetches[i].archive.getName());
+                }
+            synchronized (this)
+            {
+                message = NLS.bind(Messages.ArchiveFetchDetailFmt,
+                        new Object[]
+                        {
+                            names.toString(),
+                            completed,
+                            fetches.length
+                        });
+            }
+        }
+
         @Override
         public String toString()
         {
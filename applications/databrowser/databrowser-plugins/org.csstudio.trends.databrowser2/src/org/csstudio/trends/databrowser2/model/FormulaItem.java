@@ -14,17 +14,16 @@ import java.util.List;
 
 import org.csstudio.apputil.formula.Formula;
 import org.csstudio.apputil.formula.VariableNode;
+import org.csstudio.apputil.formula.VectorContext;
 import org.csstudio.apputil.xml.DOMHelper;
 import org.csstudio.apputil.xml.XMLWriter;
 import org.csstudio.archive.vtype.ArchiveVNumber;
 import org.csstudio.archive.vtype.ArchiveVStatistics;
 import org.csstudio.archive.vtype.ArchiveVType;
-import org.csstudio.archive.vtype.VTypeHelper;
 import org.csstudio.trends.databrowser2.Messages;
 import org.csstudio.trends.databrowser2.persistence.XMLPersistence;
 import org.diirt.vtype.AlarmSeverity;
 import org.diirt.vtype.Display;
-import org.diirt.vtype.VStatistics;
 import org.diirt.vtype.VType;
 import org.diirt.vtype.ValueFactory;
 import org.w3c.dom.Element;
@@ -69,7 +68,7 @@ public class FormulaItem extends ModelItem
     private boolean formulaChange;
 
     /** Samples of the formula, computed from inputs.
-     *  Access must synchronize on samples (done inside PlotSampleArray) */
+     *  Only written by compute() */
     private PlotSampleArray samples = new PlotSampleArray();
 
     /** Initialize formula
@@ -85,7 +84,7 @@ public class FormulaItem extends ModelItem
         this.formulaChange = false;
         updateFormula(expression, inputs);
         // Compute initial values
-        compute();
+        compute(true);
     }
 
     /** @return Expression */
@@ -130,139 +129,395 @@ public class FormulaItem extends ModelItem
             for (int i=0; i<variables.length; ++i)
                 variables[i] = new VariableNode(inputs[i].getVariableName());
             this.formula = new Formula(expression, variables);
+            context = new VectorContext(variables);
+            // Need to compute from scratch
+            have_checkpoint = false;
         }
         fireItemLookChanged();
     }
 
+    /** Samples read from one input, converted to columns */
+    private static class InputColumns
+    {
+        /** Number of samples read */
+        int count = 0;
+
+        /** Time stamps of samples in nanoseconds since epoch */
+        long time[] = new long[0];
+
+        /** Numeric min/val/max of samples */
+        double min[] = new double[0], val[] = new double[0], max[] = new double[0];
+
+        /** Does sample have min/max? */
+        boolean stats[] = new boolean[0];
+
+        /** Read samples
+         *  @param samples Samples of input
+         *  @param start Index of first sample to read
+         */
+        void read(final PlotSamples samples, final int start)
+        {
+            count = Math.max(0, samples.size() - start);
+            if (time.length < count)
+            {
+                final int capacity = Math.max(count, time.length * 2);
+                time = new long[capacity];
+                min = new double[capacity];
+                val = new double[capacity];
+                max = new double[capacity];
+                stats = new boolean[capacity];
+            }
+            for (int i=0; i<count; ++i)
+            {
+                final int index = start + i;
+                time[i] = samples.getTimeNanos(index);
+                val[i] = samples.getValue(index);
+                min[i] = samples.getMin(index);
+                max[i] = samples.getMax(index);
+                stats[i] = ! (Double.isNaN(min[i])  ||  Double.isNaN(max[i]));
+                if (! stats[i])
+                {
+                    min[i] = max[i] = Double.NaN;
+                    // Use NaN for any non-number
+                    if (Double.isInfinite(val[i]))
+                        val[i] = Double.NaN;
+                }
+            }
+        }
+    }
+
+    /** Columns read from each input
+     *  @see #formula for synchronization
+     */
+    private InputColumns input_columns[] = new InputColumns[0];
+
+    /** Spreadsheet lines: Time stamp, and min/val/max of each input.
+     *  Re-used between computations to avoid allocations.
+     *  @see #formula for synchronization
+     */
+    private long line_time[] = new long[0];
+    private boolean line_min_max[] = new boolean[0];
+    private double line_min[][] = new double[0][], line_val[][] = new double[0][], line_max[][] = new double[0][];
+    private double res_min[] = new double[0], res_val[] = new double[0], res_max[] = new double[0];
+
+    /** Context for evaluating the formula on the spreadsheet columns
+     *  @see #formula for synchronization
+     */
+    private VectorContext context;
+
+    /** Do we have a checkpoint from which the computation can continue?
+     *  <p>
+     *  The checkpoint is the state of the computation before
+     *  the last sample of any input was used.
+     *  Up to that point, the result only depends on input samples
+     *  that will not change when new samples are appended.
+     *  @see #formula for synchronization
+     */
+    private boolean have_checkpoint = false;
+
+    /** Revision of each input's samples at the checkpoint */
+    private long checkpoint_revision[];
+
+    /** Index of the last sample used from each input at the checkpoint, or -1 */
+    private int checkpoint_index[];
+
+    /** Number of samples dropped by each input when the checkpoint index was determined */
+    private long checkpoint_dropped[];
+
+    /** Time of the last spreadsheet line before the checkpoint */
+    private long checkpoint_time;
+
+    /** Number of result samples computed up to the checkpoint */
+    private int checkpoint_results;
+
     /** Evaluate formula for each input sample
      *  <p>
      *  Iterates over the input samples in a manner of spreadsheet or
      *  staircase-interpolation: An input with a time stamp is valid
      *  until there's a sample with a greater time stamp.
+     *  <p>
+     *  Continues from the last checkpoint unless a full computation
+     *  is requested or the inputs changed other than by appending samples.
+     *  Input samples are first converted into columns,
+     *  then the formula is evaluated for all spreadsheet lines at once.
+     *
+     *  @param full Compute all samples, ignoring a checkpoint?
      */
-    private void compute()
+    private void compute(final boolean full)
     {
-        final List<PlotSample> result = new ArrayList<PlotSample>();
         final Display display = ValueFactory.displayNone();
+        final List<PlotSample> result;
+        final int keep, drop;
         // Prevent changes to formula & inputs
         synchronized (this)
         {
-            // 'Current' value for each input or null when no more
-            // In computation loop, values is actually moved to the _next_
-            // value
-            final VType values[] = new VType[inputs.length];
+            final int N = inputs.length;
+            if (input_columns.length != N)
+            {
+                input_columns = new InputColumns[N];
+                for (int i=0; i<N; ++i)
+                    input_columns[i] = new InputColumns();
+                checkpoint_revision = new long[N];
+                checkpoint_index = new int[N];
+                checkpoint_dropped = new long[N];
+                line_time = new long[0];
+                line_min = new double[N][0];
+                line_val = new double[N][0];
+                line_max = new double[N][0];
+                have_checkpoint = false;
+            }
 
-            // 'Current' numeric min/val/max of values
-            final double min[] = new double[inputs.length];
-            final double val[] = new double[inputs.length];
-            final double max[] = new double[inputs.length];
+            // Next sample to use from each input's columns
+            final int next[] = new int[N];
+            // Index of input's first column in the input's samples
+            final int start[] = new int[N];
+            // Earliest sample time of all inputs, MAX_VALUE if there are no samples
+            long earliest = Long.MAX_VALUE;
+            // First sample time of each input, and did it drop samples since the checkpoint?
+            final long first[] = new long[N];
+            final boolean shifted[] = new boolean[N];
 
-            // Determine first sample for each input
-            boolean more_input = false;
-            for (int i = 0; i < values.length; i++)
+            // Read inputs, continuing from checkpoint if possible
+            boolean resume = have_checkpoint  &&  !full;
+            for (int pass=0; pass<2; ++pass)
             {
-                // Initially, none have any data
-                min[i] = val[i] = max[i] = Double.NaN;
-                // Is there an initial value for any input?
-                values[i] = inputs[i].first();
-                if (values[i] != null)
-                    more_input = true;
+                for (int i=0; i<N; ++i)
+                {
+                    final PlotSamples samples = inputs[i].getItem().getSamples();
+                    samples.getLock().lock();
+                    try
+                    {
+                        start[i] = 0;
+                        next[i] = 0;
+                        shifted[i] = false;
+                        if (resume  &&  checkpoint_index[i] >= 0)
+                        {
+                            resume = samples.getRevision() == checkpoint_revision[i];
+                            // Locate sample that was last used, it moves when oldest samples are dropped
+                            final long index = checkpoint_index[i] - (samples.getDropped() - checkpoint_dropped[i]);
+                            if (index < 0  ||  index >= samples.size())
+                                resume = false;
+                            else
+                            {   // Re-read that sample as the current value, continue with the next one
+                                start[i] = (int) index;
+                                next[i] = 1;
+                            }
+                        }
+                        else if (resume)
+                            resume = samples.getRevision() == checkpoint_revision[i];
+                        if (!resume  &&  pass == 0)
+                            break;
+                        final InputColumns in = input_columns[i];
+                        in.read(samples, start[i]);
+                        // Samples that were added after the checkpoint must be
+                        // newer than the results that were kept
+                        if (resume  &&  next[i] < in.count  &&  in.time[next[i]] <= checkpoint_time)
+                        {
+                            resume = false;
+                            if (pass == 0)
+                                break;
+                        }
+                        first[i] = samples.size() > 0 ? samples.getTimeNanos(0) : Long.MAX_VALUE;
+                        earliest = Math.min(earliest, first[i]);
+                        shifted[i] = samples.getDropped() != checkpoint_dropped[i];
+                        checkpoint_revision[i] = samples.getRevision();
+                        checkpoint_dropped[i] = samples.getDropped();
+                    }
+                    finally
+                    {
+                        samples.getLock().unlock();
+                    }
+                }
+                // Results from before the oldest remaining sample of an input
+                // can be dropped, but only if no other input has older samples.
+                // Otherwise those results change and need to be computed again.
+                if (resume)
+                    for (int i=0; i<N; ++i)
+                        if (shifted[i]  &&  (first[i] == Long.MAX_VALUE  ||  first[i] > earliest))
+                        {
+                            resume = false;
+                            break;
+                        }
+                // Resumed, or computing all from the start?
+                if (resume  ||  pass == 1)
+                    break;
+                // Cannot resume, start over
+                earliest = Long.MAX_VALUE;
             }
+            keep = resume ? checkpoint_results : 0;
+            // Time of last kept result
+            final long kept_time = keep > 0 ? samples.getTimeNanos(keep-1) : Long.MIN_VALUE;
+
+            // 'Current' numeric min/val/max of values
+            final double min[] = new double[N];
+            final double val[] = new double[N];
+            final double max[] = new double[N];
+            int total = 0;
+            for (int i=0; i<N; ++i)
+            {
+                final InputColumns in = input_columns[i];
+                if (next[i] > 0)
+                {   // Resume with value of checkpoint sample
+                    min[i] = in.min[0];
+                    val[i] = in.val[0];
+                    max[i] = in.max[0];
+                }
+                else // Initially, none have any data
+                    min[i] = val[i] = max[i] = Double.NaN;
+                total += in.count;
+            }
+            ensureLineCapacity(total);
 
             // Compute result for each 'line in the spreadsheet'
-            Instant time;
-            while (more_input)
+            int lines = 0;
+            int checkpoint_lines = -1;
+            while (true)
             {   // Find oldest time stamp of all the inputs
-                time = null;
-                for (int i = 0; i < values.length; i++)
+                long time = Long.MAX_VALUE;
+                for (int i = 0; i < N; i++)
                 {
-                    if (values[i] == null)
+                    final InputColumns in = input_columns[i];
+                    if (next[i] >= in.count)
                         continue;
-                    final Instant sample_time = VTypeHelper.getTimestamp(values[i]);
-                    if (time == null  ||  sample_time.compareTo(time) < 0)
-                        time = sample_time;
+                    if (in.time[next[i]] < time)
+                        time = in.time[next[i]];
                 }
-                if (time == null)
-                {   // No input left with any data
-                    more_input = false;
+                if (time == Long.MAX_VALUE) // No input left with any data
                     break;
-                }
+
+                // Results after this line depend on samples that might be appended.
+                // Checkpoint is the state before using the last sample of any input
+                if (checkpoint_lines < 0)
+                    for (int i = 0; i < N; i++)
+                    {
+                        final InputColumns in = input_columns[i];
+                        if (next[i] == in.count - 1  &&  in.time[next[i]] <= time)
+                        {
+                            checkpoint_lines = lines;
+                            checkpoint_time = lines > 0 ? line_time[lines-1] : kept_time;
+                            for (int j = 0; j < N; j++)
+                                checkpoint_index[j] = start[j] + next[j] - 1;
+                            break;
+                        }
+                    }
 
                 // 'time' now defines the current spreadsheet line.
                 // Set min/max/val to sample from each input for that time.
-                // This might move values[i] resp. the inputs' iterators
-                // to the 'next' sample
+                // This might move next[i] to the 'next' sample
                 boolean have_min_max = true;
-                for (int i = 0; i < values.length; i++)
+                for (int i = 0; i < N; i++)
                 {
-                    if (values[i] == null) // No more data
+                    final InputColumns in = input_columns[i];
+                    if (next[i] >= in.count) // No more data
                     {
                         min[i] = val[i] = max[i] = Double.NaN;
                         have_min_max = false;
                     }
-                    else if (VTypeHelper.getTimestamp(values[i]).compareTo(time) <= 0)
+                    else if (in.time[next[i]] <= time)
                     {   // Input is valid before-and-up-to 'time'
-                        if (values[i] instanceof VStatistics)
-                        {
-                            final VStatistics mmv = (VStatistics)values[i];
-                            min[i] = mmv.getMin();
-                            val[i] = mmv.getAverage();
-                            max[i] = mmv.getMax();
-                        }
-                        else
-                        {
-                            min[i] = max[i] = Double.NaN;
-                            val[i] = VTypeHelper.toDouble(values[i]);
-                            // Use NaN for any non-number
-                            if (Double.isInfinite(val[i]))
-                                val[i] = Double.NaN;
+                        min[i] = in.min[next[i]];
+                        val[i] = in.val[next[i]];
+                        max[i] = in.max[next[i]];
+                        if (! in.stats[next[i]])
                             have_min_max = false;
-                        }
                         // Move to next input sample
-                        values[i] = inputs[i].next();
+                        ++next[i];
                     }
                     else
-                    {   // values[i].getTime() > time, so leave min/max/val[i]
+                    {   // Next sample time > time, so leave min/max/val[i]
                         // as is until 'time' catches up with the next input sample.
                         // Just update the have_min_max flag
                         if (Double.isNaN(min[i])  ||  Double.isNaN(max[i]))
                             have_min_max = false;
                     }
+                    line_min[i][lines] = min[i];
+                    line_val[i][lines] = val[i];
+                    line_max[i][lines] = max[i];
                 }
+                line_time[lines] = time;
+                line_min_max[lines] = have_min_max;
+                ++lines;
+            }
+            if (checkpoint_lines < 0)
+            {   // No data, or nothing new
+                checkpoint_lines = lines;
+                checkpoint_time = lines > 0 ? line_time[lines-1] : kept_time;
+                for (int j = 0; j < N; j++)
+                    checkpoint_index[j] = start[j] + next[j] - 1;
+            }
 
-                // Set variables[] from val to get res_val
-                for (int i = 0; i < values.length; i++)
-                    variables[i].setValue(val[i]);
-                // Evaluate formula for these inputs
-                final double res_val = formula.eval();
-                final VType value;
+            // Evaluate formula for all lines
+            context.setCount(lines);
+            for (int i = 0; i < N; i++)
+                context.setColumn(i, line_val[i]);
+            formula.eval(context, res_val);
+            boolean any_min_max = false;
+            for (int l = 0; l < lines  &&  !any_min_max; ++l)
+                any_min_max = line_min_max[l];
+            if (any_min_max)
+            {
+                for (int i = 0; i < N; i++)
+                    context.setColumn(i, line_min[i]);
+                formula.eval(context, res_min);
+                for (int i = 0; i < N; i++)
+                    context.setColumn(i, line_max[i]);
+                formula.eval(context, res_max);
+            }
 
-                if (have_min_max)
-                {   // Set variables[] from min
-                    for (int i = 0; i < values.length; i++)
-                        variables[i].setValue(min[i]);
-                    final double res_min = formula.eval();
-                    // Set variables[] from max
-                    for (int i = 0; i < values.length; i++)
-                        variables[i].setValue(max[i]);
-                    final double res_max = formula.eval();
+            result = new ArrayList<PlotSample>(lines);
+            for (int l = 0; l < lines; ++l)
+            {
+                final Instant time = Instant.ofEpochSecond(0, line_time[l]);
+                final VType value;
+                if (line_min_max[l])
                     value = new ArchiveVStatistics(time, AlarmSeverity.NONE, Messages.Formula,
-                            display, res_val, res_min, res_max, 0.0, 1);
-                }
+                            display, res_val[l], res_min[l], res_max[l], 0.0, 1);
                 else
                 {   // No min/max.
-                    if (Double.isNaN(res_val))
+                    if (Double.isNaN(res_val[l]))
                         value = new ArchiveVNumber(time, AlarmSeverity.INVALID, Messages.Formula,
-                                    display, res_val);
+                                    display, res_val[l]);
                     else
                         value = new ArchiveVNumber(time, AlarmSeverity.NONE, ArchiveVType.STATUS_OK,
-                                    display, res_val);
+                                    display, res_val[l]);
                 }
                 result.add(new PlotSample(Messages.Formula, value));
             }
+
+            // Drop results from before the oldest input sample,
+            // for example when live samples were dropped from a ring buffer
+            int old = 0;
+            if (earliest != Long.MAX_VALUE)
+                while (old < keep  &&  samples.getTimeNanos(old) < earliest)
+                    ++old;
+            drop = old;
+            checkpoint_results = keep + checkpoint_lines - drop;
+            have_checkpoint = true;
         }
         // Update PlotSamples
-        samples.set(result);
+        if (keep == 0)
+            samples.set(result);
+        else
+            samples.update(drop, keep, result);
+    }
+
+    /** @param lines Number of spreadsheet lines that need to fit into the columns */
+    private void ensureLineCapacity(final int lines)
+    {
+        if (line_time.length >= lines)
+            return;
+        final int capacity = Math.max(lines, line_time.length * 2);
+        line_time = new long[capacity];
+        line_min_max = new boolean[capacity];
+        for (int i = 0; i < line_val.length; i++)
+        {
+            line_min[i] = new double[capacity];
+            line_val[i] = new double[capacity];
+            line_max[i] = new double[capacity];
+        }
+        res_min = new double[capacity];
+        res_val = new double[capacity];
+        res_max = new double[capacity];
     }
 
     /** Re-evaluate the formula in case some of the input samples changed.
@@ -292,8 +547,9 @@ public class FormulaItem extends ModelItem
             return false;
         // Formula and inputs could actually change right now,
         // but we're about to re-compute anyway, and we'll lock while
-        // doing that
-        compute();
+        // doing that.
+        // Unless the formula changed, only handle new samples
+        compute(formula_change);
         return true;
     }
 
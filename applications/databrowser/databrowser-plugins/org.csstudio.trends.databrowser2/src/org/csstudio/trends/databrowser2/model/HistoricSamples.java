@@ -8,6 +8,7 @@
 package org.csstudio.trends.databrowser2.model;
 
 import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -36,7 +37,7 @@ public class HistoricSamples extends PlotSamples
     // No locking in here, all access is via PVSamples
 
     /** "All" historic samples */
-    private PlotSample samples[] = new PlotSample[0];
+    private PlotSampleColumns samples;
 
     /** If set, samples beyond this time are hidden from access */
     private Optional<Instant> border_time = Optional.empty();
@@ -52,6 +53,7 @@ public class HistoricSamples extends PlotSamples
     HistoricSamples(final AtomicInteger waveform_index)
     {
         this.waveform_index = waveform_index;
+        samples = new PlotSampleColumns(waveform_index, 0);
     }
 
     /** Define a new 'border' time beyond which no samples
@@ -64,7 +66,14 @@ public class HistoricSamples extends PlotSamples
             return;
         // New border, recompute, mark as 'new data'
         this.border_time = border_time;
+        final int old_size = visible_size;
         computeVisibleSize();
+        // Showing or hiding samples before the live data
+        if (visible_size != old_size)
+        {
+            revision.incrementAndGet();
+            changes.incrementAndGet();
+        }
     }
 
     /** Update visible size */
@@ -72,12 +81,12 @@ public class HistoricSamples extends PlotSamples
     {
         if (border_time.isPresent())
         {
-            final int last_index = PlotSampleSearch.findSampleLessThan(
-                    samples, border_time.get());
+            final int last_index = samples.findSampleLessThan(
+                    PlotSampleColumns.toNanos(border_time.get()));
             visible_size = (last_index < 0)   ?   0   :   last_index + 1;
         }
         else
-            visible_size = samples.length;
+            visible_size = samples.size();
     }
 
     /** {@inheritDoc} */
@@ -87,7 +96,35 @@ public class HistoricSamples extends PlotSamples
     {
         if (i >= visible_size)
             throw new IndexOutOfBoundsException("Index " + i + " exceeds visible size " + visible_size);
-        return samples[i];
+        return samples.get(i);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getTimeNanos(final int i)
+    {
+        return samples.getNanos(i);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getValue(final int i)
+    {
+        return samples.getValue(i);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getMin(final int i)
+    {
+        return samples.getMin(i);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getMax(final int i)
+    {
+        return samples.getMax(i);
     }
 
     /** {@inheritDoc} */
@@ -101,7 +138,7 @@ public class HistoricSamples extends PlotSamples
      * @return the number of samples, ignoring the border time
      */
     public int getRawSize() {
-        return samples.length;
+        return samples.size();
     }
 
     /**
@@ -111,7 +148,7 @@ public class HistoricSamples extends PlotSamples
      * @return the plot sample
      */
     public PlotSample getRawSample(int i) {
-        return samples[i];
+        return samples.get(i);
     }
 
     /** Merge newly received archive data into historic samples
@@ -119,20 +156,32 @@ public class HistoricSamples extends PlotSamples
      *  @param result Samples to add/merge
      */
     public void mergeArchivedData(final String source, final List<VType> result)
+    {
+        mergeArchivedData(Collections.nCopies(result.size(), source), result);
+    }
+
+    /** Merge newly received archive data from several sources into historic samples
+     *  @param sources Info about data source, one per sample
+     *  @param result Samples to add/merge
+     */
+    public void mergeArchivedData(final List<String> sources, final List<VType> result)
     {
         // Anything new at all?
-        if (result.size() <= 0)
+        final int N = result.size();
+        if (N <= 0)
             return;
-        // Turn IValues into PlotSamples
-        final PlotSample new_samples[] = new PlotSample[result.size()];
-        for (int i=0; i<new_samples.length; ++i)
-            new_samples[i] = new PlotSample(waveform_index, source, result.get(i));
+        // Turn IValues into columns
+        final PlotSampleColumns new_samples = new PlotSampleColumns(samples, N);
+        for (int i=0; i<N; ++i)
+            new_samples.add(sources.get(i), result.get(i));
         // Merge with existing samples
-        final PlotSample merged[] = PlotSampleMerger.merge(samples, new_samples);
+        final PlotSampleColumns merged = PlotSampleMerger.merge(samples, new_samples);
         if (merged == samples)
             return;
         samples = merged;
         computeVisibleSize();
+        revision.incrementAndGet();
+        changes.incrementAndGet();
         have_new_samples.set(true);
     }
 
@@ -140,6 +189,8 @@ public class HistoricSamples extends PlotSamples
     public void clear()
     {
         visible_size = 0;
-        samples = new PlotSample[0];
+        samples = new PlotSampleColumns(waveform_index, 0);
+        revision.incrementAndGet();
+        changes.incrementAndGet();
     }
 }
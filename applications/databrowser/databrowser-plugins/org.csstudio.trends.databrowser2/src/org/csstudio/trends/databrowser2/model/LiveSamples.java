@@ -9,10 +9,9 @@ package org.csstudio.trends.databrowser2.model;
 
 import java.util.concurrent.atomic.AtomicInteger;
 
-import org.csstudio.apputil.ringbuffer.RingBuffer;
 import org.csstudio.trends.databrowser2.preferences.Preferences;
 
-/** Ring buffer for 'live' samples.
+/** Ring buffer for 'live' samples, stored as {@link PlotSampleColumns}.
  *  <p>
  *  New samples are always added to the end of a ring buffer.
  *
@@ -23,8 +22,7 @@ public class LiveSamples extends PlotSamples
 {
     // No locking in here, all access is via PVSamples
 
-    private RingBuffer<PlotSample> samples =
-        new RingBuffer<PlotSample>(Preferences.getLiveSampleBufferSize());
+    final private PlotSampleColumns samples;
 
     /** Waveform index */
     final private AtomicInteger waveform_index;
@@ -32,6 +30,7 @@ public class LiveSamples extends PlotSamples
     LiveSamples(final AtomicInteger waveform_index)
     {
         this.waveform_index = waveform_index;
+        samples = new PlotSampleColumns(waveform_index, Preferences.getLiveSampleBufferSize());
     }
 
     /** @return Maximum number of samples in ring buffer */
@@ -51,13 +50,17 @@ public class LiveSamples extends PlotSamples
         if (new_capacity < 10)
             new_capacity = 10;
         samples.setCapacity(new_capacity);
+        revision.incrementAndGet();
+        changes.incrementAndGet();
     }
 
     /** @param sample Sample to add to ring buffer */
     void add(final PlotSample sample)
     {
         sample.setWaveformIndex(waveform_index);
-        samples.add(sample);
+        if (samples.add(sample))
+            dropped.incrementAndGet();
+        changes.incrementAndGet();
         have_new_samples.set(true);
     }
 
@@ -73,10 +76,36 @@ public class LiveSamples extends PlotSamples
         return samples.get(i);
     }
 
+    @Override
+    public long getTimeNanos(final int i)
+    {
+        return samples.getNanos(i);
+    }
+
+    @Override
+    public double getValue(final int i)
+    {
+        return samples.getValue(i);
+    }
+
+    @Override
+    public double getMin(final int i)
+    {
+        return samples.getMin(i);
+    }
+
+    @Override
+    public double getMax(final int i)
+    {
+        return samples.getMax(i);
+    }
+
     /** Delete all samples */
     public void clear()
     {
         samples.clear();
+        revision.incrementAndGet();
+        changes.incrementAndGet();
         have_new_samples.set(true);
     }
 }
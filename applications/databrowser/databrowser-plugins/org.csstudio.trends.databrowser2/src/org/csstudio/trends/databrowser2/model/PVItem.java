@@ -13,6 +13,7 @@ import static org.diirt.util.time.TimeDuration.ofSeconds;
 
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -434,12 +435,22 @@ public class PVItem extends ModelItem implements PVReaderListener<List<VType>>
      */
     public void mergeArchivedSamples(final String server_name,
             final List<VType> new_samples)
+    {
+        mergeArchivedSamples(Collections.nCopies(new_samples.size(), server_name), new_samples);
+    }
+
+    /** Add data retrieved from several archives to the 'historic' section
+     *  @param server_names Archive server that provided each sample
+     *  @param new_samples Historic data, time-ordered
+     */
+    public void mergeArchivedSamples(final List<String> server_names,
+            final List<VType> new_samples)
     {
         final boolean need_refresh;
         samples.lockForWriting();
         try
         {
-            samples.mergeArchivedData(server_name, new_samples);
+            samples.mergeArchivedData(server_names, new_samples);
             need_refresh = automaticRefresh && model.isPresent() &&
                            samples.isHistoryRefreshNeeded(model.get().getStartTime(), model.get().getEndTime());
         }
@@ -8,6 +8,7 @@
 package org.csstudio.trends.databrowser2.model;
 
 import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -126,6 +127,77 @@ public class PVSamples extends PlotSamples
         return live.get(index - num_old);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public long getTimeNanos(final int index)
+    {
+        final int num_old = history.size();
+        if (index < num_old)
+            return history.getTimeNanos(index);
+        if (index < getRawSize())
+            return live.getTimeNanos(index - num_old);
+        return super.getTimeNanos(index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getValue(final int index)
+    {
+        final int num_old = history.size();
+        if (index < num_old)
+            return history.getValue(index);
+        if (index < getRawSize())
+            return live.getValue(index - num_old);
+        return super.getValue(index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getMin(final int index)
+    {
+        final int num_old = history.size();
+        if (index < num_old)
+            return history.getMin(index);
+        if (index < getRawSize())
+            return live.getMin(index - num_old);
+        return super.getMin(index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getMax(final int index)
+    {
+        final int num_old = history.size();
+        if (index < num_old)
+            return history.getMax(index);
+        if (index < getRawSize())
+            return live.getMax(index - num_old);
+        return super.getMax(index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getRevision()
+    {
+        return revision.get() + history.getRevision() + live.getRevision();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getChangeCount()
+    {
+        // Continuation of the last sample moves with the current time,
+        // which is allowed for the last sample without counting a change
+        return changes.get() + history.getChangeCount() + live.getChangeCount();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getDropped()
+    {
+        return live.getDropped();
+    }
+
     /** Test if samples changed since the last time
      *  <code>testAndClearNewSamplesFlag</code> was called.
      *  @return <code>true</code> if there were new samples
@@ -156,6 +228,16 @@ public class PVSamples extends PlotSamples
      */
     public void mergeArchivedData(final String source,
             final List<VType> result)
+    {
+        mergeArchivedData(Collections.nCopies(result.size(), source), result);
+    }
+
+    /** Add data retrieved from several archives to the 'historic' section
+     *  @param sources Source of each sample
+     *  @param result Historic data
+     */
+    public void mergeArchivedData(final List<String> sources,
+            final List<VType> result)
     {
         lockForWriting();
         try
@@ -165,7 +247,7 @@ public class PVSamples extends PlotSamples
                 emptyHistoryOnAdd = false;
                 history.clear();
             }
-            history.mergeArchivedData(source, result);
+            history.mergeArchivedData(sources, result);
         }
         finally
         {
@@ -195,7 +277,12 @@ public class PVSamples extends PlotSamples
             if (live.size() == 0  &&
                 VTypeHelper.getSeverity(sample.getVType()) == AlarmSeverity.UNDEFINED)
                 return;
+            final long live_dropped = live.getDropped();
             live.add(sample);
+            // Dropping the oldest live sample removes a sample
+            // after the history, not the oldest sample
+            if (live.getDropped() != live_dropped  &&  history.size() > 0)
+                revision.incrementAndGet();
             // History ends before the start of 'live' samples.
             // Adding a live sample might have moved the ring buffer,
             // so need to update whenever live data is extended.
@@ -7,6 +7,7 @@
  ******************************************************************************/
 package org.csstudio.trends.databrowser2.model;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -21,6 +22,40 @@ public class PlotSampleArray extends PlotSamples
     public void set(final List<PlotSample> samples)
     {
         this.samples = samples;
+        revision.incrementAndGet();
+        changes.incrementAndGet();
+    }
+
+    /** Update the newest samples.
+     *
+     *  <p>Takes the write lock.
+     *  Replacing more than the last sample changes the revision.
+     *
+     *  @param drop Number of oldest samples to remove
+     *  @param keep Number of samples to keep, including the dropped ones
+     *  @param newer Samples to add after the kept samples
+     */
+    public void update(final int drop, final int keep, final List<PlotSample> newer)
+    {
+        lockForWriting();
+        try
+        {
+            if (! (samples instanceof ArrayList))
+                samples = new ArrayList<>(samples);
+            if (samples.size() - keep > 1)
+                revision.incrementAndGet();
+            samples.subList(keep, samples.size()).clear();
+            samples.addAll(newer);
+            if (drop > 0)
+            {
+                samples.subList(0, drop).clear();
+                dropped.addAndGet(drop);
+            }
+        }
+        finally
+        {
+            unlockForWriting();
+        }
     }
 
     /** {@inheritDoc} */
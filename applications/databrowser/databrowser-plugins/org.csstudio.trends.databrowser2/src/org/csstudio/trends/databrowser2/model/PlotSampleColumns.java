@@ -0,0 +1,591 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.trends.databrowser2.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.csstudio.archive.vtype.ArchiveVNumber;
+import org.csstudio.archive.vtype.ArchiveVStatistics;
+import org.diirt.vtype.Alarm;
+import org.diirt.vtype.AlarmSeverity;
+import org.diirt.vtype.Display;
+import org.diirt.vtype.Time;
+import org.diirt.vtype.VNumber;
+import org.diirt.vtype.VStatistics;
+import org.diirt.vtype.VType;
+
+/** Column-oriented storage of {@link PlotSample}s
+ *  <p>
+ *  Time stamps are kept as long nanoseconds, numbers as doubles,
+ *  alarm severity, status, source and display as small indices.
+ *  A {@link PlotSample} is only created when a sample is requested via {@link #get(int)},
+ *  time stamp, value, minimum and maximum can be read without creating one.
+ *  Samples that cannot be represented that way, for example arrays or text,
+ *  are kept as the original {@link PlotSample}.
+ *  <p>
+ *  Acts as a ring buffer: Once the capacity is reached,
+ *  adding a sample replaces the oldest sample.
+ *  Arrays grow as needed up to the capacity.
+ *  <p>
+ *  No locking in here, access is via {@link PVSamples}.
+ */
+@SuppressWarnings("nls")
+class PlotSampleColumns
+{
+    /** Kind of sample */
+    private static final byte OBJECT = 0, DOUBLE = 1, FLOAT = 2, LONG = 3, INT = 4, SHORT = 5, BYTE = 6, STATISTICS = 7;
+
+    private static final AlarmSeverity[] severities = AlarmSeverity.values();
+
+    /** Status, source and display, referenced by index.
+     *  <p>
+     *  Only grows, so it can be shared by columns
+     *  that are merged.
+     */
+    private static class Table
+    {
+        final List<Object> entries = new ArrayList<>();
+        final Map<String, Integer> strings = new HashMap<>();
+        int last_display = -1;
+
+        /** @param text Text to look up or add
+         *  @return Index or -1 if table is full
+         */
+        int getText(final String text)
+        {
+            final Integer index = strings.get(text);
+            if (index != null)
+                return index;
+            final int added = add(text);
+            if (added >= 0)
+                strings.put(text, added);
+            return added;
+        }
+
+        /** @param display Display to look up or add
+         *  @return Index or -1 if table is full
+         */
+        int getDisplay(final Display display)
+        {
+            // Display info rarely changes, so only compare with the last one
+            if (last_display >= 0  &&  isSameDisplay((Display) entries.get(last_display), display))
+                return last_display;
+            final int added = add(display);
+            if (added >= 0)
+                last_display = added;
+            return added;
+        }
+
+        private int add(final Object entry)
+        {
+            if (entries.size() > Short.MAX_VALUE)
+                return -1;
+            entries.add(entry);
+            return entries.size() - 1;
+        }
+
+        private static boolean isSameDisplay(final Display a, final Display b)
+        {
+            if (a == b)
+                return true;
+            if (a == null  ||  b == null)
+                return false;
+            return Objects.equals(a.getUnits(), b.getUnits())  &&
+                   Objects.equals(a.getFormat(), b.getFormat())  &&
+                   Objects.equals(a.getLowerDisplayLimit(), b.getLowerDisplayLimit())  &&
+                   Objects.equals(a.getUpperDisplayLimit(), b.getUpperDisplayLimit())  &&
+                   Objects.equals(a.getLowerCtrlLimit(), b.getLowerCtrlLimit())  &&
+                   Objects.equals(a.getUpperCtrlLimit(), b.getUpperCtrlLimit())  &&
+                   Objects.equals(a.getLowerAlarmLimit(), b.getLowerAlarmLimit())  &&
+                   Objects.equals(a.getUpperAlarmLimit(), b.getUpperAlarmLimit())  &&
+                   Objects.equals(a.getLowerWarningLimit(), b.getLowerWarningLimit())  &&
+                   Objects.equals(a.getUpperWarningLimit(), b.getUpperWarningLimit());
+        }
+    }
+
+    /** Waveform index used by created {@link PlotSample}s */
+    final private AtomicInteger waveform_index;
+
+    final private Table table;
+
+    /** Maximum number of samples */
+    private int capacity;
+
+    /** Index of oldest sample in the arrays, and number of samples */
+    private int start = 0, count = 0;
+
+    /** Columns, always allocated */
+    private long nanos[] = new long[0];
+    private double value[] = new double[0];
+    private byte kind[] = new byte[0];
+    private byte severity[] = new byte[0];
+    private short status[] = new short[0];
+    private short source[] = new short[0];
+    private short display[] = new short[0];
+
+    /** Columns for statistics, allocated when first needed */
+    private double min[], max[], stddev[];
+    private int nsamples[];
+
+    /** Samples kept as objects, allocated when first needed */
+    private PlotSample objects[];
+
+    /** @param waveform_index Waveform index
+     *  @param capacity Maximum number of samples
+     */
+    PlotSampleColumns(final AtomicInteger waveform_index, final int capacity)
+    {
+        this.waveform_index = waveform_index;
+        this.table = new Table();
+        this.capacity = capacity;
+    }
+
+    /** @param other Columns with which these columns will later be merged
+     *  @param capacity Maximum number of samples
+     */
+    PlotSampleColumns(final PlotSampleColumns other, final int capacity)
+    {
+        this.waveform_index = other.waveform_index;
+        this.table = other.table;
+        this.capacity = capacity;
+    }
+
+    /** @return Maximum number of samples */
+    int getCapacity()
+    {
+        return capacity;
+    }
+
+    /** @return Number of samples */
+    int size()
+    {
+        return count;
+    }
+
+    /** @param time Time stamp
+     *  @return Nanoseconds since epoch, limited to the range of a long
+     */
+    static long toNanos(final Instant time)
+    {
+        final long secs = time.getEpochSecond();
+        if (secs >= Long.MAX_VALUE / 1000000000L)
+            return Long.MAX_VALUE;
+        if (secs <= Long.MIN_VALUE / 1000000000L)
+            return Long.MIN_VALUE;
+        return secs * 1000000000L + time.getNano();
+    }
+
+    /** @param i Sample index 0 .. size()-1
+     *  @return Time stamp of sample in nanoseconds since epoch
+     */
+    long getNanos(final int i)
+    {
+        return nanos[index(i)];
+    }
+
+    /** @param i Sample index 0 .. size()-1
+     *  @return Value of sample, same as {@link PlotSample#getValue()}
+     */
+    double getValue(final int i)
+    {
+        final int p = index(i);
+        if (kind[p] == OBJECT)
+            return objects[p].getValue();
+        // Numbers have no waveform elements beyond index 0
+        if (waveform_index.get() != 0)
+            return Double.NaN;
+        return value[p];
+    }
+
+    /** @param i Sample index 0 .. size()-1
+     *  @return Minimum of sample or NaN, same as {@link PlotSample#getMin()}
+     */
+    double getMin(final int i)
+    {
+        final int p = index(i);
+        if (kind[p] == OBJECT)
+            return objects[p].getMin();
+        if (kind[p] != STATISTICS  ||  waveform_index.get() != 0)
+            return Double.NaN;
+        return min[p];
+    }
+
+    /** @param i Sample index 0 .. size()-1
+     *  @return Maximum of sample or NaN, same as {@link PlotSample#getMax()}
+     */
+    double getMax(final int i)
+    {
+        final int p = index(i);
+        if (kind[p] == OBJECT)
+            return objects[p].getMax();
+        if (kind[p] != STATISTICS  ||  waveform_index.get() != 0)
+            return Double.NaN;
+        return max[p];
+    }
+
+    /** @param i Sample index 0 .. size()-1
+     *  @return Sample
+     */
+    PlotSample get(final int i)
+    {
+        if (i < 0  ||  i >= count)
+            throw new IndexOutOfBoundsException("Index " + i + " exceeds size " + count);
+        final int p = index(i);
+        final byte k = kind[p];
+        if (k == OBJECT)
+            return objects[p];
+
+        final Instant time = Instant.ofEpochSecond(0, nanos[p]);
+        final AlarmSeverity sevr = severities[severity[p]];
+        final String stat = (String) table.entries.get(status[p]);
+        final Display disp = (Display) table.entries.get(display[p]);
+        final VType vtype;
+        switch (k)
+        {
+        case STATISTICS:
+            vtype = new ArchiveVStatistics(time, sevr, stat, disp, value[p], min[p], max[p], stddev[p], nsamples[p]);
+            break;
+        case FLOAT:
+            vtype = new ArchiveVNumber(time, sevr, stat, disp, Float.valueOf((float) value[p]));
+            break;
+        case LONG:
+            vtype = new ArchiveVNumber(time, sevr, stat, disp, Long.valueOf((long) value[p]));
+            break;
+        case INT:
+            vtype = new ArchiveVNumber(time, sevr, stat, disp, Integer.valueOf((int) value[p]));
+            break;
+        case SHORT:
+            vtype = new ArchiveVNumber(time, sevr, stat, disp, Short.valueOf((short) value[p]));
+            break;
+        case BYTE:
+            vtype = new ArchiveVNumber(time, sevr, stat, disp, Byte.valueOf((byte) value[p]));
+            break;
+        default:
+            vtype = new ArchiveVNumber(time, sevr, stat, disp, Double.valueOf(value[p]));
+        }
+        return new PlotSample(waveform_index, (String) table.entries.get(source[p]), vtype);
+    }
+
+    /** @param sample Sample to add
+     *  @return <code>true</code> if the oldest sample was dropped to make room
+     */
+    boolean add(final PlotSample sample)
+    {
+        return add(sample.getSource(), sample.getVType(), sample);
+    }
+
+    /** @param source Source of the sample
+     *  @param value Value to add
+     *  @return <code>true</code> if the oldest sample was dropped to make room
+     */
+    boolean add(final String source, final VType value)
+    {
+        return add(source, value, null);
+    }
+
+    /** @param src Source of the sample
+     *  @param vtype Value to add
+     *  @param sample Sample for value or <code>null</code> to create when needed
+     *  @return <code>true</code> if the oldest sample was dropped to make room
+     */
+    private boolean add(final String src, final VType vtype, final PlotSample sample)
+    {
+        if (capacity <= 0)
+            return false;
+        final boolean drop;
+        if (count < capacity)
+        {
+            if (count >= nanos.length)
+                resize(Math.min(capacity, Math.max(16, 2 * nanos.length)));
+            drop = false;
+            ++count;
+        }
+        else
+        {   // Replace oldest sample
+            start = (start + 1) % nanos.length;
+            drop = true;
+        }
+        final int p = index(count - 1);
+        if (! set(p, src, vtype))
+        {
+            if (objects == null)
+                objects = new PlotSample[nanos.length];
+            final PlotSample obj = sample != null ? sample : new PlotSample(waveform_index, src, vtype);
+            kind[p] = OBJECT;
+            objects[p] = obj;
+            nanos[p] = toNanos(obj.getPosition());
+            value[p] = Double.NaN;
+            return drop;
+        }
+        if (objects != null)
+            objects[p] = null;
+        return drop;
+    }
+
+    /** Set columns from value
+     *  @param p Array index
+     *  @param src Source of the sample
+     *  @param vtype Value
+     *  @return <code>true</code> if value was placed in columns, <code>false</code> if it needs to be kept as object
+     */
+    private boolean set(final int p, final String src, final VType vtype)
+    {
+        if (! (vtype instanceof Time  &&  vtype instanceof Alarm))
+            return false;
+        final Time time = (Time) vtype;
+        final Instant stamp = time.getTimestamp();
+        // Only handle time stamps that can be restored as they are
+        if (stamp == null  ||  stamp.getEpochSecond() <= 0  ||  ! time.isTimeValid()  ||
+            stamp.getEpochSecond() >= Long.MAX_VALUE / 1000000000L  ||
+            (time.getTimeUserTag() != null  &&  time.getTimeUserTag() != 0))
+            return false;
+        final Alarm alarm = (Alarm) vtype;
+        if (alarm.getAlarmSeverity() == null  ||  alarm.getAlarmName() == null)
+            return false;
+
+        final byte k;
+        if (vtype instanceof VStatistics)
+        {
+            final VStatistics stats = (VStatistics) vtype;
+            if (stats.getAverage() == null  ||  stats.getMin() == null  ||  stats.getMax() == null  ||
+                stats.getStdDev() == null  ||  stats.getNSamples() == null)
+                return false;
+            if (min == null)
+            {
+                min = new double[nanos.length];
+                max = new double[nanos.length];
+                stddev = new double[nanos.length];
+                nsamples = new int[nanos.length];
+            }
+            value[p] = stats.getAverage();
+            min[p] = stats.getMin();
+            max[p] = stats.getMax();
+            stddev[p] = stats.getStdDev();
+            nsamples[p] = stats.getNSamples();
+            k = STATISTICS;
+        }
+        else if (vtype instanceof VNumber)
+        {
+            final Number number = ((VNumber) vtype).getValue();
+            if (number instanceof Double)
+                k = DOUBLE;
+            else if (number instanceof Float)
+                k = FLOAT;
+            else if (number instanceof Long)
+            {   // Only if double holds the exact value
+                if ((long) number.doubleValue() != number.longValue())
+                    return false;
+                k = LONG;
+            }
+            else if (number instanceof Integer)
+                k = INT;
+            else if (number instanceof Short)
+                k = SHORT;
+            else if (number instanceof Byte)
+                k = BYTE;
+            else
+                return false;
+            value[p] = number.doubleValue();
+        }
+        else
+            return false;
+
+        final Display disp = vtype instanceof Display ? (Display) vtype : null;
+        final int stat_index = table.getText(alarm.getAlarmName());
+        final int src_index = table.getText(src);
+        final int disp_index = table.getDisplay(disp);
+        if (stat_index < 0  ||  src_index < 0  ||  disp_index < 0)
+            return false;
+        kind[p] = k;
+        nanos[p] = toNanos(stamp);
+        severity[p] = (byte) alarm.getAlarmSeverity().ordinal();
+        status[p] = (short) stat_index;
+        source[p] = (short) src_index;
+        display[p] = (short) disp_index;
+        return true;
+    }
+
+    /** Append samples from other columns
+     *  @param other Columns that share the table with these columns
+     *  @param first First sample in other columns to add
+     *  @param num Number of samples to add
+     */
+    void append(final PlotSampleColumns other, final int first, final int num)
+    {
+        if (other.table != table)
+            throw new IllegalArgumentException("Cannot append columns that use a different table");
+        if (count + num > capacity)
+            throw new IllegalArgumentException("Cannot append " + num + " samples to " + count + " with capacity " + capacity);
+        if (count + num > nanos.length)
+            resize(count + num);
+        // Copy in sections that don't wrap, neither in source nor destination
+        int done = 0;
+        while (done < num)
+        {
+            final int src = other.index(first + done);
+            final int dst = index(count);
+            final int n = Math.min(num - done, Math.min(other.nanos.length - src, nanos.length - dst));
+            System.arraycopy(other.nanos, src, nanos, dst, n);
+            System.arraycopy(other.value, src, value, dst, n);
+            System.arraycopy(other.kind, src, kind, dst, n);
+            System.arraycopy(other.severity, src, severity, dst, n);
+            System.arraycopy(other.status, src, status, dst, n);
+            System.arraycopy(other.source, src, source, dst, n);
+            System.arraycopy(other.display, src, display, dst, n);
+            if (other.min != null)
+            {
+                if (min == null)
+                {
+                    min = new double[nanos.length];
+                    max = new double[nanos.length];
+                    stddev = new double[nanos.length];
+                    nsamples = new int[nanos.length];
+                }
+                System.arraycopy(other.min, src, min, dst, n);
+                System.arraycopy(other.max, src, max, dst, n);
+                System.arraycopy(other.stddev, src, stddev, dst, n);
+                System.arraycopy(other.nsamples, src, nsamples, dst, n);
+            }
+            if (other.objects != null)
+            {
+                if (objects == null)
+                    objects = new PlotSample[nanos.length];
+                System.arraycopy(other.objects, src, objects, dst, n);
+            }
+            else if (objects != null)
+                for (int i=0; i<n; ++i)
+                    objects[dst + i] = null;
+            count += n;
+            done += n;
+        }
+    }
+
+    /** Set new capacity, preserving the newest samples
+     *  @param new_capacity New sample count capacity
+     *  @throws Exception on out-of-memory error
+     */
+    void setCapacity(final int new_capacity) throws Exception
+    {
+        try
+        {
+            if (count > new_capacity)
+            {   // Drop oldest samples
+                start = index(count - new_capacity);
+                count = new_capacity;
+            }
+            capacity = new_capacity;
+            resize(Math.min(capacity, Math.max(count, nanos.length)));
+        }
+        catch (OutOfMemoryError ex)
+        {
+            throw new Exception("Cannot allocate buffer for " + new_capacity + " samples", ex);
+        }
+    }
+
+    /** Delete all samples */
+    void clear()
+    {
+        start = count = 0;
+        if (objects != null)
+            objects = new PlotSample[nanos.length];
+    }
+
+    /** @param goal Time in nanoseconds since epoch
+     *  @return Index of last sample with time &lt; goal, or -1
+     */
+    int findSampleLessThan(final long goal)
+    {
+        // Find first sample >= goal
+        int low = 0, high = count;
+        while (low < high)
+        {
+            final int mid = (low + high) >>> 1;
+            if (getNanos(mid) < goal)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low - 1;
+    }
+
+    /** @param goal Time in nanoseconds since epoch
+     *  @return Index of first sample with time &gt; goal, or -1
+     */
+    int findSampleGreaterThan(final long goal)
+    {
+        int low = 0, high = count;
+        while (low < high)
+        {
+            final int mid = (low + high) >>> 1;
+            if (getNanos(mid) <= goal)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low < count ? low : -1;
+    }
+
+    /** @param i Sample index 0 .. size()-1
+     *  @return Index into arrays
+     */
+    private int index(final int i)
+    {
+        final int p = start + i;
+        return p < nanos.length ? p : p - nanos.length;
+    }
+
+    /** Re-allocate arrays, moving oldest sample to start of arrays
+     *  @param length New array length, must be &ge; count
+     */
+    private void resize(final int length)
+    {
+        if (length == nanos.length  &&  start == 0)
+            return;
+        final int p = index(0);
+        nanos = unwrap(nanos, new long[length], p);
+        value = unwrap(value, new double[length], p);
+        kind = unwrap(kind, new byte[length], p);
+        severity = unwrap(severity, new byte[length], p);
+        status = unwrap(status, new short[length], p);
+        source = unwrap(source, new short[length], p);
+        display = unwrap(display, new short[length], p);
+        if (min != null)
+        {
+            min = unwrap(min, new double[length], p);
+            max = unwrap(max, new double[length], p);
+            stddev = unwrap(stddev, new double[length], p);
+            nsamples = unwrap(nsamples, new int[length], p);
+        }
+        if (objects != null)
+            objects = unwrap(objects, new PlotSample[length], p);
+        start = 0;
+    }
+
+    /** @param src Source array
+     *  @param dst Destination array
+     *  @param p Index of oldest sample in source
+     *  @return Destination array with samples starting at index 0
+     */
+    private <T> T unwrap(final T src, final T dst, final int p)
+    {
+        final int length = java.lang.reflect.Array.getLength(src);
+        if (length > 0)
+        {
+            final int first = Math.min(count, length - p);
+            System.arraycopy(src, p, dst, 0, first);
+            System.arraycopy(src, 0, dst, first, count - first);
+        }
+        return dst;
+    }
+}
@@ -98,4 +98,58 @@ public class PlotSampleMerger
 
         throw new Error("Cannot handle this case");  //$NON-NLS-1$
     }
+
+    /** Add newly received samples to existing samples.
+     *  <p>
+     *  Same as {@link #merge(PlotSample[], PlotSample[])},
+     *  but copying sections of the columns.
+     *
+     *  @param old Existing data
+     *  @param add Newly received data, sharing the table of the old data
+     *  @return Columns that combine new and old data
+     */
+    static PlotSampleColumns merge(final PlotSampleColumns old, final PlotSampleColumns add)
+    {
+        // If one is empty, return the other as is:
+        if (old == null  ||  old.size() <= 0)
+            return add;
+        if (add == null  ||  add.size() <= 0)
+            return old;
+        final int No = old.size();
+        final int Na = add.size();
+        final long old_start = old.getNanos(0);
+        final long add_start = add.getNanos(0);
+        final long add_end = add.getNanos(Na-1);
+
+        // All new samples are before the old samples
+        if (add_end < old_start)
+        {
+            final PlotSampleColumns result = new PlotSampleColumns(old, Na + No);
+            result.append(add, 0, Na);
+            result.append(old, 0, No);
+            return result;
+        }
+        // New samples start before, maybe overlap
+        if (add_start <= old_start)
+        {
+            final int x = old.findSampleGreaterThan(add_end);
+            if (x < 0)
+                return add;
+            final int copy_old = No - x;
+            final PlotSampleColumns result = new PlotSampleColumns(old, Na + copy_old);
+            result.append(add, 0, Na);
+            result.append(old, x, copy_old);
+            return result;
+        }
+        // New samples start within old time sample range
+        final int l = old.findSampleLessThan(add_start);
+        final int r = old.findSampleGreaterThan(add_end);
+        final int Nl = (l < 0) ? 0 : l + 1;
+        final int Nr = (r < 0) ? 0 : No-r;
+        final PlotSampleColumns result = new PlotSampleColumns(old, Nl + Na + Nr);
+        result.append(old, 0, Nl);
+        result.append(add, 0, Na);
+        result.append(old, r < 0 ? No : r, Nr);
+        return result;
+    }
 }
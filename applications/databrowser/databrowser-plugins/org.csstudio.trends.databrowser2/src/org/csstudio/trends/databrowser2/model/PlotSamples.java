@@ -9,6 +9,7 @@ package org.csstudio.trends.databrowser2.model;
 
 import java.time.Instant;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -29,6 +30,22 @@ abstract public class PlotSamples implements PlotDataProvider<Instant>
      */
     final protected AtomicBoolean have_new_samples = new AtomicBoolean();
 
+    /** To be incremented when samples change other than by
+     *  appending new samples or dropping the oldest samples
+     *  @see #getRevision()
+     */
+    final protected AtomicLong revision = new AtomicLong();
+
+    /** To be incremented when samples change in any way
+     *  @see #getChangeCount()
+     */
+    final protected AtomicLong changes = new AtomicLong();
+
+    /** To be incremented when oldest samples are dropped
+     *  @see #getDropped()
+     */
+    final protected AtomicLong dropped = new AtomicLong();
+
     /** Lock for writing */
     public void lockForWriting()
     {
@@ -38,6 +55,7 @@ abstract public class PlotSamples implements PlotDataProvider<Instant>
     /** Un-lock after writing */
     public void unlockForWriting()
     {
+        changes.incrementAndGet();
         lock.writeLock().unlock();
         have_new_samples.set(true);
     }
@@ -57,6 +75,29 @@ abstract public class PlotSamples implements PlotDataProvider<Instant>
     @Override
     abstract public PlotSample get(int index);
 
+    /** {@inheritDoc} */
+    @Override
+    public long getChangeCount()
+    {
+        return changes.get();
+    }
+
+    /** @param index Sample index, 0 .. size()-1
+     *  @return Time stamp of the sample in nanoseconds since epoch
+     */
+    public long getTimeNanos(final int index)
+    {
+        return PlotSampleColumns.toNanos(get(index).getPosition());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getPositionNumber(final int index)
+    {
+        final long nanos = getTimeNanos(index);
+        return Math.floorDiv(nanos, 1000000000L) + 1e-9*Math.floorMod(nanos, 1000000000L);
+    }
+
     /** Test if samples changed since the last time
      *  <code>testAndClearNewSamplesFlag</code> was called.
      *  @return <code>true</code> if there were new samples
@@ -66,6 +107,32 @@ abstract public class PlotSamples implements PlotDataProvider<Instant>
         return have_new_samples.get();
     }
 
+    /** Get revision of the samples.
+     *  <p>
+     *  Remains the same while new samples are appended
+     *  or oldest samples are dropped.
+     *  Changes when samples are inserted, replaced or removed
+     *  in other ways.
+     *  Users that only process newly appended samples
+     *  need to start over when the revision changes.
+     *  @return Revision of the samples
+     */
+    public long getRevision()
+    {
+        return revision.get();
+    }
+
+    /** Get number of oldest samples that have been dropped.
+     *  <p>
+     *  While the revision remains the same, the sample that was
+     *  at index <code>i</code> is now at index <code>i - (getDropped() - previously dropped)</code>.
+     *  @return Total number of samples dropped so far
+     */
+    public long getDropped()
+    {
+        return dropped.get();
+    }
+
     /** Test if samples changed since the last time this method was called.
      *  @return <code>true</code> if there were new samples
      */
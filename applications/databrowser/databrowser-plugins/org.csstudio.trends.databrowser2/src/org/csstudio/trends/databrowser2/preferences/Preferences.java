@@ -54,6 +54,7 @@ public class Preferences
             OPACITY = "opacity",
             TRACE_TYPE = "trace_type",
             ARCHIVE_FETCH_DELAY = "archive_fetch_delay",
+            ARCHIVE_FETCH_THREADS = "archive_fetch_threads",
             PLOT_BINS = "plot_bins", URLS = "urls", ARCHIVES = "archives",
             USE_DEFAULT_ARCHIVES = "use_default_archives",
             PROMPT_FOR_ERRORS = "prompt_for_errors",
@@ -163,6 +164,16 @@ public class Preferences
         return delay;
     }
 
+    /** @return Maximum number of archive data sources that are read concurrently */
+    public static int getArchiveFetchThreads()
+    {
+        int threads = 4;
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        if (prefs != null)
+            threads = prefs.getInt(Activator.PLUGIN_ID, ARCHIVE_FETCH_THREADS, threads, null);
+        return Math.max(1, threads);
+    }
+
     public static int getPlotBins()
     {
         final IPreferencesService prefs = Platform.getPreferencesService();
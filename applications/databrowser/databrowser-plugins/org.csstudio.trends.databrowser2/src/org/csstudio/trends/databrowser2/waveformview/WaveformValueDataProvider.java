@@ -7,6 +7,7 @@
  ******************************************************************************/
 package org.csstudio.trends.databrowser2.waveformview;
 
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -29,6 +30,8 @@ public class WaveformValueDataProvider implements PlotDataProvider<Double>
 
     private ListNumber numbers = null;
 
+    final private AtomicLong changes = new AtomicLong();
+
     /** {@inheritDoc} */
     @Override
     public Lock getLock()
@@ -52,6 +55,7 @@ public class WaveformValueDataProvider implements PlotDataProvider<Double>
         try
         {
             numbers = new_numbers;
+            changes.incrementAndGet();
         }
         finally
         {
@@ -59,6 +63,13 @@ public class WaveformValueDataProvider implements PlotDataProvider<Double>
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public long getChangeCount()
+    {
+        return changes.get();
+    }
+
      /** {@inheritDoc} */
     @Override
     public int size()
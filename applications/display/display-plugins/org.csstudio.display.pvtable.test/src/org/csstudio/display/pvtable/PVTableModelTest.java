@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.display.pvtable;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.csstudio.display.pvtable.model.PVTableItem;
+import org.csstudio.display.pvtable.model.PVTableModel;
+import org.csstudio.display.pvtable.model.PVTableModelListener;
+import org.junit.Test;
+
+/** JUnit test of the {@link PVTableModel} row index and change batches
+ *
+ *  <p>Uses comments, which do not connect to PVs.
+ */
+@SuppressWarnings("nls")
+public class PVTableModelTest
+{
+    @Test
+    public void testIndex()
+    {
+        final PVTableModel model = new PVTableModel();
+        final List<PVTableItem> items = new ArrayList<>();
+        for (int i=0; i<5; ++i)
+            items.add(model.addItem("#comment " + i));
+        for (int i=0; i<5; ++i)
+            assertThat(model.indexOf(items.get(i)), equalTo(i));
+
+        // Insert above row 2, rows below move down
+        final PVTableItem inserted = model.addItemAbove(items.get(2), "#inserted");
+        assertThat(model.indexOf(inserted), equalTo(2));
+        assertThat(model.indexOf(items.get(1)), equalTo(1));
+        assertThat(model.indexOf(items.get(2)), equalTo(3));
+        assertThat(model.indexOf(items.get(4)), equalTo(5));
+
+        // Remove row 0, rows move up
+        model.removeItem(items.get(0));
+        assertThat(model.indexOf(items.get(0)), equalTo(-1));
+        assertThat(model.indexOf(items.get(1)), equalTo(0));
+        assertThat(model.indexOf(inserted), equalTo(1));
+        for (int row=0; row<model.getItemCount(); ++row)
+            assertThat(model.indexOf(model.getItem(row)), equalTo(row));
+
+        model.dispose();
+        assertThat(model.indexOf(items.get(1)), equalTo(-1));
+    }
+
+    @Test(timeout=5000)
+    public void testChangeBatch() throws Exception
+    {
+        final PVTableModel model = new PVTableModel();
+        final List<PVTableItem> items = new ArrayList<>();
+        for (int i=0; i<100; ++i)
+            items.add(model.addItem("#comment " + i));
+
+        final Set<PVTableItem> changed = new HashSet<>();
+        model.addListener(new PVTableModelListener()
+        {
+            @Override
+            public void tableItemSelectionChanged(final PVTableItem item)
+            {
+                // Ignore
+            }
+
+            @Override
+            public void tableItemChanged(final PVTableItem item)
+            {
+                throw new IllegalStateException("Expected batch of changes");
+            }
+
+            @Override
+            public void tableItemsChanged(final List<PVTableItem> items)
+            {
+                synchronized (changed)
+                {
+                    changed.addAll(items);
+                    changed.notifyAll();
+                }
+            }
+
+            @Override
+            public void tableItemsChanged()
+            {
+                throw new IllegalStateException("Expected batch of changes");
+            }
+
+            @Override
+            public void modelChanged()
+            {
+                // Ignore
+            }
+        });
+
+        // More changes than the update threshold, each item changing twice
+        for (int pass=0; pass<2; ++pass)
+            for (PVTableItem item : items)
+                model.tableItemChanged(item);
+
+        synchronized (changed)
+        {
+            while (changed.size() < items.size())
+                changed.wait(100);
+            assertThat(changed, equalTo(new HashSet<>(items)));
+        }
+        model.dispose();
+    }
+
+    @Test(timeout=5000)
+    public void testRemovedItemChange() throws Exception
+    {
+        final PVTableModel model = new PVTableModel();
+        final PVTableItem kept = model.addItem("#kept");
+        final PVTableItem removed = model.addItem("#removed");
+
+        final List<PVTableItem> changed = new ArrayList<>();
+        model.addListener(new PVTableModelListener()
+        {
+            @Override
+            public void tableItemSelectionChanged(final PVTableItem item)
+            {
+                // Ignore
+            }
+
+            @Override
+            public void tableItemChanged(final PVTableItem item)
+            {
+                // Ignore
+            }
+
+            @Override
+            public void tableItemsChanged(final List<PVTableItem> items)
+            {
+                synchronized (changed)
+                {
+                    changed.addAll(items);
+                    changed.notifyAll();
+                }
+            }
+
+            @Override
+            public void tableItemsChanged()
+            {
+                // Ignore
+            }
+
+            @Override
+            public void modelChanged()
+            {
+                // Ignore
+            }
+        });
+
+        // Wait for a batch, so the following changes happen
+        // well before the next update
+        model.tableItemChanged(kept);
+        synchronized (changed)
+        {
+            while (changed.isEmpty())
+                changed.wait(10);
+            changed.clear();
+        }
+
+        // Item that changed and was then removed is not passed on
+        model.tableItemChanged(removed);
+        model.removeItem(removed);
+        model.tableItemChanged(kept);
+        synchronized (changed)
+        {
+            while (changed.isEmpty())
+                changed.wait(100);
+            assertThat(changed, equalTo(Arrays.asList(kept)));
+        }
+        model.dispose();
+    }
+}
@@ -9,7 +9,9 @@ package org.csstudio.display.pvtable.model;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
@@ -27,9 +29,15 @@ import org.eclipse.swt.widgets.Display;
 /**
  * A PV table model, i.e. list of {@link PVTableItem}s
  * <p>
- * Updates are throttled: Changed items are accumulated, and depending on how
- * many changed, just those items are notified, or the whole table is marked for
- * update.
+ * Updates are throttled: Changed items are accumulated, and the listeners
+ * receive one batch of changed items per update period.
+ * Listeners can then decide which of the changed items need to be shown,
+ * for example only those in the visible rows of a table.
+ * <p>
+ * The row index of each item is tracked, so {@link #indexOf(PVTableItem)}
+ * does not need to search the list of items.
+ * Like the list of items, it is not synchronized:
+ * Items are added or removed on the UI thread.
  *
  * @author Kay Kasemir, A. PHILIPPE L. PHILIPPE GANIL/FRANCE
  */
@@ -39,13 +47,20 @@ public class PVTableModel implements PVTableItemListener
      *
      *  @see #performUpdates()
      */
-    private static final long UPDATE_PERIOD_MS = 200;
-
-    final private int updateItemThreshold = Preferences.getUpdateItemThreshold();
+    public static final long UPDATE_PERIOD_MS = 200;
 
     /** The list of items in this table. */
     private List<PVTableItem> items = new ArrayList<PVTableItem>();
 
+    /** Row index of each item in 'items'
+     *
+     *  @see #indexOf(PVTableItem)
+     */
+    final private Map<PVTableItem, Integer> rows = new IdentityHashMap<>();
+
+    /** Does 'rows' reflect the current 'items'? */
+    private boolean rows_valid = true;
+
     final private List<PVTableModelListener> listeners = new ArrayList<PVTableModelListener>();
 
     final private Timer update_timer = new Timer("PVTableUpdate", true); //$NON-NLS-1$
@@ -100,6 +115,22 @@ public class PVTableModel implements PVTableItemListener
         return null;
     }
 
+    /** @param item Item (row)
+     *  @return Index of the item, -1 if the item is not in the model
+     */
+    public int indexOf(final PVTableItem item)
+    {
+        if (! rows_valid)
+        {   // Items were inserted or removed, re-number all rows
+            rows.clear();
+            for (int row=0; row<items.size(); ++row)
+                rows.putIfAbsent(items.get(row), row);
+            rows_valid = true;
+        }
+        final Integer row = rows.get(item);
+        return row == null ? -1 : row;
+    }
+
     /** @return Timeout in seconds used for restoring PVs with completion */
     public long getCompletionTimeout()
     {
@@ -183,9 +214,11 @@ public class PVTableModel implements PVTableItemListener
     public PVTableItem addItem(final PVTableItem item)
     {
         // A conf already exist
-        if (item.isMeasureHeader() && !items.contains(item))
+        if (item.isMeasureHeader() && indexOf(item) < 0)
             this.nbMeasure++;
         items.add(item);
+        if (rows_valid)
+            rows.putIfAbsent(item, items.size() - 1);
         // Add a conf header
         this.isConfHeaderToAdd(item);
         // Add an item witch is not a conf header
@@ -195,7 +228,8 @@ public class PVTableModel implements PVTableItemListener
             // If the item is not the first one in the table, that a conf
             // already exist and that the item
             // above it belongs to the conf, add it to the conf.
-            if (items.indexOf(item) > 0 && items.get(items.indexOf(item) - 1).isConf() == true
+            final int index = indexOf(item);
+            if (index > 0 && items.get(index - 1).isConf() == true
                     && !item.isMeasureHeader())
             {
                 config.addItem(item);
@@ -230,8 +264,10 @@ public class PVTableModel implements PVTableItemListener
         if (item == null)
             return addItem(newItem);
 
-        final int index = Math.max(0, items.indexOf(item));
+        final int index = Math.max(0, indexOf(item));
         items.add(index, newItem);
+        // Rows below the new item moved down
+        rows_valid = false;
         // Add an item witch is not a conf header
         // and there are no conf anymore
         if (config != null)
@@ -239,7 +275,7 @@ public class PVTableModel implements PVTableItemListener
             // If the item is not the first one in the table, that a conf
             // already exist and that the item
             // above it belongs to the conf, add it to the conf.
-            if (items.indexOf(newItem) > 0 && items.get(items.indexOf(newItem) - 1).isConf() == true
+            if (index > 0 && items.get(index - 1).isConf() == true
                     && !newItem.isMeasureHeader())
             {
                 config.addItem(newItem);
@@ -266,45 +302,38 @@ public class PVTableModel implements PVTableItemListener
         }
         if (item.isConf())
             config.removeItem(item);
-        items.remove(item);
+        final int index = indexOf(item);
+        if (index >= 0)
+        {
+            items.remove(index);
+            rows_valid = false;
+        }
+        // Don't notify listeners of changes to the removed item
+        synchronized (changed_items)
+        {
+            changed_items.remove(item);
+        }
         for (PVTableModelListener listener : listeners)
             listener.modelChanged();
     }
 
     /** Invoked by timer to perform accumulated updates.
      *
-     *  <p>If only one item changed, update that item. If multiple items changed,
-     *  refresh the whole table.
+     *  <p>Notifies listeners of all items that changed since the last call.
      */
     private void performUpdates()
     {
-        final List<PVTableItem> to_update = new ArrayList<>();
+        final List<PVTableItem> to_update;
         synchronized (changed_items)
         {
             // Lock changed_items as briefly as possible to check what changed
-            final int changed = changed_items.size();
-            // Anything?
-            if (changed <= 0)
+            if (changed_items.isEmpty())
                 return;
-            // Limited number, update those items?
-            if (changed < updateItemThreshold)
-                to_update.addAll(changed_items);
-            // else: Many items, update whole table
+            to_update = new ArrayList<>(changed_items);
             changed_items.clear();
         }
-        if (to_update.isEmpty())
-        {
-            // Too many items changed, update the whole table
-            for (PVTableModelListener listener : listeners)
-                listener.tableItemsChanged();
-        }
-        else
-        {
-            // Update exactly the changed items
-            for (PVTableItem item : to_update)
-                for (PVTableModelListener listener : listeners)
-                    listener.tableItemChanged(item);
-        }
+        for (PVTableModelListener listener : listeners)
+            listener.tableItemsChanged(to_update);
     }
 
     /**
@@ -322,7 +351,7 @@ public class PVTableModel implements PVTableItemListener
                 // Create the conf
                 config = new Configuration(item);
                 // If rows below, add them to conf
-                int indexHeader = items.indexOf(item);
+                int indexHeader = indexOf(item);
                 for (int i = indexHeader; i < items.size(); i++) {
                     if (items.get(i).isMeasureHeader() == false && items.get(i).isMeasure() == false) {
                         items.get(i).setConf(true);
@@ -341,8 +370,8 @@ public class PVTableModel implements PVTableItemListener
                 }
                 config = new Configuration(item);
                 // If rows below, add them to conf
-                int indexHeader = items.indexOf(item);
-                for (int i = indexHeader; items.get(items.indexOf(item)).isMeasure() == false
+                int indexHeader = indexOf(item);
+                for (int i = indexHeader; items.get(indexHeader).isMeasure() == false
                         && i < items.size(); i++) {
                     items.get(i).setConf(true);
                     config.addItem(items.get(i));
@@ -450,6 +479,8 @@ public class PVTableModel implements PVTableItemListener
         for (PVTableItem item : items)
             item.dispose();
         items.clear();
+        rows.clear();
+        rows_valid = true;
     }
 
     /** Inform listeners that model changed */
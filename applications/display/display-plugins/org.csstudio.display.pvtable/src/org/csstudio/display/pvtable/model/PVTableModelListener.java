@@ -7,6 +7,8 @@
  ******************************************************************************/
 package org.csstudio.display.pvtable.model;
 
+import java.util.List;
+
 /**
  * Listener to {@link PVTableModel}
  *
@@ -16,6 +18,20 @@ public interface PVTableModelListener extends PVTableItemListener {
     /** Multiple table items have changed, need overall table refresh */
     public void tableItemsChanged();
 
+    /**
+     * Table items have changed
+     * <p>
+     * Invoked once per update period with all items that changed since the
+     * last call. By default, each item is passed to
+     * {@link #tableItemChanged(PVTableItem)}.
+     *
+     * @param items Changed items
+     */
+    public default void tableItemsChanged(final List<PVTableItem> items) {
+        for (PVTableItem item : items)
+            tableItemChanged(item);
+    }
+
     /**
      * Model has changed (items added, removed, renamed, values saved)
      * <p>
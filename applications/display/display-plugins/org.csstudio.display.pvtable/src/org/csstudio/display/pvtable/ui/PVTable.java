@@ -10,9 +10,11 @@ package org.csstudio.display.pvtable.ui;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.csstudio.autocomplete.ui.AutoCompleteTypes;
@@ -42,6 +44,9 @@ import org.eclipse.jface.layout.TableColumnLayout;
 import org.eclipse.jface.viewers.CellEditor;
 import org.eclipse.jface.viewers.CellLabelProvider;
 import org.eclipse.jface.viewers.CheckboxCellEditor;
+import org.eclipse.jface.viewers.ColumnViewerEditorActivationEvent;
+import org.eclipse.jface.viewers.ColumnViewerEditorActivationListener;
+import org.eclipse.jface.viewers.ColumnViewerEditorDeactivationEvent;
 import org.eclipse.jface.viewers.ColumnViewerToolTipSupport;
 import org.eclipse.jface.viewers.ColumnWeightData;
 import org.eclipse.jface.viewers.ComboBoxCellEditor;
@@ -89,6 +94,24 @@ public class PVTable implements PVTableModelListener
     private MenuManager manager;
     private Menu menu;
 
+    /** Visible rows beyond which all visible rows are cleared instead of replacing each changed row */
+    final private int update_item_threshold = Preferences.getUpdateItemThreshold();
+
+    /** Items that changed but have not been updated in the table, because they were
+     *  not visible or a cell editor was active.
+     *  Only accessed on the UI thread.
+     *
+     *  @see #updateVisibleRows()
+     */
+    final private Set<PVTableItem> pending_items = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /** Is a check of the pending items scheduled?
+     *  Only accessed on the UI thread.
+     *
+     *  @see #schedulePendingUpdate()
+     */
+    private boolean pending_update_scheduled = false;
+
     /**
      * Initialize
      *
@@ -492,6 +515,43 @@ public class PVTable implements PVTableModelListener
 
         ColumnViewerToolTipSupport.enableFor(viewer);
         viewer.setContentProvider(new PVTableModelContentProvider());
+
+        // Rows that are scrolled into view may show outdated values.
+        // Scrolling via showItem() or setTopIndex() sends no event,
+        // so pending items are also checked periodically.
+        final Listener scroll_listener = event -> table.getDisplay().asyncExec(this::updateVisibleRows);
+        table.getVerticalBar().addListener(SWT.Selection, scroll_listener);
+        table.addListener(SWT.MouseWheel, scroll_listener);
+        table.addListener(SWT.KeyDown, scroll_listener);
+        table.addListener(SWT.Resize, scroll_listener);
+
+        // Rows that changed while a cell editor was active are updated when it closes
+        viewer.getColumnViewerEditor().addEditorActivationListener(new ColumnViewerEditorActivationListener()
+        {
+            @Override
+            public void beforeEditorActivated(final ColumnViewerEditorActivationEvent event)
+            {
+                // Ignore
+            }
+
+            @Override
+            public void afterEditorActivated(final ColumnViewerEditorActivationEvent event)
+            {
+                // Ignore
+            }
+
+            @Override
+            public void beforeEditorDeactivated(final ColumnViewerEditorDeactivationEvent event)
+            {
+                // Ignore
+            }
+
+            @Override
+            public void afterEditorDeactivated(final ColumnViewerEditorDeactivationEvent event)
+            {
+                table.getDisplay().asyncExec(PVTable.this::updateVisibleRows);
+            }
+        });
     }
 
     /**
@@ -706,17 +766,75 @@ public class PVTable implements PVTableModelListener
     /** {@inheritDoc} */
     @Override
     public void tableItemChanged(final PVTableItem item) {
+        tableItemsChanged(Collections.singletonList(item));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void tableItemsChanged(final List<PVTableItem> items) {
         final Table table = viewer.getTable();
         if (table.isDisposed()) {
             return;
         }
         table.getDisplay().asyncExec(() -> {
-            if (!table.isDisposed() && !viewer.isCellEditorActive()) {
-                viewer.refresh(item);
+            if (!table.isDisposed()) {
+                pending_items.addAll(items);
+                updateVisibleRows();
+                schedulePendingUpdate();
+            }
+        });
+    }
+
+    /** Check pending items once per update period until none are left.
+     *
+     *  <p>Must be called on the UI thread.
+     */
+    private void schedulePendingUpdate() {
+        if (pending_update_scheduled || pending_items.isEmpty()) {
+            return;
+        }
+        pending_update_scheduled = true;
+        final Table table = viewer.getTable();
+        table.getDisplay().timerExec((int) PVTableModel.UPDATE_PERIOD_MS, () -> {
+            pending_update_scheduled = false;
+            if (!table.isDisposed()) {
+                updateVisibleRows();
+                schedulePendingUpdate();
             }
         });
     }
 
+    /** Update the visible rows of pending items.
+     *
+     *  <p>The table is virtual, so the label providers only format the values of
+     *  rows that are replaced in the viewer.
+     *  Items that are not visible remain pending until they are scrolled into view.
+     *  Must be called on the UI thread.
+     */
+    private void updateVisibleRows() {
+        final Table table = viewer.getTable();
+        if (table.isDisposed() || model == null || pending_items.isEmpty() || viewer.isCellEditorActive()) {
+            return;
+        }
+        final int first = table.getTopIndex();
+        final int visible = table.getClientArea().height / Math.max(1, table.getItemHeight()) + 1;
+        final int last = Math.min(first + visible, model.getItemCount()) - 1;
+        final List<Integer> rows = new ArrayList<>();
+        for (int row = first; row <= last; ++row) {
+            if (pending_items.remove(model.getItem(row))) {
+                rows.add(row);
+            }
+        }
+        if (rows.size() > update_item_threshold) {
+            // Many rows changed: Clear all visible rows, the table then requests them again
+            table.clear(first, last);
+        } else {
+            for (int row : rows) {
+                viewer.replace(model.getItem(row), row);
+            }
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public void tableItemsChanged() {
@@ -726,6 +844,7 @@ public class PVTable implements PVTableModelListener
         }
         table.getDisplay().asyncExec(() -> {
             if (!table.isDisposed() && !viewer.isCellEditorActive()) {
+                pending_items.clear();
                 viewer.refresh();
             }
         });
@@ -734,6 +853,15 @@ public class PVTable implements PVTableModelListener
     /** {@inheritDoc} */
     @Override
     public void modelChanged() {
-        // Ignore
+        // Forget pending items that were removed from the model
+        final Table table = viewer.getTable();
+        if (table.isDisposed()) {
+            return;
+        }
+        table.getDisplay().asyncExec(() -> {
+            if (model != null) {
+                pending_items.removeIf(item -> model.indexOf(item) < 0);
+            }
+        });
     }
 }
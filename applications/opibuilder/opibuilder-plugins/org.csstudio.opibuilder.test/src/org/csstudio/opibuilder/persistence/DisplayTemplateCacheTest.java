@@ -0,0 +1,87 @@
+package org.csstudio.opibuilder.persistence;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.jdom.Element;
+import org.junit.Test;
+
+public class DisplayTemplateCacheTest {
+
+    private static File createOPI(String name) throws IOException{
+        File file = File.createTempFile("template", ".opi");
+        file.deleteOnExit();
+        writeOPI(file, name);
+        return file;
+    }
+
+    private static void writeOPI(File file, String name) throws IOException{
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(XMLUtil.XML_HEADER +
+                    "<display typeId=\"org.csstudio.opibuilder.Display\" version=\"1.0.0\">\n" +
+                    "  <name>" + name + "</name>\n" +
+                    "</display>\n");
+        }
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        DisplayTemplateCache cache = new DisplayTemplateCache(10, 2);
+        File file = createOPI("First");
+        IPath path = new Path(file.getAbsolutePath());
+
+        Element root = cache.getTemplate(path, file);
+        assertEquals("display", root.getName());
+        assertEquals("First", root.getChildText("name"));
+        assertEquals(1, cache.size());
+
+        //unchanged file is not parsed again
+        assertSame(root, cache.getTemplate(path, file));
+
+        //modified file is parsed again
+        writeOPI(file, "Second one");
+        Element updated = cache.getTemplate(path, file);
+        assertNotSame(root, updated);
+        assertEquals("Second one", updated.getChildText("name"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        DisplayTemplateCache cache = new DisplayTemplateCache(2, 2);
+        File a = createOPI("A"), b = createOPI("B"), c = createOPI("C");
+        IPath pathA = new Path(a.getAbsolutePath()), pathB = new Path(b.getAbsolutePath()),
+                pathC = new Path(c.getAbsolutePath());
+
+        Element rootA = cache.getTemplate(pathA, a);
+        cache.getTemplate(pathB, b);
+        //use A, so B is the least recently used
+        assertSame(rootA, cache.getTemplate(pathA, a));
+        cache.getTemplate(pathC, c);
+        assertEquals(2, cache.size());
+        assertSame(rootA, cache.getTemplate(pathA, a));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test(expected=Exception.class)
+    public void testError() throws Exception {
+        DisplayTemplateCache cache = new DisplayTemplateCache(10, 2);
+        File file = File.createTempFile("template", ".opi");
+        file.deleteOnExit();
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write("<display>");
+        }
+        try {
+            cache.getTemplate(new Path(file.getAbsolutePath()), file);
+        } finally {
+            assertEquals(0, cache.size());
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package org.csstudio.opibuilder.script;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
+
+/**Compare {@link RuleExpression} with the JavaScript engine
+ */
+@SuppressWarnings("nls")
+public class RuleExpressionTest {
+
+    private static final double[] DOUBLES = { 3.5, -2, 0 };
+    private static final long[] LONGS = { 3, -2, 0 };
+    private static final String[] STRINGS = { "3.5", "ON", "" };
+    private static final int[] SEVERITIES = { 1, 0, 0 };
+
+    private final RuleExpression.Inputs inputs = new RuleExpression.Inputs() {
+        @Override
+        public double getDouble(int index) {
+            return DOUBLES[index];
+        }
+
+        @Override
+        public long getLong(int index) {
+            return LONGS[index];
+        }
+
+        @Override
+        public String getString(int index) {
+            return STRINGS[index];
+        }
+
+        @Override
+        public int getSeverity(int index) {
+            return SEVERITIES[index];
+        }
+    };
+
+    private Context context;
+    private Scriptable scope;
+
+    @Before
+    public void setup(){
+        context = Context.enter();
+        scope = context.initStandardObjects();
+        // Like the script generated by RuleData, read the PVs via Java calls,
+        // so pvStr# are Java strings wrapped by the script engine
+        ScriptableObject.putProperty(scope, "inputs", Context.javaToJS(inputs, scope));
+        final StringBuilder script = new StringBuilder();
+        for(int i=0; i<DOUBLES.length; ++i){
+            script.append("var pv" + i + " = inputs.getDouble(" + i + ");\n");
+            script.append("var pvInt" + i + " = inputs.getLong(" + i + ");\n");
+            script.append("var pvStr" + i + " = inputs.getString(" + i + ");\n");
+            script.append("var pvSev" + i + " = inputs.getSeverity(" + i + ");\n");
+        }
+        context.evaluateString(scope, script.toString(), "inputs", 1, null);
+    }
+
+    @After
+    public void cleanup(){
+        Context.exit();
+    }
+
+    private void check(String text) throws Exception {
+        RuleExpression expression = RuleExpression.parse(text);
+        assertNotNull(text, expression);
+        Object js = context.evaluateString(scope, text, "test", 1, null);
+        if(expression.isCondition())
+            assertEquals(text, Context.toBoolean(js), expression.isTrue(inputs));
+
+        Object value = expression.evaluate(inputs);
+        String string = value instanceof Double ? RuleExpression.numberToString((Double) value) : value.toString();
+        assertEquals(text, Context.toString(js), string);
+    }
+
+    @Test
+    public void testConditions() throws Exception {
+        check("pv0 > 3");
+        check("pv0 >= 3.5 && pv1 < 0");
+        check("pvInt0 == 3");
+        check("pvStr1 == \"ON\"");
+        check("pvStr1 != 'OFF'");
+        check("pvSev0 == 1 || pvSev1 == 1");
+        check("!(pv0 > 3)");
+        check("!pv1");
+        check("pvStr0 == 3.5");
+        check("pvStr0 < pvStr1");
+        check("'abc' < 5");
+        check("pv0 === 3.5");
+        check("pvStr0 + '' === '3.5'");
+        check("pvStr2 == ''");
+        check("pvStr2 == 0");
+        check("pvStr2 == false");
+        check("pvStr0 == pv0");
+        check("!(pvStr2 + '')");
+        check("true == 1");
+        check("'1' == true");
+        check("pv0 != pv0");
+        check("0/0 == 0/0");
+        check("pv0 > 3 && pvStr1 == 'ON' || pvSev1 > 0");
+    }
+
+    @Test
+    public void testValues() throws Exception {
+        check("pv0 + pv1");
+        check("pv0 * 2 - 1 / 4");
+        check("pv0 % 2");
+        check("-pv1");
+        check("+pvStr0");
+        check("(pv0 + 1) * (pv1 - 1)");
+        check("\"Value: \" + pv0");
+        check("'x' + pvInt0 + pv1");
+        check("pvInt0 + pv1 + 'x'");
+        check("pv0 / 0");
+        check("-pv0 / 0");
+        check("pv1 ? 'yes' : 'no'");
+        check("pv0 > 3 ? pv0 : -1");
+        check("pv0 > 3 ? pvStr1 : 'none'");
+        check("'' || pvStr2");
+        check("pvStr2 + 'x'");
+        check("pv0 && 0");
+        check("'' || 'default'");
+        check("true + 1");
+        check("' 12 ' * 2");
+        check("'abc' * 2");
+        check("'0x10' * 1");
+        check("0x1F + 1");
+        check("'tab\\t\\u0041\\'' + 1");
+    }
+
+    @Test
+    public void testMath() throws Exception {
+        check("Math.abs(pv1) + Math.max(pv0, pv1, 10)");
+        check("Math.min()");
+        check("Math.round(-2.5)");
+        check("Math.round(2.5)");
+        check("Math.floor(pv0) + Math.ceil(pv0)");
+        check("Math.sqrt(pv0) * Math.PI");
+        check("Math.pow(2, 10) + Math.E");
+        check("Math.log(Math.exp(2))");
+        check("Math.sin(1) + Math.cos(1) + Math.tan(1) + Math.atan2(1, 2)");
+    }
+
+    @Test
+    public void testNumberFormat() throws Exception {
+        check("1e21 + ''");
+        check("1.5e-8 + ''");
+        check("0.000001 + ''");
+        check("123456789012 * 1000 + ''");
+        check("1/3 + ''");
+        check("0.1 + 0.2 + ''");
+        check("-0 + ''");
+        check("100 + ''");
+        check("2.5e30 + ''");
+    }
+
+    @Test
+    public void testUnsupported() {
+        String[] unsupported = {
+            "widget.getPropertyValue('x') > 1",
+            "pvs[0]",
+            "pv0 > 1; x = 2",
+            "pvStr0.equals('a')",
+            "pv0 = 3",
+            "pv0 >> 1",
+            "pv0 ++",
+            "010",
+            "Math.foo(1)",
+            "pv01",
+            "pv0 ? 'a' : 1",
+            "pvStr0 === '3.5'",
+            "pvStr0 !== 3.5",
+            "pvStr0 === pvStr0",
+            "pvStr0 == pvStr1",
+            "typeof pvStr0 == 'string'",
+            "!pvStr2",
+            "pvStr2 ? 1 : 0",
+            "pvStr1 && pvStr0",
+            "pvStr2 || 'default'",
+            "null",
+            "(pv0",
+            "'abc",
+            ""
+        };
+        for(String text : unsupported)
+            assertNull(text, RuleExpression.parse(text));
+    }
+
+    @Test
+    public void testParse() {
+        RuleExpression expression = RuleExpression.parse("pv0 > 1 && pvStr3 == 'x'");
+        assertEquals(3, expression.getMaxPVIndex());
+        assertSame(expression, RuleExpression.parse("pv0 > 1 && pvStr3 == 'x'"));
+        assertEquals(-1, RuleExpression.parse("1 + 2").getMaxPVIndex());
+        assertTrue(RuleExpression.parse("pvStr0 == 'x'").isCondition());
+        assertFalse(RuleExpression.parse("pvStr0").isCondition());
+        assertFalse(RuleExpression.parse("pv0 > 1 ? pvStr0 : 'x'").isCondition());
+    }
+}
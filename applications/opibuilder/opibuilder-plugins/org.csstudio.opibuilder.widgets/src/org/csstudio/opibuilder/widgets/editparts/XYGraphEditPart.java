@@ -672,7 +672,7 @@ public class XYGraphEditPart extends AbstractPVWidgetEditPart {
         CircularBufferDataProvider dataProvider = (CircularBufferDataProvider)traceList.get(i).getDataProvider();
         double[] XBuffer = new double[dataProvider.getSize()];
         for (int j = 0; j < dataProvider.getSize(); j++) {
-            XBuffer[j] = dataProvider.getSample(j).getXValue();
+            XBuffer[j] = dataProvider.getXValue(j);
         }
         return XBuffer;
     }
@@ -681,7 +681,7 @@ public class XYGraphEditPart extends AbstractPVWidgetEditPart {
         CircularBufferDataProvider dataProvider = (CircularBufferDataProvider)traceList.get(i).getDataProvider();
         double[] YBuffer = new double[dataProvider.getSize()];
         for (int j = 0; j < dataProvider.getSize(); j++) {
-            YBuffer[j] = dataProvider.getSample(j).getYValue();
+            YBuffer[j] = dataProvider.getYValue(j);
         }
         return YBuffer;
     }
@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.opibuilder.persistence;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.csstudio.opibuilder.preferences.PreferencesHelper;
+import org.csstudio.opibuilder.util.ResourceUtil;
+import org.eclipse.core.runtime.IPath;
+import org.jdom.Element;
+
+/**Cache of parsed OPI files.
+ *
+ * <p>Linking containers often embed the same OPI many times,
+ * each time with different macros.
+ * The cache keeps the parsed XML of such OPIs by their resolved path,
+ * so each file is only read and parsed once.
+ * An entry is used as long as the modification time and size of the file are unchanged.
+ *
+ * <p>The cached XML is a template: Widget models are always created anew from it,
+ * so each linking container gets its own models, and macros are applied
+ * to them just like for a freshly parsed file.
+ * The cached XML must therefore never be modified.
+ *
+ * <p>Only files in the workspace or local file system are cached,
+ * because URLs don't provide a reliable modification time.
+ */
+public class DisplayTemplateCache {
+
+    private static DisplayTemplateCache instance;
+
+    /** Parsed OPI file */
+    private static class Template {
+        final long timestamp;
+        final long size;
+        final Element root;
+
+        Template(final long timestamp, final long size, final Element root) {
+            this.timestamp = timestamp;
+            this.size = size;
+            this.root = root;
+        }
+    }
+
+    private final int capacity;
+
+    /** Templates by path, least recently used first. SYNC on this */
+    private final Map<IPath, Template> templates;
+
+    /** Threads for parsing files in parallel */
+    private final ExecutorService loader;
+
+    /**Initialize
+     * @param capacity Maximum number of cached files. 0 to disable the cache.
+     * @param threads Number of threads for loading files in parallel
+     */
+    public DisplayTemplateCache(final int capacity, final int threads) {
+        this.capacity = capacity;
+        templates = new LinkedHashMap<IPath, Template>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<IPath, Template> eldest) {
+                return size() > DisplayTemplateCache.this.capacity;
+            }
+        };
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), runnable -> {
+                    final Thread thread = new Thread(runnable, "OPI Loader"); //$NON-NLS-1$
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        loader = pool;
+    }
+
+    /**@return The shared cache, configured by preferences
+     */
+    public static synchronized DisplayTemplateCache getInstance() {
+        if (instance == null)
+            instance = new DisplayTemplateCache(PreferencesHelper.getTemplateCacheSize(),
+                    Runtime.getRuntime().availableProcessors());
+        return instance;
+    }
+
+    /**Get the parsed XML of an OPI file.
+     * @param path Resolved path of the OPI file
+     * @return Root element of the file, or <code>null</code> if the file cannot be cached
+     * @throws Exception on error reading or parsing the file
+     */
+    public Element getTemplate(final IPath path) throws Exception {
+        final File file = getFile(path);
+        if (file == null)
+            return null;
+        return getTemplate(path, file);
+    }
+
+    /**Get the parsed XML of an OPI file.
+     * @param path Resolved path of the OPI file, used as key
+     * @param file File for that path
+     * @return Root element of the file
+     * @throws Exception on error reading or parsing the file
+     */
+    Element getTemplate(final IPath path, final File file) throws Exception {
+        final long timestamp = file.lastModified();
+        final long size = file.length();
+        synchronized (this) {
+            final Template template = templates.get(path);
+            if (template != null && template.timestamp == timestamp && template.size == size)
+                return template.root;
+        }
+        final Element root;
+        try (InputStream stream = new FileInputStream(file)) {
+            root = LineAwareXMLParser.createBuilder().build(stream).getRootElement();
+        }
+        synchronized (this) {
+            templates.put(path, new Template(timestamp, size, root));
+        }
+        return root;
+    }
+
+    /**Parse OPI files that are not in the cache, in parallel.
+     *
+     * <p>Returns when all files have been parsed.
+     * Errors are ignored, they will be reported when the file is then requested.
+     *
+     * @param paths Resolved paths of OPI files
+     */
+    public void prefetch(final Collection<IPath> paths) {
+        final List<Callable<Element>> tasks = new ArrayList<>();
+        for (IPath path : new LinkedHashSet<>(paths)) {
+            final File file = getFile(path);
+            if (file != null && !isCached(path, file))
+                tasks.add(() -> getTemplate(path, file));
+        }
+        // A single file is simply loaded when requested
+        if (tasks.size() < 2)
+            return;
+        try {
+            loader.invokeAll(tasks);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**@return Number of cached files */
+    public synchronized int size() {
+        return templates.size();
+    }
+
+    /**Remove all cached files */
+    public synchronized void clear() {
+        templates.clear();
+    }
+
+    private synchronized boolean isCached(final IPath path, final File file) {
+        final Template template = templates.get(path);
+        return template != null && template.timestamp == file.lastModified() && template.size == file.length();
+    }
+
+    /**@param path Path of OPI file
+     * @return File for the path, <code>null</code> if it cannot be cached
+     */
+    private File getFile(final IPath path) {
+        if (capacity <= 0 || path == null || path.isEmpty())
+            return null;
+        try {
+            final File file = ResourceUtil.getFile(path);
+            if (file != null && file.isFile())
+                return file;
+        } catch (Exception ex) {
+            // Not a local or workspace file
+        }
+        return null;
+    }
+}
@@ -206,6 +206,34 @@ public class XMLUtil {
         if(display == null){
             display = Display.getCurrent();
         }
+        try {
+            checkAuthentication(displayModel, display);
+            Element root = inputStreamToXML(inputStream);
+            fillDisplayModelFromXMLSub(root, displayModel, display, trace, macrosInput_);
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    /**Fill the DisplayModel from the parsed XML of an OPI file.
+     * @param root root element of the OPI file, which is only read, so it may be shared.
+     */
+    private static void fillDisplayModelFromTemplateSub(
+            final Element root, final DisplayModel displayModel, Display display, List<IPath> trace,
+            final MacrosInput macrosInput_) throws Exception{
+
+        if(display == null){
+            display = Display.getCurrent();
+        }
+        checkAuthentication(displayModel, display);
+        fillDisplayModelFromXMLSub(root, displayModel, display, trace, macrosInput_);
+    }
+
+    /**In RAP, check if the user needs to log in to access the OPI of the display model.
+     * @throws FailedLoginException if the user failed to log in.
+     */
+    private static void checkAuthentication(final DisplayModel displayModel, final Display display)
+            throws FailedLoginException{
         IPath opiPath = displayModel.getOpiFilePath();
         if (OPIBuilderPlugin.isRAP() && opiPath != null
                 && !SingleSourceHelper.rapIsLoggedIn(display)) {
@@ -215,7 +243,6 @@ public class XMLUtil {
                 for(String securedPath : securedPaths){
                     if(opiPath.toString().startsWith(securedPath)) {
                         if (!SingleSourceHelper.rapAuthenticate(display)) {
-                            inputStream.close();
                             throw new FailedLoginException();
                         }
                     }
@@ -234,7 +261,6 @@ public class XMLUtil {
                     }
                     if(shouldBeSecured){
                         if (!SingleSourceHelper.rapAuthenticate(display)) {
-                            inputStream.close();
                             throw new FailedLoginException();
                         }
                     }
@@ -242,8 +268,11 @@ public class XMLUtil {
             }
 
         }
+    }
 
-        Element root = inputStreamToXML(inputStream);
+    private static void fillDisplayModelFromXMLSub(
+            final Element root, final DisplayModel displayModel, Display display, List<IPath> trace,
+            final MacrosInput macrosInput_) throws Exception{
         if(root != null){
              XMLElementToWidgetSub(root, displayModel, trace, macrosInput_);
 
@@ -275,7 +304,6 @@ public class XMLUtil {
              }
 
         }
-        inputStream.close();
     }
 
     /**Fill the DisplayModel from an OPI file inputstream. In RAP, it must be called in UI Thread.
@@ -399,20 +427,33 @@ public class XMLUtil {
 
     private static void fillLinkingContainersSub(AbstractContainerModel container, List<IPath> trace,
             final MacrosInput macrosInput_) throws Exception{
-        if(container instanceof AbstractLinkingContainerModel) {
-            AbstractLinkingContainerModel linkingContainer = (AbstractLinkingContainerModel)container;
-            List<IPath> tempTrace = new ArrayList<IPath>();
-            tempTrace.addAll(trace);
-            fillLinkingContainerSub(linkingContainer, tempTrace, macrosInput_);
+        List<AbstractLinkingContainerModel> linkingContainers = new ArrayList<AbstractLinkingContainerModel>();
+        if(container instanceof AbstractLinkingContainerModel)
+            linkingContainers.add((AbstractLinkingContainerModel)container);
+        for(AbstractWidgetModel w : container.getAllDescendants()) {
+            if(w instanceof AbstractLinkingContainerModel)
+                linkingContainers.add((AbstractLinkingContainerModel)w);
         }
 
-        for(AbstractWidgetModel w : container.getAllDescendants()) {
-            if(w instanceof AbstractLinkingContainerModel) {
-                AbstractLinkingContainerModel linkingContainer = (AbstractLinkingContainerModel)w;
-                List<IPath> tempTrace = new ArrayList<IPath>();
-                tempTrace.addAll(trace);
-                fillLinkingContainerSub(linkingContainer, tempTrace, macrosInput_);
+        //read the linked opi files in parallel, then fill the containers one by one
+        if(linkingContainers.size() > 1){
+            List<IPath> paths = new ArrayList<IPath>();
+            for(AbstractLinkingContainerModel linkingContainer : linkingContainers){
+                try {
+                    IPath path = resolvePath(linkingContainer, macrosInput_);
+                    if(path != null)
+                        paths.add(path);
+                } catch (Exception e) {
+                    //will be reported when the container is filled
+                }
             }
+            DisplayTemplateCache.getInstance().prefetch(paths);
+        }
+
+        for(AbstractLinkingContainerModel linkingContainer : linkingContainers) {
+            List<IPath> tempTrace = new ArrayList<IPath>();
+            tempTrace.addAll(trace);
+            fillLinkingContainerSub(linkingContainer, tempTrace, macrosInput_);
         }
     }
 
@@ -489,6 +530,25 @@ public class XMLUtil {
         return macros;
     }
 
+    /**
+     * @return path of the opi file of the LinkingContainer with all macros replaced.
+     * null if the LinkingContainer has no opi file.
+     * @throws Exception if the macros cannot be replaced.
+     */
+    private static IPath resolvePath(final AbstractLinkingContainerModel container, final MacrosInput macrosInput_)
+            throws Exception {
+        IPath path = container.getOPIFilePath();
+        if(path == null || path.isEmpty())
+            return null;
+        final Map<String,String> macroMap = PreferencesHelper.getMacros();
+        if(macrosInput_ != null && macrosInput_.getMacrosMap() != null) {
+            macroMap.putAll(macrosInput_.getMacrosMap());
+        }
+        macroMap.putAll(buildMacroMap(container));
+        String resolvedPath = MacroUtil.replaceMacros(path.toString(), s -> macroMap.get(s));
+        return ResourceUtil.getPathFromString(resolvedPath);
+    }
+
     private static void fillLinkingContainerSub(final AbstractLinkingContainerModel container, List<IPath> trace,
             final MacrosInput macrosInput_)
         throws Exception {
@@ -504,23 +564,19 @@ public class XMLUtil {
                 trace.add(container.getRootDisplayModel().getOpiFilePath());
             }
 
-            IPath path = container.getOPIFilePath();
-            if(path != null && !path.isEmpty()) {
-                final Map<String,String> macroMap = PreferencesHelper.getMacros();
-                if(macrosInput_ != null && macrosInput_.getMacrosMap() != null) {
-                    macroMap.putAll(macrosInput_.getMacrosMap());
-                }
-                macroMap.putAll(buildMacroMap(container));
-                String resolvedPath = MacroUtil.replaceMacros(path.toString(), s -> macroMap.get(s));
-                path = ResourceUtil.getPathFromString(resolvedPath);
-
+            IPath path = resolvePath(container, macrosInput_);
+            if(path != null) {
                 final DisplayModel inside = new DisplayModel(path);
                 inside.setDisplayID(container.getRootDisplayModel(false).getDisplayID());
                 inside.setParentDisplayModel(container.getRootDisplayModel());
 
                 try
                 {
-                    fillDisplayModelFromInputStreamSub(ResourceUtil.pathToInputStream(path), inside, Display.getCurrent(), trace, macrosInput_);
+                    Element template = DisplayTemplateCache.getInstance().getTemplate(path);
+                    if(template != null)
+                        fillDisplayModelFromTemplateSub(template, inside, Display.getCurrent(), trace, macrosInput_);
+                    else
+                        fillDisplayModelFromInputStreamSub(ResourceUtil.pathToInputStream(path), inside, Display.getCurrent(), trace, macrosInput_);
                 }
                 catch (Exception ex)
                 {
@@ -72,6 +72,7 @@ public class PreferencesHelper {
     public static final String SWITCH_TO_OPI_EDITOR_PERSPECTIVE = "switch_to_opi_editor_perspective"; //$NON-NLS-1$
     public static final String FONT_DEFAULT_PIXELS_OR_POINTS = "font_default_pixels_or_points";
     public static final String TOOL_TIP_DISPLAY_TIME = "tooltip_display_time";
+    public static final String TEMPLATE_CACHE_SIZE = "template_cache_size"; //$NON-NLS-1$
 
     //The widgets that are hidden from palette.
     public static final String HIDDEN_WIDGETS="hidden_widgets"; //$NON-NLS-1$
@@ -389,6 +390,14 @@ public class PreferencesHelper {
         return service.getInt(OPIBuilderPlugin.PLUGIN_ID, URL_FILE_LOADING_TIMEOUT, 8000, null);
     }
 
+    /**
+     * @return maximum number of parsed OPI files kept in the cache. 0 disables the cache.
+     */
+    public static int getTemplateCacheSize(){
+        final IPreferencesService service = Platform.getPreferencesService();
+        return service.getInt(OPIBuilderPlugin.PLUGIN_ID, TEMPLATE_CACHE_SIZE, 100, null);
+    }
+
     /**
      * @return the absolute path of the startup opi. null if not configured.
      */
@@ -48,7 +48,7 @@ public abstract class AbstractScriptStore implements IScriptStore{
 
     private Map<IPV, IPVListener> pvListenerMap;
 
-    private boolean errorInScript;
+    private volatile boolean errorInScript;
 
     volatile boolean unRegistered = false;
 
@@ -143,7 +143,7 @@ public abstract class AbstractScriptStore implements IScriptStore{
 
 
         if(scriptData instanceof RuleScriptData){
-            compileString(((RuleScriptData)scriptData).getScriptString());
+            compileRule((RuleScriptData)scriptData);
         }else if(scriptData.isEmbedded())
             compileString(scriptData.getScriptText());
         else{
@@ -175,7 +175,7 @@ public abstract class AbstractScriptStore implements IScriptStore{
             @Override
             public synchronized void valueChanged(IPV pv) {
                 if (triggerSuppressed && checkPVsConnected(scriptData, pvArray)) {
-                    executeScriptInUIThread(pv);
+                    executeScript(pv);
                     triggerSuppressed = false;
                 }
             }
@@ -202,7 +202,7 @@ public abstract class AbstractScriptStore implements IScriptStore{
                     }
                 }
 
-                executeScriptInUIThread(pv);
+                executeScript(pv);
             }
 
         };
@@ -236,6 +236,14 @@ public abstract class AbstractScriptStore implements IScriptStore{
      */
     protected abstract void compileString(String string) throws Exception;
 
+    /**Compile a rule. By default, the script generated for the rule is compiled with script engine.
+     * @param ruleScriptData
+     * @throws Exception
+     */
+    protected void compileRule(RuleScriptData ruleScriptData) throws Exception {
+        compileString(ruleScriptData.getScriptString());
+    }
+
     /**Compile InputStream with script engine. The stream will be closed by this method.
      * @param file Script file that engine may use to update its search path, or <code>null</code>
      * @param reader
@@ -249,31 +257,57 @@ public abstract class AbstractScriptStore implements IScriptStore{
      */
     protected abstract void execScript(final IPV triggerPV) throws Exception;
 
-    private void executeScriptInUIThread(final IPV triggerPV) {
-        Display display = editPart.getRoot().getViewer().getControl().getDisplay();
-        UIBundlingThread.getInstance().addRunnable(display, new Runnable() {
+    /**Execute the script when it is triggered by a PV.
+     * Called in the thread of the PV listener, by default executes the script in UI thread.
+     * @param triggerPV  the PV that triggers this execution.
+     */
+    protected void executeScript(final IPV triggerPV) {
+        execInUIThread(new Runnable() {
             @Override
             public void run() {
-                if ((!scriptData.isStopExecuteOnError() || !errorInScript) && !unRegistered) {
+                if (isExecutable()) {
                     try {
                         execScript(triggerPV);
                     } catch (Exception e) {
-                        errorInScript = true;
-                        final String notExecuteWarning = "\nThe script or rule will not be executed afterwards. " +
-                                "You can change this setting in script dialog.";
-                        final String message = NLS
-                                .bind("Error in {0}.{1}\n{2}",
-                                        new String[]{errorSource,
-                                         !scriptData.isStopExecuteOnError()? "" : notExecuteWarning, //$NON-NLS-1$
-                                                 e.toString()});
-                        ConsoleService.getInstance().writeError(message);
-                        OPIBuilderPlugin.getLogger().log(Level.WARNING, message, e);
+                        handleError(e);
                     }
                 }
             }
         });
     }
 
+    /**Run a task in the UI thread of the widget.
+     * @param runnable
+     */
+    protected void execInUIThread(final Runnable runnable) {
+        Display display = editPart.getRoot().getViewer().getControl().getDisplay();
+        UIBundlingThread.getInstance().addRunnable(display, runnable);
+    }
+
+    /**
+     * @return false if the store was unregistered,
+     * or the script had an error and should not be executed afterwards.
+     */
+    protected boolean isExecutable() {
+        return (!scriptData.isStopExecuteOnError() || !errorInScript) && !unRegistered;
+    }
+
+    /**Report an error in the script.
+     * @param e the error.
+     */
+    protected void handleError(final Exception e) {
+        errorInScript = true;
+        final String notExecuteWarning = "\nThe script or rule will not be executed afterwards. " +
+                "You can change this setting in script dialog.";
+        final String message = NLS
+                .bind("Error in {0}.{1}\n{2}",
+                        new String[]{errorSource,
+                         !scriptData.isStopExecuteOnError()? "" : notExecuteWarning, //$NON-NLS-1$
+                                 e.toString()});
+        ConsoleService.getInstance().writeError(message);
+        OPIBuilderPlugin.getLogger().log(Level.WARNING, message, e);
+    }
+
     private boolean checkPVsConnected(ScriptData scriptData, IPV[] pvArray){
         if(!scriptData.isCheckConnectivity())
             return true;
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.opibuilder.script;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.csstudio.opibuilder.editparts.AbstractBaseEditPart;
+import org.csstudio.opibuilder.scriptUtil.PVUtil;
+import org.csstudio.simplepv.IPV;
+
+/**
+ * This is the implementation of {@link AbstractScriptStore} for rules that
+ * can be evaluated by a {@link RuleEvaluator} instead of a script engine.
+ * The rule is evaluated in the thread of the PV listener,
+ * only the resulting property value is set in UI thread.
+ */
+@SuppressWarnings("nls")
+public class NativeRuleStore extends AbstractScriptStore{
+
+    /** Marker for 'no value pending' */
+    private static final Object NONE = new Object();
+
+    // Fields are set in init() called by the super constructor, so they must not have initializers
+
+    private volatile RuleEvaluator evaluator;
+
+    private RuleExpression.Inputs inputs;
+
+    /** Latest value that still needs to be set in UI thread, or NONE */
+    private AtomicReference<Object> pendingValue;
+
+    public NativeRuleStore(final ScriptData scriptData, final AbstractBaseEditPart editpart,
+            final IPV[] pvArray) throws Exception {
+        super(scriptData, editpart, pvArray);
+    }
+
+    @Override
+    protected void initScriptEngine() throws Exception {
+        final IPV[] pvs = getPvArray();
+        inputs = new RuleExpression.Inputs() {
+            @Override
+            public double getDouble(int index) {
+                return PVUtil.getDouble(pvs[index]);
+            }
+
+            @Override
+            public long getLong(int index) {
+                return PVUtil.getLong(pvs[index]);
+            }
+
+            @Override
+            public String getString(int index) {
+                return PVUtil.getString(pvs[index]);
+            }
+
+            @Override
+            public int getSeverity(int index) {
+                return PVUtil.getSeverity(pvs[index]);
+            }
+        };
+        pendingValue = new AtomicReference<Object>(NONE);
+    }
+
+    @Override
+    protected void compileRule(RuleScriptData ruleScriptData) throws Exception {
+        evaluator = RuleEvaluator.compile(ruleScriptData.getRuleData());
+        if(evaluator == null)
+            throw new Exception("Rule " + ruleScriptData.getRuleData().getName() + " requires a script engine");
+    }
+
+    @Override
+    protected void compileString(String string) throws Exception {
+        throw new Exception("Embedded scripts require a script engine, only rules can be evaluated without one");
+    }
+
+    @Override
+    protected void compileInputStream(File file, InputStream s) throws Exception {
+        // Caller only closes the stream after successful compilation
+        s.close();
+        throw new Exception("Script " + (file == null ? "" : file.getName() + " ") +
+                "requires a script engine, only rules can be evaluated without one");
+    }
+
+    @Override
+    protected void executeScript(final IPV triggerPV) {
+        if(!isExecutable())
+            return;
+        final Object value;
+        try {
+            value = evaluator.evaluate(inputs);
+        } catch (Exception e) {
+            handleError(e);
+            return;
+        }
+        // Only one update is queued for the UI thread, it sets the latest value
+        if(pendingValue.getAndSet(value) == NONE)
+            execInUIThread(new Runnable() {
+                @Override
+                public void run() {
+                    final Object latest = pendingValue.getAndSet(NONE);
+                    if(isExecutable()){
+                        try {
+                            getEditPart().setPropertyValue(evaluator.getPropId(), latest);
+                        } catch (Exception e) {
+                            handleError(e);
+                        }
+                    }
+                }
+            });
+    }
+
+    @Override
+    protected void execScript(final IPV triggerPV) throws Exception {
+        getEditPart().setPropertyValue(evaluator.getPropId(), evaluator.evaluate(inputs));
+    }
+
+}
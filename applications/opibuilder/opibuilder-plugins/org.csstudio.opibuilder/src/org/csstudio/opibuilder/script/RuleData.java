@@ -248,7 +248,6 @@ public class RuleData implements IAdaptable{
     public RuleScriptData convertToScriptData(){
         RuleScriptData ruleScriptData  = new RuleScriptData(this);
         ruleScriptData.setPVList(pvList);
-        ruleScriptData.setScriptString(generateScript());
         return ruleScriptData;
     }
 
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.opibuilder.script;
+
+import java.util.List;
+
+import org.csstudio.opibuilder.properties.AbstractWidgetProperty;
+
+/**{@link RuleData} compiled into {@link RuleExpression}s.
+ *
+ * <p>Determines the same property value as the script
+ * generated by {@link RuleData#generateScript()},
+ * but without a script engine, so it can be evaluated in any thread.
+ */
+public class RuleEvaluator {
+
+    private final String propId;
+    private final RuleExpression[] conditions;
+    /** Value expressions if the rule outputs the expression value, otherwise <code>null</code> */
+    private final RuleExpression[] valueExpressions;
+    private final Object[] values;
+    private final Object defaultValue;
+
+    private RuleEvaluator(final String propId, final RuleExpression[] conditions,
+            final RuleExpression[] valueExpressions, final Object[] values, final Object defaultValue) {
+        this.propId = propId;
+        this.conditions = conditions;
+        this.valueExpressions = valueExpressions;
+        this.values = values;
+        this.defaultValue = defaultValue;
+    }
+
+    /**Compile a rule.
+     * @param rule Rule
+     * @return {@link RuleEvaluator}, or <code>null</code> if the rule needs to be executed as a script
+     */
+    public static RuleEvaluator compile(final RuleData rule) {
+        final List<Expression> expressions = rule.getExpressionList();
+        final AbstractWidgetProperty property = rule.getProperty();
+        if (expressions.isEmpty() || property == null)
+            return null;
+        final int pvCount = rule.getPVList().size();
+        final int n = expressions.size();
+        final RuleExpression[] conditions = new RuleExpression[n];
+        final RuleExpression[] valueExpressions = rule.isOutputExpValue() ? new RuleExpression[n] : null;
+        final Object[] values = new Object[n];
+        for (int i=0; i<n; ++i) {
+            final Expression exp = expressions.get(i);
+            conditions[i] = parse(exp.getBooleanExpression(), pvCount);
+            if (conditions[i] == null || !conditions[i].isCondition())
+                return null;
+            if (valueExpressions != null) {
+                valueExpressions[i] = parse(String.valueOf(exp.getValue()), pvCount);
+                if (valueExpressions[i] == null)
+                    return null;
+            } else
+                values[i] = exp.getValue();
+        }
+        return new RuleEvaluator(rule.getPropId(), conditions, valueExpressions, values,
+                property.getPropertyValue());
+    }
+
+    /** @return Parsed expression, <code>null</code> if not supported or using undefined PVs */
+    private static RuleExpression parse(final String text, final int pvCount) {
+        final RuleExpression expression = RuleExpression.parse(text);
+        if (expression == null || expression.getMaxPVIndex() >= pvCount)
+            return null;
+        return expression;
+    }
+
+    /** @return ID of the property that the rule sets */
+    public String getPropId() {
+        return propId;
+    }
+
+    /**Evaluate the rule.
+     * @param in Inputs
+     * @return Value for the property
+     * @throws Exception on error reading the inputs
+     */
+    public Object evaluate(final RuleExpression.Inputs in) throws Exception {
+        for (int i=0; i<conditions.length; ++i) {
+            if (conditions[i].isTrue(in))
+                return valueExpressions != null ? valueExpressions[i].evaluate(in) : values[i];
+        }
+        return defaultValue;
+    }
+}
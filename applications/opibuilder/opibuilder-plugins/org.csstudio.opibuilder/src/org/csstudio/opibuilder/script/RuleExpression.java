@@ -0,0 +1,976 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.opibuilder.script;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**Expression of a rule, evaluated without a script engine.
+ *
+ * <p>Supports the subset of JavaScript that is typically used in rules:
+ * Number, string and boolean literals,
+ * the PV variables <code>pv0</code>, <code>pvInt0</code>, <code>pvStr0</code>, <code>pvSev0</code>, ...,
+ * the operators <code>! - + * / % &lt; &lt;= &gt; &gt;= == != === !== &amp;&amp; || ?:</code>,
+ * parentheses, <code>Math.PI</code>, <code>Math.E</code> and the common <code>Math</code> functions.
+ * Evaluation follows the JavaScript rules for type conversion.
+ * {@link #parse(String)} returns <code>null</code> for anything else,
+ * and such rules need to be executed by the script engine.
+ *
+ * <p>The script engine receives <code>pvStr#</code> as a Java string from <code>PVUtil.getString()</code>
+ * and wraps it as an object, which is always <code>true</code> and only equal to itself.
+ * Expressions that depend on this, like <code>pvStr0 === 'x'</code>, <code>pvStr0 == pvStr1</code>
+ * or <code>!pvStr0</code>, are therefore not supported.
+ *
+ * <p>The type of each node in the expression tree is determined when parsing,
+ * so numbers are evaluated as <code>double</code> without boxing.
+ * Parsed expressions are immutable and shared by all rules that use the same expression text.
+ */
+@SuppressWarnings("nls")
+public class RuleExpression {
+
+    /** Values of the PVs that an expression can access */
+    public interface Inputs {
+        /** @return Value of PV as <code>pv#</code> */
+        double getDouble(int index) throws Exception;
+        /** @return Value of PV as <code>pvInt#</code> */
+        long getLong(int index) throws Exception;
+        /** @return Value of PV as <code>pvStr#</code> */
+        String getString(int index) throws Exception;
+        /** @return Value of PV as <code>pvSev#</code> */
+        int getSeverity(int index) throws Exception;
+    }
+
+    /** Type of a node */
+    enum Type {
+        NUMBER, STRING, BOOLEAN
+    }
+
+    /** Node in the expression tree.
+     *  Each node implements the method of its type, the other methods convert like JavaScript.
+     */
+    private static abstract class Node {
+        final Type type;
+
+        Node(final Type type) {
+            this.type = type;
+        }
+
+        double number(final Inputs in) throws Exception {
+            if (type == Type.BOOLEAN)
+                return bool(in) ? 1.0 : 0.0;
+            return toNumber(string(in));
+        }
+
+        boolean bool(final Inputs in) throws Exception {
+            if (type == Type.NUMBER)
+                return isTrue(number(in));
+            return !string(in).isEmpty();
+        }
+
+        String string(final Inputs in) throws Exception {
+            if (type == Type.NUMBER)
+                return numberToString(number(in));
+            return Boolean.toString(bool(in));
+        }
+
+        /** @return <code>true</code> for a Java string, which the script engine wraps as an object */
+        boolean isJavaString() {
+            return false;
+        }
+
+        Object value(final Inputs in) throws Exception {
+            switch (type) {
+            case NUMBER:
+                return number(in);
+            case BOOLEAN:
+                return bool(in);
+            default:
+                return string(in);
+            }
+        }
+    }
+
+    private static abstract class NumberNode extends Node {
+        NumberNode() {
+            super(Type.NUMBER);
+        }
+
+        @Override
+        abstract double number(Inputs in) throws Exception;
+    }
+
+    private static abstract class BooleanNode extends Node {
+        BooleanNode() {
+            super(Type.BOOLEAN);
+        }
+
+        @Override
+        abstract boolean bool(Inputs in) throws Exception;
+    }
+
+    private static abstract class StringNode extends Node {
+        StringNode() {
+            super(Type.STRING);
+        }
+
+        @Override
+        abstract String string(Inputs in) throws Exception;
+    }
+
+    /** Marker for expressions that cannot be parsed */
+    private static final RuleExpression UNSUPPORTED = new RuleExpression("", null, -1);
+
+    /** Parsed expressions by text */
+    private static final Map<String, RuleExpression> cache = new ConcurrentHashMap<>();
+
+    /** Limit for the number of cached expressions */
+    private static final int CACHE_LIMIT = 10000;
+
+    /** JavaScript syntax of a decimal number in a string */
+    private static final Pattern DECIMAL = Pattern.compile("[+-]?(Infinity|(\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?)");
+
+    /** JavaScript syntax of a hexadecimal number in a string */
+    private static final Pattern HEX = Pattern.compile("0[xX][0-9a-fA-F]+");
+
+    private final String text;
+    private final Node root;
+    private final int max_index;
+
+    private RuleExpression(final String text, final Node root, final int max_index) {
+        this.text = text;
+        this.root = root;
+        this.max_index = max_index;
+    }
+
+    /**Parse an expression.
+     * @param text Expression text
+     * @return Parsed expression, or <code>null</code> if the expression is not supported
+     */
+    public static RuleExpression parse(final String text) {
+        RuleExpression expression = cache.get(text);
+        if (expression == null) {
+            try {
+                final Parser parser = new Parser(text);
+                expression = new RuleExpression(text, parser.parse(), parser.max_index);
+            } catch (IllegalArgumentException ex) {
+                expression = UNSUPPORTED;
+            }
+            if (cache.size() >= CACHE_LIMIT)
+                cache.clear();
+            cache.put(text, expression);
+        }
+        return expression == UNSUPPORTED ? null : expression;
+    }
+
+    /** @return Type of the expression's result */
+    Type getType() {
+        return root.type;
+    }
+
+    /** @return Highest PV index used by the expression, -1 if none */
+    public int getMaxPVIndex() {
+        return max_index;
+    }
+
+    /**@return <code>true</code> if the expression can be used as a condition,
+     *         <code>false</code> if the script engine would treat the result as an object
+     */
+    public boolean isCondition() {
+        return !root.isJavaString();
+    }
+
+    /**@param in Inputs
+     * @return Result of the expression as boolean
+     * @throws Exception on error reading the inputs
+     */
+    public boolean isTrue(final Inputs in) throws Exception {
+        return root.bool(in);
+    }
+
+    /**@param in Inputs
+     * @return Result of the expression as {@link Double}, {@link String} or {@link Boolean}
+     * @throws Exception on error reading the inputs
+     */
+    public Object evaluate(final Inputs in) throws Exception {
+        return root.value(in);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    // JavaScript type conversions
+
+    static boolean isTrue(final double number) {
+        return number != 0.0 && !Double.isNaN(number);
+    }
+
+    static double toNumber(final String text) {
+        final String trimmed = text.trim();
+        if (trimmed.isEmpty())
+            return 0.0;
+        if (HEX.matcher(trimmed).matches())
+            return new BigInteger(trimmed.substring(2), 16).doubleValue();
+        if (!DECIMAL.matcher(trimmed).matches())
+            return Double.NaN;
+        if (trimmed.endsWith("Infinity"))
+            return trimmed.startsWith("-") ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        return Double.parseDouble(trimmed);
+    }
+
+    static String numberToString(final double number) {
+        if (Double.isNaN(number))
+            return "NaN";
+        if (Double.isInfinite(number))
+            return number > 0 ? "Infinity" : "-Infinity";
+        if (number == 0.0)
+            return "0";
+        final double abs = Math.abs(number);
+        if (abs >= 1e-7 && abs < 1e21)
+            return new BigDecimal(Double.toString(number)).stripTrailingZeros().toPlainString();
+        // Exponential format like 1.5e-8 or 1e+21
+        final String java = Double.toString(number);
+        final int e = java.indexOf('E');
+        String mantissa = java.substring(0, e);
+        if (mantissa.endsWith(".0"))
+            mantissa = mantissa.substring(0, mantissa.length() - 2);
+        final String exponent = java.substring(e + 1);
+        return mantissa + "e" + (exponent.startsWith("-") ? exponent : "+" + exponent);
+    }
+
+    /** Recursive descent parser, throws {@link IllegalArgumentException} for unsupported input */
+    private static class Parser {
+        private final String text;
+        private int pos = 0;
+        int max_index = -1;
+
+        Parser(final String text) {
+            this.text = text;
+        }
+
+        Node parse() {
+            final Node node = parseConditional();
+            skipSpace();
+            if (pos < text.length())
+                throw unsupported();
+            return node;
+        }
+
+        private IllegalArgumentException unsupported() {
+            return new IllegalArgumentException("Unsupported rule expression '" + text + "' at " + pos);
+        }
+
+        private void skipSpace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos)))
+                ++pos;
+        }
+
+        /** @return <code>true</code> if the operator is next, and consume it */
+        private boolean consume(final String operator) {
+            skipSpace();
+            if (!text.startsWith(operator, pos))
+                return false;
+            pos += operator.length();
+            return true;
+        }
+
+        /** @return <code>true</code> if the operator is next but not followed by one of the 'not' characters */
+        private boolean consume(final String operator, final String not) {
+            skipSpace();
+            final int end = pos + operator.length();
+            if (!text.startsWith(operator, pos)
+                    || (end < text.length() && not.indexOf(text.charAt(end)) >= 0))
+                return false;
+            pos = end;
+            return true;
+        }
+
+        private Node parseConditional() {
+            final Node condition = parseOr();
+            if (!consume("?"))
+                return condition;
+            final Node yes = parseConditional();
+            if (!consume(":"))
+                throw unsupported();
+            final Node no = parseConditional();
+            return conditional(condition, yes, no);
+        }
+
+        private Node parseOr() {
+            Node result = parseAnd();
+            while (consume("||"))
+                result = logical(result, parseAnd(), true);
+            return result;
+        }
+
+        private Node parseAnd() {
+            Node result = parseEquality();
+            while (consume("&&"))
+                result = logical(result, parseEquality(), false);
+            return result;
+        }
+
+        private Node parseEquality() {
+            Node result = parseRelational();
+            while (true) {
+                if (consume("==="))
+                    result = equal(result, parseRelational(), true, false);
+                else if (consume("!=="))
+                    result = equal(result, parseRelational(), true, true);
+                else if (consume("=="))
+                    result = equal(result, parseRelational(), false, false);
+                else if (consume("!="))
+                    result = equal(result, parseRelational(), false, true);
+                else
+                    return result;
+            }
+        }
+
+        private Node parseRelational() {
+            Node result = parseAdditive();
+            while (true) {
+                if (consume("<="))
+                    result = compare(result, parseAdditive(), '{');
+                else if (consume(">="))
+                    result = compare(result, parseAdditive(), '}');
+                else if (consume("<", "<"))
+                    result = compare(result, parseAdditive(), '<');
+                else if (consume(">", ">"))
+                    result = compare(result, parseAdditive(), '>');
+                else
+                    return result;
+            }
+        }
+
+        private Node parseAdditive() {
+            Node result = parseMultiplicative();
+            while (true) {
+                if (consume("+", "+="))
+                    result = add(result, parseMultiplicative());
+                else if (consume("-", "-="))
+                    result = arithmetic(result, parseMultiplicative(), '-');
+                else
+                    return result;
+            }
+        }
+
+        private Node parseMultiplicative() {
+            Node result = parseUnary();
+            while (true) {
+                if (consume("*", "*="))
+                    result = arithmetic(result, parseUnary(), '*');
+                else if (consume("/", "/="))
+                    result = arithmetic(result, parseUnary(), '/');
+                else if (consume("%", "="))
+                    result = arithmetic(result, parseUnary(), '%');
+                else
+                    return result;
+            }
+        }
+
+        private Node parseUnary() {
+            if (consume("!", "="))
+                return not(parseUnary());
+            if (consume("-", "-"))
+                return negate(parseUnary());
+            if (consume("+", "+"))
+                return toNumber(parseUnary());
+            return parsePrimary();
+        }
+
+        private Node parsePrimary() {
+            skipSpace();
+            if (pos >= text.length())
+                throw unsupported();
+            final char c = text.charAt(pos);
+            if (c == '(') {
+                ++pos;
+                final Node node = parseConditional();
+                if (!consume(")"))
+                    throw unsupported();
+                return node;
+            }
+            if (c == '"' || c == '\'')
+                return constant(parseString(c));
+            if (Character.isDigit(c) || c == '.')
+                return constant(parseNumber());
+            if (Character.isJavaIdentifierStart(c))
+                return parseIdentifier();
+            throw unsupported();
+        }
+
+        private String parseString(final char quote) {
+            final StringBuilder buf = new StringBuilder();
+            ++pos;
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == quote)
+                    return buf.toString();
+                if (c == '\\') {
+                    if (pos >= text.length())
+                        break;
+                    c = text.charAt(pos++);
+                    switch (c) {
+                    case 'n': buf.append('\n'); break;
+                    case 't': buf.append('\t'); break;
+                    case 'r': buf.append('\r'); break;
+                    case 'b': buf.append('\b'); break;
+                    case 'f': buf.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > text.length())
+                            throw unsupported();
+                        try {
+                            buf.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw unsupported();
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        if (Character.isDigit(c) || c == 'x' || c == '\n')
+                            throw unsupported();
+                        buf.append(c);
+                    }
+                } else if (c == '\n')
+                    break;
+                else
+                    buf.append(c);
+            }
+            throw unsupported();
+        }
+
+        private double parseNumber() {
+            final int start = pos;
+            if (text.startsWith("0x", pos) || text.startsWith("0X", pos)) {
+                pos += 2;
+                while (pos < text.length() && Character.digit(text.charAt(pos), 16) >= 0)
+                    ++pos;
+                if (pos == start + 2)
+                    throw unsupported();
+                checkEndOfNumber();
+                return new BigInteger(text.substring(start + 2, pos), 16).doubleValue();
+            }
+            while (pos < text.length() && Character.isDigit(text.charAt(pos)))
+                ++pos;
+            if (pos < text.length() && text.charAt(pos) == '.') {
+                ++pos;
+                while (pos < text.length() && Character.isDigit(text.charAt(pos)))
+                    ++pos;
+            }
+            if (pos < text.length() && (text.charAt(pos) == 'e' || text.charAt(pos) == 'E')) {
+                ++pos;
+                if (pos < text.length() && (text.charAt(pos) == '+' || text.charAt(pos) == '-'))
+                    ++pos;
+                final int digits = pos;
+                while (pos < text.length() && Character.isDigit(text.charAt(pos)))
+                    ++pos;
+                if (pos == digits)
+                    throw unsupported();
+            }
+            checkEndOfNumber();
+            final String number = text.substring(start, pos);
+            // Octal literals like 010 differ between JavaScript versions
+            if (number.equals(".") || (number.length() > 1 && number.charAt(0) == '0' && Character.isDigit(number.charAt(1))))
+                throw unsupported();
+            return Double.parseDouble(number);
+        }
+
+        private void checkEndOfNumber() {
+            if (pos < text.length() && Character.isJavaIdentifierPart(text.charAt(pos)))
+                throw unsupported();
+        }
+
+        private String parseName() {
+            final int start = pos;
+            while (pos < text.length() && Character.isJavaIdentifierPart(text.charAt(pos)))
+                ++pos;
+            return text.substring(start, pos);
+        }
+
+        private Node parseIdentifier() {
+            final String name = parseName();
+            if (name.equals("true"))
+                return constant(true);
+            if (name.equals("false"))
+                return constant(false);
+            if (name.equals("Math"))
+                return parseMath();
+            if (name.startsWith("pvInt"))
+                return pvLong(parseIndex(name, 5));
+            if (name.startsWith("pvStr"))
+                return pvString(parseIndex(name, 5));
+            if (name.startsWith("pvSev"))
+                return pvSeverity(parseIndex(name, 5));
+            if (name.startsWith("pv"))
+                return pvDouble(parseIndex(name, 2));
+            throw unsupported();
+        }
+
+        private int parseIndex(final String name, final int start) {
+            if (name.length() <= start || name.length() > start + 4)
+                throw unsupported();
+            for (int i=start; i<name.length(); ++i)
+                if (name.charAt(i) < '0' || name.charAt(i) > '9')
+                    throw unsupported();
+            // pv01 is a different variable than pv1, and not defined
+            if (name.charAt(start) == '0' && name.length() > start + 1)
+                throw unsupported();
+            final int index = Integer.parseInt(name.substring(start));
+            max_index = Math.max(max_index, index);
+            return index;
+        }
+
+        private Node parseMath() {
+            if (!consume("."))
+                throw unsupported();
+            skipSpace();
+            final String name = parseName();
+            if (name.equals("PI"))
+                return constant(Math.PI);
+            if (name.equals("E"))
+                return constant(Math.E);
+            if (!consume("("))
+                throw unsupported();
+            final List<Node> args = new ArrayList<>();
+            if (!consume(")")) {
+                do
+                    args.add(parseConditional());
+                while (consume(","));
+                if (!consume(")"))
+                    throw unsupported();
+            }
+            return math(name, args.toArray(new Node[args.size()]));
+        }
+
+        private Node math(final String name, final Node[] args) {
+            if (name.equals("min") || name.equals("max")) {
+                final boolean max = name.equals("max");
+                return new NumberNode() {
+                    @Override
+                    double number(final Inputs in) throws Exception {
+                        double result = max ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+                        for (Node arg : args) {
+                            final double value = arg.number(in);
+                            if (Double.isNaN(value))
+                                return Double.NaN;
+                            result = max ? Math.max(result, value) : Math.min(result, value);
+                        }
+                        return result;
+                    }
+                };
+            }
+            if (name.equals("pow") || name.equals("atan2")) {
+                if (args.length != 2)
+                    throw unsupported();
+                final boolean pow = name.equals("pow");
+                final Node x = args[0], y = args[1];
+                return new NumberNode() {
+                    @Override
+                    double number(final Inputs in) throws Exception {
+                        return pow ? Math.pow(x.number(in), y.number(in))
+                                   : Math.atan2(x.number(in), y.number(in));
+                    }
+                };
+            }
+            if (args.length != 1)
+                throw unsupported();
+            final Node x = args[0];
+            switch (name) {
+            case "abs":
+                return new NumberNode() {
+                    @Override
+                    double number(final Inputs in) throws Exception {
+                        return Math.abs(x.number(in));
+                    }
+                };
+            case "floor":
+                return new NumberNode() {
+                    @Override
+                    double number(final Inputs in) throws Exception {
+                        return Math.floor(x.number(in));
+                    }
+                };
+            case "ceil":
+                return new NumberNode() {
+                    @Override
+                    double number(final Inputs in) throws Exception {
+                        return Math.ceil(x.number(in));
+                    }
+                };
+            case "round":
+                // JavaScript rounds .5 up, also for negative numbers
+                return new NumberNode() {
+                    @Override
+                    double number(final Inputs in) throws Exception {
+                        final double value = x.number(in);
+                        if (Double.isNaN(value) || Double.isInfinite(value))
+                            return value;
+                        return Math.floor(value + 0.5);
+                    }
+                };
+            case "sqrt":
+                return new NumberNode() {
+                    @Override
+                    double number(final Inputs in) throws Exception {
+                        return Math.sqrt(x.number(in));
+                    }
+                };
+            case "exp":
+                return new NumberNode() {
+                    @Override
+                    double number(final Inputs in) throws Exception {
+                        return Math.exp(x.number(in));
+                    }
+                };
+            case "log":
+                return new NumberNode() {
+                    @Override
+                    double number(final Inputs in) throws Exception {
+                        return Math.log(x.number(in));
+                    }
+                };
+            case "sin":
+                return new NumberNode() {
+                    @Override
+                    double number(final Inputs in) throws Exception {
+                        return Math.sin(x.number(in));
+                    }
+                };
+            case "cos":
+                return new NumberNode() {
+                    @Override
+                    double number(final Inputs in) throws Exception {
+                        return Math.cos(x.number(in));
+                    }
+                };
+            case "tan":
+                return new NumberNode() {
+                    @Override
+                    double number(final Inputs in) throws Exception {
+                        return Math.tan(x.number(in));
+                    }
+                };
+            default:
+                throw unsupported();
+            }
+        }
+    }
+
+    // Node factories
+
+    private static Node constant(final double number) {
+        return new NumberNode() {
+            @Override
+            double number(final Inputs in) {
+                return number;
+            }
+        };
+    }
+
+    private static Node constant(final boolean value) {
+        return new BooleanNode() {
+            @Override
+            boolean bool(final Inputs in) {
+                return value;
+            }
+        };
+    }
+
+    private static Node constant(final String value) {
+        return new StringNode() {
+            @Override
+            String string(final Inputs in) {
+                return value;
+            }
+        };
+    }
+
+    private static Node pvDouble(final int index) {
+        return new NumberNode() {
+            @Override
+            double number(final Inputs in) throws Exception {
+                return in.getDouble(index);
+            }
+        };
+    }
+
+    private static Node pvLong(final int index) {
+        return new NumberNode() {
+            @Override
+            double number(final Inputs in) throws Exception {
+                return in.getLong(index);
+            }
+        };
+    }
+
+    private static Node pvSeverity(final int index) {
+        return new NumberNode() {
+            @Override
+            double number(final Inputs in) throws Exception {
+                return in.getSeverity(index);
+            }
+        };
+    }
+
+    private static Node pvString(final int index) {
+        return new StringNode() {
+            @Override
+            String string(final Inputs in) throws Exception {
+                return in.getString(index);
+            }
+
+            @Override
+            boolean isJavaString() {
+                return true;
+            }
+        };
+    }
+
+    /** @return Operand that can be converted to boolean like in the script engine */
+    private static Node condition(final Node operand) {
+        if (operand.isJavaString())
+            throw new IllegalArgumentException("Java string used as condition");
+        return operand;
+    }
+
+    private static Node not(final Node operand) {
+        condition(operand);
+        return new BooleanNode() {
+            @Override
+            boolean bool(final Inputs in) throws Exception {
+                return !operand.bool(in);
+            }
+        };
+    }
+
+    private static Node negate(final Node operand) {
+        return new NumberNode() {
+            @Override
+            double number(final Inputs in) throws Exception {
+                return -operand.number(in);
+            }
+        };
+    }
+
+    private static Node toNumber(final Node operand) {
+        if (operand.type == Type.NUMBER)
+            return operand;
+        return new NumberNode() {
+            @Override
+            double number(final Inputs in) throws Exception {
+                return operand.number(in);
+            }
+        };
+    }
+
+    private static Node add(final Node left, final Node right) {
+        if (left.type == Type.STRING || right.type == Type.STRING)
+            return new StringNode() {
+                @Override
+                String string(final Inputs in) throws Exception {
+                    return left.string(in) + right.string(in);
+                }
+            };
+        return arithmetic(left, right, '+');
+    }
+
+    private static Node arithmetic(final Node left, final Node right, final char operator) {
+        switch (operator) {
+        case '+':
+            return new NumberNode() {
+                @Override
+                double number(final Inputs in) throws Exception {
+                    return left.number(in) + right.number(in);
+                }
+            };
+        case '-':
+            return new NumberNode() {
+                @Override
+                double number(final Inputs in) throws Exception {
+                    return left.number(in) - right.number(in);
+                }
+            };
+        case '*':
+            return new NumberNode() {
+                @Override
+                double number(final Inputs in) throws Exception {
+                    return left.number(in) * right.number(in);
+                }
+            };
+        case '/':
+            return new NumberNode() {
+                @Override
+                double number(final Inputs in) throws Exception {
+                    return left.number(in) / right.number(in);
+                }
+            };
+        default:
+            // Java's remainder of doubles matches the JavaScript '%'
+            return new NumberNode() {
+                @Override
+                double number(final Inputs in) throws Exception {
+                    return left.number(in) % right.number(in);
+                }
+            };
+        }
+    }
+
+    /** @param operator '&lt;', '&gt;', '{' for '&lt;=', '}' for '&gt;=' */
+    private static Node compare(final Node left, final Node right, final char operator) {
+        if (left.type == Type.STRING && right.type == Type.STRING)
+            return new BooleanNode() {
+                @Override
+                boolean bool(final Inputs in) throws Exception {
+                    final int cmp = left.string(in).compareTo(right.string(in));
+                    switch (operator) {
+                    case '<': return cmp < 0;
+                    case '>': return cmp > 0;
+                    case '{': return cmp <= 0;
+                    default:  return cmp >= 0;
+                    }
+                }
+            };
+        // Comparisons with NaN are always false
+        switch (operator) {
+        case '<':
+            return new BooleanNode() {
+                @Override
+                boolean bool(final Inputs in) throws Exception {
+                    return left.number(in) < right.number(in);
+                }
+            };
+        case '>':
+            return new BooleanNode() {
+                @Override
+                boolean bool(final Inputs in) throws Exception {
+                    return left.number(in) > right.number(in);
+                }
+            };
+        case '{':
+            return new BooleanNode() {
+                @Override
+                boolean bool(final Inputs in) throws Exception {
+                    return left.number(in) <= right.number(in);
+                }
+            };
+        default:
+            return new BooleanNode() {
+                @Override
+                boolean bool(final Inputs in) throws Exception {
+                    return left.number(in) >= right.number(in);
+                }
+            };
+        }
+    }
+
+    private static Node equal(final Node left, final Node right, final boolean strict, final boolean negate) {
+        // Script engine compares Java strings as objects
+        if ((strict && (left.isJavaString() || right.isJavaString()))
+                || (left.isJavaString() && right.isJavaString()))
+            throw new IllegalArgumentException("Java string compared as object");
+        // Strict comparison of different types is always false
+        if (strict && left.type != right.type)
+            return constant(negate);
+        if (left.type == Type.STRING && right.type == Type.STRING)
+            return new BooleanNode() {
+                @Override
+                boolean bool(final Inputs in) throws Exception {
+                    return left.string(in).equals(right.string(in)) != negate;
+                }
+            };
+        if (left.type == Type.BOOLEAN && right.type == Type.BOOLEAN)
+            return new BooleanNode() {
+                @Override
+                boolean bool(final Inputs in) throws Exception {
+                    return (left.bool(in) == right.bool(in)) != negate;
+                }
+            };
+        // Otherwise both sides are compared as numbers
+        return new BooleanNode() {
+            @Override
+            boolean bool(final Inputs in) throws Exception {
+                return (left.number(in) == right.number(in)) != negate;
+            }
+        };
+    }
+
+    /** JavaScript '||' and '&&' return one of the operands, which must be of the same type */
+    private static Node logical(final Node left, final Node right, final boolean or) {
+        if (left.type != right.type)
+            throw new IllegalArgumentException("Operands of different type");
+        condition(left);
+        if (left.type == Type.BOOLEAN)
+            return new BooleanNode() {
+                @Override
+                boolean bool(final Inputs in) throws Exception {
+                    return or ? left.bool(in) || right.bool(in)
+                              : left.bool(in) && right.bool(in);
+                }
+            };
+        if (left.type == Type.NUMBER)
+            return new NumberNode() {
+                @Override
+                double number(final Inputs in) throws Exception {
+                    final double value = left.number(in);
+                    return isTrue(value) == or ? value : right.number(in);
+                }
+            };
+        return new StringNode() {
+            @Override
+            String string(final Inputs in) throws Exception {
+                final String value = left.string(in);
+                return value.isEmpty() != or ? value : right.string(in);
+            }
+
+            @Override
+            boolean isJavaString() {
+                return right.isJavaString();
+            }
+        };
+    }
+
+    private static Node conditional(final Node condition, final Node yes, final Node no) {
+        if (yes.type != no.type)
+            throw new IllegalArgumentException("Alternatives of different type");
+        condition(condition);
+        switch (yes.type) {
+        case NUMBER:
+            return new NumberNode() {
+                @Override
+                double number(final Inputs in) throws Exception {
+                    return condition.bool(in) ? yes.number(in) : no.number(in);
+                }
+            };
+        case BOOLEAN:
+            return new BooleanNode() {
+                @Override
+                boolean bool(final Inputs in) throws Exception {
+                    return condition.bool(in) ? yes.bool(in) : no.bool(in);
+                }
+            };
+        default:
+            return new StringNode() {
+                @Override
+                String string(final Inputs in) throws Exception {
+                    return condition.bool(in) ? yes.string(in) : no.string(in);
+                }
+
+                @Override
+                boolean isJavaString() {
+                    return yes.isJavaString() || no.isJavaString();
+                }
+            };
+        }
+    }
+}
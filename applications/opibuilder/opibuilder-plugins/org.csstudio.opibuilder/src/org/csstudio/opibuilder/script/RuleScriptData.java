@@ -28,9 +28,11 @@ public class RuleScriptData extends ScriptData {
     }
 
     /**
-     * @return the scriptString
+     * @return the scriptString. Generated from the rule if it has not been set.
      */
     public final String getScriptString() {
+        if(scriptString == null)
+            scriptString = ruleData.generateScript();
         return scriptString;
     }
 
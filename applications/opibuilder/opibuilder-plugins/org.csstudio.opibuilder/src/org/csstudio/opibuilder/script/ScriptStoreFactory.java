@@ -164,6 +164,10 @@ public class ScriptStoreFactory {
      */
     public static AbstractScriptStore getScriptStore(
             ScriptData scriptData, AbstractBaseEditPart editpart, IPV[] pvArray) throws Exception{
+        // Rules that only use PV values and basic operators don't need a script engine
+        if(scriptData instanceof RuleScriptData &&
+                RuleEvaluator.compile(((RuleScriptData)scriptData).getRuleData()) != null)
+            return new NativeRuleStore(scriptData, editpart, pvArray);
         if(!scriptData.isEmbedded() &&
                 (scriptData.getPath() == null || scriptData.getPath().getFileExtension() == null)){
             if(scriptData instanceof RuleScriptData){
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.swt.widgets.datadefinition;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.csstudio.swt.widgets.datadefinition.ColorMap.PredefinedColorMap;
+import org.eclipse.swt.graphics.ImageData;
+import org.junit.Test;
+
+/**JUnit test of the {@link ColorMap}.
+ * <p>24 bit images are filled directly, other depths via {@link ImageData#setPixel(int, int, int)}.
+ * A 32 bit image with the same palette is used as the reference for the pixels.
+ */
+@SuppressWarnings("nls")
+public class ColorMapTest {
+
+    private static void checkImage(final String name, final IPrimaryArrayWrapper data,
+            final int dataWidth, final int dataHeight, final int width, final int height,
+            final double max, final double min){
+        final ColorMap map = new ColorMap(PredefinedColorMap.JET, true, true);
+        final boolean shrink = width < dataWidth || height < dataHeight;
+        final ImageData direct = new ImageData(width, height, 24, map.getPalette());
+        final ImageData reference = new ImageData(width, height, 32, map.getPalette());
+        assertSame(direct, map.drawImage(data, dataWidth, dataHeight, max, min, direct, shrink));
+        assertSame(reference, map.drawImage(data, dataWidth, dataHeight, max, min, reference, shrink));
+        for(int y=0; y<height; y++)
+            for(int x=0; x<width; x++)
+                assertEquals(name + " pixel " + x + ", " + y, reference.getPixel(x, y), direct.getPixel(x, y));
+    }
+
+    private static void checkImages(final String name, final IPrimaryArrayWrapper data,
+            final int dataWidth, final int dataHeight, final double max, final double min){
+        checkImage(name, data, dataWidth, dataHeight, dataWidth, dataHeight, max, min);
+        checkImage(name + " shrunk", data, dataWidth, dataHeight, dataWidth/3, dataHeight/2, max, min);
+    }
+
+    @Test
+    public void testPrimitiveArrays(){
+        final int width = 97, height = 61, size = width*height;
+        final double[] doubles = new double[size];
+        final float[] floats = new float[size];
+        final long[] longs = new long[size];
+        final int[] ints = new int[size];
+        final short[] shorts = new short[size];
+        final byte[] bytes = new byte[size];
+        for(int i=0; i<size; i++){
+            // Includes values below and above the min..max range
+            doubles[i] = Math.sin(i * 0.01) * 120.0;
+            floats[i] = (float) doubles[i];
+            longs[i] = Math.round(doubles[i]);
+            ints[i] = (int) longs[i];
+            shorts[i] = (short) (i * 37);
+            bytes[i] = (byte) i;
+        }
+        checkImages("double", new DoubleArrayWrapper(doubles), width, height, 100, -100);
+        checkImages("float", new FloatArrayWrapper(floats), width, height, 100, -100);
+        checkImages("long", new LongArrayWrapper(longs), width, height, 100, -100);
+        checkImages("int", new IntArrayWrapper(ints), width, height, 100, -100);
+        checkImages("short", new ShortArrayWrapper(shorts), width, height, 20000, -30000);
+        checkImages("byte", new ByteArrayWrapper(bytes), width, height, 100, -50);
+        // Other wrapper, read via get()
+        checkImages("wrapper", new IPrimaryArrayWrapper() {
+            @Override
+            public double get(int i) {
+                return doubles[i];
+            }
+
+            @Override
+            public int getSize() {
+                return doubles.length;
+            }
+        }, width, height, 100, -100);
+    }
+
+    @Test
+    public void testLargeImage(){
+        // Drawn by several threads, short data uses lookup table for all values
+        final int width = 640, height = 480, size = width*height;
+        final short[] shorts = new short[size];
+        for(int i=0; i<size; i++)
+            shorts[i] = (short) (i % 65536);
+        checkImages("large short", new ShortArrayWrapper(shorts), width, height, 40000, -40000);
+        final double[] doubles = new double[size];
+        for(int i=0; i<size; i++)
+            doubles[i] = (i % width) * 1.0 / width + (i / width) * 1.0 / height;
+        checkImages("large double", new DoubleArrayWrapper(doubles), width, height, 2, 0);
+    }
+}
@@ -25,6 +25,13 @@ public class ByteArrayWrapper implements IPrimaryArrayWrapper {
         this.data = data;
     }
 
+    /**
+     * @return the wrapped array.
+     */
+    public byte[] getData() {
+        return data;
+    }
+
     public double get(int i) {
         return data[i];
     }
@@ -9,6 +9,7 @@ package org.csstudio.swt.widgets.datadefinition;
 
 import java.util.Arrays;
 import java.util.LinkedHashMap;
+import java.util.stream.IntStream;
 
 import org.eclipse.swt.graphics.ImageData;
 import org.eclipse.swt.graphics.PaletteData;
@@ -77,6 +78,12 @@ public class ColorMap {
 
     }
 
+    /** Images with at least this many pixels are drawn by several threads */
+    private static final int PARALLEL_PIXELS = 256*1024;
+
+    /** Images of short data with at least this many pixels use a lookup table for all 65536 values */
+    private static final int SHORT_TABLE_PIXELS = 65536;
+
     private LinkedHashMap<Double, RGB> colorMap;
     private PredefinedColorMap predefinedColorMap;
     private boolean autoScale;
@@ -202,6 +209,11 @@ public class ColorMap {
             min = colorMapMin;
             max = colorMapMax;
         }
+            if(imageData.depth == 24 && (shrink ||
+                    (imageData.width >= dataWidth && imageData.height >= dataHeight))){
+                drawImageData(dataArray, dataWidth, dataHeight, max, min, imageData, shrink);
+                return imageData;
+            }
             if(shrink){
                 int height = imageData.height;
                 int width = imageData.width;
@@ -245,6 +257,151 @@ public class ColorMap {
             return imageData;
     }
 
+    /**Write the pixels of a 24 bit image directly into {@link ImageData#data},
+     * with the same result as {@link ImageData#setPixel(int, int, int)}.
+     * Large images are drawn by several threads, each one filling a range of rows.
+     */
+    private void drawImageData(final IPrimaryArrayWrapper dataArray, final int dataWidth, final int dataHeight,
+            final double max, final double min, final ImageData imageData, final boolean shrink){
+        final int width = shrink ? imageData.width : dataWidth;
+        final int height = shrink ? imageData.height : dataHeight;
+        //the source column and row of each image pixel
+        final int[] columns = new int[width];
+        final int[] rows = new int[height];
+        if(shrink){
+            int x_ratio = (int)((dataWidth<<16)/width) +1;
+            int y_ratio = (int)((dataHeight<<16)/height) +1;
+            for(int j=0; j<width; j++)
+                columns[j] = (j*x_ratio)>>16;
+            for(int i=0; i<height; i++)
+                rows[i] = (i*y_ratio)>>16;
+        }else{
+            for(int j=0; j<width; j++)
+                columns[j] = j;
+            for(int i=0; i<height; i++)
+                rows[i] = i;
+        }
+        //the three bytes of each pixel in the order used by ImageData for depth 24
+        final int[] pixels = pixelLookupTable;
+        final byte[] red = new byte[256], green = new byte[256], blue = new byte[256];
+        for(int k=0; k<256; k++){
+            red[k] = (byte) (pixels[k] >> 16);
+            green[k] = (byte) (pixels[k] >> 8);
+            blue[k] = (byte) pixels[k];
+        }
+        final RowPainter painter = createRowPainter(dataArray, dataWidth, max, min,
+                width*height, rows, columns, imageData.data, imageData.bytesPerLine, red, green, blue);
+        if(width*height >= PARALLEL_PIXELS)
+            IntStream.range(0, height).parallel().forEach(y -> painter.paint(y));
+        else
+            for(int y=0; y<height; y++)
+                painter.paint(y);
+    }
+
+    /** Fills one row of the image */
+    private interface RowPainter{
+        void paint(int y);
+    }
+
+    /**@return {@link RowPainter} that reads the array of the wrapper directly,
+     *  using a lookup table for the color index of byte and short data
+     */
+    private static RowPainter createRowPainter(final IPrimaryArrayWrapper dataArray, final int dataWidth,
+            final double max, final double min, final int pixelCount, final int[] rows, final int[] columns,
+            final byte[] data, final int bytesPerLine, final byte[] red, final byte[] green, final byte[] blue){
+        if(dataArray instanceof ByteArrayWrapper){
+            final byte[] values = ((ByteArrayWrapper) dataArray).getData();
+            final byte[] indices = new byte[256];
+            for(int i=0; i<256; i++)
+                indices[i] = (byte) getColorIndex((byte) i, max, min);
+            return y -> {
+                final int src = rows[y] * dataWidth;
+                int dst = y * bytesPerLine;
+                for(int x=0; x<columns.length; x++, dst+=3){
+                    final int index = indices[values[src + columns[x]] & 0xFF] & 0xFF;
+                    data[dst] = red[index]; data[dst+1] = green[index]; data[dst+2] = blue[index];
+                }
+            };
+        }
+        //the table for 16 bit data only pays off for larger images
+        if(dataArray instanceof ShortArrayWrapper && pixelCount >= SHORT_TABLE_PIXELS){
+            final short[] values = ((ShortArrayWrapper) dataArray).getData();
+            final byte[] indices = new byte[65536];
+            for(int i=0; i<65536; i++)
+                indices[i] = (byte) getColorIndex((short) i, max, min);
+            return y -> {
+                final int src = rows[y] * dataWidth;
+                int dst = y * bytesPerLine;
+                for(int x=0; x<columns.length; x++, dst+=3){
+                    final int index = indices[values[src + columns[x]] & 0xFFFF] & 0xFF;
+                    data[dst] = red[index]; data[dst+1] = green[index]; data[dst+2] = blue[index];
+                }
+            };
+        }
+        if(dataArray instanceof DoubleArrayWrapper){
+            final double[] values = ((DoubleArrayWrapper) dataArray).getData();
+            return y -> {
+                final int src = rows[y] * dataWidth;
+                int dst = y * bytesPerLine;
+                for(int x=0; x<columns.length; x++, dst+=3){
+                    final int index = getColorIndex(values[src + columns[x]], max, min);
+                    data[dst] = red[index]; data[dst+1] = green[index]; data[dst+2] = blue[index];
+                }
+            };
+        }
+        if(dataArray instanceof FloatArrayWrapper){
+            final float[] values = ((FloatArrayWrapper) dataArray).getData();
+            return y -> {
+                final int src = rows[y] * dataWidth;
+                int dst = y * bytesPerLine;
+                for(int x=0; x<columns.length; x++, dst+=3){
+                    final int index = getColorIndex(values[src + columns[x]], max, min);
+                    data[dst] = red[index]; data[dst+1] = green[index]; data[dst+2] = blue[index];
+                }
+            };
+        }
+        if(dataArray instanceof IntArrayWrapper){
+            final int[] values = ((IntArrayWrapper) dataArray).getData();
+            return y -> {
+                final int src = rows[y] * dataWidth;
+                int dst = y * bytesPerLine;
+                for(int x=0; x<columns.length; x++, dst+=3){
+                    final int index = getColorIndex(values[src + columns[x]], max, min);
+                    data[dst] = red[index]; data[dst+1] = green[index]; data[dst+2] = blue[index];
+                }
+            };
+        }
+        if(dataArray instanceof LongArrayWrapper){
+            final long[] values = ((LongArrayWrapper) dataArray).getData();
+            return y -> {
+                final int src = rows[y] * dataWidth;
+                int dst = y * bytesPerLine;
+                for(int x=0; x<columns.length; x++, dst+=3){
+                    final int index = getColorIndex(values[src + columns[x]], max, min);
+                    data[dst] = red[index]; data[dst+1] = green[index]; data[dst+2] = blue[index];
+                }
+            };
+        }
+        return y -> {
+            final int src = rows[y] * dataWidth;
+            int dst = y * bytesPerLine;
+            for(int x=0; x<columns.length; x++, dst+=3){
+                final int index = getColorIndex(dataArray.get(src + columns[x]), max, min);
+                data[dst] = red[index]; data[dst+1] = green[index]; data[dst+2] = blue[index];
+            }
+        };
+    }
+
+    /**@return the index of the value in the color table, 0 to 255 */
+    private static int getColorIndex(final double value, final double max, final double min){
+        final int index = (int) ((value - min) / (max - min) * 255);
+        if (index < 0)
+            return 0;
+        if (index > 255)
+            return 255;
+        return index;
+    }
+
     /**Calculate the image data from source data based on the color map.
      * @param dataArray the source data
      * @param dataWidth number of columns of dataArray; This will be the width of image data.
@@ -319,12 +476,15 @@ public class ColorMap {
             for(int j = 0; j<colorTupleArray.length; j++)
                 keyArray[j] = colorTupleArray[j].value;
 
-            colorsLookupTable = new RGB[256];
-            pixelLookupTable = new int[256];
+            //fill the tables before publishing them, images may be drawn in another thread
+            RGB[] colors = new RGB[256];
+            int[] pixels = new int[256];
             for(int k=0; k<256; k++){
-                colorsLookupTable[k] = getValueRGB(colorTupleArray, keyArray, autoScale? k/255.0 : colorMapMin + k*(colorMapMax-colorMapMin)/255.0);
-                pixelLookupTable[k] = palette.getPixel(colorsLookupTable[k]);
+                colors[k] = getValueRGB(colorTupleArray, keyArray, autoScale? k/255.0 : colorMapMin + k*(colorMapMax-colorMapMin)/255.0);
+                pixels[k] = palette.getPixel(colors[k]);
             }
+            pixelLookupTable = pixels;
+            colorsLookupTable = colors;
         }
 
         return colorsLookupTable;
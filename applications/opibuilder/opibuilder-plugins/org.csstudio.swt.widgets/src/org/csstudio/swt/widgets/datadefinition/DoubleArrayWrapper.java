@@ -25,6 +25,13 @@ public class DoubleArrayWrapper implements IPrimaryArrayWrapper {
         this.data = data;
     }
 
+    /**
+     * @return the wrapped array.
+     */
+    public double[] getData() {
+        return data;
+    }
+
     public double get(int i) {
         return data[i];
     }
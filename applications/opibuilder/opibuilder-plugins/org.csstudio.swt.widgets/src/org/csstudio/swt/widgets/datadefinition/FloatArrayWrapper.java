@@ -25,6 +25,13 @@ public class FloatArrayWrapper implements IPrimaryArrayWrapper {
         this.data = data;
     }
 
+    /**
+     * @return the wrapped array.
+     */
+    public float[] getData() {
+        return data;
+    }
+
     public double get(int i) {
         return data[i];
     }
@@ -25,6 +25,13 @@ public class IntArrayWrapper implements IPrimaryArrayWrapper {
         this.data = data;
     }
 
+    /**
+     * @return the wrapped array.
+     */
+    public int[] getData() {
+        return data;
+    }
+
     public double get(int i) {
         return data[i];
     }
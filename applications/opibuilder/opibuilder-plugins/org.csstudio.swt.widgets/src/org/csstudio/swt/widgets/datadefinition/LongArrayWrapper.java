@@ -25,6 +25,13 @@ public class LongArrayWrapper implements IPrimaryArrayWrapper {
         this.data = data;
     }
 
+    /**
+     * @return the wrapped array.
+     */
+    public long[] getData() {
+        return data;
+    }
+
     public double get(int i) {
         return data[i];
     }
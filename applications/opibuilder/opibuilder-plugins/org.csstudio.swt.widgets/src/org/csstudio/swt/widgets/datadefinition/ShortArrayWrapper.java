@@ -25,6 +25,13 @@ public class ShortArrayWrapper implements IPrimaryArrayWrapper {
         this.data = data;
     }
 
+    /**
+     * @return the wrapped array.
+     */
+    public short[] getData() {
+        return data;
+    }
+
     public double get(int i) {
         return data[i];
     }
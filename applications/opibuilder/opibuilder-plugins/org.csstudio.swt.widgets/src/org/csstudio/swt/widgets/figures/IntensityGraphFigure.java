@@ -13,7 +13,11 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
 
+import org.csstudio.swt.widgets.Activator;
 import org.csstudio.swt.widgets.datadefinition.ByteArrayWrapper;
 import org.csstudio.swt.widgets.datadefinition.ColorMap;
 import org.csstudio.swt.widgets.datadefinition.ColorMap.PredefinedColorMap;
@@ -410,17 +414,23 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
             if(dataArray == null)
                 return;
             Rectangle clientArea = getClientArea();
-            //draw image if data is dirty or bufferedImage has not been created yet
-            if(dataDirty || bufferedImage == null){
+            //show the image that has been drawn in background
+            if(renderedImageData != null){
+                setBufferedImage(renderedImageData);
+                renderedImageData = null;
+            }
+            //draw image if data is dirty or bufferedImage has not been created yet.
+            //While an image is drawn in background, the previous image is shown
+            //and the latest data is drawn once the background job is done.
+            if((dataDirty || bufferedImage == null) && !rendering){
                 dataDirty = false;
-                if(bufferedImage != null){
-                    bufferedImage.dispose();
-                    bufferedImage = null;
-                }
-                if(clientArea.width <0 || clientArea.height <0)
+                if(clientArea.width <0 || clientArea.height <0){
+                    disposeBufferedImage();
                     return;
+                }
                 if(dataWidth == 0 || dataHeight == 0 || (!isInRGBMode() && dataArray.getSize() < dataWidth * dataHeight)
                         || (isInRGBMode() && dataArray.getSize() < 3*dataWidth * dataHeight)){
+                    disposeBufferedImage();
                     graphics.drawRectangle(new Rectangle(
                             clientArea.x - (yAxis.isVisible()? 1:0),
                             clientArea.y,
@@ -437,8 +447,10 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
                     return;
                 }
 
-                if(dataWidth - cropLeft - cropRight < 0 || dataHeight - cropTop - cropBottom < 0)
+                if(dataWidth - cropLeft - cropRight < 0 || dataHeight - cropTop - cropBottom < 0){
+                    disposeBufferedImage();
                     return;
+                }
 
                 croppedDataArray = cropDataArray(cropLeft, cropRight, cropTop, cropBottom);
 
@@ -451,38 +463,46 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
                     shrink = true;
                 }
 
-
-                if(shrink){
-                    if(bufferedImageData == null || bufferedImageData.width != clientArea.width
-                            || bufferedImageData.height !=clientArea.height){
-                        bufferedImageData = new ImageData(clientArea.width, clientArea.height, 24, colorMap.getPalette());
-                    }
-                }else if(bufferedImageData == null || bufferedImageData.width != croppedDataWidth
-                        || bufferedImageData.height !=croppedDataHeight)
-                    bufferedImageData = new ImageData(croppedDataWidth, croppedDataHeight, 24, colorMap.getPalette());
-
-
-                ImageData imageData = null;
-                if(inRGBMode)
-                    try {
-                        imageData = drawRGBImage(croppedDataArray,
-                                croppedDataWidth, croppedDataHeight,
-                                max, min, bufferedImageData, shrink);
-                    } catch (IllegalArgumentException e) {
-                        graphics.drawText("Drawing Exception: RGB value is not between 0 and 255." +
-                    "\nPlease check if the data or color depth is correct.",
-                                clientArea.getLocation());
+                final int imageWidth = shrink ? clientArea.width : croppedDataWidth;
+                final int imageHeight = shrink ? clientArea.height : croppedDataHeight;
+                if(!inRGBMode && imageWidth * imageHeight >= BACKGROUND_PIXELS){
+                    drawImageInBackground(imageWidth, imageHeight, shrink);
+                }else{
+                    if(shrink){
+                        if(bufferedImageData == null || bufferedImageData.width != clientArea.width
+                                || bufferedImageData.height !=clientArea.height){
+                            bufferedImageData = new ImageData(clientArea.width, clientArea.height, 24, colorMap.getPalette());
+                        }
+                    }else if(bufferedImageData == null || bufferedImageData.width != croppedDataWidth
+                            || bufferedImageData.height !=croppedDataHeight)
+                        bufferedImageData = new ImageData(croppedDataWidth, croppedDataHeight, 24, colorMap.getPalette());
+
+
+                    ImageData imageData = null;
+                    if(inRGBMode)
+                        try {
+                            imageData = drawRGBImage(croppedDataArray,
+                                    croppedDataWidth, croppedDataHeight,
+                                    max, min, bufferedImageData, shrink);
+                        } catch (IllegalArgumentException e) {
+                            graphics.drawText("Drawing Exception: RGB value is not between 0 and 255." +
+                        "\nPlease check if the data or color depth is correct.",
+                                    clientArea.getLocation());
+                        }
+                    else
+                        imageData = colorMap.drawImage(croppedDataArray,
+                                    croppedDataWidth, croppedDataHeight,
+                                    max, min, bufferedImageData, shrink);
+
+                    if(imageData == null){
+                        disposeBufferedImage();
+                        return;
                     }
-                else
-                    imageData = colorMap.drawImage(croppedDataArray,
-                                croppedDataWidth, croppedDataHeight,
-                                max, min, bufferedImageData, shrink);
-
-                if(imageData == null)
-                    return;
-                bufferedImage = new Image(Display.getCurrent(), imageData);
-
+                    setBufferedImage(imageData);
+                }
             }
+            if(bufferedImage == null)
+                return;
 
 
             final Rectangle rawArea = new Rectangle(bufferedImage.getBounds());
@@ -517,6 +537,45 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
 
         }
 
+        /**Draw the cropped data into the spare image data in a background thread.
+         * Once done, the image data is handed to the next paint in UI thread,
+         * which only needs to create the {@link Image} from it.
+         */
+        private void drawImageInBackground(final int imageWidth, final int imageHeight, final boolean shrink){
+            ImageData target = spareImageData;
+            spareImageData = null;
+            if(target == null || target.width != imageWidth || target.height != imageHeight)
+                target = new ImageData(imageWidth, imageHeight, 24, colorMap.getPalette());
+            final ImageData imageData = target;
+            final IPrimaryArrayWrapper data = croppedDataArray;
+            final int width = croppedDataWidth, height = croppedDataHeight;
+            final double dataMax = max, dataMin = min;
+            final ColorMap map = colorMap;
+            final Display display = Display.getCurrent();
+            rendering = true;
+            RENDERER.execute(() -> {
+                ImageData result = null;
+                try {
+                    result = map.drawImage(data, width, height, dataMax, dataMin, imageData, shrink);
+                } catch (IndexOutOfBoundsException e) {
+                    //data changed while drawing, the next update draws it again
+                    Activator.getLogger().log(Level.FINE, "Intensity graph data changed while drawing", e);
+                } catch (Exception e) {
+                    Activator.getLogger().log(Level.WARNING, "Cannot draw intensity graph image", e);
+                }
+                final ImageData finished = result;
+                if(!display.isDisposed())
+                    display.asyncExec(() -> {
+                        rendering = false;
+                        if(finished != null)
+                            renderedImageData = finished;
+                        else
+                            spareImageData = imageData;
+                        repaint();
+                    });
+            });
+        }
+
         /** @param x Mouse location x
          *  @param y Mouse location y
          *  @return PixelInfo for that mouse location
@@ -713,6 +772,14 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
     private Range yAxisRange = null;
     private Rectangle originalCrop = null;
     private final static int GAP = 3;
+    /** Images with at least this many pixels are drawn in background */
+    private final static int BACKGROUND_PIXELS = 256*1024;
+    /** Draws large images outside of the UI thread */
+    private final static ExecutorService RENDERER = Executors.newCachedThreadPool(runnable -> {
+        final Thread thread = new Thread(runnable, "IntensityGraph Renderer");
+        thread.setDaemon(true);
+        return thread;
+    });
     private org.eclipse.draw2d.geometry.Point start;
     private org.eclipse.draw2d.geometry.Point end;
 
@@ -721,6 +788,10 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
     private boolean dataDirty;  //true if the image need to be redrawn
     private ImageData bufferedImageData;
     private Image bufferedImage; //the buffered image
+    //image data for drawing in background, only accessed in UI thread
+    private boolean rendering; //true while an image is drawn in background
+    private ImageData renderedImageData; //drawn in background, not yet shown
+    private ImageData spareImageData; //to be reused for the next background drawing
     private List<IProfileDataChangeLisenter> profileListeners;
     private List<IPixelInfoListener> pixelInfoListeners = new ArrayList<IPixelInfoListener>();
     private List<IPixelInfoProvider> pixelInfoProviders;
@@ -890,12 +961,26 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
     }
 
     public void dispose(){
+        disposeBufferedImage();
+    }
+
+    private void disposeBufferedImage(){
         if(bufferedImage != null){
             bufferedImage.dispose();
             bufferedImage = null;
         }
     }
 
+    /**Replace the buffered image.
+     * Image data that was drawn in background is kept for the next background drawing.
+     */
+    private void setBufferedImage(ImageData imageData){
+        disposeBufferedImage();
+        bufferedImage = new Image(Display.getCurrent(), imageData);
+        if(imageData != bufferedImageData)
+            spareImageData = imageData;
+    }
+
     /**Calculate the image data from source RGB data array [RGBRGBRGB...].
      * @param dataArray the source data in RGB mode.
      * @param dataWidth number of columns of dataArray; This will be the width of image data.
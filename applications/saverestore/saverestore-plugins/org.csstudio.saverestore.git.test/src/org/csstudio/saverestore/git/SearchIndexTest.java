@@ -0,0 +1,184 @@
+/*
+ * This software is Copyright by the Board of Trustees of Michigan
+ * State University (c) Copyright 2026.
+ *
+ * Contact Information:
+ *   Facility for Rare Isotope Beam
+ *   Michigan State University
+ *   East Lansing, MI 48824-1321
+ *   http://frib.msu.edu
+ */
+package org.csstudio.saverestore.git;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * <code>SearchIndexTest</code> tests the file in which the {@link SearchIndex} keeps the commits. The test creates a
+ * repository in the temp folder. The commits that are stored in the index file are read back using an empty
+ * repository, which fails for every commit that would have to be read from the repository.
+ */
+public class SearchIndexTest {
+
+    private File folder;
+    private Git git;
+    private Git empty;
+    private File indexFile;
+    // git uses seconds timestamp resolution
+    private long time = ((System.currentTimeMillis() - 3600000L) / 1000L) * 1000L;
+
+    @Before
+    public void setUp() throws Exception {
+        folder = Files.createTempDirectory("searchindex").toFile();
+        git = Git.init().setDirectory(new File(folder, "repository")).call();
+        empty = Git.init().setDirectory(new File(folder, "empty")).call();
+        indexFile = new File(folder, "search.idx");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        git.close();
+        empty.close();
+        Files.walk(folder.toPath()).sorted(Comparator.reverseOrder()).map(p -> p.toFile()).forEach(File::delete);
+    }
+
+    private RevCommit commit(String path, String comment) throws Exception {
+        File file = new File(git.getRepository().getWorkTree(), path);
+        Files.write(file.toPath(), comment.getBytes(StandardCharsets.UTF_8));
+        git.add().addFilepattern(path).call();
+        time += 60000;
+        PersonIdent ident = new PersonIdent("sylvester", "sylvester@looney.tunes", new Date(time),
+            TimeZone.getTimeZone("GMT"));
+        return git.commit().setMessage(comment).setAuthor(ident).setCommitter(ident).call();
+    }
+
+    private static List<SearchIndex.Commit> getHistory(File file, Repository repository, ObjectId head)
+        throws IOException {
+        return new SearchIndex(file).getHistory(repository, head);
+    }
+
+    private static void assertCommit(RevCommit expected, String snapshot, SearchIndex.Commit commit) {
+        assertEquals(expected.getName(), commit.revision);
+        assertEquals(expected.getCommitTime(), commit.time);
+        assertEquals(expected.getFullMessage(), commit.comment);
+        assertEquals("sylvester <sylvester@looney.tunes>", commit.getCommitter());
+        if (snapshot == null) {
+            assertEquals(0, commit.snapshots.length);
+        } else {
+            assertArrayEquals(new String[] { snapshot }, commit.snapshots);
+        }
+    }
+
+    @Test
+    public void testPersistence() throws Exception {
+        RevCommit first = commit("first.snp", "First snapshot");
+        RevCommit saveSet = commit("set.bms", "Save set");
+        RevCommit second = commit("second.snp", "Second snapshot");
+        List<SearchIndex.Commit> history = getHistory(indexFile, git.getRepository(), second);
+        assertEquals(3, history.size());
+        assertTrue(indexFile.exists());
+
+        // Reopened index has all commits without reading the repository
+        history = getHistory(indexFile, empty.getRepository(), second);
+        assertEquals(3, history.size());
+        assertCommit(second, "second.snp", history.get(0));
+        assertCommit(saveSet, null, history.get(1));
+        assertCommit(first, "first.snp", history.get(2));
+        assertArrayEquals(new String[] { first.getName() }, history.get(1).parents);
+        assertEquals(0, history.get(2).parents.length);
+    }
+
+    @Test
+    public void testIncrementalAppend() throws Exception {
+        RevCommit first = commit("first.snp", "First snapshot");
+        getHistory(indexFile, git.getRepository(), first);
+        byte[] before = Files.readAllBytes(indexFile.toPath());
+
+        // New commits are appended to the existing records
+        RevCommit second = commit("second.snp", "Second snapshot");
+        RevCommit third = commit("third.snp", "Third snapshot");
+        assertEquals(3, getHistory(indexFile, git.getRepository(), third).size());
+        byte[] after = Files.readAllBytes(indexFile.toPath());
+        assertTrue(after.length > before.length);
+        assertArrayEquals(before, Arrays.copyOf(after, before.length));
+
+        List<SearchIndex.Commit> history = getHistory(indexFile, empty.getRepository(), third);
+        assertEquals(3, history.size());
+        assertCommit(third, "third.snp", history.get(0));
+        assertCommit(second, "second.snp", history.get(1));
+        assertCommit(first, "first.snp", history.get(2));
+    }
+
+    @Test
+    public void testTruncatedFile() throws Exception {
+        RevCommit first = commit("first.snp", "First snapshot");
+        RevCommit second = commit("second.snp", "Second snapshot");
+        getHistory(indexFile, git.getRepository(), second);
+
+        // Records are written from the head, cutting the file drops the record of the first commit
+        try (RandomAccessFile raf = new RandomAccessFile(indexFile, "rw")) {
+            raf.setLength(raf.length() - 3);
+        }
+        SearchIndex index = new SearchIndex(indexFile);
+        assertCommit(second, "second.snp", index.getCommit(empty.getRepository(), second));
+        try {
+            index.getCommit(empty.getRepository(), first);
+            fail("Truncated record was used");
+        } catch (IOException e) {
+            // commit is not in the empty repository
+        }
+
+        // Dropped commit is read again and appended after the complete records
+        assertEquals(2, getHistory(indexFile, git.getRepository(), second).size());
+        List<SearchIndex.Commit> history = getHistory(indexFile, empty.getRepository(), second);
+        assertEquals(2, history.size());
+        assertCommit(first, "first.snp", history.get(1));
+    }
+
+    @Test
+    public void testVersionMismatch() throws Exception {
+        RevCommit first = commit("first.snp", "First snapshot");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(indexFile))) {
+            out.writeInt(SearchIndex.MAGIC);
+            out.writeInt(SearchIndex.VERSION + 1);
+            out.writeUTF("Record of a newer version");
+        }
+
+        // File of another version is discarded and the index is built anew
+        List<SearchIndex.Commit> history = getHistory(indexFile, git.getRepository(), first);
+        assertEquals(1, history.size());
+        assertCommit(first, "first.snp", history.get(0));
+        try (DataInputStream in = new DataInputStream(
+            new ByteArrayInputStream(Files.readAllBytes(indexFile.toPath())))) {
+            assertEquals(SearchIndex.MAGIC, in.readInt());
+            assertEquals(SearchIndex.VERSION, in.readInt());
+        }
+        assertCommit(first, "first.snp", getHistory(indexFile, empty.getRepository(), first).get(0));
+    }
+}
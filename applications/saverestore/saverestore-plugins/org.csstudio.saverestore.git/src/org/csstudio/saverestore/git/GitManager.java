@@ -25,16 +25,21 @@ import java.text.ParseException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import org.csstudio.saverestore.DataProvider.ImportType;
 import org.csstudio.saverestore.DataProviderException;
@@ -63,7 +68,6 @@ import org.eclipse.jgit.api.errors.TransportException;
 import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.diff.DiffFormatter;
 import org.eclipse.jgit.diff.RawTextComparator;
-import org.eclipse.jgit.errors.StopWalkException;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectLoader;
@@ -74,14 +78,9 @@ import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.lib.StoredConfig;
 import org.eclipse.jgit.merge.MergeStrategy;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevObject;
 import org.eclipse.jgit.revwalk.RevTag;
 import org.eclipse.jgit.revwalk.RevWalk;
-import org.eclipse.jgit.revwalk.filter.AndRevFilter;
-import org.eclipse.jgit.revwalk.filter.CommitTimeRevFilter;
-import org.eclipse.jgit.revwalk.filter.CommitterRevFilter;
-import org.eclipse.jgit.revwalk.filter.MessageRevFilter;
-import org.eclipse.jgit.revwalk.filter.OrRevFilter;
-import org.eclipse.jgit.revwalk.filter.RevFilter;
 import org.eclipse.jgit.transport.FetchResult;
 import org.eclipse.jgit.transport.RefSpec;
 import org.eclipse.jgit.transport.TagOpt;
@@ -94,6 +93,12 @@ import org.eclipse.jgit.util.io.DisabledOutputStream;
 
 /**
  * <code>GitManager<code> provide access to the git features required by the save and restore application.
+ * <p>
+ * Methods that only read the repository can run concurrently, as long as they work on the same branch. Switching the
+ * branch and all methods that change the repository are exclusive. Searches for snapshots use the {@link SearchIndex},
+ * which is stored in the git directory and updated with the new commits when the repository is synchronised or
+ * searched.
+ * </p>
  *
  * @author <a href="mailto:miha.novak@cosylab.com">Miha Novak</a>
  */
@@ -116,12 +121,16 @@ public class GitManager {
     // the pattern describing all forbidden characters in git tag
     private static final Pattern TAG_PATTERN = Pattern
         .compile("[\\x00-\\x1F\\x7E-\\xFF()~\\^: /?*\\[\\]@\\\\{\\.{2}]+");
+    // the name of the search index file in the git directory
+    private static final String SEARCH_INDEX = "saverestore-search.idx";
 
     private Git git;
     private Repository repository;
     private File repositoryPath;
     private boolean automatic = true;
     private boolean localOnly = false;
+    private SearchIndex searchIndex;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
 
     @SuppressWarnings("unchecked")
     private static final List<String> EMPTY_LIST = Collections.EMPTY_LIST;
@@ -173,11 +182,16 @@ public class GitManager {
      *
      * @return true if only local or false for remote only
      */
-    synchronized boolean isLocalOnly() {
-        return localOnly;
+    boolean isLocalOnly() {
+        lock.readLock().lock();
+        try {
+            return localOnly;
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
-    private synchronized void checkInitialised() throws IllegalStateException {
+    private void checkInitialised() throws IllegalStateException {
         if (git == null) {
             throw new IllegalStateException("Git has not been initialised.");
         }
@@ -186,8 +200,10 @@ public class GitManager {
     /**
      * Dispose of all resources allocated by this manager.
      */
-    public synchronized void dispose() {
+    public void dispose() {
+        lock.writeLock().lock();
         try {
+            searchIndex = null;
             if (repository != null) {
                 repository.close();
                 repository = null;
@@ -198,6 +214,8 @@ public class GitManager {
             }
         } catch (Exception e) {
             SaveRestoreService.LOGGER.log(Level.SEVERE, "Git cleanup error.", e);
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 
@@ -207,11 +225,16 @@ public class GitManager {
      *
      * @param automatic true if automatic synchronisation should be enabled
      */
-    public synchronized void setAutomaticSynchronisation(boolean automatic) {
-        if (localOnly && automatic) {
-            return;
+    public void setAutomaticSynchronisation(boolean automatic) {
+        lock.writeLock().lock();
+        try {
+            if (localOnly && automatic) {
+                return;
+            }
+            this.automatic = automatic;
+        } finally {
+            lock.writeLock().unlock();
         }
-        this.automatic = automatic;
     }
 
     /**
@@ -224,15 +247,20 @@ public class GitManager {
      * @return true if initialisation was successful or false otherwise (cancelled due to lack of permissions)
      * @throws GitAPIException in case of an error
      */
-    public synchronized boolean initialise(URI remoteRepository, File destinationDirectory) throws GitAPIException {
-        if (!internalInitialise(remoteRepository, destinationDirectory)) {
-            deleteFolder(destinationDirectory);
-            return internalInitialise(remoteRepository, destinationDirectory);
+    public boolean initialise(URI remoteRepository, File destinationDirectory) throws GitAPIException {
+        lock.writeLock().lock();
+        try {
+            if (!internalInitialise(remoteRepository, destinationDirectory)) {
+                deleteFolder(destinationDirectory);
+                return internalInitialise(remoteRepository, destinationDirectory);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
         }
-        return true;
     }
 
-    private synchronized boolean internalInitialise(URI remoteRepository, File destinationDirectory)
+    private boolean internalInitialise(URI remoteRepository, File destinationDirectory)
         throws GitAPIException {
         if (!remoteRepository.toString().contains("://")) {
             // it is not git:// or http:// or https:// or ssh://
@@ -253,6 +281,7 @@ public class GitManager {
                 setAutomaticSynchronisation(false);
                 this.git = Git.init().setDirectory(repositoryPath).call();
                 this.repository = git.getRepository();
+                this.searchIndex = new SearchIndex(new File(repository.getDirectory(), SEARCH_INDEX));
                 try {
                     setBranch(new Branch());
                     Credentials credentials = getCredentials(Optional.empty());
@@ -274,6 +303,7 @@ public class GitManager {
         if (new File(repositoryPath, ".git").exists()) {
             this.git = Git.init().setDirectory(repositoryPath).call();
             this.repository = git.getRepository();
+            this.searchIndex = new SearchIndex(new File(repository.getDirectory(), SEARCH_INDEX));
             StoredConfig config = this.repository.getConfig();
             String url = config.getString("remote", "origin", "url");
             if (url == null || !url.equals(remoteRepository.toString())) {
@@ -307,6 +337,7 @@ public class GitManager {
                 try {
                     this.git = cloneCommand.call();
                     this.repository = git.getRepository();
+                    this.searchIndex = new SearchIndex(new File(repository.getDirectory(), SEARCH_INDEX));
                     break;
                 } catch (TransportException e) {
                     if (isNotAuthorised(e)) {
@@ -331,7 +362,7 @@ public class GitManager {
      * @throws GitAPIException if there was an exception during the checkout
      * @throws IOException if the current branch cannot be determined
      */
-    private synchronized void setBranch(Branch branch) throws GitAPIException, IOException {
+    private void setBranch(Branch branch) throws GitAPIException, IOException {
         checkInitialised();
         if (!branch.getShortName().equals(repository.getBranch())) {
             Ref ref = null;
@@ -348,33 +379,68 @@ public class GitManager {
         }
     }
 
+    /**
+     * Acquire the read lock with the given branch checked out. If the branch has to be switched, the write lock is
+     * acquired for the checkout and then downgraded to the read lock. The caller has to release the read lock.
+     *
+     * @param branch the branch that should be checked out while the read lock is held
+     * @throws GitAPIException if there was an exception during the checkout
+     * @throws IOException if the current branch cannot be determined
+     */
+    private void lockForReading(Branch branch) throws GitAPIException, IOException {
+        lock.readLock().lock();
+        boolean current = false;
+        try {
+            checkInitialised();
+            current = branch.getShortName().equals(repository.getBranch());
+        } finally {
+            if (!current) {
+                lock.readLock().unlock();
+            }
+        }
+        if (!current) {
+            lock.writeLock().lock();
+            try {
+                setBranch(branch);
+                lock.readLock().lock();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
     /**
      * Returns the list of all branches in the repository.
      *
      * @return the list of branches
      * @throws GitAPIException if the branches could not be read
      */
-    public synchronized List<Branch> getBranches() throws GitAPIException {
-        checkInitialised();
-        List<Ref> branchesRef = git.branchList().setListMode(ListMode.ALL).call();
-        List<Branch> branches = new ArrayList<>(branchesRef.size());
-        for (Ref b : branchesRef) {
-            String name = b.getName();
-            if ("HEAD".equals(name)) {
-                continue;
-            }
-            Branch branch;
-            if (name.indexOf('/') > 0) {
-                branch = new Branch(name, name.substring(name.lastIndexOf('/') + 1));
-            } else {
-                branch = new Branch(name, name);
-            }
-            if (!branches.contains(branch)) {
-                branches.add(branch);
+    public List<Branch> getBranches() throws GitAPIException {
+        lock.readLock().lock();
+        try {
+            checkInitialised();
+            List<Ref> branchesRef = git.branchList().setListMode(ListMode.ALL).call();
+            List<Branch> branches = new ArrayList<>(branchesRef.size());
+            for (Ref b : branchesRef) {
+                String name = b.getName();
+                if ("HEAD".equals(name)) {
+                    continue;
+                }
+                Branch branch;
+                if (name.indexOf('/') > 0) {
+                    branch = new Branch(name, name.substring(name.lastIndexOf('/') + 1));
+                } else {
+                    branch = new Branch(name, name);
+                }
+                if (!branches.contains(branch)) {
+                    branches.add(branch);
+                }
             }
+            Collections.sort(branches);
+            return branches;
+        } finally {
+            lock.readLock().unlock();
         }
-        Collections.sort(branches);
-        return branches;
     }
 
     /**
@@ -384,15 +450,42 @@ public class GitManager {
      * @return true if changes in the local repository were made
      * @throws GitAPIException if there is an error during push or pull
      */
-    public synchronized boolean synchronise(Optional<Credentials> cp) throws GitAPIException {
-        checkInitialised();
-        Credentials c = cp.isPresent() ? cp.get() : getCredentials(Optional.empty());
-        if (c != null) {
-            Object[] obj = pull(c);
-            push((Credentials) obj[0], true);
-            return (Boolean) obj[1];
+    public boolean synchronise(Optional<Credentials> cp) throws GitAPIException {
+        boolean changed = false;
+        lock.writeLock().lock();
+        try {
+            checkInitialised();
+            Credentials c = cp.isPresent() ? cp.get() : getCredentials(Optional.empty());
+            if (c != null) {
+                Object[] obj = pull(c);
+                push((Credentials) obj[0], true);
+                changed = (Boolean) obj[1];
+            }
+            // downgrade to read lock, so that the pulled commits are indexed while others can already read
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            if (changed) {
+                updateSearchIndex();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return changed;
+    }
+
+    /**
+     * Add the commits that are reachable from the head of the current branch and are not indexed yet to the search
+     * index. The search index is also updated by each search, so a failure is only logged.
+     */
+    private void updateSearchIndex() {
+        try {
+            searchIndex.getHistory(repository, getHeadCommit());
+        } catch (IOException | RuntimeException e) {
+            SaveRestoreService.LOGGER.log(Level.WARNING, "Search index could not be updated.", e);
         }
-        return false;
     }
 
     /**
@@ -410,32 +503,37 @@ public class GitManager {
      * @throws IOException in case of an IO error
      * @throws ParseException if the snapshot content could not be parsed
      */
-    public synchronized Result<Boolean> importData(SaveSet source, Branch toBranch, Optional<BaseLevel> toBaseLevel,
+    public Result<Boolean> importData(SaveSet source, Branch toBranch, Optional<BaseLevel> toBaseLevel,
         ImportType type) throws GitAPIException, IOException, ParseException {
-        checkInitialised();
-        boolean oldAutomatic = this.automatic;
-        setAutomaticSynchronisation(false);
-        Credentials cred = getCredentials(Optional.empty());
-        Object[] obj = pull(cred);
-        ChangeType change = (Boolean) obj[1] ? ChangeType.PULL : ChangeType.SAVE;
-        cred = (Credentials) obj[0];
+        lock.writeLock().lock();
         try {
-            if (source.getName().isEmpty()) {
-                // it is a folder
-                List<SaveSet> sets = getSaveSets(source.getBaseLevel(), source.getBranch(),
-                    Optional.of(source.getPathAsString()));
-                for (SaveSet s : sets) {
-                    importSaveSet(s, toBaseLevel, toBranch, type, cred);
+            checkInitialised();
+            boolean oldAutomatic = this.automatic;
+            setAutomaticSynchronisation(false);
+            Credentials cred = getCredentials(Optional.empty());
+            Object[] obj = pull(cred);
+            ChangeType change = (Boolean) obj[1] ? ChangeType.PULL : ChangeType.SAVE;
+            cred = (Credentials) obj[0];
+            try {
+                if (source.getName().isEmpty()) {
+                    // it is a folder
+                    List<SaveSet> sets = getSaveSets(source.getBaseLevel(), source.getBranch(),
+                        Optional.of(source.getPathAsString()));
+                    for (SaveSet s : sets) {
+                        importSaveSet(s, toBaseLevel, toBranch, type, cred);
+                    }
+                } else {
+                    // single save set
+                    importSaveSet(source, toBaseLevel, toBranch, type, cred);
                 }
-            } else {
-                // single save set
-                importSaveSet(source, toBaseLevel, toBranch, type, cred);
+            } finally {
+                setAutomaticSynchronisation(oldAutomatic);
             }
+            push(cred, true);
+            return new Result<>(true, change);
         } finally {
-            setAutomaticSynchronisation(oldAutomatic);
+            lock.writeLock().unlock();
         }
-        push(cred, true);
-        return new Result<>(true, change);
     }
 
     private void importSaveSet(SaveSet source, Optional<BaseLevel> toBaseLevel, Branch toBranch, ImportType type,
@@ -472,18 +570,22 @@ public class GitManager {
      * @param branch the branch from which to retrieve base levels
      * @return the list of base levels
      */
-    public synchronized List<BaseLevel> getBaseLevels(Branch branch) throws GitAPIException, IOException {
-        setBranch(branch);
-        File[] files = repositoryPath.listFiles();
-        List<BaseLevel> baseLevels = new ArrayList<>();
-        if (files != null) {
-            for (File f : files) {
-                if (f.isDirectory() && f.getName().charAt(0) != '.') {
-                    baseLevels.add(new BaseLevel(branch, f.getName(), f.getName()));
+    public List<BaseLevel> getBaseLevels(Branch branch) throws GitAPIException, IOException {
+        lockForReading(branch);
+        try {
+            File[] files = repositoryPath.listFiles();
+            List<BaseLevel> baseLevels = new ArrayList<>();
+            if (files != null) {
+                for (File f : files) {
+                    if (f.isDirectory() && f.getName().charAt(0) != '.') {
+                        baseLevels.add(new BaseLevel(branch, f.getName(), f.getName()));
+                    }
                 }
             }
+            return baseLevels;
+        } finally {
+            lock.readLock().unlock();
         }
-        return baseLevels;
     }
 
     /**
@@ -495,9 +597,14 @@ public class GitManager {
      * @return the list of save sets
      * @throws IOException if the current branch could not be retrieved
      */
-    public synchronized List<SaveSet> getSaveSets(Optional<BaseLevel> baseLevel, Branch branch)
+    public List<SaveSet> getSaveSets(Optional<BaseLevel> baseLevel, Branch branch)
         throws IOException, GitAPIException {
-        return getSaveSets(baseLevel, branch, Optional.empty());
+        lockForReading(branch);
+        try {
+            return getSaveSets(baseLevel, branch, Optional.empty());
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -562,16 +669,20 @@ public class GitManager {
      * @throws IOException if there was an error reading the contents of the file
      * @throws GitAPIException if setting the branch failed
      */
-    public synchronized SaveSetData loadSaveSetData(SaveSet descriptor, Optional<String> revision)
+    public SaveSetData loadSaveSetData(SaveSet descriptor, Optional<String> revision)
         throws IOException, GitAPIException {
-        setBranch(descriptor.getBranch());
-        String path = convertPathToString(descriptor, FileType.SAVE_SET);
+        lockForReading(descriptor.getBranch());
         try {
-            return loadFile(revision, path, FileType.SAVE_SET, SaveSetData.class, descriptor);
-        } catch (ParseException e) {
-            // cannot happen, but just in case, make a log
-            SaveRestoreService.LOGGER.log(Level.SEVERE, "Unexpected error when loading save set content", e);
-            return null;
+            String path = convertPathToString(descriptor, FileType.SAVE_SET);
+            try {
+                return loadFile(revision, path, FileType.SAVE_SET, SaveSetData.class, descriptor);
+            } catch (ParseException e) {
+                // cannot happen, but just in case, make a log
+                SaveRestoreService.LOGGER.log(Level.SEVERE, "Unexpected error when loading save set content", e);
+                return null;
+            }
+        } finally {
+            lock.readLock().unlock();
         }
     }
 
@@ -585,34 +696,40 @@ public class GitManager {
      * @throws IOException if the commits could not be read
      * @throws GitAPIException if the commits could not be read
      */
-    public synchronized List<Snapshot> getSnapshots(SaveSet saveSet, int numberOfRevisions,
+    public List<Snapshot> getSnapshots(SaveSet saveSet, int numberOfRevisions,
         Optional<Snapshot> fromThisOneBack) throws IOException, GitAPIException {
-        setBranch(saveSet.getBranch());
-        List<Snapshot> snapshots = new ArrayList<>();
-
-        String path = convertPathToString(saveSet, FileType.SNAPSHOT);
-        path = path.replace(FileType.SAVE_SET.directory, FileType.SNAPSHOT.directory);
-        path = path.replace(FileType.SAVE_SET.suffix, FileType.SNAPSHOT.suffix);
-
-        String rev = fromThisOneBack.isPresent() ? fromThisOneBack.get().getParameters().get(PARAM_GIT_REVISION) : null;
-        List<RevCommit> fileRevisions = findCommitsFor(path, numberOfRevisions, Optional.ofNullable(rev));
-        Map<String, RevTag> tags = loadTagsForRevisions(fileRevisions);
-        String branch = saveSet.getBranch().getShortName();
-        for (RevCommit commit : fileRevisions) {
-            String revision = commit.getName();
-            if (rev != null && rev.equals(revision)) {
-                // do not return the revision that the client already knows
-                continue;
+        lockForReading(saveSet.getBranch());
+        try {
+            List<Snapshot> snapshots = new ArrayList<>();
+
+            String path = convertPathToString(saveSet, FileType.SNAPSHOT);
+            path = path.replace(FileType.SAVE_SET.directory, FileType.SNAPSHOT.directory);
+            path = path.replace(FileType.SAVE_SET.suffix, FileType.SNAPSHOT.suffix);
+
+            String rev = fromThisOneBack.isPresent()
+                ? fromThisOneBack.get().getParameters().get(PARAM_GIT_REVISION) : null;
+            List<RevCommit> fileRevisions = findCommitsFor(path, numberOfRevisions, Optional.ofNullable(rev));
+            Map<String, RevTag> tags = loadTagsForRevisions(
+            fileRevisions.stream().map(RevCommit::getName).collect(Collectors.toList()));
+            String branch = saveSet.getBranch().getShortName();
+            for (RevCommit commit : fileRevisions) {
+                String revision = commit.getName();
+                if (rev != null && rev.equals(revision)) {
+                    // do not return the revision that the client already knows
+                    continue;
+                }
+                MetaInfo meta = getMetaInfoFromCommit(commit);
+                Map<String, String> parameters = new HashMap<>();
+                parameters.put(PARAM_GIT_REVISION, revision);
+                insertTagData(tags.get(revision), parameters, revision, branch);
+                Snapshot snapshot = new Snapshot(saveSet, meta.timestamp.toInstant(), meta.comment, meta.creator,
+                    parameters.remove(PARAM_TAG_NAME), parameters.remove(PARAM_TAG_MESSAGE), parameters, EMPTY_LIST);
+                snapshots.add(snapshot);
             }
-            MetaInfo meta = getMetaInfoFromCommit(commit);
-            Map<String, String> parameters = new HashMap<>();
-            parameters.put(PARAM_GIT_REVISION, revision);
-            insertTagData(tags.get(revision), parameters, revision, branch);
-            Snapshot snapshot = new Snapshot(saveSet, meta.timestamp.toInstant(), meta.comment, meta.creator,
-                parameters.remove(PARAM_TAG_NAME), parameters.remove(PARAM_TAG_MESSAGE), parameters, EMPTY_LIST);
-            snapshots.add(snapshot);
+            return snapshots;
+        } finally {
+            lock.readLock().unlock();
         }
-        return snapshots;
     }
 
     /**
@@ -623,12 +740,16 @@ public class GitManager {
      * @throws ParseException if
      * @throws IOException
      */
-    public synchronized VSnapshot loadSnapshotData(Snapshot snapshot)
+    public VSnapshot loadSnapshotData(Snapshot snapshot)
         throws ParseException, IOException, GitAPIException {
-        setBranch(snapshot.getSaveSet().getBranch());
-        String path = convertPathToString(snapshot.getSaveSet(), FileType.SNAPSHOT);
-        return loadFile(Optional.ofNullable(snapshot.getParameters().get(PARAM_GIT_REVISION)), path, FileType.SNAPSHOT,
-            VSnapshot.class, snapshot);
+        lockForReading(snapshot.getSaveSet().getBranch());
+        try {
+            String path = convertPathToString(snapshot.getSaveSet(), FileType.SNAPSHOT);
+            return loadFile(Optional.ofNullable(snapshot.getParameters().get(PARAM_GIT_REVISION)), path,
+                FileType.SNAPSHOT, VSnapshot.class, snapshot);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -640,9 +761,14 @@ public class GitManager {
      * @throws IOException if writing to the file failed
      * @throws GitAPIException if committing the file failed
      */
-    public synchronized Result<SaveSetData> saveSaveSet(SaveSetData data, String comment)
+    public Result<SaveSetData> saveSaveSet(SaveSetData data, String comment)
         throws IOException, GitAPIException {
-        return saveSaveSet(data, comment, null);
+        lock.writeLock().lock();
+        try {
+            return saveSaveSet(data, comment, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -696,38 +822,43 @@ public class GitManager {
      * @throws IOException in case of an error
      * @throws GitAPIException in case of an error
      */
-    public synchronized Result<SaveSet> deleteSaveSet(SaveSet set, String comment) throws IOException, GitAPIException {
-        checkInitialised();
-        SaveSet deleted = null;
-        ChangeType change = ChangeType.NONE;
-        delete: {
-            Credentials cp = getCredentials(Optional.empty());
-            if (cp != null) {
-                setBranch(set.getBranch());
-                change = ChangeType.SAVE;
-                if (automatic) {
-                    Object[] obj = pull(cp);
-                    cp = (Credentials) obj[0];
-                    change = (Boolean) obj[1] ? ChangeType.PULL : change;
-                    if (cp == null) {
-                        break delete;
-                    }
-                }
-                String relativePath = convertPathToString(set, FileType.SAVE_SET);
-                if (deleteFile(relativePath, repositoryPath)) {
-                    deleted = set;
-                    commit(relativePath, new MetaInfo(comment, cp.getUsername(), UNKNOWN, null, null), true);
-                    // delete also the snapshot file
-                    relativePath = convertPathToString(set, FileType.SNAPSHOT);
-                    deleteFile(relativePath, repositoryPath);
-                    commit(relativePath, new MetaInfo(comment, cp.getUsername(), null, null, null), true);
+    public Result<SaveSet> deleteSaveSet(SaveSet set, String comment) throws IOException, GitAPIException {
+        lock.writeLock().lock();
+        try {
+            checkInitialised();
+            SaveSet deleted = null;
+            ChangeType change = ChangeType.NONE;
+            delete: {
+                Credentials cp = getCredentials(Optional.empty());
+                if (cp != null) {
+                    setBranch(set.getBranch());
+                    change = ChangeType.SAVE;
                     if (automatic) {
-                        push(cp, false);
+                        Object[] obj = pull(cp);
+                        cp = (Credentials) obj[0];
+                        change = (Boolean) obj[1] ? ChangeType.PULL : change;
+                        if (cp == null) {
+                            break delete;
+                        }
+                    }
+                    String relativePath = convertPathToString(set, FileType.SAVE_SET);
+                    if (deleteFile(relativePath, repositoryPath)) {
+                        deleted = set;
+                        commit(relativePath, new MetaInfo(comment, cp.getUsername(), UNKNOWN, null, null), true);
+                        // delete also the snapshot file
+                        relativePath = convertPathToString(set, FileType.SNAPSHOT);
+                        deleteFile(relativePath, repositoryPath);
+                        commit(relativePath, new MetaInfo(comment, cp.getUsername(), null, null, null), true);
+                        if (automatic) {
+                            push(cp, false);
+                        }
                     }
                 }
             }
+            return new Result<>(deleted, change);
+        } finally {
+            lock.writeLock().unlock();
         }
-        return new Result<>(deleted, change);
     }
 
     /**
@@ -739,9 +870,14 @@ public class GitManager {
      * @throws IOException if writing the file failed
      * @throws GitAPIException if committing the file failed
      */
-    public synchronized Result<VSnapshot> saveSnapshot(VSnapshot snapshot, String comment)
+    public Result<VSnapshot> saveSnapshot(VSnapshot snapshot, String comment)
         throws IOException, GitAPIException {
-        return saveSnapshot(snapshot, comment, snapshot.getTimestamp(), null);
+        lock.writeLock().lock();
+        try {
+            return saveSnapshot(snapshot, comment, snapshot.getTimestamp(), null);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -799,10 +935,15 @@ public class GitManager {
      * @throws GitAPIException in case of an error
      * @throws IOException in case of an error
      */
-    public synchronized Branch createBranch(Branch oldBranch, String branch) throws GitAPIException, IOException {
-        setBranch(oldBranch);
-        git.branchCreate().setName(branch).call();
-        return new Branch(branch, branch);
+    public Branch createBranch(Branch oldBranch, String branch) throws GitAPIException, IOException {
+        lock.writeLock().lock();
+        try {
+            setBranch(oldBranch);
+            git.branchCreate().setName(branch).call();
+            return new Branch(branch, branch);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -815,83 +956,93 @@ public class GitManager {
      * @throws IOException if writing the file failed
      * @throws GitAPIException if committing the file failed
      */
-    public synchronized Result<Snapshot> tagSnapshot(Snapshot snapshot, String name, String message)
+    public Result<Snapshot> tagSnapshot(Snapshot snapshot, String name, String message)
         throws IOException, GitAPIException, DataProviderException {
-        if (name != null && TAG_PATTERN.matcher(name).replaceAll("").length() != name.length()) {
-            throw new DataProviderException("Tag name contains invalid characters.");
-        }
-        checkInitialised();
-        Snapshot snp = null;
-        ChangeType change = ChangeType.NONE;
-        tag: {
-            Credentials cp = getCredentials(Optional.empty());
-            if (cp != null) {
-                setBranch(snapshot.getSaveSet().getBranch());
-                change = ChangeType.SAVE;
-                if (automatic) {
-                    Object[] obj = pull(cp);
-                    cp = (Credentials) obj[0];
-                    change = (Boolean) obj[1] ? ChangeType.PULL : change;
-                    if (cp == null) {
-                        break tag;
+        lock.writeLock().lock();
+        try {
+            if (name != null && TAG_PATTERN.matcher(name).replaceAll("").length() != name.length()) {
+                throw new DataProviderException("Tag name contains invalid characters.");
+            }
+            checkInitialised();
+            Snapshot snp = null;
+            ChangeType change = ChangeType.NONE;
+            tag: {
+                Credentials cp = getCredentials(Optional.empty());
+                if (cp != null) {
+                    setBranch(snapshot.getSaveSet().getBranch());
+                    change = ChangeType.SAVE;
+                    if (automatic) {
+                        Object[] obj = pull(cp);
+                        cp = (Credentials) obj[0];
+                        change = (Boolean) obj[1] ? ChangeType.PULL : change;
+                        if (cp == null) {
+                            break tag;
+                        }
                     }
-                }
-                // remove the existing tag
-                String revision = snapshot.getParameters().get(PARAM_GIT_REVISION);
-                RevCommit commit = getCommitFromRevision(revision);
-                RevTag existingTag = loadTagsForRevisions(Arrays.asList(commit)).get(revision);
-                if (existingTag != null) {
-                    git.tagDelete().setTags(existingTag.getTagName()).call();
-                    if (!localOnly) {
-                        RefSpec refSpec = new RefSpec().setSource(null)
-                            .setDestination("refs/tags/" + existingTag.getTagName());
-                        git.push().setCredentialsProvider(toCredentialsProvider(cp)).setRefSpecs(refSpec).call();
+                    // remove the existing tag
+                    String revision = snapshot.getParameters().get(PARAM_GIT_REVISION);
+                    RevCommit commit = getCommitFromRevision(revision);
+                    RevTag existingTag = loadTagsForRevisions(Arrays.asList(commit.getName())).get(commit.getName());
+                    if (existingTag != null) {
+                        git.tagDelete().setTags(existingTag.getTagName()).call();
+                        if (!localOnly) {
+                            RefSpec refSpec = new RefSpec().setSource(null)
+                                .setDestination("refs/tags/" + existingTag.getTagName());
+                            git.push().setCredentialsProvider(toCredentialsProvider(cp)).setRefSpecs(refSpec).call();
+                        }
                     }
-                }
 
-                Map<String, String> parameters = new HashMap<>();
-                parameters.put(PARAM_GIT_REVISION, revision);
-                String tagName = null;
-                String tagMessage = null;
-                if (name != null && !name.isEmpty()) {
-                    String gitTagName = composeTagName(snapshot.getSaveSet().getBranch(),
-                        snapshot.getSaveSet().getBaseLevel(), snapshot.getSaveSet().getPath(), name);
-                    PersonIdent tagger = new PersonIdent(cp.getUsername(), UNKNOWN);
-                    git.tag().setName(gitTagName).setMessage(message).setTagger(tagger).setObjectId(commit).call();
-                    if (automatic) {
-                        push(cp, true);
+                    Map<String, String> parameters = new HashMap<>();
+                    parameters.put(PARAM_GIT_REVISION, revision);
+                    String tagName = null;
+                    String tagMessage = null;
+                    if (name != null && !name.isEmpty()) {
+                        String gitTagName = composeTagName(snapshot.getSaveSet().getBranch(),
+                            snapshot.getSaveSet().getBaseLevel(), snapshot.getSaveSet().getPath(), name);
+                        PersonIdent tagger = new PersonIdent(cp.getUsername(), UNKNOWN);
+                        git.tag().setName(gitTagName).setMessage(message).setTagger(tagger).setObjectId(commit).call();
+                        if (automatic) {
+                            push(cp, true);
+                        }
+                        parameters.put(PARAM_GIT_TAG_NAME, gitTagName);
+                        parameters.put(PARAM_TAG_CREATOR, cp.getUsername());
+                        tagName = name;
+                        tagMessage = message;
                     }
-                    parameters.put(PARAM_GIT_TAG_NAME, gitTagName);
-                    parameters.put(PARAM_TAG_CREATOR, cp.getUsername());
-                    tagName = name;
-                    tagMessage = message;
+                    snp = new Snapshot(snapshot.getSaveSet(), snapshot.getDate(), snapshot.getComment(),
+                        snapshot.getOwner(), tagName, tagMessage, parameters, EMPTY_LIST);
                 }
-                snp = new Snapshot(snapshot.getSaveSet(), snapshot.getDate(), snapshot.getComment(),
-                    snapshot.getOwner(), tagName, tagMessage, parameters, EMPTY_LIST);
             }
+            return new Result<>(snp, change);
+        } finally {
+            lock.writeLock().unlock();
         }
-        return new Result<>(snp, change);
     }
 
     /**
      * Load the tags for the list of revisions provided as parameter. The tags are returned in a map, where the key is
-     * the revision name and the value is the actual tag object.
+     * the revision name and the value is the actual tag object. The tags are read once and matched against all
+     * revisions, rather than describing each revision separately.
      *
-     * @param revisions the list of revisions for which to load the tags
+     * @param revisions the names of revisions for which to load the tags
      * @return the map of all revision and tags pairs
-     * @throws GitAPIException if there was an error loading the tags
      * @throws IOException in case of an IO error
      */
-    private Map<String, RevTag> loadTagsForRevisions(List<RevCommit> revisions) throws GitAPIException, IOException {
-        Map<String, Ref> tags = repository.getTags();
+    private Map<String, RevTag> loadTagsForRevisions(Collection<String> revisions) throws IOException {
         Map<String, RevTag> ret = new HashMap<>();
+        if (revisions.isEmpty()) {
+            return ret;
+        }
+        Set<String> names = new HashSet<>(revisions);
         try (RevWalk walk = new RevWalk(repository)) {
-            for (RevCommit rev : revisions) {
-                String s = Git.wrap(repository).describe().setTarget(rev).call();
-                Ref tt = tags.get(s);
-                if (tt != null) {
-                    RevTag t = walk.parseTag(tt.getObjectId());
-                    ret.put(rev.getName(), t);
+            for (Ref ref : repository.getTags().values()) {
+                RevObject object = walk.parseAny(ref.getObjectId());
+                if (object instanceof RevTag) {
+                    RevTag tag = (RevTag) object;
+                    String revision = tag.getObject().getName();
+                    if (names.contains(revision)) {
+                        ret.put(revision, tag);
+                    }
                 }
             }
         }
@@ -1108,19 +1259,24 @@ public class GitManager {
      * @throws GitAPIException in case of a git error
      * @throws IOException in case of an IO error
      */
-    public synchronized List<Snapshot> findSnapshotsByTag(String partialTagNameOrMessage, Branch branch,
+    public List<Snapshot> findSnapshotsByTag(String partialTagNameOrMessage, Branch branch,
         Optional<Date> start, Optional<Date> end) throws GitAPIException, IOException {
-        final Pattern pattern = Pattern.compile(".*" + partialTagNameOrMessage.toLowerCase(Locale.UK) + ".*");
-        return findSnapshotsByTag(branch, start, end, (w, r, n) -> {
-            String tagName = n.substring(n.indexOf('(') + 1, n.length() - 1).toLowerCase(Locale.UK);
-            if (pattern.matcher(tagName).matches()) {
-                return w.parseTag(r.getObjectId());
-            } else {
-                RevTag tag = w.parseTag(r.getObjectId());
-                String message = tag.getFullMessage().toLowerCase(Locale.UK).replace("\n", " ");
-                return pattern.matcher(message).matches() ? tag : null;
-            }
-        });
+        lockForReading(branch);
+        try {
+            final Pattern pattern = Pattern.compile(".*" + partialTagNameOrMessage.toLowerCase(Locale.UK) + ".*");
+            return findSnapshotsByTag(branch, start, end, (w, r, n) -> {
+                String tagName = n.substring(n.indexOf('(') + 1, n.length() - 1).toLowerCase(Locale.UK);
+                if (pattern.matcher(tagName).matches()) {
+                    return w.parseTag(r.getObjectId());
+                } else {
+                    RevTag tag = w.parseTag(r.getObjectId());
+                    String message = tag.getFullMessage().toLowerCase(Locale.UK).replace("\n", " ");
+                    return pattern.matcher(message).matches() ? tag : null;
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -1135,14 +1291,19 @@ public class GitManager {
      * @throws GitAPIException in case of a git error
      * @throws IOException in case of an IO error
      */
-    public synchronized List<Snapshot> findSnapshotsByTagMessage(String partialMessage, Branch branch,
+    public List<Snapshot> findSnapshotsByTagMessage(String partialMessage, Branch branch,
         Optional<Date> start, Optional<Date> end) throws GitAPIException, IOException {
-        final Pattern pattern = Pattern.compile(".*" + partialMessage.toLowerCase(Locale.UK) + ".*");
-        return findSnapshotsByTag(branch, start, end, (w, r, n) -> {
-            RevTag tag = w.parseTag(r.getObjectId());
-            String message = tag.getFullMessage().toLowerCase().replace("\n", " ");
-            return pattern.matcher(message).matches() ? tag : null;
-        });
+        lockForReading(branch);
+        try {
+            final Pattern pattern = Pattern.compile(".*" + partialMessage.toLowerCase(Locale.UK) + ".*");
+            return findSnapshotsByTag(branch, start, end, (w, r, n) -> {
+                RevTag tag = w.parseTag(r.getObjectId());
+                String message = tag.getFullMessage().toLowerCase().replace("\n", " ");
+                return pattern.matcher(message).matches() ? tag : null;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -1157,13 +1318,18 @@ public class GitManager {
      * @throws GitAPIException in case of a git error
      * @throws IOException in case of an IO error
      */
-    public synchronized List<Snapshot> findSnapshotsByTagName(String partialTagName, Branch branch,
+    public List<Snapshot> findSnapshotsByTagName(String partialTagName, Branch branch,
         Optional<Date> start, Optional<Date> end) throws GitAPIException, IOException {
-        final Pattern pattern = Pattern.compile(".*" + partialTagName.toLowerCase(Locale.UK) + ".*");
-        return findSnapshotsByTag(branch, start, end, (w, r, n) -> {
-            String tagName = n.substring(n.indexOf('(') + 1, n.length() - 1).toLowerCase();
-            return pattern.matcher(tagName).matches() ? w.parseTag(r.getObjectId()) : null;
-        });
+        lockForReading(branch);
+        try {
+            final Pattern pattern = Pattern.compile(".*" + partialTagName.toLowerCase(Locale.UK) + ".*");
+            return findSnapshotsByTag(branch, start, end, (w, r, n) -> {
+                String tagName = n.substring(n.indexOf('(') + 1, n.length() - 1).toLowerCase();
+                return pattern.matcher(tagName).matches() ? w.parseTag(r.getObjectId()) : null;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -1180,20 +1346,11 @@ public class GitManager {
      */
     private List<Snapshot> findSnapshotsByTag(Branch branch, Optional<Date> start, Optional<Date> end,
         TriFunction<RevWalk, Ref, String, RevTag> f) throws GitAPIException, IOException {
-        setBranch(branch);
         List<Snapshot> snapshots = new ArrayList<>();
         Map<String, Ref> tags = repository.getTags();
         String branchName = new StringBuilder(branch.getShortName().length() + 2).append('(')
             .append(branch.getShortName()).append(')').toString();
-        try (RevWalk walk = new RevWalk(repository); ObjectReader objectReader = repository.newObjectReader()) {
-            RevFilter timeFilter = null;
-            if (start.isPresent() && end.isPresent()) {
-                timeFilter = CommitTimeRevFilter.between(start.get(), end.get());
-            } else if (start.isPresent()) {
-                timeFilter = CommitTimeRevFilter.after(start.get());
-            } else if (end.isPresent()) {
-                timeFilter = CommitTimeRevFilter.before(end.get());
-            }
+        try (RevWalk walk = new RevWalk(repository)) {
             for (Map.Entry<String, Ref> r : tags.entrySet()) {
                 String name = r.getKey();
                 // check if the tag branch name is correct
@@ -1206,24 +1363,16 @@ public class GitManager {
                 }
                 RevTag tag = f.apply(walk, r.getValue(), name);
                 if (tag != null) {
-                    String revision = tag.getObject().getId().getName();
-                    RevCommit commit = getCommitFromRevision(revision);
-                    if (timeFilter != null) {
-                        try {
-                            if (!timeFilter.include(walk, commit)) {
-                                continue;
-                            }
-                        } catch (StopWalkException e) {
-                            // thrown by the filter, because it expects that commit times are ordered. That is generally
-                            // true, but not in this case, because we are not walking through the tree
-                            continue;
-                        }
+                    // the commit time and the snapshot path are taken from the index instead of diffing the commit
+                    SearchIndex.Commit commit = searchIndex.getCommit(repository, tag.getObject());
+                    if (!commit.isWithin(start, end)) {
+                        continue;
                     }
-                    getPathFromCommit(commit, walk, objectReader)
+                    commit.getSnapshotPath()
                         .ifPresent(p -> pathToSaveSet(p, repositoryPath, branch, FileType.SNAPSHOT).ifPresent(e -> {
-                            MetaInfo meta = getMetaInfoFromCommit(commit);
+                            MetaInfo meta = commit.getMetaInfo();
                             Map<String, String> parameters = new HashMap<>();
-                            insertTagData(tag, parameters, revision, branch.getShortName());
+                            insertTagData(tag, parameters, commit.revision, branch.getShortName());
                             snapshots.add(new Snapshot(e, meta.timestamp.toInstant(), meta.comment, meta.creator,
                                 parameters.remove(PARAM_TAG_NAME), parameters.remove(PARAM_TAG_MESSAGE), parameters,
                                 EMPTY_LIST));
@@ -1234,39 +1383,12 @@ public class GitManager {
         return snapshots;
     }
 
-    private Optional<String> getPathFromCommit(RevCommit commit, RevWalk walk, ObjectReader objectReader)
-        throws GitAPIException, IOException {
-        // Utility method to get the path to the snapshot file that changed in the given commit.
-        // Should always at most one.
-        AbstractTreeIterator oldTreeIterator = new EmptyTreeIterator();
-        if (commit.getParents().length != 0) {
-            RevCommit parentCommit = walk.parseCommit(commit.getParents()[0].getId());
-            oldTreeIterator = new CanonicalTreeParser(null, objectReader, parentCommit.getTree());
-        }
-        AbstractTreeIterator newTreeIterator = new CanonicalTreeParser(null, objectReader, commit.getTree());
-        try (DiffFormatter diffFormatter = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
-            diffFormatter.setRepository(repository);
-            diffFormatter.setDiffComparator(RawTextComparator.DEFAULT);
-            List<DiffEntry> diffs = diffFormatter.scan(oldTreeIterator, newTreeIterator);
-            for (DiffEntry diff : diffs) {
-                if (diff.getChangeType() == org.eclipse.jgit.diff.DiffEntry.ChangeType.DELETE
-                    || diff.getChangeType() == org.eclipse.jgit.diff.DiffEntry.ChangeType.RENAME
-                    || !diff.getNewPath().endsWith(FileType.SNAPSHOT.suffix)) {
-                    continue;
-                }
-                return Optional.of(diff.getNewPath());
-            }
-        }
-        return Optional.empty();
-    }
-
     /**
      * Find all snapshot that are stored with the comment that contains the partial text or were created by the user
      * whose username contains the partial text and were created during the given time period. If time range is
      * provided, only commits that belong to that time range are search and any snapshot with a comment or user that
-     * contain the partial text and is located on the given branch matches the criteria. This method is faster than
-     * making separate search for user and comment and combining the results, because this method only traverses the
-     * revision tree once.
+     * contain the partial text and is located on the given branch matches the criteria. The commits are taken from the
+     * search index, which is updated with the commits that were not indexed yet.
      *
      * @param partialText the partial comment or username that we search for
      * @param branch the branch on which to search
@@ -1278,84 +1400,56 @@ public class GitManager {
      * @throws IOException in case of an error
      * @throws GitAPIException in case of branch checkout or tags loading error
      */
-    public synchronized List<Snapshot> findSnapshotsByCommentOrUser(String partialText, final Branch branch,
+    public List<Snapshot> findSnapshotsByCommentOrUser(String partialText, final Branch branch,
         boolean byComment, boolean byUser, Optional<Date> start, Optional<Date> end)
             throws IOException, GitAPIException {
-        setBranch(branch);
-        List<Snapshot> snapshots = new ArrayList<>();
-        List<RevCommit> revisions = new ArrayList<>();
-        try (RevWalk revWalk = new RevWalk(repository); ObjectReader objectReader = repository.newObjectReader()) {
-            revWalk.markStart(getHeadCommit());
-            RevFilter userCommentFilter = null;
-            if (byComment && byUser) {
-                userCommentFilter = OrRevFilter.create(MessageRevFilter.create(partialText),
-                    CommitterRevFilter.create(partialText));
-            } else if (byComment) {
-                userCommentFilter = MessageRevFilter.create(partialText);
-            } else if (byUser) {
-                userCommentFilter = CommitterRevFilter.create(partialText);
-            }
-            RevFilter timeFilter = null;
-            if (start.isPresent() && end.isPresent()) {
-                timeFilter = CommitTimeRevFilter.between(start.get(), end.get());
-            } else if (start.isPresent()) {
-                timeFilter = CommitTimeRevFilter.after(start.get());
-            } else if (end.isPresent()) {
-                timeFilter = CommitTimeRevFilter.before(end.get());
-            }
-            if (userCommentFilter == null && timeFilter == null) {
+        lockForReading(branch);
+        try {
+            // same matching as the git message and committer filters: case insensitive, anywhere in the text
+            Pattern pattern = byComment || byUser
+                ? Pattern.compile(".*" + partialText + ".*", Pattern.CASE_INSENSITIVE | Pattern.DOTALL) : null;
+            if (pattern == null && !start.isPresent() && !end.isPresent()) {
                 throw new IllegalArgumentException("No search parameters provided.");
-            } else if (userCommentFilter != null && timeFilter != null) {
-                revWalk.setRevFilter(AndRevFilter.create(userCommentFilter, timeFilter));
-            } else if (userCommentFilter != null) {
-                revWalk.setRevFilter(userCommentFilter);
-            } else {
-                revWalk.setRevFilter(timeFilter);
             }
-            for (RevCommit commit : revWalk) {
-                AbstractTreeIterator oldTreeIterator = new EmptyTreeIterator();
-                if (commit.getParents().length != 0) {
-                    oldTreeIterator = new CanonicalTreeParser(null, objectReader, commit.getParents()[0].getTree());
+            List<Snapshot> snapshots = new ArrayList<>();
+            Set<String> revisions = new HashSet<>();
+            for (SearchIndex.Commit commit : searchIndex.getHistory(repository, getHeadCommit())) {
+                if (!commit.isWithin(start, end)) {
+                    continue;
+                } else if (pattern != null && !(byComment && pattern.matcher(commit.comment).matches())
+                    && !(byUser && pattern.matcher(commit.getCommitter()).matches())) {
+                    continue;
                 }
-                AbstractTreeIterator newTreeIterator = new CanonicalTreeParser(null, objectReader, commit.getTree());
-                try (DiffFormatter diffFormatter = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
-                    diffFormatter.setRepository(repository);
-                    diffFormatter.setDiffComparator(RawTextComparator.DEFAULT);
-                    diffFormatter.setDetectRenames(true);
-                    List<DiffEntry> diffs = diffFormatter.scan(oldTreeIterator, newTreeIterator);
-                    for (DiffEntry diff : diffs) {
-                        if (diff.getChangeType() == org.eclipse.jgit.diff.DiffEntry.ChangeType.DELETE
-                            || diff.getChangeType() == org.eclipse.jgit.diff.DiffEntry.ChangeType.RENAME
-                            || !diff.getNewPath().endsWith(FileType.SNAPSHOT.suffix)) {
-                            continue;
-                        }
-                        pathToSaveSet(diff.getNewPath(), repositoryPath, branch, FileType.SNAPSHOT).ifPresent(e -> {
-                            MetaInfo mi = getMetaInfoFromCommit(commit);
-                            Map<String, String> parameters = new HashMap<>();
-                            parameters.put(PARAM_GIT_REVISION, mi.revision);
-                            revisions.add(commit);
-                            snapshots.add(new Snapshot(e, mi.timestamp.toInstant(), mi.comment, mi.creator, parameters,
-                                new ArrayList<>(0)));
-                        });
-                    }
+                for (String path : commit.snapshots) {
+                    pathToSaveSet(path, repositoryPath, branch, FileType.SNAPSHOT).ifPresent(e -> {
+                        MetaInfo mi = commit.getMetaInfo();
+                        Map<String, String> parameters = new HashMap<>();
+                        parameters.put(PARAM_GIT_REVISION, mi.revision);
+                        revisions.add(mi.revision);
+                        snapshots.add(new Snapshot(e, mi.timestamp.toInstant(), mi.comment, mi.creator, parameters,
+                            new ArrayList<>(0)));
+                    });
                 }
             }
+            final Map<String, RevTag> tags = loadTagsForRevisions(revisions);
+            final List<Snapshot> ret = new ArrayList<>();
+            final String branchName = branch.getShortName();
+            snapshots.forEach(s -> {
+                String revision = s.getParameters().get(PARAM_GIT_REVISION);
+                if (tags.get(revision) == null) {
+                    ret.add(s);
+                } else {
+                    Map<String, String> parameters = new HashMap<>(s.getParameters());
+                    insertTagData(tags.get(revision), parameters, revision, branchName);
+                    ret.add(new Snapshot(s.getSaveSet(), s.getDate(), s.getComment(), s.getOwner(),
+                        parameters.remove(PARAM_TAG_NAME), parameters.remove(PARAM_TAG_MESSAGE), parameters,
+                        EMPTY_LIST));
+                }
+            });
+            return ret;
+        } finally {
+            lock.readLock().unlock();
         }
-        final Map<String, RevTag> tags = loadTagsForRevisions(revisions);
-        final List<Snapshot> ret = new ArrayList<>();
-        final String branchName = branch.getShortName();
-        snapshots.forEach(s -> {
-            String revision = s.getParameters().get(PARAM_GIT_REVISION);
-            if (tags.get(revision) == null) {
-                ret.add(s);
-            } else {
-                Map<String, String> parameters = new HashMap<>(s.getParameters());
-                insertTagData(tags.get(revision), parameters, revision, branchName);
-                ret.add(new Snapshot(s.getSaveSet(), s.getDate(), s.getComment(), s.getOwner(),
-                    parameters.remove(PARAM_TAG_NAME), parameters.remove(PARAM_TAG_MESSAGE), parameters, EMPTY_LIST));
-            }
-        });
-        return ret;
     }
 
     /**
@@ -0,0 +1,372 @@
+/*
+ * This software is Copyright by the Board of Trustees of Michigan
+ * State University (c) Copyright 2026.
+ *
+ * Contact Information:
+ *   Facility for Rare Isotope Beam
+ *   Michigan State University
+ *   East Lansing, MI 48824-1321
+ *   http://frib.msu.edu
+ */
+package org.csstudio.saverestore.git;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Level;
+
+import org.csstudio.saverestore.SaveRestoreService;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffEntry.ChangeType;
+import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.diff.RawTextComparator;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.AbstractTreeIterator;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.util.io.DisabledOutputStream;
+
+/**
+ * <code>SearchIndex</code> stores the data needed to search for snapshots (comment, committer, commit time and the
+ * snapshot files changed by the commit) for each commit of the repository. The index is kept in a file in the git
+ * directory of the repository and is updated incrementally: only the commits that are not yet in the index are read
+ * from the repository and compared with their parent, all other commits are taken from the index.
+ */
+final class SearchIndex {
+
+    /**
+     * <code>Commit</code> holds the searchable data of a single commit.
+     */
+    static final class Commit {
+        final String revision;
+        final String[] parents;
+        /** commit time in seconds, as used by the git commit time filters */
+        final int time;
+        final long when;
+        final String comment;
+        final String creator;
+        final String email;
+        /** the snapshot files that were added or modified by this commit */
+        final String[] snapshots;
+        /** the new paths of the snapshot files that were renamed by this commit */
+        final String[] renamed;
+
+        private Commit(String revision, String[] parents, int time, long when, String comment, String creator,
+            String email, String[] snapshots, String[] renamed) {
+            this.revision = revision;
+            this.parents = parents;
+            this.time = time;
+            this.when = when;
+            this.comment = comment;
+            this.creator = creator;
+            this.email = email;
+            this.snapshots = snapshots;
+            this.renamed = renamed;
+        }
+
+        /**
+         * Returns the committer in the same form as matched by the git committer filter (<code>name &lt;email&gt;
+         * </code>).
+         *
+         * @return the committer name and email
+         */
+        String getCommitter() {
+            return creator + " <" + email + ">";
+        }
+
+        /**
+         * Checks if this commit was made within the given time window. The times are compared in seconds, the same as
+         * the git commit time filters do.
+         *
+         * @param start the start of the time window (optional)
+         * @param end the end of the time window (optional)
+         * @return true if the commit was made within the time window or false otherwise
+         */
+        boolean isWithin(Optional<Date> start, Optional<Date> end) {
+            return (!start.isPresent() || time >= (int) (start.get().getTime() / 1000))
+                && (!end.isPresent() || time <= (int) (end.get().getTime() / 1000));
+        }
+
+        /**
+         * Returns the path to the snapshot file that changed in this commit, regardless if it was renamed or not.
+         *
+         * @return the path to the snapshot file if there is one
+         */
+        Optional<String> getSnapshotPath() {
+            if (snapshots.length > 0) {
+                return Optional.of(snapshots[0]);
+            } else if (renamed.length > 0) {
+                return Optional.of(renamed[0]);
+            }
+            return Optional.empty();
+        }
+
+        /**
+         * @return the meta info of this commit
+         */
+        MetaInfo getMetaInfo() {
+            return new MetaInfo(comment, creator, email, new Date(when), revision);
+        }
+    }
+
+    static final int MAGIC = 0x53524958;
+    static final int VERSION = 1;
+    private static final String[] EMPTY = new String[0];
+
+    private final File file;
+    private final Map<String, Commit> commits = new HashMap<>();
+    private boolean loaded = false;
+    private String historyHead;
+    private List<Commit> history = Collections.emptyList();
+
+    /**
+     * Constructs a new index, which is stored in the given file. The file is read when the index is used for the first
+     * time.
+     *
+     * @param file the file in which the index is stored
+     */
+    SearchIndex(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns all commits that are reachable from the given head commit, ordered by commit time from the newest to the
+     * oldest. The commits that are not yet indexed are read from the repository and added to the index.
+     *
+     * @param repository the repository that contains the commits
+     * @param head the head commit from which the history is followed
+     * @return the list of commits, newest first
+     * @throws IOException if a commit could not be read
+     */
+    synchronized List<Commit> getHistory(Repository repository, AnyObjectId head) throws IOException {
+        String headName = head.getName();
+        if (headName.equals(historyHead)) {
+            return history;
+        }
+        load();
+        List<Commit> list = new ArrayList<>(commits.size() + 1);
+        List<Commit> added = new ArrayList<>();
+        Set<String> visited = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.push(headName);
+        try (RevWalk walk = new RevWalk(repository); ObjectReader reader = repository.newObjectReader()) {
+            while (!pending.isEmpty()) {
+                String revision = pending.pop();
+                if (!visited.add(revision)) {
+                    continue;
+                }
+                Commit commit = commits.get(revision);
+                if (commit == null) {
+                    commit = read(repository, walk, reader, ObjectId.fromString(revision));
+                    commits.put(revision, commit);
+                    added.add(commit);
+                }
+                list.add(commit);
+                for (String parent : commit.parents) {
+                    pending.push(parent);
+                }
+            }
+        } finally {
+            store(added);
+        }
+        list.sort((a, b) -> Integer.compare(b.time, a.time));
+        history = Collections.unmodifiableList(list);
+        historyHead = headName;
+        return history;
+    }
+
+    /**
+     * Returns the indexed data of the given commit. If the commit is not yet indexed, it is read from the repository
+     * and added to the index.
+     *
+     * @param repository the repository that contains the commit
+     * @param id the id of the commit
+     * @return the commit data
+     * @throws IOException if the commit could not be read
+     */
+    synchronized Commit getCommit(Repository repository, AnyObjectId id) throws IOException {
+        load();
+        Commit commit = commits.get(id.getName());
+        if (commit == null) {
+            try (RevWalk walk = new RevWalk(repository); ObjectReader reader = repository.newObjectReader()) {
+                commit = read(repository, walk, reader, id);
+            }
+            commits.put(commit.revision, commit);
+            store(Collections.singletonList(commit));
+        }
+        return commit;
+    }
+
+    /**
+     * Reads the commit from the repository and compares it with its first parent to find the changed snapshot files.
+     */
+    private static Commit read(Repository repository, RevWalk walk, ObjectReader reader, AnyObjectId id)
+        throws IOException {
+        RevCommit commit = walk.parseCommit(id);
+        AbstractTreeIterator oldTreeIterator = new EmptyTreeIterator();
+        if (commit.getParentCount() != 0) {
+            RevCommit parentCommit = walk.parseCommit(commit.getParent(0));
+            oldTreeIterator = new CanonicalTreeParser(null, reader, parentCommit.getTree());
+        }
+        AbstractTreeIterator newTreeIterator = new CanonicalTreeParser(null, reader, commit.getTree());
+        List<String> snapshots = new ArrayList<>(1);
+        List<String> renamed = new ArrayList<>(0);
+        try (DiffFormatter diffFormatter = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
+            diffFormatter.setRepository(repository);
+            diffFormatter.setDiffComparator(RawTextComparator.DEFAULT);
+            diffFormatter.setDetectRenames(true);
+            for (DiffEntry diff : diffFormatter.scan(oldTreeIterator, newTreeIterator)) {
+                if (diff.getChangeType() == ChangeType.DELETE
+                    || !diff.getNewPath().endsWith(FileType.SNAPSHOT.suffix)) {
+                    continue;
+                } else if (diff.getChangeType() == ChangeType.RENAME) {
+                    renamed.add(diff.getNewPath());
+                } else {
+                    snapshots.add(diff.getNewPath());
+                }
+            }
+        }
+        String[] parents = new String[commit.getParentCount()];
+        for (int i = 0; i < parents.length; i++) {
+            parents[i] = commit.getParent(i).getName();
+        }
+        PersonIdent committer = commit.getCommitterIdent();
+        return new Commit(commit.getName(), parents, commit.getCommitTime(), committer.getWhen().getTime(),
+            commit.getFullMessage(), committer.getName(), committer.getEmailAddress(), snapshots.toArray(EMPTY),
+            renamed.toArray(EMPTY));
+    }
+
+    /**
+     * Reads the index file, if it has not been read yet. An incomplete record at the end of the file (e.g. if the
+     * application was terminated while writing) is dropped. If the file is not a valid index file, it is discarded
+     * and the index is built anew.
+     */
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!file.exists()) {
+            return;
+        }
+        try {
+            byte[] data = Files.readAllBytes(file.toPath());
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            if (data.length < 8 || in.readInt() != MAGIC || in.readInt() != VERSION) {
+                Files.delete(file.toPath());
+                return;
+            }
+            int valid = data.length - in.available();
+            try {
+                while (in.available() > 0) {
+                    Commit commit = new Commit(readString(in), readStrings(in), in.readInt(), in.readLong(),
+                        readString(in), readString(in), readString(in), readStrings(in), readStrings(in));
+                    commits.put(commit.revision, commit);
+                    valid = data.length - in.available();
+                }
+            } catch (EOFException e) {
+                SaveRestoreService.LOGGER.log(Level.WARNING,
+                    () -> String.format("Search index %s is incomplete.", file.getAbsolutePath()));
+                try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                    raf.setLength(valid);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            SaveRestoreService.LOGGER.log(Level.WARNING, e,
+                () -> String.format("Search index %s could not be read.", file.getAbsolutePath()));
+            commits.clear();
+            file.delete();
+        }
+    }
+
+    /**
+     * Appends the given commits to the index file.
+     */
+    private void store(List<Commit> added) {
+        if (added.isEmpty()) {
+            return;
+        }
+        boolean exists = file.exists();
+        try (DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(new FileOutputStream(file, exists)))) {
+            if (!exists) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+            }
+            for (Commit commit : added) {
+                writeString(out, commit.revision);
+                writeStrings(out, commit.parents);
+                out.writeInt(commit.time);
+                out.writeLong(commit.when);
+                writeString(out, commit.comment);
+                writeString(out, commit.creator);
+                writeString(out, commit.email);
+                writeStrings(out, commit.snapshots);
+                writeStrings(out, commit.renamed);
+            }
+        } catch (IOException e) {
+            SaveRestoreService.LOGGER.log(Level.WARNING, e,
+                () -> String.format("Search index %s could not be written.", file.getAbsolutePath()));
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeStrings(DataOutputStream out, String[] values) throws IOException {
+        out.writeInt(values.length);
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available()) {
+            throw new EOFException();
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String[] readStrings(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available()) {
+            throw new EOFException();
+        }
+        String[] values = new String[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = readString(in);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * This software is Copyright by the Board of Trustees of Michigan
+ * State University (c) Copyright 2026.
+ *
+ * Contact Information:
+ *   Facility for Rare Isotope Beam
+ *   Michigan State University
+ *   East Lansing, MI 48824-1321
+ *   http://frib.msu.edu
+ */
+package org.csstudio.saverestore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.csstudio.saverestore.data.SnapshotEntry;
+import org.diirt.datasource.CompositeDataSource;
+import org.diirt.datasource.PVManager;
+import org.diirt.datasource.loc.LocalDataSource;
+import org.diirt.vtype.ValueFactory;
+import org.junit.Test;
+
+/**
+ *
+ * <code>RestoreServiceTest</code> tests the {@link RestoreService} with a writer that completes the writes on a
+ * separate thread and with local PVs written through the PV manager.
+ */
+@SuppressWarnings("nls")
+public class RestoreServiceTest {
+
+    private static List<SnapshotEntry> entries(String prefix, int n) {
+        List<SnapshotEntry> entries = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            entries.add(new SnapshotEntry(prefix + i, ValueFactory.newVDouble((double) i)));
+        }
+        return entries;
+    }
+
+    private static CompletableFuture<Void> later(long millis) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                // ignore
+            }
+        });
+    }
+
+    /**
+     * Tests that all values are written, the concurrency limit is respected and the statistics are updated.
+     *
+     * @throws Exception on error
+     */
+    @Test
+    public void testConcurrency() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        List<Object> written = Collections.synchronizedList(new ArrayList<>());
+        RestoreService service = new RestoreService((name, value) -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            written.add(value);
+            return later(5).whenComplete((r, e) -> active.decrementAndGet());
+        }, 4, 0, Duration.ofSeconds(10));
+        RestoreOperation operation = service.restore(Collections.singletonList(entries("pv", 50)));
+        assertTrue(operation.await(10, TimeUnit.SECONDS));
+        assertEquals(50, written.size());
+        assertTrue("At most 4 writes in progress", maxActive.get() <= 4);
+        assertEquals(50, operation.getTotal());
+        assertEquals(50, operation.getCompleted());
+        assertEquals(0, operation.getFailed());
+        assertEquals(1, operation.getProgress(), 0);
+        assertTrue(operation.getErrors().isEmpty());
+        assertTrue(operation.getAverageLatency() > 0);
+        assertTrue(operation.getMaxLatency() >= operation.getAverageLatency());
+        for (CompletableFuture<Boolean> f : operation.getFutures().values()) {
+            assertTrue(f.get());
+        }
+    }
+
+    /**
+     * Tests that a group is only started when all writes of the previous group have completed.
+     *
+     * @throws Exception on error
+     */
+    @Test
+    public void testGroups() throws Exception {
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger pending = new AtomicInteger();
+        AtomicInteger violations = new AtomicInteger();
+        RestoreService service = new RestoreService((name, value) -> {
+            if (name.startsWith("b") && pending.get() > 0) {
+                violations.incrementAndGet();
+            }
+            order.add(name);
+            if (name.startsWith("a")) {
+                pending.incrementAndGet();
+                return later(20).whenComplete((r, e) -> pending.decrementAndGet());
+            }
+            return CompletableFuture.completedFuture(null);
+        }, 10, 0, null);
+        RestoreOperation operation = service.restore(Arrays.asList(entries("a", 5), entries("b", 5)));
+        assertTrue(operation.await(10, TimeUnit.SECONDS));
+        assertEquals(0, violations.get());
+        assertEquals(10, order.size());
+        for (int i = 0; i < 5; i++) {
+            assertTrue(order.get(i).startsWith("a"));
+        }
+    }
+
+    /**
+     * Tests that failed and timed out writes are reported per PV and that entries without a value are skipped.
+     *
+     * @throws Exception on error
+     */
+    @Test
+    public void testFailures() throws Exception {
+        List<SnapshotEntry> entries = new ArrayList<>(entries("pv", 3));
+        entries.add(new SnapshotEntry("empty", null));
+        RestoreService service = new RestoreService((name, value) -> {
+            if ("pv1".equals(name)) {
+                throw new IllegalStateException("Not connected");
+            } else if ("pv2".equals(name)) {
+                return new CompletableFuture<>();
+            }
+            return CompletableFuture.completedFuture(null);
+        }, 10, 0, Duration.ofMillis(200));
+        RestoreOperation operation = service.restore(Collections.singletonList(entries));
+        assertTrue(operation.await(10, TimeUnit.SECONDS));
+        assertEquals(4, operation.getCompleted());
+        assertEquals(2, operation.getFailed());
+        assertTrue(operation.getFuture("pv0").get());
+        assertFalse(operation.getFuture("empty").get());
+        try {
+            operation.getFuture("pv2").get();
+            fail("Timeout expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        Map<String, Throwable> errors = operation.getErrors();
+        assertEquals(Arrays.asList("pv1", "pv2"), new ArrayList<>(errors.keySet()));
+        assertEquals("Not connected", errors.get("pv1").getMessage());
+        assertEquals("Timeout", errors.get("pv2").getMessage());
+    }
+
+    /**
+     * Tests that the writes are started at the configured rate.
+     *
+     * @throws Exception on error
+     */
+    @Test
+    public void testRate() throws Exception {
+        RestoreService service = new RestoreService((name, value) -> CompletableFuture.completedFuture(null), 10,
+            100, null);
+        long start = System.nanoTime();
+        RestoreOperation operation = service.restore(Collections.singletonList(entries("pv", 21)));
+        assertTrue(operation.await(10, TimeUnit.SECONDS));
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("21 writes at 100 per second take at least 200 ms, but took " + millis, millis >= 190);
+    }
+
+    /**
+     * Tests restoring local PVs through the PV manager.
+     *
+     * @throws Exception on error
+     */
+    @Test
+    public void testLocalPVs() throws Exception {
+        CompositeDataSource sources = new CompositeDataSource();
+        sources.putDataSource("loc", new LocalDataSource());
+        PVManager.setDefaultDataSource(sources);
+
+        RestoreService service = new RestoreService(10, 0, Duration.ofSeconds(5));
+        RestoreOperation operation = service.restore(Collections.singletonList(entries("loc://restoreTest", 20)));
+        assertTrue(operation.await(10, TimeUnit.SECONDS));
+        assertTrue(operation.getErrors().toString(), operation.getErrors().isEmpty());
+        assertEquals(20, operation.getCompleted());
+    }
+}
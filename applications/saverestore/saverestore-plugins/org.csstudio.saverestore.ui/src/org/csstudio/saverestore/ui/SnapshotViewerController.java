@@ -29,11 +29,15 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -45,6 +49,8 @@ import org.csstudio.saverestore.DataProvider;
 import org.csstudio.saverestore.DataProviderException;
 import org.csstudio.saverestore.DataProviderWrapper;
 import org.csstudio.saverestore.FileUtilities;
+import org.csstudio.saverestore.RestoreOperation;
+import org.csstudio.saverestore.RestoreService;
 import org.csstudio.saverestore.SaveRestoreService;
 import org.csstudio.saverestore.SnapshotContent;
 import org.csstudio.saverestore.UnsupportedActionException;
@@ -64,8 +70,6 @@ import org.csstudio.ui.fx.util.FXMessageDialog;
 import org.diirt.datasource.PVManager;
 import org.diirt.datasource.PVReader;
 import org.diirt.datasource.PVWriter;
-import org.diirt.datasource.PVWriterEvent;
-import org.diirt.datasource.PVWriterListener;
 import org.diirt.vtype.Alarm;
 import org.diirt.vtype.AlarmSeverity;
 import org.diirt.vtype.Time;
@@ -856,76 +860,60 @@ public class SnapshotViewerController {
      * @param s the snapshot
      */
     public void restoreSnapshot(VSnapshot s) {
-        Map<PV, PVWriterListener<?>> restorablePVs = new HashMap<>();
         try {
             suspend();
-            List<SnapshotEntry> entries = s.getEntries();
-            final Map<PV, PVWriterEvent<?>> restoredPVs = new HashMap<>();
-            for (SnapshotEntry entry : entries) {
+            // only restore the value if the entry is in the filtered list as well
+            final Set<TableEntry> filtered = new HashSet<>(filteredList);
+            final List<SnapshotEntry> restorable = new ArrayList<>();
+            final Map<String, PV> writers = new HashMap<>();
+            for (SnapshotEntry entry : s.getEntries()) {
                 final TableEntry e = items.get(entry.getPVName());
-                // only restore the value if the entry is in the filtered list as well
-                if (filteredList.contains(e) && e.selectedProperty().get() && !e.readOnlyProperty().get()) {
+                if (filtered.contains(e) && e.selectedProperty().get() && !e.readOnlyProperty().get()) {
                     final PV pv = pvs.get(e);
                     if (pv.writer != null) {
-                        PVWriterListener<?> l = w -> {
-                            restoredPVs.put(pv, w);
-                            synchronized (restoredPVs) {
-                                restoredPVs.notifyAll();
-                            }
-                        };
-                        restorablePVs.put(pv, l);
-                        pv.writer.addPVWriterListener(l);
-                        Object val = Utilities.toRawValue(entry.getValue());
-                        if (val != null) {
-                            pv.writer.write(val);
-                        }
+                        restorable.add(entry);
+                        writers.put(entry.getPVName(), pv);
                     }
                 }
             }
+            SaveRestoreService service = SaveRestoreService.getInstance();
+            RestoreService restoreService = new RestoreService(
+                (name, value) -> RestoreService.write(writers.get(name).writer, value),
+                service.getRestoreConcurrency(), service.getRestoreRate(), RestoreService.DEFAULT_TIMEOUT);
+            RestoreOperation operation = restoreService.restore(Collections.singletonList(restorable));
             try {
-                long time = System.currentTimeMillis();
-                while (System.currentTimeMillis() - time < 30000
-                    && !SaveRestoreService.getInstance().isCurrentJobCancelled()) {
-                    synchronized (restoredPVs) {
-                        if (restoredPVs.size() == restorablePVs.size()) {
-                            break;
-                        } else {
-                            restoredPVs.wait(100);
-                        }
+                while (!operation.await(100, TimeUnit.MILLISECONDS)) {
+                    if (service.isCurrentJobCancelled()) {
+                        operation.cancel();
+                        break;
                     }
                 }
             } catch (InterruptedException e) {
-                // ignore
+                operation.cancel();
             }
 
             List<String> messages = new ArrayList<>();
-            for (Map.Entry<PV, PVWriterEvent<?>> pv : restoredPVs.entrySet()) {
-                if (pv.getValue().isWriteFailed()) {
-                    StringBuilder sb = new StringBuilder(200);
-                    sb.append(pv.getKey().pvName).append(':').append(' ');
-                    Exception e = pv.getValue().getPvWriter().lastWriteException();
-                    if (e == null || e.getMessage() == null || e.getMessage().isEmpty()) {
-                        sb.append("Unknown error");
-                    } else {
-                        sb.append(e.getMessage());
-                    }
-                    messages.add(sb.toString());
+            operation.getErrors().forEach((name, e) -> {
+                if (e instanceof CancellationException) {
+                    return;
                 }
-            }
-
-            if (restoredPVs.size() != restorablePVs.size()) {
-                // not all PVs responded in time
-                for (PV pv : restorablePVs.keySet()) {
-                    if (restoredPVs.containsKey(pv)) {
-                        messages.add(pv.pvName + ": Timeout");
-                    }
+                StringBuilder sb = new StringBuilder(200);
+                sb.append(name).append(':').append(' ');
+                if (e.getMessage() == null || e.getMessage().isEmpty()) {
+                    sb.append("Unknown error");
+                } else {
+                    sb.append(e.getMessage());
                 }
-            }
+                messages.add(sb.toString());
+            });
+            SaveRestoreService.LOGGER.log(Level.FINE,
+                "Restore of {0} PVs took {1} ms (average write latency {2} ms, maximum {3} ms).",
+                new Object[] { operation.getTotal(), operation.getElapsedTime(), operation.getAverageLatency(),
+                    operation.getMaxLatency() });
             if (messages.isEmpty()) {
                 SaveRestoreService.LOGGER.log(Level.FINE, "Restored snapshot {0}: {1}.",
                     new Object[] { s.getSaveSet().getFullyQualifiedName(), s.getSnapshot().get() });
             } else {
-                Collections.sort(messages);
                 StringBuilder sb = new StringBuilder(messages.size() * 200);
                 messages.forEach(e -> sb.append(e).append('\n'));
                 SaveRestoreService.LOGGER.log(Level.WARNING,
@@ -936,9 +924,6 @@ public class SnapshotViewerController {
                     "There were some errors restoring the snapshot\n " + s.getSnapshot().get(), sb.toString());
             }
         } finally {
-            for (Map.Entry<PV, PVWriterListener<?>> e : restorablePVs.entrySet()) {
-                e.getKey().writer.removePVWriterListener(e.getValue());
-            }
             resume();
         }
     }
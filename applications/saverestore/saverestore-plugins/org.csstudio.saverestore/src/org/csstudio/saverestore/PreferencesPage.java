@@ -68,6 +68,21 @@ public class PreferencesPage extends FieldEditorPreferencePage implements IWorkb
                           + "they can be opened in a new editor or added as\n"
                           + "compared snapshots to the current editor");
         addField(newSnapshots);
+        IntegerFieldEditor restoreConcurrency = new IntegerFieldEditor(SaveRestoreService.PREF_RESTORE_CONCURRENCY,
+            "Number of PVs written at once during restore", parent);
+        restoreConcurrency.setValidRange(1, Integer.MAX_VALUE);
+        restoreConcurrency.getLabelControl(parent)
+            .setToolTipText("Set the maximum number of PV writes that are in\n"
+                          + "progress at the same time when a snapshot is restored.");
+        addField(restoreConcurrency);
+        IntegerFieldEditor restoreRate = new IntegerFieldEditor(SaveRestoreService.PREF_RESTORE_RATE,
+            "Maximum PV writes per second during restore", parent);
+        restoreRate.setValidRange(0, Integer.MAX_VALUE);
+        restoreRate.getLabelControl(parent)
+            .setToolTipText("Set the maximum number of PV writes started per second\n"
+                          + "when a snapshot is restored to limit the network load. Setting this\n"
+                          + "value to 0 means that the rate is not limited.");
+        addField(restoreRate);
 
     }
 
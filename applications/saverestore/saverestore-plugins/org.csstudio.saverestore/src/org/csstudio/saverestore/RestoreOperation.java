@@ -0,0 +1,230 @@
+/*
+ * This software is Copyright by the Board of Trustees of Michigan
+ * State University (c) Copyright 2026.
+ *
+ * Contact Information:
+ *   Facility for Rare Isotope Beam
+ *   Michigan State University
+ *   East Lansing, MI 48824-1321
+ *   http://frib.msu.edu
+ */
+package org.csstudio.saverestore;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <code>RestoreOperation</code> is the handle of a restore started by the {@link RestoreService}. It provides the
+ * completion future of each restored PV, the completion of the whole restore, the progress and the write latency
+ * statistics.
+ */
+public class RestoreOperation {
+
+    private final Map<String, CompletableFuture<Boolean>> futures;
+    private final CompletableFuture<RestoreOperation> completion = new CompletableFuture<>();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicLong latencySum = new AtomicLong();
+    private final AtomicLong latencyMax = new AtomicLong();
+    private final AtomicInteger written = new AtomicInteger();
+    private final long start = System.nanoTime();
+    private volatile long end;
+    private volatile boolean cancelled = false;
+
+    /**
+     * Constructs a new operation for the given PVs.
+     *
+     * @param pvNames the names of all PVs that will be restored in the order of restore
+     */
+    RestoreOperation(Iterable<String> pvNames) {
+        Map<String, CompletableFuture<Boolean>> map = new LinkedHashMap<>();
+        pvNames.forEach(n -> map.putIfAbsent(n, new CompletableFuture<>()));
+        this.futures = Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Returns the future, which completes when the value of the PV has been written. The future completes with true if
+     * the value was written or false if there was no value to write. If the write failed or timed out the future
+     * completes exceptionally.
+     *
+     * @param pvName the name of the PV
+     * @return the future for the PV or null if the PV is not restored by this operation
+     */
+    public CompletableFuture<Boolean> getFuture(String pvName) {
+        return futures.get(pvName);
+    }
+
+    /**
+     * Returns the futures of all PVs in the order in which the PVs are restored.
+     *
+     * @return the map of PV names and their futures
+     */
+    public Map<String, CompletableFuture<Boolean>> getFutures() {
+        return futures;
+    }
+
+    /**
+     * Returns the future, which completes when all PVs have been restored, failed or timed out, or when the operation
+     * has been cancelled.
+     *
+     * @return the future of the whole operation
+     */
+    public CompletableFuture<RestoreOperation> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * Waits until the operation completes or the timeout expires.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return true if the operation completed or false if the timeout expired
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            completion.get(timeout, unit);
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException | CancellationException e) {
+            // the operation is done anyway
+        }
+        return true;
+    }
+
+    /**
+     * @return true if all PVs have been restored or the operation was cancelled
+     */
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    /**
+     * Cancel the operation. PVs that have not been written yet are not written anymore and their futures are
+     * cancelled. Writes that are already in progress are not interrupted.
+     */
+    public void cancel() {
+        cancelled = true;
+        futures.values().forEach(f -> f.cancel(false));
+    }
+
+    /**
+     * @return true if the operation was cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return the total number of PVs restored by this operation
+     */
+    public int getTotal() {
+        return futures.size();
+    }
+
+    /**
+     * @return the number of PVs, which have been completed (successfully or not)
+     */
+    public int getCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * @return the number of PVs that could not be restored
+     */
+    public int getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * @return the fraction of completed PVs (between 0 and 1)
+     */
+    public double getProgress() {
+        return futures.isEmpty() ? 1 : (double) completed.get() / futures.size();
+    }
+
+    /**
+     * @return the average time between writing a value and its confirmation in milliseconds
+     */
+    public double getAverageLatency() {
+        int n = written.get();
+        return n == 0 ? 0 : latencySum.get() / (n * 1e6);
+    }
+
+    /**
+     * @return the longest time between writing a value and its confirmation in milliseconds
+     */
+    public double getMaxLatency() {
+        return latencyMax.get() / 1e6;
+    }
+
+    /**
+     * @return the time since the start of the operation or the duration of the completed operation in milliseconds
+     */
+    public double getElapsedTime() {
+        long e = completion.isDone() ? end : System.nanoTime();
+        return (e - start) / 1e6;
+    }
+
+    /**
+     * Returns the errors of all PVs that could not be restored, sorted by PV name.
+     *
+     * @return the map of PV names and the causes of failure
+     */
+    public Map<String, Throwable> getErrors() {
+        Map<String, Throwable> errors = new TreeMap<>();
+        futures.forEach((n, f) -> {
+            if (f.isCompletedExceptionally()) {
+                try {
+                    f.join();
+                } catch (CompletionException | CancellationException e) {
+                    errors.put(n, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                }
+            }
+        });
+        return errors;
+    }
+
+    /**
+     * Record the completion of a single PV.
+     *
+     * @param future the future of the PV
+     * @param latency the write latency in nanoseconds or a negative number if the value was not written
+     * @param error the cause of failure or null if successful
+     */
+    void complete(CompletableFuture<Boolean> future, long latency, Throwable error) {
+        if (latency >= 0) {
+            written.incrementAndGet();
+            latencySum.addAndGet(latency);
+            latencyMax.accumulateAndGet(latency, Math::max);
+        }
+        // count before completing the future, so that the counts are up to date for anyone waiting on the future
+        if (error != null) {
+            failed.incrementAndGet();
+        }
+        completed.incrementAndGet();
+        if (error == null) {
+            future.complete(latency >= 0);
+        } else {
+            future.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Mark the whole operation as complete.
+     */
+    void done() {
+        end = System.nanoTime();
+        completion.complete(this);
+    }
+}
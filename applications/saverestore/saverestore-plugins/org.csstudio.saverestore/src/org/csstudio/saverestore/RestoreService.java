@@ -0,0 +1,279 @@
+/*
+ * This software is Copyright by the Board of Trustees of Michigan
+ * State University (c) Copyright 2026.
+ *
+ * Contact Information:
+ *   Facility for Rare Isotope Beam
+ *   Michigan State University
+ *   East Lansing, MI 48824-1321
+ *   http://frib.msu.edu
+ */
+package org.csstudio.saverestore;
+
+import static org.diirt.datasource.ExpressionLanguage.channel;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+import org.csstudio.saverestore.data.SnapshotEntry;
+import org.csstudio.saverestore.data.VSnapshot;
+import org.diirt.datasource.PVManager;
+import org.diirt.datasource.PVWriter;
+import org.diirt.datasource.PVWriterEvent;
+import org.diirt.datasource.PVWriterListener;
+
+/**
+ * <code>RestoreService</code> writes the values of snapshot entries to their PVs without any user interface. The
+ * entries are restored in groups: a group is only started when all writes of the previous group have completed. Within
+ * a group at most <code>concurrency</code> writes are in progress at the same time and new writes are started at most
+ * at the given rate. The restore runs in its own thread; the returned {@link RestoreOperation} provides the completion
+ * of each PV and of the whole restore.
+ * <p>
+ * The PVs are written by a {@link Writer}. The default writer opens a PV writer through the PV manager for each PV and
+ * closes it when the write is confirmed.
+ * </p>
+ */
+public class RestoreService {
+
+    /**
+     * <code>Writer</code> writes a single value to a PV.
+     */
+    @FunctionalInterface
+    public static interface Writer {
+        /**
+         * Write the value to the PV. The returned stage completes when the write has been confirmed or completes
+         * exceptionally if the write failed.
+         *
+         * @param pvName the name of the PV
+         * @param value the raw value to write
+         * @return the stage that completes when the write is done
+         * @throws Exception if the write could not be started
+         */
+        CompletionStage<?> write(String pvName, Object value) throws Exception;
+    }
+
+    /** The default number of writes in progress at the same time */
+    public static final int DEFAULT_CONCURRENCY = 100;
+    /** The default time to wait for a write to complete */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Writer writer;
+    private final int concurrency;
+    private final long interval;
+    private final Duration timeout;
+
+    /**
+     * Constructs a restore service, which writes the PVs through the PV manager, using the default concurrency, no
+     * rate limit and the default timeout.
+     */
+    public RestoreService() {
+        this(DEFAULT_CONCURRENCY, 0, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Constructs a restore service, which writes the PVs through the PV manager.
+     *
+     * @param concurrency the maximum number of writes in progress at the same time
+     * @param maxWritesPerSecond the maximum number of writes started per second (0 or less for no limit)
+     * @param timeout the maximum time to wait for each write, including the connection of the PV
+     */
+    public RestoreService(int concurrency, double maxWritesPerSecond, Duration timeout) {
+        this((n, v) -> writeWithPVManager(n, v, timeout), concurrency, maxWritesPerSecond, timeout);
+    }
+
+    /**
+     * Constructs a restore service, which writes the PVs with the given writer.
+     *
+     * @param writer the writer used to write the values
+     * @param concurrency the maximum number of writes in progress at the same time
+     * @param maxWritesPerSecond the maximum number of writes started per second (0 or less for no limit)
+     * @param timeout the maximum time to wait for each write (null for no timeout)
+     */
+    public RestoreService(Writer writer, int concurrency, double maxWritesPerSecond, Duration timeout) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1.");
+        }
+        this.writer = writer;
+        this.concurrency = concurrency;
+        this.interval = maxWritesPerSecond > 0 ? (long) (1e9 / maxWritesPerSecond) : 0;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Restore all entries of the snapshot as a single group.
+     *
+     * @param snapshot the snapshot to restore
+     * @return the operation that can be used to track the restore
+     */
+    public RestoreOperation restore(VSnapshot snapshot) {
+        return restore(Collections.singletonList(snapshot.getEntries()));
+    }
+
+    /**
+     * Restore the entries group by group. A group is started when all PVs of the previous group have been restored,
+     * failed or timed out.
+     *
+     * @param groups the groups of entries in the order of restore
+     * @return the operation that can be used to track the restore
+     */
+    public RestoreOperation restore(List<List<SnapshotEntry>> groups) {
+        List<String> names = new ArrayList<>();
+        groups.forEach(g -> g.forEach(e -> names.add(e.getPVName())));
+        RestoreOperation operation = new RestoreOperation(names);
+        Thread thread = new Thread(() -> run(groups, operation), "Snapshot Restore");
+        thread.setDaemon(true);
+        thread.start();
+        return operation;
+    }
+
+    private void run(List<List<SnapshotEntry>> groups, RestoreOperation operation) {
+        Semaphore permits = new Semaphore(concurrency);
+        Set<String> seen = new HashSet<>();
+        long next = System.nanoTime();
+        try {
+            for (List<SnapshotEntry> group : groups) {
+                List<CompletableFuture<Boolean>> started = new ArrayList<>(group.size());
+                for (SnapshotEntry entry : group) {
+                    if (operation.isCancelled()) {
+                        return;
+                    }
+                    CompletableFuture<Boolean> future = operation.getFuture(entry.getPVName());
+                    if (!seen.add(entry.getPVName()) || future.isDone()) {
+                        // the same PV appears more than once or the operation was cancelled
+                        continue;
+                    }
+                    Object value = Utilities.toRawValue(entry.getValue());
+                    if (value == null) {
+                        operation.complete(future, -1, null);
+                        continue;
+                    }
+                    permits.acquire();
+                    if (interval > 0) {
+                        long now = System.nanoTime();
+                        while (next - now > 0) {
+                            LockSupport.parkNanos(next - now);
+                            now = System.nanoTime();
+                        }
+                        // a write that was delayed by the concurrency limit allows at most one write to catch up
+                        next = Math.max(next, now - interval) + interval;
+                    }
+                    started.add(future);
+                    write(entry.getPVName(), value, future, operation).whenComplete((r, e) -> permits.release());
+                }
+                // wait for all writes of the group, before the next group is started
+                for (CompletableFuture<Boolean> f : started) {
+                    if (operation.isCancelled()) {
+                        return;
+                    }
+                    try {
+                        f.get();
+                    } catch (Exception e) {
+                        // the failure is recorded in the operation
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            operation.cancel();
+        } catch (RuntimeException e) {
+            SaveRestoreService.LOGGER.log(Level.SEVERE, "Snapshot restore failed.", e);
+            operation.cancel();
+        } finally {
+            operation.done();
+        }
+    }
+
+    private CompletableFuture<?> write(String pvName, Object value, CompletableFuture<Boolean> future,
+        RestoreOperation operation) {
+        long start = System.nanoTime();
+        CompletableFuture<?> write;
+        try {
+            write = writer.write(pvName, value).toCompletableFuture();
+        } catch (Exception e) {
+            write = new CompletableFuture<>();
+            write.completeExceptionally(e);
+        }
+        if (timeout != null) {
+            write = write.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return write.whenComplete((r, e) -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null
+                ? e.getCause() : e;
+            if (cause instanceof TimeoutException) {
+                cause = new TimeoutException("Timeout");
+            }
+            operation.complete(future, System.nanoTime() - start, cause);
+        });
+    }
+
+    /**
+     * Write the value with the given PV manager writer. The returned future completes when the write is confirmed or
+     * completes exceptionally if the write fails. The writer has to be connected.
+     *
+     * @param writer the writer to use
+     * @param value the value to write
+     * @return the future that completes when the write is done
+     */
+    public static CompletableFuture<Void> write(PVWriter<Object> writer, Object value) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        PVWriterListener<Object> listener = e -> complete(future, e);
+        writer.addPVWriterListener(listener);
+        future.whenComplete((r, e) -> writer.removePVWriterListener(listener));
+        writer.write(value);
+        return future;
+    }
+
+    /**
+     * Open a PV manager writer for the given PV, write the value when the PV connects and close the writer when the
+     * write is done.
+     *
+     * @param pvName the name of the PV to write
+     * @param value the value to write
+     * @param timeout the write timeout
+     * @return the future that completes when the write is done
+     */
+    public static CompletableFuture<Void> writeWithPVManager(String pvName, Object value, Duration timeout) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        AtomicBoolean written = new AtomicBoolean(false);
+        PVWriterListener<Object> listener = e -> {
+            PVWriter<Object> w = e.getPvWriter();
+            if (complete(future, e)) {
+                return;
+            } else if (w.isWriteConnected() && written.compareAndSet(false, true)) {
+                w.write(value);
+            }
+        };
+        PVWriter<Object> pvWriter = PVManager.write(channel(pvName)).timeout(timeout).writeListener(listener).async();
+        future.whenComplete((r, e) -> pvWriter.close());
+        return future;
+    }
+
+    /**
+     * Complete the future if the event is the result of the write.
+     *
+     * @return true if the future was completed
+     */
+    private static boolean complete(CompletableFuture<Void> future, PVWriterEvent<Object> event) {
+        if (event.isWriteSucceeded()) {
+            return future.complete(null);
+        } else if (event.isWriteFailed() || (event.isExceptionChanged()
+            && event.getPvWriter().lastWriteException() != null)) {
+            Exception e = event.getPvWriter().lastWriteException();
+            return future.completeExceptionally(
+                e == null || e.getMessage() == null || e.getMessage().isEmpty() ? new Exception("Unknown error") : e);
+        }
+        return false;
+    }
+}
@@ -59,6 +59,10 @@ public class SaveRestoreService {
     public static final String PREF_NUMBER_OF_SNAPSHOTS = "maxNumberOfSnapshotsInBatch";
     /** Property that defines if new snapshots should be open in compare mode or in a separate editor */
     public static final String PREF_OPEN_NEW_SNAPSHOTS_IN_COMPARE_VIEW = "openNewSnapshotsInCompareView";
+    /** Property that defines the maximum number of PV writes in progress at the same time during restore */
+    public static final String PREF_RESTORE_CONCURRENCY = "restoreConcurrency";
+    /** Property that defines the maximum number of PV writes started per second during restore */
+    public static final String PREF_RESTORE_RATE = "restoreRate";
     /** Plug-in ID */
     public static final String PLUGIN_ID = "org.csstudio.saverestore";
     /** The common logger */
@@ -423,6 +427,33 @@ public class SaveRestoreService {
         }
     }
 
+    /**
+     * Returns the maximum number of PV writes that are in progress at the same time when a snapshot is restored.
+     *
+     * @return the restore concurrency
+     */
+    public int getRestoreConcurrency() {
+        try {
+            int concurrency = getPreferences().getInt(PREF_RESTORE_CONCURRENCY);
+            return concurrency > 0 ? concurrency : RestoreService.DEFAULT_CONCURRENCY;
+        } catch (RuntimeException e) {
+            return RestoreService.DEFAULT_CONCURRENCY;
+        }
+    }
+
+    /**
+     * Returns the maximum number of PV writes started per second when a snapshot is restored.
+     *
+     * @return the restore rate or 0 if the rate is not limited
+     */
+    public int getRestoreRate() {
+        try {
+            return Math.max(0, getPreferences().getInt(PREF_RESTORE_RATE));
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
     /**
      * Returns the preference store for this plugin.
      *
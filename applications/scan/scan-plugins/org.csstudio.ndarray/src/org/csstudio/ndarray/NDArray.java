@@ -19,6 +19,7 @@ import org.diirt.util.array.ArrayFloat;
 import org.diirt.util.array.ArrayInt;
 import org.diirt.util.array.ArrayLong;
 import org.diirt.util.array.ArrayShort;
+import org.diirt.util.array.CollectionNumbers;
 import org.diirt.util.array.IteratorNumber;
 import org.diirt.util.array.ListNumber;
 
@@ -381,6 +382,20 @@ public class NDArray
         return stride;
     }
 
+    /** @return Primitive array that holds the data, e.g. <code>double[]</code>,
+     *          or <code>null</code> if not accessible
+     */
+    Object getBackingArray()
+    {
+        return CollectionNumbers.wrappedArray(data);
+    }
+
+    /** @return Index of the first element in the backing array */
+    int getOffset()
+    {
+        return offset;
+    }
+
     /** @return Iterator for the flat data */
     public IteratorNumber getIterator()
     {   // Can iterate over the raw data?
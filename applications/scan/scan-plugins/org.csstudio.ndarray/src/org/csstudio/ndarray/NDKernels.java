@@ -0,0 +1,666 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.ndarray;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import org.diirt.util.array.IteratorNumber;
+import org.diirt.util.array.ListNumber;
+
+/** Type-specialised loops for {@link NDMath} and {@link NDMatrix}
+ *
+ *  <p>Operates on the primitive array that holds the data
+ *  of an {@link NDArray} instead of reading and writing
+ *  each element through {@link ListNumber}.
+ *  Elements are converted to <code>double</code> in blocks,
+ *  the operation is applied to the block,
+ *  and the result is converted back to the element type
+ *  with the same casts as {@link ListNumber#setDouble(int, double)}.
+ *
+ *  <p>Arrays with more than {@link #PARALLEL_THRESHOLD} elements
+ *  are split into ranges that are processed on the common fork-join pool.
+ *  Ranges are always split at the same positions,
+ *  so a reduction of the same data gives the same result.
+ *
+ *  <p>Only handles arrays with elements in the default order without gaps.
+ *  Callers use element-by-element access for other views.
+ */
+@SuppressWarnings("nls")
+final class NDKernels
+{
+    /** Arrays with more elements are processed in parallel */
+    static final int PARALLEL_THRESHOLD = 32 * 1024;
+
+    /** Number of elements converted to double at once */
+    private static final int BLOCK = 1024;
+
+    /** Operation on each element of a block */
+    enum Unary
+    {
+        NEGATIVE
+        {
+            @Override
+            void calc(final double[] x, final int n)
+            {
+                for (int i=0; i<n; ++i)
+                    x[i] = -x[i];
+            }
+        },
+        ABS
+        {
+            @Override
+            void calc(final double[] x, final int n)
+            {
+                for (int i=0; i<n; ++i)
+                    x[i] = Math.abs(x[i]);
+            }
+        },
+        /** Square root, NaN for negative elements */
+        SQRT
+        {
+            @Override
+            void calc(final double[] x, final int n)
+            {
+                for (int i=0; i<n; ++i)
+                    x[i] = Math.sqrt(x[i]);
+            }
+        },
+        EXP
+        {
+            @Override
+            void calc(final double[] x, final int n)
+            {
+                for (int i=0; i<n; ++i)
+                    x[i] = Math.exp(x[i]);
+            }
+        },
+        LOG
+        {
+            @Override
+            void calc(final double[] x, final int n)
+            {
+                for (int i=0; i<n; ++i)
+                    x[i] = Math.log(x[i]);
+            }
+        },
+        LOG10
+        {
+            @Override
+            void calc(final double[] x, final int n)
+            {
+                for (int i=0; i<n; ++i)
+                    x[i] = Math.log10(x[i]);
+            }
+        };
+
+        /** @param x Block of elements to update
+         *  @param n Number of elements in block
+         */
+        abstract void calc(double[] x, int n);
+    }
+
+    /** Operation on two elements */
+    enum Binary
+    {
+        ADD
+        {
+            @Override
+            double calc(final double a, final double b)     { return a + b; }
+
+            @Override
+            void calc(final double[] a, final double[] b, final int n)
+            {
+                for (int i=0; i<n; ++i)
+                    a[i] += b[i];
+            }
+        },
+        SUB
+        {
+            @Override
+            double calc(final double a, final double b)     { return a - b; }
+
+            @Override
+            void calc(final double[] a, final double[] b, final int n)
+            {
+                for (int i=0; i<n; ++i)
+                    a[i] -= b[i];
+            }
+        },
+        MUL
+        {
+            @Override
+            double calc(final double a, final double b)     { return a * b; }
+
+            @Override
+            void calc(final double[] a, final double[] b, final int n)
+            {
+                for (int i=0; i<n; ++i)
+                    a[i] *= b[i];
+            }
+        },
+        DIV
+        {
+            @Override
+            double calc(final double a, final double b)     { return a / b; }
+
+            @Override
+            void calc(final double[] a, final double[] b, final int n)
+            {
+                for (int i=0; i<n; ++i)
+                    a[i] /= b[i];
+            }
+        },
+        POW
+        {
+            @Override
+            double calc(final double a, final double b)     { return Math.pow(a, b); }
+
+            @Override
+            void calc(final double[] a, final double[] b, final int n)
+            {
+                for (int i=0; i<n; ++i)
+                    a[i] = Math.pow(a[i], b[i]);
+            }
+        };
+
+        /** @param a First input
+         *  @param b Second input
+         *  @return Result of operation
+         */
+        abstract double calc(double a, double b);
+
+        /** @param a Block of first inputs, replaced by results
+         *  @param b Block of second inputs
+         *  @param n Number of elements in block
+         */
+        abstract void calc(double[] a, double[] b, int n);
+    }
+
+    /** Reduction of all elements to one value */
+    enum Reduction
+    {
+        SUM(0.0)
+        {
+            @Override
+            double calc(double result, final double[] x, final int n)
+            {
+                for (int i=0; i<n; ++i)
+                    result += x[i];
+                return result;
+            }
+
+            @Override
+            double combine(final double a, final double b) { return a + b; }
+        },
+        MIN(Double.POSITIVE_INFINITY)
+        {
+            @Override
+            double calc(double result, final double[] x, final int n)
+            {
+                for (int i=0; i<n; ++i)
+                    result = Math.min(result, x[i]);
+                return result;
+            }
+
+            @Override
+            double combine(final double a, final double b) { return Math.min(a, b); }
+        },
+        MAX(Double.NEGATIVE_INFINITY)
+        {
+            @Override
+            double calc(double result, final double[] x, final int n)
+            {
+                for (int i=0; i<n; ++i)
+                    result = Math.max(result, x[i]);
+                return result;
+            }
+
+            @Override
+            double combine(final double a, final double b) { return Math.max(a, b); }
+        };
+
+        /** Result for no elements */
+        final double initial;
+
+        private Reduction(final double initial)
+        {
+            this.initial = initial;
+        }
+
+        /** @param result Result so far
+         *  @param x Block of elements
+         *  @param n Number of elements in block
+         *  @return Result that includes the block
+         */
+        abstract double calc(double result, double[] x, int n);
+
+        /** @param a Result for one range of elements
+         *  @param b Result for following range of elements
+         *  @return Result for both ranges
+         */
+        abstract double combine(double a, double b);
+    }
+
+    /** Operation on a range of elements */
+    @FunctionalInterface
+    private interface RangeOperation
+    {
+        /** @param start Index of first element
+         *  @param end Index after the last element
+         */
+        void run(int start, int end);
+    }
+
+    /** Reduction of a range of elements */
+    @FunctionalInterface
+    private interface RangeReduction
+    {
+        /** @param start Index of first element
+         *  @param end Index after the last element
+         *  @return Result for the range
+         */
+        double run(int start, int end);
+    }
+
+    /** Fork-join task that splits a range */
+    private static class RangeTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+        final private RangeOperation operation;
+        final private int grain, start, end;
+
+        RangeTask(final RangeOperation operation, final int grain, final int start, final int end)
+        {
+            this.operation = operation;
+            this.grain = grain;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (end - start <= grain)
+                operation.run(start, end);
+            else
+            {
+                final int mid = (start + end) >>> 1;
+                invokeAll(new RangeTask(operation, grain, start, mid),
+                          new RangeTask(operation, grain, mid, end));
+            }
+        }
+    }
+
+    /** Fork-join task that splits a range and combines the results */
+    private static class ReductionTask extends RecursiveTask<Double>
+    {
+        private static final long serialVersionUID = 1L;
+        final private RangeReduction reduction;
+        final private Reduction combination;
+        final private int start, end;
+
+        ReductionTask(final RangeReduction reduction, final Reduction combination, final int start, final int end)
+        {
+            this.reduction = reduction;
+            this.combination = combination;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Double compute()
+        {
+            if (end - start <= PARALLEL_THRESHOLD)
+                return reduction.run(start, end);
+            final int mid = (start + end) >>> 1;
+            final ReductionTask second = new ReductionTask(reduction, combination, mid, end);
+            second.fork();
+            final double first = new ReductionTask(reduction, combination, start, mid).compute();
+            return combination.combine(first, second.join());
+        }
+    }
+
+    /** Data of an array */
+    private static class Operand
+    {
+        final private Object data;
+        final private int offset;
+        final private int size;
+
+        Operand(final NDArray array)
+        {
+            data = array.getBackingArray();
+            offset = array.getOffset();
+            size = array.getSize();
+        }
+
+        /** Read elements as double
+         *
+         *  <p>When reading beyond the size of the operand,
+         *  reading continues at its start.
+         *  This allows combining an array with a smaller array
+         *  that matches the end of its shape.
+         *
+         *  @param index Flat index of first element
+         *  @param buf Buffer for elements
+         *  @param n Number of elements to read
+         */
+        void load(final int index, final double[] buf, final int n)
+        {
+            int i = index % size;
+            int pos = 0;
+            while (pos < n)
+            {
+                final int run = Math.min(n - pos, size - i);
+                load(offset + i, buf, pos, run);
+                pos += run;
+                i = 0;
+            }
+        }
+
+        private void load(final int start, final double[] buf, final int pos, final int n)
+        {
+            if (data instanceof double[])
+                System.arraycopy(data, start, buf, pos, n);
+            else if (data instanceof float[])
+            {
+                final float[] d = (float[]) data;
+                for (int i=0; i<n; ++i)
+                    buf[pos+i] = d[start+i];
+            }
+            else if (data instanceof long[])
+            {
+                final long[] d = (long[]) data;
+                for (int i=0; i<n; ++i)
+                    buf[pos+i] = d[start+i];
+            }
+            else if (data instanceof int[])
+            {
+                final int[] d = (int[]) data;
+                for (int i=0; i<n; ++i)
+                    buf[pos+i] = d[start+i];
+            }
+            else if (data instanceof short[])
+            {
+                final short[] d = (short[]) data;
+                for (int i=0; i<n; ++i)
+                    buf[pos+i] = d[start+i];
+            }
+            else if (data instanceof byte[])
+            {
+                final byte[] d = (byte[]) data;
+                for (int i=0; i<n; ++i)
+                    buf[pos+i] = d[start+i];
+            }
+            else
+                throw new IllegalStateException("Unhandled data type " + data.getClass().getName());
+        }
+
+        /** Write elements
+         *  @param index Flat index of first element
+         *  @param buf Buffer with values
+         *  @param n Number of elements to write
+         */
+        void store(final int index, final double[] buf, final int n)
+        {
+            final int start = offset + index;
+            if (data instanceof double[])
+                System.arraycopy(buf, 0, data, start, n);
+            else if (data instanceof float[])
+            {
+                final float[] d = (float[]) data;
+                for (int i=0; i<n; ++i)
+                    d[start+i] = (float) buf[i];
+            }
+            else if (data instanceof long[])
+            {
+                final long[] d = (long[]) data;
+                for (int i=0; i<n; ++i)
+                    d[start+i] = (long) buf[i];
+            }
+            else if (data instanceof int[])
+            {
+                final int[] d = (int[]) data;
+                for (int i=0; i<n; ++i)
+                    d[start+i] = (int) buf[i];
+            }
+            else if (data instanceof short[])
+            {
+                final short[] d = (short[]) data;
+                for (int i=0; i<n; ++i)
+                    d[start+i] = (short) buf[i];
+            }
+            else if (data instanceof byte[])
+            {
+                final byte[] d = (byte[]) data;
+                for (int i=0; i<n; ++i)
+                    d[start+i] = (byte) buf[i];
+            }
+            else
+                throw new IllegalStateException("Unhandled data type " + data.getClass().getName());
+        }
+    }
+
+    /** @param array N-dim array
+     *  @return <code>true</code> if the kernels can operate on the array
+     */
+    static boolean isSupported(final NDArray array)
+    {
+        return array.getBackingArray() != null  &&
+               array.getStrides().isDefault(array.getShape());
+    }
+
+    /** @param array N-dim array
+     *  @param other Other N-dim array
+     *  @return <code>true</code> if the kernels can update the array in-place with values from the other array
+     */
+    static boolean isSupportedInPlace(final NDArray array, final NDArray other)
+    {
+        // Other must not be a shifted view of the same data,
+        // because blocks would then read elements that have already been updated
+        return isSupported(array)  &&  isSupported(other)  &&
+               (array.getBackingArray() != other.getBackingArray()  ||
+                array.getOffset() == other.getOffset());
+    }
+
+    /** @param size Number of elements
+     *  @param grain Number of elements to handle in one task
+     *  @param operation Operation to perform on ranges of elements
+     */
+    private static void forRange(final int size, final int grain, final RangeOperation operation)
+    {
+        if (size <= grain)
+            operation.run(0, size);
+        else
+            ForkJoinPool.commonPool().invoke(new RangeTask(operation, grain, 0, size));
+    }
+
+    /** @param size Number of elements
+     *  @param reduction Reduction of ranges of elements
+     *  @param combination How to combine results of ranges
+     *  @return Result for all elements
+     */
+    private static double reduceRange(final int size, final RangeReduction reduction, final Reduction combination)
+    {
+        if (size <= PARALLEL_THRESHOLD)
+            return reduction.run(0, size);
+        return ForkJoinPool.commonPool().invoke(new ReductionTask(reduction, combination, 0, size));
+    }
+
+    /** Perform operation on each element
+     *  @param array N-dim array that provides the input
+     *  @param operation Operation
+     *  @param result N-dim array of same size for results, may be the input array
+     */
+    static void apply(final NDArray array, final Unary operation, final NDArray result)
+    {
+        final Operand x = new Operand(array), r = new Operand(result);
+        forRange(result.getSize(), PARALLEL_THRESHOLD, (start, end) ->
+        {
+            final double[] buf = new double[BLOCK];
+            for (int i=start; i<end; i+=BLOCK)
+            {
+                final int n = Math.min(BLOCK, end - i);
+                x.load(i, buf, n);
+                operation.calc(buf, n);
+                r.store(i, buf, n);
+            }
+        });
+    }
+
+    /** Perform operation on each element and a value
+     *  @param array N-dim array to update in place
+     *  @param operation Operation
+     *  @param value Second input for each operation
+     */
+    static void apply(final NDArray array, final Binary operation, final double value)
+    {
+        final Operand x = new Operand(array);
+        forRange(array.getSize(), PARALLEL_THRESHOLD, (start, end) ->
+        {
+            final double[] buf = new double[BLOCK];
+            final double[] values = new double[BLOCK];
+            Arrays.fill(values, value);
+            for (int i=start; i<end; i+=BLOCK)
+            {
+                final int n = Math.min(BLOCK, end - i);
+                x.load(i, buf, n);
+                operation.calc(buf, values, n);
+                x.store(i, buf, n);
+            }
+        });
+    }
+
+    /** Perform operation on elements of two arrays
+     *
+     *  <p>An array with fewer elements than the result
+     *  must match the end of the result shape.
+     *  It is then repeated, which is how NumPy would broadcast it.
+     *
+     *  @param a N-dim array that provides first inputs
+     *  @param operation Operation
+     *  @param b N-dim array that provides second inputs
+     *  @param result N-dim array for results, may be <code>a</code>
+     */
+    static void apply(final NDArray a, final Binary operation, final NDArray b, final NDArray result)
+    {
+        final Operand x = new Operand(a), y = new Operand(b), r = new Operand(result);
+        forRange(result.getSize(), PARALLEL_THRESHOLD, (start, end) ->
+        {
+            final double[] buf = new double[BLOCK];
+            final double[] other = new double[BLOCK];
+            for (int i=start; i<end; i+=BLOCK)
+            {
+                final int n = Math.min(BLOCK, end - i);
+                x.load(i, buf, n);
+                y.load(i, other, n);
+                operation.calc(buf, other, n);
+                r.store(i, buf, n);
+            }
+        });
+    }
+
+    /** @param array N-dim array
+     *  @param reduction Reduction
+     *  @return Result of reducing all elements
+     */
+    static double reduce(final NDArray array, final Reduction reduction)
+    {
+        final Operand x = new Operand(array);
+        return reduceRange(array.getSize(), (start, end) ->
+        {
+            final double[] buf = new double[BLOCK];
+            double result = reduction.initial;
+            for (int i=start; i<end; i+=BLOCK)
+            {
+                final int n = Math.min(BLOCK, end - i);
+                x.load(i, buf, n);
+                result = reduction.calc(result, buf, n);
+            }
+            return result;
+        }, reduction);
+    }
+
+    /** @param a N-dim array
+     *  @param b N-dim array of same size
+     *  @return Sum of a[i] * b[i]
+     */
+    static double inner(final NDArray a, final NDArray b)
+    {
+        final Operand x = new Operand(a), y = new Operand(b);
+        return reduceRange(a.getSize(), (start, end) ->
+        {
+            final double[] buf = new double[BLOCK];
+            final double[] other = new double[BLOCK];
+            double sum = 0.0;
+            for (int i=start; i<end; i+=BLOCK)
+            {
+                final int n = Math.min(BLOCK, end - i);
+                x.load(i, buf, n);
+                y.load(i, other, n);
+                for (int j=0; j<n; ++j)
+                    sum += buf[j] * other[j];
+            }
+            return sum;
+        }, Reduction.SUM);
+    }
+
+    /** @param array N-dim array of any layout
+     *  @return Elements in the order of the array's shape
+     */
+    static double[] toDoubleArray(final NDArray array)
+    {
+        final double[] result = new double[array.getSize()];
+        if (isSupported(array))
+            new Operand(array).load(0, result, result.length);
+        else
+        {
+            final IteratorNumber iter = new NDArrayIterator(array);
+            int i = 0;
+            while (iter.hasNext())
+                result[i++] = iter.nextDouble();
+        }
+        return result;
+    }
+
+    /** Matrix multiplication
+     *  @param a Elements of first matrix, row by row
+     *  @param b Elements of second matrix, row by row
+     *  @param rows Number of rows in first matrix
+     *  @param inner Number of columns in first matrix, rows in second matrix
+     *  @param cols Number of columns in second matrix
+     *  @param result N-dim array for the rows x cols result
+     */
+    static void dot(final double[] a, final double[] b, final int rows, final int inner, final int cols,
+                    final NDArray result)
+    {
+        final Operand r = new Operand(result);
+        // Parallelize by rows, aiming for similar work per task as for element-wise operations
+        final int grain = Math.max(1, PARALLEL_THRESHOLD / Math.max(1, inner * cols));
+        forRange(rows, grain, (start, end) ->
+        {
+            // Iterate i, k, j to access b row by row
+            final double[] row = new double[cols];
+            for (int i=start; i<end; ++i)
+            {
+                Arrays.fill(row, 0.0);
+                for (int k=0; k<inner; ++k)
+                {
+                    final double a_ik = a[i*inner + k];
+                    final int b_row = k*cols;
+                    for (int j=0; j<cols; ++j)
+                        row[j] += a_ik * b[b_row + j];
+                }
+                r.store(i*cols, row, cols);
+            }
+        });
+    }
+}
@@ -9,6 +9,9 @@
  ******************************************************************************/
 package org.csstudio.ndarray;
 
+import org.csstudio.ndarray.NDKernels.Binary;
+import org.csstudio.ndarray.NDKernels.Reduction;
+import org.csstudio.ndarray.NDKernels.Unary;
 import org.diirt.util.array.IteratorNumber;
 
 /** Math operations for {@link NDArray}
@@ -17,6 +20,10 @@ import org.diirt.util.array.IteratorNumber;
  *  which also has a 'Maths' like this separate from
  *  a '*DataSet' similar to NDArray.
  *
+ *  <p>Arrays that hold their elements in the default order
+ *  are handled by the type-specialised, parallel {@link NDKernels}.
+ *  Other views use element-by-element access.
+ *
  *  @author Kay Kasemir
  */
 @SuppressWarnings("nls")
@@ -27,6 +34,8 @@ public class NDMath
      */
     public static double sum(final NDArray array)
     {
+        if (NDKernels.isSupported(array))
+            return NDKernels.reduce(array, Reduction.SUM);
         final IteratorNumber iter = array.getIterator();
         double sum = 0.0;
         while (iter.hasNext())
@@ -39,6 +48,12 @@ public class NDMath
      */
     public static double max(final NDArray array)
     {
+        if (NDKernels.isSupported(array))
+        {
+            if (array.getSize() <= 0)
+                throw new IllegalArgumentException("Maximum not defined for empty array");
+            return NDKernels.reduce(array, Reduction.MAX);
+        }
         final IteratorNumber iter = array.getIterator();
         if (! iter.hasNext())
             throw new IllegalArgumentException("Maximum not defined for empty array");
@@ -53,6 +68,12 @@ public class NDMath
      */
     public static double min(final NDArray array)
     {
+        if (NDKernels.isSupported(array))
+        {
+            if (array.getSize() <= 0)
+                throw new IllegalArgumentException("Minimum not defined for empty array");
+            return NDKernels.reduce(array, Reduction.MIN);
+        }
         final IteratorNumber iter = array.getIterator();
         if (! iter.hasNext())
             throw new IllegalArgumentException("Minimum not defined for empty array");
@@ -65,6 +86,11 @@ public class NDMath
     /** @param array N-dim array where each element is to be turned into its negative */
     public static void negative(final NDArray array)
     {
+        if (NDKernels.isSupported(array))
+        {
+            NDKernels.apply(array, Unary.NEGATIVE, array);
+            return;
+        }
         final int size = array.getSize();
         for (int i=0; i<size; ++i)
             array.setFlatDouble(i, -array.getFlatDouble(i));
@@ -75,6 +101,11 @@ public class NDMath
      */
     public static void increment(final NDArray array, final double value)
     {
+        if (NDKernels.isSupported(array))
+        {
+            NDKernels.apply(array, Binary.ADD, value);
+            return;
+        }
         final int size = array.getSize();
         for (int i=0; i<size; ++i)
             array.setFlatDouble(i, array.getFlatDouble(i) + value);
@@ -85,6 +116,11 @@ public class NDMath
      */
     public static void scale(final NDArray array, final double value)
     {
+        if (NDKernels.isSupported(array))
+        {
+            NDKernels.apply(array, Binary.MUL, value);
+            return;
+        }
         final int size = array.getSize();
         for (int i=0; i<size; ++i)
             array.setFlatDouble(i, array.getFlatDouble(i) * value);
@@ -95,6 +131,11 @@ public class NDMath
      */
     public static void divide_elements(final NDArray array, final double value)
     {
+        if (NDKernels.isSupported(array))
+        {
+            NDKernels.apply(array, Binary.DIV, value);
+            return;
+        }
         final int size = array.getSize();
         for (int i=0; i<size; ++i)
             array.setFlatDouble(i, array.getFlatDouble(i) / value);
@@ -106,6 +147,11 @@ public class NDMath
     public static NDArray abs(final NDArray array)
     {
         final NDArray result = new NDArray(array.getType(), array.getShape());
+        if (NDKernels.isSupported(array))
+        {
+            NDKernels.apply(array, Unary.ABS, result);
+            return result;
+        }
         final int size = array.getSize();
         for (int i=0; i<size; ++i)
             result.setFlatDouble(i, Math.abs(array.getFlatDouble(i)));
@@ -118,6 +164,11 @@ public class NDMath
     public static NDArray sqrt(final NDArray array)
     {
         final NDArray result = new NDArray(NDType.FLOAT64, array.getShape());
+        if (NDKernels.isSupported(array))
+        {
+            NDKernels.apply(array, Unary.SQRT, result);
+            return result;
+        }
         final int size = array.getSize();
         for (int i=0; i<size; ++i)
         {
@@ -136,6 +187,11 @@ public class NDMath
     public static NDArray exp(final NDArray array)
     {
         final NDArray result = new NDArray(NDType.FLOAT64, array.getShape());
+        if (NDKernels.isSupported(array))
+        {
+            NDKernels.apply(array, Unary.EXP, result);
+            return result;
+        }
         final int size = array.getSize();
         for (int i=0; i<size; ++i)
             result.setFlatDouble(i, Math.exp(array.getFlatDouble(i)));
@@ -148,6 +204,11 @@ public class NDMath
     public static NDArray log(final NDArray array)
     {
         final NDArray result = new NDArray(NDType.FLOAT64, array.getShape());
+        if (NDKernels.isSupported(array))
+        {
+            NDKernels.apply(array, Unary.LOG, result);
+            return result;
+        }
         final int size = array.getSize();
         for (int i=0; i<size; ++i)
             result.setFlatDouble(i, Math.log(array.getFlatDouble(i)));
@@ -160,52 +221,17 @@ public class NDMath
     public static NDArray log10(final NDArray array)
     {
         final NDArray result = new NDArray(NDType.FLOAT64, array.getShape());
+        if (NDKernels.isSupported(array))
+        {
+            NDKernels.apply(array, Unary.LOG10, result);
+            return result;
+        }
         final int size = array.getSize();
         for (int i=0; i<size; ++i)
             result.setFlatDouble(i, Math.log10(array.getFlatDouble(i)));
         return result;
     }
 
-    /** Binary operation */
-    private interface BinaryOperation
-    {
-        /** @param a First input
-         *  @param b Second input
-         *  @return Result of operation
-         */
-        double calc(double a, double b);
-    }
-
-    final private static BinaryOperation op_add = new BinaryOperation()
-    {
-        @Override
-        public double calc(final double a, final double b)     { return a + b;    }
-    };
-
-    final private static BinaryOperation op_sub = new BinaryOperation()
-    {
-        @Override
-        public double calc(final double a, final double b)    { return a - b;    }
-    };
-
-    final private static BinaryOperation op_mul = new BinaryOperation()
-    {
-        @Override
-        public double calc(final double a, final double b)    { return a * b; }
-    };
-
-    final private static BinaryOperation op_div = new BinaryOperation()
-    {
-        @Override
-        public double calc(final double a, final double b)    { return a / b;    }
-    };
-
-    final private static BinaryOperation op_pwr = new BinaryOperation()
-    {
-        @Override
-        public double calc(final double a, final double b)    { return Math.pow(a, b); }
-    };
-
     /** Perform in-place operation on array.
      *  Use element-by-element when possible.
      *  @param array N-dim array on which to operate
@@ -213,19 +239,18 @@ public class NDMath
      *  @param operation Operation to perform on the elements
      */
     private static void inplace_operation(final NDArray array, final NDArray other,
-            final BinaryOperation operation)
+            final Binary operation)
     {
         switch (NDCompatibility.forArrays(array, other))
         {
         case FLAT_ITERATION:
-            final int size = array.getSize();
-            for (int i=0; i<size; ++i)
+            if (NDKernels.isSupportedInPlace(array, other))
             {
-                final double value = operation.calc(array.getFlatDouble(i),
-                        other.getFlatDouble(i));
-                array.setFlatDouble(i, value);
+                NDKernels.apply(array, operation, other, array);
+                break;
             }
-            break;
+            // Views with gaps or shifted views of the same data need shape iteration
+            //$FALL-THROUGH$
         case SHAPE_ITERATION:
             final ShapeIterator shape = new ShapeIterator(array.getShape());
             while (shape.hasNext())
@@ -241,6 +266,13 @@ public class NDMath
             if (! i.getBroadcastShape().equals(array.getShape()))
                 throw new IllegalArgumentException("Cannot operate on array of shape  " + array.getShape() +
                         " in-place with (broadcast) argument of shape " + other.getShape());
+            // Flat, wrap-around iteration if other array matches the end of this one
+            if (NDShape.haveEqualEnds(array.getShape(), other.getShape())  &&
+                NDKernels.isSupportedInPlace(array, other))
+            {
+                NDKernels.apply(array, operation, other, array);
+                break;
+            }
             while (i.hasNext())
             {
                 final double value = operation.calc(array.getDouble(i.getPosA()),
@@ -262,7 +294,7 @@ public class NDMath
      */
     public static void increment(final NDArray array, final NDArray other)
     {
-        inplace_operation(array, other, op_add);
+        inplace_operation(array, other, Binary.ADD);
     }
 
 
@@ -274,7 +306,7 @@ public class NDMath
      */
     public static void scale(final NDArray array, final NDArray other)
     {
-        inplace_operation(array, other, op_mul);
+        inplace_operation(array, other, Binary.MUL);
     }
 
     /** Divide arrays element-by-element
@@ -285,7 +317,7 @@ public class NDMath
      */
     public static void divide_elements(final NDArray array, final NDArray other)
     {
-        inplace_operation(array, other, op_div);
+        inplace_operation(array, other, Binary.DIV);
     }
 
     /** Perform operation on arrays element-by-element,
@@ -297,7 +329,7 @@ public class NDMath
      *  @return Result array
      */
     private static NDArray binary_operation(final NDArray a, final NDArray b,
-            final BinaryOperation operation)
+            final Binary operation)
     {
         final NDArray result;
         final NDType type = NDType.determineSuperType(a.getType(), b.getType());
@@ -305,15 +337,14 @@ public class NDMath
         switch (NDCompatibility.forArrays(a, b))
         {
         case FLAT_ITERATION:
-            result = new NDArray(type, a.getShape());
-            final int size = result.getSize();
-            for (int i=0; i<size; ++i)
+            if (NDKernels.isSupported(a)  &&  NDKernels.isSupported(b))
             {
-                final double value = operation.calc(a.getFlatDouble(i),
-                        b.getFlatDouble(i));
-                result.setFlatDouble(i, value);
+                result = new NDArray(type, a.getShape());
+                NDKernels.apply(a, operation, b, result);
+                break;
             }
-            break;
+            // Views with gaps, e.g. transposed, need shape iteration
+            //$FALL-THROUGH$
         case SHAPE_ITERATION:
             result = new NDArray(type, a.getShape());
             final ShapeIterator shape = new ShapeIterator(result.getShape());
@@ -326,6 +357,14 @@ public class NDMath
             }
             break;
         case BROADCAST_ITERATION:
+            // Flat, wrap-around iteration if one array matches the end of the other
+            if (NDShape.haveEqualEnds(a.getShape(), b.getShape())  &&
+                NDKernels.isSupported(a)  &&  NDKernels.isSupported(b))
+            {
+                result = new NDArray(type, NDShape.combine(a.getShape(), b.getShape()));
+                NDKernels.apply(a, operation, b, result);
+                break;
+            }
             final BroadcastIterator i = new BroadcastIterator(a.getShape(), b.getShape());
             result = new NDArray(type, i.getBroadcastShape());
             while (i.hasNext())
@@ -349,7 +388,7 @@ public class NDMath
      */
     public static NDArray add(final NDArray a, final NDArray b)
     {
-        return binary_operation(a, b, op_add);
+        return binary_operation(a, b, Binary.ADD);
     }
 
     /** @param a N-dim array
@@ -358,7 +397,7 @@ public class NDMath
      */
     public static NDArray subtract(final NDArray a, final NDArray b)
     {
-        return binary_operation(a, b, op_sub);
+        return binary_operation(a, b, Binary.SUB);
     }
 
     /** @param a N-dim array
@@ -367,7 +406,7 @@ public class NDMath
      */
     public static NDArray multiply(final NDArray a, final NDArray b)
     {
-        return binary_operation(a, b, op_mul);
+        return binary_operation(a, b, Binary.MUL);
     }
 
     /** @param a N-dim array
@@ -376,7 +415,7 @@ public class NDMath
      */
     public static NDArray divide(final NDArray a, final NDArray b)
     {
-        return binary_operation(a, b, op_div);
+        return binary_operation(a, b, Binary.DIV);
     }
 
     /** @param a N-dim array
@@ -385,6 +424,6 @@ public class NDMath
      */
     public static NDArray power(final NDArray a, final NDArray b)
     {
-        return binary_operation(a, b, op_pwr);
+        return binary_operation(a, b, Binary.POW);
     }
 }
@@ -230,14 +230,7 @@ public class NDMatrix
         final int b_cols = shape_b.getSize(1);
         final NDShape shape_r = new NDShape(a_rows, b_cols);
         final NDArray result = zeros(type, shape_r);
-        for (int i=0; i<a_rows; ++i)
-            for (int j=0; j<b_cols; ++j)
-            {
-                double sum = 0.0;
-                for (int k=0; k<a_cols; ++k)
-                    sum += a.getDouble(i, k) * b.getDouble(k, j);
-                result.setDouble(sum, i, j);
-            }
+        NDKernels.dot(NDKernels.toDoubleArray(a), NDKernels.toDoubleArray(b), a_rows, a_cols, b_cols, result);
         return result;
     }
 
@@ -260,14 +253,8 @@ public class NDMatrix
                 "For matrix multiplication, number of columns in first array must match number of rows in second array," +
                 " but got shapes " + shape + " and " + b.getShape());
 
-        final NDArray result = zeros(type, new NDShape(a_cols));
-        for (int i=0; i<a_rows; ++i)
-        {
-            double sum = 0.0;
-            for (int k=0; k<a_cols; ++k)
-                sum += a.getDouble(i, k) * b.getFlatDouble(k);
-            result.setDouble(sum, i);
-        }
+        final NDArray result = zeros(type, new NDShape(a_rows));
+        NDKernels.dot(NDKernels.toDoubleArray(a), NDKernels.toDoubleArray(b), a_rows, a_cols, 1, result);
         return result;
     }
 
@@ -298,8 +285,11 @@ public class NDMatrix
         final NDType type = NDType.determineSuperType(a.getType(), b.getType());
         final NDArray result = zeros(type, new NDShape(1));
         double sum = 0.0;
-        for (int i=0; i<len; ++i)
-            sum += a.getDouble(i) * b.getDouble(i);
+        if (NDKernels.isSupported(a)  &&  NDKernels.isSupported(b))
+            sum = NDKernels.inner(a, b);
+        else
+            for (int i=0; i<len; ++i)
+                sum += a.getDouble(i) * b.getDouble(i);
         result.setDouble(sum, 0);
         return result;
     }
@@ -330,7 +330,24 @@ public class ScanClient
      */
     public ScanData getScanData(final long id) throws Exception
     {
-        final HttpURLConnection connection = connect("/scan/" + id + "/data");
+        return getScanData(id, -1);
+    }
+
+    /** Obtain data logged by a scan after a certain sample
+     *
+     *  <p>Allows polling for new samples without
+     *  again fetching all the data.
+     *
+     *  @param id ID that uniquely identifies a scan (within JVM of the scan engine)
+     *  @param since_serial Serial of last sample that the caller already has, -1 for all samples
+     *  @return {@link ScanData} with samples that have a larger serial
+     *  @throws Exception on error
+     *  @see ScanData#merge(ScanData)
+     */
+    public ScanData getScanData(final long id, final long since_serial) throws Exception
+    {
+        final HttpURLConnection connection = connect("/scan/" + id + "/data" +
+                                                     (since_serial < 0 ? "" : "?since=" + since_serial));
         try
         {
             checkResponse(connection);
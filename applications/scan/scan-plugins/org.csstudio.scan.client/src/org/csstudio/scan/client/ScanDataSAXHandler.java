@@ -160,7 +160,8 @@ public class ScanDataSAXHandler extends DefaultHandler
     public void characters(final char[] ch, final int start, final int length)
             throws SAXException
     {
-        cdata = new String(ch, start, length);
+        // Text may be delivered in several calls
+        cdata = cdata + new String(ch, start, length);
     }
 
     /** @return {@link ScanData} parsed from XML */
@@ -7,6 +7,14 @@
  ******************************************************************************/
 package org.csstudio.scan.log.derby;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 import org.csstudio.scan.data.ScanData;
 import org.csstudio.scan.data.ScanSample;
 import org.csstudio.scan.log.DataLog;
@@ -14,16 +22,63 @@ import org.csstudio.scan.log.DataLog;
 /** Data log for Derby
  *
  *  <p>Uses the {@link DerbyDataLogger} for a specific scan ID.
- *  Creates a logger on <code>doLog()</code> and keeps that open
- *  until <code>close()</code>
+ *
+ *  <p>Logged samples are placed in a bounded queue.
+ *  On the first <code>doLog()</code>, a writer thread is started
+ *  which writes all samples found in the queue as one batch.
+ *  When the queue is full, <code>doLog()</code> blocks.
+ *  Listeners are notified once the samples have been written,
+ *  and <code>getScanData()</code> waits for queued samples to be written.
+ *  Listeners are called by the writer thread, where
+ *  <code>getScanData()</code> returns the samples written so far.
+ *  The writer thread keeps its logger open until <code>close()</code>.
  *
  *  @author Kay Kasemir
  */
+@SuppressWarnings("nls")
 public class DerbyDataLog extends DataLog
 {
+    /** Sample waiting to be written */
+    private static class QueuedSample
+    {
+        final String device;
+        final ScanSample sample;
+
+        QueuedSample(final String device, final ScanSample sample)
+        {
+            this.device = device;
+            this.sample = sample;
+        }
+    }
+
+    /** Queue marker that stops the writer thread */
+    final private static QueuedSample END = new QueuedSample(null, null);
+
     final private long scan_id;
 
-    private RDBDataLogger logger = null;
+    /** Samples to write */
+    final private BlockingQueue<QueuedSample> queue = new ArrayBlockingQueue<>(Preferences.getLogQueueSize());
+
+    /** Writer thread, <code>null</code> until first sample is logged. SYNC on this */
+    private Thread writer = null;
+
+    /** Thread that runs <code>writeSamples()</code>, kept until it ends */
+    private volatile Thread writer_thread = null;
+
+    /** Lock for the sample counts */
+    final private Object counts = new Object();
+
+    /** Number of queued samples. SYNC on counts */
+    private long queued_samples = 0;
+
+    /** Number of written samples. SYNC on counts */
+    private long written_samples = 0;
+
+    /** Notify listeners when the writer thread writes the next batch? */
+    final private AtomicBoolean flush_requested = new AtomicBoolean();
+
+    /** Error from the writer thread, reported on next <code>doLog()</code> */
+    private volatile Exception error = null;
 
     /** Initialize
      *  @param scan_id ID of scan for which this logger should operate
@@ -47,20 +102,150 @@ public class DerbyDataLog extends DataLog
     @Override
     public void doLog(final String device, final ScanSample sample) throws Exception
     {
-        if (logger == null)
-            logger = new DerbyDataLogger();
-        logger.log(scan_id, device, sample);
+        final Exception ex = error;
+        if (ex != null)
+        {
+            error = null;
+            throw new Exception("Error writing scan data", ex);
+        }
+        synchronized (this)
+        {
+            if (writer == null)
+            {
+                writer = new Thread(this::writeSamples, "ScanDataLog " + scan_id);
+                writer.setDaemon(true);
+                writer.start();
+            }
+        }
+        enqueue(new QueuedSample(device, sample));
+    }
+
+    /** @param sample Sample to add to queue, blocking when queue is full
+     *  @throws InterruptedException when interrupted
+     */
+    private void enqueue(final QueuedSample sample) throws InterruptedException
+    {
+        synchronized (counts)
+        {
+            ++queued_samples;
+        }
+        queue.put(sample);
+    }
+
+    /** Writer thread: Write queued samples in batches */
+    private void writeSamples()
+    {
+        writer_thread = Thread.currentThread();
+        final List<QueuedSample> batch = new ArrayList<>();
+        RDBDataLogger logger = null;
+        boolean run = true;
+        try
+        {
+            while (run)
+            {
+                batch.add(queue.take());
+                queue.drainTo(batch);
+                try
+                {
+                    if (logger == null)
+                        logger = new DerbyDataLogger();
+                    for (QueuedSample sample : batch)
+                        if (sample == END)
+                            run = false;
+                        else
+                            logger.log(scan_id, sample.device, sample.sample);
+                    logger.flush();
+                }
+                catch (Exception ex)
+                {
+                    Logger.getLogger(getClass().getName()).log(Level.SEVERE,
+                            "Cannot write " + batch.size() + " samples of scan " + scan_id, ex);
+                    error = ex;
+                }
+                final boolean all_written;
+                synchronized (counts)
+                {
+                    written_samples += batch.size();
+                    all_written = written_samples >= queued_samples;
+                    counts.notifyAll();
+                }
+                batch.clear();
+                // Notify listeners once all samples logged before the flush
+                // have been written, since they cannot await more samples
+                if (all_written  &&  flush_requested.getAndSet(false))
+                    DerbyDataLog.super.flush();
+            }
+        }
+        catch (InterruptedException ex)
+        {
+            Logger.getLogger(getClass().getName()).log(Level.WARNING, "Scan data writer interrupted", ex);
+        }
+        finally
+        {
+            if (logger != null)
+                logger.close();
+            // Release waiting readers even if samples were lost
+            synchronized (counts)
+            {
+                written_samples = queued_samples;
+                counts.notifyAll();
+            }
+            writer_thread = null;
+        }
+    }
+
+    /** Wait until all queued samples have been written
+     *
+     *  <p>Returns right away when called by the writer thread,
+     *  for example from a listener, since the writer thread
+     *  would otherwise wait for itself.
+     *
+     *  @throws InterruptedException when interrupted
+     */
+    private void awaitWrittenSamples() throws InterruptedException
+    {
+        if (Thread.currentThread() == writer_thread)
+            return;
+        synchronized (counts)
+        {
+            while (written_samples < queued_samples)
+                counts.wait();
+        }
+    }
+
+    /** Request notification of listeners once logged samples have been written
+     *  {@inheritDoc}
+     */
+    @Override
+    public void flush()
+    {
+        flush_requested.set(true);
+        synchronized (counts)
+        {
+            if (written_samples < queued_samples)
+                return; // Writer thread will notify listeners
+        }
+        if (flush_requested.getAndSet(false))
+            super.flush();
     }
 
     /** {@inheritDoc} */
     @Override
     public ScanData getScanData() throws Exception
     {
+        return getScanData(-1);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ScanData getScanData(final long since_serial) throws Exception
+    {
+        awaitWrittenSamples();
         // Can be called without doLog(), so use separate logger just for this call
         final RDBDataLogger logger = new DerbyDataLogger();
         try
         {
-            return logger.getScanData(scan_id);
+            return logger.getScanData(scan_id, since_serial);
         }
         finally
         {
@@ -68,14 +253,31 @@ public class DerbyDataLog extends DataLog
         }
     }
 
-    /** {@inheritDoc} */
+    /** Write remaining samples, stop writer thread
+     *  {@inheritDoc}
+     */
     @Override
-    public synchronized void close()
+    public void close()
     {
-        if (logger != null)
+        // Listeners called by the writer thread may lock this,
+        // so only lock while taking the writer, not while waiting for it
+        final Thread thread;
+        synchronized (this)
         {
-            logger.close();
-            logger = null;
+            thread = writer;
+            writer = null;
+        }
+        if (thread != null)
+        {
+            try
+            {
+                enqueue(END);
+                thread.join();
+            }
+            catch (InterruptedException ex)
+            {
+                Logger.getLogger(getClass().getName()).log(Level.WARNING, "Interrupted while closing scan data log", ex);
+            }
         }
         super.close();
     }
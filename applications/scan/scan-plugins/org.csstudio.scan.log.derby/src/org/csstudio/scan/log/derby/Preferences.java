@@ -35,4 +35,14 @@ public class Preferences
             port = prefs.getInt(Activator.ID, "server_port", port, null);
         return port;
     }
+
+    /** @return Maximum number of samples queued for writing */
+    public static int getLogQueueSize()
+    {
+        int size = 10000;
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        if (prefs != null)
+            size = prefs.getInt(Activator.ID, "log_queue_size", size, null);
+        return Math.max(1, size);
+    }
 }
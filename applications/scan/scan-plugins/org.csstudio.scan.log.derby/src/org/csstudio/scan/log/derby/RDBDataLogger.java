@@ -44,9 +44,15 @@ abstract public class RDBDataLogger
     /** Device ID cache */
     final private Map<String, Integer> devices = new HashMap<String, Integer>();
 
+    /** Number of samples written in one batch */
+    final private static int BATCH_SIZE = 1000;
+
     /** Re-used statement */
     private PreparedStatement insert_sample_statement = null;
 
+    /** Number of samples in the batch of <code>insert_sample_statement</code> */
+    private int batched_samples = 0;
+
     /** Initialize
       *  @throws Exception on error
      */
@@ -248,10 +254,16 @@ abstract public class RDBDataLogger
     }
 
     /** Log a sample
+     *
+     *  <p>Samples are added to a batch, which is written
+     *  when it reaches a certain size, on <code>flush()</code>
+     *  or <code>close()</code>.
+     *
      *  @param scan_id ID of associated scan
      *  @param device Device name
      *  @param sample Sample to log
      *  @throws Exception on error
+     *  @see #flush()
      */
     public void log(final long scan_id, final String device, final ScanSample sample) throws Exception
     {
@@ -266,9 +278,40 @@ abstract public class RDBDataLogger
         insert_sample_statement.setLong(3, sample.getSerial());
         insert_sample_statement.setTimestamp(4, Timestamp.from(sample.getTimestamp()));
         insert_sample_statement.setObject(5, new SampleValue(sample.getValues()));
-        final int rows = insert_sample_statement.executeUpdate();
-        if (rows != 1)
-            throw new Exception("Sample insert affected " + rows + " rows");
+        insert_sample_statement.addBatch();
+        if (++batched_samples >= BATCH_SIZE)
+            flush();
+    }
+
+    /** Write batched samples
+     *  @throws Exception on error
+     */
+    public void flush() throws Exception
+    {
+        if (batched_samples <= 0)
+            return;
+        final int count = batched_samples;
+        batched_samples = 0;
+        connection.setAutoCommit(false);
+        try
+        {
+            final int[] rows = insert_sample_statement.executeBatch();
+            connection.commit();
+            for (int row : rows)
+                if (row != 1  &&  row != Statement.SUCCESS_NO_INFO)
+                    throw new Exception("Sample insert affected " + row + " rows");
+            if (rows.length != count)
+                throw new Exception("Inserted " + rows.length + " instead of " + count + " samples");
+        }
+        catch (Exception ex)
+        {
+            connection.rollback();
+            throw ex;
+        }
+        finally
+        {
+            connection.setAutoCommit(true);
+        }
     }
 
     /** Get serial of last logged sample.
@@ -313,72 +356,46 @@ abstract public class RDBDataLogger
      */
     public ScanData getScanData(final long scan_id) throws Exception
     {
-        final Map<String, List<ScanSample>> device_logs = new HashMap<String, List<ScanSample>>();
-
-        // Could fetch all samples for scan ID, but
-        // organizing the retrieval by device in case
-        // that's helpful later on
-        final String[] devices = getScanDevices(scan_id);
-        for (String device : devices)
-        {
-            final List<ScanSample> samples = getScanSamples(scan_id, device);
-            device_logs.put(device, samples);
-        }
-
-        return new ScanData(device_logs);
+        return getScanData(scan_id, -1);
     }
 
-    /** Get samples
+    /** Obtain data for a scan
      *  @param scan_id ID of the scan
-     *  @param device_name Name of the device
-     *  @return Samples for that scan
+     *  @param since_serial Only return samples with a serial above this one
+     *  @return {@link ScanData}
      *  @throws Exception on error
      */
-    private List<ScanSample> getScanSamples(final long scan_id, final String device_name) throws Exception
+    public ScanData getScanData(final long scan_id, final long since_serial) throws Exception
     {
-        final List<ScanSample> samples = new ArrayList<ScanSample>();
+        final Map<String, List<ScanSample>> device_logs = new HashMap<String, List<ScanSample>>();
         try
         (
             final PreparedStatement statement = connection.prepareStatement(
-                    "SELECT serial, timestamp, value FROM samples WHERE scan_id=? AND device_id=? ORDER BY serial");
+                    "SELECT d.name, s.serial, s.timestamp, s.value FROM samples s JOIN devices d ON s.device_id = d.id" +
+                    " WHERE s.scan_id=? AND s.serial>? ORDER BY s.serial");
         )
         {
+            statement.setFetchSize(BATCH_SIZE);
             statement.setLong(1, scan_id);
-            statement.setInt(2, getDevice(device_name));
+            statement.setLong(2, since_serial);
             final ResultSet result = statement.executeQuery();
             while (result.next())
             {
-                final long serial = result.getLong(1);
-                final Instant timestamp = result.getTimestamp(2).toInstant();
-                final SampleValue value = (SampleValue) result.getObject(3);
+                final String device = result.getString(1);
+                final long serial = result.getLong(2);
+                final Instant timestamp = result.getTimestamp(3).toInstant();
+                final SampleValue value = (SampleValue) result.getObject(4);
+                List<ScanSample> samples = device_logs.get(device);
+                if (samples == null)
+                {
+                    samples = new ArrayList<ScanSample>();
+                    device_logs.put(device, samples);
+                }
                 samples.add(ScanSampleFactory.createSample(timestamp, serial, value.getValues()));
             }
             result.close();
         }
-        return samples;
-    }
-
-    /** Obtain devices that have data for a scan
-     *  @param scan_id ID of the scan
-     *  @return Device names
-     *  @throws SQLException on error
-     */
-    private String[] getScanDevices(final long scan_id) throws SQLException
-    {
-        final List<String> devices = new ArrayList<String>();
-        try
-        (
-            final PreparedStatement statement = connection.prepareStatement(
-                    "SELECT DISTINCT d.name FROM samples s JOIN devices d ON s.device_id = d.id  WHERE scan_id=?");
-        )
-        {
-            statement.setLong(1, scan_id);
-            final ResultSet result = statement.executeQuery();
-            while (result.next())
-                devices.add(result.getString(1));
-            result.close();
-        }
-        return devices.toArray(new String[devices.size()]);
+        return new ScanData(device_logs);
     }
 
     /** Delete logged data for a scan
@@ -428,10 +445,19 @@ abstract public class RDBDataLogger
     }
 
     /** Close database.
+     *  Writes batched samples.
      *  Must be called to release resources.
      */
     public void close()
     {
+        try
+        {
+            flush();
+        }
+        catch (Exception ex)
+        {
+            Logger.getLogger(getClass().getName()).log(Level.WARNING, "Error writing samples to log RDB", ex);
+        }
         try
         {
             if (insert_sample_statement != null)
@@ -9,13 +9,18 @@ package org.csstudio.scan.log.derby;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.time.Instant;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.csstudio.scan.data.ScanData;
 import org.csstudio.scan.data.ScanDataIterator;
 import org.csstudio.scan.data.ScanSampleFactory;
+import org.csstudio.scan.log.DataLog;
 import org.csstudio.scan.server.Scan;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -121,6 +126,42 @@ public class DerbyDataLogUnitTest
         log.close();
     }
 
+    /** Listener that reads the data must not block the writer thread */
+    @Test(timeout=60000)
+    public void testListenerReadsData() throws Exception
+    {
+        final DerbyDataLog log = new DerbyDataLog(scan.getId());
+        final AtomicInteger received = new AtomicInteger();
+        final AtomicReference<Exception> error = new AtomicReference<>();
+        log.addDataLogListener((final DataLog datalog) ->
+        {
+            try
+            {
+                received.set(datalog.getScanData().getSamples("listened").size());
+            }
+            catch (Exception ex)
+            {
+                error.compareAndSet(null, ex);
+            }
+        });
+        // Log with frequent flushes, so listeners are invoked while samples are queued
+        for (int i=0; i<5000; ++i)
+        {
+            final long serial = log.getNextScanDataSerial();
+            log.log("listened", ScanSampleFactory.createSample(Instant.now(), serial, i));
+            if (i % 10 == 0)
+                log.flush();
+        }
+        log.flush();
+        final ScanData data = log.getScanData();
+        assertEquals(5000, data.getSamples("listened").size());
+        // Last notification follows the last flush, once all samples were written
+        while (received.get() < 5000  &&  error.get() == null)
+            Thread.sleep(100);
+        assertNull(error.get());
+        log.close();
+    }
+
     @Test(timeout=10000)
     public void testScanList() throws Exception
     {
@@ -115,6 +115,23 @@ abstract public class DataLog implements Closeable
      */
     abstract public ScanData getScanData() throws Exception;
 
+    /** Get samples logged after a certain serial
+     *
+     *  <p>Allows clients to only fetch new samples.
+     *  Default implementation filters the result of <code>getScanData()</code>.
+     *
+     *  @param since_serial Serial of last sample that the caller already has, -1 for all samples
+     *  @return {@link ScanData} with samples that have a larger serial or <code>null</code>
+     *  @throws Exception on error
+     */
+    public ScanData getScanData(final long since_serial) throws Exception
+    {
+        final ScanData data = getScanData();
+        if (data == null  ||  since_serial < 0)
+            return data;
+        return data.getSamplesSince(since_serial);
+    }
+
     /** Should be called when done logging samples
      *  to allow logging mechanism to release resources.
      */
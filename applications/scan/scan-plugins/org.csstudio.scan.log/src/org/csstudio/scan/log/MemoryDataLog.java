@@ -61,6 +61,17 @@ public class MemoryDataLog extends DataLog
     @Override
     public synchronized ScanData getScanData()  throws Exception
     {
-        return new ScanData(new HashMap<String, List<ScanSample>>(device_logs));
+        // Copy the sample lists, since they keep growing as more samples are logged
+        final Map<String, List<ScanSample>> copy = new HashMap<String, List<ScanSample>>();
+        for (Map.Entry<String, List<ScanSample>> entry : device_logs.entrySet())
+            copy.put(entry.getKey(), new ArrayList<ScanSample>(entry.getValue()));
+        return new ScanData(copy);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized ScanData getScanData(final long since_serial) throws Exception
+    {
+        return new ScanData(device_logs).getSamplesSince(since_serial);
     }
 }
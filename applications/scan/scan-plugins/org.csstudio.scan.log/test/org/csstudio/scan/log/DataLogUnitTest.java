@@ -21,7 +21,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertThat;
 import static org.hamcrest.CoreMatchers.equalTo;
 
-import java.util.Date;
+import java.time.Instant;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.csstudio.scan.data.ScanData;
@@ -40,7 +40,7 @@ public class DataLogUnitTest
     {
         for (int x=0; x<5; ++x)
         {
-            final Date now = new Date();
+            final Instant now = Instant.now();
             final long serial = logger.getNextScanDataSerial();
             logger.log("x", ScanSampleFactory.createSample(now, serial, Double.valueOf(x)));
             for (int y=0; y<5; ++y)
@@ -88,6 +88,35 @@ public class DataLogUnitTest
         assertThat(events.get(), equalTo(1));
     }
 
+    @Test
+    public void testSamplesSince() throws Exception
+    {
+        final DataLog logger = new MemoryDataLog();
+        logData(logger);
+        final ScanData data = logger.getScanData();
+        final long serial = logger.getLastScanDataSerial();
+        assertEquals(serial, data.getLastSerial());
+
+        // Nothing new
+        assertEquals(0, logger.getScanData(serial).getDevices().length);
+
+        // Only the samples logged after 'serial'
+        logData(logger);
+        final ScanData update = logger.getScanData(serial);
+        assertEquals(5, update.getSamples("x").size());
+        assertEquals(5*5, update.getSamples("y").size());
+        assertTrue(update.getSamples("x").get(0).getSerial() > serial);
+
+        // Merged update matches complete data
+        final ScanData merged = data.merge(update);
+        final ScanData all = logger.getScanData(-1);
+        assertEquals(all.getLastSerial(), merged.getLastSerial());
+        assertEquals(all.getSamples("x").size(), merged.getSamples("x").size());
+        assertEquals(all.getSamples("y").size(), merged.getSamples("y").size());
+        // Original data is not modified by the merge
+        assertEquals(5, data.getSamples("x").size());
+    }
+
     @Test
     public void testSpreadsheet() throws Exception
     {
@@ -96,6 +96,15 @@ public interface ScanServer
      */
     public ScanData getScanData(long id) throws Exception;
 
+    /** Query server for scan data that was logged after a certain sample
+     *  @param id ID that uniquely identifies a scan
+     *  @param since_serial Serial of last sample that the caller already has, -1 for all samples
+     *  @return Data for that scan on the server or <code>null</code>
+     *  @throws Exception on error
+     *  @see #getScanData(long)
+     */
+    public ScanData getScanData(long id, long since_serial) throws Exception;
+
     /** Ask server to update a command parameter to a new value
      *  @param id ID that uniquely identifies a scan
      *  @param address Address of the command
@@ -204,6 +204,7 @@ public class ScanServlet extends HttpServlet
      *  <p>GET scan/{id} - get scan info
      *  <p>GET scan/{id}/commands - get scan commands
      *  <p>GET scan/{id}/data - get scan data
+     *  <p>GET scan/{id}/data?since={serial} - get scan data logged after given sample serial
      *  <p>GET scan/{id}/last_serial - get scan data's last serial
      *  <p>GET scan/{id}/devices - get devices used by a scan
      */
@@ -249,11 +250,13 @@ public class ScanServlet extends HttpServlet
                 out.flush();
             }
             else if ("data".equalsIgnoreCase(object))
-            {   // Get data
-                final ScanData data = scan_server.getScanData(id);
-                final Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
-                doc.appendChild(ServletHelper.createXMLElement(doc, data));
-                ServletHelper.submitXML(doc, response);
+            {   // Get data, optionally only samples after 'since' serial
+                final String since = request.getParameter("since");
+                final long since_serial = since == null ? -1 : Long.parseLong(since);
+                final ScanData data = scan_server.getScanData(id, since_serial);
+                if (data == null)
+                    throw new Exception("Unknown scan ID " + id);
+                ServletHelper.submitXML(data, response);
             }
             else if ("last_serial".equalsIgnoreCase(object))
             {   // Get last serial of data
@@ -7,11 +7,15 @@
  ******************************************************************************/
 package org.csstudio.scan.server.httpd;
 
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
 import java.time.Instant;
 import java.util.Enumeration;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Result;
 import javax.xml.transform.Source;
@@ -149,34 +153,54 @@ public class ServletHelper
         return scan;
     }
 
-    /** Create XML content for scan data
-     *  @param doc XML {@link Document}
+    /** Stream scan data as XML
+     *
+     *  <p>Writes the samples directly to the response
+     *  instead of first creating a complete DOM document.
+     *
      *  @param data {@link ScanData}
-     *  @return XML {@link Element} for the scan data
+     *  @param response Servlet response
+     *  @throws Exception on error
      */
-    public static Node createXMLElement(final Document doc, final ScanData data)
+    public static void submitXML(final ScanData data, final HttpServletResponse response) throws Exception
     {
-        final Element result = doc.createElement("data");
-
+        response.setContentType("text/xml");
+        final OutputStream out = new BufferedOutputStream(response.getOutputStream());
+        final XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+        writer.writeStartDocument("UTF-8", "1.0");
+        writer.writeStartElement("data");
         for (String device_name : data.getDevices())
         {
-            final Element device = doc.createElement("device");
-            device.appendChild(createXMLElement(doc, "name", device_name));
-
-            final Element samples = doc.createElement("samples");
+            writer.writeStartElement("device");
+            writeXMLElement(writer, "name", device_name);
+            writer.writeStartElement("samples");
             for (ScanSample data_sample : data.getSamples(device_name))
             {
-                final Element sample = doc.createElement("sample");
-                sample.setAttribute("id", Long.toString(data_sample.getSerial()));
-                sample.appendChild(createXMLElement(doc, "time", data_sample.getTimestamp()));
-                sample.appendChild(createXMLElement(doc, "value", ScanSampleFormatter.asString(data_sample)));
-                samples.appendChild(sample);
+                writer.writeStartElement("sample");
+                writer.writeAttribute("id", Long.toString(data_sample.getSerial()));
+                writeXMLElement(writer, "time", Long.toString(data_sample.getTimestamp().toEpochMilli()));
+                writeXMLElement(writer, "value", ScanSampleFormatter.asString(data_sample));
+                writer.writeEndElement();
             }
-
-            device.appendChild(samples);
-            result.appendChild(device);
+            writer.writeEndElement();
+            writer.writeEndElement();
         }
-        return result;
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+        out.flush();
+    }
+
+    /** @param writer {@link XMLStreamWriter}
+     *  @param name Name of XML element
+     *  @param text Text content
+     *  @throws Exception on error
+     */
+    private static void writeXMLElement(final XMLStreamWriter writer, final String name, final String text) throws Exception
+    {
+        writer.writeStartElement(name);
+        writer.writeCharacters(text);
+        writer.writeEndElement();
     }
 
     /** Create XML content for device infos
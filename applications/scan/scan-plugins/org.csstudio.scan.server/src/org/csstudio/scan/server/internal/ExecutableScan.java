@@ -367,6 +367,16 @@ public class ExecutableScan extends LoggedScan implements ScanContext, Callable<
         return logger.getScanData();
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public ScanData getScanData(final long since_serial) throws Exception
+    {
+        final DataLog logger = data_logger.orElse(null);
+        if (logger == null)
+            return super.getScanData(since_serial);
+        return logger.getScanData(since_serial);
+    }
+
     /** Callable for executing all commands on the scan,
      *  turning exceptions into a 'Failed' scan state.
      */
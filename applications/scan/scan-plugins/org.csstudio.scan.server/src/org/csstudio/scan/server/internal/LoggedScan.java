@@ -77,6 +77,22 @@ public class LoggedScan extends Scan
         }
     }
 
+    /** Get samples logged after a certain serial.
+     *  @param since_serial Serial of last sample that the caller already has, -1 for all samples
+     *  @return {@link ScanData}
+     *  @throws Exception on error
+     */
+    public ScanData getScanData(final long since_serial) throws Exception
+    {
+        try
+        (
+            final DataLog logger = DataLogFactory.getDataLog(this);
+        )
+        {
+            return logger.getScanData(since_serial);
+        }
+    }
+
     // Compare by ID
     @Override
     public boolean equals(final Object obj)
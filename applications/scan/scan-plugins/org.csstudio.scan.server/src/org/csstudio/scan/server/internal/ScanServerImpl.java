@@ -325,11 +325,18 @@ public class ScanServerImpl implements ScanServer
     /** {@inheritDoc} */
     @Override
     public ScanData getScanData(final long id) throws Exception
+    {
+        return getScanData(id, -1);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ScanData getScanData(final long id, final long since_serial) throws Exception
     {
         try
         {
             final LoggedScan scan = scan_engine.getScan(id);
-            return scan.getScanData();
+            return scan.getScanData(since_serial);
         }
         catch (Exception ex)
         {
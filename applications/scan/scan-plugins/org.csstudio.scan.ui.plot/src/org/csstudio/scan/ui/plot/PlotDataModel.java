@@ -71,6 +71,14 @@ public class PlotDataModel implements Runnable
      */
     final private List<PlotDataProvider> plot_data = new ArrayList<PlotDataProvider>();
 
+    /** Most recently fetched data of scan <code>scan_data_id</code>,
+     *  only accessed by update thread
+     */
+    private ScanData cached_data = null;
+
+    /** ID of scan for <code>cached_data</code> */
+    private long scan_data_id = -1;
+
     /** Mostly to please FindBugs: Flag that update thread was woken early */
     private boolean wake_early = false;
 
@@ -184,6 +192,23 @@ public class PlotDataModel implements Runnable
         model.release();
     }
 
+    /** Get scan data, only fetching samples that were added since the last call
+     *  @param client {@link ScanClient}
+     *  @param id Scan ID
+     *  @param serial Last serial of the scan's data
+     *  @return {@link ScanData}
+     *  @throws Exception on error
+     */
+    private ScanData getScanData(final ScanClient client, final long id, final long serial) throws Exception
+    {
+        if (cached_data == null  ||  scan_data_id != id  ||  serial < cached_data.getLastSerial())
+            cached_data = client.getScanData(id);
+        else
+            cached_data = cached_data.merge(client.getScanData(id, cached_data.getLastSerial()));
+        scan_data_id = id;
+        return cached_data;
+    }
+
     /** Runnable of the update thread.
      *
      *  Fetches scan data from selected scan,
@@ -207,7 +232,7 @@ public class PlotDataModel implements Runnable
                     final long current_serial = client.getLastScanDataSerial(scan.getId());
                     if (last_serial != current_serial)
                     {
-                        final ScanData scan_data = client.getScanData(scan.getId());
+                        final ScanData scan_data = getScanData(client, scan.getId(), current_serial);
                         last_serial = current_serial;
                         if (scan_data == null)
                             devices = null;
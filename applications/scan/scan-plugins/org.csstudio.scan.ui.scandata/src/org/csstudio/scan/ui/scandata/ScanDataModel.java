@@ -25,8 +25,8 @@ import org.csstudio.scan.server.ScanServerInfo;
 /** Model that monitors the data of a scan
  *
  *  <p>Implementation note:
- *  Fetching the whole data for every scan update
- *  plus then converting that to a "spreadsheet"
+ *  Only samples added since the last update are fetched from the server.
+ *  Converting the complete data to a "spreadsheet"
  *  in the {@link ScanDataEditor}'s {@link ScanDataModelListener}
  *  seems expensive, but causes neglegible CPU load for
  *  scans with a few thousand rows of data and a handful
@@ -110,10 +110,14 @@ public class ScanDataModel implements ScanInfoModelListener
             if (serial == last_scan_data_serial)
                 return;
 
-            // Get data
-            final ScanData data = serial == ScanClient.UNKNOWN_SCAN_SERIAL
-                                ? UNKNOWN_SCAN
-                                : client.getScanData(scan_id);
+            // Get data, only fetching new samples when possible
+            final ScanData data;
+            if (serial == ScanClient.UNKNOWN_SCAN_SERIAL)
+                data = UNKNOWN_SCAN;
+            else if (scan_data == null  ||  serial < scan_data.getLastSerial())
+                data = client.getScanData(scan_id);
+            else
+                data = scan_data.merge(client.getScanData(scan_id, scan_data.getLastSerial()));
             scan_data = data;
             last_scan_data_serial = serial;
             // Update listener
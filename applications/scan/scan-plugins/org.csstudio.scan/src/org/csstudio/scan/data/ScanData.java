@@ -15,7 +15,9 @@
  ******************************************************************************/
 package org.csstudio.scan.data;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -57,4 +59,52 @@ public class ScanData
     {
         return device_logs.get(device_name);
     }
+
+    /** @param since_serial Serial of a sample
+     *  @return {@link ScanData} with only the samples that have a larger serial
+     */
+    public ScanData getSamplesSince(final long since_serial)
+    {
+        final Map<String, List<ScanSample>> newer = new HashMap<>();
+        for (Map.Entry<String, List<ScanSample>> entry : device_logs.entrySet())
+        {
+            final List<ScanSample> samples = entry.getValue();
+            // Samples are in order of serial, locate the first new one from the end
+            int i = samples.size();
+            while (i > 0  &&  samples.get(i-1).getSerial() > since_serial)
+                --i;
+            if (i < samples.size())
+                newer.put(entry.getKey(), new ArrayList<>(samples.subList(i, samples.size())));
+        }
+        return new ScanData(newer);
+    }
+
+    /** @return Largest serial of all samples, -1 if there are no samples */
+    public long getLastSerial()
+    {
+        long serial = -1;
+        for (List<ScanSample> samples : device_logs.values())
+            if (! samples.isEmpty())
+                serial = Math.max(serial, samples.get(samples.size()-1).getSerial());
+        return serial;
+    }
+
+    /** @param update Samples that were logged after the samples in this {@link ScanData}
+     *  @return {@link ScanData} with the samples of this one followed by those of the update
+     */
+    public ScanData merge(final ScanData update)
+    {
+        final Map<String, List<ScanSample>> merged = new HashMap<>();
+        for (Map.Entry<String, List<ScanSample>> entry : device_logs.entrySet())
+            merged.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        for (Map.Entry<String, List<ScanSample>> entry : update.device_logs.entrySet())
+        {
+            final List<ScanSample> samples = merged.get(entry.getKey());
+            if (samples == null)
+                merged.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+            else
+                samples.addAll(entry.getValue());
+        }
+        return new ScanData(merged);
+    }
 }
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.vtype.pv;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.diirt.vtype.VDouble;
+import org.diirt.vtype.VType;
+import org.diirt.vtype.ValueFactory;
+import org.junit.Test;
+
+/** JUnit test of the {@link ListenerDispatcher}
+ */
+@SuppressWarnings("nls")
+public class ListenerDispatcherUnitTest
+{
+    private static class TestPV extends PV
+    {
+        TestPV()
+        {
+            super("test");
+        }
+
+        @Override
+        public void write(final Object new_value) throws Exception
+        {
+            // NOP
+        }
+    }
+
+    /** Slow listener that records what it receives */
+    private static class SlowListener extends PVListenerAdapter
+    {
+        final List<Object> received = new CopyOnWriteArrayList<>();
+        final CountDownLatch disconnected = new CountDownLatch(1);
+
+        @Override
+        public void valueChanged(final PV pv, final VType value)
+        {
+            received.add(((VDouble) value).getValue());
+            try
+            {
+                Thread.sleep(10);
+            }
+            catch (InterruptedException ex)
+            {
+                // Ignore
+            }
+        }
+
+        @Override
+        public void disconnected(final PV pv)
+        {
+            received.add("disconnected");
+            disconnected.countDown();
+        }
+    }
+
+    /** Send values 1..count, then disconnect
+     *  @return Time spent sending in ms
+     */
+    private long send(final ListenerDispatcher dispatcher, final int count)
+    {
+        final long start = System.currentTimeMillis();
+        for (int i=1; i<=count; ++i)
+            dispatcher.value(ValueFactory.newVDouble(Double.valueOf(i)));
+        dispatcher.disconnected();
+        return System.currentTimeMillis() - start;
+    }
+
+    @Test(timeout=10000)
+    public void testCoalesce() throws Exception
+    {
+        final TestPV pv = new TestPV();
+        final SlowListener listener = new SlowListener();
+        pv.addListener(listener);
+        final ListenerDispatcher dispatcher = new ListenerDispatcher(pv, 1, 0);
+
+        // Sending doesn't wait for the slow listener
+        final long ms = send(dispatcher, 1000);
+        assertTrue("Sending took " + ms + " ms", ms < 1000);
+        listener.disconnected.await(5, TimeUnit.SECONDS);
+
+        // Received some values, always including the last one, then disconnect
+        final int received = listener.received.size() - 1;
+        assertThat(listener.received.get(received-1), equalTo(1000.0));
+        assertThat(listener.received.get(received), equalTo("disconnected"));
+        assertThat(received + dispatcher.getCoalescedUpdates(), equalTo(1000L));
+        assertThat(dispatcher.getDroppedUpdates(), equalTo(0L));
+    }
+
+    @Test(timeout=10000)
+    public void testQueue() throws Exception
+    {
+        final TestPV pv = new TestPV();
+        final SlowListener listener = new SlowListener();
+        pv.addListener(listener);
+        final ListenerDispatcher dispatcher = new ListenerDispatcher(pv, 5, 0);
+
+        send(dispatcher, 1000);
+        listener.disconnected.await(5, TimeUnit.SECONDS);
+
+        // Last 5 values are always received in order
+        final int received = listener.received.size() - 1;
+        for (int i=0; i<5; ++i)
+            assertThat(listener.received.get(received-5+i), equalTo(996.0 + i));
+        assertThat(received + dispatcher.getDroppedUpdates(), equalTo(1000L));
+        assertThat(dispatcher.getCoalescedUpdates(), equalTo(0L));
+    }
+
+    @Test(timeout=10000)
+    public void testRate() throws Exception
+    {
+        final TestPV pv = new TestPV();
+        final SlowListener listener = new SlowListener();
+        pv.addListener(listener);
+        // Deliver at most 10 times per second
+        final ListenerDispatcher dispatcher = new ListenerDispatcher(pv, 1, 10.0);
+
+        final long start = System.currentTimeMillis();
+        while (System.currentTimeMillis() - start < 1000)
+        {
+            dispatcher.value(ValueFactory.newVDouble(Double.valueOf(1)));
+            Thread.sleep(1);
+        }
+        dispatcher.disconnected();
+        listener.disconnected.await(5, TimeUnit.SECONDS);
+
+        final int received = listener.received.size() - 1;
+        assertTrue("Received " + received + " updates in 1 second", received > 0  &&  received <= 12);
+        assertTrue(dispatcher.getCoalescedUpdates() > 0);
+    }
+}
@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.vtype.pv;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/** Stress test of the {@link PVPool}
+ *
+ *  <p>Many threads concurrently get and release PVs
+ *  from a test factory which counts created and closed PVs.
+ */
+@SuppressWarnings("nls")
+public class PVPoolStressTest
+{
+    private static final String TYPE = "stress";
+    private static final int NAMES = 100000;
+    private static final int THREADS = 16;
+
+    /** PV that counts being closed more than once as an error */
+    private static class StressPV extends PV
+    {
+        private volatile boolean closed = false;
+
+        StressPV(final String name)
+        {
+            super(name);
+        }
+
+        @Override
+        public void write(final Object new_value) throws Exception
+        {
+            // NOP
+        }
+
+        @Override
+        protected void close()
+        {
+            if (closed)
+                errors.incrementAndGet();
+            closed = true;
+            created.remove(getName(), this);
+            closes.incrementAndGet();
+        }
+    }
+
+    /** PVs currently created by the factory, by actual name */
+    private static final Map<String, StressPV> created = new ConcurrentHashMap<>();
+    private static final AtomicInteger creations = new AtomicInteger(), closes = new AtomicInteger(),
+                                       errors = new AtomicInteger();
+
+    /** Factory for {@link StressPV}
+     *
+     *  <p>Like local PVs, "stress://x(3)" refers to the PV "stress://x".
+     *  Some names fail, others take a little time to create.
+     */
+    private static class StressPVFactory implements PVFactory
+    {
+        @Override
+        public String getType()
+        {
+            return TYPE;
+        }
+
+        @Override
+        public PV createPV(final String name, final String base_name) throws Exception
+        {
+            if (base_name.startsWith("bad"))
+                throw new Exception("Cannot create " + name);
+            if (base_name.startsWith("slow"))
+                Thread.sleep(1);
+            final int sep = base_name.indexOf('(');
+            final String actual = TYPE + PVPool.SEPARATOR + (sep > 0 ? base_name.substring(0, sep) : base_name);
+            return created.computeIfAbsent(actual, n ->
+            {
+                creations.incrementAndGet();
+                return new StressPV(n);
+            });
+        }
+    }
+
+    private static String makeName(final Random rand)
+    {
+        // Half the requests are for a few 'hot' PVs
+        final int i = rand.nextBoolean() ? rand.nextInt(100) : rand.nextInt(NAMES);
+        switch (rand.nextInt(20))
+        {
+        case 0:  return TYPE + PVPool.SEPARATOR + "bad" + i;
+        case 1:  return TYPE + PVPool.SEPARATOR + "slow" + i;
+        case 2:  return TYPE + PVPool.SEPARATOR + "pv" + i + "(" + rand.nextInt(3) + ")";
+        default: return TYPE + PVPool.SEPARATOR + "pv" + i;
+        }
+    }
+
+    /** @param name Requested name
+     *  @param pv PV obtained for that name
+     */
+    private static void checkPV(final String name, final PV pv)
+    {
+        assertTrue(name.startsWith(pv.getName()));
+        assertTrue("Got closed PV " + name, ! ((StressPV) pv).closed);
+    }
+
+    @Test(timeout=120000)
+    public void testConcurrentGetRelease() throws Exception
+    {
+        PVPool.addPVFactory(new StressPVFactory());
+
+        final ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        final List<Future<Integer>> results = new ArrayList<>();
+        for (int t=0; t<THREADS; ++t)
+        {
+            final int seed = t;
+            results.add(threads.submit(() ->
+            {
+                final Random rand = new Random(seed);
+                final List<PV> pvs = new ArrayList<>();
+                final List<CompletableFuture<PV>> pending = new ArrayList<>();
+                int count = 0;
+                for (int i=0; i<NAMES/THREADS; ++i)
+                {
+                    final String name = makeName(rand);
+                    if (rand.nextBoolean())
+                    {
+                        try
+                        {
+                            final PV pv = PVPool.getPV(name);
+                            checkPV(name, pv);
+                            pvs.add(pv);
+                        }
+                        catch (Exception ex)
+                        {
+                            assertTrue(name.contains("bad"));
+                        }
+                    }
+                    else
+                        pending.add(PVPool.getPVAsync(name).thenApply(pv ->
+                        {
+                            checkPV(name, pv);
+                            return pv;
+                        }));
+                    // Release some PVs while others are still being fetched
+                    if (rand.nextInt(4) == 0  &&  ! pvs.isEmpty())
+                        PVPool.releasePV(pvs.remove(rand.nextInt(pvs.size())));
+                    ++count;
+                }
+                for (CompletableFuture<PV> pv : pending)
+                {
+                    try
+                    {
+                        pvs.add(pv.get());
+                    }
+                    catch (ExecutionException ex)
+                    {
+                        assertTrue(ex.getCause().getMessage().contains("bad"));
+                    }
+                }
+                for (PV pv : pvs)
+                    PVPool.releasePV(pv);
+                return count;
+            }));
+        }
+        int total = 0;
+        for (Future<Integer> result : results)
+            total += result.get();
+        threads.shutdown();
+        threads.awaitTermination(10, TimeUnit.SECONDS);
+        assertThat(total, equalTo(THREADS * (NAMES/THREADS)));
+        // Requests share PVs
+        assertTrue(creations.get() > 0);
+        assertTrue(creations.get() < total);
+
+        // All PVs have been released and closed
+        assertThat(PVPool.getPVReferences().size(), equalTo(0));
+        assertThat(created.size(), equalTo(0));
+        assertThat(closes.get(), equalTo(creations.get()));
+        assertThat(errors.get(), equalTo(0));
+    }
+
+    @Test
+    public void testSharedPending() throws Exception
+    {
+        PVPool.addPVFactory(new StressPVFactory());
+
+        // Concurrent requests for the same new PV share one creation
+        final List<CompletableFuture<PV>> pvs = new ArrayList<>();
+        for (int i=0; i<100; ++i)
+            pvs.add(PVPool.getPVAsync(TYPE + PVPool.SEPARATOR + "slow_shared"));
+        final PV pv = pvs.get(0).get();
+        for (CompletableFuture<PV> other : pvs)
+            assertThat(other.get(), sameInstance(pv));
+        assertThat(PVPool.getPVReferences().iterator().next().getReferences(), equalTo(100));
+
+        // Name with initializer refers to the same PV
+        assertThat(PVPool.getPV(TYPE + PVPool.SEPARATOR + "slow_shared(42)"), sameInstance(pv));
+        assertThat(PVPool.getPVReferences().iterator().next().getReferences(), equalTo(101));
+
+        for (int i=0; i<101; ++i)
+            PVPool.releasePV(pv);
+        assertThat(PVPool.getPVReferences().size(), equalTo(0));
+        assertTrue(((StressPV) pv).closed);
+    }
+}
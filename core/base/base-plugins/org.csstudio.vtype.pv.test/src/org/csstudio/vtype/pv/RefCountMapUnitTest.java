@@ -14,6 +14,10 @@ import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.Test;
 
 /** JUnit test of the {@link RefCountMap}
@@ -50,6 +54,25 @@ public class RefCountMapUnitTest
         assertThat(item, is(nullValue()));
     }
 
+    @Test
+    public void testCreateOrGet()
+    {
+        final RefCountMap<String, Integer> map = new RefCountMap<>();
+        // Creates item, reference 1
+        assertThat(map.createOrGet("one", key -> 1), equalTo(1));
+        // Returns existing item, reference 2
+        assertThat(map.createOrGet("one", key -> 2), equalTo(1));
+
+        // Adds references to existing item
+        assertThat(map.addReferences("one", 3, 2), equalTo(1));
+        assertThat(map.getEntries().iterator().next().getReferences(), equalTo(4));
+
+        // Only removes the expected item
+        assertThat(map.remove("one", 3), is(nullValue()));
+        assertThat(map.remove("one", 1).getReferences(), equalTo(4));
+        assertThat(map.get("one"), is(nullValue()));
+    }
+
     @Test
     public void testAddTwice()
     {
@@ -66,6 +89,44 @@ public class RefCountMapUnitTest
         }
     }
 
+    @Test(timeout=5000)
+    public void testRemovalAction() throws Exception
+    {
+        final RefCountMap<String, Integer> map = new RefCountMap<>();
+        map.put("one", Integer.valueOf(1));
+
+        final CountDownLatch removing = new CountDownLatch(1);
+        final CountDownLatch proceed = new CountDownLatch(1);
+        final FutureTask<Integer> release = new FutureTask<>(() -> map.release("one", removed ->
+        {
+            // Action may access the map, and the released item is no longer listed
+            assertThat(map.getEntries().isEmpty(), equalTo(true));
+            assertThat(map.createOrGet("two", key -> 2), equalTo(2));
+            removing.countDown();
+            try
+            {
+                proceed.await();
+            }
+            catch (InterruptedException ex)
+            {
+                // Ignore
+            }
+        }));
+        new Thread(release).start();
+        removing.await();
+
+        // Request for the released key awaits the removal action
+        final FutureTask<Integer> create = new FutureTask<>(() -> map.createOrGet("one", key -> 11));
+        new Thread(create).start();
+        Thread.sleep(200);
+        assertThat(create.isDone(), equalTo(false));
+        proceed.countDown();
+
+        assertThat(release.get(), equalTo(0));
+        assertThat(create.get(1, TimeUnit.SECONDS), equalTo(11));
+        assertThat(map.release("one"), equalTo(0));
+    }
+
     @Test
     public void testReleaseUnknown()
     {
@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.vtype.pv;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.csstudio.vtype.pv.internal.Preferences;
+import org.diirt.vtype.VType;
+
+/** Dispatches updates of a {@link PV} to its listeners on a shared thread pool
+ *
+ *  <p>The PV implementation hands updates to the dispatcher,
+ *  which queues them and returns right away,
+ *  so slow listeners do not delay the PV implementation's callback thread.
+ *
+ *  <p>Queued values are coalesced to the latest value,
+ *  or limited to a maximum queue size by dropping the oldest value.
+ *  Disconnect and permission updates are never dropped,
+ *  and all updates are delivered in the order received.
+ *
+ *  <p>With a maximum rate, queued updates are delivered
+ *  at most once per period.
+ */
+@SuppressWarnings("nls")
+class ListenerDispatcher
+{
+    /** Marker for a disconnect in the queue */
+    private static final Object DISCONNECTED = new Object();
+
+    /** Values to queue per PV from preferences, 0 to call listeners directly */
+    private static final int default_queue_size = Preferences.getDispatchQueue();
+
+    /** Maximum delivery rate from preferences */
+    private static final double default_max_rate = Preferences.getDispatchMaxRate();
+
+    /** Threads shared by all dispatchers, created on first use */
+    private static class Executor
+    {
+        static final ScheduledThreadPoolExecutor instance =
+            new ScheduledThreadPoolExecutor(Runtime.getRuntime().availableProcessors(), target ->
+            {
+                final Thread thread = new Thread(target, "PVDispatch");
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    final private PV pv;
+
+    /** Values to queue */
+    final private int queue_size;
+
+    /** Minimum period between deliveries in nanoseconds, 0 for no limit */
+    final private long period;
+
+    /** Queued updates: {@link VType}, {@link Boolean} for permissions or {@link #DISCONNECTED}.
+     *  SYNC on queue
+     */
+    final private ArrayDeque<Object> queue = new ArrayDeque<>();
+
+    /** Number of values in queue. SYNC on queue */
+    private int values = 0;
+
+    /** Is a delivery scheduled? SYNC on queue */
+    private boolean scheduled = false;
+
+    /** Time of last delivery. SYNC on queue */
+    private long last_delivery = 0;
+
+    final private AtomicLong coalesced = new AtomicLong(), dropped = new AtomicLong();
+
+    /** @param pv PV
+     *  @return Dispatcher for the PV or <code>null</code> if listeners are to be called directly
+     */
+    static ListenerDispatcher create(final PV pv)
+    {
+        if (default_queue_size <= 0)
+            return null;
+        return new ListenerDispatcher(pv, default_queue_size, default_max_rate);
+    }
+
+    /** @param pv PV
+     *  @param queue_size Values to queue, 1 to coalesce to the latest value
+     *  @param max_rate Maximum delivery rate in Hz, 0 for no limit
+     */
+    ListenerDispatcher(final PV pv, final int queue_size, final double max_rate)
+    {
+        if (queue_size < 1)
+            throw new IllegalArgumentException("Queue size " + queue_size);
+        this.pv = pv;
+        this.queue_size = queue_size;
+        period = max_rate > 0 ? (long) (1e9 / max_rate) : 0;
+    }
+
+    /** @param value Value to deliver */
+    void value(final VType value)
+    {
+        synchronized (queue)
+        {
+            if (queue_size == 1  &&  values > 0  &&  queue.peekLast() instanceof VType)
+            {   // Replace the latest queued value
+                queue.pollLast();
+                queue.addLast(value);
+                coalesced.incrementAndGet();
+                return;
+            }
+            if (values >= queue_size)
+            {   // Drop oldest queued value
+                final Iterator<Object> iter = queue.iterator();
+                while (iter.hasNext())
+                    if (iter.next() instanceof VType)
+                    {
+                        iter.remove();
+                        --values;
+                        dropped.incrementAndGet();
+                        break;
+                    }
+            }
+            queue.addLast(value);
+            ++values;
+            schedule();
+        }
+    }
+
+    /** @param readonly Permissions to deliver */
+    void permissions(final boolean readonly)
+    {
+        synchronized (queue)
+        {
+            queue.addLast(Boolean.valueOf(readonly));
+            schedule();
+        }
+    }
+
+    /** Deliver disconnect */
+    void disconnected()
+    {
+        synchronized (queue)
+        {
+            queue.addLast(DISCONNECTED);
+            schedule();
+        }
+    }
+
+    /** Schedule delivery unless already scheduled. Caller holds lock on queue */
+    private void schedule()
+    {
+        if (scheduled)
+            return;
+        scheduled = true;
+        final long delay = period > 0 ? last_delivery + period - System.nanoTime() : 0;
+        if (delay > 0)
+            Executor.instance.schedule(this::deliver, delay, TimeUnit.NANOSECONDS);
+        else
+            Executor.instance.execute(this::deliver);
+    }
+
+    /** Deliver queued updates to listeners */
+    private void deliver()
+    {
+        final Object[] updates;
+        synchronized (queue)
+        {
+            updates = queue.toArray();
+            queue.clear();
+            values = 0;
+            last_delivery = System.nanoTime();
+        }
+        try
+        {
+            for (Object update : updates)
+            {
+                if (update == DISCONNECTED)
+                    pv.fireDisconnected();
+                else if (update instanceof Boolean)
+                    pv.firePermissions((Boolean) update);
+                else
+                    pv.fireValue((VType) update);
+            }
+        }
+        finally
+        {
+            synchronized (queue)
+            {   // Updates that arrived during delivery are held until now
+                scheduled = false;
+                if (! queue.isEmpty())
+                    schedule();
+            }
+        }
+    }
+
+    /** @return Number of values that were replaced by a newer value before delivery */
+    long getCoalescedUpdates()
+    {
+        return coalesced.get();
+    }
+
+    /** @return Number of values that were dropped because the queue was full */
+    long getDroppedUpdates()
+    {
+        return dropped.get();
+    }
+}
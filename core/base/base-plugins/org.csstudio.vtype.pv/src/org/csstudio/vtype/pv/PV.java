@@ -24,6 +24,11 @@ import org.diirt.vtype.VType;
  *  <p>The name of the PV is the name by which it was created.
  *  The underlying implementation might use a slightly different name.
  *
+ *  <p>Depending on the "dispatch_queue" preference, listeners are
+ *  either called by the thread of the PV implementation,
+ *  or by a shared thread pool which may coalesce
+ *  or drop value updates.
+ *
  *  @author Kay Kasemir
  */
 @SuppressWarnings("nls")
@@ -40,6 +45,9 @@ abstract public class PV
 
     private volatile VType last_value = null;
 
+    /** Dispatcher for listener notifications, <code>null</code> to notify directly */
+    final private ListenerDispatcher dispatcher = ListenerDispatcher.create(this);
+
     /** Initialize
      *  @param name PV name
      */
@@ -144,6 +152,35 @@ abstract public class PV
     protected void notifyListenersOfDisconnect()
     {
         last_value = null;
+        if (dispatcher == null)
+            fireDisconnected();
+        else
+            dispatcher.disconnected();
+    }
+
+    /** Helper for PV implementation to notify listeners */
+    protected void notifyListenersOfPermissions(final boolean readonly)
+    {
+        is_readonly = readonly;
+        if (dispatcher == null)
+            firePermissions(readonly);
+        else
+            dispatcher.permissions(readonly);
+    }
+
+    /** Helper for PV implementation to notify listeners */
+    protected void notifyListenersOfValue(final VType value)
+    {
+        last_value = value;
+        if (dispatcher == null)
+            fireValue(value);
+        else
+            dispatcher.value(value);
+    }
+
+    /** Call listeners */
+    void fireDisconnected()
+    {
         for (PVListener listener : listeners)
         {
             try
@@ -157,10 +194,9 @@ abstract public class PV
         }
     }
 
-    /** Helper for PV implementation to notify listeners */
-    protected void notifyListenersOfPermissions(final boolean readonly)
+    /** Call listeners */
+    void firePermissions(final boolean readonly)
     {
-        is_readonly = readonly;
         for (PVListener listener : listeners)
         {
             try
@@ -174,10 +210,9 @@ abstract public class PV
         }
     }
 
-    /** Helper for PV implementation to notify listeners */
-    protected void notifyListenersOfValue(final VType value)
+    /** Call listeners */
+    void fireValue(final VType value)
     {
-        last_value = value;
         for (PVListener listener : listeners)
         {
             try
@@ -191,6 +226,22 @@ abstract public class PV
         }
     }
 
+    /** @return Number of value updates that were replaced by a newer value
+     *          before they could be delivered to listeners
+     */
+    public long getCoalescedUpdates()
+    {
+        return dispatcher == null ? 0 : dispatcher.getCoalescedUpdates();
+    }
+
+    /** @return Number of value updates that were dropped
+     *          because too many updates were waiting to be delivered to listeners
+     */
+    public long getDroppedUpdates()
+    {
+        return dispatcher == null ? 0 : dispatcher.getDroppedUpdates();
+    }
+
     /** Close the PV, releasing underlying resources.
      *  <p>
      *  Called by {@link PVPool}.
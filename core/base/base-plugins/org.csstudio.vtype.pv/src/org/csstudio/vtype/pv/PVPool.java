@@ -7,10 +7,18 @@
  ******************************************************************************/
 package org.csstudio.vtype.pv;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 
 import org.csstudio.vtype.pv.RefCountMap.ReferencedEntry;
 import org.csstudio.vtype.pv.internal.Preferences;
@@ -37,6 +45,11 @@ import org.csstudio.vtype.pv.internal.Preferences;
  *  <p>Note also that "loc://x(3.14)" and "loc://x(14)" will be treated
  *  as different PVs.
  *
+ *  <p>The pool does not use a global lock.
+ *  Different PVs are created concurrently,
+ *  and threads that request a PV which is currently being created
+ *  await that one creation.
+ *
  *  @author Kay Kasemir
  */
 @SuppressWarnings("nls")
@@ -51,16 +64,35 @@ public class PVPool
     final public static String SEPARATOR = "://";
 
     /** Map of PV type prefixes to PV factories */
-    final private static Map<String, PVFactory> factories = new HashMap<>();
+    final private static Map<String, PVFactory> factories = new ConcurrentHashMap<>();
 
     /** Default PV name type prefix */
-    private static String default_type;
+    private static volatile String default_type;
 
     /** PV Pool
-     *  SYNC on 'pool':
-     *  Otherwise, two threads concurrently looking for a new PV would both add it.
+     *
+     *  <p>Holds a future for each PV, so the PV can be created
+     *  outside of the map while other threads await it.
+     *  Pending PVs are listed under the name used to request them.
+     *  Once created, the PV is listed under its actual name.
      */
-    final private static RefCountMap<String, PV> pool = new RefCountMap<>();
+    final private static RefCountMap<String, CompletableFuture<PV>> pool = new RefCountMap<>();
+
+    /** Threads for creating PVs in {@link #getPVAsync(String)} */
+    final private static ThreadPoolExecutor creators;
+
+    static
+    {
+        final int threads = Preferences.getPoolCreateThreads();
+        creators = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                                          target ->
+                                          {
+                                              final Thread thread = new Thread(target, "PVPool");
+                                              thread.setDaemon(true);
+                                              return thread;
+                                          });
+        creators.allowCoreThreadTimeOut(true);
+    }
 
     /** Singleton */
     private PVPool()
@@ -114,6 +146,7 @@ public class PVPool
      *
      *  <p>Obtains existing PV of that name from pool,
      *  or creates new PV if no existing PV found.
+     *  A new PV is created in the calling thread.
      *
      *  @param name PV name, where prefix might be used to determine the type
      *  @return {@link PV}
@@ -122,28 +155,109 @@ public class PVPool
      */
     public static PV getPV(final String name) throws Exception
     {
-        PV pv;
-        synchronized (pool)
-        {   // Try to locate PV in pool
-            pv = pool.get(name);
-            if (pv == null)
+        final CompletableFuture<PV> created = new CompletableFuture<>();
+        final CompletableFuture<PV> pv = pool.createOrGet(name, key -> created);
+        if (pv == created)
+            createPV(name, created);
+        try
+        {
+            return pv.get();
+        }
+        catch (ExecutionException ex)
+        {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof Exception)
+                throw (Exception) cause;
+            throw ex;
+        }
+    }
+
+    /** Obtain a PV asynchronously
+     *
+     *  <p>Obtains existing PV of that name from pool,
+     *  or creates new PV on a pool thread if no existing PV found.
+     *  Allows requesting many PVs, which are then created in parallel.
+     *
+     *  <p>Each successfully completed future holds one reference
+     *  to the PV that needs to be released.
+     *  When the future completes exceptionally, there is nothing to release.
+     *
+     *  @param name PV name, where prefix might be used to determine the type
+     *  @return {@link CompletableFuture} for the {@link PV}
+     *  @see #releasePV(PV)
+     */
+    public static CompletableFuture<PV> getPVAsync(final String name)
+    {
+        final CompletableFuture<PV> created = new CompletableFuture<>();
+        final CompletableFuture<PV> pv = pool.createOrGet(name, key -> created);
+        if (pv == created)
+            creators.execute(() -> createPV(name, created));
+        // Caller may not complete or cancel the shared future
+        return pv.copy();
+    }
+
+    /** Create PV and complete its future in the pool
+     *  @param name Name used to request the PV
+     *  @param created Future that's listed in the pool under that name
+     */
+    private static void createPV(final String name, final CompletableFuture<PV> created)
+    {
+        String listed = name;
+        try
+        {
+            final PV pv = createPV(name);
+            // Actual name may differ from the provided name.
+            // For example, "loc://x(2)", "loc://x" and "loc://x<VDouble>(4)"
+            // will be the same PV "loc://x" in the pool.
+            // Move references from the requested to the actual name.
+            // Those awaiting the future can only release the PV once it completes,
+            // at which point the references are listed under the actual name.
+            final String actual = pv.getName();
+            if (! actual.equals(name))
             {
-                pv = createPV(name);
-                // Actual name may differ from the provided name.
-                // For example, "loc://x(2)", "loc://x" and "loc://x<VDouble>(4)"
-                // will be the same PV "loc://x" in the pool.
-                if (pool.get(pv.getName()) == null) // Increment reference?
-                    pool.put(pv.getName(), pv);     // Add new PV
+                final ReferencedEntry<CompletableFuture<PV>> requested = pool.remove(name, created);
+                final CompletableFuture<PV> existing = pool.addReferences(actual, created, requested.getReferences());
+                if (existing != created)
+                {   // Use the PV that's already listed under the actual name,
+                    // closing the one just created unless the factory returned that same PV
+                    existing.whenComplete((existing_pv, error) ->
+                    {
+                        // When the existing future failed, there is no PV to use,
+                        // and the one just created is not listed anywhere
+                        if (existing_pv != pv)
+                            closePV(pv);
+                        if (error == null)
+                            created.complete(existing_pv);
+                        else
+                            created.completeExceptionally(error);
+                    });
+                    return;
+                }
+                listed = actual;
+                // The factory may have returned a PV that was closed by a concurrent
+                // release of the actual name before the new references were listed.
+                // Now that the actual name is listed, it can no longer be closed,
+                // so fetch the current PV.
+                final PV current = createPV(name);
+                if (current != pv)
+                    closePV(pv);
+                created.complete(current);
+                return;
             }
+            created.complete(pv);
+        }
+        catch (Throwable ex)
+        {
+            pool.remove(listed, created);
+            created.completeExceptionally(ex);
         }
-        return pv;
     }
 
-    /** Create
+    /** Create PV via its factory
      *
-     * @param name
-     * @return
-     * @throws Exception
+     *  @param name PV name, where prefix might be used to determine the type
+     *  @return PV
+     *  @throws Exception on error
      */
     private static PV createPV(final String name) throws Exception
     {
@@ -175,16 +289,27 @@ public class PVPool
         return new String[] { type, base };
     }
 
-    /** @param pv PV to be released */
-    public static void releasePV(final PV pv)
+    /** Close a PV, logging errors
+     *  @param pv PV to close
+     */
+    private static void closePV(final PV pv)
     {
-        final int references;
-        synchronized (pool)
+        try
         {
-            references = pool.release(pv.getName());
-        }
-        if (references == 0)
             pv.close();
+        }
+        catch (Throwable ex)
+        {
+            PV.logger.log(Level.WARNING, "Error closing " + pv.getName(), ex);
+        }
+    }
+
+    /** @param pv PV to be released */
+    public static void releasePV(final PV pv)
+    {
+        // Close after the pool marked the name as removed,
+        // so nobody can obtain the PV until it's closed
+        pool.release(pv.getName(), removed -> closePV(pv));
 
         if ( Preferences.isPrintPVPoolContentOnRelease() ) {
 
@@ -207,9 +332,14 @@ public class PVPool
     /** @return PVs currently in the pool with reference count information */
     public static Collection<ReferencedEntry<PV>> getPVReferences()
     {
-        synchronized (pool)
-        {
-            return pool.getEntries();
+        final Collection<ReferencedEntry<CompletableFuture<PV>>> entries = pool.getEntries();
+        final List<ReferencedEntry<PV>> pvs = new ArrayList<>(entries.size());
+        for (ReferencedEntry<CompletableFuture<PV>> entry : entries)
+        {   // List PVs that have been created, skipping pending or failed ones
+            final CompletableFuture<PV> pv = entry.getEntry();
+            if (pv.isDone()  &&  ! pv.isCompletedExceptionally())
+                pvs.add(new ReferencedEntry<>(pv.join(), entry.getReferences()));
         }
+        return pvs;
     }
 }
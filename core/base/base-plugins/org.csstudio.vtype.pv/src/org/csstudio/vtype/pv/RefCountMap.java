@@ -7,16 +7,27 @@
  ******************************************************************************/
 package org.csstudio.vtype.pv;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /** Map that keeps reference count for its objects
  *
- *  <p>Caller may need to synchronize calls to this map,
- *  because there is no atomic operation to check if an item exists,
- *  and if not, create and add it to the map.
+ *  <p>The map is thread-safe.
+ *  Each operation on a key is atomic,
+ *  without locking the complete map,
+ *  so callers may concurrently access different keys.
+ *  To check if an item exists, and if not, create and add it,
+ *  use {@link #createOrGet(Object, Function)}.
+ *
+ *  <p>When the last reference to an item is released,
+ *  the item is first marked as removed.
+ *  Its removal action is then invoked outside of the map update,
+ *  and requests for the same key await that removal.
  *
  *  @param <K> Key data type
  *  @param <E> Entry data type
@@ -29,11 +40,20 @@ public class RefCountMap<K, E>
     public static class ReferencedEntry<E>
     {
         final private E entry;
-        private int references = 1;
+        /** Reference count, only changed within atomic map operations */
+        private volatile int references;
+        /** Set when the entry has been marked as removed, completed once it's gone */
+        private volatile CompletableFuture<Void> removal = null;
+
+        ReferencedEntry(final E entry)
+        {
+            this(entry, 1);
+        }
 
-        ReferencedEntry(E entry)
+        ReferencedEntry(final E entry, final int references)
         {
             this.entry = entry;
+            this.references = references;
         }
 
         /** @return Item */
@@ -48,9 +68,9 @@ public class RefCountMap<K, E>
             return references;
         }
 
-        void addRef()
+        void addRef(final int count)
         {
-            ++references;
+            references += count;
         }
 
         int decRef()
@@ -58,6 +78,21 @@ public class RefCountMap<K, E>
             return --references;
         }
 
+        void markRemoved()
+        {
+            removal = new CompletableFuture<>();
+        }
+
+        boolean isRemoved()
+        {
+            return removal != null;
+        }
+
+        void awaitRemoval()
+        {
+            removal.join();
+        }
+
         @Override
         public String toString()
         {
@@ -65,7 +100,7 @@ public class RefCountMap<K, E>
         }
     }
 
-    final private Map<K, ReferencedEntry<E>> map = new HashMap<>();
+    final private ConcurrentHashMap<K, ReferencedEntry<E>> map = new ConcurrentHashMap<>();
 
     /** Get an item.
      *  On success, a reference count is added to the item.
@@ -74,11 +109,24 @@ public class RefCountMap<K, E>
      */
     public E get(final K key)
     {
-        final ReferencedEntry<E> entry = map.get(key);
-        if (entry == null)
-            return null;
-        entry.addRef();
-        return entry.getEntry();
+        return reference(key, null, 1);
+    }
+
+    /** Get an item, creating it if it does not exist.
+     *
+     *  <p>Either adds a reference count to an existing item,
+     *  or adds a new item with initial reference count of 1.
+     *
+     *  <p>The creator is called while the key is locked,
+     *  so it must be fast and must not access this map.
+     *
+     *  @param key Key for item to get
+     *  @param creator Creates new item for the key
+     *  @return Existing or new item
+     */
+    public E createOrGet(final K key, final Function<K, E> creator)
+    {
+        return reference(key, k -> new ReferencedEntry<E>(creator.apply(k)), 1);
     }
 
     /** Add item to map with initial reference count of 1
@@ -87,9 +135,60 @@ public class RefCountMap<K, E>
      */
     public void put(final K key, final E entry)
     {
-        if (map.containsKey(key))
-            throw new IllegalStateException("Already referenced " + key);
-        map.put(key,  new ReferencedEntry<E>(entry));
+        final ReferencedEntry<E> added = new ReferencedEntry<E>(entry);
+        ReferencedEntry<E> existing;
+        while ((existing = map.putIfAbsent(key, added)) != null)
+        {
+            if (! existing.isRemoved())
+                throw new IllegalStateException("Already referenced " + key);
+            existing.awaitRemoval();
+        }
+    }
+
+    /** Add references to an item
+     *
+     *  <p>If the map already has an item for the key,
+     *  its reference count is increased.
+     *  Otherwise the provided item is added.
+     *
+     *  @param key Item key
+     *  @param entry The item to add if there is none for the key
+     *  @param count Number of references to add
+     *  @return Item in the map
+     */
+    public E addReferences(final K key, final E entry, final int count)
+    {
+        return reference(key, k -> new ReferencedEntry<E>(entry, count), count);
+    }
+
+    /** Add references to an existing item or create a new one
+     *
+     *  <p>If the existing item has been marked as removed,
+     *  await its removal and try again.
+     *
+     *  @param key Item key
+     *  @param creator Creates new entry for the key, <code>null</code> to only reference existing item
+     *  @param count Number of references to add to an existing item
+     *  @return Item in the map or <code>null</code>
+     */
+    private E reference(final K key, final Function<K, ReferencedEntry<E>> creator, final int count)
+    {
+        while (true)
+        {
+            final ReferencedEntry<E> entry = map.compute(key, (k, existing) ->
+            {
+                if (existing == null)
+                    return creator == null ? null : creator.apply(k);
+                if (! existing.isRemoved())
+                    existing.addRef(count);
+                return existing;
+            });
+            if (entry == null)
+                return null;
+            if (! entry.isRemoved())
+                return entry.getEntry();
+            entry.awaitRemoval();
+        }
     }
 
     /** Release an item from the map
@@ -98,18 +197,86 @@ public class RefCountMap<K, E>
      */
     public int release(final K key)
     {
-        final ReferencedEntry<E> entry = map.get(key);
-        if (entry == null)
-            throw new IllegalStateException("No reference found for " + key);
-        final int remaining = entry.decRef();
-        if (remaining <= 0)
-            map.remove(key);
-        return remaining;
+        return release(key, entry -> {});
+    }
+
+    /** Release an item from the map
+     *
+     *  <p>When the last reference is released,
+     *  the item is marked as removed and then passed to
+     *  the <code>on_removal</code> action.
+     *  The action is called after the key has been unlocked,
+     *  so it may take time or access this map.
+     *  An item for the same key can not be added
+     *  until that action completes.
+     *
+     *  @param key Key for item to release
+     *  @param on_removal Action for item that has been removed
+     *  @return Remaining reference counts. 0 if item has been removed from map.
+     */
+    public int release(final K key, final Consumer<E> on_removal)
+    {
+        final int remaining[] = new int[1];
+        final ReferencedEntry<E> entry = map.compute(key, (k, existing) ->
+        {
+            if (existing == null  ||  existing.isRemoved())
+                throw new IllegalStateException("No reference found for " + key);
+            remaining[0] = existing.decRef();
+            if (remaining[0] <= 0)
+                existing.markRemoved();
+            return existing;
+        });
+        if (remaining[0] <= 0)
+        {
+            try
+            {
+                on_removal.accept(entry.getEntry());
+            }
+            finally
+            {
+                map.remove(key, entry);
+                entry.removal.complete(null);
+            }
+        }
+        return remaining[0];
+    }
+
+    /** Remove an item from the map, regardless of its reference count
+     *  @param key Key for item to remove
+     *  @return Removed item with its reference count, or <code>null</code>
+     */
+    public ReferencedEntry<E> remove(final K key)
+    {
+        return map.remove(key);
+    }
+
+    /** Remove an item from the map, regardless of its reference count
+     *  @param key Key for item to remove
+     *  @param entry Item to remove. Item listed under the key is only removed if it's this one.
+     *  @return Removed item with its reference count, or <code>null</code>
+     */
+    public ReferencedEntry<E> remove(final K key, final E entry)
+    {
+        final Object removed[] = new Object[1];
+        map.computeIfPresent(key, (k, existing) ->
+        {
+            if (existing.getEntry() != entry)
+                return existing;
+            removed[0] = existing;
+            return null;
+        });
+        @SuppressWarnings("unchecked")
+        final ReferencedEntry<E> result = (ReferencedEntry<E>) removed[0];
+        return result;
     }
 
-    /** @return Entries in map */
+    /** @return Entries in map, skipping those marked as removed */
     public Collection<ReferencedEntry<E>> getEntries()
     {
-        return Collections.unmodifiableCollection(map.values());
+        final List<ReferencedEntry<E>> entries = new ArrayList<>(map.size());
+        for (ReferencedEntry<E> entry : map.values())
+            if (! entry.isRemoved())
+                entries.add(entry);
+        return entries;
     }
 }
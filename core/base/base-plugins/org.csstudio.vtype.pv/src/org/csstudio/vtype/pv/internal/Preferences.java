@@ -46,4 +46,30 @@ public class Preferences
         return service.getBoolean(PVPlugin.ID, "print_pvpool_content_on_release", false, null);
     }
 
+    public static int getDispatchQueue()
+    {
+        final IPreferencesService service = Platform.getPreferencesService();
+        if (service == null)
+            return 0;
+        return service.getInt(PVPlugin.ID, "dispatch_queue", 0, null);
+    }
+
+    public static double getDispatchMaxRate()
+    {
+        final IPreferencesService service = Platform.getPreferencesService();
+        if (service == null)
+            return 0.0;
+        return service.getDouble(PVPlugin.ID, "dispatch_max_rate", 0.0, null);
+    }
+
+    public static int getPoolCreateThreads()
+    {
+        final int default_threads = Runtime.getRuntime().availableProcessors() * 4;
+        final IPreferencesService service = Platform.getPreferencesService();
+        if (service == null)
+            return default_threads;
+        final int threads = service.getInt(PVPlugin.ID, "pool_create_threads", 0, null);
+        return threads > 0 ? threads : default_threads;
+    }
+
 }
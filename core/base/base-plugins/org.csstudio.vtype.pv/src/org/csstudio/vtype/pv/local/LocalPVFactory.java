@@ -113,14 +113,15 @@ public class LocalPVFactory implements PVFactory
     }
 
     /** Remove local PV from pool
-     *  To be called by LocalPV when closed
+     *  To be called by LocalPV when closed.
+     *  Does not remove a newer PV of the same name.
      *  @param pv {@link LocalPV}
      */
     static void releasePV(final LocalPV pv)
     {
         synchronized (local_pvs)
         {
-            local_pvs.remove(pv.getName());
+            local_pvs.remove(pv.getName(), pv);
         }
     }
 